@@ -0,0 +1,24 @@
+-- One row per beneficiary with claims. Each flag in clm_tbl_flags is set when the beneficiary has
+-- claims in the matching table so that the server can skip querying the other claim tables:
+-- 1 = claim_rx, 2 = claim_professional_nch, 4 = claim_professional_ss,
+-- 8 = claim_institutional_nch, 16 = claim_institutional_ss.
+-- The pipeline sets the flags when it loads claims but never clears them.
+CREATE TABLE idr.beneficiary_claim_availability (
+    bene_sk BIGINT NOT NULL PRIMARY KEY,
+    clm_tbl_flags INT NOT NULL
+);
+
+INSERT INTO idr.beneficiary_claim_availability (bene_sk, clm_tbl_flags)
+SELECT bene_sk, BIT_OR(clm_tbl_flag)
+FROM (
+    SELECT DISTINCT bene_sk, 1 AS clm_tbl_flag FROM idr.claim_rx
+    UNION ALL
+    SELECT DISTINCT bene_sk, 2 FROM idr.claim_professional_nch
+    UNION ALL
+    SELECT DISTINCT bene_sk, 4 FROM idr.claim_professional_ss
+    UNION ALL
+    SELECT DISTINCT bene_sk, 8 FROM idr.claim_institutional_nch
+    UNION ALL
+    SELECT DISTINCT bene_sk, 16 FROM idr.claim_institutional_ss
+) c
+GROUP BY bene_sk;
@@ -162,11 +162,13 @@ public class RdaSchemaMigrationIT {
             .pracLocCity("city name can be very long indeed")
             .sequenceNumber(3L)
             .clmTypInd("1")
+            .lastUpdated(Instant.now())
             .build();
 
     final RdaFissProcCode procCode0 =
         RdaFissProcCode.builder()
             .claimId(claim.getClaimId())
+            .lastUpdated(claim.getLastUpdated())
             .rdaPosition((short) 1)
             .procCode("P")
             .procFlag("F")
@@ -177,6 +179,7 @@ public class RdaSchemaMigrationIT {
     final RdaFissProcCode procCode1 =
         RdaFissProcCode.builder()
             .claimId(claim.getClaimId())
+            .lastUpdated(claim.getLastUpdated())
             .rdaPosition((short) 2)
             .procCode("P")
             .procFlag("G")
@@ -187,6 +190,7 @@ public class RdaSchemaMigrationIT {
     final RdaFissDiagnosisCode diagCode0 =
         RdaFissDiagnosisCode.builder()
             .claimId(claim.getClaimId())
+            .lastUpdated(claim.getLastUpdated())
             .rdaPosition((short) 1)
             .diagCd2("cd2")
             .diagPoaInd("Q")
@@ -196,6 +200,7 @@ public class RdaSchemaMigrationIT {
     final RdaFissDiagnosisCode diagCode1 =
         RdaFissDiagnosisCode.builder()
             .claimId(claim.getClaimId())
+            .lastUpdated(claim.getLastUpdated())
             .rdaPosition((short) 2)
             .diagCd2("cd2")
             .diagPoaInd("R")
@@ -205,6 +210,7 @@ public class RdaSchemaMigrationIT {
     final RdaFissPayer payer0 =
         RdaFissPayer.builder()
             .claimId(claim.getClaimId())
+            .lastUpdated(claim.getLastUpdated())
             .rdaPosition((short) 1)
             .payerType(RdaFissPayer.PayerType.BeneZ)
             .estAmtDue(new BigDecimal("1.23"))
@@ -214,6 +220,7 @@ public class RdaSchemaMigrationIT {
     final RdaFissPayer payer1 =
         RdaFissPayer.builder()
             .claimId(claim.getClaimId())
+            .lastUpdated(claim.getLastUpdated())
             .rdaPosition((short) 2)
             .payerType(RdaFissPayer.PayerType.Insured)
             .estAmtDue(new BigDecimal("4.56"))
@@ -275,6 +282,7 @@ public class RdaSchemaMigrationIT {
             .idrHic("hc")
             .idrClaimType("c")
             .sequenceNumber(3L)
+            .lastUpdated(Instant.now())
             .build();
 
     claim.getDetails().add(quickMcsDetail(claim, 1, "P"));
@@ -347,6 +355,7 @@ public class RdaSchemaMigrationIT {
                 .clmTypInd("1")
                 .sequenceNumber(seqNo++)
                 .mbiRecord(mbiRecord)
+                .lastUpdated(Instant.now())
                 .build();
         entityManager.merge(claim);
       }
@@ -408,6 +417,7 @@ public class RdaSchemaMigrationIT {
                 .idrClaimType("c")
                 .sequenceNumber(seqNo++)
                 .mbiRecord(mbiRecord)
+                .lastUpdated(Instant.now())
                 .build();
         entityManager.merge(claim);
       }
@@ -492,6 +502,7 @@ public class RdaSchemaMigrationIT {
   private RdaMcsDetail quickMcsDetail(RdaMcsClaim claim, int idrDtlNumber, String dtlStatus) {
     return RdaMcsDetail.builder()
         .idrClmHdIcn(claim.getIdrClmHdIcn())
+        .lastUpdated(claim.getLastUpdated())
         .idrDtlNumber((short) idrDtlNumber)
         .idrDtlStatus(dtlStatus)
         .build();
@@ -508,6 +519,7 @@ public class RdaSchemaMigrationIT {
   private RdaMcsDiagnosisCode quickMcsDiagCode(RdaMcsClaim claim, int rdaPosition, String icdType) {
     return RdaMcsDiagnosisCode.builder()
         .idrClmHdIcn(claim.getIdrClmHdIcn())
+        .lastUpdated(claim.getLastUpdated())
         .rdaPosition((short) rdaPosition)
         .idrDiagIcdType(icdType)
         .idrDiagCode(String.valueOf(rdaPosition))
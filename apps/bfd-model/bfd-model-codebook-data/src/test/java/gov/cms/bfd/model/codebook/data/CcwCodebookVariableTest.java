@@ -1,8 +1,15 @@
 package gov.cms.bfd.model.codebook.data;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import gov.cms.bfd.model.codebook.model.Value;
+import gov.cms.bfd.model.codebook.model.ValueGroup;
+import gov.cms.bfd.model.codebook.model.VariableValueIndex;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for {@link gov.cms.bfd.model.codebook.data.CcwCodebookVariable}. */
@@ -26,4 +33,28 @@ public final class CcwCodebookVariableTest {
       assertNotNull(variableEnum.getVariable());
     }
   }
+
+  /**
+   * Verifies that {@link CcwCodebookVariable#getValueIndex()} is only built once and finds exactly
+   * the same {@link Value}s for every code as a scan of the variable's {@link ValueGroup}s.
+   */
+  @Test
+  public void getValueIndex() {
+    for (CcwCodebookVariable variableEnum : CcwCodebookVariable.values()) {
+      VariableValueIndex index = variableEnum.getValueIndex();
+      assertSame(index, variableEnum.getValueIndex());
+      List<ValueGroup> valueGroups = variableEnum.getVariable().getValueGroups().orElse(List.of());
+      for (ValueGroup valueGroup : valueGroups) {
+        for (Value value : valueGroup.getValues()) {
+          List<Value> expected =
+              valueGroups.stream()
+                  .flatMap(g -> g.getValues().stream())
+                  .filter(v -> v.getCode().equals(value.getCode()))
+                  .collect(Collectors.toList());
+          assertEquals(expected, index.getValues(value.getCode()), variableEnum.name());
+        }
+      }
+      assertTrue(index.getValues("not a code").isEmpty());
+    }
+  }
 }
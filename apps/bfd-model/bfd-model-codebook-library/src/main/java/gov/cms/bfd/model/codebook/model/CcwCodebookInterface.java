@@ -16,4 +16,14 @@ public interface CcwCodebookInterface {
    * @return the name
    */
   public String name();
+
+  /**
+   * Gets an index of the variable's coded values for fast lookups by code. The index is built on
+   * first use and cached for the variable.
+   *
+   * @return the index of the variable's coded values
+   */
+  public default VariableValueIndex getValueIndex() {
+    return VariableValueIndex.of(this);
+  }
 }
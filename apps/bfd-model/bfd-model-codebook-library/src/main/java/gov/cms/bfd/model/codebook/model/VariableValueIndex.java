@@ -0,0 +1,69 @@
+package gov.cms.bfd.model.codebook.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable index of the coded {@link Value}s of a {@link Variable}, keyed by {@link
+ * Value#getCode()}. Looking up a code is a single hash lookup rather than a scan of every {@link
+ * ValueGroup}.
+ *
+ * <p>Codes that appear more than once in the codebook are kept with all of their {@link Value}s so
+ * that callers can still detect duplicates exactly as they would by scanning the {@link
+ * ValueGroup}s.
+ */
+public final class VariableValueIndex {
+  /**
+   * The index of each {@link CcwCodebookInterface} constant, built the first time {@link
+   * #of(CcwCodebookInterface)} is called for it.
+   */
+  private static final Map<CcwCodebookInterface, VariableValueIndex> INDEXES =
+      new ConcurrentHashMap<>();
+
+  /** The {@link Value}s matching each code, in codebook order. */
+  private final Map<String, List<Value>> valuesByCode;
+
+  /**
+   * Builds an index of the {@link Value}s of the given {@link Variable}. {@link Value}s without a
+   * code are skipped since they can never match a code.
+   *
+   * @param variable the {@link Variable} to index
+   */
+  public VariableValueIndex(Variable variable) {
+    final Map<String, List<Value>> values = new HashMap<>();
+    for (ValueGroup valueGroup : variable.getValueGroups().orElse(List.of())) {
+      for (Value value : valueGroup.getValues()) {
+        if (value.getCode() != null) {
+          values.computeIfAbsent(value.getCode(), code -> new ArrayList<>(1)).add(value);
+        }
+      }
+    }
+    values.replaceAll((code, matches) -> List.copyOf(matches));
+    valuesByCode = Map.copyOf(values);
+  }
+
+  /**
+   * Gets the index of the given codebook variable. The index is built once per variable and shared
+   * by all callers.
+   *
+   * @param ccwVariable the codebook variable
+   * @return the {@link VariableValueIndex} of the variable's {@link Variable}
+   */
+  public static VariableValueIndex of(CcwCodebookInterface ccwVariable) {
+    return INDEXES.computeIfAbsent(
+        ccwVariable, variable -> new VariableValueIndex(variable.getVariable()));
+  }
+
+  /**
+   * Gets all {@link Value}s having the given code.
+   *
+   * @param code the code to look up, must not be null
+   * @return the matching {@link Value}s in codebook order, empty if there are none
+   */
+  public List<Value> getValues(String code) {
+    return valuesByCode.getOrDefault(code, List.of());
+  }
+}
@@ -0,0 +1,80 @@
+package gov.cms.model.dsl.codegen.library;
+
+import java.util.List;
+import java.util.function.Function;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * {@link RifRecord} implementation that wraps a {@link CSVRecord} produced by a {@link CSVParser}.
+ */
+public final class CsvRifRecord implements RifRecord {
+  /** The header of the parser that produced {@link #record}. */
+  private final RifHeader header;
+
+  /** The wrapped record. */
+  private final CSVRecord record;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param header the header of the parser that produced the record
+   * @param record the record to wrap
+   */
+  private CsvRifRecord(RifHeader header, CSVRecord record) {
+    this.header = header;
+    this.record = record;
+  }
+
+  /**
+   * Creates a function that wraps the records of a parser. The parser's header is converted into a
+   * {@link RifHeader} once and shared by all of the wrapped records.
+   *
+   * @param parser the parser whose records will be wrapped
+   * @return the function
+   */
+  public static Function<CSVRecord, RifRecord> wrapperFor(CSVParser parser) {
+    final RifHeader header = new RifHeader(parser.getHeaderNames());
+    return record -> new CsvRifRecord(header, record);
+  }
+
+  @Override
+  public RifHeader getHeader() {
+    return header;
+  }
+
+  @Override
+  public long getRecordNumber() {
+    return record.getRecordNumber();
+  }
+
+  @Override
+  public int size() {
+    return record.size();
+  }
+
+  @Override
+  public String get(int index) {
+    return record.get(index);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Delegates to {@link CSVRecord#get(String)}.
+   */
+  @Override
+  public String get(String label) {
+    return record.get(label);
+  }
+
+  @Override
+  public List<String> toList() {
+    return record.toList();
+  }
+
+  @Override
+  public String toString() {
+    return record.toString();
+  }
+}
@@ -0,0 +1,128 @@
+package gov.cms.model.dsl.codegen.library;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+/**
+ * Resolves the RIF column labels used by a generated parser to their positions in a file's header.
+ * Generated code refers to columns by their position in {@link #labels} and the position of each
+ * label within a {@link RifRecord} is only looked up once per {@link RifHeader}, and so once per
+ * file, rather than once per field of every record.
+ *
+ * <p>Instances are shared by all threads using a generated parser class. Only the most recently
+ * seen header is cached. If threads parse different files at the same time the indexes are simply
+ * resolved again, which is no more expensive than looking up every field by label.
+ */
+public class RifColumnIndex {
+  /** The column labels, in the order generated code refers to them. */
+  private final List<String> labels;
+
+  /** The most recently resolved header. */
+  private volatile ResolvedHeader resolvedHeader;
+
+  /**
+   * Constructs a new instance for the given labels.
+   *
+   * @param labels the column labels, in the order generated code refers to them
+   */
+  public RifColumnIndex(String... labels) {
+    this.labels = List.of(labels);
+  }
+
+  /**
+   * Accessor for the label of a column.
+   *
+   * @param column position of the label within this index
+   * @return the label
+   */
+  public String getLabel(int column) {
+    return labels.get(column);
+  }
+
+  /**
+   * Returns the value of a column in the given record. Columns that could not be resolved fall back
+   * to {@link RifRecord#get(String)} so that errors for missing columns are exactly the same as
+   * with a lookup by label.
+   *
+   * @param record the record to get the value from
+   * @param column position of the column's label within this index
+   * @return the value, possibly empty
+   */
+  public String get(RifRecord record, int column) {
+    final int index = indexesFor(record)[column];
+    if (index >= 0 && index < record.size()) {
+      return record.get(index);
+    }
+    return record.get(labels.get(column));
+  }
+
+  /**
+   * Tests whether a column in the given record is empty without requiring the record to create a
+   * {@link String} for a non-empty value. Errors for missing columns are the same as {@link
+   * #get(RifRecord, int)}.
+   *
+   * @param record the record to check
+   * @param column position of the column's label within this index
+   * @return true if the value is empty
+   */
+  public boolean isEmpty(RifRecord record, int column) {
+    final int index = indexesFor(record)[column];
+    if (index >= 0 && index < record.size()) {
+      return record.isEmpty(index);
+    }
+    return record.get(labels.get(column)).isEmpty();
+  }
+
+  /**
+   * Looks up the positions of all labels in the header of the file the record was read from.
+   *
+   * @param record the record whose header should be used
+   * @return the positions, with -1 for any label not in the header
+   */
+  private int[] indexesFor(RifRecord record) {
+    final RifHeader header = record.getHeader();
+    ResolvedHeader resolved = resolvedHeader;
+    if (resolved == null || resolved.header.get() != header) {
+      resolved = new ResolvedHeader(header, resolveIndexes(header));
+      resolvedHeader = resolved;
+    }
+    return resolved.indexes;
+  }
+
+  /**
+   * Maps every label to its position in the header.
+   *
+   * @param header the header of a file
+   * @return the positions, with -1 for any label not in the header
+   */
+  private int[] resolveIndexes(RifHeader header) {
+    final int[] indexes = new int[labels.size()];
+    for (int column = 0; column < indexes.length; ++column) {
+      indexes[column] = header.indexOf(labels.get(column));
+    }
+    return indexes;
+  }
+
+  /**
+   * Label positions for one file's header. The header is only weakly referenced so that caching it
+   * does not keep a finished file's header alive.
+   */
+  private static class ResolvedHeader {
+    /** The header that was resolved. */
+    private final WeakReference<RifHeader> header;
+
+    /** The position of each label in the header. */
+    private final int[] indexes;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param header the header that was resolved
+     * @param indexes the position of each label in the header
+     */
+    private ResolvedHeader(RifHeader header, int[] indexes) {
+      this.header = new WeakReference<>(header);
+      this.indexes = indexes;
+    }
+  }
+}
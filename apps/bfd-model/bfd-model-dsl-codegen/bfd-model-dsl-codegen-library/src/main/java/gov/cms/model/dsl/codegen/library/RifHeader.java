@@ -0,0 +1,69 @@
+package gov.cms.model.dsl.codegen.library;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The column labels from the header line of a RIF file. A single instance is shared by every {@link
+ * RifRecord} read from the file. Labels are mapped to positions exactly like the header of an
+ * Apache Commons CSV {@code CSVParser}: a label that appears more than once maps to its last
+ * position.
+ */
+public final class RifHeader {
+  /** The labels in the order they appear in the header line. */
+  private final List<String> names;
+
+  /** The position of each distinct label. */
+  private final Map<String, Integer> indexes;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param names the labels in the order they appear in the header line
+   */
+  public RifHeader(List<String> names) {
+    this.names = List.copyOf(names);
+    final Map<String, Integer> indexes = new LinkedHashMap<>();
+    for (int index = 0; index < names.size(); ++index) {
+      indexes.put(names.get(index), index);
+    }
+    this.indexes = Collections.unmodifiableMap(indexes);
+  }
+
+  /**
+   * Accessor for the labels.
+   *
+   * @return the labels in the order they appear in the header line
+   */
+  public List<String> getNames() {
+    return names;
+  }
+
+  /**
+   * Accessor for the distinct labels.
+   *
+   * @return the distinct labels in the order they first appear in the header line
+   */
+  public Set<String> getLabels() {
+    return indexes.keySet();
+  }
+
+  /**
+   * Looks up the position of a label.
+   *
+   * @param label the label to look up
+   * @return the position of the label, or -1 if the header does not contain it
+   */
+  public int indexOf(String label) {
+    final Integer index = indexes.get(label);
+    return index == null ? -1 : index;
+  }
+
+  @Override
+  public String toString() {
+    return names.toString();
+  }
+}
@@ -4,46 +4,46 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import java.util.List;
 import java.util.Objects;
-import org.apache.commons.csv.CSVRecord;
 
 /**
- * Wrapper around RIF data contained in {@link CSVRecord} objects. Generated code calls these
- * methods to access individual RIF fields by name or index.
+ * Wrapper around RIF data contained in {@link RifRecord} objects. Generated code calls these
+ * methods to access individual RIF fields by name or index. Generated parsers use the {@link
+ * RifColumnIndex} based methods so that column labels are only resolved once per file.
  */
 public class RifObjectWrapper {
   /**
    * The first record contains the data for the claim object and any additional lines contain data
    * for claim lines.
    */
-  private final List<CSVRecord> lines;
+  private final List<RifRecord> lines;
 
   /**
    * Contains the CSV header for the object. Used for determining whether or not a given column
    * label is valid.
    */
-  private final CSVRecord header;
+  private final RifRecord header;
 
   /**
-   * Constructs a new object for the given {@link CSVRecord}s.
+   * Constructs a new object for the given {@link RifRecord}s.
    *
-   * @param csvRecords one or more records containing data for the object
+   * @param rifRecords one or more records containing data for the object
    */
-  public RifObjectWrapper(List<CSVRecord> csvRecords) {
+  public RifObjectWrapper(List<RifRecord> rifRecords) {
     // Verify the inputs.
-    Objects.requireNonNull(csvRecords);
-    if (csvRecords.isEmpty()) {
+    Objects.requireNonNull(rifRecords);
+    if (rifRecords.isEmpty()) {
       throw new IllegalArgumentException();
     }
-    lines = csvRecords;
+    lines = rifRecords;
     header = lines.get(0);
   }
 
   /**
    * Simplified constructor for cases where this is only a single line of data.
    *
-   * @param singleLine one line of CSV data
+   * @param singleLine one line of RIF data
    */
-  public RifObjectWrapper(CSVRecord singleLine) {
+  public RifObjectWrapper(RifRecord singleLine) {
     lines = ImmutableList.of(singleLine);
     header = singleLine;
   }
@@ -77,6 +77,35 @@ public class RifObjectWrapper {
     return !Strings.isNullOrEmpty(header.get(label));
   }
 
+  /**
+   * Tests whether a value exists for a column resolved through a {@link RifColumnIndex}. Behaves
+   * exactly like {@link #hasValue(String)} for the column's label.
+   *
+   * @param columns the column index of the generated parser
+   * @param column position of the column's label within {@code columns}
+   * @return true if the value is non-null and non-empty
+   */
+  public boolean hasValue(RifColumnIndex columns, int column) {
+    return !columns.isEmpty(header, column);
+  }
+
+  /**
+   * Returns a (possibly empty) value for a column resolved through a {@link RifColumnIndex}.
+   * Behaves exactly like {@link #getValue(String, String)} for the column's label.
+   *
+   * @param columns the column index of the generated parser
+   * @param column position of the column's label within {@code columns}
+   * @param defaultValue the default value
+   * @return the value of the column
+   */
+  public String getValue(RifColumnIndex columns, int column, String defaultValue) {
+    var value = columns.get(header, column);
+    if (value != null && value.isEmpty() && defaultValue != null) {
+      value = defaultValue;
+    }
+    return value;
+  }
+
   /**
    * Returns a (possibly empty) value for {@code label}.
    *
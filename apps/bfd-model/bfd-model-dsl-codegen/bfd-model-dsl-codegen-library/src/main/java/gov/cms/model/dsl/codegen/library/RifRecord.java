@@ -0,0 +1,91 @@
+package gov.cms.model.dsl.codegen.library;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of data from a RIF file. Values are accessed either by position or by the label of their
+ * column in the file's {@link RifHeader}. Lookups by label fail with the same exceptions and
+ * messages as Apache Commons CSV's {@code CSVRecord.get(String)} regardless of which reader
+ * produced the record.
+ */
+public interface RifRecord {
+  /**
+   * Accessor for the header of the file this record was read from.
+   *
+   * @return the header
+   */
+  RifHeader getHeader();
+
+  /**
+   * Accessor for the 1 based number of this record within its file, not counting the header line.
+   *
+   * @return the record number
+   */
+  long getRecordNumber();
+
+  /**
+   * Accessor for the number of values in this record.
+   *
+   * @return the number of values
+   */
+  int size();
+
+  /**
+   * Returns the value at a position.
+   *
+   * @param index 0 based position of the value
+   * @return the value, possibly empty
+   * @throws IndexOutOfBoundsException if the record has no value at that position
+   */
+  String get(int index);
+
+  /**
+   * Tests whether the value at a position is empty. Implementations can override this to avoid
+   * creating a {@link String} just to check its length.
+   *
+   * @param index 0 based position of the value
+   * @return true if the value is empty
+   * @throws IndexOutOfBoundsException if the record has no value at that position
+   */
+  default boolean isEmpty(int index) {
+    return get(index).isEmpty();
+  }
+
+  /**
+   * Returns the value of the column with a given label.
+   *
+   * @param label the label of the column
+   * @return the value, possibly empty
+   * @throws IllegalArgumentException if the header does not contain the label or this record is too
+   *     short to contain the column
+   */
+  default String get(String label) {
+    final RifHeader header = getHeader();
+    final int index = header.indexOf(label);
+    if (index < 0) {
+      throw new IllegalArgumentException(
+          String.format("Mapping for %s not found, expected one of %s", label, header.getLabels()));
+    }
+    if (index >= size()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Index for header '%s' is %d but CSVRecord only has %d values!",
+              label, index, size()));
+    }
+    return get(index);
+  }
+
+  /**
+   * Returns all values of this record.
+   *
+   * @return the values in order
+   */
+  default List<String> toList() {
+    final List<String> values = new ArrayList<>(size());
+    for (int index = 0; index < size(); ++index) {
+      values.add(get(index));
+    }
+    return values;
+  }
+}
@@ -0,0 +1,91 @@
+package gov.cms.model.dsl.codegen.library;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link RifColumnIndex} and the methods of {@link RifObjectWrapper} using it. */
+public class RifColumnIndexTest {
+  /** Format matching the one used to parse RIF files. */
+  private static final CSVFormat FORMAT =
+      CSVFormat.EXCEL.builder().setHeader().setDelimiter('|').get();
+
+  /**
+   * Verifies that values are found by position regardless of the order of the columns in the file,
+   * and that the positions are resolved again for a file with a different header.
+   *
+   * @throws IOException if parsing fails
+   */
+  @Test
+  public void testValuesMatchLabelLookup() throws IOException {
+    final var columns = new RifColumnIndex("B", "A");
+    for (String data : List.of("A|B\n1|\n", "B|A\n|1\n")) {
+      final RifRecord record = parse(data).get(0);
+      final var wrapper = new RifObjectWrapper(record);
+      assertEquals(wrapper.getValue("A", null), wrapper.getValue(columns, 1, null));
+      assertEquals(wrapper.getValue("B", "x"), wrapper.getValue(columns, 0, "x"));
+      assertTrue(wrapper.hasValue(columns, 1));
+      assertFalse(wrapper.hasValue(columns, 0));
+    }
+  }
+
+  /**
+   * Verifies that a label appearing more than once in the header resolves to the same column as a
+   * lookup by label, which is its last position.
+   *
+   * @throws IOException if parsing fails
+   */
+  @Test
+  public void testDuplicateLabelsMatchLabelLookup() throws IOException {
+    final var columns = new RifColumnIndex("A");
+    final RifRecord record = parse("A|B|A\n1||3\n").get(0);
+    assertEquals("3", record.get("A"));
+    assertEquals(record.get("A"), columns.get(record, 0));
+    assertEquals(List.of("A", "B"), List.copyOf(record.getHeader().getLabels()));
+  }
+
+  /**
+   * Verifies that missing columns and short records fail exactly like a lookup by label.
+   *
+   * @throws IOException if parsing fails
+   */
+  @Test
+  public void testErrorsMatchLabelLookup() throws IOException {
+    final var columns = new RifColumnIndex("A", "C");
+    final var records = parse("A|B\n1|2\n3\n");
+
+    final var missing = assertThrows(IllegalArgumentException.class, () -> records.get(0).get("C"));
+    assertEquals(
+        missing.getMessage(),
+        assertThrows(IllegalArgumentException.class, () -> columns.get(records.get(0), 1))
+            .getMessage());
+
+    final var shortRecord = new RifColumnIndex("B");
+    final var tooShort =
+        assertThrows(IllegalArgumentException.class, () -> records.get(1).get("B"));
+    assertEquals(
+        tooShort.getMessage(),
+        assertThrows(IllegalArgumentException.class, () -> shortRecord.get(records.get(1), 0))
+            .getMessage());
+  }
+
+  /**
+   * Parses CSV data with a header line and wraps the records with {@link CsvRifRecord}.
+   *
+   * @param data the CSV data
+   * @return the records
+   * @throws IOException if parsing fails
+   */
+  private static List<RifRecord> parse(String data) throws IOException {
+    try (CSVParser parser = CSVParser.parse(data, FORMAT)) {
+      return parser.stream().map(CsvRifRecord.wrapperFor(parser)).toList();
+    }
+  }
+}
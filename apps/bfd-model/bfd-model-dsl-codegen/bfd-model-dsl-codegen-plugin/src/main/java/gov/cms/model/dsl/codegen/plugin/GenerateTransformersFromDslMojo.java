@@ -13,6 +13,7 @@ import com.squareup.javapoet.TypeSpec;
 import gov.cms.model.dsl.codegen.library.DataTransformer;
 import gov.cms.model.dsl.codegen.library.EnumStringExtractor;
 import gov.cms.model.dsl.codegen.library.ExternalTransformation;
+import gov.cms.model.dsl.codegen.library.RifColumnIndex;
 import gov.cms.model.dsl.codegen.plugin.accessor.GrpcGetter;
 import gov.cms.model.dsl.codegen.plugin.accessor.OptionalSetter;
 import gov.cms.model.dsl.codegen.plugin.accessor.RifGetter;
@@ -52,6 +53,9 @@ import org.apache.maven.project.MavenProject;
  * <ul>
  *   <li>Private final field declarations section containing one field for each {@link
  *       FieldTransformer} that requires one.
+ *   <li>For RIF mappings, a private static final {@link RifColumnIndex} field listing every RIF
+ *       column the class reads. Generated code refers to columns by their position in this field so
+ *       that column labels are resolved once per file rather than once per field of every record.
  *   <li>Private final field declaration for a lambda function to convert strings into hashed
  *       strings if one is required by the {@link TransformationBean}.
  *   <li>Private final field declaration for each {@link ExternalTransformation} lambda function
@@ -202,12 +206,16 @@ public class GenerateTransformersFromDslMojo extends AbstractMojo {
     classBuilder.addMethod(constructor.build());
     classBuilder.addMethod(createSimplifiedTransformMessageMethod(mapping));
     classBuilder.addMethod(createTransformRootMessageMethod(mapping));
+    final RifGetter rifGetter = new RifGetter();
     for (MappingBean aMapping : allMappings) {
-      classBuilder.addMethod(createTransformMethodForMapping(aMapping));
+      classBuilder.addMethod(createTransformMethodForMapping(aMapping, rifGetter));
       if (aMapping.hasArrayTransformations()) {
         classBuilder.addMethod(createTransformArraysMethodForMapping(root, aMapping));
       }
     }
+    if (rifGetter.hasColumns()) {
+      classBuilder.addField(rifGetter.createColumnIndexField());
+    }
     return classBuilder.build();
   }
 
@@ -470,9 +478,11 @@ public class GenerateTransformersFromDslMojo extends AbstractMojo {
    * message may contain.
    *
    * @param mapping {@link MappingBean} for message/entity to be processed
+   * @param rifGetter {@link RifGetter} shared by all mappings of the generated class, used if the
+   *     mapping's source is RIF data
    * @return the {@link MethodSpec}
    */
-  private MethodSpec createTransformMethodForMapping(MappingBean mapping)
+  private MethodSpec createTransformMethodForMapping(MappingBean mapping, RifGetter rifGetter)
       throws MojoExecutionException {
     final TypeName messageClassType = ModelUtil.classType(mapping.getMessageClassName());
     final TypeName entityClassType = ModelUtil.classType(mapping.getEntityClassName());
@@ -490,9 +500,7 @@ public class GenerateTransformersFromDslMojo extends AbstractMojo {
                 FieldTransformer.DEST_VAR,
                 entityClassType);
     final var fromCodeGenerator =
-        mapping.getSourceType() == MappingBean.SourceType.RifCsv
-            ? RifGetter.Instance
-            : GrpcGetter.Instance;
+        mapping.getSourceType() == MappingBean.SourceType.RifCsv ? rifGetter : GrpcGetter.Instance;
     final var toCodeGenerator =
         mapping.getNullableFieldAccessorType() == MappingBean.NullableFieldAccessorType.Standard
             ? StandardSetter.Instance
@@ -1,19 +1,74 @@
 package gov.cms.model.dsl.codegen.plugin.accessor;
 
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import gov.cms.model.dsl.codegen.library.RifColumnIndex;
 import gov.cms.model.dsl.codegen.library.RifObjectWrapper;
 import gov.cms.model.dsl.codegen.plugin.model.TransformationBean;
 import gov.cms.model.dsl.codegen.plugin.transformer.FieldTransformer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
+import javax.lang.model.element.Modifier;
 
 /**
  * Implementation of {@link Getter} that requires the message objects to be {@link RifObjectWrapper}
  * objects. Also requires that the RIF header label must be specified as the {@code from} in the
  * transformation.
+ *
+ * <p>Rather than looking up every field by its label, the generated code refers to each column by
+ * its position in a static {@link RifColumnIndex} field of the generated class. That index resolves
+ * each label to its position in the file's header once per file. One instance of this class must be
+ * used for all of the code generated for a single class, and {@link #createColumnIndexField} must
+ * be called once all of that code has been generated.
  */
 public class RifGetter implements Getter {
-  /** Sharable singleton instance. */
-  public static final Getter Instance = new RifGetter();
+  /** Name of the static {@link RifColumnIndex} field in the generated class. */
+  public static final String COLUMN_INDEX_FIELD = "RIF_COLUMNS";
+
+  /** Position of each column label referenced by the generated code so far. */
+  private final Map<String, Integer> columns = new LinkedHashMap<>();
+
+  /**
+   * Tests whether any code referring to a column has been generated.
+   *
+   * @return true if {@link #createColumnIndexField} needs to be called
+   */
+  public boolean hasColumns() {
+    return !columns.isEmpty();
+  }
+
+  /**
+   * Accessor for the column labels in the order of their positions in the generated {@link
+   * RifColumnIndex}.
+   *
+   * @return the column labels
+   */
+  public List<String> getColumnLabels() {
+    return List.copyOf(columns.keySet());
+  }
+
+  /**
+   * Creates the static {@link RifColumnIndex} field referenced by all of the code generated by this
+   * instance.
+   *
+   * @return the {@link FieldSpec}
+   */
+  public FieldSpec createColumnIndexField() {
+    final CodeBlock labels =
+        columns.keySet().stream()
+            .map(label -> CodeBlock.of("$S", label))
+            .collect(CodeBlock.joining(",\n"));
+    return FieldSpec.builder(
+            RifColumnIndex.class,
+            COLUMN_INDEX_FIELD,
+            Modifier.PRIVATE,
+            Modifier.STATIC,
+            Modifier.FINAL)
+        .initializer("new $T(\n$L)", RifColumnIndex.class, labels)
+        .build();
+  }
 
   /**
    * {@inheritDoc}
@@ -25,7 +80,8 @@ public class RifGetter implements Getter {
   public CodeBlock createHasRef(TransformationBean transformation) {
     return transformationPropertyCodeBlock(
         transformation,
-        fieldName -> CodeBlock.of("() -> $L.hasValue($S)", FieldTransformer.SOURCE_VAR, fieldName));
+        fieldName ->
+            CodeBlock.of("() -> $L.hasValue($L)", FieldTransformer.SOURCE_VAR, column(fieldName)));
   }
 
   /**
@@ -38,7 +94,8 @@ public class RifGetter implements Getter {
   public CodeBlock createHasCall(TransformationBean transformation) {
     return transformationPropertyCodeBlock(
         transformation,
-        fieldName -> CodeBlock.of("$L.hasValue($S)", FieldTransformer.SOURCE_VAR, fieldName));
+        fieldName ->
+            CodeBlock.of("$L.hasValue($L)", FieldTransformer.SOURCE_VAR, column(fieldName)));
   }
 
   /**
@@ -53,9 +110,9 @@ public class RifGetter implements Getter {
         transformation,
         fieldName ->
             CodeBlock.of(
-                "() -> $L.getValue($S, $S)",
+                "() -> $L.getValue($L, $S)",
                 FieldTransformer.SOURCE_VAR,
-                fieldName,
+                column(fieldName),
                 transformation.getDefaultValue()));
   }
 
@@ -71,12 +128,25 @@ public class RifGetter implements Getter {
         transformation,
         fieldName ->
             CodeBlock.of(
-                "$L.getValue($S, $S)",
+                "$L.getValue($L, $S)",
                 FieldTransformer.SOURCE_VAR,
-                fieldName,
+                column(fieldName),
                 transformation.getDefaultValue()));
   }
 
+  /**
+   * Registers a column label (if it has not been already) and generates the arguments that refer to
+   * it in the {@link RifColumnIndex} based methods of {@link RifObjectWrapper}. The label is
+   * included as a comment to keep the generated code readable.
+   *
+   * @param label the RIF column label
+   * @return {@link CodeBlock} containing the column index field and the label's position
+   */
+  private CodeBlock column(String label) {
+    final int position = columns.computeIfAbsent(label, l -> columns.size());
+    return CodeBlock.of("$L, $L /* $L */", COLUMN_INDEX_FIELD, position, label);
+  }
+
   /**
    * Helper method to parse the {@code from} of the specified {@link TransformationBean} and call a
    * lambda that generates code to get the value of the property. Only simple property names are
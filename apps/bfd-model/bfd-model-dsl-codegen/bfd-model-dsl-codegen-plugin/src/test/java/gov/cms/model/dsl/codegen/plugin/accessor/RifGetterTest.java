@@ -1,9 +1,12 @@
 package gov.cms.model.dsl.codegen.plugin.accessor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import gov.cms.model.dsl.codegen.plugin.model.TransformationBean;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for {@link RifGetter}. */
@@ -13,8 +16,10 @@ public class RifGetterTest {
   public void testHasRef() {
     final var simple = TransformationBean.builder().from("x").build();
     final var nested = TransformationBean.builder().from("x.y").build();
-    assertEquals("() -> from.hasValue(\"x\")", RifGetter.Instance.createHasRef(simple).toString());
-    assertThrows(IllegalArgumentException.class, () -> RifGetter.Instance.createHasRef(nested));
+    final var getter = new RifGetter();
+    assertEquals(
+        "() -> from.hasValue(RIF_COLUMNS, 0 /* x */)", getter.createHasRef(simple).toString());
+    assertThrows(IllegalArgumentException.class, () -> getter.createHasRef(nested));
   }
 
   /** Verifies output of {@link RifGetter#createHasCall}. */
@@ -22,8 +27,9 @@ public class RifGetterTest {
   public void testHasCall() {
     final var simple = TransformationBean.builder().from("x").build();
     final var nested = TransformationBean.builder().from("x.y").build();
-    assertEquals("from.hasValue(\"x\")", RifGetter.Instance.createHasCall(simple).toString());
-    assertThrows(IllegalArgumentException.class, () -> RifGetter.Instance.createHasCall(nested));
+    final var getter = new RifGetter();
+    assertEquals("from.hasValue(RIF_COLUMNS, 0 /* x */)", getter.createHasCall(simple).toString());
+    assertThrows(IllegalArgumentException.class, () -> getter.createHasCall(nested));
   }
 
   /** Verifies output of {@link RifGetter#createGetRef}. */
@@ -31,9 +37,11 @@ public class RifGetterTest {
   public void testGetRef() {
     final var simple = TransformationBean.builder().from("x").build();
     final var nested = TransformationBean.builder().from("x.y").build();
+    final var getter = new RifGetter();
     assertEquals(
-        "() -> from.getValue(\"x\", null)", RifGetter.Instance.createGetRef(simple).toString());
-    assertThrows(IllegalArgumentException.class, () -> RifGetter.Instance.createGetRef(nested));
+        "() -> from.getValue(RIF_COLUMNS, 0 /* x */, null)",
+        getter.createGetRef(simple).toString());
+    assertThrows(IllegalArgumentException.class, () -> getter.createGetRef(nested));
   }
 
   /** Verifies output of {@link RifGetter#createGetCall}. */
@@ -41,7 +49,32 @@ public class RifGetterTest {
   public void testGetCall() {
     final var simple = TransformationBean.builder().from("x").build();
     final var nested = TransformationBean.builder().from("x.y").build();
-    assertEquals("from.getValue(\"x\", null)", RifGetter.Instance.createGetCall(simple).toString());
-    assertThrows(IllegalArgumentException.class, () -> RifGetter.Instance.createGetCall(nested));
+    final var getter = new RifGetter();
+    assertEquals(
+        "from.getValue(RIF_COLUMNS, 0 /* x */, null)", getter.createGetCall(simple).toString());
+    assertThrows(IllegalArgumentException.class, () -> getter.createGetCall(nested));
+  }
+
+  /**
+   * Verifies that each column label is assigned a single position in the order it is first used and
+   * that {@link RifGetter#createColumnIndexField} lists the labels in that order.
+   */
+  @Test
+  public void testColumnIndexField() {
+    final var getter = new RifGetter();
+    assertFalse(getter.hasColumns());
+
+    getter.createHasCall(TransformationBean.builder().from("x").build());
+    getter.createGetCall(TransformationBean.builder().from("y").defaultValue("0").build());
+    assertEquals(
+        "from.getValue(RIF_COLUMNS, 0 /* x */, null)",
+        getter.createGetCall(TransformationBean.builder().from("x").build()).toString());
+
+    assertTrue(getter.hasColumns());
+    assertEquals(List.of("x", "y"), getter.getColumnLabels());
+    assertEquals(
+        "private static final gov.cms.model.dsl.codegen.library.RifColumnIndex RIF_COLUMNS"
+            + " = new gov.cms.model.dsl.codegen.library.RifColumnIndex(\n\"x\",\n\"y\");\n",
+        getter.createColumnIndexField().toString());
   }
 }
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
 import jakarta.persistence.Table;
+import java.time.Instant;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -38,4 +39,11 @@ public class McsTag {
   @Id
   @Column(name = "clm_id", nullable = false)
   String claim;
+
+  /**
+   * Time the associated claim was last updated. Part of the table's partition key, so that the tag
+   * lives in the same monthly partition as its claim.
+   */
+  @Column(name = "last_updated", nullable = false)
+  private Instant lastUpdated;
 }
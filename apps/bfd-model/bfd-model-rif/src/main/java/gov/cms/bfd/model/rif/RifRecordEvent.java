@@ -1,8 +1,8 @@
 package gov.cms.bfd.model.rif;
 
+import gov.cms.model.dsl.codegen.library.RifRecord;
 import java.util.List;
 import lombok.Getter;
-import org.apache.commons.csv.CSVRecord;
 
 /**
  * Models a single beneficiary/claim/drug event that was contained in a {@link RifFile}. Please note
@@ -16,8 +16,8 @@ public final class RifRecordEvent<R extends RifRecordBase> {
   /** The {@link RifFileEvent} that this is a child of. */
   private final RifFileEvent fileEvent;
 
-  /** The {@link CSVRecord}s that this was built from / represents. */
-  private final List<CSVRecord> rawCsvRecords;
+  /** The {@link RifRecord}s that this was built from / represents. */
+  private final List<RifRecord> rawRecords;
 
   /** The RIF {@link RecordAction} indicated for the getRecord(). */
   private final RecordAction recordAction;
@@ -32,25 +32,25 @@ public final class RifRecordEvent<R extends RifRecordBase> {
    * Constructs a new {@link RifRecordEvent} instance.
    *
    * @param fileEvent the value to use for getFileEvent()
-   * @param rawCsvRecords the value to use for getRawCsvRecords()
+   * @param rawRecords the value to use for getRawRecords()
    * @param recordAction the value to use for getRecordAction()
    * @param beneficiaryId the beneficiary id to use for getBeneficiaryId()
    * @param record the value to use for getRecord()
    */
   public RifRecordEvent(
       RifFileEvent fileEvent,
-      List<CSVRecord> rawCsvRecords,
+      List<RifRecord> rawRecords,
       RecordAction recordAction,
       Long beneficiaryId,
       R record) {
     if (fileEvent == null) throw new IllegalArgumentException();
-    if (rawCsvRecords == null) throw new IllegalArgumentException();
+    if (rawRecords == null) throw new IllegalArgumentException();
     if (recordAction == null) throw new IllegalArgumentException();
     if (beneficiaryId == null) throw new IllegalArgumentException();
     if (record == null) throw new IllegalArgumentException();
 
     this.fileEvent = fileEvent;
-    this.rawCsvRecords = rawCsvRecords;
+    this.rawRecords = rawRecords;
     this.recordAction = recordAction;
     this.beneficiaryId = beneficiaryId;
     this.record = record;
@@ -62,8 +62,8 @@ public final class RifRecordEvent<R extends RifRecordBase> {
     StringBuilder builder = new StringBuilder();
     builder.append("RifRecordEvent [fileEvent=");
     builder.append(fileEvent);
-    builder.append(", rawCsvRecords=");
-    builder.append(rawCsvRecords);
+    builder.append(", rawRecords=");
+    builder.append(rawRecords);
     builder.append(", recordAction=");
     builder.append(recordAction);
     builder.append(", beneficiaryId=");
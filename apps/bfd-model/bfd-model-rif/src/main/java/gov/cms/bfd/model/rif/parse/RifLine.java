@@ -0,0 +1,93 @@
+package gov.cms.bfd.model.rif.parse;
+
+import gov.cms.model.dsl.codegen.library.RifHeader;
+import gov.cms.model.dsl.codegen.library.RifRecord;
+import java.nio.charset.Charset;
+import java.util.Objects;
+
+/**
+ * One record read by a {@link RifLineReader}. The (already unescaped) bytes of every field are
+ * stored back to back in a single array, and a {@link String} is only decoded for a field when it
+ * is asked for. Empty fields never create a {@link String} at all, so the many unused and empty
+ * columns of a RIF record cost nothing beyond their bytes.
+ *
+ * <p>Instances are immutable and can be held onto after the reader has moved on, for example while
+ * a group of claim lines is collected.
+ */
+public final class RifLine implements RifRecord {
+  /** The header of the file this record was read from. */
+  private final RifHeader header;
+
+  /** The 1 based number of this record, not counting the header line. */
+  private final long recordNumber;
+
+  /** Used to decode field values into {@link String}s. */
+  private final Charset charset;
+
+  /** Bytes of all fields of the record, back to back. */
+  private final byte[] data;
+
+  /** Offset within {@link #data} just past the end of each field. */
+  private final int[] fieldEnds;
+
+  /**
+   * Initializes an instance. The arrays are not copied.
+   *
+   * @param header the header of the file this record was read from
+   * @param recordNumber the 1 based number of this record, not counting the header line
+   * @param charset used to decode field values into {@link String}s
+   * @param data bytes of all fields of the record, back to back
+   * @param fieldEnds offset within {@code data} just past the end of each field
+   */
+  RifLine(RifHeader header, long recordNumber, Charset charset, byte[] data, int[] fieldEnds) {
+    this.header = header;
+    this.recordNumber = recordNumber;
+    this.charset = charset;
+    this.data = data;
+    this.fieldEnds = fieldEnds;
+  }
+
+  @Override
+  public RifHeader getHeader() {
+    return header;
+  }
+
+  @Override
+  public long getRecordNumber() {
+    return recordNumber;
+  }
+
+  @Override
+  public int size() {
+    return fieldEnds.length;
+  }
+
+  @Override
+  public String get(int index) {
+    final int start = start(index);
+    final int end = fieldEnds[index];
+    return start == end ? "" : new String(data, start, end - start, charset);
+  }
+
+  @Override
+  public boolean isEmpty(int index) {
+    return start(index) == fieldEnds[index];
+  }
+
+  @Override
+  public String toString() {
+    return "RifLine [recordNumber=" + recordNumber + ", values=" + toList() + "]";
+  }
+
+  /**
+   * Finds the offset of the first byte of a field.
+   *
+   * @param index 0 based position of the field
+   * @return the offset within {@link #data}
+   * @throws IndexOutOfBoundsException if the record has no field at that position
+   */
+  private int start(int index) {
+    Objects.checkIndex(index, fieldEnds.length);
+    return index == 0 ? 0 : fieldEnds[index - 1];
+  }
+}
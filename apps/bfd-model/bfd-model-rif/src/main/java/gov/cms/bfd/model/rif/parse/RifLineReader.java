@@ -0,0 +1,516 @@
+package gov.cms.bfd.model.rif.parse;
+
+import gov.cms.model.dsl.codegen.library.RifHeader;
+import gov.cms.model.dsl.codegen.library.RifRecord;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Reads pipe delimited RIF data one record at a time as {@link RifLine}s. The data is read in large
+ * blocks into a direct {@link ByteBuffer} and tokenized byte by byte into a reused scratch buffer,
+ * so there is no {@link java.io.Reader} decoding, no per field {@link StringBuilder} and no {@link
+ * String} for a field unless a caller asks for its value.
+ *
+ * <p>The first record of the data is the header. Like {@link org.apache.commons.csv.CSVParser} this
+ * class can be iterated once to get the remaining records, and read failures during iteration are
+ * thrown as {@link UncheckedIOException}s.
+ *
+ * <p>The tokenizer produces exactly the same fields as the {@link org.apache.commons.csv.CSVParser}
+ * created by {@link RifParsingUtils#createCsvParser}, including its handling of a UTF-8 BOM, {@code
+ * \|} sequences, quoted fields, backslash escapes, empty lines and the various line endings.
+ * Because it works on bytes it only supports character sets in which every byte below 0x80 is the
+ * ASCII character and never part of a longer sequence; see {@link #isSupportedCharset}.
+ */
+public final class RifLineReader implements Iterable<RifRecord>, Closeable {
+  /** Default size of the read buffer. */
+  public static final int DEFAULT_BUFFER_SIZE = 4 * 1024 * 1024;
+
+  /** Initial size of {@link #data}. */
+  private static final int INITIAL_DATA_SIZE = 8192;
+
+  /** Initial size of {@link #fieldEnds}. */
+  private static final int INITIAL_FIELD_COUNT = 256;
+
+  /** Character sets that can be tokenized byte by byte. */
+  private static final Set<Charset> SUPPORTED_CHARSETS =
+      Set.of(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.US_ASCII);
+
+  /** The UTF-8 byte order mark. */
+  private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+  /** Value returned when there is no more data. */
+  private static final int EOF = -1;
+
+  /** Value of the look ahead fields when they hold nothing. */
+  private static final int NONE = Integer.MIN_VALUE;
+
+  /** Separates fields. */
+  private static final int DELIMITER = '|';
+
+  /** Starts an escape sequence. */
+  private static final int ESCAPE = '\\';
+
+  /** Encloses quoted fields. */
+  private static final int QUOTE = '"';
+
+  /** Carriage return. */
+  private static final int CR = '\r';
+
+  /** Line feed. */
+  private static final int LF = '\n';
+
+  /** Tab. */
+  private static final int TAB = '\t';
+
+  /** Backspace. */
+  private static final int BACKSPACE = '\b';
+
+  /** Form feed. */
+  private static final int FF = '\f';
+
+  /** Source of the data. */
+  private final ReadableByteChannel channel;
+
+  /** Holds data read from {@link #channel} that has not been consumed yet. */
+  private final ByteBuffer buffer;
+
+  /** Used to decode field values into {@link String}s. */
+  private final Charset charset;
+
+  /** The header read from the first record, or null if the data is empty. */
+  private final RifHeader header;
+
+  /** Bytes of all fields of the record being read, back to back. Reused for every record. */
+  private byte[] data = new byte[INITIAL_DATA_SIZE];
+
+  /** Number of bytes used in {@link #data}. */
+  private int length;
+
+  /** Offset within {@link #data} just past the end of each field. Reused for every record. */
+  private int[] fieldEnds = new int[INITIAL_FIELD_COUNT];
+
+  /** Number of fields in the record being read. */
+  private int fieldCount;
+
+  /** Number of the most recently read record. The header is not counted. */
+  private long recordNumber;
+
+  /**
+   * Raw byte that followed a backslash which did not start a {@code \|} sequence, or {@link #NONE}.
+   */
+  private int rawLookAhead = NONE;
+
+  /** Byte read ahead by {@link #peek()}, or {@link #NONE}. */
+  private int lookAhead = NONE;
+
+  /** Set once {@link #channel} has returned end of stream. */
+  private boolean endOfStream;
+
+  /** Set once the last record has been returned. */
+  private boolean finished;
+
+  /**
+   * Initializes an instance using a {@link #DEFAULT_BUFFER_SIZE} buffer and reads the header.
+   *
+   * @param stream source of the data, closed when this reader is closed
+   * @param charset the {@link Charset} of the data, must be supported
+   * @throws IOException if reading the header fails
+   */
+  public RifLineReader(InputStream stream, Charset charset) throws IOException {
+    this(stream, charset, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Initializes an instance and reads the header. The stream is not closed if this fails.
+   *
+   * @param stream source of the data, closed when this reader is closed
+   * @param charset the {@link Charset} of the data, must be supported
+   * @param bufferSize size of the read buffer
+   * @throws IOException if reading the header fails
+   */
+  public RifLineReader(InputStream stream, Charset charset, int bufferSize) throws IOException {
+    if (!isSupportedCharset(charset)) {
+      throw new IllegalArgumentException("unsupported charset: " + charset);
+    }
+    if (bufferSize < UTF8_BOM.length) {
+      throw new IllegalArgumentException("bufferSize too small: " + bufferSize);
+    }
+    this.charset = charset;
+    channel = Channels.newChannel(stream);
+    buffer = ByteBuffer.allocateDirect(bufferSize).flip();
+    skipBom();
+    header = readFields() ? new RifHeader(decodeFields()) : null;
+  }
+
+  /**
+   * Determines whether data in a {@link Charset} can be read by this class.
+   *
+   * @param charset the {@link Charset} to check
+   * @return true if the {@link Charset} is supported
+   */
+  public static boolean isSupportedCharset(Charset charset) {
+    return SUPPORTED_CHARSETS.contains(charset);
+  }
+
+  /**
+   * Accessor for the header.
+   *
+   * @return the header, or null if the data is empty
+   */
+  public RifHeader getHeader() {
+    return header;
+  }
+
+  /**
+   * Reads the next record.
+   *
+   * @return the record, or null if there are no more records
+   * @throws IOException if reading fails or the data ends in the middle of an escape sequence
+   */
+  public RifLine readLine() throws IOException {
+    if (header == null || !readFields()) {
+      return null;
+    }
+    recordNumber += 1;
+    return new RifLine(
+        header,
+        recordNumber,
+        charset,
+        Arrays.copyOf(data, length),
+        Arrays.copyOf(fieldEnds, fieldCount));
+  }
+
+  /**
+   * Returns an iterator over the remaining records.
+   *
+   * @return the iterator
+   */
+  @Override
+  public Iterator<RifRecord> iterator() {
+    if (header == null) {
+      return Collections.emptyIterator();
+    }
+    return new Iterator<>() {
+      /** The record to return from the next call to {@link #next}, if already read. */
+      private RifLine next;
+
+      @Override
+      public boolean hasNext() {
+        if (next == null) {
+          try {
+            next = readLine();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+        return next != null;
+      }
+
+      @Override
+      public RifRecord next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final RifLine line = next;
+        next = null;
+        return line;
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Reads the fields of the next record into {@link #data} and {@link #fieldEnds}.
+   *
+   * @return true if a record was read, false if there are no more records
+   * @throws IOException if reading fails or the data ends in the middle of an escape sequence
+   */
+  private boolean readFields() throws IOException {
+    if (finished) {
+      return false;
+    }
+    length = 0;
+    fieldCount = 0;
+    int c = read();
+    if (c == EOF) {
+      finished = true;
+      return false;
+    }
+    while (true) {
+      c = c == QUOTE ? readQuotedField() : readSimpleField(c);
+      endField();
+      if (c != DELIMITER) {
+        finished = c == EOF;
+        return true;
+      }
+      c = read();
+    }
+  }
+
+  /**
+   * Decodes every field of the record in {@link #data} into a {@link String}.
+   *
+   * @return the field values, in order
+   */
+  private List<String> decodeFields() {
+    final List<String> values = new ArrayList<>(fieldCount);
+    int start = 0;
+    for (int field = 0; field < fieldCount; ++field) {
+      values.add(new String(data, start, fieldEnds[field] - start, charset));
+      start = fieldEnds[field];
+    }
+    return values;
+  }
+
+  /**
+   * Adds a byte to the field being read, growing {@link #data} if necessary.
+   *
+   * @param c the byte
+   */
+  private void append(int c) {
+    if (length == data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    data[length++] = (byte) c;
+  }
+
+  /** Ends the field being read. */
+  private void endField() {
+    if (fieldCount == fieldEnds.length) {
+      fieldEnds = Arrays.copyOf(fieldEnds, fieldEnds.length * 2);
+    }
+    fieldEnds[fieldCount++] = length;
+  }
+
+  /**
+   * Adds the bytes of an unquoted field to {@link #data}.
+   *
+   * @param first the first byte of the field
+   * @return the byte that ended the field: {@link #DELIMITER}, {@link #LF} for any line ending, or
+   *     {@link #EOF}
+   * @throws IOException if reading fails
+   */
+  private int readSimpleField(int first) throws IOException {
+    int c = first;
+    while (true) {
+      if (isEndOfLine(c)) {
+        return LF;
+      } else if (c == EOF || c == DELIMITER) {
+        return c;
+      } else if (c == ESCAPE) {
+        readEscape();
+      } else {
+        append(c);
+      }
+      c = read();
+    }
+  }
+
+  /**
+   * Adds the bytes of a quoted field to {@link #data}. The opening quote has already been read.
+   * Anything between the closing quote and the end of the field is kept, as is an unterminated
+   * field at the end of the data.
+   *
+   * @return the byte that ended the field: {@link #DELIMITER}, {@link #LF} for any line ending, or
+   *     {@link #EOF}
+   * @throws IOException if reading fails
+   */
+  private int readQuotedField() throws IOException {
+    while (true) {
+      final int c = read();
+      if (c == QUOTE) {
+        if (peek() == QUOTE) {
+          append(read());
+        } else {
+          return readTrailingData();
+        }
+      } else if (c == ESCAPE) {
+        readEscape();
+      } else if (c == EOF) {
+        return EOF;
+      } else {
+        append(c);
+      }
+    }
+  }
+
+  /**
+   * Adds any bytes between the closing quote of a quoted field and the end of the field to {@link
+   * #data} as they are, without processing escape sequences.
+   *
+   * @return the byte that ended the field: {@link #DELIMITER}, {@link #LF} for any line ending, or
+   *     {@link #EOF}
+   * @throws IOException if reading fails
+   */
+  private int readTrailingData() throws IOException {
+    while (true) {
+      final int c = read();
+      if (c == DELIMITER || c == EOF) {
+        return c;
+      } else if (isEndOfLine(c)) {
+        return LF;
+      }
+      append(c);
+    }
+  }
+
+  /**
+   * Adds the result of an escape sequence to {@link #data}. The escape byte has already been read.
+   *
+   * @throws IOException if reading fails or the data ends after the escape byte
+   */
+  private void readEscape() throws IOException {
+    final int c = read();
+    switch (c) {
+      case 'r' -> append(CR);
+      case 'n' -> append(LF);
+      case 't' -> append(TAB);
+      case 'b' -> append(BACKSPACE);
+      case 'f' -> append(FF);
+      case CR, LF, FF, TAB, BACKSPACE, DELIMITER, ESCAPE, QUOTE -> append(c);
+      case EOF -> throw new IOException("EOF while processing escape sequence");
+      default -> {
+        append(ESCAPE);
+        append(c);
+      }
+    }
+  }
+
+  /**
+   * Determines whether a byte ends a line, consuming the {@link #LF} of a {@code CRLF} pair.
+   *
+   * @param c the byte to check
+   * @return true if the byte is {@link #CR} or {@link #LF}
+   * @throws IOException if reading fails
+   */
+  private boolean isEndOfLine(int c) throws IOException {
+    if (c == CR && peek() == LF) {
+      read();
+    }
+    return c == CR || c == LF;
+  }
+
+  /**
+   * Returns the next byte without consuming it.
+   *
+   * @return the byte or {@link #EOF}
+   * @throws IOException if reading fails
+   */
+  private int peek() throws IOException {
+    if (lookAhead == NONE) {
+      lookAhead = readReplaced();
+    }
+    return lookAhead;
+  }
+
+  /**
+   * Consumes the next byte.
+   *
+   * @return the byte or {@link #EOF}
+   * @throws IOException if reading fails
+   */
+  private int read() throws IOException {
+    if (lookAhead != NONE) {
+      final int c = lookAhead;
+      lookAhead = NONE;
+      return c;
+    }
+    return readReplaced();
+  }
+
+  /**
+   * Consumes the next byte after replacing every {@code \|} sequence with a plain {@code |}. Like
+   * the {@link org.apache.poi.util.ReplacingInputStream} used by {@link
+   * RifParsingUtils#createCsvParser} the byte following a backslash is never itself checked for the
+   * start of a sequence, so {@code \\|} is left unchanged.
+   *
+   * @return the byte or {@link #EOF}
+   * @throws IOException if reading fails
+   */
+  private int readReplaced() throws IOException {
+    int c;
+    if (rawLookAhead != NONE) {
+      c = rawLookAhead;
+      rawLookAhead = NONE;
+    } else {
+      c = readRaw();
+      if (c == ESCAPE) {
+        final int next = readRaw();
+        if (next == DELIMITER) {
+          c = DELIMITER;
+        } else {
+          rawLookAhead = next;
+        }
+      }
+    }
+    return c;
+  }
+
+  /**
+   * Consumes the next byte of the underlying data.
+   *
+   * @return the byte or {@link #EOF}
+   * @throws IOException if reading fails
+   */
+  private int readRaw() throws IOException {
+    if (!buffer.hasRemaining() && !fill(1)) {
+      return EOF;
+    }
+    return buffer.get() & 0xff;
+  }
+
+  /**
+   * Skips the UTF-8 byte order mark if the data starts with one.
+   *
+   * @throws IOException if reading fails
+   */
+  private void skipBom() throws IOException {
+    fill(UTF8_BOM.length);
+    if (buffer.remaining() >= UTF8_BOM.length
+        && buffer.get(buffer.position()) == UTF8_BOM[0]
+        && buffer.get(buffer.position() + 1) == UTF8_BOM[1]
+        && buffer.get(buffer.position() + 2) == UTF8_BOM[2]) {
+      buffer.position(buffer.position() + UTF8_BOM.length);
+    }
+  }
+
+  /**
+   * Reads from {@link #channel} until at least the given number of bytes are available in {@link
+   * #buffer} or the end of the data is reached.
+   *
+   * @param minimum the number of bytes wanted
+   * @return true if at least that many bytes are available
+   * @throws IOException if reading fails
+   */
+  private boolean fill(int minimum) throws IOException {
+    if (buffer.remaining() < minimum && !endOfStream) {
+      buffer.compact();
+      try {
+        while (buffer.position() < minimum && !endOfStream) {
+          endOfStream = channel.read(buffer) < 0;
+        }
+      } finally {
+        buffer.flip();
+      }
+    }
+    return buffer.remaining() >= minimum;
+  }
+}
@@ -91,6 +91,28 @@ public final class RifParsingUtils {
     }
   }
 
+  /**
+   * Construct a {@link RifLineReader}, which produces records with the same values as {@link
+   * #createCsvParser(RifFile)} but tokenizes the file's bytes directly.
+   *
+   * @param file the {@link RifFile} to parse, its {@link Charset} must be supported by {@link
+   *     RifLineReader#isSupportedCharset}
+   * @return a {@link RifLineReader} for the specified {@link RifFile}
+   */
+  public static RifLineReader createRifLineReader(RifFile file) {
+    final InputStream fileStream = file.open();
+    try {
+      return new RifLineReader(fileStream, file.getCharset());
+    } catch (IOException e) {
+      try {
+        fileStream.close();
+      } catch (IOException closeException) {
+        e.addSuppressed(closeException);
+      }
+      throw new InvalidRifFileFormatException("Invalid RIF header record", e);
+    }
+  }
+
   /**
    * Parse a {@link String} from a {@link String}.
    *
@@ -0,0 +1,42 @@
+/*
+ * Narrow copy of the Part D contract assignments in ccw.beneficiary_monthly used to page through
+ * the members of a contract for a month. The primary key covers every column so those searches
+ * are answered from the index alone, and rows are only written when a beneficiary's contract for
+ * a month changes. The pipeline keeps this table in step with ccw.beneficiary_monthly.
+ */
+CREATE TABLE IF NOT EXISTS ccw.beneficiary_partd_contract_months (
+    partd_contract_number_id character varying(5) NOT NULL,
+    year_month date NOT NULL,
+    bene_id bigint NOT NULL,
+    PRIMARY KEY (partd_contract_number_id, year_month, bene_id)
+);
+
+INSERT INTO ccw.beneficiary_partd_contract_months (partd_contract_number_id, year_month, bene_id)
+SELECT partd_contract_number_id, year_month, bene_id
+FROM ccw.beneficiary_monthly
+WHERE partd_contract_number_id IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+DO
+$do$
+BEGIN
+-- Skip running locally because these roles don't exist
+IF EXISTS (
+	SELECT FROM pg_catalog.pg_roles
+	WHERE rolname = 'svc_bfd_pipeline_1') THEN
+
+	ALTER TABLE ccw.beneficiary_partd_contract_months ENABLE ROW LEVEL SECURITY;
+
+	DROP POLICY IF EXISTS allow_bene_partd_contract_months ON ccw.beneficiary_partd_contract_months;
+
+	CREATE POLICY allow_bene_partd_contract_months ON ccw.beneficiary_partd_contract_months TO svc_bfd_pipeline_1, rds_iam
+		USING (true);
+
+	-- Defer to the policy on ccw.beneficiaries rather than repeating its list of blocked benes
+	DROP POLICY IF EXISTS block_bene_partd_contract_months ON ccw.beneficiary_partd_contract_months;
+
+	CREATE POLICY block_bene_partd_contract_months ON ccw.beneficiary_partd_contract_months FOR SELECT TO svc_bfd_server_1
+		USING (EXISTS (SELECT 1 FROM ccw.beneficiaries b WHERE b.bene_id = beneficiary_partd_contract_months.bene_id));
+END IF;
+END
+$do$;
@@ -0,0 +1,185 @@
+/*
+Range partitions the RDA claim tables, their line item tables and their tag
+tables by LAST_UPDATED, one partition per calendar month, so that
+RdaFissClaimCleanupJob / RdaMcsClaimCleanupJob can remove a whole expired month
+with DETACH PARTITION ... CONCURRENTLY and DROP TABLE instead of deleting the
+claims row by row.
+
+- Partitions are named <table>_yYYYYmMM (e.g. fiss_claims_y2025m01). The
+  cleanup jobs create the partitions for upcoming months themselves and only
+  manage partitions following that convention.
+- The line item and tag tables get a LAST_UPDATED column holding the value of
+  their claim, so that every row of a claim lives in the same month as the
+  claim and the partitions of a month can be dropped together.
+- Claims older than the retention period (synthetic claims are never removed)
+  go into the <table>_history partition, which covers everything before the
+  first monthly partition. It is not a DEFAULT partition, because PostgreSQL
+  refuses DETACH PARTITION ... CONCURRENTLY on tables with a default
+  partition. The cleanup jobs never drop it; its expired claims are removed by
+  the row delete path.
+- A key on a partitioned table has to include the partition key, so the
+  primary keys and the foreign keys to the claim tables now include
+  LAST_UPDATED. The foreign keys cascade updates (the pipeline moves a claim
+  to the current month whenever it is updated) and are deferred until commit
+  since Hibernate inserts new line items before it updates their claim.
+- DETACH PARTITION and DROP TABLE require ownership of the tables, so the
+  pipeline has to run as (a member of) the role owning them.
+*/
+
+CREATE FUNCTION rda.partition_by_last_updated(
+    table_name text, key_columns text, claim_table_name text, claim_key_column text)
+RETURNS void AS $$
+DECLARE
+    old_table_name text := table_name || '_unpartitioned';
+    first_month date := date_trunc('month', (now() AT TIME ZONE 'UTC') - interval '60 days')::date;
+    last_month date := (date_trunc('month', now() AT TIME ZONE 'UTC') + interval '2 months')::date;
+    month_start date;
+    column_list text;
+BEGIN
+    EXECUTE format('ALTER TABLE rda.%I RENAME TO %I', table_name, old_table_name);
+    EXECUTE format(
+        'ALTER TABLE rda.%I ADD COLUMN IF NOT EXISTS last_updated timestamp with time zone',
+        old_table_name);
+
+    EXECUTE format(
+        'CREATE TABLE rda.%I (LIKE rda.%I INCLUDING DEFAULTS INCLUDING CONSTRAINTS '
+        'INCLUDING STORAGE INCLUDING COMMENTS) PARTITION BY RANGE (last_updated)',
+        table_name, old_table_name);
+    EXECUTE format(
+        'CREATE TABLE rda.%I PARTITION OF rda.%I FOR VALUES FROM (MINVALUE) TO (%L)',
+        table_name || '_history', table_name, first_month::text || ' 00:00:00+00');
+    FOR month_start IN
+        SELECT generate_series(first_month, last_month, interval '1 month')::date
+    LOOP
+        EXECUTE format(
+            'CREATE TABLE rda.%I PARTITION OF rda.%I FOR VALUES FROM (%L) TO (%L)',
+            table_name || '_' || to_char(month_start, '"y"YYYY"m"MM'),
+            table_name,
+            month_start::text || ' 00:00:00+00',
+            (month_start + interval '1 month')::date::text || ' 00:00:00+00');
+    END LOOP;
+
+    SELECT string_agg(format('%I', column_name), ', ' ORDER BY ordinal_position)
+    INTO column_list
+    FROM information_schema.columns
+    WHERE table_schema = 'rda' AND columns.table_name = old_table_name
+        AND column_name <> 'last_updated';
+
+    IF claim_table_name IS NULL THEN
+        -- a claim table, the few claims that never had a LAST_UPDATED expire 60 days from now
+        EXECUTE format(
+            'INSERT INTO rda.%I (%s, last_updated) '
+            'SELECT %s, coalesce(last_updated, now()) FROM rda.%I',
+            table_name, column_list, column_list, old_table_name);
+    ELSE
+        -- a line item or tag table, copies LAST_UPDATED from the (already partitioned) claim
+        EXECUTE format(
+            'INSERT INTO rda.%I (%s, last_updated) '
+            'SELECT %s, p.last_updated FROM rda.%I c JOIN rda.%I p ON p.%I = c.%I',
+            table_name, column_list,
+            (SELECT string_agg('c.' || x, ', ') FROM unnest(string_to_array(column_list, ', ')) x),
+            old_table_name, claim_table_name, claim_key_column, split_part(key_columns, ',', 1));
+    END IF;
+
+    EXECUTE format('DROP TABLE rda.%I', old_table_name);
+    EXECUTE format(
+        'ALTER TABLE rda.%I ADD PRIMARY KEY (%s, last_updated)', table_name, key_columns);
+
+    IF claim_table_name IS NOT NULL THEN
+        EXECUTE format(
+            'ALTER TABLE rda.%I ADD CONSTRAINT %I FOREIGN KEY (%s, last_updated) '
+            'REFERENCES rda.%I (%I, last_updated) ON DELETE CASCADE ON UPDATE CASCADE '
+            'DEFERRABLE INITIALLY DEFERRED',
+            table_name, table_name || '_parent', split_part(key_columns, ',', 1),
+            claim_table_name, claim_key_column);
+    END IF;
+
+    EXECUTE format('ANALYZE rda.%I', table_name);
+END;
+$$ LANGUAGE plpgsql;
+
+-- =================================================
+-- FISS
+-- =================================================
+ALTER TABLE rda.fiss_audit_trails DROP CONSTRAINT IF EXISTS fiss_audit_trails_parent;
+ALTER TABLE rda.fiss_diagnosis_codes DROP CONSTRAINT IF EXISTS fiss_diagnosis_codes_parent;
+ALTER TABLE rda.fiss_payers DROP CONSTRAINT IF EXISTS fiss_payers_parent;
+ALTER TABLE rda.fiss_proc_codes DROP CONSTRAINT IF EXISTS fiss_proc_codes_parent;
+ALTER TABLE rda.fiss_revenue_lines DROP CONSTRAINT IF EXISTS fiss_revenue_lines_parent;
+ALTER TABLE rda.fiss_tags DROP CONSTRAINT IF EXISTS fiss_tags_clm_id_fkey;
+
+SELECT rda.partition_by_last_updated('fiss_claims', 'claim_id', NULL, NULL);
+
+ALTER TABLE rda.fiss_claims
+    ADD CONSTRAINT fiss_claims_mbi_id_fkey FOREIGN KEY (mbi_id) REFERENCES rda.mbi_cache(mbi_id);
+CREATE INDEX fiss_claims_last_updated_idx ON rda.fiss_claims USING btree (last_updated);
+CREATE INDEX fiss_claims_mbi_id_idx ON rda.fiss_claims USING btree (mbi_id);
+CREATE INDEX fiss_claims_api_source_idx ON rda.fiss_claims USING btree (api_source);
+
+SELECT rda.partition_by_last_updated('fiss_audit_trails', 'claim_id, rda_position', 'fiss_claims', 'claim_id');
+SELECT rda.partition_by_last_updated('fiss_diagnosis_codes', 'claim_id, rda_position', 'fiss_claims', 'claim_id');
+SELECT rda.partition_by_last_updated('fiss_payers', 'claim_id, rda_position', 'fiss_claims', 'claim_id');
+SELECT rda.partition_by_last_updated('fiss_proc_codes', 'claim_id, rda_position', 'fiss_claims', 'claim_id');
+SELECT rda.partition_by_last_updated('fiss_revenue_lines', 'claim_id, rda_position', 'fiss_claims', 'claim_id');
+SELECT rda.partition_by_last_updated('fiss_tags', 'clm_id, code', 'fiss_claims', 'claim_id');
+
+ALTER TABLE rda.fiss_tags RENAME CONSTRAINT fiss_tags_parent TO fiss_tags_clm_id_fkey;
+CREATE INDEX fiss_tags_clm_id_idx ON rda.fiss_tags(clm_id);
+
+-- =================================================
+-- MCS
+-- =================================================
+ALTER TABLE rda.mcs_adjustments DROP CONSTRAINT IF EXISTS mcs_adjustments_parent;
+ALTER TABLE rda.mcs_audits DROP CONSTRAINT IF EXISTS mcs_audits_parent;
+ALTER TABLE rda.mcs_details DROP CONSTRAINT IF EXISTS mcs_details_parent;
+ALTER TABLE rda.mcs_diagnosis_codes DROP CONSTRAINT IF EXISTS mcs_diagnosis_codes_parent;
+ALTER TABLE rda.mcs_locations DROP CONSTRAINT IF EXISTS mcs_locations_parent;
+ALTER TABLE rda.mcs_tags DROP CONSTRAINT IF EXISTS mcs_tags_clm_id_fkey;
+
+SELECT rda.partition_by_last_updated('mcs_claims', 'idr_clm_hd_icn', NULL, NULL);
+
+ALTER TABLE rda.mcs_claims
+    ADD CONSTRAINT mcs_claims_mbi_id_fkey FOREIGN KEY (mbi_id) REFERENCES rda.mbi_cache(mbi_id);
+CREATE INDEX mcs_claims_last_updated_idx ON rda.mcs_claims USING btree (last_updated);
+CREATE INDEX mcs_claims_mbi_id_idx ON rda.mcs_claims USING btree (mbi_id);
+CREATE INDEX mcs_claims_api_source_idx ON rda.mcs_claims USING btree (api_source);
+
+SELECT rda.partition_by_last_updated('mcs_adjustments', 'idr_clm_hd_icn, rda_position', 'mcs_claims', 'idr_clm_hd_icn');
+SELECT rda.partition_by_last_updated('mcs_audits', 'idr_clm_hd_icn, rda_position', 'mcs_claims', 'idr_clm_hd_icn');
+SELECT rda.partition_by_last_updated('mcs_details', 'idr_clm_hd_icn, idr_dtl_number', 'mcs_claims', 'idr_clm_hd_icn');
+SELECT rda.partition_by_last_updated('mcs_diagnosis_codes', 'idr_clm_hd_icn, rda_position', 'mcs_claims', 'idr_clm_hd_icn');
+SELECT rda.partition_by_last_updated('mcs_locations', 'idr_clm_hd_icn, rda_position', 'mcs_claims', 'idr_clm_hd_icn');
+SELECT rda.partition_by_last_updated('mcs_tags', 'clm_id, code', 'mcs_claims', 'idr_clm_hd_icn');
+
+ALTER TABLE rda.mcs_tags RENAME CONSTRAINT mcs_tags_parent TO mcs_tags_clm_id_fkey;
+CREATE INDEX mcs_tags_clm_id_idx ON rda.mcs_tags(clm_id);
+
+DROP FUNCTION rda.partition_by_last_updated(text, text, text, text);
+
+-- =================================================
+-- Privileges, as granted to the original tables
+-- =================================================
+GRANT SELECT ON TABLE
+    rda.fiss_claims, rda.fiss_audit_trails, rda.fiss_diagnosis_codes, rda.fiss_payers,
+    rda.fiss_proc_codes, rda.fiss_revenue_lines,
+    rda.mcs_claims, rda.mcs_adjustments, rda.mcs_audits, rda.mcs_details,
+    rda.mcs_diagnosis_codes, rda.mcs_locations
+    TO paca_reader_role;
+GRANT SELECT,INSERT,DELETE,UPDATE ON TABLE
+    rda.fiss_claims, rda.fiss_audit_trails, rda.fiss_diagnosis_codes, rda.fiss_payers,
+    rda.fiss_proc_codes, rda.fiss_revenue_lines,
+    rda.mcs_claims, rda.mcs_adjustments, rda.mcs_audits, rda.mcs_details,
+    rda.mcs_diagnosis_codes, rda.mcs_locations
+    TO paca_writer_role;
+GRANT ALL ON TABLE
+    rda.fiss_claims, rda.fiss_audit_trails, rda.fiss_diagnosis_codes, rda.fiss_payers,
+    rda.fiss_proc_codes, rda.fiss_revenue_lines,
+    rda.mcs_claims, rda.mcs_adjustments, rda.mcs_audits, rda.mcs_details,
+    rda.mcs_diagnosis_codes, rda.mcs_locations
+    TO paca_migrator_role;
+GRANT ALL ON TABLE
+    rda.fiss_claims, rda.fiss_audit_trails, rda.fiss_diagnosis_codes, rda.fiss_payers,
+    rda.fiss_proc_codes, rda.fiss_revenue_lines,
+    rda.mcs_claims, rda.mcs_adjustments, rda.mcs_audits, rda.mcs_details,
+    rda.mcs_diagnosis_codes, rda.mcs_locations
+    TO rds_superuser;
@@ -0,0 +1,177 @@
+package gov.cms.bfd.model.rif.parse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.cms.model.dsl.codegen.library.RifRecord;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link RifLineReader} and {@link RifLine}. */
+public class RifLineReaderTest {
+  /** Unusual RIF data that must be read exactly like the {@link CSVParser} reads it. */
+  private static final List<String> EDGE_CASES =
+      List.of(
+          "",
+          "A|B",
+          "A|B\n",
+          "A|B\n1|2",
+          "A|B\n1|2\n",
+          "A|B\r\n1|2\r\n3|4",
+          "A|B\r1|2\r3|4\r",
+          "A|B\n\n1|2\n\n",
+          "A|B\n1|\n|2\n|\n",
+          "A|B|A\n1|2|3\n",
+          "\uFEFFA|B\n1|2\n",
+          "A|B\n1\\|2|3\n",
+          "A|B\n1\\\\|2\n",
+          "A|B\na\\nb|c\\rd\\te\\bf\\fg\n",
+          "A|B\na\\\"b|c\\xd\n",
+          "A|B\na\\\nb|c\n",
+          "A|B\n\"x|y\"|\"a\"\"b\"\n",
+          "A|B\n\"x\ny\"|z\n",
+          "A|B\n\"x\"trailing\\n|z\n",
+          "A|B\nx\"y\"|z\n",
+          "A|B\n\"unterminated|x\n",
+          "A|B\n\u00e9\u00e8|\u4e2d\u6587\n",
+          "A|B\n1|2|3|4\n5\n");
+
+  /**
+   * Verifies that unusual data produces records with the same values, numbers and header as the
+   * {@link CSVParser}. A tiny buffer is used so that every sequence is also split across buffer
+   * refills.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void edgeCasesMatchCsvParser() throws IOException {
+    for (String data : EDGE_CASES) {
+      final byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+      final List<CSVRecord> expected;
+      final List<String> expectedHeader;
+      try (CSVParser parser = createCsvParser(bytes)) {
+        expected = parser.getRecords();
+        expectedHeader = parser.getHeaderNames();
+      }
+      try (RifLineReader reader = createReader(bytes, 3)) {
+        final List<RifRecord> actual = new ArrayList<>();
+        reader.forEach(actual::add);
+        assertEquals(expected.size(), actual.size(), data);
+        for (int i = 0; i < expected.size(); ++i) {
+          assertEquals(expected.get(i).toList(), actual.get(i).toList(), data);
+          assertEquals(expected.get(i).getRecordNumber(), actual.get(i).getRecordNumber(), data);
+          assertEquals(expectedHeader, actual.get(i).getHeader().getNames(), data);
+          assertEquals(
+              List.copyOf(expected.get(i).getParser().getHeaderMap().keySet()),
+              List.copyOf(actual.get(i).getHeader().getLabels()),
+              data);
+          for (String label : expectedHeader) {
+            assertEquals(getOrError(expected.get(i), label), getOrError(actual.get(i), label));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Verifies that {@link RifLine#isEmpty} agrees with the value of each field and that records
+   * remain valid after the reader has moved on to later records.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void linesOwnTheirValues() throws IOException {
+    final byte[] bytes = "A|B|C\n1||3\n|x|\n".getBytes(StandardCharsets.UTF_8);
+    try (RifLineReader reader = createReader(bytes, RifLineReader.DEFAULT_BUFFER_SIZE)) {
+      final RifLine first = reader.readLine();
+      final RifLine second = reader.readLine();
+      assertNull(reader.readLine());
+
+      assertEquals(List.of("1", "", "3"), first.toList());
+      assertFalse(first.isEmpty(0));
+      assertTrue(first.isEmpty(1));
+      assertEquals(List.of("", "x", ""), second.toList());
+      assertTrue(second.isEmpty(0));
+      assertFalse(second.isEmpty(1));
+      assertEquals("x", second.get("B"));
+      assertThrows(IndexOutOfBoundsException.class, () -> second.get(3));
+    }
+  }
+
+  /**
+   * Verifies that data ending in the middle of an escape sequence fails like the {@link CSVParser}.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void escapeAtEndOfDataFails() throws IOException {
+    final byte[] bytes = "A|B\n1|2\\".getBytes(StandardCharsets.UTF_8);
+    try (RifLineReader reader = createReader(bytes, RifLineReader.DEFAULT_BUFFER_SIZE)) {
+      final var error = assertThrows(UncheckedIOException.class, () -> reader.iterator().hasNext());
+      assertEquals("EOF while processing escape sequence", error.getCause().getMessage());
+    }
+  }
+
+  /**
+   * Creates a {@link CSVParser} for the given data the same way RIF files are normally parsed.
+   *
+   * @param bytes the data to read
+   * @return the parser
+   */
+  private static CSVParser createCsvParser(byte[] bytes) {
+    return RifParsingUtils.createCsvParser(
+        RifParsingUtils.CSV_FORMAT, new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Creates a {@link RifLineReader} for the given data.
+   *
+   * @param bytes the data to read
+   * @param bufferSize the read buffer size
+   * @return the reader
+   * @throws IOException pass through
+   */
+  private static RifLineReader createReader(byte[] bytes, int bufferSize) throws IOException {
+    return new RifLineReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8, bufferSize);
+  }
+
+  /**
+   * Looks up a value by label in a {@link CSVRecord}, returning the error message if that fails.
+   *
+   * @param record the record
+   * @param label the label of the value
+   * @return the value or error message
+   */
+  private static String getOrError(CSVRecord record, String label) {
+    try {
+      return record.get(label);
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  /**
+   * Looks up a value by label in a {@link RifRecord}, returning the error message if that fails.
+   *
+   * @param record the record
+   * @param label the label of the value
+   * @return the value or error message
+   */
+  private static String getOrError(RifRecord record, String label) {
+    try {
+      return record.get(label);
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+}
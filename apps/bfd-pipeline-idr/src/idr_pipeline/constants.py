@@ -14,6 +14,15 @@ CLAIM_INSTITUTIONAL_NCH_TABLE = "idr.claim_institutional_nch"
 CLAIM_INSTITUTIONAL_ITEM_NCH_TABLE = "idr.claim_item_institutional_nch"
 CLAIM_INSTITUTIONAL_SS_TABLE = "idr.claim_institutional_ss"
 CLAIM_INSTITUTIONAL_ITEM_SS_TABLE = "idr.claim_item_institutional_ss"
+BENEFICIARY_CLAIM_AVAILABILITY_TABLE = "idr.beneficiary_claim_availability"
+
+# Flags of beneficiary_claim_availability.clm_tbl_flags, one for each claim table.
+# These must match the flags used by the v3 server.
+CLAIM_RX_AVAILABILITY_FLAG = 1
+CLAIM_PROFESSIONAL_NCH_AVAILABILITY_FLAG = 2
+CLAIM_PROFESSIONAL_SS_AVAILABILITY_FLAG = 4
+CLAIM_INSTITUTIONAL_NCH_AVAILABILITY_FLAG = 8
+CLAIM_INSTITUTIONAL_SS_AVAILABILITY_FLAG = 16
 
 PART_D_ORIGINAL_CLAIM_TYPE_CODE = 1
 PART_D_CLAIM_TYPE_CODES = [1, 2, 3, 4]
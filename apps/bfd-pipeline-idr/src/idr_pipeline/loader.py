@@ -14,7 +14,7 @@ from psycopg.rows import DictRow, dict_row
 from psycopg_pool.abc import ACT
 
 from .batch_worker import LoadingBatch, LoadingBatchWorkerClient
-from .constants import DEFAULT_MIN_DATE
+from .constants import BENEFICIARY_CLAIM_AVAILABILITY_TABLE, DEFAULT_MIN_DATE
 from .db_utils import get_connection_string
 from .load_partition import LoadPartition, LoadType
 from .model.base_model import DbType, IdrBaseModel, LoadMode, T
@@ -390,8 +390,37 @@ class BatchLoader:
             ''',  # type: ignore
             {"timestamp": timestamp},
         )
+        updated_keys = await cur.fetchall()
 
-        return await cur.fetchall()
+        if self.model.claim_availability_flag():
+            await self._update_claim_availability(cur, temp_tablename)
+
+        return updated_keys
+
+    async def _update_claim_availability(
+        self, cur: psycopg.AsyncCursor[DictRow], temp_tablename: str
+    ) -> None:
+        # Flag the beneficiaries of this batch as having claims in this table so that the server
+        # can skip querying claim tables that have nothing for a beneficiary.
+        # This runs in the same transaction as the upsert so that the server never sees a claim
+        # whose beneficiary isn't flagged yet.
+        # Beneficiaries that are already flagged are filtered out first since ON CONFLICT locks
+        # the conflicting row even when nothing changes. Flags are never cleared here, a flag that
+        # is set for a table that no longer has claims for the beneficiary only costs a query.
+        await cur.execute(
+            f'''
+            INSERT INTO {BENEFICIARY_CLAIM_AVAILABILITY_TABLE} AS a (bene_sk, clm_tbl_flags)
+            SELECT DISTINCT s.bene_sk, %(flag)s::INT FROM "{temp_tablename}" s
+            WHERE NOT EXISTS (
+                SELECT 1 FROM {BENEFICIARY_CLAIM_AVAILABILITY_TABLE} e
+                WHERE e.bene_sk = s.bene_sk AND e.clm_tbl_flags & %(flag)s::INT <> 0
+            )
+            ORDER BY s.bene_sk
+            ON CONFLICT (bene_sk) DO UPDATE
+            SET clm_tbl_flags = a.clm_tbl_flags | EXCLUDED.clm_tbl_flags
+            ''',  # type: ignore
+            {"flag": self.model.claim_availability_flag()},
+        )
 
     async def _copy_data(
         self, cur: psycopg.AsyncCursor[Any], temp_tablename: str, data: Sequence[T]
@@ -494,6 +494,14 @@ class IdrBaseModel(BaseModel, ABC):
         """Whether to merge or replace data when loading this table."""
         return False
 
+    @staticmethod
+    def claim_availability_flag() -> int:
+        """Flag set in beneficiary_claim_availability for beneficiaries with rows in this table.
+
+        Zero for tables that are not tracked.
+        """
+        return 0
+
     @classmethod
     @abstractmethod
     def fetch_query(
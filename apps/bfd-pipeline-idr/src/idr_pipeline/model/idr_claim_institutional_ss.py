@@ -4,6 +4,7 @@ from typing import Annotated, override
 from pydantic import BeforeValidator
 
 from ..constants import (
+    CLAIM_INSTITUTIONAL_SS_AVAILABILITY_FLAG,
     CLAIM_INSTITUTIONAL_SS_TABLE,
     DEFAULT_MAX_DATE,
     IDR_CLAIM_DATE_SIGNATURE_TABLE,
@@ -437,6 +438,11 @@ class IdrClaimInstitutionalSs(IdrBaseModel):
     def table() -> str:
         return CLAIM_INSTITUTIONAL_SS_TABLE
 
+    @override
+    @staticmethod
+    def claim_availability_flag() -> int:
+        return CLAIM_INSTITUTIONAL_SS_AVAILABILITY_FLAG
+
     @override
     @staticmethod
     def last_updated_date_column() -> list[str]:
@@ -4,6 +4,7 @@ from typing import Annotated, override
 from pydantic import BeforeValidator
 
 from ..constants import (
+    CLAIM_PROFESSIONAL_NCH_AVAILABILITY_FLAG,
     CLAIM_PROFESSIONAL_NCH_TABLE,
     DEFAULT_MAX_DATE,
     IDR_CLAIM_DATE_SIGNATURE_TABLE,
@@ -239,6 +240,11 @@ class IdrClaimProfessionalNch(IdrBaseModel):
     def table() -> str:
         return CLAIM_PROFESSIONAL_NCH_TABLE
 
+    @override
+    @staticmethod
+    def claim_availability_flag() -> int:
+        return CLAIM_PROFESSIONAL_NCH_AVAILABILITY_FLAG
+
     @override
     @staticmethod
     def last_updated_date_column() -> list[str]:
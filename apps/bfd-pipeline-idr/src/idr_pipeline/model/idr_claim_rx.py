@@ -4,6 +4,7 @@ from typing import Annotated, override
 from pydantic import BeforeValidator
 
 from ..constants import (
+    CLAIM_RX_AVAILABILITY_FLAG,
     CLAIM_RX_TABLE,
     DEFAULT_MAX_DATE,
     IDR_CLAIM_DATE_SIGNATURE_TABLE,
@@ -246,6 +247,11 @@ class IdrClaimRx(IdrBaseModel):
     def table() -> str:
         return CLAIM_RX_TABLE
 
+    @override
+    @staticmethod
+    def claim_availability_flag() -> int:
+        return CLAIM_RX_AVAILABILITY_FLAG
+
     @override
     @staticmethod
     def last_updated_date_column() -> list[str]:
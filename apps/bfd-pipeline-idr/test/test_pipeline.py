@@ -27,6 +27,7 @@ from idr_pipeline.load_synthetic import load_from_csv
 from idr_pipeline.logger_config import configure_logger
 from idr_pipeline.model.base_model import LoadMode, Source
 from idr_pipeline.parallel_executor import MultiprocessingExecutor, MultithreadingExecutor
+from idr_pipeline.pipeline_stages import CLAIM_TABLES
 from idr_pipeline.pydantic_utils import fields
 from idr_pipeline.settings import MIN_CLAIM_LOAD_DATE, SETTINGS
 
@@ -104,6 +105,21 @@ def _do_test_pipeline(conn: Connection[DictRow], load_type: LoadType) -> None:
         rows = cur.fetchmany(1)
         assert rows[0]["mbi_num"] == "1OX4Y88RV68"
 
+    # Every beneficiary with claims in a table should be flagged as having claims in that table
+    cur = conn.execute("select * from idr.beneficiary_claim_availability")
+    assert cur.rowcount > 0
+    for model in CLAIM_TABLES:
+        claim_table = sql.Identifier(*model.table().split(".", 1))
+        cur = conn.execute(
+            t"""
+            SELECT c.bene_sk
+            FROM {claim_table:i} c
+            LEFT JOIN idr.beneficiary_claim_availability a ON a.bene_sk = c.bene_sk
+            WHERE COALESCE(a.clm_tbl_flags, 0) & {model.claim_availability_flag()} = 0
+            """
+        )
+        assert cur.rowcount == 0
+
     # Seed stale non-Part-D parent claims so the prune job has rows to delete.
     # CSVs cover item pruning because stale non-Part-D parents do not load.
     if load_type == LoadType.INCREMENTAL:
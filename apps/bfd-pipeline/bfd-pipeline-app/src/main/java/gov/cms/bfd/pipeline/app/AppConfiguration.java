@@ -7,6 +7,7 @@ import gov.cms.bfd.model.rif.RifFileType;
 import gov.cms.bfd.model.rif.RifRecordEvent;
 import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadJob;
 import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadOptions;
+import gov.cms.bfd.pipeline.ccw.rif.RifLoadTelemetry;
 import gov.cms.bfd.pipeline.ccw.rif.extract.ExtractionOptions;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.DataSetManifest;
 import gov.cms.bfd.pipeline.ccw.rif.load.LoadAppOptions;
@@ -32,6 +33,7 @@ import gov.cms.bfd.sharedutils.config.LayeredConfiguration;
 import gov.cms.bfd.sharedutils.database.DatabaseOptions;
 import io.micrometer.cloudwatch2.CloudWatchConfig;
 import jakarta.annotation.Nullable;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
@@ -169,6 +171,37 @@ public final class AppConfiguration extends BaseAppConfiguration {
   public static final String SSM_PATH_RIF_JOB_QUEUE_SIZE_MULTIPLE_CLAIMS =
       "ccw/job/claims/queue_size_multiple";
 
+  /**
+   * The path of the SSM parameter that should be used to provide the {@link
+   * #getCcwRifLoadOptions()} {@link CcwRifLoadOptions#getMaxConcurrentFiles()} value. Beneficiary
+   * files are always loaded first and one at a time, after which up to this many claim files of
+   * different types are loaded at once. Defaults to 1.
+   */
+  public static final String SSM_PATH_CCW_RIF_JOB_MAX_CONCURRENT_FILES =
+      "ccw/job/max_concurrent_files";
+
+  /**
+   * The path of the SSM parameter that should be used to provide the {@link
+   * #getCcwRifLoadOptions()} {@link CcwRifLoadOptions#getProgressPort()} value. When set the
+   * progress of the files being loaded is served as JSON from {@code /progress} on this port.
+   */
+  public static final String SSM_PATH_CCW_RIF_JOB_PROGRESS_PORT = "ccw/job/progress_port";
+
+  /**
+   * The path of the SSM parameter that should be used to provide the {@link
+   * #getCcwRifLoadOptions()} {@link CcwRifLoadOptions#getProgressAddress()} value. The progress
+   * endpoint has no authentication so this defaults to {@code localhost}.
+   */
+  public static final String SSM_PATH_CCW_RIF_JOB_PROGRESS_ADDRESS = "ccw/job/progress_address";
+
+  /**
+   * The path of the SSM parameter that should be used to provide the {@link
+   * #getCcwRifLoadOptions()} {@link ExtractionOptions#isRifLineReaderEnabled()} value. When true
+   * RIF files are tokenized by the byte oriented {@link gov.cms.bfd.model.rif.parse.RifLineReader}
+   * instead of Apache Commons CSV. Defaults to false.
+   */
+  public static final String SSM_PATH_RIF_LINE_READER_ENABLED = "ccw/job/rif_line_reader_enabled";
+
   /**
    * Path of the SSM parameter containing name of SQS queue to which progress messages can be sent.
    */
@@ -199,6 +232,12 @@ public final class AppConfiguration extends BaseAppConfiguration {
    */
   public static final String SSM_PATH_RDA_JOB_WRITE_THREADS = "rda/job/write_thread_count";
 
+  /**
+   * The path of the SSM parameter that should be used to provide the {@link #getRdaLoadOptions()}
+   * {@link AbstractRdaLoadJob.Config#getTransformThreads()} value.
+   */
+  public static final String SSM_PATH_RDA_JOB_TRANSFORM_THREADS = "rda/job/transform_thread_count";
+
   /**
    * The path of the SSM parameter that specifies which type of RDA API server to connect to. {@link
    * RdaSourceConfig#getServerType()}
@@ -245,6 +284,26 @@ public final class AppConfiguration extends BaseAppConfiguration {
    */
   public static final String SSM_PATH_RDA_GRPC_AUTH_TOKEN = "rda/grpc/auth_token";
 
+  /**
+   * The path of the SSM parameter that should be used to provide the {@link #getRdaLoadOptions()}
+   * {@link RdaSourceConfig#getSpoolDirectory()} value. Received messages are only spooled when this
+   * is set.
+   */
+  public static final String SSM_PATH_RDA_GRPC_SPOOL_DIRECTORY = "rda/grpc/spool_directory";
+
+  /**
+   * The path of the SSM parameter that should be used to provide the {@link #getRdaLoadOptions()}
+   * {@link RdaSourceConfig#getSpoolSegmentSize()} value. This variable value should be in bytes.
+   */
+  public static final String SSM_PATH_RDA_GRPC_SPOOL_SEGMENT_SIZE = "rda/grpc/spool_segment_size";
+
+  /**
+   * The path of the SSM parameter that should be used to provide the {@link #getRdaLoadOptions()}
+   * {@link RdaSourceConfig#getSpoolMaxUnreadBytes()} value. This variable value should be in bytes.
+   */
+  public static final String SSM_PATH_RDA_GRPC_SPOOL_MAX_UNREAD_BYTES =
+      "rda/grpc/spool_max_unread_bytes";
+
   /**
    * The path of the SSM parameter that should be used to provide the sequence number update
    * interval.
@@ -384,6 +443,22 @@ public final class AppConfiguration extends BaseAppConfiguration {
   /** The run interval for the NPI Load Job, in days. */
   public static final String SSM_PATH_NPI_FDA_RUN_INTERVAL = "rda/npi_fda_load_job/run_interval";
 
+  /**
+   * Whether the NPI Load Job replaces tables using COPY into a staging table rather than merging
+   * each record. Defaults to false.
+   */
+  public static final String SSM_PATH_NPI_FDA_USE_COPY = "rda/npi_fda_load_job/use_copy";
+
+  /** The number of COPY writer threads per table used by the NPI Load Job. */
+  public static final String SSM_PATH_NPI_FDA_COPY_THREADS = "rda/npi_fda_load_job/copy_threads";
+
+  /**
+   * Whether the NPI Load Job applies NPPES weekly update files between full loads. Defaults to
+   * false.
+   */
+  public static final String SSM_PATH_NPI_FDA_WEEKLY_UPDATES =
+      "rda/npi_fda_load_job/weekly_updates";
+
   /**
    * List of metric names that are allowed to be published to Cloudwatch by Micrometer. Using an
    * allowed list avoids increasing AWS charges as new metrics may not be necessary to send to
@@ -403,7 +478,10 @@ public final class AppConfiguration extends BaseAppConfiguration {
           CcwRifLoadJob.Metrics.MANIFEST_PROCESSING_ACTIVE_TIMER_NAME,
           CcwRifLoadJob.Metrics.MANIFEST_PROCESSING_TOTAL_TIMER_NAME,
           DefaultDataSetMonitorListener.Metrics.RIF_FILE_PROCESSING_ACTIVE_TIMER_NAME,
-          DefaultDataSetMonitorListener.Metrics.RIF_FILE_PROCESSING_TOTAL_TIMER_NAME);
+          DefaultDataSetMonitorListener.Metrics.RIF_FILE_PROCESSING_TOTAL_TIMER_NAME,
+          RifLoadTelemetry.STAGE_TIMER_NAME,
+          RifLoadTelemetry.RECORDS_PER_SECOND_GAUGE_NAME,
+          RifLoadTelemetry.ETA_SECONDS_GAUGE_NAME);
 
   /** Config value for SAMHSA backfill enabled. */
   public static final String SSM_PATH_SAMHSA_BACKFILL_ENABLED = "rda/samhsa/backfill/enabled";
@@ -440,6 +518,7 @@ public final class AppConfiguration extends BaseAppConfiguration {
           .put(SSM_PATH_RIF_JOB_BATCH_SIZE, "25")
           .put(SSM_PATH_RIF_JOB_QUEUE_SIZE_MULTIPLE, "2")
           .put(SSM_PATH_CCW_RIF_JOB_INTERVAL_SECONDS, "30")
+          .put(SSM_PATH_CCW_RIF_JOB_PROGRESS_ADDRESS, "localhost")
           .put(SSM_PATH_RDA_JOB_INTERVAL_SECONDS, "300")
           .put(SSM_PATH_RDA_JOB_BATCH_SIZE, "1")
           .put(SSM_PATH_RDA_JOB_WRITE_THREADS, "1")
@@ -452,6 +531,9 @@ public final class AppConfiguration extends BaseAppConfiguration {
           .put(SSM_PATH_NPI_FDA_LOAD_JOB, "false")
           .put(SSM_PATH_NPI_FDA_BATCH_SIZE, "100000")
           .put(SSM_PATH_NPI_FDA_RUN_INTERVAL, "30")
+          .put(SSM_PATH_NPI_FDA_USE_COPY, "false")
+          .put(SSM_PATH_NPI_FDA_COPY_THREADS, "4")
+          .put(SSM_PATH_NPI_FDA_WEEKLY_UPDATES, "false")
           .put(
               SSM_PATH_RDA_GRPC_SECONDS_BEFORE_CONNECTION_DROP,
               String.valueOf(Duration.ofMinutes(4).toSeconds()))
@@ -548,10 +630,16 @@ public final class AppConfiguration extends BaseAppConfiguration {
     }
     int batchSize = config.intValue(SSM_PATH_NPI_FDA_BATCH_SIZE, 100000);
     int runInterval = config.intValue(SSM_PATH_NPI_FDA_RUN_INTERVAL, 30);
+    boolean useCopy = config.booleanValue(SSM_PATH_NPI_FDA_USE_COPY, false);
+    int copyThreads = config.intValue(SSM_PATH_NPI_FDA_COPY_THREADS, 4);
+    boolean weeklyUpdates = config.booleanValue(SSM_PATH_NPI_FDA_WEEKLY_UPDATES, false);
     return NpiFdaLoadJobConfig.builder()
         .enabled(enabled)
         .batchSize(batchSize)
         .runInterval(runInterval)
+        .useCopy(useCopy)
+        .copyThreads(copyThreads)
+        .weeklyUpdates(weeklyUpdates)
         .build();
   }
 
@@ -633,7 +721,10 @@ public final class AppConfiguration extends BaseAppConfiguration {
         Math.max(
             benePerformanceSettings.getLoaderThreads(),
             claimPerformanceSettings.getLoaderThreads());
-    DatabaseOptions databaseOptions = loadDatabaseOptions(config, maxLoaderThreads);
+    final int maxConcurrentFiles =
+        config.positiveIntOption(SSM_PATH_CCW_RIF_JOB_MAX_CONCURRENT_FILES).orElse(1);
+    DatabaseOptions databaseOptions =
+        loadDatabaseOptions(config, maxLoaderThreads * maxConcurrentFiles);
 
     LoadAppOptions loadOptions =
         new LoadAppOptions(
@@ -777,14 +868,33 @@ public final class AppConfiguration extends BaseAppConfiguration {
     if (s3ClientConfig.getAwsClientConfig().isCredentialCheckUseful()) {
       LayeredConfiguration.ensureAwsCredentialsConfiguredCorrectly();
     }
+    final boolean rifLineReaderEnabled =
+        config.booleanOption(SSM_PATH_RIF_LINE_READER_ENABLED).orElse(false);
     final ExtractionOptions extractionOptions =
-        new ExtractionOptions(s3BucketName, allowedRifFileType, Optional.empty(), s3ClientConfig);
+        new ExtractionOptions(
+            s3BucketName,
+            allowedRifFileType,
+            Optional.empty(),
+            s3ClientConfig,
+            rifLineReaderEnabled);
     final Optional<Duration> runInterval =
         config
             .positiveIntOptionZeroOK(SSM_PATH_CCW_RIF_JOB_INTERVAL_SECONDS)
             .map(Duration::ofSeconds);
     final Optional<String> sqsQueueName = config.stringOption(CCW_JOB_SQS_STATUS_QUEUE_NAME);
-    return new CcwRifLoadOptions(extractionOptions, loadOptions, runInterval, sqsQueueName);
+    final int maxConcurrentFiles =
+        config.positiveIntOption(SSM_PATH_CCW_RIF_JOB_MAX_CONCURRENT_FILES).orElse(1);
+    final Optional<Integer> progressPort =
+        config.positiveIntOption(SSM_PATH_CCW_RIF_JOB_PROGRESS_PORT);
+    final String progressAddress = config.stringValue(SSM_PATH_CCW_RIF_JOB_PROGRESS_ADDRESS);
+    return new CcwRifLoadOptions(
+        extractionOptions,
+        loadOptions,
+        runInterval,
+        sqsQueueName,
+        maxConcurrentFiles,
+        progressPort,
+        progressAddress);
   }
 
   /**
@@ -809,6 +919,7 @@ public final class AppConfiguration extends BaseAppConfiguration {
         .longOption(SSM_PATH_RDA_JOB_STARTING_MCS_SEQ_NUM)
         .map(seq -> Math.max(1L, seq))
         .ifPresent(jobConfig::startingMcsSeqNum);
+    config.intOption(SSM_PATH_RDA_JOB_TRANSFORM_THREADS).ifPresent(jobConfig::transformThreads);
     config.booleanOption(SSM_PATH_PROCESS_DLQ).ifPresent(jobConfig::processDLQ);
     config.booleanOption(SSM_PATH_CLEANUP_ENABLED).ifPresent(jobConfig::runCleanup);
     config.intOption(SSM_PATH_CLEANUP_RUN_SIZE).ifPresent(jobConfig::cleanupRunSize);
@@ -850,6 +961,11 @@ public final class AppConfiguration extends BaseAppConfiguration {
             config.longValue(SSM_PATH_RDA_JOB_SEQUENCE_RANGE_UPDATE_INTERVAL_SECONDS))
         .messageErrorExpirationDays(
             config.intOption(SSM_PATH_RDA_JOB_ERROR_EXPIRE_DAYS).orElse(null))
+        .spoolDirectory(
+            config.stringOption(SSM_PATH_RDA_GRPC_SPOOL_DIRECTORY).map(Path::of).orElse(null))
+        .spoolSegmentSize(config.intOption(SSM_PATH_RDA_GRPC_SPOOL_SEGMENT_SIZE).orElse(null))
+        .spoolMaxUnreadBytes(
+            config.longOption(SSM_PATH_RDA_GRPC_SPOOL_MAX_UNREAD_BYTES).orElse(null))
         .build();
   }
 
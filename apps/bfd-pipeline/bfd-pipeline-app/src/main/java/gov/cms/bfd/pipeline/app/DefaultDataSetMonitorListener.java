@@ -12,6 +12,7 @@ import gov.cms.bfd.pipeline.ccw.rif.extract.RifFilesProcessor;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.DataSetManifest;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.DataSetMonitorListener;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.S3RifFile;
+import gov.cms.bfd.pipeline.ccw.rif.load.RifFileLoadScheduler;
 import gov.cms.bfd.pipeline.ccw.rif.load.RifLoader;
 import io.micrometer.core.instrument.LongTaskTimer;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -46,6 +47,9 @@ public final class DefaultDataSetMonitorListener implements DataSetMonitorListen
   /** Loads RIF files into the database. */
   private final RifLoader rifLoader;
 
+  /** Decides the order in which files are loaded and which ones can be loaded concurrently. */
+  private final RifFileLoadScheduler scheduler;
+
   /**
    * Initializes the instance.
    *
@@ -53,71 +57,80 @@ public final class DefaultDataSetMonitorListener implements DataSetMonitorListen
    * @param micrometerMetrics the {@link MeterRegistry} for the application
    * @param rifProcessor the {@link RifFilesProcessor} for the application
    * @param rifLoader the {@link RifLoader} for the application
+   * @param scheduler the {@link RifFileLoadScheduler} for the application
    */
   DefaultDataSetMonitorListener(
       MetricRegistry appMetrics,
       MeterRegistry micrometerMetrics,
       RifFilesProcessor rifProcessor,
-      RifLoader rifLoader) {
+      RifLoader rifLoader,
+      RifFileLoadScheduler scheduler) {
     this.appMetrics = appMetrics;
     this.rifProcessor = rifProcessor;
     this.rifLoader = rifLoader;
+    this.scheduler = scheduler;
     this.metrics = new Metrics(micrometerMetrics);
   }
 
   @Override
   public void dataAvailable(RifFilesEvent rifFilesEvent) throws Exception {
     Timer.Context timerDataSet = appMetrics.timer(TIMER_PROCESSING).time();
+    try {
+      scheduler.loadFiles(rifFilesEvent.getFileEvents(), this::processFile);
+    } finally {
+      timerDataSet.stop();
+    }
+  }
 
-    Exception failure = null;
-    for (RifFileEvent rifFileEvent : rifFilesEvent.getFileEvents()) {
-      final RifFile rifFile = rifFileEvent.getFile();
-      if (!rifFile.requiresProcessing()) {
-        LOGGER.info("Skipping previously processed file {}", rifFile.getDisplayName());
-        continue;
-      }
-
-      Slf4jReporter dataSetFileMetricsReporter =
-          Slf4jReporter.forRegistry(rifFileEvent.getEventMetrics()).outputTo(LOGGER).build();
-      dataSetFileMetricsReporter.start(2, TimeUnit.MINUTES);
-
-      final LongTaskTimer.Sample activeTimer = metrics.createActiveTimerForRif(rifFile).start();
-      final io.micrometer.core.instrument.Timer.Sample totalTimer =
-          io.micrometer.core.instrument.Timer.start();
-
-      try {
-        LOGGER.info("Processing file {}", rifFile.getDisplayName());
-        rifFile.markAsStarted();
-
-        final RifFileRecords rifFileRecords = rifProcessor.produceRecords(rifFileEvent);
-        final long processedCount = rifLoader.processBlocking(rifFileRecords);
-        rifFile.markAsProcessed();
-        LOGGER.info(
-            "Successfully processed {} records in file {}",
-            processedCount,
-            rifFile.getDisplayName());
-      } catch (Exception e) {
-        LOGGER.error("Exception while processing file {}", rifFile.getDisplayName());
-        failure = e;
-      }
+  /**
+   * Loads a single file unless a previous run has already completed it. May be called concurrently
+   * for different files of the same data set.
+   *
+   * @param rifFileEvent the file to load
+   * @throws Exception any error that prevented the file from being loaded
+   */
+  private void processFile(RifFileEvent rifFileEvent) throws Exception {
+    final RifFile rifFile = rifFileEvent.getFile();
+    if (!rifFile.requiresProcessing()) {
+      LOGGER.info("Skipping previously processed file {}", rifFile.getDisplayName());
+      return;
+    }
 
-      activeTimer.stop();
-      totalTimer.stop(metrics.createTotalTimerForRif(rifFile));
+    Slf4jReporter dataSetFileMetricsReporter =
+        Slf4jReporter.forRegistry(rifFileEvent.getEventMetrics()).outputTo(LOGGER).build();
+    dataSetFileMetricsReporter.start(2, TimeUnit.MINUTES);
 
-      dataSetFileMetricsReporter.stop();
-      dataSetFileMetricsReporter.report();
+    final LongTaskTimer.Sample activeTimer = metrics.createActiveTimerForRif(rifFile).start();
+    final io.micrometer.core.instrument.Timer.Sample totalTimer =
+        io.micrometer.core.instrument.Timer.start();
 
-      if (failure != null) {
-        if (failure instanceof InterruptedException) {
-          LOGGER.info("Stopping due to interrupt.");
-        } else {
-          LOGGER.info("Stopping due to error.");
-        }
-        break;
-      }
+    Exception failure = null;
+    try {
+      LOGGER.info("Processing file {}", rifFile.getDisplayName());
+      rifFile.markAsStarted();
+
+      final RifFileRecords rifFileRecords = rifProcessor.produceRecords(rifFileEvent);
+      final long processedCount = rifLoader.processBlocking(rifFileRecords);
+      rifFile.markAsProcessed();
+      LOGGER.info(
+          "Successfully processed {} records in file {}", processedCount, rifFile.getDisplayName());
+    } catch (Exception e) {
+      LOGGER.error("Exception while processing file {}", rifFile.getDisplayName());
+      failure = e;
     }
-    timerDataSet.stop();
+
+    activeTimer.stop();
+    totalTimer.stop(metrics.createTotalTimerForRif(rifFile));
+
+    dataSetFileMetricsReporter.stop();
+    dataSetFileMetricsReporter.report();
+
     if (failure != null) {
+      if (failure instanceof InterruptedException) {
+        LOGGER.info("Stopping due to interrupt.");
+      } else {
+        LOGGER.info("Stopping due to error.");
+      }
       throw failure;
     }
   }
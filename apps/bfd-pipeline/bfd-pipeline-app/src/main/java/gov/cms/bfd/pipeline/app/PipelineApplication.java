@@ -13,11 +13,14 @@ import com.zaxxer.hikari.pool.HikariProxyConnection;
 import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadJob;
 import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadJobStatusReporter;
 import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadOptions;
+import gov.cms.bfd.pipeline.ccw.rif.RifLoadTelemetry;
 import gov.cms.bfd.pipeline.ccw.rif.extract.RifFilesProcessor;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.DataSetMonitorListener;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.DataSetQueue;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.S3FileManager;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.S3ManifestDbDao;
+import gov.cms.bfd.pipeline.ccw.rif.load.LoadAppOptions;
+import gov.cms.bfd.pipeline.ccw.rif.load.RifFileLoadScheduler;
 import gov.cms.bfd.pipeline.ccw.rif.load.RifLoader;
 import gov.cms.bfd.pipeline.rda.grpc.RdaLoadOptions;
 import gov.cms.bfd.pipeline.rda.grpc.RdaServerJob;
@@ -280,11 +283,13 @@ public final class PipelineApplication {
       HikariDataSource pooledDataSource)
       throws FatalAppException, IOException {
     final var clock = Clock.systemUTC();
+    final var rifLoadTelemetry = new RifLoadTelemetry(appMeters, clock);
 
     /*
      * Create all jobs and run their smoke tests.
      */
-    final var jobs = createAllJobs(appConfig, appMeters, appMetrics, pooledDataSource, clock);
+    final var jobs =
+        createAllJobs(appConfig, appMeters, appMetrics, pooledDataSource, clock, rifLoadTelemetry);
     if (anySmokeTestFailed(jobs)) {
       LOGGER.info("Pipeline terminating due to smoke test failure.");
       throw new FatalAppException("Pipeline smoke test failure", EXIT_CODE_SMOKE_TEST_FAILURE);
@@ -293,10 +298,26 @@ public final class PipelineApplication {
     final var pipelineManager = new PipelineManager(Thread::sleep, clock, jobs);
     registerShutdownHook(appMetrics, pipelineManager);
 
-    pipelineManager.start();
-    LOGGER.info("Job processing started.");
+    final Optional<CcwRifLoadOptions> ccwRifLoadOptions = appConfig.getCcwRifLoadOptions();
+    final Optional<Integer> progressPort =
+        ccwRifLoadOptions.flatMap(CcwRifLoadOptions::getProgressPort);
+    final RifLoadProgressServer progressServer =
+        progressPort.isPresent()
+            ? RifLoadProgressServer.start(
+                ccwRifLoadOptions.get().getProgressAddress(), progressPort.get(), rifLoadTelemetry)
+            : null;
 
-    PipelineOutcome pipelineOutcome = pipelineManager.awaitCompletion();
+    PipelineOutcome pipelineOutcome;
+    try {
+      pipelineManager.start();
+      LOGGER.info("Job processing started.");
+
+      pipelineOutcome = pipelineManager.awaitCompletion();
+    } finally {
+      if (progressServer != null) {
+        progressServer.close();
+      }
+    }
 
     // Ensures that any CloudWatch metrics are published prior to the stop of the Pipeline
     appMeters.close();
@@ -440,6 +461,7 @@ public final class PipelineApplication {
    * @param appMetrics our {@link MetricRegistry} for metrics reporting
    * @param pooledDataSource our {@link javax.sql.DataSource}
    * @param clock used to get current time
+   * @param rifLoadTelemetry receives the progress of the RIF files being loaded
    * @return list of {@link PipelineJob}s to be registered
    */
   @VisibleForTesting
@@ -448,7 +470,8 @@ public final class PipelineApplication {
       MeterRegistry appMeters,
       MetricRegistry appMetrics,
       HikariDataSource pooledDataSource,
-      Clock clock)
+      Clock clock,
+      RifLoadTelemetry rifLoadTelemetry)
       throws IOException {
     final var jobs = new ArrayList<PipelineJob>();
 
@@ -468,7 +491,8 @@ public final class PipelineApplication {
 
       final var loadOptions = appConfig.getCcwRifLoadOptions().get();
       final var awsClientConfig = appConfig.getAwsClientConfig();
-      final var job = createCcwRifLoadJob(loadOptions, appState, awsClientConfig, clock);
+      final var job =
+          createCcwRifLoadJob(loadOptions, appState, awsClientConfig, clock, rifLoadTelemetry);
       jobs.add(job);
       LOGGER.info("Registered CcwRifLoadJob.");
     } else {
@@ -531,7 +555,10 @@ public final class PipelineApplication {
               pooledDataSource,
               clock,
               npiFdaConfig.get().getBatchSize(),
-              npiFdaConfig.get().getRunInterval());
+              npiFdaConfig.get().getRunInterval(),
+              npiFdaConfig.get().isUseCopy(),
+              npiFdaConfig.get().getCopyThreads(),
+              npiFdaConfig.get().isWeeklyUpdates());
       if (npiFdaJob != null) {
         jobs.add(npiFdaJob);
       } else {
@@ -551,7 +578,10 @@ public final class PipelineApplication {
       HikariDataSource pooledDataSource,
       Clock clock,
       int batchSize,
-      int runInterval) {
+      int runInterval,
+      boolean useCopy,
+      int copyThreads,
+      boolean weeklyUpdates) {
     PipelineApplicationState npiAppState =
         new PipelineApplicationState(
             appMeters,
@@ -567,7 +597,8 @@ public final class PipelineApplication {
             PipelineApplicationState.PERSISTENCE_UNIT_NAME,
             clock);
     try {
-      return new NpiFdaLoadJob(npiAppState, fdaAppState, batchSize, runInterval);
+      return new NpiFdaLoadJob(
+          npiAppState, fdaAppState, batchSize, runInterval, useCopy, copyThreads, weeklyUpdates);
     } catch (Exception e) {
       LOGGER.error("An exception was thrown while creating NpiFdaLoadJob: {}", e.getMessage());
       return null;
@@ -581,16 +612,29 @@ public final class PipelineApplication {
    * @param appState the {@link PipelineApplicationState} to use
    * @param awsClientConfig AWS client configuration
    * @param clock used to get current time
+   * @param rifLoadTelemetry receives the progress of the RIF files being loaded
    * @return a {@link CcwRifLoadJob} instance for the application to use
    */
   private PipelineJob createCcwRifLoadJob(
       CcwRifLoadOptions loadOptions,
       PipelineApplicationState appState,
       AwsClientConfig awsClientConfig,
-      Clock clock)
+      Clock clock,
+      RifLoadTelemetry rifLoadTelemetry)
       throws IOException {
-    RifFilesProcessor rifProcessor = new RifFilesProcessor();
-    RifLoader rifLoader = new RifLoader(loadOptions.getLoadOptions(), appState);
+    RifFilesProcessor rifProcessor =
+        new RifFilesProcessor(
+            loadOptions.getExtractionOptions().isRifLineReaderEnabled(), rifLoadTelemetry);
+    RifLoader rifLoader = new RifLoader(loadOptions.getLoadOptions(), appState, rifLoadTelemetry);
+
+    // Each loader thread uses its own connection so the pool size caps concurrent loads.
+    final LoadAppOptions rifLoadOptions = loadOptions.getLoadOptions();
+    RifFileLoadScheduler rifFileLoadScheduler =
+        new RifFileLoadScheduler(
+            loadOptions.getMaxConcurrentFiles(),
+            appState.getPooledDataSource().getMaximumPoolSize(),
+            fileType ->
+                rifLoadOptions.selectPerformanceSettingsForFileType(fileType).getLoaderThreads());
 
     /*
      * Create the DataSetMonitorListener that will glue those stages together and run them all for
@@ -598,7 +642,11 @@ public final class PipelineApplication {
      */
     DataSetMonitorListener dataSetMonitorListener =
         new DefaultDataSetMonitorListener(
-            appState.getMetrics(), appState.getMeters(), rifProcessor, rifLoader);
+            appState.getMetrics(),
+            appState.getMeters(),
+            rifProcessor,
+            rifLoader,
+            rifFileLoadScheduler);
     var s3Factory = new AwsS3ClientFactory(loadOptions.getExtractionOptions().getS3ClientConfig());
     // Tell SQ it's ok not to use try-finally here since this will be closed by the CcwRifLoadJob.
     @SuppressWarnings("java:S2095")
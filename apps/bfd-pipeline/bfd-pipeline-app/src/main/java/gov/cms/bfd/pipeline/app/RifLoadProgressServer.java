@@ -0,0 +1,128 @@
+package gov.cms.bfd.pipeline.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gov.cms.bfd.pipeline.ccw.rif.RifLoadTelemetry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the live progress of the RIF files being loaded by the CCW pipeline as JSON. A {@code GET}
+ * of {@link #PROGRESS_PATH} returns the current {@link RifLoadTelemetry.ProgressReport}. Requests
+ * are handled by a single daemon thread so a slow client can never delay the load itself.
+ */
+public class RifLoadProgressServer implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RifLoadProgressServer.class);
+
+  /** Path of the progress report. */
+  public static final String PROGRESS_PATH = "/progress";
+
+  /** Converts reports to JSON. */
+  private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+  /** The server. */
+  private final HttpServer server;
+
+  /** Runs the request handler. */
+  private final ExecutorService executor;
+
+  /** Source of the progress reports. */
+  private final RifLoadTelemetry telemetry;
+
+  /**
+   * Initializes an instance. The server is not started.
+   *
+   * @param server the server
+   * @param executor runs the request handler
+   * @param telemetry source of the progress reports
+   */
+  private RifLoadProgressServer(
+      HttpServer server, ExecutorService executor, RifLoadTelemetry telemetry) {
+    this.server = server;
+    this.executor = executor;
+    this.telemetry = telemetry;
+  }
+
+  /**
+   * Creates and starts a server listening on the given address. The server has no authentication so
+   * the address should normally be {@code localhost}. Use a wildcard address such as {@code
+   * 0.0.0.0} only when access to the port is restricted by other means.
+   *
+   * @param address host name or address of the interface to listen on
+   * @param port port to listen on, zero to pick any free port
+   * @param telemetry source of the progress reports
+   * @return the running server
+   * @throws IOException if the server could not be created
+   */
+  public static RifLoadProgressServer start(String address, int port, RifLoadTelemetry telemetry)
+      throws IOException {
+    final HttpServer server = HttpServer.create(new InetSocketAddress(address, port), 0);
+    final ExecutorService executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              final Thread thread = new Thread(runnable, "RifLoadProgressServer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    final var progressServer = new RifLoadProgressServer(server, executor, telemetry);
+    server.createContext("/", progressServer::handle);
+    server.setExecutor(executor);
+    server.start();
+    LOGGER.info("Serving RIF load progress on {} at {}", server.getAddress(), PROGRESS_PATH);
+    return progressServer;
+  }
+
+  /**
+   * Returns the address the server is listening on.
+   *
+   * @return the address
+   */
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  /**
+   * Returns the port the server is listening on.
+   *
+   * @return the port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /** Stops the server without waiting for requests in progress. */
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Responds to a request with the current progress report or a 404 for any other path.
+   *
+   * @param exchange the request
+   * @throws IOException pass through
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!PROGRESS_PATH.equals(exchange.getRequestURI().getPath())) {
+        exchange.sendResponseHeaders(404, -1);
+      } else if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+      } else {
+        final byte[] body = JSON_MAPPER.writeValueAsBytes(telemetry.createReport());
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+          output.write(body);
+        }
+      }
+    }
+  }
+}
@@ -40,6 +40,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import gov.cms.bfd.model.rif.RifFileType;
+import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadOptions;
 import gov.cms.bfd.pipeline.ccw.rif.load.CcwRifLoadTestUtils;
 import gov.cms.bfd.pipeline.ccw.rif.load.LoadAppOptions;
 import gov.cms.bfd.pipeline.rda.grpc.AbstractRdaLoadJob;
@@ -161,6 +162,9 @@ public class AppConfigurationTest {
             .secretKey(envVars.get(AppConfiguration.ENV_VAR_AWS_SECRET_KEY))
             .build(),
         testAppConfig.getCcwRifLoadOptions().get().getExtractionOptions().getS3ClientConfig());
+    assertEquals(
+        CcwRifLoadOptions.DEFAULT_PROGRESS_ADDRESS,
+        testAppConfig.getCcwRifLoadOptions().get().getProgressAddress());
   }
 
   /** Verify that RDS authentication settings are loaded as expected. */
@@ -352,7 +352,7 @@ public final class PipelineApplicationIT extends AbstractMiniStackS3Test {
       // Override normal job creation to ensure our mock job is created instead of real one.
       doReturn(List.of(smokeTestFailureJob))
           .when(app)
-          .createAllJobs(any(), any(), any(), any(), any());
+          .createAllJobs(any(), any(), any(), any(), any(), any());
 
       // Run the app and collect its output.
       final int exitCode = app.runPipelineAndHandleExceptions();
@@ -0,0 +1,48 @@
+package gov.cms.bfd.pipeline.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadOptions;
+import gov.cms.bfd.pipeline.ccw.rif.RifLoadTelemetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link RifLoadProgressServer}. */
+public class RifLoadProgressServerTest {
+  /**
+   * Verifies that the server started with the default address only listens on the loopback
+   * interface and serves the progress report.
+   *
+   * @throws Exception indicates a test failure
+   */
+  @Test
+  public void testServesProgressOnLoopbackByDefault() throws Exception {
+    final var telemetry = new RifLoadTelemetry(new SimpleMeterRegistry(), Clock.systemUTC());
+    try (RifLoadProgressServer server =
+        RifLoadProgressServer.start(CcwRifLoadOptions.DEFAULT_PROGRESS_ADDRESS, 0, telemetry)) {
+      assertTrue(server.getAddress().getAddress().isLoopbackAddress());
+
+      final HttpClient client = HttpClient.newHttpClient();
+      final String baseUrl = "http://localhost:" + server.getPort();
+      final HttpResponse<String> progress =
+          client.send(
+              HttpRequest.newBuilder(URI.create(baseUrl + RifLoadProgressServer.PROGRESS_PATH))
+                  .build(),
+              HttpResponse.BodyHandlers.ofString());
+      assertEquals(200, progress.statusCode());
+      assertEquals("application/json", progress.headers().firstValue("Content-Type").orElse(null));
+
+      final HttpResponse<String> other =
+          client.send(
+              HttpRequest.newBuilder(URI.create(baseUrl + "/other")).build(),
+              HttpResponse.BodyHandlers.ofString());
+      assertEquals(404, other.statusCode());
+    }
+  }
+}
@@ -22,6 +22,27 @@ public final class CcwRifLoadOptions {
   /** Optional SQS queue to receive progress messages. */
   private final Optional<String> sqsQueueUrl;
 
+  /**
+   * Maximum number of independent RIF files within a data set that can be loaded at the same time.
+   * A value of one loads every file sequentially.
+   */
+  private final int maxConcurrentFiles;
+
+  /**
+   * Optional port on which to serve the live progress of the files being loaded. Empty means the
+   * progress is only published as metrics.
+   */
+  private final Optional<Integer> progressPort;
+
+  /**
+   * Host name or address of the interface on which to serve the live progress. The progress is
+   * served without authentication so this is normally {@link #DEFAULT_PROGRESS_ADDRESS}.
+   */
+  private final String progressAddress;
+
+  /** Default value for {@link #progressAddress}. Only accepts connections from the same host. */
+  public static final String DEFAULT_PROGRESS_ADDRESS = "localhost";
+
   /**
    * Constructs a new {@link CcwRifLoadOptions} instance.
    *
@@ -35,10 +56,42 @@ public final class CcwRifLoadOptions {
       LoadAppOptions loadOptions,
       Optional<Duration> runInterval,
       Optional<String> sqsQueueUrl) {
+    this(
+        extractionOptions,
+        loadOptions,
+        runInterval,
+        sqsQueueUrl,
+        1,
+        Optional.empty(),
+        DEFAULT_PROGRESS_ADDRESS);
+  }
+
+  /**
+   * Constructs a new {@link CcwRifLoadOptions} instance.
+   *
+   * @param extractionOptions the value to use for {@link #extractionOptions}
+   * @param loadOptions the value to use for {@link #loadOptions}
+   * @param runInterval used to construct the job schedule
+   * @param sqsQueueUrl SQS queue to receive progress messages
+   * @param maxConcurrentFiles the value to use for {@link #maxConcurrentFiles}
+   * @param progressPort the value to use for {@link #progressPort}
+   * @param progressAddress the value to use for {@link #progressAddress}
+   */
+  public CcwRifLoadOptions(
+      ExtractionOptions extractionOptions,
+      LoadAppOptions loadOptions,
+      Optional<Duration> runInterval,
+      Optional<String> sqsQueueUrl,
+      int maxConcurrentFiles,
+      Optional<Integer> progressPort,
+      String progressAddress) {
     this.extractionOptions = extractionOptions;
     this.loadOptions = loadOptions;
     this.runInterval = runInterval;
     this.sqsQueueUrl = sqsQueueUrl;
+    this.maxConcurrentFiles = maxConcurrentFiles;
+    this.progressPort = progressPort;
+    this.progressAddress = progressAddress;
   }
 
   @Override
@@ -52,6 +105,12 @@ public final class CcwRifLoadOptions {
     builder.append(runInterval);
     builder.append(", sqsQueueUrl=");
     builder.append(sqsQueueUrl);
+    builder.append(", maxConcurrentFiles=");
+    builder.append(maxConcurrentFiles);
+    builder.append(", progressPort=");
+    builder.append(progressPort);
+    builder.append(", progressAddress=");
+    builder.append(progressAddress);
     builder.append("]");
     return builder.toString();
   }
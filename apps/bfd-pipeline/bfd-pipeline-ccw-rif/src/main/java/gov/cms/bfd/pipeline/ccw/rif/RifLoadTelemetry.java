@@ -0,0 +1,689 @@
+package gov.cms.bfd.pipeline.ccw.rif;
+
+import gov.cms.bfd.model.rif.RifFile;
+import gov.cms.bfd.model.rif.RifFileEvent;
+import gov.cms.bfd.model.rif.RifFileType;
+import gov.cms.bfd.pipeline.ccw.rif.extract.s3.S3RifFile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.Nullable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Collects throughput telemetry for the RIF files being loaded by the {@link CcwRifLoadJob}. Time
+ * spent loading each file is split into the {@link Stage}s of the load so that it is possible to
+ * tell whether a slow load is limited by CPU (parsing, hashing, SAMHSA tagging) or by the database.
+ *
+ * <p>Every stage is published to Micrometer as a {@link Timer} tagged with the stage and file type.
+ * Records and bytes processed are published as {@link Counter}s and the current throughput and
+ * estimated time remaining of each file type as {@link Gauge}s. The same information is available
+ * as a point in time {@link ProgressReport} covering every file that is loading or recently
+ * finished, grouped by manifest.
+ *
+ * <p>Instances are thread safe. Files are identified by their {@link RifFile} instance so the
+ * extraction and load code can report progress without passing additional state between them.
+ */
+public class RifLoadTelemetry {
+  /** Name of the {@link Timer}s that record time spent in each {@link Stage}. */
+  public static final String STAGE_TIMER_NAME =
+      String.format("%s.rif_load.stage", CcwRifLoadJob.class.getSimpleName());
+
+  /** Name of the {@link Counter}s that count records loaded into the database. */
+  public static final String RECORDS_COUNTER_NAME =
+      String.format("%s.rif_load.records", CcwRifLoadJob.class.getSimpleName());
+
+  /** Name of the {@link Counter}s that count bytes read from RIF files. */
+  public static final String BYTES_COUNTER_NAME =
+      String.format("%s.rif_load.bytes", CcwRifLoadJob.class.getSimpleName());
+
+  /** Name of the {@link Gauge}s that report records loaded per second for each file type. */
+  public static final String RECORDS_PER_SECOND_GAUGE_NAME =
+      String.format("%s.rif_load.records_per_second", CcwRifLoadJob.class.getSimpleName());
+
+  /** Name of the {@link Gauge}s that report bytes read per second for each file type. */
+  public static final String BYTES_PER_SECOND_GAUGE_NAME =
+      String.format("%s.rif_load.bytes_per_second", CcwRifLoadJob.class.getSimpleName());
+
+  /** Name of the {@link Gauge}s that report estimated seconds remaining for each file type. */
+  public static final String ETA_SECONDS_GAUGE_NAME =
+      String.format("%s.rif_load.eta_seconds", CcwRifLoadJob.class.getSimpleName());
+
+  /** Name of the {@link Gauge} that reports the number of files being loaded. */
+  public static final String ACTIVE_FILES_GAUGE_NAME =
+      String.format("%s.rif_load.active_files", CcwRifLoadJob.class.getSimpleName());
+
+  /** Tag indicating which {@link Stage} a given metric measured. */
+  private static final String TAG_STAGE = "stage";
+
+  /** Tag indicating which RIF file type a given metric measured. */
+  private static final String TAG_RIF_FILE = "rif_file";
+
+  /** Number of finished files kept for inclusion in {@link ProgressReport}s. */
+  private static final int MAX_FINISHED_FILES = 50;
+
+  /** Minimum number of bytes read before they are added to a file's progress. */
+  private static final long BYTES_PER_PROGRESS_UPDATE = 64 * 1024;
+
+  /** The stages of loading a RIF file. */
+  public enum Stage {
+    /** Converting CSV records into entity objects. */
+    PARSE,
+    /** Hashing HICNs and MBIs of beneficiary records. */
+    HASH,
+    /** Finding and tagging claims that contain SAMHSA codes. */
+    SAMHSA,
+    /** Everything else done within a batch's transaction, mostly queries and writes. */
+    DB_WRITE;
+
+    /**
+     * Returns the value used for this stage in metric tags and reports.
+     *
+     * @return the tag value
+     */
+    public String getTagValue() {
+      return name().toLowerCase();
+    }
+  }
+
+  /** Used to register metrics. */
+  private final MeterRegistry meters;
+
+  /** Used to compute elapsed times. */
+  private final Clock clock;
+
+  /** Progress of the files currently being loaded. */
+  private final Map<RifFile, FileProgress> activeFiles = new ConcurrentHashMap<>();
+
+  /** Progress of recently finished files, oldest first. */
+  private final Deque<FileProgress> finishedFiles = new ArrayDeque<>();
+
+  /**
+   * Initializes an instance.
+   *
+   * @param meters used to register metrics
+   * @param clock used to compute elapsed times
+   */
+  public RifLoadTelemetry(MeterRegistry meters, Clock clock) {
+    this.meters = meters;
+    this.clock = clock;
+    Gauge.builder(ACTIVE_FILES_GAUGE_NAME, activeFiles, Map::size).register(meters);
+  }
+
+  /**
+   * Creates an instance that keeps its metrics to itself. Used when no telemetry is required.
+   *
+   * @return the instance
+   */
+  public static RifLoadTelemetry createUnpublished() {
+    return new RifLoadTelemetry(new SimpleMeterRegistry(), Clock.systemUTC());
+  }
+
+  /**
+   * Starts tracking the progress of a file. Replaces any progress left over from a previous attempt
+   * to load the same file.
+   *
+   * @param fileEvent the file being loaded
+   * @return the progress of the file
+   */
+  public FileProgress startFile(RifFileEvent fileEvent) {
+    final RifFile rifFile = fileEvent.getFile();
+    final RifFileType fileType = rifFile.getFileType();
+    final var progress = new FileProgress(rifFile, clock.instant());
+    activeFiles.put(rifFile, progress);
+
+    // Registration is idempotent so the gauges are only created for the first file of each type.
+    final var tags = List.of(Tag.of(TAG_RIF_FILE, fileType.name().toLowerCase()));
+    Gauge.builder(
+            RECORDS_PER_SECOND_GAUGE_NAME,
+            this,
+            telemetry -> telemetry.sumActive(fileType, FileSnapshot::recordsPerSecond))
+        .tags(tags)
+        .register(meters);
+    Gauge.builder(
+            BYTES_PER_SECOND_GAUGE_NAME,
+            this,
+            telemetry -> telemetry.sumActive(fileType, FileSnapshot::bytesPerSecond))
+        .tags(tags)
+        .register(meters);
+    Gauge.builder(ETA_SECONDS_GAUGE_NAME, this, telemetry -> telemetry.maxEtaSeconds(fileType))
+        .tags(tags)
+        .register(meters);
+    return progress;
+  }
+
+  /**
+   * Stops tracking the progress of a file. It remains in {@link ProgressReport}s as a finished file
+   * until enough newer files have finished.
+   *
+   * @param progress the progress returned by {@link #startFile}
+   */
+  public void finishFile(FileProgress progress) {
+    progress.finished = clock.instant();
+    activeFiles.remove(progress.rifFile, progress);
+    synchronized (finishedFiles) {
+      finishedFiles.addLast(progress);
+      while (finishedFiles.size() > MAX_FINISHED_FILES) {
+        finishedFiles.removeFirst();
+      }
+    }
+  }
+
+  /**
+   * Returns the progress of a file that is currently being loaded.
+   *
+   * @param rifFile the file
+   * @return the progress or null if the file is not being loaded
+   */
+  @Nullable
+  public FileProgress findFile(RifFile rifFile) {
+    return activeFiles.get(rifFile);
+  }
+
+  /**
+   * Adds time spent in a stage to the progress of a file. Does nothing if the file is not being
+   * loaded.
+   *
+   * @param rifFile the file
+   * @param stage the stage
+   * @param nanos the time spent in nanoseconds
+   */
+  public void recordStage(RifFile rifFile, Stage stage, long nanos) {
+    final FileProgress progress = activeFiles.get(rifFile);
+    if (progress != null) {
+      progress.recordStage(stage, nanos);
+    }
+  }
+
+  /**
+   * Wraps a file so that the bytes read from it are added to its progress. The returned file should
+   * only be used to read the file's contents.
+   *
+   * @param rifFile the file to wrap
+   * @return the wrapped file
+   */
+  public RifFile countBytesRead(RifFile rifFile) {
+    return new ByteCountingRifFile(rifFile);
+  }
+
+  /**
+   * Creates a snapshot of the progress of all active and recently finished files.
+   *
+   * @return the report
+   */
+  public ProgressReport createReport() {
+    final Instant now = clock.instant();
+    final List<FileSnapshot> files = new ArrayList<>();
+    synchronized (finishedFiles) {
+      for (FileProgress progress : finishedFiles) {
+        files.add(progress.snapshot(now));
+      }
+    }
+    for (FileProgress progress : activeFiles.values()) {
+      files.add(progress.snapshot(now));
+    }
+
+    final Map<String, List<FileSnapshot>> filesByManifest = new LinkedHashMap<>();
+    for (FileSnapshot file : files) {
+      filesByManifest.computeIfAbsent(file.manifest(), ignored -> new ArrayList<>()).add(file);
+    }
+    final List<ManifestSnapshot> manifests = new ArrayList<>();
+    filesByManifest.forEach(
+        (manifest, manifestFiles) -> manifests.add(ManifestSnapshot.of(manifest, manifestFiles)));
+    return new ProgressReport(now.toString(), manifests);
+  }
+
+  /**
+   * Computes a total over the active files of a type. Used by gauges.
+   *
+   * @param fileType the file type
+   * @param value extracts the value to sum from each file
+   * @return the total
+   */
+  private double sumActive(RifFileType fileType, ToDoubleFunction<FileSnapshot> value) {
+    final Instant now = clock.instant();
+    return activeFiles.values().stream()
+        .filter(progress -> progress.fileType == fileType)
+        .mapToDouble(progress -> value.applyAsDouble(progress.snapshot(now)))
+        .sum();
+  }
+
+  /**
+   * Computes the longest estimated time remaining over the active files of a type. Used by gauges.
+   *
+   * @param fileType the file type
+   * @return the estimate in seconds or {@link Double#NaN} if none is available
+   */
+  private double maxEtaSeconds(RifFileType fileType) {
+    final Instant now = clock.instant();
+    return activeFiles.values().stream()
+        .filter(progress -> progress.fileType == fileType)
+        .map(progress -> progress.snapshot(now).etaSeconds())
+        .filter(Objects::nonNull)
+        .mapToDouble(Long::doubleValue)
+        .max()
+        .orElse(Double.NaN);
+  }
+
+  /**
+   * Computes a rate per second.
+   *
+   * @param count number of things processed
+   * @param elapsed time taken to process them
+   * @return the rate or zero if no time has elapsed
+   */
+  private static double perSecond(long count, Duration elapsed) {
+    final long millis = elapsed.toMillis();
+    return millis <= 0 ? 0 : count * 1000.0 / millis;
+  }
+
+  /** Progress of a single file. Updated concurrently by the threads loading the file. */
+  public final class FileProgress {
+    /** The file. */
+    private final RifFile rifFile;
+
+    /** Type of the file. */
+    private final RifFileType fileType;
+
+    /** Manifest containing the file, if known. */
+    private final String manifest;
+
+    /** Size of the file in bytes, or -1 if it is not known. */
+    private final long totalBytes;
+
+    /** When loading started. */
+    private final Instant started;
+
+    /** When loading finished, or null if it is still loading. */
+    @Nullable private volatile Instant finished;
+
+    /** Number of bytes read from the file so far. */
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    /** Number of records loaded so far. */
+    private final AtomicLong recordsLoaded = new AtomicLong();
+
+    /** Total nanoseconds spent in each stage. */
+    private final Map<Stage, LongAdder> stageNanos = new EnumMap<>(Stage.class);
+
+    /** Timers for each stage. */
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+
+    /** Counts records loaded. */
+    private final Counter recordsCounter;
+
+    /** Counts bytes read. */
+    private final Counter bytesCounter;
+
+    /**
+     * Initializes an instance.
+     *
+     * @param rifFile the file
+     * @param started when loading started
+     */
+    private FileProgress(RifFile rifFile, Instant started) {
+      this.rifFile = rifFile;
+      this.started = started;
+      fileType = rifFile.getFileType();
+      if (rifFile instanceof S3RifFile s3RifFile) {
+        manifest = s3RifFile.getManifestEntry().getParentManifest().getIncomingS3Key();
+        totalBytes = s3RifFile.getSizeInBytes().orElse(-1L);
+      } else {
+        manifest = "";
+        totalBytes = -1L;
+      }
+
+      final String fileTag = fileType.name().toLowerCase();
+      for (Stage stage : Stage.values()) {
+        stageNanos.put(stage, new LongAdder());
+        stageTimers.put(
+            stage,
+            Timer.builder(STAGE_TIMER_NAME)
+                .tags(TAG_RIF_FILE, fileTag, TAG_STAGE, stage.getTagValue())
+                .register(meters));
+      }
+      recordsCounter =
+          Counter.builder(RECORDS_COUNTER_NAME).tag(TAG_RIF_FILE, fileTag).register(meters);
+      bytesCounter =
+          Counter.builder(BYTES_COUNTER_NAME).tag(TAG_RIF_FILE, fileTag).register(meters);
+    }
+
+    /**
+     * Adds time spent in a stage.
+     *
+     * @param stage the stage
+     * @param nanos the time spent in nanoseconds
+     */
+    public void recordStage(Stage stage, long nanos) {
+      if (nanos > 0) {
+        stageNanos.get(stage).add(nanos);
+        stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    /**
+     * Adds to the number of records loaded.
+     *
+     * @param count number of records
+     */
+    public void addRecordsLoaded(long count) {
+      recordsLoaded.addAndGet(count);
+      recordsCounter.increment(count);
+    }
+
+    /**
+     * Adds to the number of bytes read.
+     *
+     * @param count number of bytes
+     */
+    private void addBytesRead(long count) {
+      bytesRead.addAndGet(count);
+      bytesCounter.increment(count);
+    }
+
+    /**
+     * Creates a {@link BatchTimer} for a batch of records from this file.
+     *
+     * @return the timer
+     */
+    public BatchTimer startBatch() {
+      return new BatchTimer(this);
+    }
+
+    /**
+     * Creates a snapshot of the progress.
+     *
+     * @param now the current time
+     * @return the snapshot
+     */
+    private FileSnapshot snapshot(Instant now) {
+      final Instant end = finished == null ? now : finished;
+      final Duration elapsed = Duration.between(started, end);
+      final long bytes = bytesRead.get();
+      final long records = recordsLoaded.get();
+      final double bytesPerSecond = perSecond(bytes, elapsed);
+      Double percentComplete = null;
+      Long etaSeconds = null;
+      if (finished != null) {
+        percentComplete = 100.0;
+        etaSeconds = 0L;
+      } else if (totalBytes > 0) {
+        percentComplete = Math.min(100.0, bytes * 100.0 / totalBytes);
+        if (bytesPerSecond > 0) {
+          etaSeconds = (long) (Math.max(0, totalBytes - bytes) / bytesPerSecond);
+        }
+      }
+      final Map<String, Double> stageSeconds = new LinkedHashMap<>();
+      stageNanos.forEach(
+          (stage, nanos) -> stageSeconds.put(stage.getTagValue(), nanos.sum() / 1.0e9));
+      return new FileSnapshot(
+          rifFile.getDisplayName(),
+          fileType.name(),
+          manifest,
+          finished == null ? "loading" : "finished",
+          started.toString(),
+          elapsed.toSeconds(),
+          records,
+          perSecond(records, elapsed),
+          bytes,
+          totalBytes,
+          bytesPerSecond,
+          percentComplete,
+          etaSeconds,
+          stageSeconds);
+    }
+  }
+
+  /**
+   * Accumulates the time spent in CPU bound stages while a batch is processed. Whatever time is
+   * left over when the batch's transaction has completed is attributed to {@link Stage#DB_WRITE}.
+   * Each instance is used by a single thread.
+   */
+  public static final class BatchTimer {
+    /** Progress of the file containing the batch. */
+    private final FileProgress progress;
+
+    /** When the batch started. */
+    private final long startNanos = System.nanoTime();
+
+    /** Time spent in stages other than {@link Stage#DB_WRITE}. */
+    private long stageNanos;
+
+    /**
+     * Initializes an instance.
+     *
+     * @param progress progress of the file containing the batch
+     */
+    private BatchTimer(FileProgress progress) {
+      this.progress = progress;
+    }
+
+    /**
+     * Runs some work and adds the time it takes to a stage.
+     *
+     * @param stage the stage
+     * @param work the work to run
+     */
+    public void time(Stage stage, Runnable work) {
+      final long start = System.nanoTime();
+      try {
+        work.run();
+      } finally {
+        final long nanos = System.nanoTime() - start;
+        stageNanos += nanos;
+        progress.recordStage(stage, nanos);
+      }
+    }
+
+    /** Attributes the time not spent in other stages to {@link Stage#DB_WRITE}. */
+    public void finish() {
+      progress.recordStage(Stage.DB_WRITE, System.nanoTime() - startNanos - stageNanos);
+    }
+  }
+
+  /**
+   * Progress of a single file at a point in time.
+   *
+   * @param file display name of the file
+   * @param fileType type of the file
+   * @param manifest S3 key of the manifest containing the file, empty if unknown
+   * @param status either loading or finished
+   * @param started when loading started
+   * @param elapsedSeconds seconds spent loading so far
+   * @param recordsLoaded number of records loaded so far
+   * @param recordsPerSecond average records loaded per second
+   * @param bytesRead number of bytes read so far
+   * @param totalBytes size of the file, -1 if unknown
+   * @param bytesPerSecond average bytes read per second
+   * @param percentComplete percent of the file read so far, null if unknown
+   * @param etaSeconds estimated seconds remaining, null if unknown
+   * @param stageSeconds total seconds spent in each stage by all threads
+   */
+  public record FileSnapshot(
+      String file,
+      String fileType,
+      String manifest,
+      String status,
+      String started,
+      long elapsedSeconds,
+      long recordsLoaded,
+      double recordsPerSecond,
+      long bytesRead,
+      long totalBytes,
+      double bytesPerSecond,
+      @Nullable Double percentComplete,
+      @Nullable Long etaSeconds,
+      Map<String, Double> stageSeconds) {}
+
+  /**
+   * Progress of the active and recently finished files of a manifest at a point in time.
+   *
+   * @param manifest S3 key of the manifest, empty if unknown
+   * @param recordsLoaded total records loaded from all files
+   * @param recordsPerSecond current records per second of all loading files
+   * @param bytesRead total bytes read from all files
+   * @param bytesPerSecond current bytes per second of all loading files
+   * @param etaSeconds estimated seconds until every loading file has finished, null if unknown
+   * @param files progress of each file
+   */
+  public record ManifestSnapshot(
+      String manifest,
+      long recordsLoaded,
+      double recordsPerSecond,
+      long bytesRead,
+      double bytesPerSecond,
+      @Nullable Long etaSeconds,
+      List<FileSnapshot> files) {
+    /**
+     * Combines the progress of the files of a manifest.
+     *
+     * @param manifest the manifest
+     * @param files the files
+     * @return the combined progress
+     */
+    static ManifestSnapshot of(String manifest, List<FileSnapshot> files) {
+      long records = 0;
+      long bytes = 0;
+      double recordsPerSecond = 0;
+      double bytesPerSecond = 0;
+      Optional<Long> eta = Optional.of(0L);
+      for (FileSnapshot file : files) {
+        records += file.recordsLoaded();
+        bytes += file.bytesRead();
+        if (file.etaSeconds() == null) {
+          eta = Optional.empty();
+        } else {
+          eta = eta.map(max -> Math.max(max, file.etaSeconds()));
+        }
+        if (file.status().equals("loading")) {
+          recordsPerSecond += file.recordsPerSecond();
+          bytesPerSecond += file.bytesPerSecond();
+        }
+      }
+      return new ManifestSnapshot(
+          manifest, records, recordsPerSecond, bytes, bytesPerSecond, eta.orElse(null), files);
+    }
+  }
+
+  /**
+   * Progress of all active and recently finished files at a point in time.
+   *
+   * @param time when the report was created
+   * @param manifests progress grouped by manifest
+   */
+  public record ProgressReport(String time, List<ManifestSnapshot> manifests) {}
+
+  /**
+   * Wraps a {@link RifFile} so that bytes read from the streams it opens are added to the progress
+   * of the file.
+   */
+  private final class ByteCountingRifFile implements RifFile {
+    /** The wrapped file. */
+    private final RifFile rifFile;
+
+    /**
+     * Initializes an instance.
+     *
+     * @param rifFile the wrapped file
+     */
+    private ByteCountingRifFile(RifFile rifFile) {
+      this.rifFile = rifFile;
+    }
+
+    @Override
+    public String getDisplayName() {
+      return rifFile.getDisplayName();
+    }
+
+    @Override
+    public RifFileType getFileType() {
+      return rifFile.getFileType();
+    }
+
+    @Override
+    public Charset getCharset() {
+      return rifFile.getCharset();
+    }
+
+    @Override
+    public InputStream open() {
+      final InputStream stream = rifFile.open();
+      final FileProgress progress = findFile(rifFile);
+      if (progress == null) {
+        return stream;
+      }
+      return new FilterInputStream(stream) {
+        /** Bytes read but not yet added to the progress. */
+        private long unreported;
+
+        @Override
+        public int read() throws IOException {
+          final int result = super.read();
+          if (result >= 0) {
+            count(1);
+          }
+          return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          final int result = super.read(b, off, len);
+          if (result > 0) {
+            count(result);
+          }
+          return result;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+          final long result = super.skip(n);
+          count(result);
+          return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+          progress.addBytesRead(unreported);
+          unreported = 0;
+          super.close();
+        }
+
+        /**
+         * Adds bytes to the progress in chunks so that single byte reads stay cheap.
+         *
+         * @param bytes number of bytes just read
+         */
+        private void count(long bytes) {
+          unreported += bytes;
+          if (unreported >= BYTES_PER_PROGRESS_UPDATE) {
+            progress.addBytesRead(unreported);
+            unreported = 0;
+          }
+        }
+      };
+    }
+  }
+}
@@ -23,6 +23,12 @@ public final class ExtractionOptions {
   /** Common config settings used to configure S3 clients. */
   @Getter private final S3ClientConfig s3ClientConfig;
 
+  /**
+   * Whether RIF files should be tokenized using a {@link gov.cms.bfd.model.rif.parse.RifLineReader}
+   * rather than a {@link org.apache.commons.csv.CSVParser}.
+   */
+  @Getter private final boolean rifLineReaderEnabled;
+
   /**
    * Initializes an instance.
    *
@@ -36,10 +42,29 @@ public final class ExtractionOptions {
       Optional<RifFileType> allowedRifFileType,
       Optional<Integer> s3ListMaxKeys,
       S3ClientConfig s3ClientConfig) {
+    this(s3BucketName, allowedRifFileType, s3ListMaxKeys, s3ClientConfig, false);
+  }
+
+  /**
+   * Initializes an instance.
+   *
+   * @param s3BucketName the value to use for {@link #s3BucketName}
+   * @param allowedRifFileType the value to use for {@link #getDataSetFilter()}
+   * @param s3ListMaxKeys the value to use for {@link #getS3ListMaxKeys()}
+   * @param s3ClientConfig used to configure S3 clients
+   * @param rifLineReaderEnabled the value to use for {@link #isRifLineReaderEnabled()}
+   */
+  public ExtractionOptions(
+      String s3BucketName,
+      Optional<RifFileType> allowedRifFileType,
+      Optional<Integer> s3ListMaxKeys,
+      S3ClientConfig s3ClientConfig,
+      boolean rifLineReaderEnabled) {
     this.s3BucketName = s3BucketName;
     this.allowedRifFileType = allowedRifFileType.orElse(null);
     this.s3ListMaxKeys = s3ListMaxKeys.orElse(null);
     this.s3ClientConfig = s3ClientConfig;
+    this.rifLineReaderEnabled = rifLineReaderEnabled;
   }
 
   /**
@@ -95,6 +120,8 @@ public final class ExtractionOptions {
     builder.append(s3BucketName);
     builder.append(", allowedRifFileType=");
     builder.append(allowedRifFileType);
+    builder.append(", rifLineReaderEnabled=");
+    builder.append(rifLineReaderEnabled);
     builder.append("]");
     return builder.toString();
   }
@@ -2,14 +2,15 @@ package gov.cms.bfd.pipeline.ccw.rif.extract;
 
 import gov.cms.bfd.model.rif.RifFile;
 import gov.cms.bfd.model.rif.RifRecordEvent;
+import gov.cms.bfd.model.rif.parse.RifLineReader;
 import gov.cms.bfd.model.rif.parse.RifParsingUtils;
 import gov.cms.bfd.pipeline.sharedutils.FluxUtils;
 import gov.cms.bfd.sharedutils.interfaces.ThrowingFunction;
+import gov.cms.model.dsl.codegen.library.CsvRifRecord;
+import gov.cms.model.dsl.codegen.library.RifRecord;
 import java.util.List;
 import javax.annotation.concurrent.ThreadSafe;
-import lombok.AllArgsConstructor;
-import lombok.RequiredArgsConstructor;
-import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.csv.CSVParser;
 import reactor.core.publisher.Flux;
 import reactor.util.function.Tuple2;
 
@@ -19,6 +20,21 @@ import reactor.util.function.Tuple2;
  */
 @ThreadSafe
 public abstract class RifFileParser {
+  /**
+   * When true files are tokenized using a {@link RifLineReader} rather than a {@link CSVParser}.
+   * Both produce records with identical values.
+   */
+  private final boolean rifLineReaderEnabled;
+
+  /**
+   * Initializes an instance.
+   *
+   * @param rifLineReaderEnabled the value to use for {@link #rifLineReaderEnabled}
+   */
+  protected RifFileParser(boolean rifLineReaderEnabled) {
+    this.rifLineReaderEnabled = rifLineReaderEnabled;
+  }
+
   /**
    * Creates a new {@link Flux} that, when subscribed to, opens the file, parses RIF data, and
    * publishes the resulting {@link RifRecordEvent} objects.
@@ -28,31 +44,71 @@ public abstract class RifFileParser {
    */
   public abstract Flux<RifRecordEvent<?>> parseRifFile(RifFile rifFile);
 
+  /**
+   * Creates a new {@link Flux} that, when subscribed to, opens the file and publishes its {@link
+   * RifRecord}s. The file is read using a {@link RifLineReader} if that has been enabled and
+   * supports the file's charset, or a {@link CSVParser} otherwise.
+   *
+   * @param rifFile the file to read
+   * @return flux that publishes the records of the file
+   */
+  protected Flux<RifRecord> readRecords(RifFile rifFile) {
+    if (rifLineReaderEnabled && RifLineReader.isSupportedCharset(rifFile.getCharset())) {
+      return FluxUtils.fromAutoCloseable(
+          // creates a RifLineReader for new subscriber
+          () -> RifParsingUtils.createRifLineReader(rifFile),
+          Flux::fromIterable,
+          // used in log message if closing the RifLineReader fails
+          rifFile.getDisplayName());
+    }
+    return FluxUtils.fromAutoCloseable(
+        // creates a CSVParser for new subscriber
+        () -> RifParsingUtils.createCsvParser(rifFile),
+        // wraps each record so that all of them share one copy of the header
+        csvParser -> Flux.fromIterable(csvParser).map(CsvRifRecord.wrapperFor(csvParser)),
+        // used in log message if closing the CSVParser fails
+        rifFile.getDisplayName());
+  }
+
   /**
    * Implementation that parses each individual record into a {@link RifRecordEvent} using a lambda
    * function.
    */
-  @AllArgsConstructor
   public static class Simple extends RifFileParser {
-    /** Lambda used to parse a single {@link CSVRecord} into a {@link RifRecordEvent}. */
-    private final ThrowingFunction<RifRecordEvent<?>, CSVRecord, Exception> parser;
+    /** Lambda used to parse a single {@link RifRecord} into a {@link RifRecordEvent}. */
+    private final ThrowingFunction<RifRecordEvent<?>, RifRecord, Exception> parser;
+
+    /**
+     * Initializes an instance that reads files using a {@link CSVParser}.
+     *
+     * @param parser the value to use for {@link #parser}
+     */
+    public Simple(ThrowingFunction<RifRecordEvent<?>, RifRecord, Exception> parser) {
+      this(parser, false);
+    }
+
+    /**
+     * Initializes an instance.
+     *
+     * @param parser the value to use for {@link #parser}
+     * @param rifLineReaderEnabled true to read files using a {@link RifLineReader}
+     */
+    public Simple(
+        ThrowingFunction<RifRecordEvent<?>, RifRecord, Exception> parser,
+        boolean rifLineReaderEnabled) {
+      super(rifLineReaderEnabled);
+      this.parser = parser;
+    }
 
     @Override
     public Flux<RifRecordEvent<?>> parseRifFile(RifFile rifFile) {
-      return FluxUtils.fromAutoCloseable(
-          // creates a CSVParser for new subscriber
-          () -> RifParsingUtils.createCsvParser(rifFile),
-          // creates flux for subscriber to receive parsed events
-          csvParser ->
-              Flux.fromIterable(csvParser)
-                  .map(FluxUtils.wrapFunction(parser))
-                  // The index operator wraps each record in a tuple containing the index and the
-                  // record.  Then we map with addRecordNumber to set the record number in the
-                  // record and return the record itself.
-                  .index()
-                  .map(RifFileParser::addRecordNumber),
-          // used in log message if closing the CSVParser fails
-          rifFile.getDisplayName());
+      return readRecords(rifFile)
+          .map(FluxUtils.wrapFunction(parser))
+          // The index operator wraps each record in a tuple containing the index and the
+          // record.  Then we map with addRecordNumber to set the record number in the
+          // record and return the record itself.
+          .index()
+          .map(RifFileParser::addRecordNumber);
     }
   }
 
@@ -60,42 +116,62 @@ public abstract class RifFileParser {
    * Implementation that parses groups of consecutive records that have the same value in a given
    * column into a {@link RifRecordEvent} using a lambda function.
    */
-  @RequiredArgsConstructor
   public static class Grouping extends RifFileParser {
     /** The name of the column to group by. */
     private final String groupingColumn;
 
-    /** Lambda used to parse one or more {@link CSVRecord}s into a {@link RifRecordEvent}. */
-    private final ThrowingFunction<RifRecordEvent<?>, List<CSVRecord>, Exception> parser;
+    /** Lambda used to parse one or more {@link RifRecord}s into a {@link RifRecordEvent}. */
+    private final ThrowingFunction<RifRecordEvent<?>, List<RifRecord>, Exception> parser;
+
+    /**
+     * Initializes an instance that reads files using a {@link CSVParser}.
+     *
+     * @param groupingColumn the value to use for {@link #groupingColumn}
+     * @param parser the value to use for {@link #parser}
+     */
+    public Grouping(
+        String groupingColumn,
+        ThrowingFunction<RifRecordEvent<?>, List<RifRecord>, Exception> parser) {
+      this(groupingColumn, parser, false);
+    }
+
+    /**
+     * Initializes an instance.
+     *
+     * @param groupingColumn the value to use for {@link #groupingColumn}
+     * @param parser the value to use for {@link #parser}
+     * @param rifLineReaderEnabled true to read files using a {@link RifLineReader}
+     */
+    public Grouping(
+        String groupingColumn,
+        ThrowingFunction<RifRecordEvent<?>, List<RifRecord>, Exception> parser,
+        boolean rifLineReaderEnabled) {
+      super(rifLineReaderEnabled);
+      this.groupingColumn = groupingColumn;
+      this.parser = parser;
+    }
 
     @Override
     public Flux<RifRecordEvent<?>> parseRifFile(RifFile rifFile) {
-      return FluxUtils.fromAutoCloseable(
-          // creates a CSVParser for new subscriber
-          () -> RifParsingUtils.createCsvParser(rifFile),
-          // creates flux for subscriber to receive parsed events
-          csvParser ->
-              Flux.fromIterable(csvParser)
-                  // joins consecutive records with same grouping column value
-                  .bufferUntilChanged(csvRecord -> csvRecord.get(groupingColumn))
-                  // parses the list of records
-                  .flatMap(this::parse)
-                  // The index operator wraps each record in a tuple containing the index and the
-                  // record.  Then we map with addRecordNumber to set the record number in the
-                  // record and return the record itself.
-                  .index()
-                  .map(RifFileParser::addRecordNumber),
-          // used in log message if closing the CSVParser fails
-          rifFile.getDisplayName());
+      return readRecords(rifFile)
+          // joins consecutive records with same grouping column value
+          .bufferUntilChanged(rifRecord -> rifRecord.get(groupingColumn))
+          // parses the list of records
+          .flatMap(this::parse)
+          // The index operator wraps each record in a tuple containing the index and the
+          // record.  Then we map with addRecordNumber to set the record number in the
+          // record and return the record itself.
+          .index()
+          .map(RifFileParser::addRecordNumber);
     }
 
     /**
-     * Calls the lambda to produce a new {@link RifRecordEvent} from a list of {@link CSVRecord}s.
+     * Calls the lambda to produce a new {@link RifRecordEvent} from a list of {@link RifRecord}s.
      *
      * @param records group of records to parse (may be empty)
      * @return flux containing the resulting object or an empty flux if the list was empty
      */
-    private Flux<RifRecordEvent<?>> parse(List<CSVRecord> records) {
+    private Flux<RifRecordEvent<?>> parse(List<RifRecord> records) {
       try {
         return records.isEmpty() ? Flux.empty() : Flux.just(parser.apply(records));
       } catch (Exception ex) {
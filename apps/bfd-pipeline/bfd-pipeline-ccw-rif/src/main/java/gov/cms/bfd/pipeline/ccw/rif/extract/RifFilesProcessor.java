@@ -26,22 +26,58 @@ import gov.cms.bfd.model.rif.entities.PartDEventParser;
 import gov.cms.bfd.model.rif.entities.SNFClaim;
 import gov.cms.bfd.model.rif.entities.SNFClaimParser;
 import gov.cms.bfd.model.rif.parse.InvalidRifValueException;
+import gov.cms.bfd.model.rif.parse.RifLineReader;
+import gov.cms.bfd.pipeline.ccw.rif.RifLoadTelemetry;
 import gov.cms.model.dsl.codegen.library.DataTransformer.TransformationException;
 import gov.cms.model.dsl.codegen.library.RifObjectWrapper;
+import gov.cms.model.dsl.codegen.library.RifRecord;
 import jakarta.annotation.Nonnull;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.csv.CSVRecord;
 import reactor.core.publisher.Flux;
 
 /** Contains services responsible for handling new RIF files. */
 @Slf4j
 public class RifFilesProcessor {
-  /** Column ID for the column that contains the action value in each CSV record. */
+  /** Column ID for the column that contains the action value in each RIF record. */
   private static final String RECORD_ACTION_COLUMN = "DML_IND";
 
+  /**
+   * When true files are tokenized using a {@link RifLineReader} rather than a {@link
+   * org.apache.commons.csv.CSVParser}.
+   */
+  private final boolean rifLineReaderEnabled;
+
+  /** Receives the time spent parsing and the bytes read from each file. */
+  private final RifLoadTelemetry telemetry;
+
+  /** Initializes an instance that reads files using a {@link org.apache.commons.csv.CSVParser}. */
+  public RifFilesProcessor() {
+    this(false);
+  }
+
+  /**
+   * Initializes an instance.
+   *
+   * @param rifLineReaderEnabled the value to use for {@link #rifLineReaderEnabled}
+   */
+  public RifFilesProcessor(boolean rifLineReaderEnabled) {
+    this(rifLineReaderEnabled, RifLoadTelemetry.createUnpublished());
+  }
+
+  /**
+   * Initializes an instance.
+   *
+   * @param rifLineReaderEnabled the value to use for {@link #rifLineReaderEnabled}
+   * @param telemetry the value to use for {@link #telemetry}
+   */
+  public RifFilesProcessor(boolean rifLineReaderEnabled, RifLoadTelemetry telemetry) {
+    this.rifLineReaderEnabled = rifLineReaderEnabled;
+    this.telemetry = telemetry;
+  }
+
   /**
    * Produces a {@link RifFileRecords} with the {@link RifRecordEvent}s produced from the specified
    * {@link RifFileEvent}.
@@ -64,7 +100,7 @@ public class RifFilesProcessor {
           case PDE -> partDEventParser(rifFileEvent);
           case SNF -> snfClaimParser(rifFileEvent);
         };
-    Flux<RifRecordEvent<?>> records = rifFileParser.parseRifFile(rifFile);
+    Flux<RifRecordEvent<?>> records = rifFileParser.parseRifFile(telemetry.countBytesRead(rifFile));
     return new RifFileRecords(rifFileEvent, records);
   }
 
@@ -74,14 +110,14 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser beneficiaryEventParser(RifFileEvent fileEvent) {
+  private RifFileParser beneficiaryEventParser(RifFileEvent fileEvent) {
     final var parser = new BeneficiaryParser();
     return new RifFileParser.Simple(
-        csvRecord -> {
-          trace(csvRecord);
-          final List<CSVRecord> csvRecords = List.of(csvRecord);
-          final RecordAction recordAction = parseRecordAction(csvRecord);
-          final Beneficiary beneficiaryRow = parse(csvRecords, parser::transformMessage);
+        rifRecord -> {
+          trace(rifRecord);
+          final List<RifRecord> rifRecords = List.of(rifRecord);
+          final RecordAction recordAction = parseRecordAction(rifRecord);
+          final Beneficiary beneficiaryRow = parse(fileEvent, rifRecords, parser::transformMessage);
 
           // Swap the unhashed HICN into the correct field.
           beneficiaryRow.setHicnUnhashed(Optional.ofNullable(beneficiaryRow.getHicn()));
@@ -89,11 +125,12 @@ public class RifFilesProcessor {
 
           return new RifRecordEvent<>(
               fileEvent,
-              csvRecords,
+              rifRecords,
               recordAction,
               beneficiaryRow.getBeneficiaryId(),
               beneficiaryRow);
-        });
+        },
+        rifLineReaderEnabled);
   }
 
   /**
@@ -102,21 +139,23 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser beneficiaryHistoryEventParser(RifFileEvent fileEvent) {
+  private RifFileParser beneficiaryHistoryEventParser(RifFileEvent fileEvent) {
     final var parser = new BeneficiaryHistoryParser();
     return new RifFileParser.Simple(
-        csvRecord -> {
-          trace(csvRecord);
-          final List<CSVRecord> csvRecords = List.of(csvRecord);
-          final RecordAction recordAction = parseRecordAction(csvRecord);
-          final BeneficiaryHistory beneHistoryRow = parse(csvRecords, parser::transformMessage);
+        rifRecord -> {
+          trace(rifRecord);
+          final List<RifRecord> rifRecords = List.of(rifRecord);
+          final RecordAction recordAction = parseRecordAction(rifRecord);
+          final BeneficiaryHistory beneHistoryRow =
+              parse(fileEvent, rifRecords, parser::transformMessage);
           return new RifRecordEvent<>(
               fileEvent,
-              csvRecords,
+              rifRecords,
               recordAction,
               beneHistoryRow.getBeneficiaryId(),
               beneHistoryRow);
-        });
+        },
+        rifLineReaderEnabled);
   }
 
   /**
@@ -125,17 +164,18 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser partDEventParser(RifFileEvent fileEvent) {
+  private RifFileParser partDEventParser(RifFileEvent fileEvent) {
     final var parser = new PartDEventParser();
     return new RifFileParser.Simple(
-        csvRecord -> {
-          trace(csvRecord);
-          final List<CSVRecord> csvRecords = List.of(csvRecord);
-          final RecordAction recordAction = parseRecordAction(csvRecord);
-          final PartDEvent partDEvent = parse(csvRecords, parser::transformMessage);
+        rifRecord -> {
+          trace(rifRecord);
+          final List<RifRecord> rifRecords = List.of(rifRecord);
+          final RecordAction recordAction = parseRecordAction(rifRecord);
+          final PartDEvent partDEvent = parse(fileEvent, rifRecords, parser::transformMessage);
           return new RifRecordEvent<>(
-              fileEvent, csvRecords, recordAction, partDEvent.getBeneficiaryId(), partDEvent);
-        });
+              fileEvent, rifRecords, recordAction, partDEvent.getBeneficiaryId(), partDEvent);
+        },
+        rifLineReaderEnabled);
   }
 
   /**
@@ -144,17 +184,18 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser inpatientClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser inpatientClaimParser(RifFileEvent fileEvent) {
     final var parser = new InpatientClaimParser();
     return new RifFileParser.Grouping(
         RifFileType.INPATIENT.getIdColumn().name(),
-        csvRecords -> {
-          trace(csvRecords);
-          final RecordAction recordAction = parseRecordAction(csvRecords);
-          final InpatientClaim claim = parse(csvRecords, parser::transformMessage);
+        rifRecords -> {
+          trace(rifRecords);
+          final RecordAction recordAction = parseRecordAction(rifRecords);
+          final InpatientClaim claim = parse(fileEvent, rifRecords, parser::transformMessage);
           return new RifRecordEvent<>(
-              fileEvent, csvRecords, recordAction, claim.getBeneficiaryId(), claim);
-        });
+              fileEvent, rifRecords, recordAction, claim.getBeneficiaryId(), claim);
+        },
+        rifLineReaderEnabled);
   }
 
   /**
@@ -163,17 +204,18 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser outpatientClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser outpatientClaimParser(RifFileEvent fileEvent) {
     final var parser = new OutpatientClaimParser();
     return new RifFileParser.Grouping(
         RifFileType.OUTPATIENT.getIdColumn().name(),
-        csvRecords -> {
-          trace(csvRecords);
-          final RecordAction recordAction = parseRecordAction(csvRecords);
-          final OutpatientClaim claim = parse(csvRecords, parser::transformMessage);
+        rifRecords -> {
+          trace(rifRecords);
+          final RecordAction recordAction = parseRecordAction(rifRecords);
+          final OutpatientClaim claim = parse(fileEvent, rifRecords, parser::transformMessage);
           return new RifRecordEvent<>(
-              fileEvent, csvRecords, recordAction, claim.getBeneficiaryId(), claim);
-        });
+              fileEvent, rifRecords, recordAction, claim.getBeneficiaryId(), claim);
+        },
+        rifLineReaderEnabled);
   }
 
   /**
@@ -182,17 +224,18 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser carrierClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser carrierClaimParser(RifFileEvent fileEvent) {
     final var parser = new CarrierClaimParser();
     return new RifFileParser.Grouping(
         RifFileType.CARRIER.getIdColumn().name(),
-        csvRecords -> {
-          trace(csvRecords);
-          final RecordAction recordAction = parseRecordAction(csvRecords);
-          final CarrierClaim claim = parse(csvRecords, parser::transformMessage);
+        rifRecords -> {
+          trace(rifRecords);
+          final RecordAction recordAction = parseRecordAction(rifRecords);
+          final CarrierClaim claim = parse(fileEvent, rifRecords, parser::transformMessage);
           return new RifRecordEvent<>(
-              fileEvent, csvRecords, recordAction, claim.getBeneficiaryId(), claim);
-        });
+              fileEvent, rifRecords, recordAction, claim.getBeneficiaryId(), claim);
+        },
+        rifLineReaderEnabled);
   }
 
   /**
@@ -201,17 +244,18 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser snfClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser snfClaimParser(RifFileEvent fileEvent) {
     final var parser = new SNFClaimParser();
     return new RifFileParser.Grouping(
         RifFileType.SNF.getIdColumn().name(),
-        csvRecords -> {
-          trace(csvRecords);
-          final RecordAction recordAction = parseRecordAction(csvRecords);
-          final SNFClaim claim = parse(csvRecords, parser::transformMessage);
+        rifRecords -> {
+          trace(rifRecords);
+          final RecordAction recordAction = parseRecordAction(rifRecords);
+          final SNFClaim claim = parse(fileEvent, rifRecords, parser::transformMessage);
           return new RifRecordEvent<>(
-              fileEvent, csvRecords, recordAction, claim.getBeneficiaryId(), claim);
-        });
+              fileEvent, rifRecords, recordAction, claim.getBeneficiaryId(), claim);
+        },
+        rifLineReaderEnabled);
   }
 
   /**
@@ -220,17 +264,18 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser hospiceClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser hospiceClaimParser(RifFileEvent fileEvent) {
     final var parser = new HospiceClaimParser();
     return new RifFileParser.Grouping(
         RifFileType.HOSPICE.getIdColumn().name(),
-        csvRecords -> {
-          trace(csvRecords);
-          final RecordAction recordAction = parseRecordAction(csvRecords);
-          final HospiceClaim claim = parse(csvRecords, parser::transformMessage);
+        rifRecords -> {
+          trace(rifRecords);
+          final RecordAction recordAction = parseRecordAction(rifRecords);
+          final HospiceClaim claim = parse(fileEvent, rifRecords, parser::transformMessage);
           return new RifRecordEvent<>(
-              fileEvent, csvRecords, recordAction, claim.getBeneficiaryId(), claim);
-        });
+              fileEvent, rifRecords, recordAction, claim.getBeneficiaryId(), claim);
+        },
+        rifLineReaderEnabled);
   }
 
   /**
@@ -239,17 +284,18 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser hhaClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser hhaClaimParser(RifFileEvent fileEvent) {
     final var parser = new HHAClaimParser();
     return new RifFileParser.Grouping(
         RifFileType.HHA.getIdColumn().name(),
-        csvRecords -> {
-          trace(csvRecords);
-          final RecordAction recordAction = parseRecordAction(csvRecords);
-          final HHAClaim claim = parse(csvRecords, parser::transformMessage);
+        rifRecords -> {
+          trace(rifRecords);
+          final RecordAction recordAction = parseRecordAction(rifRecords);
+          final HHAClaim claim = parse(fileEvent, rifRecords, parser::transformMessage);
           return new RifRecordEvent<>(
-              fileEvent, csvRecords, recordAction, claim.getBeneficiaryId(), claim);
-        });
+              fileEvent, rifRecords, recordAction, claim.getBeneficiaryId(), claim);
+        },
+        rifLineReaderEnabled);
   }
 
   /**
@@ -258,84 +304,92 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser dmeClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser dmeClaimParser(RifFileEvent fileEvent) {
     final var parser = new DMEClaimParser();
     return new RifFileParser.Grouping(
         RifFileType.DME.getIdColumn().name(),
-        csvRecords -> {
-          trace(csvRecords);
-          final RecordAction recordAction = parseRecordAction(csvRecords);
-          final DMEClaim claim = parse(csvRecords, parser::transformMessage);
+        rifRecords -> {
+          trace(rifRecords);
+          final RecordAction recordAction = parseRecordAction(rifRecords);
+          final DMEClaim claim = parse(fileEvent, rifRecords, parser::transformMessage);
           return new RifRecordEvent<>(
-              fileEvent, csvRecords, recordAction, claim.getBeneficiaryId(), claim);
-        });
+              fileEvent, rifRecords, recordAction, claim.getBeneficiaryId(), claim);
+        },
+        rifLineReaderEnabled);
   }
 
   /**
-   * Calls the provided parser lambda function with the given list of {@link CSVRecord}s to produce
+   * Calls the provided parser lambda function with the given list of {@link RifRecord}s to produce
    * an object. {@link TransformationException}s are converted into {@link
-   * InvalidRifValueException}s.
+   * InvalidRifValueException}s. The time taken is added to the file's {@link
+   * RifLoadTelemetry.Stage#PARSE} stage.
    *
-   * @param csvRecords records to pass to the lambda function
+   * @param fileEvent the file being parsed
+   * @param rifRecords records to pass to the lambda function
    * @param parser the lambda function that does the parsing
    * @return the object returned by the lambda function
    * @param <T> the type of object returned by the lambda function
    */
-  private static <T> T parse(List<CSVRecord> csvRecords, Function<RifObjectWrapper, T> parser) {
+  private <T> T parse(
+      RifFileEvent fileEvent, List<RifRecord> rifRecords, Function<RifObjectWrapper, T> parser) {
+    final long startNanos = System.nanoTime();
     try {
-      return parser.apply(new RifObjectWrapper(csvRecords));
+      return parser.apply(new RifObjectWrapper(rifRecords));
     } catch (TransformationException error) {
       String message =
           String.format(
               "Parse error: lineNumber: %d message: %s errors: %s",
-              csvRecords.get(0).getRecordNumber(), error.getMessage(), error.getErrors());
+              rifRecords.get(0).getRecordNumber(), error.getMessage(), error.getErrors());
       log.warn(
-          "Parse error encountered near line number '{}'.", csvRecords.get(0).getRecordNumber());
+          "Parse error encountered near line number '{}'.", rifRecords.get(0).getRecordNumber());
       throw new InvalidRifValueException(message, error);
+    } finally {
+      telemetry.recordStage(
+          fileEvent.getFile(), RifLoadTelemetry.Stage.PARSE, System.nanoTime() - startNanos);
     }
   }
 
   /**
    * Extracts the appropriate {@link RecordAction} from the given record.
    *
-   * @param csvRecord the record
+   * @param rifRecord the record
    * @return the action
    */
   @Nonnull
-  private static RecordAction parseRecordAction(CSVRecord csvRecord) {
-    return RecordAction.match(csvRecord.get(RECORD_ACTION_COLUMN));
+  private static RecordAction parseRecordAction(RifRecord rifRecord) {
+    return RecordAction.match(rifRecord.get(RECORD_ACTION_COLUMN));
   }
 
   /**
    * Extracts the appropriate {@link RecordAction} from the first record.
    *
-   * @param csvRecords the records
+   * @param rifRecords the records
    * @return the action
    */
   @Nonnull
-  private static RecordAction parseRecordAction(List<CSVRecord> csvRecords) {
-    return parseRecordAction(csvRecords.get(0));
+  private static RecordAction parseRecordAction(List<RifRecord> rifRecords) {
+    return parseRecordAction(rifRecords.get(0));
   }
 
   /**
    * Logs all of the records if trace logging is enabled.
    *
-   * @param csvRecords the records
+   * @param rifRecords the records
    */
-  private static void trace(List<CSVRecord> csvRecords) {
+  private static void trace(List<RifRecord> rifRecords) {
     if (log.isTraceEnabled()) {
-      log.trace(csvRecords.toString());
+      log.trace(rifRecords.toString());
     }
   }
 
   /**
    * Logs the record if trace logging is enabled.
    *
-   * @param csvRecord the record
+   * @param rifRecord the record
    */
-  private static void trace(CSVRecord csvRecord) {
+  private static void trace(RifRecord rifRecord) {
     if (log.isTraceEnabled()) {
-      log.trace(csvRecord.toString());
+      log.trace(rifRecord.toString());
     }
   }
 }
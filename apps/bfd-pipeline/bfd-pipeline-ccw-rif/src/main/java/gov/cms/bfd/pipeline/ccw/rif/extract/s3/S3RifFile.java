@@ -13,6 +13,7 @@ import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -94,6 +95,17 @@ public final class S3RifFile implements RifFile {
     return fileDownloadStream;
   }
 
+  /**
+   * Returns the number of bytes that {@link #open} will return if that can be determined without
+   * reading the file. Compressed files are decompressed while they are read so their size is not
+   * known.
+   *
+   * @return the size or empty if it is not known
+   */
+  public Optional<Long> getSizeInBytes() {
+    return waitForDownload().getBytes().sizeIfKnown().toJavaUtil();
+  }
+
   /**
    * Downloads the manifest entry and waits for its completion before returning.
    *
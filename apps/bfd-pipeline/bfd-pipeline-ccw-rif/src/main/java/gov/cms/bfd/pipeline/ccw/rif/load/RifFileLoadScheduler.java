@@ -0,0 +1,202 @@
+package gov.cms.bfd.pipeline.ccw.rif.load;
+
+import com.google.common.annotations.VisibleForTesting;
+import gov.cms.bfd.model.rif.RifFileEvent;
+import gov.cms.bfd.model.rif.RifFileType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToIntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides the order in which the files of a data set are loaded and runs independent files
+ * concurrently.
+ *
+ * <p>Claims reference beneficiaries so all beneficiary files are loaded first, one at a time and in
+ * manifest order. The remaining files are grouped by {@link RifFileType}. Files within a group are
+ * loaded one at a time in manifest order since later files may update records from earlier ones,
+ * but different groups are loaded concurrently using up to {@link #maxConcurrentFiles} threads.
+ *
+ * <p>Every file being loaded holds one permit per database connection its loader can use. A file
+ * only starts once enough permits are available so the total number of loader threads and database
+ * connections in use never exceeds {@link #maxConnections} no matter how many files are loading.
+ *
+ * <p>Each file is still loaded by a single call to {@link FileLoader#loadFile} so per file progress
+ * tracking and restart behavior are unchanged. Once any file fails no new files are started, files
+ * that are already loading are allowed to finish, and the first failure is thrown to the caller.
+ * Files that were never started are left for the next run of the job.
+ */
+public class RifFileLoadScheduler {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RifFileLoadScheduler.class);
+
+  /** File types that must be loaded before any claims. */
+  @VisibleForTesting
+  static final Set<RifFileType> BENEFICIARY_FILE_TYPES =
+      Set.of(RifFileType.BENEFICIARY, RifFileType.BENEFICIARY_HISTORY);
+
+  /** Maximum amount of time to wait for in flight files to stop after an interrupt. */
+  private static final long MAX_INTERRUPTED_WAIT_MINUTES = 5;
+
+  /** Maximum number of files that can be loaded at the same time. */
+  private final int maxConcurrentFiles;
+
+  /** Total number of database connections that can be used by all files being loaded. */
+  private final int maxConnections;
+
+  /** Returns the number of database connections needed to load a file of a given type. */
+  private final ToIntFunction<RifFileType> connectionsPerFile;
+
+  /**
+   * Initializes an instance.
+   *
+   * @param maxConcurrentFiles maximum number of files that can be loaded at the same time
+   * @param maxConnections total number of database connections available to all files
+   * @param connectionsPerFile returns the number of connections needed to load a file of a type
+   */
+  public RifFileLoadScheduler(
+      int maxConcurrentFiles, int maxConnections, ToIntFunction<RifFileType> connectionsPerFile) {
+    this.maxConcurrentFiles = Math.max(1, maxConcurrentFiles);
+    this.maxConnections = Math.max(1, maxConnections);
+    this.connectionsPerFile = connectionsPerFile;
+  }
+
+  /**
+   * Loads all of the files using the given {@link FileLoader}. Returns once every file has been
+   * loaded or throws the first exception thrown by the {@link FileLoader}.
+   *
+   * @param fileEvents the files to load in manifest order
+   * @param loader loads a single file
+   * @throws Exception the first exception thrown by {@code loader}
+   */
+  public void loadFiles(List<RifFileEvent> fileEvents, FileLoader loader) throws Exception {
+    final Map<RifFileType, List<RifFileEvent>> claimFilesByType = new LinkedHashMap<>();
+    for (RifFileEvent fileEvent : fileEvents) {
+      if (BENEFICIARY_FILE_TYPES.contains(fileEvent.getFile().getFileType())) {
+        loader.loadFile(fileEvent);
+      }
+    }
+    for (RifFileEvent fileEvent : fileEvents) {
+      final RifFileType fileType = fileEvent.getFile().getFileType();
+      if (!BENEFICIARY_FILE_TYPES.contains(fileType)) {
+        claimFilesByType.computeIfAbsent(fileType, ignored -> new ArrayList<>()).add(fileEvent);
+      }
+    }
+
+    final int threadCount = Math.min(maxConcurrentFiles, claimFilesByType.size());
+    if (threadCount <= 1) {
+      for (List<RifFileEvent> group : claimFilesByType.values()) {
+        for (RifFileEvent fileEvent : group) {
+          loader.loadFile(fileEvent);
+        }
+      }
+      return;
+    }
+
+    LOGGER.info(
+        "Loading {} claim file types using up to {} threads and {} connections",
+        claimFilesByType.size(),
+        threadCount,
+        maxConnections);
+    final Semaphore connections = new Semaphore(maxConnections, true);
+    final AtomicBoolean failed = new AtomicBoolean();
+    final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    try {
+      final List<Future<?>> results = new ArrayList<>();
+      for (List<RifFileEvent> group : claimFilesByType.values()) {
+        results.add(
+            executor.submit(
+                () -> {
+                  loadGroup(group, loader, connections, failed);
+                  return null;
+                }));
+      }
+      executor.shutdown();
+      waitForResults(results);
+    } catch (InterruptedException ex) {
+      executor.shutdownNow();
+      executor.awaitTermination(MAX_INTERRUPTED_WAIT_MINUTES, TimeUnit.MINUTES);
+      throw ex;
+    }
+  }
+
+  /**
+   * Loads the files in a group one at a time. Stops without loading any more files as soon as any
+   * file in any group has failed.
+   *
+   * @param group files of one type in manifest order
+   * @param loader loads a single file
+   * @param connections permits for the database connections shared by all groups
+   * @param failed set to true once any file has failed
+   * @throws Exception the exception thrown by {@code loader}
+   */
+  private void loadGroup(
+      List<RifFileEvent> group, FileLoader loader, Semaphore connections, AtomicBoolean failed)
+      throws Exception {
+    for (RifFileEvent fileEvent : group) {
+      final int permits =
+          Math.min(
+              maxConnections,
+              Math.max(1, connectionsPerFile.applyAsInt(fileEvent.getFile().getFileType())));
+      connections.acquire(permits);
+      try {
+        if (failed.get()) {
+          return;
+        }
+        loader.loadFile(fileEvent);
+      } catch (Exception ex) {
+        failed.set(true);
+        throw ex;
+      } finally {
+        connections.release(permits);
+      }
+    }
+  }
+
+  /**
+   * Waits for every group to finish and then throws the first exception thrown by any group. An
+   * {@link InterruptedException} is only thrown if no group failed for some other reason.
+   *
+   * @param results the results of all groups
+   * @throws Exception the first exception thrown by any group
+   */
+  private static void waitForResults(List<Future<?>> results) throws Exception {
+    Exception failure = null;
+    for (Future<?> result : results) {
+      try {
+        result.get();
+      } catch (ExecutionException ex) {
+        final Exception cause =
+            ex.getCause() instanceof Exception exception ? exception : new Exception(ex.getCause());
+        if (failure == null || failure instanceof InterruptedException) {
+          failure = cause;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /** Loads a single file. */
+  @FunctionalInterface
+  public interface FileLoader {
+    /**
+     * Loads the file and returns once it has been completely loaded.
+     *
+     * @param fileEvent the file to load
+     * @throws Exception any error that prevented the file from being loaded
+     */
+    void loadFile(RifFileEvent fileEvent) throws Exception;
+  }
+}
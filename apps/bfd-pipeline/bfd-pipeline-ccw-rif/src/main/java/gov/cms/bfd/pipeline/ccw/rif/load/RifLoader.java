@@ -14,7 +14,9 @@ import gov.cms.bfd.model.rif.RifRecordEvent;
 import gov.cms.bfd.model.rif.entities.Beneficiary;
 import gov.cms.bfd.model.rif.entities.BeneficiaryHistory;
 import gov.cms.bfd.model.rif.entities.BeneficiaryMonthly;
+import gov.cms.bfd.model.rif.entities.BeneficiaryPartDContractMonth;
 import gov.cms.bfd.model.rif.entities.Beneficiary_;
+import gov.cms.bfd.pipeline.ccw.rif.RifLoadTelemetry;
 import gov.cms.bfd.pipeline.ccw.rif.extract.RifFileRecords;
 import gov.cms.bfd.pipeline.ccw.rif.load.RifRecordLoadResult.LoadAction;
 import gov.cms.bfd.pipeline.sharedutils.FluxUtils;
@@ -40,10 +42,14 @@ import java.time.Period;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -84,6 +90,9 @@ public final class RifLoader {
   /** Used to wait for flux completion. */
   private final FluxWaiter fluxWaiter;
 
+  /** Receives the progress of each file and the time spent in each stage of loading it. */
+  private final RifLoadTelemetry telemetry;
+
   /** The maximum amount of time we will wait for a job to complete loading its batches. */
   private static final Duration MAX_FILE_WAIT_TIME = Duration.ofHours(72);
 
@@ -110,8 +119,21 @@ public final class RifLoader {
    * @param appState the {@link PipelineApplicationState} to use
    */
   public RifLoader(LoadAppOptions options, PipelineApplicationState appState) {
+    this(options, appState, RifLoadTelemetry.createUnpublished());
+  }
+
+  /**
+   * Constructs a new {@link RifLoader} instance.
+   *
+   * @param options the {@link LoadAppOptions} to use
+   * @param appState the {@link PipelineApplicationState} to use
+   * @param telemetry the {@link RifLoadTelemetry} to use
+   */
+  public RifLoader(
+      LoadAppOptions options, PipelineApplicationState appState, RifLoadTelemetry telemetry) {
     this.options = options;
     this.appState = appState;
+    this.telemetry = telemetry;
 
     idHasher = new IdHasher(options.getIdHasherConfig());
     fluxWaiter = new FluxWaiter(MAX_FILE_WAIT_TIME, MAX_INTERRUPTED_WAIT_TIME);
@@ -214,6 +236,7 @@ public final class RifLoader {
           // scheduler.
           final Scheduler scheduler = createScheduler(performanceSettings);
           final var progressTracker = new RifFileProgressTracker(rifFile);
+          final var fileProgress = telemetry.startFile(dataToLoad.getSourceEvent());
           final long startingRecordNumber = progressTracker.getStartingRecordNumber();
           if (startingRecordNumber > 0) {
             LOGGER.info("skipping to record number {} before processing", startingRecordNumber);
@@ -241,13 +264,17 @@ public final class RifLoader {
               // process batches in parallel using threads from our scheduler
               .flatMap(
                   batch ->
-                      processBatch(batch, loadedFileId)
+                      processBatch(batch, loadedFileId, fileProgress)
                           .subscribeOn(scheduler)
                           // Stop processing if we have received an interrupt
                           .takeUntil(ignored -> interrupted.get()),
                   performanceSettings.getLoaderThreads())
               // Mark active record as complete so progress can be updated.
-              .doOnNext(result -> progressTracker.recordComplete(result.getRecordNumber()))
+              .doOnNext(
+                  result -> {
+                    progressTracker.recordComplete(result.getRecordNumber());
+                    fileProgress.addRecordsLoaded(1);
+                  })
               // Update progress with final result when all records have been processed
               .doOnComplete(() -> progressTracker.writeProgress())
               // clean up when the flux terminates (either by error or completion)
@@ -255,6 +282,7 @@ public final class RifLoader {
                   ignored -> {
                     progressUpdateSchedule.dispose();
                     timerDataSetFile.stop();
+                    telemetry.finishFile(fileProgress);
                     logRecordCounts();
                     scheduler.dispose();
                   })
@@ -271,10 +299,13 @@ public final class RifLoader {
    *
    * @param recordsBatch the {@link RifRecordEvent}s to process
    * @param loadedFileId the loaded file id
+   * @param fileProgress receives the time spent in each stage of processing the batch
    * @return the flux
    */
   private Flux<RifRecordLoadResult> processBatch(
-      List<RifRecordEvent<?>> recordsBatch, long loadedFileId) {
+      List<RifRecordEvent<?>> recordsBatch,
+      long loadedFileId,
+      RifLoadTelemetry.FileProgress fileProgress) {
     return FluxUtils.fromIterableFunction(
         () -> {
           final RifFileEvent fileEvent = recordsBatch.get(0).getFileEvent();
@@ -303,11 +334,14 @@ public final class RifLoader {
           // method.
           RifLoadFailure failure = null;
           List<RifRecordLoadResult> processResults = List.of();
+          final RifLoadTelemetry.BatchTimer batchTimer = fileProgress.startBatch();
           try (TransactionManager transactionManager =
               new TransactionManager(appState.getEntityManagerFactory())) {
             processResults =
                 transactionManager.executeFunction(
-                    entityManager -> processBatchImpl(recordsBatch, loadedFileId, entityManager));
+                    entityManager ->
+                        processBatchImpl(recordsBatch, loadedFileId, entityManager, batchTimer));
+            batchTimer.finish();
           } catch (Exception e) {
             LOGGER.warn("Failed to load '{}' batch.", rifFileType, e);
             failure = new RifLoadFailure(recordsBatch, e);
@@ -337,11 +371,15 @@ public final class RifLoader {
    * @param recordsBatch the {@link RifRecordEvent}s to process
    * @param loadedFileId the loaded file id
    * @param entityManager the {@link EntityManager} for the current transaction
+   * @param batchTimer receives the time spent hashing and processing SAMHSA codes
    * @return the {@link RifRecordLoadResult}s that model the results of the operation
    * @throws IOException can be thrown by {@link org.apache.commons.csv.CSVPrinter}
    */
   private List<RifRecordLoadResult> processBatchImpl(
-      List<RifRecordEvent<?>> recordsBatch, long loadedFileId, EntityManager entityManager)
+      List<RifRecordEvent<?>> recordsBatch,
+      long loadedFileId,
+      EntityManager entityManager,
+      RifLoadTelemetry.BatchTimer batchTimer)
       throws IOException {
     RifFileEvent fileEvent = recordsBatch.get(0).getFileEvent();
     MetricRegistry fileEventMetrics = fileEvent.getEventMetrics();
@@ -349,11 +387,20 @@ public final class RifLoader {
 
     if (rifFileType == RifFileType.BENEFICIARY_HISTORY) {
       for (RifRecordEvent<?> rifRecordEvent : recordsBatch) {
-        hashBeneficiaryHistoryHicn(rifRecordEvent);
-        hashBeneficiaryHistoryMbi(rifRecordEvent);
+        batchTimer.time(
+            RifLoadTelemetry.Stage.HASH,
+            () -> {
+              hashBeneficiaryHistoryHicn(rifRecordEvent);
+              hashBeneficiaryHistoryMbi(rifRecordEvent);
+            });
       }
     }
 
+    final Map<Long, Beneficiary> existingBeneficiaries =
+        rifFileType == RifFileType.BENEFICIARY
+            ? findExistingBeneficiaries(recordsBatch, entityManager, fileEventMetrics)
+            : Map.of();
+
     List<RifRecordLoadResult> loadResults = new ArrayList<>(recordsBatch.size());
 
     /*
@@ -391,7 +438,8 @@ public final class RifLoader {
 
         if (recordInDb == null) {
           loadAction = LoadAction.INSERTED;
-          tweakIfBeneficiary(entityManager, loadedBatchBuilder, rifRecordEvent);
+          tweakIfBeneficiary(
+              entityManager, loadedBatchBuilder, rifRecordEvent, existingBeneficiaries, batchTimer);
           entityManager.persist(record);
           // FIXME Object recordInDbAfterUpdate = entityManager.find(record.getClass(), recordId);
         } else {
@@ -400,11 +448,13 @@ public final class RifLoader {
       } else if (strategy == LoadStrategy.INSERT_UPDATE_NON_IDEMPOTENT) {
         if (rifRecordEvent.getRecordAction().equals(RecordAction.INSERT)) {
           loadAction = LoadAction.INSERTED;
-          tweakIfBeneficiary(entityManager, loadedBatchBuilder, rifRecordEvent);
+          tweakIfBeneficiary(
+              entityManager, loadedBatchBuilder, rifRecordEvent, existingBeneficiaries, batchTimer);
           entityManager.persist(record);
         } else if (rifRecordEvent.getRecordAction().equals(RecordAction.UPDATE)) {
           loadAction = LoadAction.UPDATED;
-          tweakIfBeneficiary(entityManager, loadedBatchBuilder, rifRecordEvent);
+          tweakIfBeneficiary(
+              entityManager, loadedBatchBuilder, rifRecordEvent, existingBeneficiaries, batchTimer);
           entityManager.merge(record);
         } else {
           throw new BadCodeMonkeyException(
@@ -413,7 +463,8 @@ public final class RifLoader {
         }
       } else throw new BadCodeMonkeyException();
       if (Arrays.asList(POSSIBLE_SAMHSA_CLAIMS).contains(rifFileType)) {
-        samhsaUtil.processCcwClaim(record, entityManager);
+        batchTimer.time(
+            RifLoadTelemetry.Stage.SAMHSA, () -> samhsaUtil.processCcwClaim(record, entityManager));
       }
       LOGGER.trace("Loaded '{}' record.", rifFileType);
 
@@ -429,6 +480,54 @@ public final class RifLoader {
     return loadResults;
   }
 
+  /**
+   * Loads the current version of every {@link Beneficiary} being updated by a batch, along with
+   * their {@link BeneficiaryMonthly} records, using a single query. Doing this once per batch
+   * rather than once per record avoids a round trip to the database for every updated beneficiary.
+   *
+   * <p>The returned entities are managed by the {@link EntityManager} so any that appear more than
+   * once in the batch will reflect the earlier updates when the later records are processed, just
+   * as they did when each one was queried separately.
+   *
+   * @param recordsBatch the {@link RifRecordEvent}s being processed
+   * @param entityManager the {@link EntityManager} for the current transaction
+   * @param fileEventMetrics used to time the query
+   * @return the existing beneficiaries keyed by beneficiary id
+   */
+  private Map<Long, Beneficiary> findExistingBeneficiaries(
+      List<RifRecordEvent<?>> recordsBatch,
+      EntityManager entityManager,
+      MetricRegistry fileEventMetrics) {
+    final Set<Long> beneficiaryIds = new HashSet<>();
+    for (RifRecordEvent<?> rifRecordEvent : recordsBatch) {
+      if (rifRecordEvent.getRecordAction() == RecordAction.UPDATE
+          && rifRecordEvent.getRecord() instanceof Beneficiary beneficiary) {
+        beneficiaryIds.add(beneficiary.getBeneficiaryId());
+      }
+    }
+    if (beneficiaryIds.isEmpty()) {
+      return Map.of();
+    }
+
+    try (Timer.Context ignored =
+        fileEventMetrics
+            .timer(MetricRegistry.name(getClass().getSimpleName(), "beneficiaryPrefetchQueries"))
+            .time()) {
+      CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+      CriteriaQuery<Beneficiary> criteria = builder.createQuery(Beneficiary.class);
+      Root<Beneficiary> root = criteria.from(Beneficiary.class);
+      root.fetch(Beneficiary_.beneficiaryMonthlys, JoinType.LEFT);
+      criteria.select(root).distinct(true);
+      criteria.where(root.get(Beneficiary_.beneficiaryId).in(beneficiaryIds));
+
+      final Map<Long, Beneficiary> existingBeneficiaries = new HashMap<>();
+      for (Beneficiary beneficiary : entityManager.createQuery(criteria).getResultList()) {
+        existingBeneficiaries.put(beneficiary.getBeneficiaryId(), beneficiary);
+      }
+      return existingBeneficiaries;
+    }
+  }
+
   /**
    * Applies various "tweaks" to the {@link Beneficiary} (if any) in the specified {@link
    * RifRecordEvent}.
@@ -442,11 +541,15 @@ public final class RifLoader {
    * @param entityManager the {@link EntityManager} to use
    * @param loadedBatchBuilder the {@link LoadedBatchBuilder} to use
    * @param rifRecordEvent the {@link RifRecordEvent} to handle the {@link Beneficiary} (if any) for
+   * @param existingBeneficiaries the result of {@link #findExistingBeneficiaries} for the batch
+   * @param batchTimer receives the time spent hashing identifiers
    */
   private void tweakIfBeneficiary(
       EntityManager entityManager,
       LoadedBatchBuilder loadedBatchBuilder,
-      RifRecordEvent<?> rifRecordEvent) {
+      RifRecordEvent<?> rifRecordEvent,
+      Map<Long, Beneficiary> existingBeneficiaries,
+      RifLoadTelemetry.BatchTimer batchTimer) {
     RifRecordBase record = rifRecordEvent.getRecord();
 
     // Nothing to do here unless it's a Beneficiary record.
@@ -467,21 +570,13 @@ public final class RifLoader {
        * record/PK in same RIF file allowed. Otherwise, we're running the risk of data race bugs and
        * out-of-order application due to the asynchronous nature of this processing.
        */
-      CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-      CriteriaQuery<Beneficiary> criteria = builder.createQuery(Beneficiary.class);
-      Root<Beneficiary> root = criteria.from(Beneficiary.class);
-      root.fetch(Beneficiary_.beneficiaryMonthlys, JoinType.LEFT);
-      criteria.select(root);
-      criteria.where(
-          builder.equal(
-              root.get(Beneficiary_.beneficiaryId), newBeneficiaryRecord.getBeneficiaryId()));
-
-      try {
-        oldBeneficiaryRecord =
-            Optional.ofNullable(entityManager.createQuery(criteria).getSingleResult());
-      } catch (NoResultException ex) {
+      oldBeneficiaryRecord =
+          Optional.ofNullable(existingBeneficiaries.get(newBeneficiaryRecord.getBeneficiaryId()));
+      if (oldBeneficiaryRecord.isEmpty()) {
         LOGGER.error("Unable to find beneficiary {}", newBeneficiaryRecord.getBeneficiaryId());
-        throw ex;
+        throw new NoResultException(
+            String.format(
+                "Unable to find beneficiary %d", newBeneficiaryRecord.getBeneficiaryId()));
       }
     }
 
@@ -496,7 +591,7 @@ public final class RifLoader {
             newBeneficiaryRecord.getHicnUnhashed(), oldBeneficiaryRecord.get().getHicnUnhashed())) {
       newBeneficiaryRecord.setHicn(oldBeneficiaryRecord.get().getHicn());
     } else {
-      hashBeneficiaryHicn(rifRecordEvent);
+      batchTimer.time(RifLoadTelemetry.Stage.HASH, () -> hashBeneficiaryHicn(rifRecordEvent));
     }
     if (oldBeneficiaryRecord.isPresent()
         && Objects.equals(
@@ -504,7 +599,7 @@ public final class RifLoader {
             oldBeneficiaryRecord.get().getMedicareBeneficiaryId())) {
       newBeneficiaryRecord.setMbiHash(oldBeneficiaryRecord.get().getMbiHash());
     } else {
-      hashBeneficiaryMbi(rifRecordEvent);
+      batchTimer.time(RifLoadTelemetry.Stage.HASH, () -> hashBeneficiaryMbi(rifRecordEvent));
     }
 
     if (rifRecordEvent.getRecordAction() == RecordAction.UPDATE) {
@@ -519,19 +614,23 @@ public final class RifLoader {
           oldBeneficiaryRecord,
           loadedBatchBuilder.getTimestamp());
     }
-    updateBeneficiaryMonthly(newBeneficiaryRecord, oldBeneficiaryRecord);
+    updateBeneficiaryMonthly(entityManager, newBeneficiaryRecord, oldBeneficiaryRecord);
   }
 
   /**
    * Ensures that a {@link BeneficiaryMonthly} record is created or updated for the specified {@link
-   * Beneficiary}, if that {@link Beneficiary} already exists and is just being updated.
+   * Beneficiary}, if that {@link Beneficiary} already exists and is just being updated. The
+   * matching {@link BeneficiaryPartDContractMonth} records are kept in step with them.
    *
+   * @param entityManager the {@link EntityManager} to use
    * @param newBeneficiaryRecord the {@link Beneficiary} record being processed
    * @param oldBeneficiaryRecord the previous/current version of the {@link Beneficiary} (as it
    *     exists in the database before applying the specified {@link RifRecordEvent})
    */
   private static void updateBeneficiaryMonthly(
-      Beneficiary newBeneficiaryRecord, Optional<Beneficiary> oldBeneficiaryRecord) {
+      EntityManager entityManager,
+      Beneficiary newBeneficiaryRecord,
+      Optional<Beneficiary> oldBeneficiaryRecord) {
 
     if (newBeneficiaryRecord.getBeneEnrollmentReferenceYear().isPresent()) {
 
@@ -803,16 +902,35 @@ public final class RifLoader {
 
       if (currentYearBeneficiaryMonthly.size() > 0) {
         List<BeneficiaryMonthly> currentBeneficiaryMonthlyWithUpdates;
+        List<BeneficiaryMonthly> currentYearBeneficiaryMonthlyPrevious = List.of();
 
         if (oldBeneficiaryRecord.isPresent()
             && oldBeneficiaryRecord.get().getBeneficiaryMonthlys().size() > 0) {
           currentBeneficiaryMonthlyWithUpdates =
               oldBeneficiaryRecord.get().getBeneficiaryMonthlys();
-          List<BeneficiaryMonthly> currentYearBeneficiaryMonthlyPrevious =
+          currentYearBeneficiaryMonthlyPrevious =
               oldBeneficiaryRecord.get().getBeneficiaryMonthlys().stream()
                   .filter(e -> year == e.getYearMonth().getYear())
                   .collect(Collectors.toList());
 
+          /*
+           * Keep the existing instance of every month whose values have not changed. Only the
+           * months that actually changed are then copied onto the managed entities and written.
+           */
+          Map<LocalDate, BeneficiaryMonthly> previousByMonth = new HashMap<>();
+          for (BeneficiaryMonthly previousEnrollment : currentYearBeneficiaryMonthlyPrevious) {
+            previousByMonth.put(previousEnrollment.getYearMonth(), previousEnrollment);
+          }
+          currentYearBeneficiaryMonthly.replaceAll(
+              enrollment -> {
+                BeneficiaryMonthly previousEnrollment =
+                    previousByMonth.get(enrollment.getYearMonth());
+                return previousEnrollment != null
+                        && isBeneficiaryMonthlyEqual(enrollment, previousEnrollment)
+                    ? previousEnrollment
+                    : enrollment;
+              });
+
           for (BeneficiaryMonthly previousEnrollment : currentYearBeneficiaryMonthlyPrevious) {
             currentBeneficiaryMonthlyWithUpdates.remove(previousEnrollment);
           }
@@ -820,12 +938,84 @@ public final class RifLoader {
           currentBeneficiaryMonthlyWithUpdates = new LinkedList<BeneficiaryMonthly>();
         }
 
+        updateBeneficiaryPartDContractMonths(
+            entityManager,
+            newBeneficiaryRecord.getBeneficiaryId(),
+            currentYearBeneficiaryMonthlyPrevious,
+            currentYearBeneficiaryMonthly);
+
         currentBeneficiaryMonthlyWithUpdates.addAll(currentYearBeneficiaryMonthly);
         newBeneficiaryRecord.setBeneficiaryMonthlys(currentBeneficiaryMonthlyWithUpdates);
       }
     }
   }
 
+  /**
+   * Brings the {@link BeneficiaryPartDContractMonth} records of a {@link Beneficiary} in line with
+   * the Part D contracts of its {@link BeneficiaryMonthly} records for a reference year. Only the
+   * months whose contract changed are deleted and inserted, so reloading a beneficiary whose
+   * enrollment has not changed does not write anything.
+   *
+   * @param entityManager the {@link EntityManager} to use
+   * @param beneficiaryId the {@link Beneficiary#getBeneficiaryId()} being processed
+   * @param previousEnrollments the {@link BeneficiaryMonthly} records for the year as they exist in
+   *     the database
+   * @param currentEnrollments the {@link BeneficiaryMonthly} records for the year being written
+   */
+  private static void updateBeneficiaryPartDContractMonths(
+      EntityManager entityManager,
+      long beneficiaryId,
+      List<BeneficiaryMonthly> previousEnrollments,
+      List<BeneficiaryMonthly> currentEnrollments) {
+    Map<LocalDate, String> previousContracts = getPartDContractsByMonth(previousEnrollments);
+    Map<LocalDate, String> currentContracts = getPartDContractsByMonth(currentEnrollments);
+
+    List<LocalDate> removedMonths = new ArrayList<>();
+    for (Map.Entry<LocalDate, String> previousContract : previousContracts.entrySet()) {
+      if (!previousContract.getValue().equals(currentContracts.get(previousContract.getKey()))) {
+        removedMonths.add(previousContract.getKey());
+      }
+    }
+    if (!removedMonths.isEmpty()) {
+      entityManager
+          .createQuery(
+              "delete from BeneficiaryPartDContractMonth"
+                  + " where beneficiaryId = :beneficiaryId and yearMonth in :yearMonths")
+          .setParameter("beneficiaryId", beneficiaryId)
+          .setParameter("yearMonths", removedMonths)
+          .executeUpdate();
+    }
+
+    for (Map.Entry<LocalDate, String> currentContract : currentContracts.entrySet()) {
+      if (!currentContract.getValue().equals(previousContracts.get(currentContract.getKey()))) {
+        entityManager.persist(
+            BeneficiaryPartDContractMonth.builder()
+                .partDContractNumberId(currentContract.getValue())
+                .yearMonth(currentContract.getKey())
+                .beneficiaryId(beneficiaryId)
+                .build());
+      }
+    }
+  }
+
+  /**
+   * Collects the Part D contract of every month that has one.
+   *
+   * @param enrollments the {@link BeneficiaryMonthly} records to collect the contracts of
+   * @return the {@link BeneficiaryMonthly#getPartDContractNumberId()} values keyed by {@link
+   *     BeneficiaryMonthly#getYearMonth()}
+   */
+  private static Map<LocalDate, String> getPartDContractsByMonth(
+      List<BeneficiaryMonthly> enrollments) {
+    Map<LocalDate, String> contractsByMonth = new HashMap<>();
+    for (BeneficiaryMonthly enrollment : enrollments) {
+      enrollment
+          .getPartDContractNumberId()
+          .ifPresent(contract -> contractsByMonth.put(enrollment.getYearMonth(), contract));
+    }
+    return contractsByMonth;
+  }
+
   /**
    * Ensures that a {@link BeneficiaryHistory} record is created for the specified {@link
    * Beneficiary}, if that {@link Beneficiary} already exists and is just being updated.
@@ -898,6 +1088,45 @@ public final class RifLoader {
         && Objects.equals(newBeneficiaryRecord.getSex(), oldBeneficiaryRecord.getSex()));
   }
 
+  /**
+   * Determines whether two {@link BeneficiaryMonthly} records for the same month hold the same
+   * values, in which case the existing record does not need to be written again.
+   *
+   * @param newEnrollment the {@link BeneficiaryMonthly} built from the record being processed
+   * @param oldEnrollment the {@link BeneficiaryMonthly} currently in the database
+   * @return {@code true} if the two records are equal
+   */
+  static boolean isBeneficiaryMonthlyEqual(
+      BeneficiaryMonthly newEnrollment, BeneficiaryMonthly oldEnrollment) {
+    return Objects.equals(newEnrollment.getYearMonth(), oldEnrollment.getYearMonth())
+        && Objects.equals(
+            newEnrollment.getPartDContractNumberId(), oldEnrollment.getPartDContractNumberId())
+        && Objects.equals(
+            newEnrollment.getPartCContractNumberId(), oldEnrollment.getPartCContractNumberId())
+        && Objects.equals(
+            newEnrollment.getEntitlementBuyInInd(), oldEnrollment.getEntitlementBuyInInd())
+        && Objects.equals(
+            newEnrollment.getFipsStateCntyCode(), oldEnrollment.getFipsStateCntyCode())
+        && Objects.equals(newEnrollment.getHmoIndicatorInd(), oldEnrollment.getHmoIndicatorInd())
+        && Objects.equals(
+            newEnrollment.getMedicaidDualEligibilityCode(),
+            oldEnrollment.getMedicaidDualEligibilityCode())
+        && Objects.equals(
+            newEnrollment.getMedicareStatusCode(), oldEnrollment.getMedicareStatusCode())
+        && Objects.equals(newEnrollment.getPartCPbpNumberId(), oldEnrollment.getPartCPbpNumberId())
+        && Objects.equals(
+            newEnrollment.getPartCPlanTypeCode(), oldEnrollment.getPartCPlanTypeCode())
+        && Objects.equals(
+            newEnrollment.getPartDLowIncomeCostShareGroupCode(),
+            oldEnrollment.getPartDLowIncomeCostShareGroupCode())
+        && Objects.equals(newEnrollment.getPartDPbpNumberId(), oldEnrollment.getPartDPbpNumberId())
+        && Objects.equals(
+            newEnrollment.getPartDRetireeDrugSubsidyInd(),
+            oldEnrollment.getPartDRetireeDrugSubsidyInd())
+        && Objects.equals(
+            newEnrollment.getPartDSegmentNumberId(), oldEnrollment.getPartDSegmentNumberId());
+  }
+
   /**
    * Creates a beneficiary monthly data with the supplied data.
    *
@@ -0,0 +1,161 @@
+package gov.cms.bfd.pipeline.ccw.rif;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import gov.cms.bfd.model.rif.RifFile;
+import gov.cms.bfd.model.rif.RifFileEvent;
+import gov.cms.bfd.model.rif.RifFileType;
+import gov.cms.bfd.model.rif.RifFilesEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link RifLoadTelemetry}. */
+class RifLoadTelemetryTest {
+  /** When the test file starts loading. */
+  private static final Instant START = Instant.parse("2025-10-22T12:00:00Z");
+
+  /** Receives the metrics. */
+  private SimpleMeterRegistry meters;
+
+  /** Returns {@link #START} and then ten seconds later. */
+  private Clock clock;
+
+  /** The object being tested. */
+  private RifLoadTelemetry telemetry;
+
+  /** The file being loaded. */
+  private RifFile rifFile;
+
+  /** Creates a fresh telemetry and file for each test. */
+  @BeforeEach
+  void setUp() {
+    meters = new SimpleMeterRegistry();
+    clock = mock(Clock.class);
+    doReturn(START, START.plusSeconds(10)).when(clock).instant();
+    telemetry = new RifLoadTelemetry(meters, clock);
+    rifFile = mock(RifFile.class);
+    doReturn(RifFileType.CARRIER).when(rifFile).getFileType();
+    doReturn("carrier.rif").when(rifFile).getDisplayName();
+  }
+
+  /** Verifies that stage times are published as timers tagged with the stage and file type. */
+  @Test
+  void shouldRecordStageTimes() {
+    final var progress = telemetry.startFile(createFileEvent());
+    final var batchTimer = progress.startBatch();
+    batchTimer.time(RifLoadTelemetry.Stage.HASH, () -> sleep(5));
+    batchTimer.finish();
+    telemetry.recordStage(rifFile, RifLoadTelemetry.Stage.PARSE, 2_000_000L);
+
+    assertSame(progress, telemetry.findFile(rifFile));
+    assertEquals(2.0, stageMillis(RifLoadTelemetry.Stage.PARSE));
+    assertEquals(1, stageCount(RifLoadTelemetry.Stage.HASH));
+    assertEquals(1, stageCount(RifLoadTelemetry.Stage.DB_WRITE));
+    assertEquals(0, stageCount(RifLoadTelemetry.Stage.SAMHSA));
+  }
+
+  /**
+   * Verifies that records and bytes read are included in the report and that a finished file is
+   * reported as complete.
+   */
+  @Test
+  void shouldReportProgressOfFinishedFile() throws Exception {
+    doReturn(new ByteArrayInputStream(new byte[1000])).when(rifFile).open();
+    final var progress = telemetry.startFile(createFileEvent());
+    try (InputStream input = telemetry.countBytesRead(rifFile).open()) {
+      input.readAllBytes();
+    }
+    progress.addRecordsLoaded(50);
+    telemetry.finishFile(progress);
+
+    assertNull(telemetry.findFile(rifFile));
+    final var report = telemetry.createReport();
+    assertEquals(1, report.manifests().size());
+    final var manifest = report.manifests().get(0);
+    assertEquals(50, manifest.recordsLoaded());
+    assertEquals(1000, manifest.bytesRead());
+    assertEquals(0L, manifest.etaSeconds());
+    final var file = manifest.files().get(0);
+    assertEquals("finished", file.status());
+    assertEquals(10, file.elapsedSeconds());
+    assertEquals(5.0, file.recordsPerSecond());
+    assertEquals(100.0, file.percentComplete());
+    assertEquals(50.0, meters.get(RifLoadTelemetry.RECORDS_COUNTER_NAME).counter().count());
+    assertEquals(1000.0, meters.get(RifLoadTelemetry.BYTES_COUNTER_NAME).counter().count());
+  }
+
+  /** Verifies that an active file of unknown size has no estimated time remaining. */
+  @Test
+  void shouldNotEstimateTimeRemainingForFileOfUnknownSize() {
+    telemetry.startFile(createFileEvent()).addRecordsLoaded(10);
+
+    final var file = telemetry.createReport().manifests().get(0).files().get(0);
+    assertEquals("loading", file.status());
+    assertEquals(-1, file.totalBytes());
+    assertNull(file.percentComplete());
+    assertNull(file.etaSeconds());
+    assertTrue(Double.isNaN(meters.get(RifLoadTelemetry.ETA_SECONDS_GAUGE_NAME).gauge().value()));
+  }
+
+  /**
+   * Creates a {@link RifFileEvent} for {@link #rifFile}.
+   *
+   * @return the event
+   */
+  private RifFileEvent createFileEvent() {
+    return new RifFilesEvent(START, false, List.of(rifFile)).getFileEvents().get(0);
+  }
+
+  /**
+   * Sleeps without throwing checked exceptions.
+   *
+   * @param millis time to sleep
+   */
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns the total time recorded for a stage of {@link #rifFile}.
+   *
+   * @param stage the stage
+   * @return the time in milliseconds
+   */
+  private double stageMillis(RifLoadTelemetry.Stage stage) {
+    return meters
+        .get(RifLoadTelemetry.STAGE_TIMER_NAME)
+        .tags("rif_file", "carrier", "stage", stage.getTagValue())
+        .timer()
+        .totalTime(TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Returns the number of times a stage of {@link #rifFile} was recorded.
+   *
+   * @param stage the stage
+   * @return the count
+   */
+  private long stageCount(RifLoadTelemetry.Stage stage) {
+    return meters
+        .get(RifLoadTelemetry.STAGE_TIMER_NAME)
+        .tags("rif_file", "carrier", "stage", stage.getTagValue())
+        .timer()
+        .count();
+  }
+}
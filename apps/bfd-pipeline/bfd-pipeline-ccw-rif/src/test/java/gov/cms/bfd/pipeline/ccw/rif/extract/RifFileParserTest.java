@@ -9,20 +9,23 @@ import gov.cms.bfd.model.rif.RifFileEvent;
 import gov.cms.bfd.model.rif.RifFileType;
 import gov.cms.bfd.model.rif.RifRecordEvent;
 import gov.cms.bfd.model.rif.entities.Beneficiary;
+import gov.cms.bfd.model.rif.parse.RifLineReader;
+import gov.cms.bfd.model.rif.samples.StaticRifResource;
+import gov.cms.model.dsl.codegen.library.RifRecord;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -67,11 +70,13 @@ public class RifFileParserTest {
   /**
    * Verifies edge conditions for {@link RifFileParser.Simple}.
    *
+   * @param rifLineReaderEnabled whether to read the file using a {@link RifLineReader}
    * @throws IOException pass through from writing string to temp file
    */
-  @Test
-  void simpleAlwaysUsesOneRecordPerEvent() throws IOException {
-    final var parser = new RifFileParser.Simple(this::parseSingle);
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void simpleAlwaysUsesOneRecordPerEvent(boolean rifLineReaderEnabled) throws IOException {
+    final var parser = new RifFileParser.Simple(this::parseSingle, rifLineReaderEnabled);
     // empty file should produce no records
     assertEquals(List.of(), parseString("", parser));
 
@@ -91,11 +96,13 @@ public class RifFileParserTest {
   /**
    * Verifies edge conditions for {@link RifFileParser.Grouping}.
    *
+   * @param rifLineReaderEnabled whether to read the file using a {@link RifLineReader}
    * @throws IOException pass through from writing string to temp file
    */
-  @Test
-  void groupingHonorsIdColumn() throws IOException {
-    final var parser = new RifFileParser.Grouping("id", this::parseGroup);
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void groupingHonorsIdColumn(boolean rifLineReaderEnabled) throws IOException {
+    final var parser = new RifFileParser.Grouping("id", this::parseGroup, rifLineReaderEnabled);
     // empty file should produce no records
     assertEquals(List.of(), parseString("", parser));
 
@@ -119,11 +126,13 @@ public class RifFileParserTest {
    * Similar to {@link #groupingHonorsIdColumn} but uses randomly generated rif data to test wider
    * variety of scenarios {@link RifFileParser.Grouping}.
    *
+   * @param rifLineReaderEnabled whether to read the file using a {@link RifLineReader}
    * @throws IOException pass through from writing string to temp file
    */
-  @Test
-  void groupingHonorsIdColumnRandomScenarios() throws IOException {
-    final var parser = new RifFileParser.Grouping("id", this::parseGroup);
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void groupingHonorsIdColumnRandomScenarios(boolean rifLineReaderEnabled) throws IOException {
+    final var parser = new RifFileParser.Grouping("id", this::parseGroup, rifLineReaderEnabled);
     final var random = new Random(42);
     for (int trial = 1; trial <= 100; ++trial) {
       // This will contain the unparsed RIF data
@@ -155,24 +164,57 @@ public class RifFileParserTest {
    * Used as a lambda for the {@link RifFileParser.Simple} tests. Simply passes through the record
    * passed to it so it can be checked for correctness.
    *
-   * @param csvRecord record selected by the parser for this event
-   * @return a {@link RifRecordEvent} holding the provided {@link CSVRecord}
+   * @param rifRecord record selected by the parser for this event
+   * @return a {@link RifRecordEvent} holding the provided {@link RifRecord}
    */
-  private RifRecordEvent<Beneficiary> parseSingle(CSVRecord csvRecord) {
+  private RifRecordEvent<Beneficiary> parseSingle(RifRecord rifRecord) {
     return new RifRecordEvent<>(
-        rifFileEventMock, List.of(csvRecord), RecordAction.INSERT, 1L, new Beneficiary());
+        rifFileEventMock, List.of(rifRecord), RecordAction.INSERT, 1L, new Beneficiary());
   }
 
   /**
    * Used as a lambda for the {@link RifFileParser.Grouping} tests. Simply passes through the
    * records passed to it so they can be checked to see if groups are correct.
    *
-   * @param csvRecords records selected by the parser for this event
-   * @return a {@link RifRecordEvent} holding the provided {@link CSVRecord}s
+   * @param rifRecords records selected by the parser for this event
+   * @return a {@link RifRecordEvent} holding the provided {@link RifRecord}s
    */
-  private RifRecordEvent<Beneficiary> parseGroup(List<CSVRecord> csvRecords) {
+  private RifRecordEvent<Beneficiary> parseGroup(List<RifRecord> rifRecords) {
     return new RifRecordEvent<>(
-        rifFileEventMock, csvRecords, RecordAction.INSERT, 1L, new Beneficiary());
+        rifFileEventMock, rifRecords, RecordAction.INSERT, 1L, new Beneficiary());
+  }
+
+  /**
+   * Verifies that reading the sample files with a {@link RifLineReader} produces records with the
+   * same numbers and values as reading them with a {@link CSVParser}.
+   *
+   * @param sample the sample file to read
+   */
+  @ParameterizedTest
+  @EnumSource(StaticRifResource.class)
+  void lineReaderMatchesCsvParserForSamples(StaticRifResource sample) {
+    final RifFile sampleFile = sample.toRifFile();
+    assertEquals(parseRecords(sampleFile, false), parseRecords(sampleFile, true));
+  }
+
+  /**
+   * Parses every record of a file with a {@link RifFileParser.Simple} and converts them into
+   * strings using {@link #convertRecordsIntoStrings}.
+   *
+   * @param file the file to parse
+   * @param rifLineReaderEnabled whether to read the file using a {@link RifLineReader}
+   * @return one string for each record
+   */
+  private List<String> parseRecords(RifFile file, boolean rifLineReaderEnabled) {
+    return new RifFileParser.Simple(this::parseSingle, rifLineReaderEnabled)
+        .parseRifFile(file)
+        .map(
+            rifRecordEvent ->
+                convertRecordsIntoStrings(
+                    rifRecordEvent.getRawRecords().get(0).getRecordNumber(),
+                    rifRecordEvent.getRawRecords()))
+        .collectList()
+        .block();
   }
 
   /**
@@ -193,25 +235,23 @@ public class RifFileParserTest {
         .map(
             rifRecordEvent ->
                 convertRecordsIntoStrings(
-                    rifRecordEvent.getRecordNumber(), rifRecordEvent.getRawCsvRecords()))
+                    rifRecordEvent.getRecordNumber(), rifRecordEvent.getRawRecords()))
         .collectList()
         .block();
   }
 
   /**
-   * Convert a list of {@link CSVRecord} into a single string with fields within each record
+   * Convert a list of {@link RifRecord} into a single string with fields within each record
    * separated by {@code -} and individual records separated by {@code ;}. The record number is
    * added to the beginning of the string followed by {@code ->}.
    *
    * @param recordNumber the record number of the parsed object
-   * @param csvRecords the records to convert
+   * @param rifRecords the records to convert
    * @return the resulting string
    */
-  private String convertRecordsIntoStrings(long recordNumber, List<CSVRecord> csvRecords) {
+  private String convertRecordsIntoStrings(long recordNumber, List<RifRecord> rifRecords) {
     List<String> recordStrings =
-        csvRecords.stream()
-            .map(csvRecord -> csvRecord.stream().collect(Collectors.joining("-")))
-            .toList();
+        rifRecords.stream().map(rifRecord -> String.join("-", rifRecord.toList())).toList();
     return recordNumber + "->" + String.join(";", recordStrings);
   }
 }
@@ -0,0 +1,146 @@
+package gov.cms.bfd.pipeline.ccw.rif.extract;
+
+import gov.cms.bfd.model.rif.RifFile;
+import gov.cms.bfd.model.rif.entities.BeneficiaryHistoryParser;
+import gov.cms.bfd.model.rif.entities.BeneficiaryParser;
+import gov.cms.bfd.model.rif.entities.CarrierClaimParser;
+import gov.cms.bfd.model.rif.entities.DMEClaimParser;
+import gov.cms.bfd.model.rif.entities.HHAClaimParser;
+import gov.cms.bfd.model.rif.entities.HospiceClaimParser;
+import gov.cms.bfd.model.rif.entities.InpatientClaimParser;
+import gov.cms.bfd.model.rif.entities.OutpatientClaimParser;
+import gov.cms.bfd.model.rif.entities.PartDEventParser;
+import gov.cms.bfd.model.rif.entities.SNFClaimParser;
+import gov.cms.bfd.model.rif.parse.RifParsingUtils;
+import gov.cms.bfd.model.rif.samples.StaticRifResource;
+import gov.cms.model.dsl.codegen.library.CsvRifRecord;
+import gov.cms.model.dsl.codegen.library.RifObjectWrapper;
+import gov.cms.model.dsl.codegen.library.RifRecord;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark measuring how many records per second the generated RIF parsers can transform for
+ * each RIF file type. The records of a {@link StaticRifResource} sample file are read and grouped
+ * by claim once during setup so that the benchmark only measures the generated parser itself; each
+ * benchmark operation transforms one beneficiary, claim (with all of its lines) or event.
+ *
+ * <p>To run the benchmark after compiling the tests:
+ *
+ * <pre>
+ * mvn -pl bfd-pipeline/bfd-pipeline-ccw-rif test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=RifParserBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RifParserBenchmark {
+  /** The sample file to parse, one per RIF file type. */
+  @Param({
+    "SAMPLE_A_BENES",
+    "SAMPLE_A_BENEFICIARY_HISTORY",
+    "SAMPLE_A_CARRIER_MULTIPLE_LINES",
+    "SAMPLE_A_DME",
+    "SAMPLE_A_HHA",
+    "SAMPLE_A_HOSPICE",
+    "SAMPLE_A_INPATIENT",
+    "SAMPLE_A_OUTPATIENT",
+    "SAMPLE_A_PDE",
+    "SAMPLE_A_SNF"
+  })
+  public StaticRifResource sample;
+
+  /** The generated parser for the sample's file type. */
+  private Function<RifObjectWrapper, Object> parser;
+
+  /** The sample's records, grouped the same way {@link RifFileParser.Grouping} would. */
+  private List<List<RifRecord>> recordGroups;
+
+  /** Index of the next group in {@link #recordGroups} to parse. */
+  private int nextGroup;
+
+  /**
+   * Reads and groups the sample's records and selects the parser for its file type.
+   *
+   * @throws IOException if the sample cannot be read
+   */
+  @Setup
+  public void setUp() throws IOException {
+    final RifFile rifFile = sample.toRifFile();
+    parser = parserFor(sample);
+    final var idColumn = rifFile.getFileType().getIdColumn();
+    recordGroups = new ArrayList<>();
+    try (CSVParser csvParser = RifParsingUtils.createCsvParser(rifFile)) {
+      final var wrapper = CsvRifRecord.wrapperFor(csvParser);
+      List<RifRecord> group = new ArrayList<>();
+      String groupId = null;
+      for (CSVRecord csvRecord : csvParser) {
+        final RifRecord record = wrapper.apply(csvRecord);
+        final String id = idColumn == null ? null : record.get(idColumn.name());
+        if (!group.isEmpty() && (idColumn == null || !Objects.equals(id, groupId))) {
+          recordGroups.add(group);
+          group = new ArrayList<>();
+        }
+        group.add(record);
+        groupId = id;
+      }
+      if (!group.isEmpty()) {
+        recordGroups.add(group);
+      }
+    }
+  }
+
+  /**
+   * Transforms the next record group of the sample.
+   *
+   * @return the parsed entity, returned so that JMH keeps it alive
+   */
+  @Benchmark
+  public Object parseRecord() {
+    final List<RifRecord> group = recordGroups.get(nextGroup);
+    nextGroup = (nextGroup + 1) % recordGroups.size();
+    return parser.apply(new RifObjectWrapper(group));
+  }
+
+  /**
+   * Selects the generated parser for a sample's file type.
+   *
+   * @param sample the sample file
+   * @return the parser's transform method
+   */
+  private static Function<RifObjectWrapper, Object> parserFor(StaticRifResource sample) {
+    return switch (sample.getRifFileType()) {
+      case BENEFICIARY -> new BeneficiaryParser()::transformMessage;
+      case BENEFICIARY_HISTORY -> new BeneficiaryHistoryParser()::transformMessage;
+      case CARRIER -> new CarrierClaimParser()::transformMessage;
+      case DME -> new DMEClaimParser()::transformMessage;
+      case HHA -> new HHAClaimParser()::transformMessage;
+      case HOSPICE -> new HospiceClaimParser()::transformMessage;
+      case INPATIENT -> new InpatientClaimParser()::transformMessage;
+      case OUTPATIENT -> new OutpatientClaimParser()::transformMessage;
+      case PDE -> new PartDEventParser()::transformMessage;
+      case SNF -> new SNFClaimParser()::transformMessage;
+    };
+  }
+}
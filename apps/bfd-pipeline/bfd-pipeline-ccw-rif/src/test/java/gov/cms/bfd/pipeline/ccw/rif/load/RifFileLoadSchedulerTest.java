@@ -0,0 +1,150 @@
+package gov.cms.bfd.pipeline.ccw.rif.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import gov.cms.bfd.model.rif.RifFile;
+import gov.cms.bfd.model.rif.RifFileEvent;
+import gov.cms.bfd.model.rif.RifFileType;
+import gov.cms.bfd.model.rif.RifFilesEvent;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link RifFileLoadScheduler}. */
+class RifFileLoadSchedulerTest {
+  /**
+   * Verifies that beneficiary files are loaded before any claims and that files of the same type
+   * are loaded in order.
+   */
+  @Test
+  void beneficiaryFilesShouldBeLoadedFirst() throws Exception {
+    final List<RifFileEvent> fileEvents =
+        createFileEvents(
+            RifFileType.CARRIER,
+            RifFileType.BENEFICIARY,
+            RifFileType.DME,
+            RifFileType.CARRIER,
+            RifFileType.BENEFICIARY_HISTORY);
+    final List<RifFileEvent> loaded = Collections.synchronizedList(new ArrayList<>());
+
+    new RifFileLoadScheduler(4, 100, ignored -> 1).loadFiles(fileEvents, loaded::add);
+
+    assertEquals(5, loaded.size());
+    assertEquals(RifFileType.BENEFICIARY, loaded.get(0).getFile().getFileType());
+    assertEquals(RifFileType.BENEFICIARY_HISTORY, loaded.get(1).getFile().getFileType());
+    assertTrue(loaded.indexOf(fileEvents.get(2)) < loaded.indexOf(fileEvents.get(3)));
+  }
+
+  /** Verifies that a single thread loads every file in order. */
+  @Test
+  void singleThreadShouldLoadFilesSequentially() throws Exception {
+    final List<RifFileEvent> fileEvents =
+        createFileEvents(
+            RifFileType.BENEFICIARY, RifFileType.DME, RifFileType.CARRIER, RifFileType.DME);
+    final List<RifFileEvent> loaded = new ArrayList<>();
+
+    new RifFileLoadScheduler(1, 1, ignored -> 1).loadFiles(fileEvents, loaded::add);
+
+    assertEquals(fileEvents, loaded);
+  }
+
+  /**
+   * Verifies that files of different types are loaded at the same time. Each file waits until every
+   * file has started so the test only completes if all of them run concurrently.
+   */
+  @Test
+  void claimFilesOfDifferentTypesShouldLoadConcurrently() throws Exception {
+    final List<RifFileEvent> fileEvents =
+        createFileEvents(RifFileType.CARRIER, RifFileType.DME, RifFileType.HHA);
+    final CountDownLatch started = new CountDownLatch(fileEvents.size());
+
+    new RifFileLoadScheduler(3, 3, ignored -> 1)
+        .loadFiles(
+            fileEvents,
+            fileEvent -> {
+              started.countDown();
+              assertTrue(started.await(10, TimeUnit.SECONDS));
+            });
+  }
+
+  /** Verifies that files never use more connections at once than the scheduler allows. */
+  @Test
+  void connectionLimitShouldCapConcurrentFiles() throws Exception {
+    final List<RifFileEvent> fileEvents =
+        createFileEvents(
+            RifFileType.CARRIER, RifFileType.DME, RifFileType.HHA, RifFileType.HOSPICE);
+    final AtomicInteger active = new AtomicInteger();
+    final AtomicInteger maxActive = new AtomicInteger();
+
+    new RifFileLoadScheduler(4, 5, ignored -> 2)
+        .loadFiles(
+            fileEvents,
+            fileEvent -> {
+              maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+              Thread.sleep(50);
+              active.decrementAndGet();
+            });
+
+    assertEquals(2, maxActive.get());
+  }
+
+  /**
+   * Verifies that the failure is passed through to the caller and that no files are started after a
+   * file has failed.
+   */
+  @Test
+  void failureShouldStopLoadingNewFiles() {
+    final List<RifFileEvent> fileEvents =
+        createFileEvents(
+            RifFileType.BENEFICIARY, RifFileType.CARRIER, RifFileType.CARRIER, RifFileType.DME);
+    final List<RifFileEvent> loaded = Collections.synchronizedList(new ArrayList<>());
+    final IllegalStateException error = new IllegalStateException("oops");
+
+    final Exception thrown =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                new RifFileLoadScheduler(1, 1, ignored -> 1)
+                    .loadFiles(
+                        fileEvents,
+                        fileEvent -> {
+                          loaded.add(fileEvent);
+                          if (fileEvent == fileEvents.get(1)) {
+                            throw error;
+                          }
+                        }));
+
+    assertSame(error, thrown);
+    assertEquals(List.of(fileEvents.get(0), fileEvents.get(1)), loaded);
+  }
+
+  /**
+   * Creates a {@link RifFileEvent} for a mock {@link RifFile} of each of the given types.
+   *
+   * @param fileTypes types of the files in manifest order
+   * @return the file events in the order produced by {@link RifFilesEvent}
+   */
+  private static List<RifFileEvent> createFileEvents(RifFileType... fileTypes) {
+    final List<RifFile> files =
+        Arrays.stream(fileTypes)
+            .map(
+                fileType -> {
+                  final RifFile file = mock(RifFile.class);
+                  doReturn(fileType).when(file).getFileType();
+                  return file;
+                })
+            .toList();
+    return new RifFilesEvent(Instant.now(), false, files).getFileEvents();
+  }
+}
@@ -20,6 +20,7 @@ import gov.cms.bfd.model.rif.entities.BeneficiaryColumn;
 import gov.cms.bfd.model.rif.entities.BeneficiaryHistory;
 import gov.cms.bfd.model.rif.entities.BeneficiaryHistory_;
 import gov.cms.bfd.model.rif.entities.BeneficiaryMonthly;
+import gov.cms.bfd.model.rif.entities.BeneficiaryPartDContractMonth;
 import gov.cms.bfd.model.rif.entities.CarrierClaim;
 import gov.cms.bfd.model.rif.entities.CarrierClaimLine;
 import gov.cms.bfd.model.rif.parse.RifParsingUtils;
@@ -45,6 +46,7 @@ import gov.cms.bfd.pipeline.sharedutils.IdHasher;
 import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
 import gov.cms.bfd.pipeline.sharedutils.samhsa.backfill.SamhsaBackfillService;
 import gov.cms.bfd.sharedutils.TagCode;
+import gov.cms.model.dsl.codegen.library.RifRecord;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
@@ -63,17 +65,17 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVRecord;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -313,9 +315,8 @@ public final class RifLoaderIT {
             StaticRifResourceGroup.SAMPLE_A.getResources());
     Function<RifRecordEvent<?>, List<List<String>>> recordEditor =
         rifRecordEvent -> {
-          CSVRecord beneCsvRow = rifRecordEvent.getRawCsvRecords().get(0);
-          List<String> beneCsvValues =
-              StreamSupport.stream(beneCsvRow.spliterator(), false).collect(Collectors.toList());
+          RifRecord beneCsvRow = rifRecordEvent.getRawRecords().get(0);
+          List<String> beneCsvValues = new ArrayList<>(beneCsvRow.toList());
           beneCsvValues.set(0, "UPDATE");
           return List.of(beneCsvValues);
         };
@@ -784,6 +785,24 @@ public final class RifLoaderIT {
     }
   }
 
+  /**
+   * This test checks that the Part D contract month records follow the beneficiary monthly records
+   * as enrollment data is first loaded and then updated.
+   */
+  @Test
+  public void loadEnrollmentUpdatesShouldKeepPartDContractMonthsInStep() {
+    loadSample(Arrays.asList(StaticRifResourceGroup.SAMPLE_A.getResources()));
+    assertPartDContractMonthsMatchMonthlys(567834L);
+
+    loadSample(
+        Arrays.asList(StaticRifResourceGroup.SAMPLE_U_BENES_CHANGED_WITH_8_MONTHS.getResources()));
+    assertPartDContractMonthsMatchMonthlys(567834L);
+
+    loadSample(
+        Arrays.asList(StaticRifResourceGroup.SAMPLE_U_BENES_CHANGED_WITH_9_MONTHS.getResources()));
+    assertPartDContractMonthsMatchMonthlys(567834L);
+  }
+
   /**
    * Runs {@link RifLoader} against the {@link StaticRifResourceGroup#SYNTHEA_DATA} data.
    *
@@ -1103,9 +1122,8 @@ public final class RifLoaderIT {
             StaticRifResourceGroup.SAMPLE_A.getResources());
     Function<RifRecordEvent<?>, List<List<String>>> recordEditor =
         rifRecordEvent -> {
-          CSVRecord beneCsvRow = rifRecordEvent.getRawCsvRecords().get(0);
-          List<String> beneCsvValues =
-              StreamSupport.stream(beneCsvRow.spliterator(), false).collect(Collectors.toList());
+          RifRecord beneCsvRow = rifRecordEvent.getRawRecords().get(0);
+          List<String> beneCsvValues = new ArrayList<>(beneCsvRow.toList());
           beneCsvValues.set(BeneficiaryColumn.RFRNC_YR.ordinal() + 1, refYear);
           if (isUpdate) {
             beneCsvValues.set(0, "UPDATE");
@@ -1141,9 +1159,8 @@ public final class RifLoaderIT {
   private Stream<RifFile> editStreamToBeUpdate(Stream<RifFile> samplesStream) {
     Function<RifRecordEvent<?>, List<List<String>>> recordEditor =
         rifRecordEvent -> {
-          CSVRecord beneCsvRow = rifRecordEvent.getRawCsvRecords().get(0);
-          List<String> beneCsvValues =
-              StreamSupport.stream(beneCsvRow.spliterator(), false).collect(Collectors.toList());
+          RifRecord beneCsvRow = rifRecordEvent.getRawRecords().get(0);
+          List<String> beneCsvValues = new ArrayList<>(beneCsvRow.toList());
           beneCsvValues.set(0, "UPDATE");
           return List.of(beneCsvValues);
         };
@@ -1589,6 +1606,42 @@ public final class RifLoaderIT {
     }
   }
 
+  /**
+   * Assert the Part D contract month table has exactly one entry for every beneficiary monthly
+   * record of the provided beneficiary that has a Part D contract.
+   *
+   * @param beneficiaryId the id of the beneficiary to check
+   */
+  private static void assertPartDContractMonthsMatchMonthlys(long beneficiaryId) {
+    EntityManagerFactory entityManagerFactory =
+        PipelineTestUtils.get().getPipelineApplicationState().getEntityManagerFactory();
+    try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+      Beneficiary beneficiaryFromDb = entityManager.find(Beneficiary.class, beneficiaryId);
+      Set<String> expected =
+          beneficiaryFromDb.getBeneficiaryMonthlys().stream()
+              .filter(monthly -> monthly.getPartDContractNumberId().isPresent())
+              .map(
+                  monthly ->
+                      monthly.getYearMonth() + " " + monthly.getPartDContractNumberId().get())
+              .collect(Collectors.toSet());
+      assertFalse(expected.isEmpty());
+
+      List<BeneficiaryPartDContractMonth> contractMonths =
+          entityManager
+              .createQuery(
+                  "select m from BeneficiaryPartDContractMonth m where m.beneficiaryId = :id",
+                  BeneficiaryPartDContractMonth.class)
+              .setParameter("id", beneficiaryId)
+              .getResultList();
+      assertEquals(
+          expected,
+          contractMonths.stream()
+              .map(m -> m.getYearMonth() + " " + m.getPartDContractNumberId())
+              .collect(Collectors.toSet()));
+      assertEquals(expected.size(), contractMonths.size());
+    }
+  }
+
   /**
    * Assert the beneficiary monthly table has entries for every month for the provided beneficiary
    * for that beneficiaries' last recorded enrollment year.
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import gov.cms.bfd.model.rif.entities.Beneficiary;
+import gov.cms.bfd.model.rif.entities.BeneficiaryMonthly;
 import gov.cms.bfd.pipeline.sharedutils.IdHasher;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
@@ -223,4 +224,57 @@ public final class RifLoaderTest {
     newBene.setMbiObsoleteDate(Optional.empty());
     assertTrue(RifLoader.isBeneficiaryHistoryEqual(newBene, oldBene));
   }
+
+  /**
+   * Verifies that {@link RifLoader#isBeneficiaryMonthlyEqual} only considers two months equal when
+   * every value matches.
+   */
+  @Test
+  public void isBeneficiaryMonthlyEqual() {
+    Beneficiary bene = new Beneficiary();
+    LocalDate yearMonth = LocalDate.of(2024, 3, 1);
+    BeneficiaryMonthly oldEnrollment = createBeneficiaryMonthly(bene, yearMonth, "H1234");
+
+    assertTrue(
+        RifLoader.isBeneficiaryMonthlyEqual(
+            createBeneficiaryMonthly(bene, yearMonth, "H1234"), oldEnrollment));
+    assertFalse(
+        RifLoader.isBeneficiaryMonthlyEqual(
+            createBeneficiaryMonthly(bene, yearMonth, "H9999"), oldEnrollment));
+    assertFalse(
+        RifLoader.isBeneficiaryMonthlyEqual(
+            createBeneficiaryMonthly(bene, yearMonth.plusMonths(1), "H1234"), oldEnrollment));
+
+    BeneficiaryMonthly newEnrollment = createBeneficiaryMonthly(bene, yearMonth, "H1234");
+    newEnrollment.setPartDSegmentNumberId(Optional.empty());
+    assertFalse(RifLoader.isBeneficiaryMonthlyEqual(newEnrollment, oldEnrollment));
+  }
+
+  /**
+   * Creates a {@link BeneficiaryMonthly} with every field populated.
+   *
+   * @param bene the parent beneficiary
+   * @param yearMonth the month
+   * @param partDContractNumberId the Part D contract number
+   * @return the record
+   */
+  private static BeneficiaryMonthly createBeneficiaryMonthly(
+      Beneficiary bene, LocalDate yearMonth, String partDContractNumberId) {
+    return RifLoader.getBeneficiaryMonthly(
+        bene,
+        yearMonth,
+        Optional.of('C'),
+        Optional.of("01001"),
+        Optional.of('0'),
+        Optional.of("NA"),
+        Optional.of("10"),
+        Optional.of("H0001"),
+        Optional.of("001"),
+        Optional.of("01"),
+        Optional.of(partDContractNumberId),
+        Optional.of("01"),
+        Optional.of("002"),
+        Optional.of('N'),
+        Optional.of("000"));
+  }
 }
@@ -0,0 +1,132 @@
+package gov.cms.bfd.pipeline.rda.grpc.apps;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.protobuf.Timestamp;
+import gov.cms.bfd.pipeline.rda.grpc.server.MessageSource;
+import gov.cms.mpsm.rda.v1.ClaimSequenceNumberRange;
+import jakarta.annotation.Nullable;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * A {@link MessageSource} used by {@link RdaLoadBenchmarkApp} to feed a fixed number of messages to
+ * the pipeline at a controlled rate. Messages are obtained from a supplier of template messages
+ * (either a random claim generator or a pregenerated corpus) and then stamped with a sequence
+ * number and the time at which they were sent. Stamping the send time (rather than the time at
+ * which the template was generated) means the pipeline's change latency metric measures the time
+ * from the server sending a message to the claim being committed.
+ *
+ * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+ */
+class BenchmarkMessageSource<TMessage> implements MessageSource<TMessage> {
+  /** Source of template messages. */
+  private final Supplier<TMessage> templates;
+
+  /** Used to set the sequence number and timestamp of a template message. */
+  private final Stamper<TMessage> stamper;
+
+  /** Limits the rate at which messages are sent. Null if the rate is unlimited. */
+  @Nullable private final RateLimiter rateLimiter;
+
+  /** Used to generate timestamps. */
+  private final Clock clock;
+
+  /** The number of messages to send. */
+  private final long maxToSend;
+
+  /** Sequence number of the first message sent. */
+  private long firstSequenceNumber;
+
+  /** The number of messages sent so far. */
+  private long sent;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param templates source of template messages
+   * @param stamper used to set the sequence number and timestamp of a template message
+   * @param rateLimiter limits the rate at which messages are sent, null if unlimited
+   * @param clock used to generate timestamps
+   * @param maxToSend the number of messages to send
+   */
+  BenchmarkMessageSource(
+      Supplier<TMessage> templates,
+      Stamper<TMessage> stamper,
+      @Nullable RateLimiter rateLimiter,
+      Clock clock,
+      long maxToSend) {
+    this.templates = templates;
+    this.stamper = stamper;
+    this.rateLimiter = rateLimiter;
+    this.clock = clock;
+    this.maxToSend = maxToSend;
+    firstSequenceNumber = 1;
+  }
+
+  /**
+   * Sets the sequence number of the first message. Unlike the random sources this does not reduce
+   * the number of messages sent so that repeated benchmark runs against the same database always
+   * send {@link #maxToSend} messages starting from wherever the previous run left off.
+   *
+   * @param startingSequenceNumber desired next sequence number
+   * @return this source
+   */
+  @Override
+  public BenchmarkMessageSource<TMessage> skipTo(long startingSequenceNumber) {
+    firstSequenceNumber = Math.max(1, startingSequenceNumber);
+    return this;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return sent < maxToSend;
+  }
+
+  @Override
+  public TMessage next() {
+    if (sent >= maxToSend) {
+      throw new NoSuchElementException();
+    }
+    final TMessage template = templates.get();
+    if (rateLimiter != null) {
+      rateLimiter.acquire();
+    }
+    final Instant now = clock.instant();
+    final Timestamp timestamp =
+        Timestamp.newBuilder().setSeconds(now.getEpochSecond()).setNanos(now.getNano()).build();
+    final long sequenceNumber = firstSequenceNumber + sent;
+    sent += 1;
+    return stamper.stamp(template, sequenceNumber, timestamp);
+  }
+
+  @Override
+  public ClaimSequenceNumberRange getSequenceNumberRange() {
+    return ClaimSequenceNumberRange.newBuilder()
+        .setLower(firstSequenceNumber)
+        .setUpper(firstSequenceNumber + maxToSend - 1)
+        .build();
+  }
+
+  @Override
+  public void close() {}
+
+  /**
+   * Sets the sequence number and timestamp of a message.
+   *
+   * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+   */
+  @FunctionalInterface
+  interface Stamper<TMessage> {
+    /**
+     * Creates a copy of the message with the given sequence number and timestamp.
+     *
+     * @param message the template message
+     * @param sequenceNumber the sequence number to assign
+     * @param timestamp the timestamp to assign
+     * @return the stamped message
+     */
+    TMessage stamp(TMessage message, long sequenceNumber, Timestamp timestamp);
+  }
+}
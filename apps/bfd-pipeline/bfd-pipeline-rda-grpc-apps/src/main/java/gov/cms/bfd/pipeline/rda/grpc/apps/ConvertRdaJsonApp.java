@@ -0,0 +1,88 @@
+package gov.cms.bfd.pipeline.rda.grpc.apps;
+
+import com.google.protobuf.MessageLite;
+import gov.cms.bfd.pipeline.rda.grpc.server.BinaryMessageWriter;
+import gov.cms.bfd.pipeline.rda.grpc.server.JsonMessageSource;
+import gov.cms.bfd.pipeline.rda.grpc.server.MessageSource;
+import gov.cms.bfd.sharedutils.config.ConfigLoader;
+import java.io.File;
+import java.io.FileOutputStream;
+
+/**
+ * Converts a NDJSON file containing FISS or MCS claims into a binary message store that can be
+ * served by {@link RdaServerApp} much more efficiently than the original NDJSON file.
+ */
+public class ConvertRdaJsonApp {
+  /** Enum to determine whether to convert FISS or MCS claims. */
+  private enum ClaimType {
+    /** Convert Fiss claims. */
+    FISS,
+    /** Convert Mcs claims. */
+    MCS
+  }
+
+  /**
+   * Converts a NDJSON file into a binary message store. Configuration is controlled by command line
+   * arguments. Each argument specifies one setting. Valid arguments are:
+   *
+   * <ul>
+   *   <li>type:fiss|mcs sets the type of claims contained in the input file
+   *   <li>input:filename sets the NDJSON file to read claims from
+   *   <li>output:filename sets the binary message store file to create
+   *   <li>indexInterval:number sets the number of claims between index entries
+   * </ul>
+   *
+   * @param args the input arguments
+   * @throws Exception any exception thrown during runtime
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length == 0) {
+      System.err.println(
+          "usage: ConvertRdaJsonApp type:fiss|mcs input:file output:file [indexInterval:number]");
+      System.exit(1);
+    }
+    final ConfigLoader config =
+        ConfigLoader.builder().addKeyValueCommandLineArguments(args).build();
+    final ClaimType claimType = config.enumValue("type", ClaimType.class);
+    final File inputFile = config.readableFile("input");
+    final File outputFile = config.writeableFile("output");
+    final int indexInterval =
+        config.intValue("indexInterval", BinaryMessageWriter.DEFAULT_INDEX_INTERVAL);
+
+    final long count;
+    try (FileOutputStream output = new FileOutputStream(outputFile)) {
+      count =
+          switch (claimType) {
+            case FISS ->
+                convert(
+                    new JsonMessageSource<>(inputFile, JsonMessageSource.fissParser()),
+                    BinaryMessageWriter.fissWriter(output, indexInterval));
+            case MCS ->
+                convert(
+                    new JsonMessageSource<>(inputFile, JsonMessageSource.mcsParser()),
+                    BinaryMessageWriter.mcsWriter(output, indexInterval));
+          };
+    }
+    System.out.printf("converted %d claims%n", count);
+  }
+
+  /**
+   * Copies every message from the source to the writer and then closes both of them.
+   *
+   * @param source source of messages
+   * @param writer writer for the binary message store
+   * @return the number of messages copied
+   * @param <T> the message type
+   * @throws Exception pass through
+   */
+  private static <T extends MessageLite> long convert(
+      MessageSource<T> source, BinaryMessageWriter<T> writer) throws Exception {
+    try (source;
+        writer) {
+      while (source.hasNext()) {
+        writer.write(source.next());
+      }
+      return writer.getMessageCount();
+    }
+  }
+}
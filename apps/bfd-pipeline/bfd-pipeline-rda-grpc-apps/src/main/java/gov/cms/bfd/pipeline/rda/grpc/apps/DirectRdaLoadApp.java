@@ -67,18 +67,8 @@ public class DirectRdaLoadApp {
     reporter.start(5, TimeUnit.SECONDS);
 
     final RdaLoadOptions jobConfig = readRdaLoadOptionsFromProperties(options);
-    final DatabaseOptions databaseConfig =
-        readDatabaseOptions(options, jobConfig.getJobConfig().getWriteThreads());
-    final AwsClientConfig awsClientConfig = readAwsClientConfig(options);
-    final HikariDataSourceFactory dataSourceFactory =
-        awsClientConfig != null
-            ? RdsHikariDataSourceFactory.builder()
-                .awsClientConfig(awsClientConfig)
-                .databaseOptions(databaseConfig)
-                .build()
-            : new HikariDataSourceFactory(databaseConfig);
     HikariDataSource pooledDataSource =
-        PipelineApplicationState.createPooledDataSource(dataSourceFactory, metrics);
+        createPooledDataSource(options, jobConfig.getJobConfig().getWriteThreads(), metrics);
     System.out.printf("thread count is %d%n", jobConfig.getJobConfig().getWriteThreads());
     System.out.printf("database pool size %d%n", pooledDataSource.getMaximumPoolSize());
     try (PipelineApplicationState appState =
@@ -101,6 +91,28 @@ public class DirectRdaLoadApp {
     }
   }
 
+  /**
+   * Creates a pooled {@link HikariDataSource} for the database specified in the configuration.
+   *
+   * @param options the config options to use
+   * @param threadCount the number of threads to use
+   * @param metrics used to track the connection pool
+   * @return the data source
+   */
+  static HikariDataSource createPooledDataSource(
+      ConfigLoader options, int threadCount, MetricRegistry metrics) {
+    final DatabaseOptions databaseConfig = readDatabaseOptions(options, threadCount);
+    final AwsClientConfig awsClientConfig = readAwsClientConfig(options);
+    final HikariDataSourceFactory dataSourceFactory =
+        awsClientConfig != null
+            ? RdsHikariDataSourceFactory.builder()
+                .awsClientConfig(awsClientConfig)
+                .databaseOptions(databaseConfig)
+                .build()
+            : new HikariDataSourceFactory(databaseConfig);
+    return PipelineApplicationState.createPooledDataSource(dataSourceFactory, metrics);
+  }
+
   /**
    * Create a job for the pipeline with the correct claim type of fiss or mcs.
    *
@@ -109,7 +121,7 @@ public class DirectRdaLoadApp {
    * @param claimType whether to use fiss or mcs claims
    * @return the pipeline job for mcs or fiss
    */
-  private static Optional<PipelineJob> createPipelineJob(
+  static Optional<PipelineJob> createPipelineJob(
       RdaLoadOptions jobConfig, PipelineApplicationState appState, String claimType) {
     final var mbiCache = jobConfig.createComputedMbiCache(appState);
     switch (claimType.toLowerCase()) {
@@ -153,6 +165,28 @@ public class DirectRdaLoadApp {
    * @return the rda load options
    */
   private static RdaLoadOptions readRdaLoadOptionsFromProperties(ConfigLoader options) {
+    final RdaSourceConfig grpcConfig =
+        RdaSourceConfig.builder()
+            .serverType(RdaSourceConfig.ServerType.Remote)
+            .host(options.stringValue("api.host", "localhost"))
+            .port(options.intValue("api.port", 5003))
+            .sequenceRangeUpdateIntervalSeconds(
+                options.longValue("job.sequence_range_update_interval_seconds"))
+            .maxIdle(Duration.ofSeconds(options.intValue("job.idleSeconds", Integer.MAX_VALUE)))
+            .build();
+    return readRdaLoadOptionsFromProperties(options, grpcConfig);
+  }
+
+  /**
+   * Reads the rda options to load from a config file but uses the provided settings to connect to
+   * the RDA API server.
+   *
+   * @param options the config options to use
+   * @param grpcConfig settings used to connect to the RDA API server
+   * @return the rda load options
+   */
+  static RdaLoadOptions readRdaLoadOptionsFromProperties(
+      ConfigLoader options, RdaSourceConfig grpcConfig) {
     final IdHasher.Config idHasherConfig =
         new IdHasher.Config(
             options.intValue("hash.iterations", 100),
@@ -162,6 +196,7 @@ public class DirectRdaLoadApp {
             .runInterval(Duration.ofDays(1))
             .batchSize(options.intValue("job.batchSize", 1))
             .writeThreads(options.intValue("job.writeThreads", 1))
+            .transformThreads(options.intValue("job.transformThreads", 0))
             .rdaVersion(
                 RdaVersion.builder()
                     .versionString(
@@ -170,15 +205,6 @@ public class DirectRdaLoadApp {
             .sinkTypePreference(AbstractRdaLoadJob.SinkTypePreference.NONE);
     options.longOption("job.startingFissSeqNum").ifPresent(jobConfig::startingFissSeqNum);
     options.longOption("job.startingMcsSeqNum").ifPresent(jobConfig::startingMcsSeqNum);
-    final RdaSourceConfig grpcConfig =
-        RdaSourceConfig.builder()
-            .serverType(RdaSourceConfig.ServerType.Remote)
-            .host(options.stringValue("api.host", "localhost"))
-            .port(options.intValue("api.port", 5003))
-            .sequenceRangeUpdateIntervalSeconds(
-                options.longValue("job.sequence_range_update_interval_seconds"))
-            .maxIdle(Duration.ofSeconds(options.intValue("job.idleSeconds", Integer.MAX_VALUE)))
-            .build();
     return new RdaLoadOptions(
         jobConfig.build(), grpcConfig, new RdaServerJob.Config(), 0, idHasherConfig);
   }
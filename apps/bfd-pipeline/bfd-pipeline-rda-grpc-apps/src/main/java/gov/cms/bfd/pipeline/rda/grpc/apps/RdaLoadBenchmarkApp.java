@@ -0,0 +1,515 @@
+package gov.cms.bfd.pipeline.rda.grpc.apps;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Slf4jReporter;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.zaxxer.hikari.HikariDataSource;
+import gov.cms.bfd.pipeline.rda.grpc.RdaLoadOptions;
+import gov.cms.bfd.pipeline.rda.grpc.server.EmptyMessageSource;
+import gov.cms.bfd.pipeline.rda.grpc.server.MessageSource;
+import gov.cms.bfd.pipeline.rda.grpc.server.RandomClaimGeneratorConfig;
+import gov.cms.bfd.pipeline.rda.grpc.server.RandomFissClaimSource;
+import gov.cms.bfd.pipeline.rda.grpc.server.RandomMcsClaimSource;
+import gov.cms.bfd.pipeline.rda.grpc.server.RdaMessageSourceFactory;
+import gov.cms.bfd.pipeline.rda.grpc.server.RdaService;
+import gov.cms.bfd.pipeline.rda.grpc.source.RdaSourceConfig;
+import gov.cms.bfd.pipeline.sharedutils.PipelineApplicationState;
+import gov.cms.bfd.pipeline.sharedutils.PipelineJob;
+import gov.cms.bfd.sharedutils.config.ConfigLoader;
+import gov.cms.bfd.sharedutils.database.DatabaseSchemaManager;
+import gov.cms.mpsm.rda.v1.FissClaimChange;
+import gov.cms.mpsm.rda.v1.McsClaimChange;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the sustained throughput of the RDA pipeline. Starts an in-process mock RDA API server
+ * that sends a fixed number of random claims at a configurable rate and runs the same pipeline job
+ * as {@link DirectRdaLoadApp} against it. When the job has finished the claims per second, the
+ * end-to-end latency percentiles (from the sink's change age metric) and the database time per
+ * batch are written to the console.
+ *
+ * <p>Claims can either be generated on the fly or served from a pregenerated corpus held in memory
+ * so that the cost of generating random claims does not count against the pipeline. A corpus can be
+ * saved to and loaded from a file of length delimited protobuf messages so that the same corpus can
+ * be reused across runs.
+ *
+ * <p>The program accepts the same configuration settings as {@link DirectRdaLoadApp} (except those
+ * used to connect to the RDA API server) plus the benchmark settings described in the README. Two
+ * command line options are required when running the program:
+ *
+ * <ol>
+ *   <li>file: path to a properties file containing configuration settings
+ *   <li>claimType: either fiss or mcs to specify type of claims to load
+ * </ol>
+ */
+@Slf4j
+public class RdaLoadBenchmarkApp {
+  /** Percentiles reported for latency and batch time metrics. */
+  private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99};
+
+  /** Name of the in-process server used to serve claims to the pipeline. */
+  private static final String SERVER_NAME = RdaLoadBenchmarkApp.class.getName();
+
+  /** Suffix of the sink metric tracking the number of claims written. */
+  private static final String WRITES_METRIC = ".writes.total";
+
+  /** Suffix of the sink metric tracking the age of each change when it is written. */
+  private static final String CHANGE_AGE_METRIC = ".change.latency.millis";
+
+  /** Suffix of the sink metric tracking the elapsed time of each database batch. */
+  private static final String BATCH_TIME_METRIC = ".writes.elapsed";
+
+  /** Suffix of the sink metric tracking the number of claims in each database batch. */
+  private static final String BATCH_SIZE_METRIC = ".writes.batchSize";
+
+  /** FISS specific logic. */
+  private static final ClaimKind<FissClaimChange> FISS =
+      new ClaimKind<>(
+          config -> new RandomFissClaimSource(config)::next,
+          FissClaimChange.parser(),
+          (change, seq, timestamp) ->
+              change.toBuilder().setSeq(seq).setTimestamp(timestamp).build());
+
+  /** MCS specific logic. */
+  private static final ClaimKind<McsClaimChange> MCS =
+      new ClaimKind<>(
+          config -> new RandomMcsClaimSource(config)::next,
+          McsClaimChange.parser(),
+          (change, seq, timestamp) ->
+              change.toBuilder().setSeq(seq).setTimestamp(timestamp).build());
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args that are passed in
+   * @throws Exception if the pipeline encounters a problem loading or reading
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length != 2) {
+      System.err.printf(
+          "usage: %s configfile claimType%n", RdaLoadBenchmarkApp.class.getSimpleName());
+      System.exit(1);
+    }
+    final ConfigLoader options =
+        ConfigLoader.builder().addPropertiesFile(new File(args[0])).addSystemProperties().build();
+    final String claimType = Strings.nullToEmpty(args[1]).toLowerCase();
+    final BenchmarkConfig benchmarkConfig = new BenchmarkConfig(options);
+
+    final RdaMessageSourceFactory messageSourceFactory;
+    switch (claimType) {
+      case "fiss":
+        messageSourceFactory =
+            new BenchmarkMessageSourceFactory(createMessageSources(benchmarkConfig, FISS), null);
+        break;
+      case "mcs":
+        messageSourceFactory =
+            new BenchmarkMessageSourceFactory(null, createMessageSources(benchmarkConfig, MCS));
+        break;
+      default:
+        System.err.printf("error: invalid claim type: '%s' expected 'fiss' or 'mcs'%n", claimType);
+        System.exit(1);
+        return;
+    }
+
+    final MetricRegistry metrics = new MetricRegistry();
+    final Slf4jReporter reporter =
+        Slf4jReporter.forRegistry(metrics)
+            .outputTo(LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME))
+            .convertRatesTo(TimeUnit.SECONDS)
+            .convertDurationsTo(TimeUnit.MILLISECONDS)
+            .build();
+    reporter.start(5, TimeUnit.SECONDS);
+
+    final MeterRegistry meters = createMeterRegistry();
+    final RdaSourceConfig grpcConfig =
+        RdaSourceConfig.builder()
+            .serverType(RdaSourceConfig.ServerType.InProcess)
+            .inProcessServerName(SERVER_NAME)
+            .sequenceRangeUpdateIntervalSeconds(300)
+            .maxIdle(Duration.ofDays(1))
+            .build();
+    final RdaLoadOptions jobConfig =
+        DirectRdaLoadApp.readRdaLoadOptionsFromProperties(options, grpcConfig);
+    final HikariDataSource pooledDataSource =
+        DirectRdaLoadApp.createPooledDataSource(
+            options, jobConfig.getJobConfig().getWriteThreads(), metrics);
+    if (options.booleanValue("job.migration", false)) {
+      log.info("running database migration");
+      DatabaseSchemaManager.createOrUpdateSchema(pooledDataSource);
+    }
+
+    final Server server =
+        InProcessServerBuilder.forName(SERVER_NAME)
+            .addService(new RdaService(messageSourceFactory))
+            .build()
+            .start();
+    final long elapsedNanos;
+    try (PipelineApplicationState appState =
+        new PipelineApplicationState(
+            meters,
+            metrics,
+            pooledDataSource,
+            PipelineApplicationState.RDA_PERSISTENCE_UNIT_NAME,
+            Clock.systemUTC())) {
+      final PipelineJob job =
+          DirectRdaLoadApp.createPipelineJob(jobConfig, appState, claimType).orElseThrow();
+      log.info(
+          "sending {} {} claims at {} per second",
+          benchmarkConfig.claimCount,
+          claimType,
+          benchmarkConfig.messagesPerSecond > 0 ? benchmarkConfig.messagesPerSecond : "unlimited");
+      final long startNanos = System.nanoTime();
+      job.call();
+      elapsedNanos = System.nanoTime() - startNanos;
+    } finally {
+      server.shutdown();
+      server.awaitTermination(1, TimeUnit.MINUTES);
+      messageSourceFactory.close();
+      reporter.report();
+      reporter.close();
+    }
+    printReport(meters, elapsedNanos);
+  }
+
+  /**
+   * Creates the {@link MeterRegistry} used by the pipeline. All timers and distribution summaries
+   * track percentiles over the whole run so that they can be included in the report.
+   *
+   * @return the registry
+   */
+  private static MeterRegistry createMeterRegistry() {
+    final MeterRegistry meters = new SimpleMeterRegistry();
+    meters
+        .config()
+        .meterFilter(
+            new MeterFilter() {
+              @Override
+              public DistributionStatisticConfig configure(
+                  Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                    .percentiles(PERCENTILES)
+                    .expiry(Duration.ofDays(1))
+                    .bufferLength(1)
+                    .build()
+                    .merge(config);
+              }
+            });
+    return meters;
+  }
+
+  /**
+   * Writes the benchmark results to the console.
+   *
+   * @param meters registry containing the sink's metrics
+   * @param elapsedNanos elapsed time of the pipeline job
+   */
+  private static void printReport(MeterRegistry meters, long elapsedNanos) {
+    final double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+    final double written =
+        findMeter(meters, WRITES_METRIC, Counter.class).map(Counter::count).orElse(0.0);
+    System.out.printf("elapsed seconds: %.3f%n", elapsedSeconds);
+    System.out.printf("claims written: %.0f%n", written);
+    System.out.printf("claims/sec: %.1f%n", elapsedSeconds > 0 ? written / elapsedSeconds : 0.0);
+    findMeter(meters, CHANGE_AGE_METRIC, DistributionSummary.class)
+        .ifPresent(summary -> printSnapshot("change latency millis", summary.takeSnapshot(), 1));
+    findMeter(meters, BATCH_TIME_METRIC, Timer.class)
+        .ifPresent(
+            timer -> {
+              System.out.printf("db batches: %d%n", timer.count());
+              printSnapshot("db millis per batch", timer.takeSnapshot(), 1_000_000);
+            });
+    findMeter(meters, BATCH_SIZE_METRIC, DistributionSummary.class)
+        .ifPresent(summary -> System.out.printf("db batch size mean: %.1f%n", summary.mean()));
+  }
+
+  /**
+   * Writes the mean, percentiles, and maximum of a histogram to the console.
+   *
+   * @param label describes the values
+   * @param snapshot the histogram
+   * @param scale divisor used to convert the recorded values to the reported unit
+   */
+  private static void printSnapshot(String label, HistogramSnapshot snapshot, double scale) {
+    final StringBuilder line = new StringBuilder();
+    line.append(String.format("%s: mean=%.1f", label, snapshot.mean() / scale));
+    for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+      line.append(
+          String.format(" p%.0f=%.1f", percentile.percentile() * 100, percentile.value() / scale));
+    }
+    line.append(String.format(" max=%.1f", snapshot.max() / scale));
+    System.out.println(line);
+  }
+
+  /**
+   * Finds the sink metric whose name ends with the given suffix. The sink metric names are prefixed
+   * with the name of the sink class so we search by suffix.
+   *
+   * @param meters registry containing the sink's metrics
+   * @param suffix suffix of the metric name
+   * @param meterClass expected type of the metric
+   * @return the metric or empty if none was registered
+   * @param <T> expected type of the metric
+   */
+  private static <T extends Meter> Optional<T> findMeter(
+      MeterRegistry meters, String suffix, Class<T> meterClass) {
+    return meters.getMeters().stream()
+        .filter(meter -> meter.getId().getName().endsWith(suffix))
+        .filter(meterClass::isInstance)
+        .map(meterClass::cast)
+        .findFirst();
+  }
+
+  /**
+   * Creates a function that produces a new {@link BenchmarkMessageSource} for each call to the
+   * server. The template messages come from a shared corpus if one has been configured or from new
+   * random claim generators otherwise.
+   *
+   * @param config the benchmark settings
+   * @param claimKind FISS or MCS specific logic
+   * @return the function
+   * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+   * @throws IOException if the corpus could not be read or written
+   */
+  private static <TMessage extends MessageLite>
+      Function<Long, MessageSource<TMessage>> createMessageSources(
+          BenchmarkConfig config, ClaimKind<TMessage> claimKind) throws IOException {
+    final Supplier<Supplier<TMessage>> templates;
+    if (config.corpusSize > 0) {
+      final List<TMessage> corpus = loadOrCreateCorpus(config, claimKind);
+      templates = () -> cycle(corpus);
+    } else {
+      templates = () -> createGenerator(config, claimKind);
+    }
+    final RateLimiter rateLimiter =
+        config.messagesPerSecond > 0 ? RateLimiter.create(config.messagesPerSecond) : null;
+    return startingSequenceNumber ->
+        new BenchmarkMessageSource<>(
+                templates.get(),
+                claimKind.stamper,
+                rateLimiter,
+                Clock.systemUTC(),
+                config.claimCount)
+            .skipTo(startingSequenceNumber);
+  }
+
+  /**
+   * Creates a supplier of random claims. Each claim is generated with all optional fields populated
+   * with a probability of {@link BenchmarkConfig#verbosePercent} percent. Otherwise optional fields
+   * are populated at random.
+   *
+   * @param config the benchmark settings
+   * @param claimKind FISS or MCS specific logic
+   * @return the supplier
+   * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+   */
+  private static <TMessage> Supplier<TMessage> createGenerator(
+      BenchmarkConfig config, ClaimKind<TMessage> claimKind) {
+    final RandomClaimGeneratorConfig minimalConfig =
+        RandomClaimGeneratorConfig.builder()
+            .seed(config.seed)
+            .maxUniqueMbis(config.maxUniqueMbis)
+            .maxUniqueClaimIds(config.maxUniqueClaimIds)
+            .build();
+    final RandomClaimGeneratorConfig verboseConfig =
+        minimalConfig.toBuilder().seed(config.seed + 1).optionalOverride(true).build();
+    final Supplier<TMessage> minimal = claimKind.generatorFactory.apply(minimalConfig);
+    final Supplier<TMessage> verbose = claimKind.generatorFactory.apply(verboseConfig);
+    final Random random = new Random(config.seed);
+    return () -> random.nextInt(100) < config.verbosePercent ? verbose.get() : minimal.get();
+  }
+
+  /**
+   * Creates a supplier that returns the elements of a list in order and starts over from the
+   * beginning once it reaches the end.
+   *
+   * @param corpus the list
+   * @return the supplier
+   * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+   */
+  private static <TMessage> Supplier<TMessage> cycle(List<TMessage> corpus) {
+    final int[] index = {0};
+    return () -> {
+      final TMessage message = corpus.get(index[0]);
+      index[0] = (index[0] + 1) % corpus.size();
+      return message;
+    };
+  }
+
+  /**
+   * Loads the corpus from {@link BenchmarkConfig#corpusFile} if it exists. Otherwise generates a
+   * new corpus and, if {@link BenchmarkConfig#corpusFile} is set, saves it to that file.
+   *
+   * @param config the benchmark settings
+   * @param claimKind FISS or MCS specific logic
+   * @return the corpus
+   * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+   * @throws IOException if the corpus could not be read or written
+   */
+  private static <TMessage extends MessageLite> List<TMessage> loadOrCreateCorpus(
+      BenchmarkConfig config, ClaimKind<TMessage> claimKind) throws IOException {
+    final List<TMessage> corpus = new ArrayList<>(config.corpusSize);
+    if (config.corpusFile != null && Files.isRegularFile(config.corpusFile)) {
+      try (InputStream in = new BufferedInputStream(Files.newInputStream(config.corpusFile))) {
+        TMessage message;
+        while (corpus.size() < config.corpusSize
+            && (message = claimKind.parser.parseDelimitedFrom(in)) != null) {
+          corpus.add(message);
+        }
+      }
+      Preconditions.checkState(!corpus.isEmpty(), "corpus file is empty: %s", config.corpusFile);
+      log.info("loaded {} claims from corpus file {}", corpus.size(), config.corpusFile);
+      return corpus;
+    }
+
+    final Supplier<TMessage> generator = createGenerator(config, claimKind);
+    while (corpus.size() < config.corpusSize) {
+      corpus.add(generator.get());
+    }
+    log.info("generated {} claims for corpus", corpus.size());
+    if (config.corpusFile != null) {
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(config.corpusFile))) {
+        for (TMessage message : corpus) {
+          message.writeDelimitedTo(out);
+        }
+      }
+      log.info("saved corpus to file {}", config.corpusFile);
+    }
+    return corpus;
+  }
+
+  /**
+   * Holds the logic specific to FISS or MCS claims.
+   *
+   * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+   */
+  @AllArgsConstructor
+  private static class ClaimKind<TMessage> {
+    /** Creates a supplier of random claims using a given configuration. */
+    private final Function<RandomClaimGeneratorConfig, Supplier<TMessage>> generatorFactory;
+
+    /** Used to read messages from a corpus file. */
+    private final Parser<TMessage> parser;
+
+    /** Used to set the sequence number and timestamp of each message sent. */
+    private final BenchmarkMessageSource.Stamper<TMessage> stamper;
+  }
+
+  /**
+   * {@link RdaMessageSourceFactory} that serves benchmark claims of a single type. Claims of the
+   * other type are served using an {@link EmptyMessageSource}.
+   */
+  @AllArgsConstructor
+  private static class BenchmarkMessageSourceFactory implements RdaMessageSourceFactory {
+    /** Creates sources for FISS claims or null if FISS claims are not being served. */
+    @Nullable private final Function<Long, MessageSource<FissClaimChange>> fissSources;
+
+    /** Creates sources for MCS claims or null if MCS claims are not being served. */
+    @Nullable private final Function<Long, MessageSource<McsClaimChange>> mcsSources;
+
+    @Override
+    public RdaService.Version getVersion() {
+      return RdaService.Version.builder().build();
+    }
+
+    @Override
+    public MessageSource<FissClaimChange> createFissMessageSource(long startingSequenceNumber) {
+      return fissSources != null
+          ? fissSources.apply(startingSequenceNumber)
+          : new EmptyMessageSource<>();
+    }
+
+    @Override
+    public MessageSource<McsClaimChange> createMcsMessageSource(long startingSequenceNumber) {
+      return mcsSources != null
+          ? mcsSources.apply(startingSequenceNumber)
+          : new EmptyMessageSource<>();
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  /** Benchmark specific configuration settings. */
+  private static class BenchmarkConfig {
+    /** Number of claims to send. */
+    private final long claimCount;
+
+    /** Maximum number of claims to send per second. Zero or less means unlimited. */
+    private final double messagesPerSecond;
+
+    /** Percentage of claims generated with every optional field populated. */
+    private final int verbosePercent;
+
+    /** Seed used to initialize the random claim generators. */
+    private final long seed;
+
+    /** When positive the maximum number of unique MBI values to generate. */
+    private final int maxUniqueMbis;
+
+    /** When positive the maximum number of unique claim id values to generate. */
+    private final int maxUniqueClaimIds;
+
+    /** Number of claims in the pregenerated corpus. Zero means claims are generated on the fly. */
+    private final int corpusSize;
+
+    /** Optional file used to load or save the pregenerated corpus. */
+    @Nullable private final Path corpusFile;
+
+    /**
+     * Reads the benchmark settings.
+     *
+     * @param options the config options to use
+     */
+    private BenchmarkConfig(ConfigLoader options) {
+      claimCount = options.longValue("benchmark.claimCount", 100_000L);
+      messagesPerSecond = options.intValue("benchmark.messagesPerSecond", 0);
+      verbosePercent = options.intValue("benchmark.verbosePercent", 0);
+      seed = options.longValue("benchmark.seed", System.currentTimeMillis());
+      maxUniqueMbis = options.intValue("benchmark.maxUniqueMbis", 0);
+      maxUniqueClaimIds = options.intValue("benchmark.maxUniqueClaimIds", 0);
+      corpusSize = options.intValue("benchmark.corpusSize", 0);
+      corpusFile = options.stringOption("benchmark.corpusFile").map(Path::of).orElse(null);
+      Preconditions.checkArgument(claimCount >= 1, "claimCount less than 1");
+      Preconditions.checkArgument(
+          verbosePercent >= 0 && verbosePercent <= 100, "verbosePercent not in range 0-100");
+      Preconditions.checkArgument(corpusSize >= 0, "corpusSize is negative");
+    }
+  }
+}
@@ -11,8 +11,8 @@ import software.amazon.awssdk.regions.Region;
 /**
  * A stand-alone mock RDA API (version 0.2 MVP) server implementation. The server is intended for
  * testing purposes only and will not be used in production. Data served is specified on the command
- * line and comes from either random data or from a NDJSON file. The server always starts on port
- * 5003.
+ * line and comes from either random data, a binary message store, or a NDJSON file. The server
+ * always starts on port 5003.
  */
 @Slf4j
 public class RdaServerApp {
@@ -27,6 +27,10 @@ public class RdaServerApp {
    *   <li>random creates a random source using current time as the PRNG seed
    *   <li>fissFile:filename creates a source that returns FissClaims contained in an NDJSON file
    *   <li>mcsFile:filename creates a source that returns McsClaims contained in an NDJSON file
+   *   <li>binary.fiss:filename creates a source that returns FissClaims contained in a binary
+   *       message store
+   *   <li>binary.mcs:filename creates a source that returns McsClaims contained in a binary message
+   *       store
    * </ul>
    *
    * @param args the input arguments
@@ -78,6 +82,8 @@ public class RdaServerApp {
               .randomClaimConfig(randomClaimConfig)
               .fissClaimJsonFile(config.readableFileOption("file.fiss").orElse(null))
               .mcsClaimJsonFile(config.readableFileOption("file.mcs").orElse(null))
+              .fissClaimBinaryFile(config.readableFileOption("binary.fiss").orElse(null))
+              .mcsClaimBinaryFile(config.readableFileOption("binary.mcs").orElse(null))
               .s3Bucket(config.stringOption("s3.bucket").orElse(null))
               .s3ClientConfig(
                   S3ClientConfig.s3Builder()
@@ -3,8 +3,17 @@ package gov.cms.bfd.pipeline.rda.grpc;
 import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
 import jakarta.persistence.Query;
 import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.apache.commons.text.StringSubstitutor;
@@ -13,6 +22,13 @@ import org.slf4j.Logger;
 /**
  * An abstract class that encapsulates the common code for executing a job to clean up old
  * pre-adjudicated claims from the RDA pipeline tables.
+ *
+ * <p>The parent table and its child tables are range partitioned by {@code last_updated}, one
+ * partition per month (see {@code V20261019150000000__partition_rda_claims.sql}). The job creates
+ * the partitions for upcoming months ahead of time and removes every month that is past the
+ * retention cutoff entirely by detaching its partitions concurrently and dropping them, children
+ * first. Anything left over, such as claims in the history partition or months containing synthetic
+ * claims, is removed by the row delete transactions, whose deletes cascade to the child tables.
  */
 @Getter
 @AllArgsConstructor
@@ -21,6 +37,9 @@ public abstract class AbstractCleanupJob implements CleanupJob {
   /** maximum age of claims in days from current date. */
   private static final int OLDEST_CLAIM_AGE_IN_DAYS = 60;
 
+  /** number of months after the current one to create partitions for in advance. */
+  private static final int PARTITION_MONTHS_AHEAD = 2;
+
   /** template for delete query. */
   private static final String DELETE_QUERY_TEMPLATE =
       "delete from ${parentTableName} t where t.${parentTableKey} in ( "
@@ -32,6 +51,52 @@ public abstract class AbstractCleanupJob implements CleanupJob {
           + "  and api_source not like 'S3%' "
           + "  limit ${limit})";
 
+  /**
+   * query to find the monthly partitions of a table, including ones detached but not yet dropped.
+   */
+  private static final String LIST_PARTITIONS_QUERY =
+      "select c.relname from pg_catalog.pg_class c "
+          + "join pg_catalog.pg_namespace n on n.oid = c.relnamespace "
+          + "where n.nspname = :schema and c.relkind = 'r' and c.relname like :pattern "
+          + "order by c.relname";
+
+  /**
+   * query to determine whether a table is currently attached as a partition. Returns no row if it
+   * is not, otherwise whether an earlier concurrent detach of it was interrupted.
+   */
+  private static final String DETACH_PENDING_QUERY =
+      "select inhdetachpending from pg_catalog.pg_inherits where inhrelid = to_regclass(:table)";
+
+  /** query to determine whether a table exists. */
+  private static final String TABLE_EXISTS_QUERY = "select to_regclass(:table) is not null";
+
+  /** template for creating a monthly partition. */
+  private static final String CREATE_PARTITION_TEMPLATE =
+      "create table if not exists ${partitionName} partition of ${tableName} "
+          + "for values from ('${from}') to ('${to}')";
+
+  /** template for checking whether a partition contains synthetic claims. */
+  private static final String HAS_SYNTHETIC_CLAIMS_TEMPLATE =
+      "select count(*) from (select 1 from ${partitionName} where api_source like 'S3%' limit 1) s";
+
+  /**
+   * template for detaching a partition. Only locks the partitioned table in {@code SHARE UPDATE
+   * EXCLUSIVE} mode so that the pipeline and the server can keep using it, but cannot be run inside
+   * a transaction.
+   */
+  private static final String DETACH_PARTITION_TEMPLATE =
+      "alter table ${tableName} detach partition ${partitionName} concurrently";
+
+  /** template for completing a concurrent detach that was interrupted. */
+  private static final String FINALIZE_DETACH_TEMPLATE =
+      "alter table ${tableName} detach partition ${partitionName} finalize";
+
+  /** template for counting the claims in a detached partition. */
+  private static final String COUNT_CLAIMS_TEMPLATE = "select count(*) from ${partitionName}";
+
+  /** template for dropping a detached partition. */
+  private static final String DROP_PARTITION_TEMPLATE = "drop table if exists ${partitionName}";
+
   /** TransactionManager to use for db operations. */
   private final TransactionManager transactionManager;
 
@@ -62,26 +127,40 @@ public abstract class AbstractCleanupJob implements CleanupJob {
   abstract String getParentTableKey();
 
   /**
-   * Executes the job if enabled. Calculates the number of transactions from the cleanupRunSize /
-   * cleanupTransactionSize then for each transaction it determines the maximum last updated date
-   * for claims that will be removed then deletes them.
+   * Returns the child tables of the parent table. They are partitioned the same way as the parent
+   * table, so the partitions of a month have to be created and dropped together with the parent's.
    *
-   * <p>If any iteration fails to find claims to delete or the total number of claims deleted
-   * already exceeds the cleanupRunSize then processing stops.
+   * @return the schema qualified child table names
+   */
+  abstract List<String> getChildTableNames();
+
+  /**
+   * Creates the partitions for current and upcoming months, even if the job is not enabled since
+   * claims cannot be written without them. If enabled, drops every month of partitions that has
+   * expired entirely.
+   *
+   * <p>Then calculates the number of transactions from the cleanupRunSize / cleanupTransactionSize
+   * and for each transaction it determines the maximum last updated date for claims that will be
+   * removed then deletes them. If any iteration fails to find claims to delete or the total number
+   * of claims deleted already exceeds the cleanupRunSize then processing stops.
    *
    * @return the number of deleted claims, or zero if not enabled.
    */
   public int run() throws ProcessingException {
     int claimsDeleted = 0;
 
+    createCurrentPartitions();
+
     if (enabled) {
       final long startMillis = System.currentTimeMillis();
 
       try {
+        claimsDeleted += dropExpiredPartitions();
+
         Query query = buildDeleteQuery(transactionManager);
         var numberOfTransactions = Math.floorDiv(cleanupRunSize, cleanupTransactionSize);
 
-        for (int i = 0; i < numberOfTransactions; i++) {
+        for (int i = 0; i < numberOfTransactions && claimsDeleted < cleanupRunSize; i++) {
           var result = executeDeleteTransaction(query, transactionManager);
           claimsDeleted += result;
 
@@ -104,6 +183,260 @@ public abstract class AbstractCleanupJob implements CleanupJob {
     return claimsDeleted;
   }
 
+  /**
+   * Builds the name of the partition of a table holding the rows of the claims last updated in the
+   * given month.
+   *
+   * @param tableName the schema qualified name of the parent table or one of its child tables
+   * @param month the month
+   * @return the schema qualified partition name
+   */
+  static String getPartitionName(String tableName, YearMonth month) {
+    return String.format("%s_y%04dm%02d", tableName, month.getYear(), month.getMonthValue());
+  }
+
+  /**
+   * Determines the month of a partition of the parent table from its name.
+   *
+   * @param partitionName the unqualified partition name
+   * @return the month, or null if the name does not follow the monthly partition naming convention
+   */
+  YearMonth parsePartitionMonth(String partitionName) {
+    final String tableName = getParentTableName().substring(getParentTableName().indexOf('.') + 1);
+    final Matcher matcher =
+        Pattern.compile(Pattern.quote(tableName) + "_y(\\d{4})m(\\d{2})").matcher(partitionName);
+    if (!matcher.matches()) {
+      return null;
+    }
+    final int monthValue = Integer.parseInt(matcher.group(2));
+    if (monthValue < 1 || monthValue > 12) {
+      return null;
+    }
+    return YearMonth.of(Integer.parseInt(matcher.group(1)), monthValue);
+  }
+
+  /**
+   * Returns the parent table followed by its child tables.
+   *
+   * @return the schema qualified table names
+   */
+  private List<String> getAllTableNames() {
+    final List<String> tableNames = new ArrayList<>();
+    tableNames.add(getParentTableName());
+    tableNames.addAll(getChildTableNames());
+    return tableNames;
+  }
+
+  /**
+   * Creates the partitions of the parent and child tables for every month within the retention
+   * period and the next {@link #PARTITION_MONTHS_AHEAD} months if they do not exist yet. Failures
+   * are logged rather than aborting the job since the partitions created by an earlier run are
+   * usually still sufficient.
+   */
+  private void createCurrentPartitions() {
+    final Instant now = Instant.now();
+    final YearMonth firstMonth =
+        YearMonth.from(now.minus(OLDEST_CLAIM_AGE_IN_DAYS, ChronoUnit.DAYS).atZone(ZoneOffset.UTC));
+    final YearMonth lastMonth =
+        YearMonth.from(now.atZone(ZoneOffset.UTC)).plusMonths(PARTITION_MONTHS_AHEAD);
+    for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+      for (String tableName : getAllTableNames()) {
+        final String partitionName = getPartitionName(tableName, month);
+        final String sql =
+            substitute(
+                CREATE_PARTITION_TEMPLATE,
+                Map.of(
+                    "tableName",
+                    tableName,
+                    "partitionName",
+                    partitionName,
+                    "from",
+                    month.atDay(1) + " 00:00:00+00",
+                    "to",
+                    month.plusMonths(1).atDay(1) + " 00:00:00+00"));
+        try {
+          transactionManager.executeProcedure(
+              entityManager -> entityManager.createNativeQuery(sql).executeUpdate());
+        } catch (Exception ex) {
+          logger.warn(
+              "cleanup job could not create partition: partition={} message={}",
+              partitionName,
+              ex.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Drops the partitions of every month that ended before the retention cutoff and whose parent
+   * partition does not contain any synthetic claims. Months left partially dropped by an earlier,
+   * interrupted run are finished as well.
+   *
+   * @return the number of claims removed
+   */
+  private int dropExpiredPartitions() {
+    final Instant cutoff = Instant.now().minus(OLDEST_CLAIM_AGE_IN_DAYS, ChronoUnit.DAYS);
+    final String parentTableName = getParentTableName();
+    final String schema = parentTableName.substring(0, parentTableName.indexOf('.'));
+    final String tableName = parentTableName.substring(schema.length() + 1);
+    final List<String> partitionNames =
+        transactionManager.executeFunction(
+            entityManager ->
+                ((List<?>)
+                        entityManager
+                            .createNativeQuery(LIST_PARTITIONS_QUERY)
+                            .setParameter("schema", schema)
+                            .setParameter("pattern", tableName.replace("_", "\\_") + "\\_y%")
+                            .getResultList())
+                    .stream().map(Object::toString).collect(Collectors.toList()));
+
+    int claimsDeleted = 0;
+    for (String partitionName : partitionNames) {
+      final YearMonth month = parsePartitionMonth(partitionName);
+      if (month == null
+          || month
+              .plusMonths(1)
+              .atDay(1)
+              .atStartOfDay(ZoneOffset.UTC)
+              .toInstant()
+              .isAfter(cutoff)) {
+        continue;
+      }
+      final String qualifiedName = schema + "." + partitionName;
+      if (isDetachPending(qualifiedName) != null && hasSyntheticClaims(qualifiedName)) {
+        logger.info(
+            "cleanup job kept expired partition with synthetic claims: partition={}",
+            qualifiedName);
+        continue;
+      }
+      claimsDeleted += dropMonth(month);
+    }
+    return claimsDeleted;
+  }
+
+  /**
+   * Detaches and drops the partitions of the child tables for the given month and then the one of
+   * the parent table. The children have to go first since detaching the parent's partition fails
+   * while rows in the child tables still reference its claims.
+   *
+   * @param month the month to drop
+   * @return the number of claims in the dropped parent partition
+   */
+  private int dropMonth(YearMonth month) {
+    for (String childTableName : getChildTableNames()) {
+      final String partitionName = getPartitionName(childTableName, month);
+      detachPartition(childTableName, partitionName);
+      executeStatement(DROP_PARTITION_TEMPLATE, Map.of("partitionName", partitionName));
+    }
+
+    final String partitionName = getPartitionName(getParentTableName(), month);
+    detachPartition(getParentTableName(), partitionName);
+    final int claimCount =
+        transactionManager.executeFunction(
+            entityManager -> {
+              if (!Boolean.TRUE.equals(
+                  entityManager
+                      .createNativeQuery(TABLE_EXISTS_QUERY)
+                      .setParameter("table", partitionName)
+                      .getSingleResult())) {
+                return 0;
+              }
+              final int count =
+                  ((Number)
+                          entityManager
+                              .createNativeQuery(
+                                  substitute(
+                                      COUNT_CLAIMS_TEMPLATE,
+                                      Map.of("partitionName", partitionName)))
+                              .getSingleResult())
+                      .intValue();
+              entityManager
+                  .createNativeQuery(
+                      substitute(DROP_PARTITION_TEMPLATE, Map.of("partitionName", partitionName)))
+                  .executeUpdate();
+              return count;
+            });
+    logger.info("cleanup job dropped expired partitions: month={} claims={}", month, claimCount);
+    return claimCount;
+  }
+
+  /**
+   * Detaches a partition from its table if it is still attached. Uses {@code DETACH PARTITION ...
+   * CONCURRENTLY} so that readers and writers of the table are not blocked, or completes the detach
+   * if an earlier concurrent detach was interrupted.
+   *
+   * @param tableName the schema qualified name of the partitioned table
+   * @param partitionName the schema qualified partition name
+   */
+  private void detachPartition(String tableName, String partitionName) {
+    final Boolean detachPending = isDetachPending(partitionName);
+    if (detachPending != null) {
+      transactionManager.executeStatementWithoutTransaction(
+          substitute(
+              detachPending ? FINALIZE_DETACH_TEMPLATE : DETACH_PARTITION_TEMPLATE,
+              Map.of("tableName", tableName, "partitionName", partitionName)));
+    }
+  }
+
+  /**
+   * Determines whether a table is currently attached as a partition.
+   *
+   * @param partitionName the schema qualified partition name
+   * @return null if the table is not attached (or does not exist), otherwise true if an earlier
+   *     concurrent detach of it was interrupted
+   */
+  private Boolean isDetachPending(String partitionName) {
+    return transactionManager.executeFunction(
+        entityManager ->
+            ((List<?>)
+                    entityManager
+                        .createNativeQuery(DETACH_PENDING_QUERY)
+                        .setParameter("table", partitionName)
+                        .getResultList())
+                .stream().map(Boolean.class::cast).findFirst().orElse(null));
+  }
+
+  /**
+   * Determines whether a partition contains any synthetic claims, which must never be removed.
+   *
+   * @param partitionName the schema qualified partition name
+   * @return true if the partition contains synthetic claims
+   */
+  private boolean hasSyntheticClaims(String partitionName) {
+    final String sql =
+        substitute(HAS_SYNTHETIC_CLAIMS_TEMPLATE, Map.of("partitionName", partitionName));
+    return transactionManager.executeFunction(
+        entityManager ->
+            ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue() > 0);
+  }
+
+  /**
+   * Executes a statement in its own transaction.
+   *
+   * @param template the statement template
+   * @param params the template parameters
+   */
+  private void executeStatement(String template, Map<String, String> params) {
+    final String sql = substitute(template, params);
+    transactionManager.executeProcedure(
+        entityManager -> entityManager.createNativeQuery(sql).executeUpdate());
+  }
+
+  /**
+   * Replaces the parameters in a query template. The parent table name and key are always available
+   * to the template.
+   *
+   * @param template the query template
+   * @param params the parameter values
+   * @return the query
+   */
+  private String substitute(String template, Map<String, String> params) {
+    final Map<String, String> allParams = new HashMap<>(params);
+    allParams.putIfAbsent("parentTableName", getParentTableName());
+    allParams.putIfAbsent("parentTableKey", getParentTableKey());
+    return new StringSubstitutor(allParams).replace(template);
+  }
+
   /**
    * Executes a single delete transaction. The list of queries are passed in execution order, last
    * query must delete from the parent table, all other queries are child table deletes.
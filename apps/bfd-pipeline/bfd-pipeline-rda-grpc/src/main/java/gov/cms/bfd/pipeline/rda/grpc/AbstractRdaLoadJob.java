@@ -276,6 +276,13 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
      */
     @Getter private final int writeThreads;
 
+    /**
+     * transformThreads specifies the number of threads used by {@link
+     * gov.cms.bfd.pipeline.rda.grpc.sink.concurrent.ConcurrentRdaSink} to transform messages into
+     * claims before they are passed to the write threads. Defaults to the number of write threads.
+     */
+    @Getter private final int transformThreads;
+
     /**
      * batchSize specifies the number of records per batch sent to the RdaSink for processing. This
      * value will likely be tuned for a specific type of sink object and for performance tuning
@@ -319,6 +326,7 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
      * @param runInterval the run interval
      * @param batchSize the batch size
      * @param writeThreads the number of write threads
+     * @param transformThreads the number of transform threads
      * @param startingFissSeqNum the starting fiss seq num
      * @param startingMcsSeqNum the starting MCS seq num
      * @param processDLQ if the job should process the DLQ
@@ -333,6 +341,7 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
         Duration runInterval,
         int batchSize,
         int writeThreads,
+        int transformThreads,
         @Nullable Long startingFissSeqNum,
         @Nullable Long startingMcsSeqNum,
         boolean processDLQ,
@@ -344,6 +353,7 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
       this.runInterval = Preconditions.checkNotNull(runInterval);
       this.batchSize = batchSize;
       this.writeThreads = writeThreads == 0 ? 1 : writeThreads;
+      this.transformThreads = transformThreads == 0 ? this.writeThreads : transformThreads;
       this.startingFissSeqNum = startingFissSeqNum;
       this.startingMcsSeqNum = startingMcsSeqNum;
       this.processDLQ = processDLQ;
@@ -359,6 +369,8 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
           runInterval);
       Preconditions.checkArgument(
           this.writeThreads >= 1, "writeThreads less than 1: %s", writeThreads);
+      Preconditions.checkArgument(
+          this.transformThreads >= 1, "transformThreads less than 1: %s", transformThreads);
       Preconditions.checkArgument(batchSize >= 1, "batchSize less than 1: %s", batchSize);
 
       if (runCleanup) {
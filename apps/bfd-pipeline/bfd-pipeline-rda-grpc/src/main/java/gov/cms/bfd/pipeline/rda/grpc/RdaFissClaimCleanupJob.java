@@ -1,6 +1,7 @@
 package gov.cms.bfd.pipeline.rda.grpc;
 
 import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,6 +17,16 @@ public class RdaFissClaimCleanupJob extends AbstractCleanupJob {
   /** Key column name for the parent table for use in native queries. */
   private static final String KEY_COLUMN = "claim_id";
 
+  /** Child tables of the parent table, partitioned the same way as the parent table. */
+  private static final List<String> CHILD_TABLE_NAMES =
+      List.of(
+          "rda.fiss_audit_trails",
+          "rda.fiss_diagnosis_codes",
+          "rda.fiss_payers",
+          "rda.fiss_proc_codes",
+          "rda.fiss_revenue_lines",
+          "rda.fiss_tags");
+
   /**
    * Constructs a RdaFissClaimCleanupJob.
    *
@@ -43,4 +54,10 @@ public class RdaFissClaimCleanupJob extends AbstractCleanupJob {
   String getParentTableKey() {
     return KEY_COLUMN;
   }
+
+  /** {@inheritDoc} */
+  @Override
+  List<String> getChildTableNames() {
+    return CHILD_TABLE_NAMES;
+  }
 }
@@ -181,10 +181,12 @@ public class RdaLoadOptions {
         sink =
             ConcurrentRdaSink.createSink(
                 jobConfig.getWriteThreads(),
+                jobConfig.getTransformThreads(),
                 jobConfig.getBatchSize(),
                 autoUpdateSequenceNumbers ->
                     new FissClaimRdaSink(
-                        appState, transformer, autoUpdateSequenceNumbers, errorLimit));
+                        appState, transformer, autoUpdateSequenceNumbers, errorLimit),
+                () -> new FissClaimRdaSink(appState, transformer));
       }
 
       return sink;
@@ -266,10 +268,12 @@ public class RdaLoadOptions {
         sink =
             ConcurrentRdaSink.createSink(
                 jobConfig.getWriteThreads(),
+                jobConfig.getTransformThreads(),
                 jobConfig.getBatchSize(),
                 autoUpdateSequenceNumbers ->
                     new McsClaimRdaSink(
-                        appState, transformer, autoUpdateSequenceNumbers, errorLimit));
+                        appState, transformer, autoUpdateSequenceNumbers, errorLimit),
+                () -> new McsClaimRdaSink(appState, transformer));
       }
 
       return sink;
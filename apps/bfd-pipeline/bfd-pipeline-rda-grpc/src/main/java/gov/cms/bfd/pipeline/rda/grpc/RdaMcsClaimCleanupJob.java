@@ -1,6 +1,7 @@
 package gov.cms.bfd.pipeline.rda.grpc;
 
 import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,6 +17,16 @@ public class RdaMcsClaimCleanupJob extends AbstractCleanupJob {
   /** Key column name for the parent table for use in native queries. */
   private static final String KEY_COLUMN = "idr_clm_hd_icn";
 
+  /** Child tables of the parent table, partitioned the same way as the parent table. */
+  private static final List<String> CHILD_TABLE_NAMES =
+      List.of(
+          "rda.mcs_adjustments",
+          "rda.mcs_audits",
+          "rda.mcs_details",
+          "rda.mcs_diagnosis_codes",
+          "rda.mcs_locations",
+          "rda.mcs_tags");
+
   /**
    * Constructs a RdaMcsClaimCleanupJob.
    *
@@ -43,4 +54,10 @@ public class RdaMcsClaimCleanupJob extends AbstractCleanupJob {
   String getParentTableKey() {
     return KEY_COLUMN;
   }
+
+  /** {@inheritDoc} */
+  @Override
+  List<String> getChildTableNames() {
+    return CHILD_TABLE_NAMES;
+  }
 }
@@ -0,0 +1,228 @@
+package gov.cms.bfd.pipeline.rda.grpc.server;
+
+import com.google.common.io.ByteSource;
+import com.google.protobuf.Parser;
+import gov.cms.mpsm.rda.v1.ClaimSequenceNumberRange;
+import gov.cms.mpsm.rda.v1.FissClaimChange;
+import gov.cms.mpsm.rda.v1.McsClaimChange;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link MessageSource} implementation that produces objects from a binary message store written
+ * by {@link BinaryMessageWriter}. Parsing binary protobuf messages is far cheaper than parsing the
+ * equivalent JSON and the store's sparse index allows {@link #skipTo} to seek close to the desired
+ * sequence number rather than parsing every message before it.
+ *
+ * <p>A store consists of three sections:
+ *
+ * <ol>
+ *   <li>The messages in increasing sequence number order, each written in protobuf's length
+ *       delimited format (a varint length followed by the message bytes).
+ *   <li>A sparse index containing one entry for every Nth message. Each entry is the message's
+ *       sequence number followed by the byte offset of the message within the store, both written
+ *       as 8 byte big endian integers.
+ *   <li>A fixed size footer containing the byte offset of the index, the sequence number of the
+ *       last message, the number of index entries, and a magic number.
+ * </ol>
+ *
+ * <p>Since the footer is at the end of the store the store's size must be known. A store should not
+ * be compressed since that would require decompressing the whole store to find its size and to seek
+ * to a message.
+ *
+ * @param <T> the message type
+ */
+public class BinaryMessageSource<T> implements MessageSource<T> {
+  /** File name suffix used for binary message stores. */
+  public static final String FILE_SUFFIX = "pb";
+
+  /** Magic number at the end of every store. The bytes spell RDA1 in ASCII. */
+  static final int FOOTER_MAGIC = 0x52444131;
+
+  /** Number of bytes in the footer. */
+  static final int FOOTER_SIZE = 8 + 8 + 4 + 4;
+
+  /** Number of bytes in each index entry. */
+  static final int INDEX_ENTRY_SIZE = 8 + 8;
+
+  /** The store containing our messages. */
+  private final ByteSource bytes;
+
+  /** Used to parse each message. */
+  private final Parser<T> parser;
+
+  /** Used to get the sequence number of each message. */
+  private final ToLongFunction<T> sequenceNumberOf;
+
+  /** Sequence numbers from the sparse index in increasing order. */
+  private final long[] indexSequenceNumbers;
+
+  /** Byte offsets corresponding to each of the {@link #indexSequenceNumbers}. */
+  private final long[] indexOffsets;
+
+  /** Byte offset of the index, which is also the number of bytes used by messages. */
+  private final long indexOffset;
+
+  /** Sequence number of the last message in the store. */
+  private final long lastSequenceNumber;
+
+  /** Stream of message bytes. Opened lazily so that {@link #skipTo} can choose where to start. */
+  private InputStream stream;
+
+  /** The next message to return. */
+  private T nextMessage;
+
+  /**
+   * Produce a BinaryMessageSource that reads the binary store contained in a {@link ByteSource}.
+   * Reads the store's index immediately.
+   *
+   * @param bytes the store
+   * @param parser used to parse each message
+   * @param sequenceNumberOf used to get the sequence number of each message
+   * @throws IOException if the store could not be read or is not a valid store
+   */
+  public BinaryMessageSource(ByteSource bytes, Parser<T> parser, ToLongFunction<T> sequenceNumberOf)
+      throws IOException {
+    this.bytes = bytes;
+    this.parser = parser;
+    this.sequenceNumberOf = sequenceNumberOf;
+
+    final long size = bytes.size();
+    if (size < FOOTER_SIZE) {
+      throw new IOException("binary message store is too small to contain a footer");
+    }
+    final int indexEntryCount;
+    try (DataInputStream footer =
+        new DataInputStream(bytes.slice(size - FOOTER_SIZE, FOOTER_SIZE).openStream())) {
+      indexOffset = footer.readLong();
+      lastSequenceNumber = footer.readLong();
+      indexEntryCount = footer.readInt();
+      if (footer.readInt() != FOOTER_MAGIC) {
+        throw new IOException("binary message store has an invalid footer");
+      }
+    }
+    if (indexOffset < 0
+        || indexEntryCount < 0
+        || indexOffset + (long) indexEntryCount * INDEX_ENTRY_SIZE != size - FOOTER_SIZE) {
+      throw new IOException("binary message store has an invalid index");
+    }
+    indexSequenceNumbers = new long[indexEntryCount];
+    indexOffsets = new long[indexEntryCount];
+    try (DataInputStream index =
+        new DataInputStream(
+            bytes
+                .slice(indexOffset, (long) indexEntryCount * INDEX_ENTRY_SIZE)
+                .openBufferedStream())) {
+      for (int i = 0; i < indexEntryCount; ++i) {
+        indexSequenceNumbers[i] = index.readLong();
+        indexOffsets[i] = index.readLong();
+      }
+    }
+  }
+
+  /**
+   * Creates a {@link BinaryMessageSource} for reading {@link FissClaimChange}s.
+   *
+   * @param bytes the store
+   * @return the source
+   * @throws IOException if the store could not be read or is not a valid store
+   */
+  public static BinaryMessageSource<FissClaimChange> fissSource(ByteSource bytes)
+      throws IOException {
+    return new BinaryMessageSource<>(bytes, FissClaimChange.parser(), FissClaimChange::getSeq);
+  }
+
+  /**
+   * Creates a {@link BinaryMessageSource} for reading {@link McsClaimChange}s.
+   *
+   * @param bytes the store
+   * @return the source
+   * @throws IOException if the store could not be read or is not a valid store
+   */
+  public static BinaryMessageSource<McsClaimChange> mcsSource(ByteSource bytes) throws IOException {
+    return new BinaryMessageSource<>(bytes, McsClaimChange.parser(), McsClaimChange::getSeq);
+  }
+
+  /**
+   * Uses the index to find the last indexed message whose sequence number is not greater than the
+   * desired one and starts reading from there. Any messages between that one and the desired
+   * sequence number are then parsed and discarded. If messages have already been read this never
+   * moves backwards in the store.
+   *
+   * <p>{@inheritDoc}
+   */
+  @Override
+  public MessageSource<T> skipTo(long startingSequenceNumber) throws Exception {
+    if (stream == null) {
+      int entry = Arrays.binarySearch(indexSequenceNumbers, startingSequenceNumber);
+      if (entry < 0) {
+        // binarySearch returns (-(insertion point) - 1) when the value is not found
+        entry = -entry - 2;
+      }
+      openStream(entry >= 0 ? indexOffsets[entry] : 0);
+    }
+    while (hasNext() && sequenceNumberOf.applyAsLong(nextMessage) < startingSequenceNumber) {
+      next();
+    }
+    return this;
+  }
+
+  @Override
+  public boolean hasNext() throws Exception {
+    return advance();
+  }
+
+  @Override
+  public T next() throws Exception {
+    if (!advance()) {
+      throw new NoSuchElementException();
+    }
+    final var answer = nextMessage;
+    nextMessage = null;
+    return answer;
+  }
+
+  @Override
+  public ClaimSequenceNumberRange getSequenceNumberRange() {
+    final long lower = indexSequenceNumbers.length > 0 ? indexSequenceNumbers[0] : 0;
+    final long upper = indexSequenceNumbers.length > 0 ? lastSequenceNumber : 0;
+    return ClaimSequenceNumberRange.newBuilder().setLower(lower).setUpper(upper).build();
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (stream != null) {
+      stream.close();
+    }
+  }
+
+  /**
+   * Opens a stream that reads messages starting at the given byte offset and ending at the index.
+   *
+   * @param offset byte offset of the first message to read
+   * @throws IOException if the store could not be opened
+   */
+  private void openStream(long offset) throws IOException {
+    stream = bytes.slice(offset, indexOffset - offset).openBufferedStream();
+  }
+
+  /**
+   * Parse the next message if we don't already have one.
+   *
+   * @return true if there is a next message
+   * @throws IOException if the message could not be read or parsed
+   */
+  private boolean advance() throws IOException {
+    if (stream == null) {
+      openStream(0);
+    }
+    if (nextMessage == null) {
+      nextMessage = parser.parseDelimitedFrom(stream);
+    }
+    return nextMessage != null;
+  }
+}
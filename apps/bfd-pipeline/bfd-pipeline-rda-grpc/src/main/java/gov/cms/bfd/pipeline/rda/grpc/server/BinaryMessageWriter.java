@@ -0,0 +1,148 @@
+package gov.cms.bfd.pipeline.rda.grpc.server;
+
+import com.google.common.base.Preconditions;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import gov.cms.mpsm.rda.v1.FissClaimChange;
+import gov.cms.mpsm.rda.v1.McsClaimChange;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.ToLongFunction;
+import lombok.Getter;
+
+/**
+ * Writes messages to a binary message store that can be read using a {@link BinaryMessageSource}.
+ * See {@link BinaryMessageSource} for a description of the format. Messages must be written in
+ * increasing sequence number order. The index and footer are written when the writer is closed so a
+ * store is not readable until then.
+ *
+ * @param <T> the message type
+ */
+public class BinaryMessageWriter<T extends MessageLite> implements AutoCloseable {
+  /** Default number of messages between index entries. */
+  public static final int DEFAULT_INDEX_INTERVAL = 1_000;
+
+  /** Stream the store is written to. */
+  private final DataOutputStream out;
+
+  /** Used to get the sequence number of each message. */
+  private final ToLongFunction<T> sequenceNumberOf;
+
+  /** Number of messages between index entries. */
+  private final int indexInterval;
+
+  /**
+   * Index entries written so far. Each entry is a sequence number followed by a byte offset. Held
+   * in memory until the messages have all been written.
+   */
+  private final DataOutputStream index;
+
+  /** Buffer holding the bytes written to {@link #index}. */
+  private final ByteArrayOutputStream indexBytes;
+
+  /** Number of messages written so far. */
+  @Getter private long messageCount;
+
+  /**
+   * Number of bytes written so far. Tracked here since {@link DataOutputStream#size} overflows for
+   * stores larger than 2GB.
+   */
+  private long offset;
+
+  /** Number of index entries written so far. */
+  private int indexEntryCount;
+
+  /** Sequence number of the last message written. */
+  private long lastSequenceNumber;
+
+  /**
+   * Creates a writer that writes a new store to the given stream. The stream is closed when the
+   * writer is closed.
+   *
+   * @param out stream to write the store to
+   * @param sequenceNumberOf used to get the sequence number of each message
+   * @param indexInterval number of messages between index entries
+   */
+  public BinaryMessageWriter(
+      OutputStream out, ToLongFunction<T> sequenceNumberOf, int indexInterval) {
+    Preconditions.checkArgument(indexInterval >= 1, "indexInterval less than 1");
+    this.out = new DataOutputStream(new BufferedOutputStream(out));
+    this.sequenceNumberOf = sequenceNumberOf;
+    this.indexInterval = indexInterval;
+    indexBytes = new ByteArrayOutputStream();
+    index = new DataOutputStream(indexBytes);
+    lastSequenceNumber = Long.MIN_VALUE;
+  }
+
+  /**
+   * Creates a {@link BinaryMessageWriter} for writing {@link FissClaimChange}s.
+   *
+   * @param out stream to write the store to
+   * @param indexInterval number of messages between index entries
+   * @return the writer
+   */
+  public static BinaryMessageWriter<FissClaimChange> fissWriter(
+      OutputStream out, int indexInterval) {
+    return new BinaryMessageWriter<>(out, FissClaimChange::getSeq, indexInterval);
+  }
+
+  /**
+   * Creates a {@link BinaryMessageWriter} for writing {@link McsClaimChange}s.
+   *
+   * @param out stream to write the store to
+   * @param indexInterval number of messages between index entries
+   * @return the writer
+   */
+  public static BinaryMessageWriter<McsClaimChange> mcsWriter(OutputStream out, int indexInterval) {
+    return new BinaryMessageWriter<>(out, McsClaimChange::getSeq, indexInterval);
+  }
+
+  /**
+   * Appends a message to the store. Every {@link #indexInterval}th message (starting with the
+   * first) is added to the index.
+   *
+   * @param message the message to write
+   * @throws IOException if the message could not be written
+   * @throws IllegalArgumentException if the message is out of sequence number order
+   */
+  public void write(T message) throws IOException {
+    final long sequenceNumber = sequenceNumberOf.applyAsLong(message);
+    Preconditions.checkArgument(
+        sequenceNumber > lastSequenceNumber,
+        "message out of order: seq=%s previous=%s",
+        sequenceNumber,
+        lastSequenceNumber);
+    if (messageCount % indexInterval == 0) {
+      index.writeLong(sequenceNumber);
+      index.writeLong(offset);
+      indexEntryCount += 1;
+    }
+    final int size = message.getSerializedSize();
+    message.writeDelimitedTo(out);
+    offset += CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    lastSequenceNumber = sequenceNumber;
+    messageCount += 1;
+  }
+
+  /**
+   * Writes the index and footer and then closes the stream.
+   *
+   * @throws IOException if the index or footer could not be written
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      indexBytes.writeTo(out);
+      out.writeLong(offset);
+      out.writeLong(indexEntryCount > 0 ? lastSequenceNumber : 0);
+      out.writeInt(indexEntryCount);
+      out.writeInt(BinaryMessageSource.FOOTER_MAGIC);
+      out.flush();
+    } finally {
+      out.close();
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package gov.cms.bfd.pipeline.rda.grpc.server;
+
+import com.google.common.io.ByteSource;
+import gov.cms.mpsm.rda.v1.FissClaimChange;
+import gov.cms.mpsm.rda.v1.McsClaimChange;
+import jakarta.annotation.Nullable;
+import lombok.AllArgsConstructor;
+
+/**
+ * Implementation of {@link RdaMessageSourceFactory} that uses predefined value for version and
+ * reads claims from predefined {@link ByteSource}s containing binary message stores written by
+ * {@link BinaryMessageWriter}.
+ */
+@AllArgsConstructor
+public class RdaBinaryMessageSourceFactory implements RdaMessageSourceFactory {
+  /** The version returned by {@link RdaService#getVersion}. */
+  private final RdaService.Version version;
+
+  /** Binary store containing FISS claims. Null if no FISS claims are available. */
+  @Nullable private final ByteSource fissBytes;
+
+  /** Binary store containing MCS claims. Null if no MCS claims are available. */
+  @Nullable private final ByteSource mcsBytes;
+
+  @Override
+  public RdaService.Version getVersion() {
+    return version;
+  }
+
+  @Override
+  public MessageSource<FissClaimChange> createFissMessageSource(long startingSequenceNumber)
+      throws Exception {
+    if (fissBytes == null) {
+      return new EmptyMessageSource<>();
+    }
+    return BinaryMessageSource.fissSource(fissBytes).skipTo(startingSequenceNumber);
+  }
+
+  @Override
+  public MessageSource<McsClaimChange> createMcsMessageSource(long startingSequenceNumber)
+      throws Exception {
+    if (mcsBytes == null) {
+      return new EmptyMessageSource<>();
+    }
+    return BinaryMessageSource.mcsSource(mcsBytes).skipTo(startingSequenceNumber);
+  }
+
+  @Override
+  public void close() throws Exception {}
+}
@@ -4,6 +4,7 @@ import static gov.cms.bfd.pipeline.rda.grpc.server.RdaService.RDA_PROTO_VERSION;
 import static java.lang.String.format;
 
 import com.google.common.base.Strings;
+import com.google.common.io.ByteSource;
 import com.google.common.io.CharSource;
 import com.google.common.io.Files;
 import gov.cms.bfd.pipeline.sharedutils.s3.AwsS3ClientFactory;
@@ -74,6 +75,12 @@ public interface RdaMessageSourceFactory extends AutoCloseable {
     /** NDJSON mcs claim data for the RDI Server. */
     @Nullable private final CharSource mcsClaimJson;
 
+    /** Binary message store containing fiss claim data for the RDA Server. */
+    @Nullable private final ByteSource fissClaimBinary;
+
+    /** Binary message store containing mcs claim data for the RDA Server. */
+    @Nullable private final ByteSource mcsClaimBinary;
+
     /** Name of our S3 bucket. */
     @Nullable private final String s3Bucket;
 
@@ -96,7 +103,8 @@ public interface RdaMessageSourceFactory extends AutoCloseable {
     /**
      * Creates an instance based on which set of configuration values have been provided when
      * building this config. Possible instances are (in priority and based on which options were
-     * provided): {@link RdaJsonMessageSourceFactory} using provided NDJSON data, {@link
+     * provided): {@link RdaBinaryMessageSourceFactory} using provided binary message stores, {@link
+     * RdaJsonMessageSourceFactory} using provided NDJSON data, {@link
      * RdaS3JsonMessageSourceFactory} using an S3 bucket, or {@link RdaRandomMessageSourceFactory}
      * if no other options applied. Optionally (if {@link #throwExceptionAfterCount} is positive)
      * wraps factory in a {@link RdaExceptionMessageSourceFactory}.
@@ -106,7 +114,9 @@ public interface RdaMessageSourceFactory extends AutoCloseable {
      */
     public RdaMessageSourceFactory createMessageSourceFactory() throws Exception {
       RdaMessageSourceFactory factory;
-      if (fissClaimJson != null || mcsClaimJson != null) {
+      if (fissClaimBinary != null || mcsClaimBinary != null) {
+        factory = createBinaryMessageSourceFactory();
+      } else if (fissClaimJson != null || mcsClaimJson != null) {
         factory = createJsonMessageSourceFactory();
       } else if (s3Bucket != null) {
         factory = createS3MessageSourceFactory();
@@ -119,6 +129,20 @@ public interface RdaMessageSourceFactory extends AutoCloseable {
       return factory;
     }
 
+    /**
+     * Creates {@link RdaBinaryMessageSourceFactory} using provided binary message stores.
+     *
+     * @return the instance
+     */
+    private RdaMessageSourceFactory createBinaryMessageSourceFactory() {
+      final RdaService.Version version =
+          this.version != null ? this.version : RdaService.Version.builder().build();
+      log.info(
+          "serving claims using {} with data from files",
+          RdaBinaryMessageSourceFactory.class.getSimpleName());
+      return new RdaBinaryMessageSourceFactory(version, fissClaimBinary, mcsClaimBinary);
+    }
+
     /**
      * Creates {@link RdaJsonMessageSourceFactory} using provided NDJSON data sources.
      *
@@ -242,6 +266,34 @@ public interface RdaMessageSourceFactory extends AutoCloseable {
         }
         return this;
       }
+
+      /**
+       * Optionally add a binary message store {@link File} as a source of FISS claim data. The
+       * argument can be null so that this can be called when a file may or may not be available.
+       *
+       * @param binaryFile null or a valid {@link File} written by {@link BinaryMessageWriter}
+       * @return this builder
+       */
+      public ConfigBuilder fissClaimBinaryFile(@Nullable File binaryFile) {
+        if (binaryFile != null) {
+          fissClaimBinary(Files.asByteSource(binaryFile));
+        }
+        return this;
+      }
+
+      /**
+       * Optionally add a binary message store {@link File} as a source of MCS claim data. The
+       * argument can be null so that this can be called when a file may or may not be available.
+       *
+       * @param binaryFile null or a valid {@link File} written by {@link BinaryMessageWriter}
+       * @return this builder
+       */
+      public ConfigBuilder mcsClaimBinaryFile(@Nullable File binaryFile) {
+        if (binaryFile != null) {
+          mcsClaimBinary(Files.asByteSource(binaryFile));
+        }
+        return this;
+      }
     }
   }
 }
@@ -1,16 +1,21 @@
 package gov.cms.bfd.pipeline.rda.grpc.server;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteSource;
 import gov.cms.bfd.pipeline.sharedutils.s3.S3DirectoryDao;
 import gov.cms.mpsm.rda.v1.FissClaimChange;
 import gov.cms.mpsm.rda.v1.McsClaimChange;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Uses an {@link S3DirectoryDao} client and a bucket name to simplify creation of {@link
- * MessageSource}s that read FISS or MCS claims from the bucket.
+ * MessageSource}s that read FISS or MCS claims from the bucket. Claims are read from binary message
+ * stores (files with a {@code .pb} suffix) if the bucket contains any for the requested claim type.
+ * Otherwise claims are read from NDJSON files. The bucket is listed once each time a source is
+ * created and that listing is used both to choose the file type and to find the files to read.
  */
 @Slf4j
 public class RdaS3JsonMessageSourceFactory implements RdaMessageSourceFactory {
@@ -35,6 +40,12 @@ public class RdaS3JsonMessageSourceFactory implements RdaMessageSourceFactory {
   /** Source of records for {@link RdaService#getMcsClaims}. */
   private final S3BucketMessageSourceFactory<McsClaimChange> mcsFactory;
 
+  /** Source of records for {@link RdaService#getFissClaims} from binary message stores. */
+  private final S3BucketMessageSourceFactory<FissClaimChange> fissBinaryFactory;
+
+  /** Source of records for {@link RdaService#getMcsClaims} from binary message stores. */
+  private final S3BucketMessageSourceFactory<McsClaimChange> mcsBinaryFactory;
+
   /**
    * Initialize an instance using the provided version and {@link S3DirectoryDao}.
    *
@@ -50,6 +61,18 @@ public class RdaS3JsonMessageSourceFactory implements RdaMessageSourceFactory {
     mcsFactory =
         new S3BucketMessageSourceFactory<>(
             s3Dao, MCS_PREFIX, FILE_SUFFIX, this::readMcsClaimChanges);
+    fissBinaryFactory =
+        new S3BucketMessageSourceFactory<>(
+            s3Dao,
+            FISS_PREFIX,
+            BinaryMessageSource.FILE_SUFFIX,
+            key -> createBinaryMessageSource(key, BinaryMessageSource::fissSource));
+    mcsBinaryFactory =
+        new S3BucketMessageSourceFactory<>(
+            s3Dao,
+            MCS_PREFIX,
+            BinaryMessageSource.FILE_SUFFIX,
+            key -> createBinaryMessageSource(key, BinaryMessageSource::mcsSource));
   }
 
   @Override
@@ -60,13 +83,21 @@ public class RdaS3JsonMessageSourceFactory implements RdaMessageSourceFactory {
   @Override
   public MessageSource<FissClaimChange> createFissMessageSource(long startingSequenceNumber)
       throws Exception {
-    return fissFactory.createMessageSource(startingSequenceNumber);
+    final List<String> fileNames = s3Dao.readFileNames();
+    if (fissBinaryFactory.hasMatchingFiles(fileNames)) {
+      return fissBinaryFactory.createMessageSource(fileNames, startingSequenceNumber);
+    }
+    return fissFactory.createMessageSource(fileNames, startingSequenceNumber);
   }
 
   @Override
   public MessageSource<McsClaimChange> createMcsMessageSource(long startingSequenceNumber)
       throws Exception {
-    return mcsFactory.createMessageSource(startingSequenceNumber);
+    final List<String> fileNames = s3Dao.readFileNames();
+    if (mcsBinaryFactory.hasMatchingFiles(fileNames)) {
+      return mcsBinaryFactory.createMessageSource(fileNames, startingSequenceNumber);
+    }
+    return mcsFactory.createMessageSource(fileNames, startingSequenceNumber);
   }
 
   /**
@@ -144,4 +175,44 @@ public class RdaS3JsonMessageSourceFactory implements RdaMessageSourceFactory {
           ex);
     }
   }
+
+  /**
+   * Creates a binary message source from the object with the specified key.
+   *
+   * @param <T> the type parameter
+   * @param objectKey the key of the object to read
+   * @param sourceFactory creates the message source from the downloaded object
+   * @return a message source that reads the object
+   */
+  private <T> MessageSource<T> createBinaryMessageSource(
+      String objectKey, BinarySourceFactory<T> sourceFactory) {
+    log.info(
+        "creating BinaryMessageSource from S3: bucket={} key={}",
+        s3Dao.getS3BucketName(),
+        objectKey);
+    try {
+      return sourceFactory.create(s3Dao.downloadFile(objectKey));
+    } catch (IOException ex) {
+      throw new RuntimeException(
+          String.format("error while downloading file from S3 bucket: key=%s", objectKey), ex);
+    }
+  }
+
+  /**
+   * Creates a {@link BinaryMessageSource} from a {@link ByteSource}. Needed because the factory
+   * methods can throw {@link IOException}.
+   *
+   * @param <T> the type parameter
+   */
+  @FunctionalInterface
+  private interface BinarySourceFactory<T> {
+    /**
+     * Creates the message source.
+     *
+     * @param bytes the binary message store
+     * @return the message source
+     * @throws IOException if the store could not be read
+     */
+    MessageSource<T> create(ByteSource bytes) throws IOException;
+  }
 }
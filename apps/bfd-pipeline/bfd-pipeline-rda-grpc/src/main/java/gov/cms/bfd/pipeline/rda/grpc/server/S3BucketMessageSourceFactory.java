@@ -86,10 +86,36 @@ public class S3BucketMessageSourceFactory<T> {
    * @throws Exception if the source could not be created
    */
   public MessageSource<T> createMessageSource(long sequenceNumber) throws Exception {
-    List<FileEntry> entries = listFiles(sequenceNumber);
+    return createMessageSource(s3Dao.readFileNames(), sequenceNumber);
+  }
+
+  /**
+   * Creates a {@link MessageSource} that produces messages with sequence number greater than or
+   * equal to the provided one using a listing of the bucket obtained earlier by the caller.
+   *
+   * @param fileNames file names returned by {@link S3DirectoryDao#readFileNames}
+   * @param sequenceNumber minimum sequence number desired by the caller
+   * @return a MessageSource pulling records from the bucket
+   * @throws Exception if the source could not be created
+   */
+  public MessageSource<T> createMessageSource(List<String> fileNames, long sequenceNumber)
+      throws Exception {
+    List<FileEntry> entries = listFiles(fileNames, sequenceNumber);
     return new MultiS3MessageSource(entries).skipTo(sequenceNumber);
   }
 
+  /**
+   * Determines whether a listing of the bucket contains any objects whose key matches our regular
+   * expression. Takes the listing from the caller so that one listing can be shared by several
+   * factories.
+   *
+   * @param fileNames file names returned by {@link S3DirectoryDao#readFileNames}
+   * @return true if at least one object matches
+   */
+  public boolean hasMatchingFiles(List<String> fileNames) {
+    return !listFiles(fileNames, RdaChange.MIN_SEQUENCE_NUM).isEmpty();
+  }
+
   /**
    * Searches the S3 bucket for objects whose key matches our regular expression. Only files whose
    * maximum sequence number is greater than or equal to our starting sequence number are retained.
@@ -101,8 +127,21 @@ public class S3BucketMessageSourceFactory<T> {
    */
   @VisibleForTesting
   List<FileEntry> listFiles(long startingSequenceNumber) {
+    return listFiles(s3Dao.readFileNames(), startingSequenceNumber);
+  }
+
+  /**
+   * Searches a listing of the S3 bucket for objects whose key matches our regular expression. Only
+   * files whose maximum sequence number is greater than or equal to our starting sequence number
+   * are retained. The resulting list of entries is sorted by sequence number order.
+   *
+   * @param fileNames file names returned by {@link S3DirectoryDao#readFileNames}
+   * @param startingSequenceNumber smallest sequence number that the caller is interested in
+   *     processing
+   * @return a list of matching {@link FileEntry}s sorted by sequence number
+   */
+  private List<FileEntry> listFiles(List<String> fileNames, long startingSequenceNumber) {
     List<FileEntry> entries = new ArrayList<>();
-    List<String> fileNames = s3Dao.readFileNames();
     for (String fileName : fileNames) {
       Matcher matcher = matchPattern.matcher(fileName);
       if (matcher.matches()) {
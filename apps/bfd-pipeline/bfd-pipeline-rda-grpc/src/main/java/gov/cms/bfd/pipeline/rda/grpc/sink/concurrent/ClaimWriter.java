@@ -1,9 +1,7 @@
 package gov.cms.bfd.pipeline.rda.grpc.sink.concurrent;
 
 import com.google.common.annotations.VisibleForTesting;
-import gov.cms.bfd.pipeline.rda.grpc.ProcessingException;
 import gov.cms.bfd.pipeline.rda.grpc.RdaSink;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -15,8 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
 /**
- * Object used to accept incoming messages, transform them into claims, accumulate them into full
- * batches, and write them to the database.
+ * Object used to accept incoming messages, transform them into claims (unless they arrive already
+ * transformed), accumulate them into full batches, and write them to the database.
  *
  * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
  * @param <TClaim> type of hibernate entity class corresponding to a claim
@@ -78,14 +76,39 @@ class ClaimWriter<TMessage, TClaim> {
    * @return {@link Mono} containing the result if batch written or nothing if nothing was written
    */
   synchronized Mono<BatchResult<TMessage>> processMessage(ApiMessage<TMessage> message) {
+    return processTransformedMessage(TransformedMessage.transform(sink, message));
+  }
+
+  /**
+   * Process a message that has already been transformed into a claim. Control messages trigger the
+   * appropriate action. Claims are buffered until either {@link #batchSize} claims have been
+   * accumulated or a control message causes an incomplete batch to be written. A message whose
+   * transformation threw an exception produces a failed {@link BatchResult}. A transformation error
+   * that the transforming sink could not record is recorded using our sink and the message is then
+   * processed like any other message that produced no claim.
+   *
+   * @param transformed the {@link TransformedMessage} to process
+   * @return {@link Mono} containing the result if batch written or nothing if nothing was written
+   */
+  synchronized Mono<BatchResult<TMessage>> processTransformedMessage(
+      TransformedMessage<TMessage, TClaim> transformed) {
+    if (transformed.getError() != null) {
+      return Mono.just(
+          new BatchResult<>(List.of(transformed.getMessage()), transformed.getError()));
+    }
     Mono<BatchResult<TMessage>> result = Mono.empty();
     try {
-      var writeNeeded = ingestApiMessage(message);
+      if (transformed.getUnrecordedError() != null) {
+        final ApiMessage<TMessage> message = transformed.getMessage();
+        sink.writeError(
+            message.getApiVersion(), message.getMessage(), transformed.getUnrecordedError());
+      }
+      var writeNeeded = ingestTransformedMessage(transformed);
       if (writeNeeded) {
         result = writeBatchToSink();
       }
     } catch (Exception ex) {
-      result = Mono.just(new BatchResult<>(List.of(message), ex));
+      result = Mono.just(new BatchResult<>(List.of(transformed.getMessage()), ex));
     }
     return result;
   }
@@ -123,9 +146,9 @@ class ClaimWriter<TMessage, TClaim> {
   }
 
   /**
-   * Ingest the incoming {@link ApiMessage} and update our state. Returns true if the message
-   * completes a batch or requires flushing an incomplete batch to the database. Otherwise returns
-   * false.
+   * Ingest the incoming {@link TransformedMessage} and update our state. Returns true if the
+   * message completes a batch or requires flushing an incomplete batch to the database. Otherwise
+   * returns false.
    *
    * <p>Write will be required if the message:
    *
@@ -135,13 +158,11 @@ class ClaimWriter<TMessage, TClaim> {
    *   <li>is a flush control message
    * </ul>
    *
-   * @param message {@link ApiMessage} to ingest
+   * @param transformed {@link TransformedMessage} to ingest
    * @return true if a batch needs to be written
-   * @throws IOException pass through if thrown by sink
-   * @throws ProcessingException pass through if thrown by sink
    */
-  private boolean ingestApiMessage(ApiMessage<TMessage> message)
-      throws IOException, ProcessingException {
+  private boolean ingestTransformedMessage(TransformedMessage<TMessage, TClaim> transformed) {
+    final ApiMessage<TMessage> message = transformed.getMessage();
     boolean writeNeeded;
     if (message.isIdleMessage()) {
       writeNeeded = idle && claimBuffer.size() > 0;
@@ -150,11 +171,9 @@ class ClaimWriter<TMessage, TClaim> {
       writeNeeded = claimBuffer.size() > 0;
       idle = false;
     } else {
-      final var claim =
-          sink.transformMessage(message.getApiVersion(), message.getMessage()).orElse(null);
       messageBuffer.add(message);
-      if (claim != null) {
-        claimBuffer.put(message.getClaimId(), claim);
+      if (transformed.getClaim() != null) {
+        claimBuffer.put(message.getClaimId(), transformed.getClaim());
       }
       writeNeeded = claimBuffer.size() >= batchSize;
       idle = false;
@@ -13,6 +13,8 @@ import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -26,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 import reactor.core.Disposable;
 import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
@@ -52,12 +55,14 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
   private static final Duration SequenceNumberUpdateInterval = Duration.ofMillis(100);
 
   /** Message used to tell a claim writer to flush its buffer immediately. */
-  private final ApiMessage<TMessage> FlushMessage = ApiMessage.createFlushMessage();
+  private final TransformedMessage<TMessage, TClaim> FlushMessage =
+      TransformedMessage.control(ApiMessage.createFlushMessage());
 
   /**
    * Message used to allow a claim writer to flush its buffer when it has been idle for too long.
    */
-  private final ApiMessage<TMessage> IdleMessage = ApiMessage.createIdleMessage();
+  private final TransformedMessage<TMessage, TClaim> IdleMessage =
+      TransformedMessage.control(ApiMessage.createIdleMessage());
 
   /** Used to track sequence numbers to update progress table in database. */
   private final SequenceNumberTracker sequenceNumbers;
@@ -106,6 +111,22 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
    */
   private final List<ClaimWriter<TMessage, TClaim>> claimWriters;
 
+  /** Number of messages that can be transformed into claims at the same time. */
+  private final int transformThreads;
+
+  /**
+   * Single-threaded sinks used to transform messages into claims. A sink is taken from the queue
+   * for each transformation and returned when it completes so that no sink is ever used by two
+   * threads at once. Holds one sink per transform thread so a sink is always available.
+   */
+  private final BlockingQueue<RdaSink<TMessage, TClaim>> transformSinks;
+
+  /**
+   * True if the {@link #transformSinks} are transform-only sinks without database access. Their
+   * transformation errors are recorded by the {@link ClaimWriter}s instead.
+   */
+  private final boolean transformOnlySinks;
+
   /**
    * Used to periodically update the progress table with the our highest known to be complete
    * sequence number. Refer to {@link SequenceNumberTracker} for details on sequence number
@@ -121,6 +142,14 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
    */
   private final Scheduler claimWriterScheduler;
 
+  /**
+   * {@link Scheduler} used to transform messages into claims before they are passed to the {@link
+   * ClaimWriter}s. Kept separate from {@link #claimWriterScheduler} so that CPU bound
+   * transformation can be scaled independently of the number of database connections. Schedulers
+   * are {@link Closeable} so this is closed in {@link #close}.
+   */
+  private final Scheduler transformScheduler;
+
   /**
    * {@link Scheduler} used to run {@link SequenceNumberWriter#updateSequenceNumberInDatabase}
    * calls. Using a custom scheduler to ensure thread pool size matches our configuration and also
@@ -131,7 +160,8 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
 
   /**
    * Constructs a ConcurrentRdaSink with the specified configuration. Actual writes are delegated to
-   * single-threaded sink objects produced using the provided factory method.
+   * single-threaded sink objects produced using the provided factory method. Uses the same number
+   * of threads to transform messages as to write claims.
    *
    * @param maxThreads number of writer threads used to write claims
    * @param batchSize number of messages per batch for database writes
@@ -139,12 +169,80 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
    */
   public ConcurrentRdaSink(
       int maxThreads, int batchSize, Supplier<RdaSink<TMessage, TClaim>> sinkFactory) {
+    this(maxThreads, maxThreads, batchSize, sinkFactory);
+  }
+
+  /**
+   * Constructs a ConcurrentRdaSink with the specified configuration. Messages are transformed into
+   * claims by one pool of threads and written by another. Actual transformations and writes are
+   * delegated to single-threaded sink objects produced using the provided factory method.
+   *
+   * @param maxThreads number of writer threads used to write claims
+   * @param transformThreads number of threads used to transform messages into claims
+   * @param batchSize number of messages per batch for database writes
+   * @param sinkFactory factory method to produce appropriate single threaded sinks
+   */
+  public ConcurrentRdaSink(
+      int maxThreads,
+      int transformThreads,
+      int batchSize,
+      Supplier<RdaSink<TMessage, TClaim>> sinkFactory) {
+    this(maxThreads, transformThreads, batchSize, sinkFactory, sinkFactory, false);
+  }
+
+  /**
+   * Constructs a ConcurrentRdaSink with the specified configuration. Messages are transformed into
+   * claims by one pool of threads and written by another. Transformations are delegated to
+   * transform-only sinks, which have no database access and so throw a {@link
+   * DataTransformer.TransformationException} for an invalid message rather than record it. Such
+   * errors are recorded by the sink of the {@link ClaimWriter} that receives the message. Writes
+   * are delegated to single-threaded sink objects produced using {@code sinkFactory}.
+   *
+   * @param maxThreads number of writer threads used to write claims
+   * @param transformThreads number of threads used to transform messages into claims
+   * @param batchSize number of messages per batch for database writes
+   * @param sinkFactory factory method to produce appropriate single threaded sinks
+   * @param transformSinkFactory factory method to produce transform-only sinks
+   */
+  public ConcurrentRdaSink(
+      int maxThreads,
+      int transformThreads,
+      int batchSize,
+      Supplier<RdaSink<TMessage, TClaim>> sinkFactory,
+      Supplier<RdaSink<TMessage, TClaim>> transformSinkFactory) {
+    this(maxThreads, transformThreads, batchSize, sinkFactory, transformSinkFactory, true);
+  }
+
+  /**
+   * Constructs a ConcurrentRdaSink with the specified configuration. Used by the public
+   * constructors.
+   *
+   * @param maxThreads number of writer threads used to write claims
+   * @param transformThreads number of threads used to transform messages into claims
+   * @param batchSize number of messages per batch for database writes
+   * @param sinkFactory factory method to produce appropriate single threaded sinks
+   * @param transformSinkFactory factory method to produce the sinks used to transform messages
+   * @param transformOnlySinks true if {@code transformSinkFactory} produces transform-only sinks
+   */
+  private ConcurrentRdaSink(
+      int maxThreads,
+      int transformThreads,
+      int batchSize,
+      Supplier<RdaSink<TMessage, TClaim>> sinkFactory,
+      Supplier<RdaSink<TMessage, TClaim>> transformSinkFactory,
+      boolean transformOnlySinks) {
     sequenceNumbers = new SequenceNumberTracker(0);
     sink = sinkFactory.get();
     claimWriters =
         IntStream.rangeClosed(1, maxThreads)
             .mapToObj(writerId -> new ClaimWriter<>(writerId, sinkFactory.get(), batchSize))
             .collect(Collectors.toUnmodifiableList());
+    this.transformThreads = transformThreads;
+    transformSinks = new ArrayBlockingQueue<>(transformThreads);
+    for (int i = 0; i < transformThreads; ++i) {
+      transformSinks.add(transformSinkFactory.get());
+    }
+    this.transformOnlySinks = transformOnlySinks;
     sequenceNumberWriter = new SequenceNumberWriter<>(sinkFactory.get(), sequenceNumbers);
     running = new AtomicBoolean(true);
     unreportedProcessedCount = new AtomicInteger(0);
@@ -157,6 +255,11 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
     sequenceNumberWriterScheduler =
         Schedulers.newBoundedElastic(
             1, 1, sink.getClass().getSimpleName() + "-SequenceNumberWriter");
+    transformScheduler =
+        Schedulers.newBoundedElastic(
+            transformThreads,
+            4 * transformThreads,
+            sink.getClass().getSimpleName() + "-Transformer");
     publisher = new BlockingPublisher<>(4 * maxThreads * batchSize);
     var claimProcessing =
         createClaimWriterFlux()
@@ -189,17 +292,56 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
     if (maxThreads == 1) {
       return sinkFactory.apply(true);
     } else {
-      return new ConcurrentRdaSink<>(maxThreads, batchSize, () -> sinkFactory.apply(false));
+      return new ConcurrentRdaSink<>(
+          maxThreads, maxThreads, batchSize, () -> sinkFactory.apply(false));
+    }
+  }
+
+  /**
+   * Create an RdaSink using the specified number of threads. Works the same as {@link
+   * #createSink(int, int, Function)} except that a ConcurrentRdaSink transforms messages using
+   * {@code transformThreads} transform-only sinks produced by {@code transformSinkFactory} rather
+   * than one sink per writer. A single-threaded sink is only created if both {@code maxThreads} and
+   * {@code transformThreads} are one.
+   *
+   * @param maxThreads number of writer threads used to write claims
+   * @param transformThreads number of threads used to transform messages into claims
+   * @param batchSize number of messages per batch for database writes
+   * @param sinkFactory factory method to produce appropriate single threaded sinks
+   * @param transformSinkFactory factory method to produce transform-only sinks
+   * @param <TMessage> RDA API message class
+   * @param <TClaim> JPA entity class
+   * @return either a simple sink or a ConcurrentRdaSink
+   */
+  public static <TMessage, TClaim> RdaSink<TMessage, TClaim> createSink(
+      int maxThreads,
+      int transformThreads,
+      int batchSize,
+      Function<Boolean, RdaSink<TMessage, TClaim>> sinkFactory,
+      Supplier<RdaSink<TMessage, TClaim>> transformSinkFactory) {
+    if (maxThreads == 1 && transformThreads == 1) {
+      return sinkFactory.apply(true);
+    } else {
+      return new ConcurrentRdaSink<>(
+          maxThreads,
+          transformThreads,
+          batchSize,
+          () -> sinkFactory.apply(false),
+          transformSinkFactory);
     }
   }
 
   /**
-   * Creates a {@link Flux} that uses a pool of {@link ClaimWriter} objects to transform, batch, and
-   * write claims to the database. An idle timer is used to periodically flush any incomplete
-   * batches during extended idle time. Such idle time can happen with RDA API calls when we are
-   * storing claims faster than the API can send them to us.
+   * Creates a {@link Flux} that transforms messages into claims and uses a pool of {@link
+   * ClaimWriter} objects to batch and write those claims to the database. An idle timer is used to
+   * periodically flush any incomplete batches during extended idle time. Such idle time can happen
+   * with RDA API calls when we are storing claims faster than the API can send them to us.
    *
-   * <p>The database updates take place using a worker from the {@link #claimWriterScheduler}.
+   * <p>Transformations run concurrently using workers from the {@link #transformScheduler} but
+   * their results are passed on in the order the messages were received. Since every claim id is
+   * always assigned to the same writer this ensures that each writer sees the changes to a claim in
+   * their original order. The database updates take place using a worker from the {@link
+   * #claimWriterScheduler}.
    *
    * @return {@link Flux} that emits a {@link BatchResult} each time a batch is processed
    */
@@ -224,8 +366,13 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
         .flux()
         // Ensures main thread is never tied down doing any processing.
         .publishOn(Schedulers.boundedElastic())
+        // Transforms up to transformThreads messages at once and emits the results in their
+        // original order.
+        .flatMapSequential(
+            message -> Mono.fromCallable(() -> transform(message)).subscribeOn(transformScheduler),
+            transformThreads)
         // Assigns the message to its claim writer based on claim id.
-        .groupBy(message -> claimPartitioner.partitionFor(message.getClaimId()))
+        .groupBy(message -> claimPartitioner.partitionFor(message.getMessage().getClaimId()))
         // Processes claims in each writer's flux using a separate thread for each.
         .flatMap(
             claimWriterFlux ->
@@ -238,12 +385,29 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
                     .publishOn(claimWriterScheduler)
                     // Makes the call and passes its result down stream.  The key is our
                     // ClaimWriter object.
-                    .concatMap(message -> claimWriterFlux.key().processMessage(message)))
+                    .concatMap(message -> claimWriterFlux.key().processTransformedMessage(message)))
         // Ensures downstream processing happens on some other thread so writer is free to keep
         // working on incoming messages.
         .publishOn(Schedulers.boundedElastic());
   }
 
+  /**
+   * Transforms a message using one of the {@link #transformSinks}.
+   *
+   * @param message the message to transform
+   * @return the outcome of the transformation
+   * @throws InterruptedException if interrupted while waiting for a sink
+   */
+  private TransformedMessage<TMessage, TClaim> transform(ApiMessage<TMessage> message)
+      throws InterruptedException {
+    final RdaSink<TMessage, TClaim> transformSink = transformSinks.take();
+    try {
+      return TransformedMessage.transform(transformSink, message, transformOnlySinks);
+    } finally {
+      transformSinks.add(transformSink);
+    }
+  }
+
   /**
    * Creates a {@link Flux} that periodically calls {@link
    * SequenceNumberWriter#updateSequenceNumberInDatabase} to ensure that the progress table has the
@@ -378,12 +542,16 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
           log.info("shutdown close claimWriter {}", claimWriter.getId());
           closer.close(claimWriter::close);
         }
+        for (RdaSink<TMessage, TClaim> transformSink : transformSinks) {
+          closer.close(transformSink::close);
+        }
         log.info("shutdown close sequenceWriter");
         closer.close(sequenceNumberWriter::close);
         log.info("shutdown close sink");
         closer.close(sink::close);
         log.info("shutdown close schedulers");
         closer.close(claimWriterScheduler::dispose);
+        closer.close(transformScheduler::dispose);
         closer.close(sequenceNumberWriterScheduler::dispose);
         log.info("shutdown check for errors");
         closer.close(this::throwIfErrorPresent);
@@ -0,0 +1,111 @@
+package gov.cms.bfd.pipeline.rda.grpc.sink.concurrent;
+
+import gov.cms.bfd.pipeline.rda.grpc.RdaSink;
+import gov.cms.model.dsl.codegen.library.DataTransformer;
+import jakarta.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Pairs an {@link ApiMessage} with the outcome of transforming it into a claim. Produced by the
+ * transformation stage of {@link ConcurrentRdaSink} and consumed by a {@link ClaimWriter}.
+ *
+ * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+ * @param <TClaim> type of hibernate entity class corresponding to a claim
+ */
+@Data
+@AllArgsConstructor
+class TransformedMessage<TMessage, TClaim> {
+  /** The message that was transformed. */
+  private final ApiMessage<TMessage> message;
+
+  /**
+   * The claim produced from the message. Null for control messages, messages whose transformation
+   * failed, and messages the sink chose not to transform.
+   */
+  @Nullable private final TClaim claim;
+
+  /** Exception thrown while transforming the message, if any. */
+  @Nullable private final Exception error;
+
+  /**
+   * Transformation error that the transforming sink could not record itself, if any. The {@link
+   * ClaimWriter} records it using {@link RdaSink#writeError} and otherwise treats the message as
+   * one that produced no claim.
+   */
+  @Nullable private final DataTransformer.TransformationException unrecordedError;
+
+  /**
+   * Creates an instance with no unrecorded transformation error.
+   *
+   * @param message the message that was transformed
+   * @param claim the claim produced from the message, if any
+   * @param error exception thrown while transforming the message, if any
+   */
+  TransformedMessage(
+      ApiMessage<TMessage> message, @Nullable TClaim claim, @Nullable Exception error) {
+    this(message, claim, error, null);
+  }
+
+  /**
+   * Wraps a control message. Control messages carry no claim and are never transformed.
+   *
+   * @param message the control message
+   * @return the wrapped message
+   * @param <TMessage> underlying API message type
+   * @param <TClaim> claim type
+   */
+  static <TMessage, TClaim> TransformedMessage<TMessage, TClaim> control(
+      ApiMessage<TMessage> message) {
+    return new TransformedMessage<>(message, null, null);
+  }
+
+  /**
+   * Uses the {@link RdaSink} to transform the message into a claim. Any exception thrown by the
+   * transformation is captured rather than thrown so that it can be reported along with the message
+   * once the message reaches its {@link ClaimWriter}. Control messages are passed through
+   * unchanged.
+   *
+   * @param sink used to transform the message
+   * @param message the message to transform
+   * @return the outcome of the transformation
+   * @param <TMessage> underlying API message type
+   * @param <TClaim> claim type
+   */
+  static <TMessage, TClaim> TransformedMessage<TMessage, TClaim> transform(
+      RdaSink<TMessage, TClaim> sink, ApiMessage<TMessage> message) {
+    return transform(sink, message, false);
+  }
+
+  /**
+   * Works the same as {@link #transform(RdaSink, ApiMessage)} except that when {@code
+   * transformOnly} is true the sink is expected to throw a {@link
+   * DataTransformer.TransformationException} for an invalid message rather than recording it
+   * itself. Such an exception is kept as the {@link #unrecordedError} instead of failing the
+   * message.
+   *
+   * @param sink used to transform the message
+   * @param message the message to transform
+   * @param transformOnly true if the sink has no database access to record transformation errors
+   * @return the outcome of the transformation
+   * @param <TMessage> underlying API message type
+   * @param <TClaim> claim type
+   */
+  static <TMessage, TClaim> TransformedMessage<TMessage, TClaim> transform(
+      RdaSink<TMessage, TClaim> sink, ApiMessage<TMessage> message, boolean transformOnly) {
+    if (message.getMessage() == null) {
+      return control(message);
+    }
+    try {
+      final var claim =
+          sink.transformMessage(message.getApiVersion(), message.getMessage()).orElse(null);
+      return new TransformedMessage<>(message, claim, null);
+    } catch (DataTransformer.TransformationException ex) {
+      return transformOnly
+          ? new TransformedMessage<>(message, null, null, ex)
+          : new TransformedMessage<>(message, null, ex);
+    } catch (Exception ex) {
+      return new TransformedMessage<>(message, null, ex);
+    }
+  }
+}
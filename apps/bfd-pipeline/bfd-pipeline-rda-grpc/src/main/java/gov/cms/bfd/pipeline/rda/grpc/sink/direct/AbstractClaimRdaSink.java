@@ -2,6 +2,7 @@ package gov.cms.bfd.pipeline.rda.grpc.sink.direct;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.google.protobuf.util.JsonFormat;
 import gov.cms.bfd.model.rda.MessageError;
 import gov.cms.bfd.model.rda.RdaApiProgress;
@@ -20,6 +21,7 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import java.io.IOException;
 import java.time.Clock;
@@ -47,8 +49,11 @@ import org.slf4j.LoggerFactory;
  */
 abstract class AbstractClaimRdaSink<TMessage, TClaim>
     implements RdaSink<TMessage, RdaChange<TClaim>> {
-  /** The {@link TransactionManager} used to execute transactions. */
-  protected final TransactionManager transactionManager;
+  /**
+   * The {@link TransactionManager} used to execute transactions. Null for a transform-only sink,
+   * which never touches the database.
+   */
+  @Nullable protected final TransactionManager transactionManager;
 
   /** The metric reporter. */
   protected final Metrics metrics;
@@ -101,11 +106,43 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
     this.errorLimit = errorLimit;
   }
 
+  /**
+   * Constructs a transform-only instance using the provided appState and claimType. A
+   * transform-only sink has no {@link TransactionManager} so it never opens a database connection
+   * and can only be used to transform messages. Rather than writing a {@link MessageError} when a
+   * message fails transformation it throws the {@link DataTransformer.TransformationException} so
+   * that a sink with database access can record it using {@link #writeError}.
+   *
+   * @param appState provides metrics configuration
+   * @param claimType the claim type for this sink
+   */
+  protected AbstractClaimRdaSink(
+      PipelineApplicationState appState, RdaApiProgress.ClaimType claimType) {
+    transactionManager = null;
+    metrics = new Metrics(getClass(), appState.getMeters());
+    clock = appState.getClock();
+    logger = LoggerFactory.getLogger(getClass());
+    this.claimType = claimType;
+    autoUpdateLastSeq = false;
+    errorLimit = 0;
+  }
+
   /** {@inheritDoc} */
   @Override
   public void close() {
     resetLatencyMetrics();
-    transactionManager.close();
+    if (transactionManager != null) {
+      transactionManager.close();
+    }
+  }
+
+  /**
+   * Determines if this is a transform-only sink with no database access.
+   *
+   * @return true if this sink has no {@link TransactionManager}
+   */
+  public boolean isTransformOnly() {
+    return transactionManager == null;
   }
 
   /**
@@ -117,6 +154,7 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
   @Override
   public Optional<Long> readMaxExistingSequenceNumber() throws ProcessingException {
     try {
+      checkDatabaseAccess();
       return transactionManager.executeFunction(
           entityManager -> {
             logger.info("running query to find max sequence number");
@@ -145,6 +183,7 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
    */
   @Override
   public void updateLastSequenceNumber(long lastSequenceNumber) {
+    checkDatabaseAccess();
     transactionManager.executeProcedure(
         entityManager -> updateLastSequenceNumberImpl(entityManager, lastSequenceNumber));
   }
@@ -162,6 +201,7 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
   public void writeError(
       String apiVersion, TMessage message, DataTransformer.TransformationException exception)
       throws IOException, ProcessingException {
+    checkDatabaseAccess();
     transactionManager.executeProcedure(
         entityManager ->
             entityManager.merge(createMessageError(apiVersion, message, exception.getErrors())));
@@ -175,6 +215,7 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
    */
   @Override
   public void checkErrorCount() throws ProcessingException {
+    checkDatabaseAccess();
     final long errorCount =
         transactionManager.executeFunction(
             entityManager -> {
@@ -221,6 +262,9 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
     final long maxSeq = maxSequenceInBatch(claims);
     try {
       metrics.calls.increment();
+      for (RdaChange<TClaim> change : claims) {
+        resolveMbiRecord(change.getClaim());
+      }
       updateLatencyMetrics(claims);
       mergeBatch(maxSeq, claims);
       metrics.objectsMerged.increment(claims.size());
@@ -264,6 +308,17 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
   @Override
   public void shutdown(Duration waitTime) throws ProcessingException {}
 
+  /**
+   * Verifies that this sink has a {@link #transactionManager} before an operation that needs
+   * database access.
+   *
+   * @throws IllegalStateException if this is a transform-only sink
+   */
+  private void checkDatabaseAccess() {
+    Preconditions.checkState(
+        transactionManager != null, "transform-only sink has no database access");
+  }
+
   /**
    * Gets the {@link #metrics}.
    *
@@ -346,12 +401,15 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
    *
    * <p>Delegates the actual transformation to derived classes by calling their {@link
    * #transformMessageImpl} method. Takes care of tracking transformations and errors in {@link
-   * #metrics}.
+   * #metrics}. A transform-only sink passes transformation errors through to the caller instead of
+   * writing them to the database.
    *
    * @param apiVersion appropriate string for the apiSource column of the claim table
    * @param message an RDA API message object of the correct type for this sync
    * @return an optional containing the converted claim if successful, {@link Optional#empty()}
    *     otherwise
+   * @throws DataTransformer.TransformationException if this is a transform-only sink and the
+   *     message is invalid
    * @throws IOException if there was an issue writing out a {@link MessageError}
    * @throws ProcessingException if there was an issue transforming the message
    */
@@ -368,6 +426,9 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
     } catch (DataTransformer.TransformationException transformationException) {
       metrics.transformFailures.increment();
       logger.error("Claim transformation error", transformationException);
+      if (isTransformOnly()) {
+        throw transformationException;
+      }
       writeError(apiVersion, message, transformationException);
       result = Optional.empty();
     }
@@ -388,6 +449,15 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
   abstract RdaChange<TClaim> transformMessageImpl(String apiVersion, TMessage message)
       throws DataTransformer.TransformationException;
 
+  /**
+   * Replaces an MBI record that was produced without database access, for example by a
+   * transform-only sink, with the matching record from the database. Called for each claim before
+   * it is written. Does nothing by default.
+   *
+   * @param claim the claim about to be written
+   */
+  void resolveMbiRecord(TClaim claim) {}
+
   /**
    * Implementation specific method to count the number of expected inserts that will be used to
    * load all the data into the database. Used for metrics and analysis.
@@ -405,6 +475,7 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
    * @param changes collection of claims to write to the database
    */
   private void mergeBatch(long maxSeq, Collection<RdaChange<TClaim>> changes) {
+    checkDatabaseAccess();
     SamhsaUtil samhsaUtil = SamhsaUtil.getSamhsaUtil();
     transactionManager.executeProcedure(
         entityManager -> {
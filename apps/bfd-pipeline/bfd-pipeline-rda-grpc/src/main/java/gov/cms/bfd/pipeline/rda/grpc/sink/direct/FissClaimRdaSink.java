@@ -1,6 +1,7 @@
 package gov.cms.bfd.pipeline.rda.grpc.sink.direct;
 
 import gov.cms.bfd.model.rda.AbstractJsonConverter;
+import gov.cms.bfd.model.rda.Mbi;
 import gov.cms.bfd.model.rda.MessageError;
 import gov.cms.bfd.model.rda.RdaApiProgress;
 import gov.cms.bfd.model.rda.RdaClaimMessageMetaData;
@@ -48,6 +49,18 @@ public class FissClaimRdaSink extends AbstractClaimRdaSink<FissClaimChange, RdaF
         transformer.withMbiCache(transformer.getMbiCache().withDatabaseLookup(transactionManager));
   }
 
+  /**
+   * Instantiates a transform-only Fiss claim rda sink. The sink has no database access. Its claims
+   * have MBI records that are resolved by the sink that writes them.
+   *
+   * @param appState the app state
+   * @param transformer the transformer
+   */
+  public FissClaimRdaSink(PipelineApplicationState appState, FissClaimTransformer transformer) {
+    super(appState, RdaApiProgress.ClaimType.FISS);
+    this.transformer = transformer.withMbiCache(transformer.getMbiCache().deferred());
+  }
+
   /**
    * {@inheritDoc} This implementation checks the DCN of the claim against known-bad values.
    *
@@ -90,6 +103,14 @@ public class FissClaimRdaSink extends AbstractClaimRdaSink<FissClaimChange, RdaF
     return change;
   }
 
+  @Override
+  void resolveMbiRecord(RdaFissClaim claim) {
+    final Mbi mbiRecord = claim.getMbiRecord();
+    if (mbiRecord != null && mbiRecord.getMbiId() == null) {
+      claim.setMbiRecord(transformer.getMbiCache().lookupMbi(mbiRecord.getMbi()));
+    }
+  }
+
   @Override
   int getInsertCount(RdaFissClaim claim) {
     return 1 // Add one for the base claim
@@ -93,6 +93,24 @@ public abstract class MbiCache {
    */
   public abstract MbiCache withDatabaseLookup(TransactionManager transactionManager);
 
+  /**
+   * Creates a new instance that neither computes hash values nor touches the database. The returned
+   * {@link Mbi} objects contain only the MBI string and must be replaced with the result of calling
+   * {@link #lookupMbi} on an instance with database lookup before their claim is written. Intended
+   * for threads that transform claims without having a database connection of their own.
+   *
+   * <p>The returned instance has its own in memory cache and metrics so that its incomplete values
+   * are never returned by, or counted against, this instance. Its {@link #withDatabaseLookup}
+   * delegates to this instance, so a database lookup made from it works just like one made from
+   * this instance.
+   *
+   * @return an instance that defers the lookup to whoever writes the claim
+   */
+  public MbiCache deferred() {
+    return new Deferred(
+        new Metrics(new MetricRegistry()), CacheBuilder.newBuilder().maximumSize(0).build(), this);
+  }
+
   /**
    * Returns an Mbi object containing an appropriate hash value for the given MBI string.
    *
@@ -181,6 +199,45 @@ public abstract class MbiCache {
     }
   }
 
+  /**
+   * Concrete class that returns {@link Mbi} objects containing only the MBI string. Used by {@link
+   * #deferred}.
+   */
+  static class Deferred extends MbiCache {
+    /** The instance whose lookups are deferred, used to perform database lookups. */
+    private final MbiCache wrapped;
+
+    /**
+     * Creates a new instance with the specified parameters.
+     *
+     * @param metrics {@link Metrics} to use for reporting metrics
+     * @param cache {@link Cache} used to manage recent values in memory
+     * @param wrapped the instance whose lookups are deferred
+     */
+    Deferred(Metrics metrics, Cache<String, Mbi> cache, MbiCache wrapped) {
+      super(metrics, cache);
+      this.wrapped = wrapped;
+    }
+
+    /**
+     * Delegates to the wrapped instance since this class has no {@link IdHasher} to compute the
+     * hash values.
+     *
+     * @param transactionManager {@link TransactionManager} used to query and create records
+     * @return an instance using a database backed cache as well as the wrapped instance's in memory
+     *     cache
+     */
+    @Override
+    public MbiCache withDatabaseLookup(TransactionManager transactionManager) {
+      return wrapped.withDatabaseLookup(transactionManager);
+    }
+
+    @Override
+    protected Mbi computeMbi(String mbi) {
+      return new Mbi(mbi, null);
+    }
+  }
+
   /**
    * {@link MbiCache} implementation that maintains a table in the database containing previously
    * computed MBI/hash values. Requests to compute an MBI hash first check the database for an
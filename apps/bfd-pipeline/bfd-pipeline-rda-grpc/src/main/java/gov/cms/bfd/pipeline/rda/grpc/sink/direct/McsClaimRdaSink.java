@@ -1,6 +1,7 @@
 package gov.cms.bfd.pipeline.rda.grpc.sink.direct;
 
 import gov.cms.bfd.model.rda.AbstractJsonConverter;
+import gov.cms.bfd.model.rda.Mbi;
 import gov.cms.bfd.model.rda.MessageError;
 import gov.cms.bfd.model.rda.RdaApiProgress;
 import gov.cms.bfd.model.rda.RdaClaimMessageMetaData;
@@ -41,6 +42,18 @@ public class McsClaimRdaSink extends AbstractClaimRdaSink<McsClaimChange, RdaMcs
         transformer.withMbiCache(transformer.getMbiCache().withDatabaseLookup(transactionManager));
   }
 
+  /**
+   * Instantiates a transform-only Mcs claim rda sink. The sink has no database access. Its claims
+   * have MBI records that are resolved by the sink that writes them.
+   *
+   * @param appState the app state
+   * @param transformer the transformer
+   */
+  public McsClaimRdaSink(PipelineApplicationState appState, McsClaimTransformer transformer) {
+    super(appState, RdaApiProgress.ClaimType.MCS);
+    this.transformer = transformer.withMbiCache(transformer.getMbiCache().deferred());
+  }
+
   /**
    * This implementation checks the {@link McsClaimChange#getChangeType}.
    *
@@ -72,6 +85,14 @@ public class McsClaimRdaSink extends AbstractClaimRdaSink<McsClaimChange, RdaMcs
     return change;
   }
 
+  @Override
+  void resolveMbiRecord(RdaMcsClaim claim) {
+    final Mbi mbiRecord = claim.getMbiRecord();
+    if (mbiRecord != null && mbiRecord.getMbiId() == null) {
+      claim.setMbiRecord(transformer.getMbiCache().lookupMbi(mbiRecord.getMbi()));
+    }
+  }
+
   @Override
   int getInsertCount(RdaMcsClaim claim) {
     return 1 // Add one for the base claim
@@ -11,6 +11,7 @@ import io.grpc.ClientCall;
 import io.grpc.ManagedChannel;
 import io.grpc.MethodDescriptor;
 import io.grpc.stub.ClientCalls;
+import java.io.IOException;
 import java.util.Iterator;
 import org.slf4j.LoggerFactory;
 
@@ -56,4 +57,14 @@ public class FissClaimStreamCaller extends GrpcStreamCaller<FissClaimChange> {
     final ClientCall<Empty, ClaimSequenceNumberRange> call = channel.newCall(method, callOptions);
     return ClientCalls.blockingUnaryCall(call, Empty.getDefaultInstance());
   }
+
+  @Override
+  public byte[] serializeMessage(FissClaimChange message) {
+    return message.toByteArray();
+  }
+
+  @Override
+  public FissClaimChange parseMessage(byte[] bytes) throws IOException {
+    return FissClaimChange.parseFrom(bytes);
+  }
 }
@@ -73,6 +73,24 @@ public abstract class GrpcStreamCaller<TResponse> {
   public abstract ClaimSequenceNumberRange callSequenceNumberRangeService(
       ManagedChannel channel, CallOptions callOptions);
 
+  /**
+   * Serializes a message received from {@link #callService} so that it can be stored in a {@link
+   * RdaMessageSpool}.
+   *
+   * @param message the message to serialize
+   * @return the serialized message
+   */
+  public abstract byte[] serializeMessage(TResponse message);
+
+  /**
+   * Parses a message previously serialized by {@link #serializeMessage}.
+   *
+   * @param bytes the serialized message
+   * @return the message
+   * @throws IOException if the bytes are not a valid message
+   */
+  public abstract TResponse parseMessage(byte[] bytes) throws IOException;
+
   /**
    * Make a call to the server's {@code getVersion()} service and return the version component. Will
    * retry several times if the call fails. Retries allow the job to handle with a race condition
@@ -11,6 +11,7 @@ import io.grpc.ClientCall;
 import io.grpc.ManagedChannel;
 import io.grpc.MethodDescriptor;
 import io.grpc.stub.ClientCalls;
+import java.io.IOException;
 import java.util.Iterator;
 import org.slf4j.LoggerFactory;
 
@@ -55,4 +56,14 @@ public class McsClaimStreamCaller extends GrpcStreamCaller<McsClaimChange> {
     final ClientCall<Empty, ClaimSequenceNumberRange> call = channel.newCall(method, callOptions);
     return ClientCalls.blockingUnaryCall(call, Empty.getDefaultInstance());
   }
+
+  @Override
+  public byte[] serializeMessage(McsClaimChange message) {
+    return message.toByteArray();
+  }
+
+  @Override
+  public McsClaimChange parseMessage(byte[] bytes) throws IOException {
+    return McsClaimChange.parseFrom(bytes);
+  }
 }
@@ -0,0 +1,452 @@
+package gov.cms.bfd.pipeline.rda.grpc.source;
+
+import com.google.common.base.Preconditions;
+import jakarta.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only spool of RDA API messages stored in a directory of memory mapped segment files. Used
+ * by {@link StandardGrpcRdaSource} to decouple reading the RDA API stream from writing claims to
+ * the database. The stream reader appends the serialized bytes of each message along with its
+ * sequence number and the sink side reads them back at its own pace.
+ *
+ * <p>Each segment file holds a sequence of records consisting of the payload length (int), the
+ * sequence number (long), and the payload bytes. The length is written last so that a zero length
+ * marks the end of the complete records in a segment. When a record does not fit in the active
+ * segment that segment is forced to disk and sealed and a new one is started. Segments left behind
+ * by a previous run are recovered when the spool is opened so that their messages can be replayed
+ * before any new ones.
+ *
+ * <p>Segments are only deleted by {@link #truncate} once they have been completely read and every
+ * sequence number in them has been committed to the database.
+ *
+ * <p>The number of bytes appended but not yet read is capped. Once the cap is reached {@link
+ * #append} blocks until the reader catches up, which in turn stops the stream reader from pulling
+ * more messages from the RDA API. That bounds how far the spool can run ahead of the database.
+ *
+ * <p>Intended for use by a single appending thread and a single reading thread.
+ */
+@Slf4j
+@ThreadSafe
+public class RdaMessageSpool implements Closeable {
+  /** Size of newly created segment files when none is specified. */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  /** Maximum number of unread bytes in the spool when none is specified. */
+  public static final long DEFAULT_MAX_UNREAD_BYTES = 4L * DEFAULT_SEGMENT_SIZE;
+
+  /** Number of bytes preceding the payload of each record. */
+  private static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+  /** Format used to generate segment file names from segment ids. */
+  private static final String SEGMENT_FILE_FORMAT = "segment-%019d.spool";
+
+  /** Matches segment file names and captures their segment ids. */
+  private static final Pattern SEGMENT_FILE_REGEX = Pattern.compile("segment-(\\d{19})\\.spool");
+
+  /** Directory containing the segment files. */
+  private final Path directory;
+
+  /** Size of newly created segment files. */
+  private final int segmentSize;
+
+  /** Number of unread bytes at which {@link #append} blocks until some are read. */
+  private final long maxUnreadBytes;
+
+  /** Number of bytes of records that have been appended or recovered but not yet read. */
+  private long unreadBytes;
+
+  /** All segments in id order. The last one is the active segment that receives appends. */
+  private final List<Segment> segments = new ArrayList<>();
+
+  /** Index in {@link #segments} of the segment being read. */
+  private int readIndex;
+
+  /** Offset in the segment being read of the next record to read. */
+  private int readPosition;
+
+  /** Id to assign to the next segment created. */
+  private long nextSegmentId;
+
+  /** Highest sequence number in the spool, null if nothing has been spooled. */
+  @Nullable private Long lastSequenceNumber;
+
+  /** Set once {@link #close} has been called. */
+  private boolean closed;
+
+  /**
+   * Opens a spool in the given directory without a limit on the number of unread bytes.
+   *
+   * @param directory directory containing the segment files
+   * @param segmentSize size of newly created segment files
+   * @throws IOException if the directory or segments could not be read or created
+   */
+  public RdaMessageSpool(Path directory, int segmentSize) throws IOException {
+    this(directory, segmentSize, Long.MAX_VALUE);
+  }
+
+  /**
+   * Opens a spool in the given directory, creating the directory if necessary. Any segments left by
+   * a previous run are recovered and a new active segment is created to receive appends.
+   *
+   * @param directory directory containing the segment files
+   * @param segmentSize size of newly created segment files
+   * @param maxUnreadBytes number of unread bytes at which appends block until some are read
+   * @throws IOException if the directory or segments could not be read or created
+   */
+  public RdaMessageSpool(Path directory, int segmentSize, long maxUnreadBytes) throws IOException {
+    Preconditions.checkArgument(
+        segmentSize > RECORD_HEADER_SIZE, "segmentSize too small (%s)", segmentSize);
+    Preconditions.checkArgument(
+        maxUnreadBytes > 0, "maxUnreadBytes must be positive (%s)", maxUnreadBytes);
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.maxUnreadBytes = maxUnreadBytes;
+    Files.createDirectories(directory);
+    final List<Path> segmentFiles;
+    try (Stream<Path> files = Files.list(directory)) {
+      segmentFiles =
+          files
+              .filter(file -> SEGMENT_FILE_REGEX.matcher(file.getFileName().toString()).matches())
+              .sorted()
+              .toList();
+    }
+    for (Path file : segmentFiles) {
+      final Segment segment = Segment.recover(file);
+      segments.add(segment);
+      nextSegmentId = segment.id + 1;
+      unreadBytes += segment.limit;
+      if (segment.recordCount > 0) {
+        lastSequenceNumber = segment.lastSequenceNumber;
+      }
+    }
+    if (!segments.isEmpty()) {
+      log.info(
+          "recovered spool segments: directory={} segments={} lastSeq={}",
+          directory,
+          segments.size(),
+          lastSequenceNumber);
+    }
+    startSegment(segmentSize);
+  }
+
+  /**
+   * Appends a message to the spool. Waits for the reader to catch up first if the message would
+   * push the number of unread bytes past the limit, unless nothing is unread. Starts a new segment
+   * if the message does not fit in the active one. Wakes up any thread waiting in {@link #poll}.
+   *
+   * @param sequenceNumber sequence number of the message
+   * @param payload serialized message, must not be empty
+   * @throws IOException if a new segment could not be created
+   * @throws InterruptedException if the thread is interrupted while waiting for the reader
+   * @throws IllegalStateException if the spool is closed, including while waiting for the reader
+   */
+  public synchronized void append(long sequenceNumber, byte[] payload)
+      throws IOException, InterruptedException {
+    Preconditions.checkArgument(payload.length > 0, "payload is empty");
+    final int recordSize = RECORD_HEADER_SIZE + payload.length;
+    while (!closed && unreadBytes > 0 && unreadBytes + recordSize > maxUnreadBytes) {
+      wait();
+    }
+    Preconditions.checkState(!closed, "spool is closed");
+    Segment segment = segments.get(segments.size() - 1);
+    if (segment.buffer.capacity() - segment.limit < recordSize) {
+      segment.seal();
+      startSegment(Math.max(segmentSize, recordSize));
+      segment = segments.get(segments.size() - 1);
+    }
+    final int position = segment.limit;
+    segment.buffer.putLong(position + Integer.BYTES, sequenceNumber);
+    segment.buffer.put(position + RECORD_HEADER_SIZE, payload);
+    segment.buffer.putInt(position, payload.length);
+    segment.limit += recordSize;
+    segment.recordCount += 1;
+    segment.lastSequenceNumber = sequenceNumber;
+    lastSequenceNumber = sequenceNumber;
+    unreadBytes += recordSize;
+    notifyAll();
+  }
+
+  /**
+   * Reads the next unread message from the spool. Waits up to the given timeout for one to be
+   * appended if all messages have already been read.
+   *
+   * @param timeout maximum time to wait for a message
+   * @return the next message or null if none arrived in time or the spool has been closed
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  @Nullable
+  public synchronized SpooledMessage poll(Duration timeout) throws InterruptedException {
+    final long deadline = System.nanoTime() + timeout.toNanos();
+    while (true) {
+      final SpooledMessage message = readNext();
+      if (message != null) {
+        // wake up an append waiting for unread bytes to be read
+        notifyAll();
+        return message;
+      }
+      if (closed) {
+        return null;
+      }
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return null;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+  }
+
+  /**
+   * Deletes every segment that has been completely read and contains no sequence number greater
+   * than the given one. Called once the sequence number has been committed to the database so the
+   * deleted messages will never need to be replayed.
+   *
+   * @param committedSequenceNumber highest sequence number known to be in the database
+   * @return the number of segments deleted
+   * @throws IOException if a segment file could not be deleted
+   */
+  public synchronized int truncate(long committedSequenceNumber) throws IOException {
+    int deleted = 0;
+    while (readIndex > 0
+        && (segments.get(0).recordCount == 0
+            || segments.get(0).lastSequenceNumber <= committedSequenceNumber)) {
+      final Segment segment = segments.remove(0);
+      readIndex -= 1;
+      Files.deleteIfExists(segment.file);
+      deleted += 1;
+    }
+    if (deleted > 0) {
+      log.debug(
+          "truncated spool segments: directory={} deleted={} committedSeq={}",
+          directory,
+          deleted,
+          committedSequenceNumber);
+    }
+    return deleted;
+  }
+
+  /**
+   * Determines if any segment has been completely read and so might be deleted by {@link
+   * #truncate}.
+   *
+   * @return true if at least one segment has been completely read
+   */
+  public synchronized boolean hasReadSegments() {
+    return readIndex > 0;
+  }
+
+  /**
+   * Gets the highest sequence number in the spool, including any recovered from a previous run.
+   *
+   * @return the sequence number or empty if nothing has been spooled
+   */
+  public synchronized Optional<Long> getLastSequenceNumber() {
+    return Optional.ofNullable(lastSequenceNumber);
+  }
+
+  /**
+   * Gets the number of bytes of records that have been appended or recovered but not yet read.
+   *
+   * @return the number of unread bytes
+   */
+  public synchronized long getUnreadBytes() {
+    return unreadBytes;
+  }
+
+  /**
+   * Gets the number of segment files currently in the spool.
+   *
+   * @return the number of segments
+   */
+  public synchronized int getSegmentCount() {
+    return segments.size();
+  }
+
+  /**
+   * Deletes every segment file in the given directory without reading it. Used when the spooled
+   * messages must not be replayed, for example because a starting sequence number was configured
+   * explicitly.
+   *
+   * @param directory directory containing the segment files
+   * @return the number of segment files deleted
+   * @throws IOException if the directory could not be listed or a file could not be deleted
+   */
+  public static int deleteSegments(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return 0;
+    }
+    final List<Path> segmentFiles;
+    try (Stream<Path> files = Files.list(directory)) {
+      segmentFiles =
+          files
+              .filter(file -> SEGMENT_FILE_REGEX.matcher(file.getFileName().toString()).matches())
+              .toList();
+    }
+    for (Path file : segmentFiles) {
+      Files.delete(file);
+    }
+    return segmentFiles.size();
+  }
+
+  /**
+   * Forces the active segment to disk and wakes up any thread waiting in {@link #poll} or {@link
+   * #append}. Further appends are rejected but already spooled messages can still be read.
+   */
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      segments.get(segments.size() - 1).buffer.force();
+      notifyAll();
+    }
+  }
+
+  /**
+   * Reads the record at the current read position, moving on to the next segment when a sealed
+   * segment has been completely read.
+   *
+   * @return the message or null if all appended messages have been read
+   */
+  @Nullable
+  private SpooledMessage readNext() {
+    while (readIndex < segments.size()) {
+      final Segment segment = segments.get(readIndex);
+      if (readPosition < segment.limit) {
+        final int length = segment.buffer.getInt(readPosition);
+        final long sequenceNumber = segment.buffer.getLong(readPosition + Integer.BYTES);
+        final byte[] payload = new byte[length];
+        segment.buffer.get(readPosition + RECORD_HEADER_SIZE, payload);
+        readPosition += RECORD_HEADER_SIZE + length;
+        unreadBytes -= RECORD_HEADER_SIZE + length;
+        return new SpooledMessage(sequenceNumber, payload);
+      }
+      if (!segment.sealed) {
+        return null;
+      }
+      readIndex += 1;
+      readPosition = 0;
+    }
+    return null;
+  }
+
+  /**
+   * Creates a new active segment file.
+   *
+   * @param size size of the segment file
+   * @throws IOException if the file could not be created
+   */
+  private void startSegment(int size) throws IOException {
+    final Path file = directory.resolve(String.format(SEGMENT_FILE_FORMAT, nextSegmentId));
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      segments.add(
+          new Segment(nextSegmentId, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size)));
+    }
+    nextSegmentId += 1;
+  }
+
+  /** A message read from the spool. */
+  @Value
+  public static class SpooledMessage {
+    /** Sequence number of the message. */
+    long sequenceNumber;
+
+    /** Serialized message. */
+    byte[] payload;
+  }
+
+  /** A single segment file and its mapped contents. */
+  private static class Segment {
+    /** Id of the segment, taken from its file name. */
+    private final long id;
+
+    /** The segment file. */
+    private final Path file;
+
+    /** The mapped contents of the file. */
+    private final MappedByteBuffer buffer;
+
+    /** Offset just past the last complete record. */
+    private int limit;
+
+    /** Number of complete records in the segment. */
+    private int recordCount;
+
+    /**
+     * Sequence number of the last record, only meaningful when {@link #recordCount} is not zero.
+     */
+    private long lastSequenceNumber;
+
+    /** True once no more records will be appended to the segment. */
+    private boolean sealed;
+
+    /**
+     * Creates an empty active segment.
+     *
+     * @param id id of the segment
+     * @param file the segment file
+     * @param buffer the mapped contents of the file
+     */
+    private Segment(long id, Path file, MappedByteBuffer buffer) {
+      this.id = id;
+      this.file = file;
+      this.buffer = buffer;
+    }
+
+    /**
+     * Maps an existing segment file and finds its complete records. Scanning stops at the first
+     * zero or impossible length so a record that was only partially written is ignored. The segment
+     * is sealed since appends always go to a new segment.
+     *
+     * @param file the segment file
+     * @return the recovered segment
+     * @throws IOException if the file could not be mapped
+     */
+    private static Segment recover(Path file) throws IOException {
+      final var matcher = SEGMENT_FILE_REGEX.matcher(file.getFileName().toString());
+      Preconditions.checkArgument(matcher.matches(), "not a segment file: %s", file);
+      final MappedByteBuffer buffer;
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+      final Segment segment = new Segment(Long.parseLong(matcher.group(1)), file, buffer);
+      while (segment.limit + RECORD_HEADER_SIZE <= buffer.capacity()) {
+        final int length = buffer.getInt(segment.limit);
+        if (length <= 0 || length > buffer.capacity() - segment.limit - RECORD_HEADER_SIZE) {
+          break;
+        }
+        segment.lastSequenceNumber = buffer.getLong(segment.limit + Integer.BYTES);
+        segment.recordCount += 1;
+        segment.limit += RECORD_HEADER_SIZE + length;
+      }
+      segment.sealed = true;
+      return segment;
+    }
+
+    /** Forces the segment's contents to disk and marks it as sealed. */
+    private void seal() {
+      buffer.force();
+      sealed = true;
+    }
+  }
+}
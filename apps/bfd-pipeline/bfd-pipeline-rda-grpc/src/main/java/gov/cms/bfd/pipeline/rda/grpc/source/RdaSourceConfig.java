@@ -10,6 +10,7 @@ import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.inprocess.InProcessChannelBuilder;
 import jakarta.annotation.Nullable;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -60,6 +61,21 @@ public class RdaSourceConfig {
   /** Maximum number of days to retain processed {@link MessageError} records in the database. */
   @Nullable private final Integer messageErrorExpirationDays;
 
+  /**
+   * Directory in which received messages are spooled before being written to the database. When
+   * null messages are passed directly to the sink as they are received.
+   */
+  @Nullable private final Path spoolDirectory;
+
+  /** Size in bytes of each spool segment file. */
+  private final int spoolSegmentSize;
+
+  /**
+   * Number of spooled bytes not yet passed to the sink at which reading from the RDA API pauses
+   * until the sink catches up.
+   */
+  private final long spoolMaxUnreadBytes;
+
   /**
    * Specifies which type of server we want to connect to. {@code Remote} is the normal
    * configuration. {@code InProcess} is used when populating an environment with synthetic data
@@ -85,7 +101,10 @@ public class RdaSourceConfig {
       long sequenceRangeUpdateIntervalSeconds,
       @Nullable Duration minIdleTimeBeforeConnectionDrop,
       @Nullable String authenticationToken,
-      @Nullable Integer messageErrorExpirationDays) {
+      @Nullable Integer messageErrorExpirationDays,
+      @Nullable Path spoolDirectory,
+      @Nullable Integer spoolSegmentSize,
+      @Nullable Long spoolMaxUnreadBytes) {
     this.serverType = Preconditions.checkNotNull(serverType, "serverType is required");
     this.host = host;
     this.port = port;
@@ -116,6 +135,18 @@ public class RdaSourceConfig {
       this.expirationDate = null;
     }
     this.messageErrorExpirationDays = messageErrorExpirationDays;
+    this.spoolDirectory = spoolDirectory;
+    this.spoolSegmentSize =
+        spoolSegmentSize == null ? RdaMessageSpool.DEFAULT_SEGMENT_SIZE : spoolSegmentSize;
+    Preconditions.checkArgument(
+        this.spoolSegmentSize >= 1_024, "spoolSegmentSize less than 1024 bytes");
+    this.spoolMaxUnreadBytes =
+        spoolMaxUnreadBytes == null
+            ? RdaMessageSpool.DEFAULT_MAX_UNREAD_BYTES
+            : spoolMaxUnreadBytes;
+    Preconditions.checkArgument(
+        this.spoolMaxUnreadBytes >= this.spoolSegmentSize,
+        "spoolMaxUnreadBytes less than spoolSegmentSize");
   }
 
   /**
@@ -193,6 +224,15 @@ public class RdaSourceConfig {
     return Optional.ofNullable(messageErrorExpirationDays);
   }
 
+  /**
+   * The directory in which received messages are spooled, if spooling is enabled.
+   *
+   * @return the spool directory or empty if messages are not spooled
+   */
+  public Optional<Path> getSpoolDirectory() {
+    return Optional.ofNullable(spoolDirectory);
+  }
+
   /**
    * Creates a remove channel builder.
    *
@@ -12,6 +12,8 @@ import gov.cms.mpsm.rda.v1.ClaimSequenceNumberRange;
 import io.grpc.CallOptions;
 import io.grpc.ManagedChannel;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nullable;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -19,6 +21,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -40,6 +43,20 @@ public class StandardGrpcRdaSource<TMessage, TClaim>
   /** The maximum amount of time to wait for an {@link RdaSink} to shut down. */
   private static final Duration MAX_SINK_SHUTDOWN_WAIT = Duration.ofMinutes(5);
 
+  /**
+   * How long to wait for a message to arrive in the spool before submitting any partial batch to
+   * the sink.
+   */
+  private static final Duration SPOOL_POLL_INTERVAL = Duration.ofSeconds(1);
+
+  /**
+   * Minimum time between reads of the progress table to find spool segments that can be deleted.
+   */
+  private static final Duration SPOOL_TRUNCATE_INTERVAL = Duration.ofSeconds(30);
+
+  /** The maximum amount of time to wait for the spool writer thread to finish. */
+  private static final Duration MAX_SPOOL_WRITER_SHUTDOWN_WAIT = Duration.ofMinutes(1);
+
   /** A clock for generating timestamps. */
   private final Clock clock;
 
@@ -57,6 +74,15 @@ public class StandardGrpcRdaSource<TMessage, TClaim>
 
   private long sequenceRangeUpdateIntervalSeconds;
 
+  /** Directory used to spool received messages, null if messages are not spooled. */
+  @Nullable private final Path spoolDirectory;
+
+  /** Size in bytes of each spool segment file. */
+  private final int spoolSegmentSize;
+
+  /** Maximum number of unread bytes held in the spool before receiving blocks. */
+  private final long spoolMaxUnreadBytes;
+
   /**
    * The primary constructor for this class. Constructs a GrpcRdaSource and opens a channel to the
    * gRPC service.
@@ -86,9 +112,28 @@ public class StandardGrpcRdaSource<TMessage, TClaim>
         config.getMinIdleMillisBeforeConnectionDrop(),
         config.getSequenceRangeUpdateIntervalSeconds(),
         config.getServerType(),
-        rdaVersion);
+        rdaVersion,
+        config.getSpoolDirectory().map(directory -> directory.resolve(claimType)).orElse(null),
+        config.getSpoolSegmentSize(),
+        config.getSpoolMaxUnreadBytes());
   }
 
+  /**
+   * Constructs a GrpcRdaSource that passes received messages directly to the sink.
+   *
+   * @param clock used to generate timestamps
+   * @param channel an already open channel to the gRPC service
+   * @param caller the GrpcStreamCaller used to invoke a particular RPC
+   * @param callOptionsFactory creates the CallOptions for each call
+   * @param appMetrics the MetricRegistry used to track metrics
+   * @param claimType the claim type
+   * @param startingSequenceNumber optional hard coded sequence number
+   * @param minIdleMillisBeforeConnectionDrop expected idle time before the server drops a
+   *     connection
+   * @param sequenceRangeUpdateIntervalSeconds how often to update the sequence number range
+   * @param serverType the type of RDA API server
+   * @param rdaVersion The required {@link RdaVersion} in order to ingest data
+   */
   @VisibleForTesting
   StandardGrpcRdaSource(
       Clock clock,
@@ -102,6 +147,60 @@ public class StandardGrpcRdaSource<TMessage, TClaim>
       long sequenceRangeUpdateIntervalSeconds,
       RdaSourceConfig.ServerType serverType,
       RdaVersion rdaVersion) {
+    this(
+        clock,
+        channel,
+        caller,
+        callOptionsFactory,
+        appMetrics,
+        claimType,
+        startingSequenceNumber,
+        minIdleMillisBeforeConnectionDrop,
+        sequenceRangeUpdateIntervalSeconds,
+        serverType,
+        rdaVersion,
+        null,
+        RdaMessageSpool.DEFAULT_SEGMENT_SIZE,
+        RdaMessageSpool.DEFAULT_MAX_UNREAD_BYTES);
+  }
+
+  /**
+   * Constructs a GrpcRdaSource that optionally spools received messages in a {@link
+   * RdaMessageSpool} before passing them to the sink.
+   *
+   * @param clock used to generate timestamps
+   * @param channel an already open channel to the gRPC service
+   * @param caller the GrpcStreamCaller used to invoke a particular RPC
+   * @param callOptionsFactory creates the CallOptions for each call
+   * @param appMetrics the MetricRegistry used to track metrics
+   * @param claimType the claim type
+   * @param startingSequenceNumber optional hard coded sequence number
+   * @param minIdleMillisBeforeConnectionDrop expected idle time before the server drops a
+   *     connection
+   * @param sequenceRangeUpdateIntervalSeconds how often to update the sequence number range
+   * @param serverType the type of RDA API server
+   * @param rdaVersion The required {@link RdaVersion} in order to ingest data
+   * @param spoolDirectory directory used to spool messages or null to disable spooling
+   * @param spoolSegmentSize size in bytes of each spool segment file
+   * @param spoolMaxUnreadBytes maximum number of unread bytes the spool holds before the receiving
+   *     thread blocks
+   */
+  @VisibleForTesting
+  StandardGrpcRdaSource(
+      Clock clock,
+      ManagedChannel channel,
+      GrpcStreamCaller<TMessage> caller,
+      Supplier<CallOptions> callOptionsFactory,
+      MeterRegistry appMetrics,
+      String claimType,
+      Optional<Long> startingSequenceNumber,
+      long minIdleMillisBeforeConnectionDrop,
+      long sequenceRangeUpdateIntervalSeconds,
+      RdaSourceConfig.ServerType serverType,
+      RdaVersion rdaVersion,
+      @Nullable Path spoolDirectory,
+      int spoolSegmentSize,
+      long spoolMaxUnreadBytes) {
     super(
         Preconditions.checkNotNull(channel),
         Preconditions.checkNotNull(caller),
@@ -114,6 +213,9 @@ public class StandardGrpcRdaSource<TMessage, TClaim>
     this.minIdleMillisBeforeConnectionDrop = minIdleMillisBeforeConnectionDrop;
     this.sequenceRangeUpdateIntervalSeconds = sequenceRangeUpdateIntervalSeconds;
     this.serverType = serverType;
+    this.spoolDirectory = spoolDirectory;
+    this.spoolSegmentSize = spoolSegmentSize;
+    this.spoolMaxUnreadBytes = spoolMaxUnreadBytes;
   }
 
   /**
@@ -185,6 +287,10 @@ public class StandardGrpcRdaSource<TMessage, TClaim>
       throws ProcessingException {
     sink.checkErrorCount();
 
+    if (spoolDirectory != null) {
+      return retrieveAndProcessSpooledObjects(maxPerBatch, sink);
+    }
+
     return tryRetrieveAndProcessObjects(
         () -> {
           boolean flushBatch = true;
@@ -207,27 +313,8 @@ public class StandardGrpcRdaSource<TMessage, TClaim>
                 setUptimeToReceiving();
                 final TMessage result = responseStream.next();
                 metrics.getObjectsReceived().increment();
-                if (sink.isDeleteMessage(result)) {
-                  metrics.getDeleteMessagesSkipped().increment();
-                  log.warn(
-                      "skipping DELETE message: claimType={} claimId={} seq={}",
-                      claimType,
-                      sink.getClaimIdForMessage(result),
-                      sink.getSequenceNumberForObject(result));
-                } else if (sink.isValidMessage(result)) {
-                  batch.put(sink.getClaimIdForMessage(result), result);
-                  if (batch.size() >= maxPerBatch) {
-                    updateSequenceNumberRange(sink);
-                    processResult.addCount(submitBatchToSink(apiVersion, sink, batch));
-                  }
+                if (addToBatch(apiVersion, maxPerBatch, sink, batch, result, processResult)) {
                   lastProcessedTime = clock.millis();
-                } else {
-                  metrics.getInvalidObjectsSkipped().increment();
-                  log.info(
-                      "skipping invalid claim: claimType={} claimId={} seq={}",
-                      claimType,
-                      sink.getClaimIdForMessage(result),
-                      sink.getSequenceNumberForObject(result));
                 }
               }
             } catch (GrpcResponseStream.StreamInterruptedException ex) {
@@ -277,6 +364,211 @@ public class StandardGrpcRdaSource<TMessage, TClaim>
         });
   }
 
+  /**
+   * Variation of {@link #retrieveAndProcessObjects} used when spooling is enabled. A separate
+   * thread reads the response stream and does nothing but append each message to a {@link
+   * RdaMessageSpool}. This thread reads messages back from the spool and batches them into the sink
+   * at whatever pace the sink can sustain, so a slow database never holds up the stream.
+   *
+   * <p>Messages left in the spool by a previous run are replayed first, skipping any that the
+   * database already has, and the API call resumes after the last spooled message. When a starting
+   * sequence number has been configured the leftover segments are discarded instead and the call
+   * starts at the configured sequence number. The spool holds at most {@code spoolMaxUnreadBytes}
+   * of unread messages, beyond which the receiving thread blocks until this thread catches up.
+   * Segments are deleted once they have been read and the progress table shows that all of their
+   * claims have been committed. When this thread stops early any unprocessed messages remain in the
+   * spool for the next run.
+   *
+   * @param maxPerBatch maximum number of objects to collect into a batch before calling the sink
+   * @param sink to receive batches of objects
+   * @return the number of objects that were successfully processed
+   * @throws ProcessingException wrapper around any Exception thrown by the service or sink
+   */
+  private int retrieveAndProcessSpooledObjects(int maxPerBatch, RdaSink<TMessage, TClaim> sink)
+      throws ProcessingException {
+    return tryRetrieveAndProcessObjects(
+        () -> {
+          boolean flushBatch = true;
+          ProcessResult processResult = new ProcessResult();
+
+          if (startingSequenceNumber.isPresent()) {
+            final int deletedCount = RdaMessageSpool.deleteSegments(spoolDirectory);
+            log.info(
+                "discarded {} {} spool segments because a starting sequence number was configured",
+                deletedCount,
+                claimType);
+          }
+          try (var spool =
+              new RdaMessageSpool(spoolDirectory, spoolSegmentSize, spoolMaxUnreadBytes)) {
+            final long committedSequenceNumber = getStartingSequenceNumber(sink);
+            final long startingSequenceNumber =
+                this.startingSequenceNumber.isPresent()
+                    ? committedSequenceNumber
+                    : Math.max(
+                        committedSequenceNumber,
+                        spool.getLastSequenceNumber().orElse(MIN_SEQUENCE_NUM));
+            log.info(
+                "calling API for {} claims starting at sequence number {} with spool {}",
+                claimType,
+                startingSequenceNumber,
+                spoolDirectory);
+            final String apiVersion = caller.callVersionService(channel, callOptionsFactory.get());
+            checkApiVersion(apiVersion);
+
+            try (var responseStream =
+                caller.callService(channel, callOptionsFactory.get(), startingSequenceNumber)) {
+              final SpoolWriter spoolWriter = new SpoolWriter(responseStream, spool, sink);
+              final Thread spoolWriterThread = new Thread(spoolWriter, claimType + "-SpoolWriter");
+              spoolWriterThread.start();
+
+              boolean readerStopped = false;
+              long nextTruncateTime = clock.millis();
+              final Map<Object, TMessage> batch = new LinkedHashMap<>();
+              try {
+                while (true) {
+                  final boolean writerFinished = spoolWriter.isFinished();
+                  final RdaMessageSpool.SpooledMessage spooled = spool.poll(SPOOL_POLL_INTERVAL);
+                  if (spooled == null) {
+                    if (writerFinished) {
+                      break;
+                    }
+                    if (batch.size() > 0) {
+                      processResult.addCount(submitBatchToSink(apiVersion, sink, batch));
+                    }
+                  } else if (spooled.getSequenceNumber() > committedSequenceNumber) {
+                    final TMessage result = caller.parseMessage(spooled.getPayload());
+                    addToBatch(apiVersion, maxPerBatch, sink, batch, result, processResult);
+                  }
+                  if (clock.millis() >= nextTruncateTime && spool.hasReadSegments()) {
+                    spool.truncate(sink.readMaxExistingSequenceNumber().orElse(MIN_SEQUENCE_NUM));
+                    nextTruncateTime = clock.millis() + SPOOL_TRUNCATE_INTERVAL.toMillis();
+                  }
+                }
+              } catch (InterruptedException ex) {
+                log.info("shutting down due to interrupted spool read");
+                readerStopped = true;
+                flushBatch = false;
+                processResult.setInterrupted(true);
+              } catch (ProcessingException ex) {
+                log.info("shutting down due to ProcessingException: {}", ex.getMessage());
+                readerStopped = true;
+                flushBatch = false;
+                processResult.addCount(ex.getProcessedCount());
+                processResult.setException(ex);
+              } catch (Exception ex) {
+                log.info("shutting down due to Exception: {}", ex.getMessage());
+                readerStopped = true;
+                flushBatch = false;
+                processResult.setException(ex);
+              }
+
+              MultiCloser closer = new MultiCloser();
+
+              closer.close(() -> responseStream.cancelStream("shutting down"));
+              // Wakes the writer if it is blocked waiting for room in the spool.
+              closer.close(spool::close);
+              closer.close(() -> spoolWriterThread.join(MAX_SPOOL_WRITER_SHUTDOWN_WAIT.toMillis()));
+
+              // Errors the writer sees after we cancelled the stream are expected.
+              if (!readerStopped) {
+                handleSpoolWriterError(spoolWriter, processResult);
+              }
+
+              if (batch.size() > 0 && flushBatch && !processResult.isInterrupted()) {
+                closer.close(
+                    () -> processResult.addCount(submitBatchToSink(apiVersion, sink, batch)));
+              }
+
+              closer.close(() -> sink.shutdown(MAX_SINK_SHUTDOWN_WAIT));
+              closer.close(() -> processResult.addCount(sink.getProcessedCount()));
+
+              try {
+                closer.finish();
+              } catch (Exception ex) {
+                if (processResult.getException() != null) {
+                  processResult.getException().addSuppressed(ex);
+                } else {
+                  processResult.setException(ex);
+                }
+              }
+
+              return processResult;
+            }
+          }
+        });
+  }
+
+  /**
+   * Applies the same handling to an error that ended the {@link SpoolWriter} as {@link
+   * #retrieveAndProcessObjects} applies to errors reading the response stream.
+   *
+   * @param spoolWriter the finished writer
+   * @param processResult receives the interrupted flag or exception
+   */
+  private void handleSpoolWriterError(SpoolWriter spoolWriter, ProcessResult processResult) {
+    final Exception error = spoolWriter.getError();
+    if (error instanceof GrpcResponseStream.StreamInterruptedException) {
+      log.info("shutting down due to interrupted stream");
+      processResult.setInterrupted(true);
+    } else if (error instanceof DroppedConnectionException droppedConnectionException) {
+      log.info("shutting down due to dropped stream");
+      if (isUnexpectedDroppedConnectionException(
+          spoolWriter.getLastReceivedTime(), droppedConnectionException)) {
+        processResult.setException(droppedConnectionException);
+      }
+    } else if (error != null) {
+      log.info("shutting down due to Exception: {}", error.getMessage());
+      processResult.setException(error);
+    }
+  }
+
+  /**
+   * Adds a received message to the batch unless it is a DELETE message or is not valid. Submits the
+   * batch to the sink once it is full.
+   *
+   * @param apiVersion the RDA API version
+   * @param maxPerBatch maximum number of objects to collect into a batch before calling the sink
+   * @param sink to receive batches of objects
+   * @param batch the batch being collected
+   * @param result the received message
+   * @param processResult receives the count of objects processed by the sink
+   * @return true if the message was added to the batch
+   * @throws ProcessingException if the sink failed to process the batch
+   */
+  private boolean addToBatch(
+      String apiVersion,
+      int maxPerBatch,
+      RdaSink<TMessage, TClaim> sink,
+      Map<Object, TMessage> batch,
+      TMessage result,
+      ProcessResult processResult)
+      throws ProcessingException {
+    if (sink.isDeleteMessage(result)) {
+      metrics.getDeleteMessagesSkipped().increment();
+      log.warn(
+          "skipping DELETE message: claimType={} claimId={} seq={}",
+          claimType,
+          sink.getClaimIdForMessage(result),
+          sink.getSequenceNumberForObject(result));
+      return false;
+    } else if (sink.isValidMessage(result)) {
+      batch.put(sink.getClaimIdForMessage(result), result);
+      if (batch.size() >= maxPerBatch) {
+        updateSequenceNumberRange(sink);
+        processResult.addCount(submitBatchToSink(apiVersion, sink, batch));
+      }
+      return true;
+    } else {
+      metrics.getInvalidObjectsSkipped().increment();
+      log.info(
+          "skipping invalid claim: claimType={} claimId={} seq={}",
+          claimType,
+          sink.getClaimIdForMessage(result),
+          sink.getSequenceNumberForObject(result));
+      return false;
+    }
+  }
+
   /**
    * Updates the available sequence number range.
    *
@@ -340,4 +632,63 @@ public class StandardGrpcRdaSource<TMessage, TClaim>
       return sink.readMaxExistingSequenceNumber().orElse(MIN_SEQUENCE_NUM);
     }
   }
+
+  /**
+   * Reads messages from the response stream and appends them to a {@link RdaMessageSpool}. Runs on
+   * its own thread so that receiving messages never waits for the database. Stops at the end of the
+   * stream or at the first error, which is kept for the reading thread to handle.
+   */
+  private class SpoolWriter implements Runnable {
+    /** The stream to read. */
+    private final GrpcResponseStream<TMessage> responseStream;
+
+    /** The spool to append to. */
+    private final RdaMessageSpool spool;
+
+    /** Used to get the sequence number of each message. */
+    private final RdaSink<TMessage, TClaim> sink;
+
+    /** Time in millis when the last message was received. */
+    @Getter private volatile long lastReceivedTime;
+
+    /** The error that stopped the writer, if any. */
+    @Getter private volatile Exception error;
+
+    /** Set once the writer has appended its last message. */
+    @Getter private volatile boolean finished;
+
+    /**
+     * Creates a writer.
+     *
+     * @param responseStream the stream to read
+     * @param spool the spool to append to
+     * @param sink used to get the sequence number of each message
+     */
+    private SpoolWriter(
+        GrpcResponseStream<TMessage> responseStream,
+        RdaMessageSpool spool,
+        RdaSink<TMessage, TClaim> sink) {
+      this.responseStream = responseStream;
+      this.spool = spool;
+      this.sink = sink;
+      lastReceivedTime = clock.millis();
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (responseStream.hasNext()) {
+          setUptimeToReceiving();
+          final TMessage message = responseStream.next();
+          metrics.getObjectsReceived().increment();
+          spool.append(sink.getSequenceNumberForObject(message), caller.serializeMessage(message));
+          lastReceivedTime = clock.millis();
+        }
+      } catch (Exception ex) {
+        error = ex;
+      } finally {
+        finished = true;
+      }
+    }
+  }
 }
@@ -1,10 +1,14 @@
 package gov.cms.bfd.pipeline.rda.grpc;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import gov.cms.bfd.pipeline.CleanupTestUtils;
+import java.time.Clock;
 import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -140,6 +144,49 @@ class AbstractCleanupJobTest {
     assertEquals(0, utils.count());
   }
 
+  /**
+   * Test scenario where a whole month has expired. The partitions of that month are detached and
+   * dropped, children first, while claims in the partitions of later months keep their lines. Runs
+   * the job 200 days in the future so that the current month is the one that expires, and recreates
+   * the current partitions afterwards.
+   *
+   * @throws ProcessingException if errors occurs during processing.
+   */
+  @Test
+  void runDropsExpiredPartitions() throws ProcessingException {
+    var realNow = Clock.systemUTC().instant();
+    var futureNow = realNow.plus(200, ChronoUnit.DAYS);
+    var expiredMonth = YearMonth.from(realNow.atZone(ZoneOffset.UTC));
+    var transactionManager = utils.getTransactionManager();
+    try {
+      // a disabled job only creates the partitions, here the ones needed 200 days from now
+      instantMockedStatic.when(Instant::now).thenReturn(futureNow);
+      new RdaFissClaimCleanupJob(transactionManager, 6, 2, false).run();
+      utils.seedClaim("expired", realNow);
+      utils.seedClaim("live", futureNow.minus(1, ChronoUnit.DAYS));
+
+      var cleanUpJob = new RdaFissClaimCleanupJob(transactionManager, 6, 2, true);
+      var deleted = cleanUpJob.run();
+
+      // expecting the expired claim to be dropped with its partition and the live one to remain
+      assertEquals(1, deleted);
+      assertEquals(1, utils.count());
+      assertEquals(2, utils.countPayers("live"));
+      assertEquals(0, utils.countPayers("expired"));
+      assertFalse(
+          utils.tableExists(AbstractCleanupJob.getPartitionName("rda.fiss_claims", expiredMonth)));
+      assertFalse(
+          utils.tableExists(AbstractCleanupJob.getPartitionName("rda.fiss_payers", expiredMonth)));
+      assertTrue(utils.tableExists("rda.fiss_claims_history"));
+      assertTrue(utils.tableExists("rda.fiss_payers_history"));
+    } finally {
+      instantMockedStatic.when(Instant::now).thenReturn(realNow);
+      new RdaFissClaimCleanupJob(transactionManager, 6, 2, false).run();
+    }
+    assertTrue(
+        utils.tableExists(AbstractCleanupJob.getPartitionName("rda.fiss_claims", expiredMonth)));
+  }
+
   /**
    * Test scenario where the job is not enabled.
    *
@@ -3,6 +3,7 @@ package gov.cms.bfd.pipeline.rda.grpc;
 import static org.junit.jupiter.api.Assertions.*;
 
 import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
+import java.time.YearMonth;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -33,4 +34,23 @@ class RdaFissClaimCleanupJobTest {
   void getParentTableKey() {
     assertEquals("claim_id", job.getParentTableKey());
   }
+
+  /** Verifies the getChildTableNames method. */
+  @Test
+  void getChildTableNames() {
+    assertTrue(job.getChildTableNames().contains("rda.fiss_payers"));
+    assertTrue(job.getChildTableNames().contains("rda.fiss_tags"));
+  }
+
+  /** Verifies that partition names are built and parsed consistently. */
+  @Test
+  void partitionNames() {
+    var month = YearMonth.of(2025, 3);
+    assertEquals(
+        "rda.fiss_claims_y2025m03",
+        AbstractCleanupJob.getPartitionName(job.getParentTableName(), month));
+    assertEquals(month, job.parsePartitionMonth("fiss_claims_y2025m03"));
+    assertNull(job.parsePartitionMonth("fiss_claims_history"));
+    assertNull(job.parsePartitionMonth("fiss_claims_y2025m13"));
+  }
 }
@@ -3,6 +3,7 @@ package gov.cms.bfd.pipeline.rda.grpc;
 import static org.junit.jupiter.api.Assertions.*;
 
 import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
+import java.time.YearMonth;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -35,4 +36,23 @@ class RdaMcsClaimCleanupJobTest {
   void getParentTableKey() {
     assertEquals("idr_clm_hd_icn", job.getParentTableKey());
   }
+
+  /** Verifies the getChildTableNames method. */
+  @Test
+  void getChildTableNames() {
+    assertTrue(job.getChildTableNames().contains("rda.mcs_details"));
+    assertTrue(job.getChildTableNames().contains("rda.mcs_tags"));
+  }
+
+  /** Verifies that partition names are built and parsed consistently. */
+  @Test
+  void partitionNames() {
+    var month = YearMonth.of(2025, 3);
+    assertEquals(
+        "rda.mcs_claims_y2025m03",
+        AbstractCleanupJob.getPartitionName(job.getParentTableName(), month));
+    assertEquals(month, job.parsePartitionMonth("mcs_claims_y2025m03"));
+    assertNull(job.parsePartitionMonth("mcs_claims_history"));
+    assertNull(job.parsePartitionMonth("mcs_claims_y2025m13"));
+  }
 }
@@ -0,0 +1,177 @@
+package gov.cms.bfd.pipeline.rda.grpc.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.io.ByteSource;
+import gov.cms.mpsm.rda.v1.FissClaimChange;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link BinaryMessageSource} can read stores written by {@link BinaryMessageWriter}.
+ */
+public class BinaryMessageSourceTest {
+  /** Small index interval so that tests cover seeking to entries in the middle of the index. */
+  private static final int INDEX_INTERVAL = 4;
+
+  /**
+   * Verifies that every message written to a store is read back in order and that the sequence
+   * number range covers the first and last messages.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void messagesAreReadBackInOrder() throws Exception {
+    final List<FissClaimChange> claims = createClaims(25);
+    final ByteSource bytes = writeStore(claims);
+    try (BinaryMessageSource<FissClaimChange> source = BinaryMessageSource.fissSource(bytes)) {
+      assertEquals(1, source.getSequenceNumberRange().getLower());
+      assertEquals(49, source.getSequenceNumberRange().getUpper());
+      assertEquals(claims, readAll(source));
+      assertThrows(NoSuchElementException.class, source::next);
+    }
+  }
+
+  /**
+   * Verifies that {@link BinaryMessageSource#skipTo} returns the first message whose sequence
+   * number is greater than or equal to the requested one, whether or not that message is in the
+   * index.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void skipToFindsFirstMessageAtOrAfterSequenceNumber() throws Exception {
+    final List<FissClaimChange> claims = createClaims(25);
+    final ByteSource bytes = writeStore(claims);
+
+    // before the first message
+    assertEquals(claims, readAll(BinaryMessageSource.fissSource(bytes).skipTo(0)));
+    // an indexed message (index holds every 4th message starting with the first)
+    assertEquals(claims.subList(8, 25), readAll(BinaryMessageSource.fissSource(bytes).skipTo(17)));
+    // a message between index entries
+    assertEquals(claims.subList(10, 25), readAll(BinaryMessageSource.fissSource(bytes).skipTo(21)));
+    // a sequence number between two messages
+    assertEquals(claims.subList(11, 25), readAll(BinaryMessageSource.fissSource(bytes).skipTo(22)));
+    // the last message
+    assertEquals(claims.subList(24, 25), readAll(BinaryMessageSource.fissSource(bytes).skipTo(49)));
+    // past the last message
+    assertFalse(BinaryMessageSource.fissSource(bytes).skipTo(50).hasNext());
+  }
+
+  /**
+   * Verifies that {@link BinaryMessageSource#skipTo} never moves backwards once messages have been
+   * read.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void skipToDoesNotMoveBackwards() throws Exception {
+    final List<FissClaimChange> claims = createClaims(10);
+    try (BinaryMessageSource<FissClaimChange> source =
+        BinaryMessageSource.fissSource(writeStore(claims))) {
+      assertEquals(claims.get(0), source.next());
+      assertEquals(claims.get(1), source.next());
+      source.skipTo(1);
+      assertEquals(claims.get(2), source.next());
+    }
+  }
+
+  /**
+   * Verifies that a store with no messages is valid and empty.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void emptyStoreHasNoMessages() throws Exception {
+    try (BinaryMessageSource<FissClaimChange> source =
+        BinaryMessageSource.fissSource(writeStore(List.of()))) {
+      assertEquals(0, source.getSequenceNumberRange().getLower());
+      assertEquals(0, source.getSequenceNumberRange().getUpper());
+      assertFalse(source.skipTo(10).hasNext());
+    }
+  }
+
+  /**
+   * Verifies that the writer rejects messages that are not in increasing sequence number order.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void writerRejectsMessagesOutOfOrder() throws Exception {
+    final List<FissClaimChange> claims = createClaims(2);
+    try (BinaryMessageWriter<FissClaimChange> writer =
+        BinaryMessageWriter.fissWriter(new ByteArrayOutputStream(), INDEX_INTERVAL)) {
+      writer.write(claims.get(1));
+      assertThrows(IllegalArgumentException.class, () -> writer.write(claims.get(0)));
+      assertThrows(IllegalArgumentException.class, () -> writer.write(claims.get(1)));
+    }
+  }
+
+  /** Verifies that data that is not a binary message store is rejected. */
+  @Test
+  void invalidStoreIsRejected() {
+    assertThrows(
+        IOException.class, () -> BinaryMessageSource.fissSource(ByteSource.wrap(new byte[10])));
+    assertThrows(
+        IOException.class, () -> BinaryMessageSource.fissSource(ByteSource.wrap(new byte[100])));
+  }
+
+  /**
+   * Creates random claims with odd sequence numbers so that tests can skip to sequence numbers that
+   * do not appear in the store.
+   *
+   * @param count number of claims to create
+   * @return the claims
+   */
+  private static List<FissClaimChange> createClaims(int count) {
+    final RandomFissClaimSource random = new RandomFissClaimSource(1, count);
+    final List<FissClaimChange> claims = new ArrayList<>();
+    for (int i = 0; i < count; ++i) {
+      claims.add(random.next().toBuilder().setSeq(2L * i + 1).build());
+    }
+    return claims;
+  }
+
+  /**
+   * Writes the claims to a new store.
+   *
+   * @param claims the claims to write
+   * @return the store
+   * @throws IOException pass through
+   */
+  private static ByteSource writeStore(List<FissClaimChange> claims) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BinaryMessageWriter<FissClaimChange> writer =
+        BinaryMessageWriter.fissWriter(out, INDEX_INTERVAL)) {
+      for (FissClaimChange claim : claims) {
+        writer.write(claim);
+      }
+      assertEquals(claims.size(), writer.getMessageCount());
+    }
+    return ByteSource.wrap(out.toByteArray());
+  }
+
+  /**
+   * Reads all remaining messages from the source and closes it.
+   *
+   * @param source the source to read
+   * @return the messages
+   * @throws Exception pass through
+   */
+  private static List<FissClaimChange> readAll(MessageSource<FissClaimChange> source)
+      throws Exception {
+    final List<FissClaimChange> messages = new ArrayList<>();
+    try (source) {
+      while (source.hasNext()) {
+        messages.add(source.next());
+      }
+    }
+    return messages;
+  }
+}
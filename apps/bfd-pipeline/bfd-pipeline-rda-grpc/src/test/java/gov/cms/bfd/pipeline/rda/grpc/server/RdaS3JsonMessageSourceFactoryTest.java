@@ -1,15 +1,55 @@
 package gov.cms.bfd.pipeline.rda.grpc.server;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import gov.cms.bfd.pipeline.sharedutils.s3.S3DirectoryDao;
+import gov.cms.mpsm.rda.v1.FissClaimChange;
+import gov.cms.mpsm.rda.v1.McsClaimChange;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 
 /** Tests the {@link RdaS3JsonMessageSourceFactory}. */
+@ExtendWith(MockitoExtension.class)
 public class RdaS3JsonMessageSourceFactoryTest {
+  /** Used to control which files are in S3 bucket during tests. */
+  @Mock private S3DirectoryDao s3Dao;
+
   /** Verifies that object keys are constructed correctly. */
   @Test
   public void testPathConstructionWithNoDirectory() {
     assertEquals("fiss.ndjson", RdaS3JsonMessageSourceFactory.createValidFissKeyForTesting());
     assertEquals("mcs.ndjson", RdaS3JsonMessageSourceFactory.createValidMcsKeyForTesting());
   }
+
+  /**
+   * Verifies that creating a source lists the bucket only once even though the listing is used both
+   * to choose between binary and NDJSON files and to find the files to read.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  public void testBucketListedOncePerSource() throws Exception {
+    doReturn(List.of("fiss-1-10.pb", "mcs-1-10.ndjson")).when(s3Dao).readFileNames();
+    var factory = new RdaS3JsonMessageSourceFactory(RdaService.Version.builder().build(), s3Dao);
+
+    try (MessageSource<FissClaimChange> source = factory.createFissMessageSource(20)) {
+      assertFalse(source.hasNext());
+    }
+    verify(s3Dao, times(1)).readFileNames();
+
+    try (MessageSource<McsClaimChange> source = factory.createMcsMessageSource(20)) {
+      assertFalse(source.hasNext());
+    }
+    verify(s3Dao, times(2)).readFileNames();
+    verify(s3Dao, never()).downloadFile(anyString());
+  }
 }
@@ -287,6 +287,51 @@ public class ClaimWriterTest {
     verifyNoMoreInteractions(sink);
   }
 
+  /**
+   * Verifies that already transformed messages are batched and written without being transformed
+   * again and that a failed transformation is passed through in a result.
+   *
+   * @throws Exception passed through if thrown during test
+   */
+  @Test
+  void shouldWriteTransformedMessagesWithoutTransformingThem() throws Exception {
+    final var transformError = new ProcessingException(new IOException("oops"), 0);
+
+    var seqNum = 100;
+    final var message1 = new ApiMessage<>("1", ++seqNum, ApiVersion, 1);
+    final var message2 = new ApiMessage<>("2", ++seqNum, ApiVersion, 2);
+    final var message3 = new ApiMessage<>("3", ++seqNum, ApiVersion, 3);
+    final var message4 = new ApiMessage<>("4", ++seqNum, ApiVersion, 4);
+
+    doReturn(3).when(sink).writeClaims(List.of(1L, 3L, 4L));
+
+    var result =
+        writer.processTransformedMessage(new TransformedMessage<Integer, Long>(message1, 1L, null));
+    assertEquals(Optional.empty(), result.blockOptional());
+
+    // failed transformation is reported and not buffered
+    result =
+        writer.processTransformedMessage(
+            new TransformedMessage<Integer, Long>(message2, null, transformError));
+    assertEquals(
+        Optional.of(new BatchResult<>(List.of(message2), transformError)), result.blockOptional());
+    assertFalse(writer.containsMessage(message2));
+
+    result =
+        writer.processTransformedMessage(new TransformedMessage<Integer, Long>(message3, 3L, null));
+    assertEquals(Optional.empty(), result.blockOptional());
+
+    result =
+        writer.processTransformedMessage(new TransformedMessage<Integer, Long>(message4, 4L, null));
+    assertEquals(
+        Optional.of(new BatchResult<>(List.of(message1, message3, message4), 3)),
+        result.blockOptional());
+    assertTrue(writer.isEmpty());
+
+    verify(sink).writeClaims(List.of(1L, 3L, 4L));
+    verifyNoMoreInteractions(sink);
+  }
+
   /**
    * Verifies that close closes the sink.
    *
@@ -1,6 +1,7 @@
 package gov.cms.bfd.pipeline.rda.grpc.sink.concurrent;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import gov.cms.bfd.pipeline.rda.grpc.ProcessingException;
@@ -8,6 +9,7 @@ import gov.cms.model.dsl.codegen.library.DataTransformer;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -97,6 +99,81 @@ public class ConcurrentRdaSinkIT {
     assertTrue(database.allClosed(), "all sinks closed");
   }
 
+  /**
+   * Tests that every claim is written in sequence number order when transformations finish out of
+   * order. Early versions of each claim take longer to transform than later ones so that, without
+   * per-claim ordering in the transform stage, a stale version would overwrite a newer one.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  public void testTransformPreservesPerClaimOrder() throws Exception {
+    final TestDatabase database = new TestDatabase();
+    final List<TestDatabase.Message> messages = new ArrayList<>();
+    final Map<String, Integer> versionCounts = new HashMap<>();
+    for (TestDatabase.Message message : createTestMessages()) {
+      int version = versionCounts.merge(message.getClaimId(), 1, Integer::sum);
+      messages.add(message.withTransformMillis(version <= 2 ? 2 : 0));
+    }
+    try (ConcurrentRdaSink<TestDatabase.Message, TestDatabase.Claim> pool =
+        new ConcurrentRdaSink<>(3, 8, 11, database::createSink, database::createSink)) {
+      for (List<TestDatabase.Message> messageList : createBatchesOfMessages(messages, 11)) {
+        pool.writeMessages(VERSION, messageList);
+      }
+    }
+    assertTrue(database.allClosed(), "all sinks closed");
+    assertEquals(0, database.getOutOfOrderWriteCount());
+    assertEquals(expectedClaims(messages), database.getClaims());
+    assertEquals(messages.size(), database.getLastSequenceNumber());
+  }
+
+  /**
+   * Tests that when transform-only sinks are used a transformation error is recorded by a writer's
+   * sink and processing continues with the remaining messages.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  public void testTransformOnlyFailureIsRecorded() throws Exception {
+    final TestDatabase database = new TestDatabase();
+    final List<TestDatabase.Message> messages = createTestMessages();
+    final TestDatabase.Message failed = messages.get(messages.size() - 1).withFailOnTransform(true);
+    messages.set(messages.size() - 1, failed);
+
+    try (ConcurrentRdaSink<TestDatabase.Message, TestDatabase.Claim> pool =
+        new ConcurrentRdaSink<>(5, 7, 9, database::createSink, database::createSink)) {
+      for (List<TestDatabase.Message> messageList : createBatchesOfMessages(messages, 9)) {
+        pool.writeMessages(VERSION, messageList);
+      }
+    }
+    assertTrue(database.allClosed(), "all sinks closed");
+    assertEquals(List.of(failed), database.getErrorMessages());
+    assertEquals(expectedClaims(messages.subList(0, messages.size() - 1)), database.getClaims());
+    assertEquals(messages.size(), database.getLastSequenceNumber());
+  }
+
+  /**
+   * Tests that {@link ConcurrentRdaSink#createSink} only returns the simple sink when both the
+   * writer and transform thread counts are one.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  public void testCreateSinkHonorsTransformThreads() throws Exception {
+    final TestDatabase database = new TestDatabase();
+    try (var sink =
+        ConcurrentRdaSink.createSink(
+            1, 1, 10, ignored -> database.createSink(), database::createSink)) {
+      assertFalse(sink instanceof ConcurrentRdaSink, "simple sink used");
+    }
+    try (var sink =
+        ConcurrentRdaSink.createSink(
+            1, 4, 10, ignored -> database.createSink(), database::createSink)) {
+      assertTrue(sink instanceof ConcurrentRdaSink, "concurrent sink used");
+    }
+    assertTrue(database.allClosed(), "all sinks closed");
+  }
+
   /**
    * Creates 10,000 test messages containing 10 versions each of 1,000 claims.
    *
@@ -3,6 +3,7 @@ package gov.cms.bfd.pipeline.rda.grpc.sink.concurrent;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
 import gov.cms.bfd.pipeline.rda.grpc.ProcessingException;
 import gov.cms.bfd.pipeline.rda.grpc.RdaSink;
 import gov.cms.model.dsl.codegen.library.DataTransformer;
@@ -17,6 +18,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.AllArgsConstructor;
 import lombok.Value;
@@ -31,6 +33,12 @@ public class TestDatabase {
   /** Map of all of the claims that have been written. Key is the claim id. */
   private final Map<String, Claim> claims = new TreeMap<>();
 
+  /** Messages recorded by {@link RdaSink#writeError}, simulating the message error table. */
+  private final List<Message> errorMessages = new ArrayList<>();
+
+  /** Number of times a claim was written after a later version of the same claim. */
+  private int outOfOrderWriteCount;
+
   /** Sequence number value simulating a progress table. */
   private long lastSequenceNumber;
 
@@ -63,6 +71,25 @@ public class TestDatabase {
     return ImmutableList.copyOf(claims.values());
   }
 
+  /**
+   * Gets an immutable list of all messages whose transformation errors have been recorded.
+   *
+   * @return the list of messages
+   */
+  public synchronized List<Message> getErrorMessages() {
+    return ImmutableList.copyOf(errorMessages);
+  }
+
+  /**
+   * Gets the number of times a claim was written after a later version of the same claim had
+   * already been written.
+   *
+   * @return the number of out of order writes
+   */
+  public synchronized int getOutOfOrderWriteCount() {
+    return outOfOrderWriteCount;
+  }
+
   /**
    * Verifies that all sinks have been closed.
    *
@@ -88,7 +115,19 @@ public class TestDatabase {
    * @param claim the claim to write
    */
   private synchronized void addClaim(Claim claim) {
-    claims.put(claim.getClaimId(), claim);
+    final Claim previous = claims.put(claim.getClaimId(), claim);
+    if (previous != null && previous.getSequenceNumber() > claim.getSequenceNumber()) {
+      outOfOrderWriteCount += 1;
+    }
+  }
+
+  /**
+   * Simulates writing a transformation error to the database by adding its message to our list.
+   *
+   * @param message the message that could not be transformed
+   */
+  private synchronized void addErrorMessage(Message message) {
+    errorMessages.add(message);
   }
 
   /** Simulated message object meant to be used in tests alongside {@link TestDatabase.Claim}. */
@@ -110,6 +149,9 @@ public class TestDatabase {
     /** When true attempts to write the claim to the database should throw an exception. */
     @With public boolean failOnWrite;
 
+    /** Number of milliseconds that attempts to transform the message into a claim take. */
+    @With public long transformMillis;
+
     /**
      * Constructs an instance.
      *
@@ -118,7 +160,7 @@ public class TestDatabase {
      * @param sequenceNumber the message sequence number
      */
     public Message(String claimId, String claimData, long sequenceNumber) {
-      this(claimId, claimData, sequenceNumber, false, false);
+      this(claimId, claimData, sequenceNumber, false, false, 0);
     }
 
     /**
@@ -200,9 +242,8 @@ public class TestDatabase {
     /** {@inheritDoc} */
     @Override
     public void writeError(
-        String apiVersion, Message message, DataTransformer.TransformationException exception)
-        throws ProcessingException {
-      throw new ProcessingException(new IllegalStateException("Error limit reached"), 0);
+        String apiVersion, Message message, DataTransformer.TransformationException exception) {
+      addErrorMessage(message);
     }
 
     @Override
@@ -226,6 +267,9 @@ public class TestDatabase {
     @Nonnull
     @Override
     public Optional<Claim> transformMessage(String apiVersion, Message message) {
+      if (message.getTransformMillis() > 0) {
+        Uninterruptibles.sleepUninterruptibly(message.getTransformMillis(), TimeUnit.MILLISECONDS);
+      }
       if (message.isFailOnTransform()) {
         throw new DataTransformer.TransformationException(
             "fail", Collections.singletonList(new DataTransformer.ErrorMessage("none", "fail")));
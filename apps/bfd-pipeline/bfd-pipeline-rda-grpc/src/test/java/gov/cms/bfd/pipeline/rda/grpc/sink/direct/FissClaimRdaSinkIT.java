@@ -153,6 +153,9 @@ public class FissClaimRdaSinkIT {
           assertEquals(claim.getProcCodes().size(), resultClaim.getProcCodes().size());
           assertEquals(claim.getDiagCodes().size(), resultClaim.getDiagCodes().size());
           assertEquals(claim.getAdmTypCd(), resultClaim.getAdmTypCd());
+          resultClaim
+              .getProcCodes()
+              .forEach(procCode -> assertEquals(now, procCode.getLastUpdated()));
 
           assertEquals(
               Optional.of(claim.getSequenceNumber()), sink.readMaxExistingSequenceNumber());
@@ -2,6 +2,7 @@ package gov.cms.bfd.pipeline.rda.grpc.sink.direct;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.spy;
@@ -78,6 +79,34 @@ public class MbiCacheIT {
     assertEquals(0, mbiCache.getMetrics().getTotalRetries());
   }
 
+  /**
+   * Verifies that a deferred cache returns records without a hash and that its database lookup is
+   * performed by the cache it was created from.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  public void deferredCacheDelegatesDatabaseLookup() throws Exception {
+    RdaPipelineTestUtils.runTestWithTemporaryDb(
+        Clock.systemUTC(),
+        (appState, transactionManager) -> {
+          final MbiCache mbiCache = MbiCache.computedCache(hashConfig, appMetrics);
+          final MbiCache deferredCache = mbiCache.deferred();
+          assertEquals(mbi1, deferredCache.lookupMbi(mbi1).getMbi());
+          assertNull(deferredCache.lookupMbi(mbi1).getHash());
+
+          final MbiCache databaseCache = deferredCache.withDatabaseLookup(transactionManager);
+          assertEquals(hash1, databaseCache.lookupMbi(mbi1).getHash());
+
+          Mbi databaseMbiEntity = RdaPipelineTestUtils.lookupCachedMbi(transactionManager, mbi1);
+          assertNotNull(databaseMbiEntity);
+          assertEquals(hash1, databaseMbiEntity.getHash());
+
+          assertEquals(1, mbiCache.getMetrics().getLookups());
+          assertEquals(1, mbiCache.getMetrics().getMisses());
+        });
+  }
+
   /**
    * Verifies that when the cache gets multiple requests for records that are not in the cache, they
    * is added to the cache and proper metrics are recorded for the cache misses.
@@ -139,6 +139,7 @@ public class McsClaimRdaSinkIT {
           rdaMcsDetail.ifPresent(
               mcsDetail ->
                   assertEquals(mcsDetail.getIdrDtlNdcUnitCount(), detail.getIdrDtlNdcUnitCount()));
+          rdaMcsDetail.ifPresent(mcsDetail -> assertEquals(now, mcsDetail.getLastUpdated()));
 
           assertEquals(
               Optional.of(claim.getSequenceNumber()), sink.readMaxExistingSequenceNumber());
@@ -282,12 +282,14 @@ public class FissClaimTransformerTest {
     claim.setAdmTypCd("3");
     RdaFissProcCode code = new RdaFissProcCode();
     code.setClaimId(EXPECTED_CLAIM_ID);
+    code.setLastUpdated(clock.instant());
     code.setRdaPosition((short) 1);
     code.setProcCode("code-1");
     code.setProcFlag("fl-1");
     claim.getProcCodes().add(code);
     code = new RdaFissProcCode();
     code.setClaimId(EXPECTED_CLAIM_ID);
+    code.setLastUpdated(clock.instant());
     code.setRdaPosition((short) 2);
     code.setProcCode("code-2");
     code.setProcFlag("fl-2");
@@ -344,6 +346,7 @@ public class FissClaimTransformerTest {
     claim.setAdmTypCd("3");
     RdaFissDiagnosisCode code = new RdaFissDiagnosisCode();
     code.setClaimId(EXPECTED_CLAIM_ID);
+    code.setLastUpdated(clock.instant());
     code.setRdaPosition((short) 1);
     code.setDiagCd2("");
     code.setDiagPoaInd("W");
@@ -351,6 +354,7 @@ public class FissClaimTransformerTest {
     claim.getDiagCodes().add(code);
     code = new RdaFissDiagnosisCode();
     code.setClaimId(EXPECTED_CLAIM_ID);
+    code.setLastUpdated(clock.instant());
     code.setRdaPosition((short) 2);
     code.setDiagCd2("code-2");
     code.setDiagPoaInd("N");
@@ -421,6 +425,7 @@ public class FissClaimTransformerTest {
     claim.setAdmTypCd("3");
     RdaFissPayer payer = new RdaFissPayer();
     payer.setClaimId(EXPECTED_CLAIM_ID);
+    payer.setLastUpdated(clock.instant());
     payer.setRdaPosition((short) 1);
     payer.setPayerType(RdaFissPayer.PayerType.Insured);
     payer.setPayersId("H");
@@ -509,6 +514,7 @@ public class FissClaimTransformerTest {
     claim.setAdmTypCd("3");
     RdaFissPayer payer = new RdaFissPayer();
     payer.setClaimId(EXPECTED_CLAIM_ID);
+    payer.setLastUpdated(clock.instant());
     payer.setRdaPosition((short) 1);
     payer.setPayerType(RdaFissPayer.PayerType.BeneZ);
     payer.setPayersId("H");
@@ -575,6 +581,7 @@ public class FissClaimTransformerTest {
     claim.setAdmTypCd("3");
     RdaFissAuditTrail auditTrail = new RdaFissAuditTrail();
     auditTrail.setClaimId(EXPECTED_CLAIM_ID);
+    auditTrail.setLastUpdated(clock.instant());
     auditTrail.setRdaPosition((short) 1);
     auditTrail.setBadtStatus("M");
     auditTrail.setBadtLoc("1");
@@ -642,6 +649,7 @@ public class FissClaimTransformerTest {
     claim.setAdmTypCd("3");
     RdaFissRevenueLine revenueLine = new RdaFissRevenueLine();
     revenueLine.setClaimId(EXPECTED_CLAIM_ID);
+    revenueLine.setLastUpdated(clock.instant());
     revenueLine.setRdaPosition((short) 1);
     revenueLine.setNonBillRevCode("E");
     revenueLine.setRevCd("abcd");
@@ -214,6 +214,7 @@ public class McsClaimTransformerTest {
     claim.setLastUpdated(clock.instant());
     final RdaMcsDetail detail = new RdaMcsDetail();
     detail.setIdrClmHdIcn(claim.getIdrClmHdIcn());
+    detail.setLastUpdated(clock.instant());
     detail.setIdrDtlNumber((short) 0);
     detail.setIdrDtlStatus("F");
     detail.setIdrDtlFromDate(LocalDate.of(2020, 1, 9));
@@ -284,12 +285,14 @@ public class McsClaimTransformerTest {
     claim.setLastUpdated(clock.instant());
     RdaMcsDiagnosisCode diagCode = new RdaMcsDiagnosisCode();
     diagCode.setIdrClmHdIcn(claim.getIdrClmHdIcn());
+    diagCode.setLastUpdated(clock.instant());
     diagCode.setRdaPosition((short) 1);
     diagCode.setIdrDiagIcdType("9");
     diagCode.setIdrDiagCode("1234567");
     claim.getDiagCodes().add(diagCode);
     diagCode = new RdaMcsDiagnosisCode();
     diagCode.setIdrClmHdIcn(claim.getIdrClmHdIcn());
+    diagCode.setLastUpdated(clock.instant());
     diagCode.setRdaPosition((short) 2);
     diagCode.setIdrDiagIcdType("0");
     diagCode.setIdrDiagCode("jdsyejs");
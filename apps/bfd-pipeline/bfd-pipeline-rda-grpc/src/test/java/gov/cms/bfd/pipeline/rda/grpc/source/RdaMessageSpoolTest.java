@@ -0,0 +1,263 @@
+package gov.cms.bfd.pipeline.rda.grpc.source;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for {@link RdaMessageSpool}. */
+public class RdaMessageSpoolTest {
+  /** Segment size small enough that a few messages fill a segment. */
+  private static final int SEGMENT_SIZE = 64;
+
+  /** Directory holding the spool's segment files. */
+  @TempDir Path directory;
+
+  /**
+   * Verifies that appended messages are read back in order, that a message that does not fit in the
+   * active segment starts a new one, and that polling an empty spool times out.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void appendedMessagesAreReadInOrderAcrossSegments() throws Exception {
+    try (RdaMessageSpool spool = new RdaMessageSpool(directory, SEGMENT_SIZE)) {
+      assertEquals(Optional.empty(), spool.getLastSequenceNumber());
+      for (long seq = 1; seq <= 10; ++seq) {
+        spool.append(seq, payload(seq));
+      }
+      assertTrue(spool.getSegmentCount() > 1);
+      assertEquals(Optional.of(10L), spool.getLastSequenceNumber());
+      for (long seq = 1; seq <= 10; ++seq) {
+        assertMessage(seq, spool.poll(Duration.ZERO));
+      }
+      assertNull(spool.poll(Duration.ofMillis(10)));
+    }
+  }
+
+  /**
+   * Verifies that a message larger than the segment size gets a segment of its own.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void largeMessageGetsItsOwnSegment() throws Exception {
+    final byte[] large = new byte[SEGMENT_SIZE * 3];
+    large[large.length - 1] = 1;
+    try (RdaMessageSpool spool = new RdaMessageSpool(directory, SEGMENT_SIZE)) {
+      spool.append(1, payload(1));
+      spool.append(2, large);
+      spool.append(3, payload(3));
+      assertMessage(1, spool.poll(Duration.ZERO));
+      final var message = spool.poll(Duration.ZERO);
+      assertEquals(2, message.getSequenceNumber());
+      assertArrayEquals(large, message.getPayload());
+      assertMessage(3, spool.poll(Duration.ZERO));
+    }
+  }
+
+  /**
+   * Verifies that segments are only deleted once they have been read and all of their sequence
+   * numbers have been committed.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void truncateOnlyDeletesReadAndCommittedSegments() throws Exception {
+    try (RdaMessageSpool spool = new RdaMessageSpool(directory, SEGMENT_SIZE)) {
+      for (long seq = 1; seq <= 10; ++seq) {
+        spool.append(seq, payload(seq));
+      }
+      final int segmentCount = spool.getSegmentCount();
+      assertFalse(spool.hasReadSegments());
+      assertEquals(0, spool.truncate(10));
+
+      for (long seq = 1; seq <= 10; ++seq) {
+        assertMessage(seq, spool.poll(Duration.ZERO));
+      }
+      assertTrue(spool.hasReadSegments());
+      assertEquals(0, spool.truncate(0));
+      assertEquals(segmentCount, spool.getSegmentCount());
+
+      // the active segment is never deleted
+      final int deleted = spool.truncate(10);
+      assertEquals(segmentCount - 1, deleted);
+      assertEquals(1, spool.getSegmentCount());
+      assertFalse(spool.hasReadSegments());
+    }
+  }
+
+  /**
+   * Verifies that messages spooled by a previous run are recovered and can be replayed, and that
+   * new appends follow them.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void messagesAreRecoveredWhenReopened() throws Exception {
+    try (RdaMessageSpool spool = new RdaMessageSpool(directory, SEGMENT_SIZE)) {
+      for (long seq = 1; seq <= 5; ++seq) {
+        spool.append(seq, payload(seq));
+      }
+      assertMessage(1, spool.poll(Duration.ZERO));
+    }
+    try (RdaMessageSpool spool = new RdaMessageSpool(directory, SEGMENT_SIZE)) {
+      assertEquals(Optional.of(5L), spool.getLastSequenceNumber());
+      spool.append(6, payload(6));
+      for (long seq = 1; seq <= 6; ++seq) {
+        assertMessage(seq, spool.poll(Duration.ZERO));
+      }
+      assertNull(spool.poll(Duration.ZERO));
+    }
+  }
+
+  /**
+   * Verifies that a waiting reader receives a message appended by another thread.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void pollWaitsForAppend() throws Exception {
+    try (RdaMessageSpool spool = new RdaMessageSpool(directory, SEGMENT_SIZE)) {
+      final Thread writer =
+          new Thread(
+              () -> {
+                try {
+                  Thread.sleep(50);
+                  spool.append(1, payload(1));
+                } catch (InterruptedException | IOException ex) {
+                  throw new RuntimeException(ex);
+                }
+              });
+      writer.start();
+      assertMessage(1, spool.poll(Duration.ofSeconds(10)));
+      writer.join();
+    }
+  }
+
+  /**
+   * Verifies that an append that would take the unread bytes past the cap blocks until the reader
+   * polls a message, and that the first message is accepted even when it alone exceeds the cap.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void appendBlocksWhenUnreadBytesReachCap() throws Exception {
+    final long cap = payload(2).length + 12;
+    try (RdaMessageSpool spool = new RdaMessageSpool(directory, SEGMENT_SIZE, cap)) {
+      spool.append(1, new byte[SEGMENT_SIZE]);
+      assertEquals(1, spool.poll(Duration.ZERO).getSequenceNumber());
+      assertEquals(0, spool.getUnreadBytes());
+
+      spool.append(2, payload(2));
+      final CountDownLatch appended = new CountDownLatch(1);
+      final Thread writer =
+          new Thread(
+              () -> {
+                try {
+                  spool.append(3, payload(3));
+                  appended.countDown();
+                } catch (InterruptedException | IOException ex) {
+                  throw new RuntimeException(ex);
+                }
+              });
+      writer.start();
+      assertFalse(appended.await(100, TimeUnit.MILLISECONDS));
+
+      assertMessage(2, spool.poll(Duration.ZERO));
+      assertTrue(appended.await(10, TimeUnit.SECONDS));
+      writer.join();
+      assertMessage(3, spool.poll(Duration.ZERO));
+      assertEquals(0, spool.getUnreadBytes());
+    }
+  }
+
+  /**
+   * Verifies that closing the spool wakes an append blocked on the cap and that the append then
+   * fails.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void closeWakesBlockedAppend() throws Exception {
+    final AtomicReference<Exception> error = new AtomicReference<>();
+    final RdaMessageSpool spool =
+        new RdaMessageSpool(directory, SEGMENT_SIZE, payload(1).length + 12);
+    spool.append(1, payload(1));
+    final Thread writer =
+        new Thread(
+            () -> {
+              try {
+                spool.append(2, payload(2));
+              } catch (Exception ex) {
+                error.set(ex);
+              }
+            });
+    writer.start();
+    Thread.sleep(50);
+    spool.close();
+    writer.join(10_000);
+
+    assertFalse(writer.isAlive());
+    assertInstanceOf(IllegalStateException.class, error.get());
+    assertMessage(1, spool.poll(Duration.ZERO));
+  }
+
+  /**
+   * Verifies that {@link RdaMessageSpool#deleteSegments} removes spooled messages so that a new
+   * spool in the same directory starts out empty.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void deleteSegmentsDiscardsSpooledMessages() throws Exception {
+    assertEquals(0, RdaMessageSpool.deleteSegments(directory.resolve("missing")));
+    int segmentCount;
+    try (RdaMessageSpool spool = new RdaMessageSpool(directory, SEGMENT_SIZE)) {
+      for (long seq = 1; seq <= 10; ++seq) {
+        spool.append(seq, payload(seq));
+      }
+      segmentCount = spool.getSegmentCount();
+    }
+
+    assertEquals(segmentCount, RdaMessageSpool.deleteSegments(directory));
+    try (RdaMessageSpool spool = new RdaMessageSpool(directory, SEGMENT_SIZE)) {
+      assertEquals(Optional.empty(), spool.getLastSequenceNumber());
+      assertNull(spool.poll(Duration.ZERO));
+    }
+  }
+
+  /**
+   * Creates a distinct payload for a sequence number.
+   *
+   * @param seq the sequence number
+   * @return the payload
+   */
+  private static byte[] payload(long seq) {
+    return ("message-" + seq).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Verifies that a message has the given sequence number and its payload.
+   *
+   * @param expectedSeq the expected sequence number
+   * @param message the message read from the spool
+   */
+  private static void assertMessage(long expectedSeq, RdaMessageSpool.SpooledMessage message) {
+    assertEquals(expectedSeq, message.getSequenceNumber());
+    assertArrayEquals(payload(expectedSeq), message.getPayload());
+  }
+}
@@ -27,6 +27,7 @@ import io.grpc.StatusRuntimeException;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.annotation.Nonnull;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -37,6 +38,7 @@ import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /** Integration test for the {@link StandardGrpcRdaSource}. */
 public class StandardGrpcRdaSourceIT {
@@ -172,22 +174,26 @@ public class StandardGrpcRdaSourceIT {
           + "  \"principleDiag\" : \"uec\",\n"
           + "  \"procCodes\" : [ {\n"
           + "    \"claimId\" : \"NjM4NDM0NzBpZA\",\n"
+          + "    \"lastUpdated\" : \"2021-06-03T18:02:37Z\",\n"
           + "    \"procCode\" : \"egkkkw\",\n"
           + "    \"procDate\" : \"2021-02-03\",\n"
           + "    \"procFlag\" : \"hsw\",\n"
           + "    \"rdaPosition\" : 2\n"
           + "  }, {\n"
           + "    \"claimId\" : \"NjM4NDM0NzBpZA\",\n"
+          + "    \"lastUpdated\" : \"2021-06-03T18:02:37Z\",\n"
           + "    \"procCode\" : \"ods\",\n"
           + "    \"procDate\" : \"2021-01-03\",\n"
           + "    \"rdaPosition\" : 4\n"
           + "  }, {\n"
           + "    \"claimId\" : \"NjM4NDM0NzBpZA\",\n"
+          + "    \"lastUpdated\" : \"2021-06-03T18:02:37Z\",\n"
           + "    \"procCode\" : \"uec\",\n"
           + "    \"procFlag\" : \"nli\",\n"
           + "    \"rdaPosition\" : 1\n"
           + "  }, {\n"
           + "    \"claimId\" : \"NjM4NDM0NzBpZA\",\n"
+          + "    \"lastUpdated\" : \"2021-06-03T18:02:37Z\",\n"
           + "    \"procCode\" : \"zhaj\",\n"
           + "    \"procDate\" : \"2021-01-07\",\n"
           + "    \"rdaPosition\" : 3\n"
@@ -228,16 +234,19 @@ public class StandardGrpcRdaSourceIT {
           + "  \"principleDiag\" : \"egnj\",\n"
           + "  \"procCodes\" : [ {\n"
           + "    \"claimId\" : \"MjY0MzYwMmlk\",\n"
+          + "    \"lastUpdated\" : \"2021-06-03T18:02:37Z\",\n"
           + "    \"procCode\" : \"egnj\",\n"
           + "    \"procDate\" : \"2021-05-13\",\n"
           + "    \"rdaPosition\" : 1\n"
           + "  }, {\n"
           + "    \"claimId\" : \"MjY0MzYwMmlk\",\n"
+          + "    \"lastUpdated\" : \"2021-06-03T18:02:37Z\",\n"
           + "    \"procCode\" : \"fipyd\",\n"
           + "    \"procFlag\" : \"g\",\n"
           + "    \"rdaPosition\" : 3\n"
           + "  }, {\n"
           + "    \"claimId\" : \"MjY0MzYwMmlk\",\n"
+          + "    \"lastUpdated\" : \"2021-06-03T18:02:37Z\",\n"
           + "    \"procCode\" : \"vvqtwoz\",\n"
           + "    \"procDate\" : \"2021-04-29\",\n"
           + "    \"rdaPosition\" : 2\n"
@@ -306,6 +315,42 @@ public class StandardGrpcRdaSourceIT {
             });
   }
 
+  /**
+   * Verifies that claims pass through the spool to the sink unchanged when spooling is enabled,
+   * with an unread bytes cap small enough that receiving has to wait for the sink, and that the
+   * spool segments are left in the claim type's spool directory.
+   *
+   * @param spoolDirectory directory in which messages are spooled
+   * @throws Exception pass through if test fails
+   */
+  @Test
+  public void grpcCallWithSpooling(@TempDir Path spoolDirectory) throws Exception {
+    createServerConfig()
+        .build()
+        .runWithPortParam(
+            port -> {
+              int count;
+              RdaSourceConfig config =
+                  createSourceConfig(port)
+                      .spoolDirectory(spoolDirectory)
+                      .spoolSegmentSize(1_024)
+                      .spoolMaxUnreadBytes(1_024L)
+                      .build();
+              try (StandardGrpcRdaSource<FissClaimChange, RdaChange<RdaFissClaim>> source =
+                  createSource(config)) {
+                count = source.retrieveAndProcessObjects(1, sink);
+              }
+              assertEquals(2, count);
+              assertEquals(2, sink.getValues().size());
+              assertEquals(EXPECTED_CLAIM_1, sink.getValues().get(0));
+              assertEquals(EXPECTED_CLAIM_2, sink.getValues().get(1));
+              try (RdaMessageSpool spool =
+                  new RdaMessageSpool(spoolDirectory.resolve("fiss"), 1_024)) {
+                assertEquals(Optional.of(2L), spool.getLastSequenceNumber());
+              }
+            });
+  }
+
   /**
    * Verifies that a GRPC call with an auth token required and supplied can successfully return
    * claims.
@@ -10,6 +10,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.intThat;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
@@ -23,6 +24,7 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.google.common.base.Throwables;
+import com.google.common.primitives.Ints;
 import gov.cms.bfd.pipeline.rda.grpc.ProcessingException;
 import gov.cms.bfd.pipeline.rda.grpc.RdaChange;
 import gov.cms.bfd.pipeline.rda.grpc.RdaSink;
@@ -35,6 +37,7 @@ import io.grpc.StatusRuntimeException;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -49,6 +52,7 @@ import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -335,6 +339,53 @@ public class StandardGrpcRdaSourceTest {
     verify(sink, times(0)).readMaxExistingSequenceNumber();
   }
 
+  /**
+   * Verify that a starting sequence number defined in the config is honored when spooling is
+   * enabled even though the spool holds messages from a previous run with higher sequence numbers,
+   * and that those messages are discarded rather than replayed.
+   *
+   * @param spoolDirectory directory holding the spool's segment files
+   * @throws Exception required in signature because tested method has checked exceptions
+   */
+  @Test
+  public void testConfiguredSequenceNumberDiscardsSpooledMessages(@TempDir Path spoolDirectory)
+      throws Exception {
+    try (RdaMessageSpool spool = new RdaMessageSpool(spoolDirectory, 1_024)) {
+      spool.append(DATABASE_SEQUENCE_NUMBER, Ints.toByteArray(CLAIM_5));
+    }
+    source =
+        spy(
+            new StandardGrpcRdaSource<>(
+                clock,
+                channel,
+                caller,
+                () -> CallOptions.DEFAULT,
+                appMetrics,
+                "ints",
+                Optional.of(CONFIGURED_SEQUENCE_NUMBER),
+                MIN_IDLE_MILLIS_BEFORE_CONNECTION_DROP,
+                SEQUENCE_RANGE_UPDATE_INTERVAL_SECONDS,
+                RdaSourceConfig.ServerType.Remote,
+                rdaVersion,
+                spoolDirectory,
+                1_024,
+                1_024));
+    doAnswer(i -> Ints.toByteArray(i.getArgument(0))).when(caller).serializeMessage(any());
+    doAnswer(i -> Ints.fromByteArray(i.getArgument(0))).when(caller).parseMessage(any());
+    doReturn(CONFIGURED_SEQUENCE_NUMBER).when(sink).getSequenceNumberForObject(CLAIM_1);
+    doReturn(createResponse(CLAIM_1))
+        .when(caller)
+        .callService(channel, CallOptions.DEFAULT, CONFIGURED_SEQUENCE_NUMBER - 1);
+    doReturn(1).when(sink).writeMessages(VERSION, List.of(CLAIM_1));
+
+    final int result = source.retrieveAndProcessObjects(2, sink);
+    assertEquals(1, result);
+    assertMeterReading(1, "received", source.getMetrics().getObjectsReceived());
+    assertMeterReading(1, "stored", source.getMetrics().getObjectsStored());
+    verify(caller).callService(channel, CallOptions.DEFAULT, CONFIGURED_SEQUENCE_NUMBER - 1);
+    verify(sink, times(0)).writeMessages(VERSION, List.of(CLAIM_5));
+  }
+
   /**
    * Verify that a {@link ProcessingException} thrown by {@link GrpcStreamCaller} triggers a
    * shutdown and is passed through in a new ProcessingException with updated count.
@@ -116,6 +116,53 @@ public class CleanupTestUtils {
         });
   }
 
+  /**
+   * Writes a single Fiss claim, along with its lines, that was last updated at the given time.
+   *
+   * @param claimId the claimId to set.
+   * @param lastUpdated the lastUpdated to set.
+   */
+  public void seedClaim(String claimId, Instant lastUpdated) {
+    transactionManager.executeProcedure(
+        entityManager -> {
+          Mbi mbi =
+              entityManager.merge(Mbi.builder().mbi(MBI).hash(MBI_HASH).lastUpdated(now()).build());
+          entityManager.merge(createFissClaimForDate(claimId, mbi, lastUpdated, "test"));
+        });
+  }
+
+  /**
+   * Generate and execute a query that returns the count of RdaFissPayer entities of a claim.
+   *
+   * @param claimId the claimId of the claim.
+   * @return the count of RdaFissPayer entities.
+   */
+  public long countPayers(String claimId) {
+    return transactionManager.executeFunction(
+        entityManager ->
+            entityManager
+                .createQuery(
+                    "select count(*) from RdaFissPayer p where p.claimId = :claimId", Long.class)
+                .setParameter("claimId", claimId)
+                .getSingleResult());
+  }
+
+  /**
+   * Determines whether a table, such as a partition of one of the claim tables, exists.
+   *
+   * @param tableName the schema qualified table name.
+   * @return true if the table exists.
+   */
+  public boolean tableExists(String tableName) {
+    return transactionManager.executeFunction(
+        entityManager ->
+            (Boolean)
+                entityManager
+                    .createNativeQuery("select to_regclass(:tableName) is not null")
+                    .setParameter("tableName", tableName)
+                    .getSingleResult());
+  }
+
   /**
    * Generate and execute a query that returns the count of RdaFissClaim entities.
    *
@@ -203,6 +250,7 @@ public class CleanupTestUtils {
         Set.of(
             RdaFissProcCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(lastUpdated)
                 .rdaPosition((short) 1)
                 .procCode("CODEABC")
                 .procFlag("FLAG")
@@ -210,6 +258,7 @@ public class CleanupTestUtils {
                 .build(),
             RdaFissProcCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(lastUpdated)
                 .rdaPosition((short) 2)
                 .procCode("CODECBA")
                 .procFlag("FLA2")
@@ -219,18 +268,21 @@ public class CleanupTestUtils {
         Set.of(
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(lastUpdated)
                 .rdaPosition((short) 1)
                 .diagCd2("admitcd")
                 .diagPoaInd("Z")
                 .build(),
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(lastUpdated)
                 .rdaPosition((short) 2)
                 .diagCd2("other")
                 .diagPoaInd("U")
                 .build(),
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(lastUpdated)
                 .rdaPosition((short) 3)
                 .diagCd2("princcd")
                 .diagPoaInd("n")
@@ -240,6 +292,7 @@ public class CleanupTestUtils {
         Set.of(
             RdaFissPayer.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(lastUpdated)
                 .rdaPosition((short) 1)
                 .beneFirstName("jim")
                 .beneMidInit("k")
@@ -251,6 +304,7 @@ public class CleanupTestUtils {
                 .build(),
             RdaFissPayer.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(lastUpdated)
                 .rdaPosition((short) 2)
                 .insuredName("BAKER  JIM  K")
                 .payerType(RdaFissPayer.PayerType.Insured)
@@ -261,6 +315,7 @@ public class CleanupTestUtils {
         Set.of(
             RdaFissRevenueLine.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(lastUpdated)
                 .rdaPosition((short) 1)
                 .serviceDate(LocalDate.of(1980, 12, 5))
                 .serviceDateText("1980-12-05")
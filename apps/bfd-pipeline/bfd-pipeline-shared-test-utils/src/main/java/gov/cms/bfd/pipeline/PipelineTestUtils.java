@@ -13,6 +13,7 @@ import gov.cms.bfd.model.rif.RifFilesEvent;
 import gov.cms.bfd.model.rif.entities.Beneficiary;
 import gov.cms.bfd.model.rif.entities.BeneficiaryHistory;
 import gov.cms.bfd.model.rif.entities.BeneficiaryMonthly;
+import gov.cms.bfd.model.rif.entities.BeneficiaryPartDContractMonth;
 import gov.cms.bfd.model.rif.entities.CarrierClaim;
 import gov.cms.bfd.model.rif.entities.CarrierClaimLine;
 import gov.cms.bfd.model.rif.entities.DMEClaim;
@@ -164,6 +165,7 @@ public final class PipelineTestUtils {
             CarrierClaim.class,
             BeneficiaryHistory.class,
             BeneficiaryMonthly.class,
+            BeneficiaryPartDContractMonth.class,
             Beneficiary.class,
             LoadedBatch.class,
             LoadedFile.class,
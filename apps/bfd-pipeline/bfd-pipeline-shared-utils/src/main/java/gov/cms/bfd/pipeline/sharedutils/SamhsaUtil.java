@@ -452,12 +452,14 @@ public class SamhsaUtil {
       mcsTags.add(
           McsTag.builder()
               .claim(mcsClaim.getIdrClmHdIcn())
+              .lastUpdated(mcsClaim.getLastUpdated())
               .code(TagCode._42CFRPart2.toString())
               .details(entries.get())
               .build());
       mcsTags.add(
           McsTag.builder()
               .claim(mcsClaim.getIdrClmHdIcn())
+              .lastUpdated(mcsClaim.getLastUpdated())
               .code(TagCode.R.toString())
               .details(entries.get())
               .build());
@@ -479,12 +481,14 @@ public class SamhsaUtil {
       fissTags.add(
           FissTag.builder()
               .claim(fissClaim.getClaimId())
+              .lastUpdated(fissClaim.getLastUpdated())
               .code(TagCode._42CFRPart2.toString())
               .details(entries.get())
               .build());
       fissTags.add(
           FissTag.builder()
               .claim(fissClaim.getClaimId())
+              .lastUpdated(fissClaim.getLastUpdated())
               .code(TagCode.R.toString())
               .details(entries.get())
               .build());
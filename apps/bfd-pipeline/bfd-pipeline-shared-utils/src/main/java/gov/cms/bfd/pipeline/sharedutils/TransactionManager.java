@@ -8,8 +8,10 @@ import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import java.security.SecureRandom;
+import java.sql.Statement;
 import java.util.function.Predicate;
 import lombok.Data;
+import org.hibernate.Session;
 import org.hibernate.exception.ConstraintViolationException;
 
 /**
@@ -145,6 +147,35 @@ public class TransactionManager implements AutoCloseable {
     executeFunction(procedureLogic::executeAsFunction);
   }
 
+  /**
+   * Executes a SQL statement outside of any transaction using a connection in auto-commit mode.
+   * Only needed for statements that PostgreSQL refuses to run inside a transaction block, such as
+   * {@code ALTER TABLE ... DETACH PARTITION ... CONCURRENTLY}. The connection's auto-commit setting
+   * is restored afterwards. If the statement fails the current {@link EntityManager} is closed.
+   *
+   * @param sql the statement to execute
+   */
+  public synchronized void executeStatementWithoutTransaction(String sql) {
+    final var entityManager = getOrCreateEntityManager();
+    try {
+      entityManager
+          .unwrap(Session.class)
+          .doWork(
+              connection -> {
+                final boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                  statement.execute(sql);
+                } finally {
+                  connection.setAutoCommit(autoCommit);
+                }
+              });
+    } catch (RuntimeException exception) {
+      closeEntityManager(exception);
+      throw exception;
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public synchronized void close() {
@@ -1,20 +1,26 @@
 package gov.cms.bfd.pipeline.sharedutils.npi_fda;
 
+import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.Query;
 import java.io.BufferedReader;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.sql.Date;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import javax.sql.DataSource;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
@@ -32,6 +38,15 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
   /** How often to run the job, in days. */
   int runInterval;
 
+  /**
+   * When not null the table is replaced using a {@link StagingTableLoader} with connections from
+   * this source rather than by merging each record using {@link #entityManager}.
+   */
+  @Nullable private final DataSource copyDataSource;
+
+  /** Number of writer threads to use when {@link #copyDataSource} is not null. */
+  private final int copyThreads;
+
   /** The table name; will be fda_data or npi_data. */
   private final String tableName;
 
@@ -42,12 +57,12 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
   /** Query for saving the lastUpdated of the table. */
   private static final String SAVE_LAST_UPDATED_QUERY =
       """
-                INSERT INTO ccw.npi_fda_meta (table_name, last_updated)
-                VALUES(:tableName, :lastUpdated)
-                ON CONFLICT (table_name)
-                DO UPDATE SET
-                last_updated = :lastUpdated
-             """;
+         INSERT INTO ccw.npi_fda_meta (table_name, last_updated)
+         VALUES(:tableName, :lastUpdated)
+         ON CONFLICT (table_name)
+         DO UPDATE SET
+         last_updated = :lastUpdated
+      """;
 
   private final Logger LOGGER;
   private final String delimiter;
@@ -60,8 +75,30 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
    */
   abstract Integer persistResource() throws IOException;
 
+  /**
+   * Applies incremental updates to the table when a full load is not due. The default
+   * implementation does not support incremental updates.
+   *
+   * @return Total number of records saved, or empty if incremental updates are not supported.
+   * @throws IOException (any errors encountered will be bubbled up)
+   */
+  Optional<Integer> persistUpdates() throws IOException {
+    return Optional.empty();
+  }
+
   abstract boolean resolveFileName(String name);
 
+  /**
+   * Determines if a CSV record in an update file indicates that the record should be deleted. The
+   * default implementation never deletes records.
+   *
+   * @param csvRecord The CSV record with the data.
+   * @return true if the record should be deleted.
+   */
+  boolean isDeleted(CSVRecord csvRecord) {
+    return false;
+  }
+
   /**
    * Streams the zip file and calls a method to create the records.
    *
@@ -71,19 +108,28 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
    * @throws IllegalStateException if there is an issue with the file
    */
   Integer downloadDataFile(String fileName) throws IOException, IllegalStateException {
-    String version = getClass().getPackage().getImplementationVersion();
-    // download the file
-    URL ndctextZipUrl = new URL(fileName);
-    HttpURLConnection connection = (HttpURLConnection) ndctextZipUrl.openConnection();
-    connection.setRequestProperty(
-        "User-Agent", String.format("BFD/%s (Beneficiary FHIR Data Server)", version));
+    return downloadDataFile(fileName, this::saveDataFile);
+  }
 
+  /**
+   * Streams the zip file and passes the data file it contains to a {@link DataFileSaver}.
+   *
+   * @param fileName the output file/resource to produce
+   * @param saver saves the records in the data file
+   * @return Total number of records saved.
+   * @throws FileNotFoundException if the server does not have the file
+   * @throws IOException (any errors encountered will be bubbled up)
+   * @throws IllegalStateException if there is an issue with the file
+   */
+  Integer downloadDataFile(String fileName, DataFileSaver saver)
+      throws IOException, IllegalStateException {
+    HttpURLConnection connection = openConnection(fileName);
     try (ZipInputStream zipInputStream = new ZipInputStream(connection.getInputStream())) {
       ZipEntry entry;
       while ((entry = zipInputStream.getNextEntry()) != null) {
         if (resolveFileName(entry.getName())) {
           InputStreamReader ir = new InputStreamReader(zipInputStream);
-          return saveDataFile(ir);
+          return saver.save(ir);
         }
         zipInputStream.closeEntry();
       }
@@ -91,6 +137,39 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
     throw new IllegalStateException("No DataFile file found");
   }
 
+  /**
+   * Determines if the server has a file without downloading it.
+   *
+   * @param fileName the file's URL
+   * @return true if the file exists
+   * @throws IOException (any errors encountered will be bubbled up)
+   */
+  boolean dataFileExists(String fileName) throws IOException {
+    HttpURLConnection connection = openConnection(fileName);
+    try {
+      connection.setRequestMethod("HEAD");
+      return connection.getResponseCode() == HttpURLConnection.HTTP_OK;
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  /**
+   * Opens a connection to download a file.
+   *
+   * @param fileName the file's URL
+   * @return the connection
+   * @throws IOException (any errors encountered will be bubbled up)
+   */
+  private HttpURLConnection openConnection(String fileName) throws IOException {
+    String version = getClass().getPackage().getImplementationVersion();
+    URL ndctextZipUrl = new URL(fileName);
+    HttpURLConnection connection = (HttpURLConnection) ndctextZipUrl.openConnection();
+    connection.setRequestProperty(
+        "User-Agent", String.format("BFD/%s (Beneficiary FHIR Data Server)", version));
+    return connection;
+  }
+
   /**
    * Converts a CSV record to an entity.
    *
@@ -99,6 +178,22 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
    */
   abstract TData getDataFromCsv(CSVRecord csvRecord);
 
+  /**
+   * Gets the table columns in the order returned by {@link #getColumnValues}. The first column must
+   * be the table's primary key.
+   *
+   * @return the column names
+   */
+  abstract List<String> getColumnNames();
+
+  /**
+   * Gets the column values of an entity for use with {@code COPY}.
+   *
+   * @param data the entity
+   * @return the values in the same order as {@link #getColumnNames}
+   */
+  abstract List<String> getColumnValues(TData data);
+
   /**
    * Constructor.
    *
@@ -106,6 +201,9 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
    * @param entityManager The entityManager.
    * @param batchSize The Batch size to save at one time.
    * @param runInterval The time in days between runs.
+   * @param copyDataSource If not null, the table is replaced using {@code COPY} with connections
+   *     from this source.
+   * @param copyThreads The number of {@code COPY} writer threads.
    * @param LOGGER The logger.
    * @param delimiter The CSV delimiter.
    */
@@ -114,12 +212,16 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
       EntityManager entityManager,
       int batchSize,
       int runInterval,
+      @Nullable DataSource copyDataSource,
+      int copyThreads,
       Logger LOGGER,
       String delimiter) {
     this.tableName = tableName;
     this.entityManager = entityManager;
     this.runInterval = runInterval;
     this.batchSize = batchSize;
+    this.copyDataSource = copyDataSource;
+    this.copyThreads = Math.max(1, copyThreads);
     this.LOGGER = LOGGER;
     this.delimiter = delimiter;
   }
@@ -127,21 +229,26 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
   /** {@inheritDoc} */
   @Override
   public Integer call() throws Exception {
+    Instant start = Instant.now();
+    int totalRecords;
     if (shouldLoadData()) {
-      Instant start = Instant.now();
-      int totalRecords = persistResource();
-      Instant finish = Instant.now();
-      long totalTime = Duration.between(start, finish).toSeconds();
-      LOGGER.info(
-          "Finished saving to table {} in {} seconds. Processed {} records.",
-          tableName,
-          totalTime,
-          totalRecords);
-      return totalRecords;
+      totalRecords = persistResource();
     } else {
-      LOGGER.info("Run interval has not passed. No data will be loaded into {}.", tableName);
-      return -1;
+      Optional<Integer> updatedRecords = persistUpdates();
+      if (updatedRecords.isEmpty()) {
+        LOGGER.info("Run interval has not passed. No data will be loaded into {}.", tableName);
+        return -1;
+      }
+      totalRecords = updatedRecords.get();
     }
+    Instant finish = Instant.now();
+    long totalTime = Duration.between(start, finish).toSeconds();
+    LOGGER.info(
+        "Finished saving to table {} in {} seconds. Processed {} records.",
+        tableName,
+        totalTime,
+        totalRecords);
+    return totalRecords;
   }
 
   /**
@@ -150,23 +257,42 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
    * @return true if the data should be loaded.
    */
   boolean shouldLoadData() {
-    Date lastUpdated;
+    Optional<LocalDate> lastUpdated = getLastUpdated(tableName);
+    return lastUpdated.isEmpty()
+        || LocalDate.now().isAfter(lastUpdated.get().plusDays(runInterval));
+  }
+
+  /**
+   * Gets a date recorded in ccw.npi_fda_meta.
+   *
+   * @param name The name the date is recorded under. Normally the table name.
+   * @return The date, or empty if none has been recorded.
+   */
+  Optional<LocalDate> getLastUpdated(String name) {
     Query query = entityManager.createNativeQuery(GET_LAST_UPDATED_QUERY);
-    query.setParameter("tableName", tableName);
+    query.setParameter("tableName", name);
     try {
-      lastUpdated = (Date) query.getSingleResult();
+      return Optional.of(((Date) query.getSingleResult()).toLocalDate());
     } catch (NoResultException e) {
-      return true;
+      return Optional.empty();
     }
-    return LocalDate.now().isAfter(lastUpdated.toLocalDate().plusDays(runInterval));
   }
 
   /** Updates the lastUpdated Date. */
   void setLastUpdated() {
-    Date lastUpdated = new Date(System.currentTimeMillis());
+    setLastUpdated(tableName, new Date(System.currentTimeMillis()));
+  }
+
+  /**
+   * Records a date in ccw.npi_fda_meta.
+   *
+   * @param name The name to record the date under. Normally the table name.
+   * @param lastUpdated The date.
+   */
+  void setLastUpdated(String name, Date lastUpdated) {
     entityManager.getTransaction().begin();
     Query query = entityManager.createNativeQuery(SAVE_LAST_UPDATED_QUERY);
-    query.setParameter("tableName", tableName);
+    query.setParameter("tableName", name);
     query.setParameter("lastUpdated", lastUpdated);
     query.executeUpdate();
     entityManager.getTransaction().commit();
@@ -181,49 +307,143 @@ public abstract class LoadDataFiles<TData> implements Callable<Integer> {
    * @throws IOException exception thrown.
    */
   Integer saveDataFile(InputStreamReader is) throws IOException {
-
-    int savedCount = 0;
     try (BufferedReader reader = new BufferedReader(is)) {
-      CSVParser csvParser =
-          CSVParser.builder()
-              .setReader(reader)
-              .setFormat(
-                  CSVFormat.DEFAULT
-                      .builder()
-                      .setDelimiter(delimiter)
-                      .setHeader()
-                      .setIgnoreHeaderCase(true)
-                      .setTrim(true)
-                      .get())
-              .get();
+      CSVParser csvParser = createCsvParser(reader);
 
       LOGGER.info("Starting to save data to table {}", tableName);
-      entityManager.getTransaction().begin();
-      boolean interrupted = false;
-      for (CSVRecord csvRecord : csvParser) {
-        TData npiData = getDataFromCsv(csvRecord);
+      if (copyDataSource != null) {
+        return copyRecords(csvParser);
+      }
+      int savedCount = mergeRecords(csvParser, false);
+      if (!Thread.currentThread().isInterrupted()) {
+        setLastUpdated();
+      }
+      return savedCount;
+    }
+  }
+
+  /**
+   * Applies an update file to the database. Records are merged into the table as with {@link
+   * #saveDataFile} but records identified by {@link #isDeleted} are deleted. Unlike {@link
+   * #saveDataFile} this does not update the lastUpdated Date.
+   *
+   * @param is the file input stream.
+   * @return Total number of records saved or deleted.
+   * @throws IOException exception thrown.
+   */
+  Integer saveDataFileUpdates(InputStreamReader is) throws IOException {
+    try (BufferedReader reader = new BufferedReader(is)) {
+      CSVParser csvParser = createCsvParser(reader);
+
+      LOGGER.info("Starting to apply updates to table {}", tableName);
+      return mergeRecords(csvParser, true);
+    }
+  }
+
+  /**
+   * Creates a parser for a data file.
+   *
+   * @param reader the data file.
+   * @return the parser.
+   * @throws IOException exception thrown.
+   */
+  private CSVParser createCsvParser(BufferedReader reader) throws IOException {
+    return CSVParser.builder()
+        .setReader(reader)
+        .setFormat(
+            CSVFormat.DEFAULT
+                .builder()
+                .setDelimiter(delimiter)
+                .setHeader()
+                .setIgnoreHeaderCase(true)
+                .setTrim(true)
+                .get())
+        .get();
+  }
+
+  /**
+   * Saves each record by merging it into the table. Stops early if the thread is interrupted.
+   *
+   * @param csvParser the records.
+   * @param applyDeletes true if records identified by {@link #isDeleted} should be deleted.
+   * @return Total number of records saved.
+   */
+  private int mergeRecords(CSVParser csvParser, boolean applyDeletes) {
+    String deleteQuery =
+        String.format("DELETE FROM ccw.%s WHERE %s = :key", tableName, getColumnNames().get(0));
+    int savedCount = 0;
+    entityManager.getTransaction().begin();
+    for (CSVRecord csvRecord : csvParser) {
+      TData npiData = getDataFromCsv(csvRecord);
+      if (applyDeletes && isDeleted(csvRecord)) {
+        Query query = entityManager.createNativeQuery(deleteQuery);
+        query.setParameter("key", getColumnValues(npiData).get(0));
+        query.executeUpdate();
+      } else {
         entityManager.merge(npiData);
-        savedCount++;
-
-        // The commit frequency is determined by an SSM parameter.
-        if (savedCount % batchSize == 0) {
-          entityManager.getTransaction().commit();
-          entityManager.clear();
-          LOGGER.info("Progress: Saved {} records to table {}", savedCount, tableName);
-          entityManager.getTransaction().begin();
+      }
+      savedCount++;
+
+      // The commit frequency is determined by an SSM parameter.
+      if (savedCount % batchSize == 0) {
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+        LOGGER.info("Progress: Saved {} records to table {}", savedCount, tableName);
+        entityManager.getTransaction().begin();
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        break;
+      }
+    }
+    // final commit
+    entityManager.getTransaction().commit();
+    entityManager.clear();
+    return savedCount;
+  }
+
+  /**
+   * Replaces the contents of the table with the records using a {@link StagingTableLoader}. The
+   * table is left unchanged if the load fails or is interrupted.
+   *
+   * @param csvParser the records.
+   * @return Total number of records saved.
+   * @throws IOException if the load fails.
+   */
+  private int copyRecords(CSVParser csvParser) throws IOException {
+    int parsedCount = 0;
+    try (StagingTableLoader loader =
+        new StagingTableLoader(copyDataSource, tableName, getColumnNames(), copyThreads)) {
+      for (CSVRecord csvRecord : csvParser) {
+        loader.addRow(getColumnValues(getDataFromCsv(csvRecord)));
+        parsedCount++;
+        if (parsedCount % batchSize == 0) {
+          LOGGER.info("Progress: Copied {} records to table {}", parsedCount, tableName);
         }
         if (Thread.currentThread().isInterrupted()) {
-          interrupted = true;
-          break;
+          return 0;
         }
       }
-      // final commit
-      entityManager.getTransaction().commit();
-      entityManager.clear();
-      if (!interrupted) {
-        setLastUpdated();
-      }
+      final long savedCount = loader.finish();
+      setLastUpdated();
+      return (int) savedCount;
+    } catch (SQLException ex) {
+      throw new IOException("Failed to load table " + tableName, ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return 0;
     }
-    return savedCount;
+  }
+
+  /** Saves the records in a data file. */
+  @FunctionalInterface
+  interface DataFileSaver {
+    /**
+     * Saves the records.
+     *
+     * @param is the file input stream.
+     * @return Total number of records saved.
+     * @throws IOException exception thrown.
+     */
+    Integer save(InputStreamReader is) throws IOException;
   }
 }
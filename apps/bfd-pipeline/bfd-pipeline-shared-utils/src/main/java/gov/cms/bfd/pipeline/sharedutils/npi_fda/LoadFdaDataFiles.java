@@ -1,8 +1,12 @@
 package gov.cms.bfd.pipeline.sharedutils.npi_fda;
 
 import gov.cms.bfd.model.rif.npi_fda.FDAData;
+import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import javax.sql.DataSource;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -26,6 +30,9 @@ public class LoadFdaDataFiles extends LoadDataFiles<FDAData> {
   /** CSV Delimiter. */
   private static final String DELIMITER = "\t";
 
+  /** Table columns in the order returned by {@link #getColumnValues}. */
+  private static final List<String> COLUMN_NAMES = List.of("code", "display");
+
   @Override
   Integer persistResource() throws IOException {
     return downloadDataFile(NDC_URL);
@@ -36,6 +43,16 @@ public class LoadFdaDataFiles extends LoadDataFiles<FDAData> {
     return name.equalsIgnoreCase("product.txt");
   }
 
+  @Override
+  List<String> getColumnNames() {
+    return COLUMN_NAMES;
+  }
+
+  @Override
+  List<String> getColumnValues(FDAData data) {
+    return Arrays.asList(data.getCode(), data.getDisplay());
+  }
+
   @Override
   FDAData getDataFromCsv(CSVRecord csvRecord) {
     String productNdc = csvRecord.get(PRODUCT_NDC_COLUMN);
@@ -67,6 +84,33 @@ public class LoadFdaDataFiles extends LoadDataFiles<FDAData> {
    * @param runInterval How often to run the job, in days.
    */
   public LoadFdaDataFiles(EntityManager entityManager, int batchSize, int runInterval) {
-    super(TABLE_NAME, entityManager, batchSize, runInterval, LOGGER, DELIMITER);
+    this(entityManager, batchSize, runInterval, null, 0);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param entityManager the EntityManager to use for database operations;
+   * @param batchSize The number of records saved before committing a transaction.
+   * @param runInterval How often to run the job, in days.
+   * @param copyDataSource If not null, the table is replaced using {@code COPY} with connections
+   *     from this source.
+   * @param copyThreads The number of {@code COPY} writer threads.
+   */
+  public LoadFdaDataFiles(
+      EntityManager entityManager,
+      int batchSize,
+      int runInterval,
+      @Nullable DataSource copyDataSource,
+      int copyThreads) {
+    super(
+        TABLE_NAME,
+        entityManager,
+        batchSize,
+        runInterval,
+        copyDataSource,
+        copyThreads,
+        LOGGER,
+        DELIMITER);
   }
 }
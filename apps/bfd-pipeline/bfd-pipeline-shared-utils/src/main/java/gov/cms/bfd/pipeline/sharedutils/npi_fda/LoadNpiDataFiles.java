@@ -2,15 +2,27 @@ package gov.cms.bfd.pipeline.sharedutils.npi_fda;
 
 import static java.util.Map.entry;
 
+import com.google.common.annotations.VisibleForTesting;
 import gov.cms.bfd.model.rif.npi_fda.NPIData;
+import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import java.io.BufferedReader;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.Calendar;
+import java.sql.Date;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import javax.sql.DataSource;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
@@ -22,8 +34,23 @@ public class LoadNpiDataFiles extends LoadDataFiles<NPIData> {
   private static final Logger LOGGER = LoggerFactory.getLogger(LoadNpiDataFiles.class);
   private static final String TABLE_NAME = "npi_data";
 
+  /**
+   * Name used in ccw.npi_fda_meta to record the last weekly update file that has been applied. The
+   * recorded date is the last day of the week covered by that file.
+   */
+  static final String WEEKLY_UPDATE_META_NAME = "npi_data_weekly";
+
   private final Map<String, String> taxonomyMap;
 
+  /** True if weekly update files should be applied between full loads. */
+  private final boolean weeklyUpdates;
+
+  /** Base url for downloads. Only differs from {@link #BASE_URL} in tests. */
+  private final String baseUrl;
+
+  /** Used to determine which files to download. */
+  private final Clock clock;
+
   /** Field for taxonomy code in CSV. */
   private static final String TAXONOMY_CODE_FIELD = "Healthcare Provider Taxonomy Code_1";
 
@@ -55,12 +82,37 @@ public class LoadNpiDataFiles extends LoadDataFiles<NPIData> {
   /** Field for Provider Suffix in CSV. */
   private static final String PROVIDER_SUFFIX_FIELD = "Provider Name Suffix Text";
 
+  /** Field for NPI deactivation date in CSV. */
+  private static final String DEACTIVATION_DATE_FIELD = "NPI Deactivation Date";
+
+  /** Field for NPI reactivation date in CSV. */
+  private static final String REACTIVATION_DATE_FIELD = "NPI Reactivation Date";
+
   /** Base url for the nppes download. */
   private static final String BASE_URL = "https://download.cms.gov/nppes/NPPES_Data_Dissemination_";
 
   /** CSV delimiter. */
   private static final String DELIMITER = ",";
 
+  /** Format of the dates in weekly update file names. */
+  private static final DateTimeFormatter WEEKLY_FILE_DATE_FORMAT =
+      DateTimeFormatter.ofPattern("MMddyy");
+
+  /** Table columns in the order returned by {@link #getColumnValues}. */
+  private static final List<String> COLUMN_NAMES =
+      List.of(
+          "npi",
+          "entity_type",
+          "org_name",
+          "taxonomy_code",
+          "taxonomy_display",
+          "provider_name_prefix",
+          "provider_first_name",
+          "provider_middle_name",
+          "provider_last_name",
+          "provider_name_suffix",
+          "provider_credential");
+
   /** Map of months. */
   private static final Map<Integer, String> months =
       Map.ofEntries(
@@ -86,8 +138,76 @@ public class LoadNpiDataFiles extends LoadDataFiles<NPIData> {
    */
   public LoadNpiDataFiles(EntityManager entityManager, int batchSize, int runInterval)
       throws IOException {
-    super(TABLE_NAME, entityManager, batchSize, runInterval, LOGGER, DELIMITER);
+    this(entityManager, batchSize, runInterval, null, 0, false);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param entityManager the EntityManager to use for database operations;
+   * @param batchSize The number of records saved before committing a transaction.
+   * @param runInterval How often to run the job, in days.
+   * @param copyDataSource If not null, the table is replaced using {@code COPY} with connections
+   *     from this source.
+   * @param copyThreads The number of {@code COPY} writer threads.
+   * @param weeklyUpdates True if weekly update files should be applied between full loads.
+   */
+  public LoadNpiDataFiles(
+      EntityManager entityManager,
+      int batchSize,
+      int runInterval,
+      @Nullable DataSource copyDataSource,
+      int copyThreads,
+      boolean weeklyUpdates)
+      throws IOException {
+    this(
+        entityManager,
+        batchSize,
+        runInterval,
+        copyDataSource,
+        copyThreads,
+        weeklyUpdates,
+        BASE_URL,
+        Clock.systemDefaultZone());
+  }
+
+  /**
+   * Constructor allowing the download location and clock to be replaced in tests.
+   *
+   * @param entityManager the EntityManager to use for database operations;
+   * @param batchSize The number of records saved before committing a transaction.
+   * @param runInterval How often to run the job, in days.
+   * @param copyDataSource If not null, the table is replaced using {@code COPY} with connections
+   *     from this source.
+   * @param copyThreads The number of {@code COPY} writer threads.
+   * @param weeklyUpdates True if weekly update files should be applied between full loads.
+   * @param baseUrl Base url for downloads.
+   * @param clock Used to determine which files to download.
+   */
+  @VisibleForTesting
+  LoadNpiDataFiles(
+      EntityManager entityManager,
+      int batchSize,
+      int runInterval,
+      @Nullable DataSource copyDataSource,
+      int copyThreads,
+      boolean weeklyUpdates,
+      String baseUrl,
+      Clock clock)
+      throws IOException {
+    super(
+        TABLE_NAME,
+        entityManager,
+        batchSize,
+        runInterval,
+        copyDataSource,
+        copyThreads,
+        LOGGER,
+        DELIMITER);
     taxonomyMap = processTaxonomyDescriptions();
+    this.weeklyUpdates = weeklyUpdates;
+    this.baseUrl = baseUrl;
+    this.clock = clock;
   }
 
   /**
@@ -97,23 +217,50 @@ public class LoadNpiDataFiles extends LoadDataFiles<NPIData> {
    * @return a file name string
    */
   static String getFileName(boolean getMonthBefore) {
-    Calendar cal = Calendar.getInstance();
-    int currentMonth = cal.get(Calendar.MONTH);
-    int currentYear = cal.get(Calendar.YEAR);
+    return getFileName(BASE_URL, LocalDate.now(), getMonthBefore);
+  }
 
-    return getMonthAndYearForFile(getMonthBefore, currentMonth, currentYear);
+  /**
+   * Extracts a file name.
+   *
+   * @param baseUrl the base url for downloads
+   * @param today the current date
+   * @param getMonthBefore gets the month before
+   * @return a file name string
+   */
+  static String getFileName(String baseUrl, LocalDate today, boolean getMonthBefore) {
+    int currentMonth = today.getMonthValue() - 1;
+    int currentYear = today.getYear();
+
+    return getMonthAndYearForFile(baseUrl, getMonthBefore, currentMonth, currentYear);
+  }
+
+  /**
+   * Extracts the name of the weekly update file covering the week that ends on the given date.
+   *
+   * @param baseUrl the base url for downloads
+   * @param weekEnd the last day (a Sunday) of the week
+   * @return a file name string
+   */
+  static String getWeeklyFileName(String baseUrl, LocalDate weekEnd) {
+    return String.format(
+        "%s%s_%s_Weekly.zip",
+        baseUrl,
+        WEEKLY_FILE_DATE_FORMAT.format(weekEnd.minusDays(6)),
+        WEEKLY_FILE_DATE_FORMAT.format(weekEnd));
   }
 
   /**
    * Formats the file name with Month and Year.
    *
+   * @param baseUrl the base url for downloads
    * @param getMonthBefore whether to get the previous month or not
    * @param currentMonth is the integer for month
    * @param currentYear is the integer for year
    * @return a file name string
    */
   private static String getMonthAndYearForFile(
-      boolean getMonthBefore, int currentMonth, int currentYear) {
+      String baseUrl, boolean getMonthBefore, int currentMonth, int currentYear) {
     String month;
     int year;
     if (getMonthBefore) {
@@ -129,7 +276,7 @@ public class LoadNpiDataFiles extends LoadDataFiles<NPIData> {
       month = months.get(currentMonth);
       year = currentYear;
     }
-    return String.format("%s%s_%s.zip", BASE_URL, month, year);
+    return String.format("%s%s_%s.zip", baseUrl, month, year);
   }
 
   /** {@inheritDoc} */
@@ -138,17 +285,94 @@ public class LoadNpiDataFiles extends LoadDataFiles<NPIData> {
     return (name.startsWith("npidata_pfile_") && !name.toLowerCase().endsWith("_fileheader.csv"));
   }
 
-  /** {@inheritDoc} */
+  /**
+   * {@inheritDoc}
+   *
+   * <p>When weekly updates are enabled this also records the week before the start of the monthly
+   * file's month as the last weekly update applied. The weekly files applied afterwards overlap the
+   * monthly file slightly, which is harmless since applying a change twice has the same effect as
+   * applying it once.
+   */
   @Override
   Integer persistResource() throws IOException {
-    String fileUrl;
+    LocalDate today = LocalDate.now(clock);
+    LocalDate fileMonth = today.withDayOfMonth(1);
+    int totalRecords;
     try {
-      fileUrl = getFileName(false);
-      return downloadDataFile(fileUrl);
+      totalRecords = downloadDataFile(getFileName(baseUrl, today, false));
     } catch (IOException e) {
-      fileUrl = getFileName(true);
-      return downloadDataFile(fileUrl);
+      fileMonth = fileMonth.minusMonths(1);
+      totalRecords = downloadDataFile(getFileName(baseUrl, today, true));
+    }
+    if (weeklyUpdates && !Thread.currentThread().isInterrupted()) {
+      setLastUpdated(
+          WEEKLY_UPDATE_META_NAME,
+          Date.valueOf(
+              fileMonth.minusDays(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY))));
     }
+    return totalRecords;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Applies, in order, each weekly update file for the weeks that have completed since the last
+   * one applied, recording each in ccw.npi_fda_meta once it has been applied so that no file is
+   * applied twice. Stops at the first file that has not been published yet. Falls back to a full
+   * load if weekly updates have never been applied or if a file is missing but a later one is
+   * available, since the changes in the missing file would otherwise be lost.
+   */
+  @Override
+  Optional<Integer> persistUpdates() throws IOException {
+    if (!weeklyUpdates) {
+      return Optional.empty();
+    }
+    Optional<LocalDate> lastApplied = getLastUpdated(WEEKLY_UPDATE_META_NAME);
+    if (lastApplied.isEmpty()) {
+      LOGGER.info("No weekly updates have been applied to {}. Performing full load.", TABLE_NAME);
+      return Optional.of(persistResource());
+    }
+    LocalDate lastCompletedWeekEnd =
+        LocalDate.now(clock).minusDays(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+    LocalDate weekEnd =
+        lastApplied.get().with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY)).plusWeeks(1);
+    int totalRecords = 0;
+    for (; !weekEnd.isAfter(lastCompletedWeekEnd); weekEnd = weekEnd.plusWeeks(1)) {
+      String fileUrl = getWeeklyFileName(baseUrl, weekEnd);
+      try {
+        totalRecords += downloadDataFile(fileUrl, this::saveDataFileUpdates);
+      } catch (FileNotFoundException e) {
+        break;
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        return Optional.of(totalRecords);
+      }
+      setLastUpdated(WEEKLY_UPDATE_META_NAME, Date.valueOf(weekEnd));
+      LOGGER.info("Applied weekly update file {}", fileUrl);
+    }
+    for (LocalDate laterWeekEnd = weekEnd.plusWeeks(1);
+        !laterWeekEnd.isAfter(lastCompletedWeekEnd);
+        laterWeekEnd = laterWeekEnd.plusWeeks(1)) {
+      if (dataFileExists(getWeeklyFileName(baseUrl, laterWeekEnd))) {
+        LOGGER.warn(
+            "Weekly update file {} is not available. Performing full load.",
+            getWeeklyFileName(baseUrl, weekEnd));
+        return Optional.of(totalRecords + persistResource());
+      }
+    }
+    return Optional.of(totalRecords);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Deactivated NPIs appear in the weekly update files with a deactivation date and no
+   * reactivation date.
+   */
+  @Override
+  boolean isDeleted(CSVRecord csvRecord) {
+    return !csvRecord.get(DEACTIVATION_DATE_FIELD).isEmpty()
+        && csvRecord.get(REACTIVATION_DATE_FIELD).isEmpty();
   }
 
   /**
@@ -214,4 +438,27 @@ public class LoadNpiDataFiles extends LoadDataFiles<NPIData> {
         .providerCredential(providerCredential)
         .build();
   }
+
+  /** {@inheritDoc} */
+  @Override
+  List<String> getColumnNames() {
+    return COLUMN_NAMES;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  List<String> getColumnValues(NPIData data) {
+    return Arrays.asList(
+        data.getNpi(),
+        data.getEntityTypeCode(),
+        data.getProviderOrganizationName(),
+        data.getTaxonomyCode(),
+        data.getTaxonomyDisplay(),
+        data.getProviderNamePrefix(),
+        data.getProviderFirstName(),
+        data.getProviderMiddleName(),
+        data.getProviderLastName(),
+        data.getProviderNameSuffix(),
+        data.getProviderCredential());
+  }
 }
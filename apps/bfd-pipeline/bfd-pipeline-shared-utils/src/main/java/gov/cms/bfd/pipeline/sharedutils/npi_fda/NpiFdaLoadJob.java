@@ -34,6 +34,15 @@ public class NpiFdaLoadJob implements PipelineJob {
   /** How often to run the job, in days. */
   int runInterval;
 
+  /** True if tables should be replaced using {@code COPY} rather than by merging each record. */
+  boolean useCopy;
+
+  /** The number of {@code COPY} writer threads to use for each table. */
+  int copyThreads;
+
+  /** True if NPPES weekly update files should be applied between full loads. */
+  boolean weeklyUpdates;
+
   /** The logger. */
   private static final Logger LOGGER = LoggerFactory.getLogger(NpiFdaLoadJob.class);
 
@@ -44,18 +53,27 @@ public class NpiFdaLoadJob implements PipelineJob {
    * @param npiAppState PipelineApplicationState to use for NPI Enrichment.
    * @param batchSize The number of records to save before committing a transaction.
    * @param runInterval How often to run the job, in days.
+   * @param useCopy True if tables should be replaced using {@code COPY}.
+   * @param copyThreads The number of {@code COPY} writer threads to use for each table.
+   * @param weeklyUpdates True if NPPES weekly update files should be applied between full loads.
    */
   public NpiFdaLoadJob(
       PipelineApplicationState npiAppState,
       PipelineApplicationState fdaAppState,
       int batchSize,
-      int runInterval)
+      int runInterval,
+      boolean useCopy,
+      int copyThreads,
+      boolean weeklyUpdates)
       throws Exception {
     this.npiAppState = npiAppState;
     this.fdaAppState = fdaAppState;
     runningSemaphore = new Semaphore(1);
     this.batchSize = batchSize;
     this.runInterval = runInterval;
+    this.useCopy = useCopy;
+    this.copyThreads = copyThreads;
+    this.weeklyUpdates = weeklyUpdates;
   }
 
   /** {@inheritDoc} */
@@ -89,9 +107,20 @@ public class NpiFdaLoadJob implements PipelineJob {
         EntityManager fdaEntityManager =
             fdaAppState.getEntityManagerFactory().createEntityManager()) {
       LoadNpiDataFiles loadNpiDataFiles =
-          new LoadNpiDataFiles(npiEntityManager, batchSize, runInterval);
+          new LoadNpiDataFiles(
+              npiEntityManager,
+              batchSize,
+              runInterval,
+              useCopy ? npiAppState.getPooledDataSource() : null,
+              copyThreads,
+              weeklyUpdates);
       LoadFdaDataFiles loadFdaDataFiles =
-          new LoadFdaDataFiles(fdaEntityManager, batchSize, runInterval);
+          new LoadFdaDataFiles(
+              fdaEntityManager,
+              batchSize,
+              runInterval,
+              useCopy ? fdaAppState.getPooledDataSource() : null,
+              copyThreads);
       try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
         Future<Integer> npiTotalFuture = executor.submit(loadNpiDataFiles);
         Future<Integer> fdaTotalFuture = executor.submit(loadFdaDataFiles);
@@ -21,4 +21,16 @@ public class NpiFdaLoadJobConfig {
 
   /** How often to run the job, in days. */
   int runInterval;
+
+  /**
+   * True if tables should be replaced using {@code COPY} into a staging table rather than by
+   * merging each record.
+   */
+  boolean useCopy = false;
+
+  /** The number of {@code COPY} writer threads to use when {@link #useCopy} is true. */
+  int copyThreads = 4;
+
+  /** True if NPPES weekly update files should be applied between full loads of the NPI data. */
+  boolean weeklyUpdates = false;
 }
@@ -0,0 +1,413 @@
+package gov.cms.bfd.pipeline.sharedutils.npi_fda;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replaces the entire contents of a table using PostgreSQL {@code COPY}. Rows are streamed into an
+ * unindexed staging table by several writer threads, each using its own connection. Once all rows
+ * have been copied, {@link #finish} builds the primary key on the staging table and then swaps it
+ * in place of the original table in a single transaction, so readers either see the old contents or
+ * the new contents but never a partially loaded table.
+ *
+ * <p>If the loader is closed without calling {@link #finish} the copies are abandoned, the staging
+ * table is dropped, and the original table is left untouched.
+ *
+ * <p>The swap drops the original table so the database role used by the pipeline must own it (or be
+ * a member of the role that owns it). The constructor checks this before any data is copied so that
+ * a misconfigured role fails immediately rather than after the whole file has been loaded.
+ */
+class StagingTableLoader implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(StagingTableLoader.class);
+
+  /** Schema containing the tables. */
+  private static final String SCHEMA = "ccw";
+
+  /** Suffix added to the table name to get the staging table name. */
+  private static final String STAGING_SUFFIX = "_staging";
+
+  /** Approximate number of characters sent to a writer in one chunk. */
+  private static final int CHUNK_SIZE = 1 << 20;
+
+  /**
+   * Extra column added to the staging table to record the position of each row in the file. Used to
+   * keep the last of any rows with duplicate keys and dropped before the swap.
+   */
+  private static final String ROW_NUMBER_COLUMN = "load_row_number";
+
+  /** Queued in place of a chunk to tell a writer that there is no more data. */
+  private static final String END_OF_DATA = "";
+
+  /**
+   * Used to verify that the current role can drop the original table. Returns no rows if the table
+   * does not exist.
+   */
+  private static final String IS_OWNER_QUERY =
+      """
+      SELECT pg_has_role(c.relowner, 'USAGE') FROM pg_class c
+      JOIN pg_namespace n ON n.oid = c.relnamespace
+      WHERE n.nspname = ? AND c.relname = ?
+      """;
+
+  /** Used to find the grants on the original table so they can be applied to the staging table. */
+  private static final String GET_GRANTS_QUERY =
+      """
+      SELECT grantee, privilege_type FROM information_schema.role_table_grants
+      WHERE table_schema = ? AND table_name = ? AND grantee <> current_user
+      """;
+
+  /** Source of connections for the writers and the swap. */
+  private final DataSource dataSource;
+
+  /** Name of the table to replace, without the schema. */
+  private final String tableName;
+
+  /** Name of the staging table, without the schema. */
+  private final String stagingTableName;
+
+  /** Columns in the order values are provided to {@link #addRow}. The first is the primary key. */
+  private final List<String> columns;
+
+  /** Runs the writers. */
+  private final ExecutorService executor;
+
+  /** Chunks of CSV formatted rows waiting to be written. */
+  private final BlockingQueue<String> chunks;
+
+  /** One per writer. Each returns the number of rows that writer copied. */
+  private final List<Future<Long>> writers;
+
+  /** Rows added since the last chunk was queued. */
+  private final StringBuilder chunk;
+
+  /** Formats rows into {@link #chunk} in the CSV dialect understood by {@code COPY}. */
+  private final CSVPrinter printer;
+
+  /** Number of rows added so far. Written to {@link #ROW_NUMBER_COLUMN} with each row. */
+  private long rowCount;
+
+  /** Set once {@link #finish} has swapped the staging table in place of the original table. */
+  private boolean finished;
+
+  /**
+   * Creates an empty staging table and starts the writers.
+   *
+   * @param dataSource source of connections for the writers and the swap
+   * @param tableName name of the table to replace, without the schema
+   * @param columns columns in the order values are provided to {@link #addRow}, starting with the
+   *     primary key
+   * @param threadCount number of writers
+   * @throws SQLException if the current role does not own the table or the staging table could not
+   *     be created
+   * @throws IOException pass through from creating the {@link CSVPrinter}
+   */
+  StagingTableLoader(DataSource dataSource, String tableName, List<String> columns, int threadCount)
+      throws SQLException, IOException {
+    this.dataSource = dataSource;
+    this.tableName = tableName;
+    this.columns = List.copyOf(columns);
+    stagingTableName = tableName + STAGING_SUFFIX;
+    checkOwnership();
+    createStagingTable();
+
+    final String copySql =
+        String.format(
+            "COPY %s.%s (%s, %s) FROM STDIN WITH (FORMAT csv)",
+            SCHEMA, stagingTableName, String.join(", ", columns), ROW_NUMBER_COLUMN);
+    chunks = new ArrayBlockingQueue<>(2 * threadCount);
+    chunk = new StringBuilder(CHUNK_SIZE + CHUNK_SIZE / 4);
+    printer = new CSVPrinter(chunk, CSVFormat.POSTGRESQL_CSV);
+    executor = Executors.newFixedThreadPool(threadCount);
+    writers = new ArrayList<>(threadCount);
+    for (int i = 0; i < threadCount; ++i) {
+      writers.add(executor.submit(() -> copyChunks(copySql)));
+    }
+  }
+
+  /**
+   * Adds a row to the staging table. Null values are stored as NULL.
+   *
+   * @param values column values in the same order as the columns
+   * @throws IOException if a writer has failed
+   * @throws InterruptedException if interrupted while waiting for a writer to accept data
+   */
+  void addRow(List<String> values) throws IOException, InterruptedException {
+    final List<Object> record = new ArrayList<>(values.size() + 1);
+    record.addAll(values);
+    record.add(++rowCount);
+    printer.printRecord(record);
+    if (chunk.length() >= CHUNK_SIZE) {
+      queueChunk();
+    }
+  }
+
+  /**
+   * Waits for the writers to copy all rows and then replaces the original table with the staging
+   * table.
+   *
+   * @return the number of rows in the new table
+   * @throws IOException if a writer failed
+   * @throws InterruptedException if interrupted while waiting for the writers
+   * @throws SQLException if the staging table could not be indexed or swapped in
+   */
+  long finish() throws IOException, InterruptedException, SQLException {
+    if (!chunk.isEmpty()) {
+      queueChunk();
+    }
+    for (int i = 0; i < writers.size(); ++i) {
+      queue(END_OF_DATA);
+    }
+    long copiedCount = 0;
+    for (Future<Long> writer : writers) {
+      copiedCount += waitForWriter(writer);
+    }
+    final long duplicateCount = swapTables();
+    finished = true;
+    return copiedCount - duplicateCount;
+  }
+
+  /**
+   * Stops any running writers and drops the staging table if {@link #finish} was not called or did
+   * not complete.
+   *
+   * @throws SQLException if the staging table could not be dropped
+   */
+  @Override
+  public void close() throws SQLException {
+    executor.shutdownNow();
+    if (!finished) {
+      LOGGER.warn("Abandoning load of table {}", tableName);
+      try (Connection connection = dataSource.getConnection();
+          Statement statement = connection.createStatement()) {
+        statement.execute(String.format("DROP TABLE IF EXISTS %s.%s", SCHEMA, stagingTableName));
+      }
+    }
+  }
+
+  /**
+   * Verifies that the current role owns the original table, either directly or through membership
+   * in the owning role, since the swap drops it.
+   *
+   * @throws SQLException if the table does not exist, is not owned by the current role, or the
+   *     query fails
+   */
+  private void checkOwnership() throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(IS_OWNER_QUERY)) {
+      statement.setString(1, SCHEMA);
+      statement.setString(2, tableName);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        if (!resultSet.next()) {
+          throw new SQLException(String.format("Table %s.%s does not exist", SCHEMA, tableName));
+        }
+        if (!resultSet.getBoolean(1)) {
+          throw new SQLException(
+              String.format(
+                  "Table %s.%s must be owned by the database role to be replaced using COPY",
+                  SCHEMA, tableName));
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates the staging table with the same columns as the original table plus {@link
+   * #ROW_NUMBER_COLUMN} but without any indexes or constraints, dropping any staging table left
+   * over from an earlier failed load.
+   *
+   * @throws SQLException if the table could not be created
+   */
+  private void createStagingTable() throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(String.format("DROP TABLE IF EXISTS %s.%s", SCHEMA, stagingTableName));
+      statement.execute(
+          String.format(
+              "CREATE TABLE %s.%s (LIKE %s.%s INCLUDING DEFAULTS, %s bigint NOT NULL)",
+              SCHEMA, stagingTableName, SCHEMA, tableName, ROW_NUMBER_COLUMN));
+    }
+  }
+
+  /**
+   * Body of each writer. Copies chunks into the staging table until {@link #END_OF_DATA} is
+   * received and then commits. If interrupted the copy is cancelled and nothing is committed.
+   *
+   * @param copySql the {@code COPY} statement
+   * @return the number of rows copied
+   * @throws Exception pass through
+   */
+  private long copyChunks(String copySql) throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      final CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+      try {
+        for (String text = chunks.take(); !text.isEmpty(); text = chunks.take()) {
+          final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+          copyIn.writeToCopy(bytes, 0, bytes.length);
+        }
+        final long rowCount = copyIn.endCopy();
+        connection.commit();
+        return rowCount;
+      } finally {
+        if (copyIn.isActive()) {
+          copyIn.cancelCopy();
+        }
+      }
+    }
+  }
+
+  /**
+   * Hands the current chunk to the writers and starts a new one.
+   *
+   * @throws IOException if a writer has failed
+   * @throws InterruptedException if interrupted while waiting for a writer to accept data
+   */
+  private void queueChunk() throws IOException, InterruptedException {
+    final String text = chunk.toString();
+    chunk.setLength(0);
+    queue(text);
+  }
+
+  /**
+   * Adds a value to {@link #chunks}, checking periodically that the writers are still running so
+   * that a failed writer can't leave us blocked forever.
+   *
+   * @param text the value to queue
+   * @throws IOException if a writer has failed
+   * @throws InterruptedException if interrupted while waiting for a writer to accept data
+   */
+  private void queue(String text) throws IOException, InterruptedException {
+    while (!chunks.offer(text, 1, TimeUnit.SECONDS)) {
+      for (Future<Long> writer : writers) {
+        if (writer.isDone()) {
+          waitForWriter(writer);
+          throw new IOException("COPY writer for table " + tableName + " stopped early");
+        }
+      }
+    }
+  }
+
+  /**
+   * Waits for a writer to complete and returns its row count.
+   *
+   * @param writer the writer
+   * @return number of rows copied by the writer
+   * @throws IOException if the writer failed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  private long waitForWriter(Future<Long> writer) throws IOException, InterruptedException {
+    try {
+      return writer.get();
+    } catch (ExecutionException ex) {
+      throw new IOException("COPY into table " + stagingTableName + " failed", ex.getCause());
+    }
+  }
+
+  /**
+   * Removes rows with duplicate keys from the staging table, drops {@link #ROW_NUMBER_COLUMN}, adds
+   * the primary key, copies grants from the original table, and then swaps the staging table in
+   * place of the original table.
+   *
+   * @return the number of duplicate rows that were removed
+   * @throws SQLException if any step fails
+   */
+  private long swapTables() throws SQLException {
+    final String keyColumn = columns.getFirst();
+    final String stagingTable = SCHEMA + "." + stagingTableName;
+    final String table = SCHEMA + "." + tableName;
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      final long duplicateCount;
+      try (Statement statement = connection.createStatement()) {
+        // The CSV files occasionally repeat a key. The merge based load kept the last one in the
+        // file so we do the same rather than failing to build the primary key.
+        duplicateCount =
+            statement.executeUpdate(
+                String.format(
+                    "DELETE FROM %s a USING %s b WHERE a.%s = b.%s AND a.%s < b.%s",
+                    stagingTable,
+                    stagingTable,
+                    keyColumn,
+                    keyColumn,
+                    ROW_NUMBER_COLUMN,
+                    ROW_NUMBER_COLUMN));
+        statement.execute(
+            String.format("ALTER TABLE %s DROP COLUMN %s", stagingTable, ROW_NUMBER_COLUMN));
+        statement.execute(
+            String.format(
+                "ALTER TABLE %s ADD CONSTRAINT %s_pkey PRIMARY KEY (%s)",
+                stagingTable, stagingTableName, keyColumn));
+        for (String grant : getGrants(connection)) {
+          statement.execute(grant);
+        }
+        statement.execute("ANALYZE " + stagingTable);
+      }
+      connection.commit();
+      if (duplicateCount > 0) {
+        LOGGER.warn("Removed {} rows with duplicate keys from table {}", duplicateCount, tableName);
+      }
+
+      try (Statement statement = connection.createStatement()) {
+        statement.execute(String.format("LOCK TABLE %s IN ACCESS EXCLUSIVE MODE", table));
+        statement.execute("DROP TABLE " + table);
+        statement.execute(String.format("ALTER TABLE %s RENAME TO %s", stagingTable, tableName));
+        statement.execute(
+            String.format(
+                "ALTER TABLE %s RENAME CONSTRAINT %s_pkey TO %s_pkey",
+                table, stagingTableName, tableName));
+      }
+      connection.commit();
+      return duplicateCount;
+    }
+  }
+
+  /**
+   * Builds the {@code GRANT} statements needed to give the staging table the same privileges as the
+   * original table. {@code CREATE TABLE ... LIKE} does not copy privileges.
+   *
+   * @param connection connection to query with
+   * @return the statements
+   * @throws SQLException if the query fails
+   */
+  private List<String> getGrants(Connection connection) throws SQLException {
+    final List<String> grants = new ArrayList<>();
+    try (PreparedStatement statement = connection.prepareStatement(GET_GRANTS_QUERY)) {
+      statement.setString(1, SCHEMA);
+      statement.setString(2, tableName);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          final String grantee = resultSet.getString(1);
+          grants.add(
+              String.format(
+                  "GRANT %s ON %s.%s TO %s",
+                  resultSet.getString(2),
+                  SCHEMA,
+                  stagingTableName,
+                  grantee.equals("PUBLIC") ? grantee : '"' + grantee.replace("\"", "\"\"") + '"'));
+        }
+      }
+    }
+    return grants;
+  }
+}
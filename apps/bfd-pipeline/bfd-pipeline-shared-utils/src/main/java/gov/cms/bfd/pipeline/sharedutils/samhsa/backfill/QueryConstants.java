@@ -10,6 +10,17 @@ public class QueryConstants {
       ON CONFLICT (code, clm_id) DO NOTHING;
       """;
 
+  /**
+   * Query to upsert an RDA tag. The RDA tag tables are partitioned by the claim's last_updated
+   * column, so the tag copies it from the claim.
+   */
+  public static final String RDA_TAG_UPSERT_QUERY =
+      """
+      INSERT INTO ${tagTable} (code, clm_id, last_updated)
+      SELECT :code, ${claimField}, last_updated FROM ${claimTable} WHERE ${claimField} = :claimId
+      ON CONFLICT DO NOTHING;
+      """;
+
   /** Line fo Greater Than claimId. */
   public static final String GT_CLAIM_LINE = "WHERE ${claimField} >= :startingClaim";
 
@@ -4,7 +4,12 @@ import static gov.cms.bfd.pipeline.sharedutils.samhsa.backfill.QueryConstants.*;
 
 import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
 import gov.cms.bfd.pipeline.sharedutils.model.TableEntry;
+import gov.cms.bfd.sharedutils.TagCode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import java.util.List;
+import java.util.Map;
+import org.apache.commons.text.StringSubstitutor;
 import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -181,6 +186,33 @@ public class RDASamhsaBackfill extends AbstractSamhsaBackfill {
     return claimId;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The RDA tag tables carry the claim's last_updated as part of their partition key, so the tag
+   * is written from the claim row.
+   */
+  @Override
+  protected int writeEntry(Object claimId, String table, EntityManager entityManager) {
+    Map<String, String> params =
+        Map.of(
+            "tagTable",
+            table,
+            "claimField",
+            tableEntry.getClaimField(),
+            "claimTable",
+            tableEntry.getParentTable());
+    StringSubstitutor strSub = new StringSubstitutor(params);
+    String queryStr = strSub.replace(RDA_TAG_UPSERT_QUERY);
+    Query query = entityManager.createNativeQuery(queryStr);
+    query.setParameter("code", TagCode.R.toString());
+    query.setParameter("claimId", claimId);
+    int total = query.executeUpdate();
+    query.setParameter("code", TagCode._42CFRPart2.toString());
+    total += query.executeUpdate();
+    return total;
+  }
+
   private String getQueryByTableEntry(RDA_TABLES tableEntry) {
     switch (tableEntry) {
       case MCS_DETAILS:
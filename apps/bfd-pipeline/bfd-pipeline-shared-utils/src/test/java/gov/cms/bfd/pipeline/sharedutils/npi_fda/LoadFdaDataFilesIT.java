@@ -0,0 +1,92 @@
+package gov.cms.bfd.pipeline.sharedutils.npi_fda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import gov.cms.bfd.DatabaseTestUtils;
+import gov.cms.bfd.model.rif.npi_fda.FDAData;
+import gov.cms.bfd.pipeline.sharedutils.PipelineApplicationState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.time.Clock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Integration tests for loading FDA data with {@link LoadFdaDataFiles}. */
+public class LoadFdaDataFilesIT {
+  /** Maximum size of the connection pool. */
+  private static final int DEFAULT_MAX_POOL_SIZE =
+      Math.max(1, (Runtime.getRuntime().availableProcessors() - 1)) * 2 * 2;
+
+  /** Counts the rows in the FDA table. */
+  private static final String FDA_COUNT_QUERY = "select count(*) from ccw.fda_data";
+
+  /**
+   * Tab delimited product file. The second and fourth rows have the same NDC once it is padded so
+   * only the fourth should be kept.
+   */
+  private static final String TEST_TSV =
+      """
+      PRODUCTNDC\tPROPRIETARYNAME\tSUBSTANCENAME
+      0002-0152\tZyprexa\tOLANZAPINE
+      0002-1200\tAmyvid\tFLORBETAPIR F-18
+      0009-0031\tCortef\tHYDROCORTISONE
+      00002-1200\tAmyvid Kit\tFLORBETAPIR F-18
+      """;
+
+  /** Application state providing the pooled data source and entity manager factory. */
+  PipelineApplicationState applicationState;
+
+  /** Used to query the table after a load. */
+  EntityManager entityManager;
+
+  /** Creates a pooled data source and entity manager for the test database. */
+  @BeforeEach
+  public void setup() {
+    HikariDataSource pooledDataSource = new HikariDataSource();
+    pooledDataSource.setDataSource(DatabaseTestUtils.get().getUnpooledDataSource());
+    pooledDataSource.setMaximumPoolSize(DEFAULT_MAX_POOL_SIZE);
+    pooledDataSource.setRegisterMbeans(true);
+    pooledDataSource.setMinimumIdle(3);
+    pooledDataSource.setIdleTimeout(30_000);
+
+    this.applicationState =
+        new PipelineApplicationState(
+            new SimpleMeterRegistry(),
+            new MetricRegistry(),
+            pooledDataSource,
+            PipelineApplicationState.PERSISTENCE_UNIT_NAME,
+            Clock.systemUTC());
+    this.entityManager = applicationState.getEntityManagerFactory().createEntityManager();
+  }
+
+  /**
+   * Verifies that the table is replaced when loading with {@code COPY}, and that when the file
+   * repeats a code the last row for that code is the one kept.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  void shouldReplaceTableUsingCopy() throws IOException {
+    LoadFdaDataFiles loadFdaDataFiles =
+        new LoadFdaDataFiles(entityManager, 1, 30, applicationState.getPooledDataSource(), 2);
+    // loading twice verifies that the table is replaced rather than appended to
+    loadFdaDataFiles.saveDataFile(
+        new InputStreamReader(new ByteArrayInputStream(TEST_TSV.getBytes())));
+    int savedCount =
+        loadFdaDataFiles.saveDataFile(
+            new InputStreamReader(new ByteArrayInputStream(TEST_TSV.getBytes())));
+    assertEquals(3, savedCount);
+    Long recordCount = (Long) entityManager.createNativeQuery(FDA_COUNT_QUERY).getSingleResult();
+    assertEquals(3L, recordCount);
+    assertEquals(
+        "Zyprexa - OLANZAPINE", entityManager.find(FDAData.class, "00002-0152").getDisplay());
+    assertEquals(
+        "Amyvid Kit - FLORBETAPIR F-18",
+        entityManager.find(FDAData.class, "00002-1200").getDisplay());
+  }
+}
@@ -75,4 +75,25 @@ public class LoadNpiDataFilesIT {
     assertEquals("207RC0000X", npiData.getTaxonomyCode());
     assertEquals("Cardiovascular Disease Physician", npiData.getTaxonomyDisplay());
   }
+
+  @Test
+  void shouldReplaceTableUsingCopy() throws IOException {
+    LoadNpiDataFiles loadNpiDataFiles =
+        new LoadNpiDataFiles(
+            entityManager, 1, 30, applicationState.getPooledDataSource(), 2, false);
+    // loading twice verifies that the table is replaced rather than appended to
+    loadNpiDataFiles.saveDataFile(
+        new InputStreamReader(new ByteArrayInputStream(TEST_CSV.getBytes())));
+    int savedCount =
+        loadNpiDataFiles.saveDataFile(
+            new InputStreamReader(new ByteArrayInputStream(TEST_CSV.getBytes())));
+    assertEquals(8, savedCount);
+    Long recordCount = (Long) entityManager.createNativeQuery(NPI_COUNT_QUERY).getSingleResult();
+    assertEquals(8L, recordCount);
+    Query query = entityManager.createQuery(SELECT_RECORD_QUERY, NPIData.class);
+    query.setParameter("npi", "1588667638");
+    NPIData npiData = (NPIData) query.getSingleResult();
+    assertEquals("207RC0000X", npiData.getTaxonomyCode());
+    assertEquals("Cardiovascular Disease Physician", npiData.getTaxonomyDisplay());
+  }
 }
@@ -0,0 +1,219 @@
+package gov.cms.bfd.pipeline.sharedutils.npi_fda;
+
+import static gov.cms.bfd.pipeline.sharedutils.npi_fda.LoadNpiDataFilesTest.TEST_CSV;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.NoResultException;
+import jakarta.persistence.Query;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests applying NPPES weekly update files with {@link LoadNpiDataFiles} using a local HTTP server
+ * in place of the NPPES download site.
+ */
+public class LoadNpiWeeklyUpdatesTest {
+  /** A Wednesday. The last completed week ends on Sunday 2025-10-19. */
+  static final Clock CLOCK = Clock.fixed(Instant.parse("2025-10-22T12:00:00Z"), ZoneOffset.UTC);
+
+  /** Path of the weekly file for the week ending 2025-10-12. */
+  static final String WEEK_1_PATH = "/NPPES_Data_Dissemination_100625_101225_Weekly.zip";
+
+  /** Path of the weekly file for the week ending 2025-10-19. */
+  static final String WEEK_2_PATH = "/NPPES_Data_Dissemination_101325_101925_Weekly.zip";
+
+  /** Path of the monthly file for October 2025. */
+  static final String MONTHLY_PATH = "/NPPES_Data_Dissemination_October_2025.zip";
+
+  /** Number of records in {@link LoadNpiDataFilesTest#TEST_CSV}. */
+  static final int RECORD_COUNT = 8;
+
+  /** Number of deactivated NPIs in {@link LoadNpiDataFilesTest#TEST_CSV}. */
+  static final int DEACTIVATED_COUNT = 1;
+
+  /** Files served by {@link #server} keyed by path. */
+  Map<String, byte[]> files;
+
+  /** Stands in for the NPPES download site. */
+  HttpServer server;
+
+  EntityManager entityManager;
+  Query query;
+
+  @BeforeEach
+  void setup() throws IOException {
+    files = new HashMap<>();
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", this::serveFile);
+    server.start();
+
+    entityManager = Mockito.mock(EntityManager.class);
+    query = Mockito.mock(Query.class);
+    EntityTransaction entityTransaction = Mockito.mock(EntityTransaction.class);
+    Mockito.when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+    Mockito.when(entityManager.getTransaction()).thenReturn(entityTransaction);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  /**
+   * Verifies that each completed week's file is applied in order and recorded, and that deactivated
+   * NPIs are deleted rather than merged.
+   */
+  @Test
+  void shouldApplyEachCompletedWeek() throws Exception {
+    files.put(WEEK_1_PATH, createZip());
+    files.put(WEEK_2_PATH, createZip());
+    mockLastUpdated(LocalDate.parse("2025-10-05"));
+
+    assertEquals(2 * RECORD_COUNT, createLoader().call());
+    Mockito.verify(entityManager, times(2 * (RECORD_COUNT - DEACTIVATED_COUNT))).merge(any());
+    Mockito.verify(query, times(2 * DEACTIVATED_COUNT)).setParameter("key", "1306849450");
+    Mockito.verify(query).setParameter("lastUpdated", Date.valueOf("2025-10-12"));
+    Mockito.verify(query).setParameter("lastUpdated", Date.valueOf("2025-10-19"));
+  }
+
+  /** Verifies that nothing is done when the last completed week has already been applied. */
+  @Test
+  void shouldNotReapplyWeeks() throws Exception {
+    files.put(WEEK_2_PATH, createZip());
+    mockLastUpdated(LocalDate.parse("2025-10-19"));
+
+    assertEquals(0, createLoader().call());
+    Mockito.verify(entityManager, never()).merge(any());
+  }
+
+  /** Verifies that a week whose file has not been published yet is left for the next run. */
+  @Test
+  void shouldStopAtUnpublishedWeek() throws Exception {
+    files.put(WEEK_1_PATH, createZip());
+    mockLastUpdated(LocalDate.parse("2025-10-05"));
+
+    assertEquals(RECORD_COUNT, createLoader().call());
+    Mockito.verify(query).setParameter("lastUpdated", Date.valueOf("2025-10-12"));
+    Mockito.verify(query, never()).setParameter("lastUpdated", Date.valueOf("2025-10-19"));
+  }
+
+  /** Verifies that a full load is performed when a week's file is missing but a later one isn't. */
+  @Test
+  void shouldFallBackToFullLoadWhenWeekIsMissing() throws Exception {
+    files.put(WEEK_2_PATH, createZip());
+    files.put(MONTHLY_PATH, createZip());
+    mockLastUpdated(LocalDate.parse("2025-10-05"));
+
+    assertEquals(RECORD_COUNT, createLoader().call());
+    // a full load merges deactivated NPIs like any other record
+    Mockito.verify(entityManager, times(RECORD_COUNT)).merge(any());
+    Mockito.verify(query, never()).setParameter("lastUpdated", Date.valueOf("2025-10-19"));
+    // the weekly updates restart from the week before the monthly file's month
+    Mockito.verify(query).setParameter("lastUpdated", Date.valueOf("2025-09-28"));
+  }
+
+  /** Verifies that a full load is performed when no weekly updates have been applied yet. */
+  @Test
+  void shouldPerformFullLoadWhenNoWeekHasBeenApplied() throws Exception {
+    files.put(WEEK_1_PATH, createZip());
+    files.put(MONTHLY_PATH, createZip());
+    Mockito.when(query.getSingleResult())
+        .thenReturn(new Date(Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli()))
+        .thenThrow(new NoResultException());
+
+    assertEquals(RECORD_COUNT, createLoader().call());
+    Mockito.verify(entityManager, times(RECORD_COUNT)).merge(any());
+    Mockito.verify(query).setParameter("lastUpdated", Date.valueOf("2025-09-28"));
+  }
+
+  /**
+   * Makes the full load appear to be up to date and the given week the last one applied.
+   *
+   * @param lastWeekApplied the last day of the last week applied
+   */
+  void mockLastUpdated(LocalDate lastWeekApplied) {
+    Mockito.when(query.getSingleResult())
+        .thenReturn(
+            new Date(Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli()),
+            Date.valueOf(lastWeekApplied));
+  }
+
+  /**
+   * Creates a loader that downloads from {@link #server}.
+   *
+   * @return the loader
+   * @throws IOException pass through
+   */
+  LoadNpiDataFiles createLoader() throws IOException {
+    String baseUrl =
+        String.format(
+            "http://localhost:%d/NPPES_Data_Dissemination_", server.getAddress().getPort());
+    return new LoadNpiDataFiles(entityManager, 100, 30, null, 0, true, baseUrl, CLOCK);
+  }
+
+  /**
+   * Creates a zip file laid out like those from NPPES containing {@link
+   * LoadNpiDataFilesTest#TEST_CSV}.
+   *
+   * @return the zip file
+   * @throws IOException pass through
+   */
+  static byte[] createZip() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+      zip.putNextEntry(new ZipEntry("npidata_pfile_20251006-20251012_fileheader.csv"));
+      zip.write(TEST_CSV.lines().findFirst().orElseThrow().getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+      zip.putNextEntry(new ZipEntry("npidata_pfile_20251006-20251012.csv"));
+      zip.write(TEST_CSV.getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Responds to a request with the file from {@link #files} or a 404 if there is no such file.
+   *
+   * @param exchange the request
+   * @throws IOException pass through
+   */
+  void serveFile(HttpExchange exchange) throws IOException {
+    byte[] file = files.get(exchange.getRequestURI().getPath());
+    if (file == null) {
+      exchange.sendResponseHeaders(404, -1);
+    } else if (exchange.getRequestMethod().equals("HEAD")) {
+      exchange.sendResponseHeaders(200, -1);
+    } else {
+      exchange.sendResponseHeaders(200, file.length);
+      try (OutputStream body = exchange.getResponseBody()) {
+        body.write(file);
+      }
+    }
+    exchange.close();
+  }
+}
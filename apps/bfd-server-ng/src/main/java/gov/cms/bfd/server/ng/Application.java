@@ -4,6 +4,7 @@ import ca.uhn.fhir.rest.server.RestfulServer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import gov.cms.bfd.server.ng.audit.AuditEventRepository;
 import gov.cms.bfd.server.ng.log.AuditLogger;
+import gov.cms.bfd.sharedutils.database.HedgedReadExecutor;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import jakarta.servlet.Servlet;
@@ -50,6 +51,25 @@ public class Application {
     return configuration.getDataSourceFactory().createDataSource();
   }
 
+  /**
+   * Creates the executor that hedges slow claim reads. Each attempt runs on its own virtual thread
+   * with the MDC context of the request. The threads stop accepting attempts when the context is
+   * closed.
+   *
+   * @param configuration app configuration
+   * @return hedged read executor
+   */
+  @Bean(destroyMethod = "close")
+  public HedgedReadExecutor hedgedReadExecutor(Configuration configuration) {
+    var virtualThreads =
+        new SimpleAsyncTaskExecutorBuilder()
+            .virtualThreads(true)
+            .threadNamePrefix("hedged-read-")
+            .taskDecorator(Application::wrapWithMdcContext)
+            .build();
+    return configuration.getHedgedReadExecutor(virtualThreads);
+  }
+
   /**
    * Configures the routes for the FHIR server.
    *
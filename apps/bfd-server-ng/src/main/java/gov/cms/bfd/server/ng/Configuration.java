@@ -11,7 +11,9 @@ import gov.cms.bfd.sharedutils.config.AwsClientConfig;
 import gov.cms.bfd.sharedutils.database.AwsWrapperDataSourceFactory;
 import gov.cms.bfd.sharedutils.database.DataSourceFactory;
 import gov.cms.bfd.sharedutils.database.DatabaseOptions;
+import gov.cms.bfd.sharedutils.database.HedgedReadExecutor;
 import gov.cms.bfd.sharedutils.database.HikariDataSourceFactory;
+import gov.cms.bfd.sharedutils.database.ReaderLatencyTracker;
 import java.io.Serializable;
 import java.net.URI;
 import java.time.Duration;
@@ -20,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.Data;
@@ -112,6 +115,24 @@ public class Configuration implements Serializable {
     }
   }
 
+  /**
+   * Creates the {@link HedgedReadExecutor} used to re-issue slow claim reads on a second reader.
+   *
+   * @param executor runs the attempts of each read
+   * @return the executor, which runs every read once if hedged reads are disabled
+   */
+  public HedgedReadExecutor getHedgedReadExecutor(Executor executor) {
+    final var hedgedReads = nonsensitive.db.hedgedReads;
+    if (!hedgedReads.enabled) {
+      return HedgedReadExecutor.disabled();
+    }
+    return new HedgedReadExecutor(
+        executor,
+        ReaderLatencyTracker.getInstance(),
+        Duration.ofMillis(hedgedReads.minimumDelayMs),
+        hedgedReads.windowSize);
+  }
+
   /**
    * Creates a new {@link AuditLogger}. If {@link AuditLoggerType} is DYNAMO_DB both loggers will be
    * used.
@@ -246,6 +267,7 @@ public class Configuration implements Serializable {
     return DatabaseOptions.AwsJdbcWrapperOptions.builder()
         .basePresetCode(wrapper.basePreset)
         .pluginsCsv(wrapper.pluginsCsv)
+        .hostSelectorStrategy(wrapper.hostSelectorStrategy)
         .clusterTopologyRefreshRateMs(wrapper.clusterTopologyRefreshRateMs)
         .instanceStateMonitorRefreshRateMs(wrapper.instanceStateMonitorRefreshRateMs)
         .build();
@@ -294,6 +316,9 @@ public class Configuration implements Serializable {
   @ConfigurationProperties
   public static class Nonsensitive {
     private Db db = new Db();
+    private StreamingBundle streamingBundle = new StreamingBundle();
+    private IdentityCache identityCache = new IdentityCache();
+    private ClaimSearch claimSearch = new ClaimSearch();
     private String disabledUrisJson = "[]";
     private String internalCertificateAliasesJson = "[]";
     private String samhsaAllowedCertificateAliasesJson = "[]";
@@ -304,6 +329,7 @@ public class Configuration implements Serializable {
     public static class Db {
       private Hikari hikari = new Hikari();
       private Wrapper wrapper = new Wrapper();
+      private HedgedReads hedgedReads = new HedgedReads();
       private String clusterIdentifierTemplate = "bfd-%s-aurora-cluster";
       private String name = "fhirdb";
       private String port = "5432";
@@ -334,6 +360,56 @@ public class Configuration implements Serializable {
         private long clusterTopologyRefreshRateMs = Duration.ofSeconds(30).toMillis();
         private long instanceStateMonitorRefreshRateMs = Duration.ofSeconds(5).toMillis();
       }
+
+      /**
+       * Hedged read configuration. Hedged reads avoid the slow reader only when the wrapper uses
+       * the "latencyAwareReader" plugin and the "latencyAware" host selector strategy.
+       */
+      @Data
+      @ConfigurationProperties
+      public static class HedgedReads {
+        private boolean enabled = false;
+        // Reads are never hedged before they have run for at least this long
+        private long minimumDelayMs = 50;
+        // Number of recent latencies used to compute the 95th percentile of each query
+        private int windowSize = HedgedReadExecutor.DEFAULT_WINDOW_SIZE;
+      }
+    }
+
+    /** Configuration for streaming large search bundles directly to the response. */
+    @Data
+    @ConfigurationProperties
+    public static class StreamingBundle {
+      private boolean enabled = false;
+      // Number of characters buffered between flushes to the servlet output
+      private int windowSize = 64 * 1024;
+    }
+
+    /** Configuration for the cache of beneficiary identity lookups. */
+    @Data
+    @ConfigurationProperties
+    public static class IdentityCache {
+      private boolean enabled = true;
+      // Maximum number of entries in each of the identity caches
+      private long maxSize = 100_000;
+      // How often the load progress table is checked for a newly completed load
+      private long watermarkCheckIntervalMs = Duration.ofSeconds(30).toMillis();
+    }
+
+    /**
+     * Configuration for searching the claims of a beneficiary. With the union query, the ids of the
+     * matching claims are found with a single query across every claim table and only the claim
+     * types that have matches are loaded, instead of querying every claim table in parallel.
+     */
+    @Data
+    @ConfigurationProperties
+    public static class ClaimSearch {
+      private boolean unionQuery = false;
+      // Skip claim tables that have no claims for the beneficiary according to the
+      // beneficiary_claim_availability table
+      private boolean availabilityIndex = false;
+      // Maximum number of queries a single request runs at once to load the matched claims
+      private int maxConcurrentQueries = 2;
     }
 
     private final Map<String, String> clientCertificates = new HashMap<>();
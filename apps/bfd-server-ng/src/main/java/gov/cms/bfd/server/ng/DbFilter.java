@@ -17,4 +17,13 @@ public record DbFilter(String filterClause, List<DbFilterParam> params) {
   public static DbFilter empty() {
     return new DbFilter("", List.of());
   }
+
+  /**
+   * Returns a DB filter that excludes every row.
+   *
+   * @return filter
+   */
+  public static DbFilter noMatches() {
+    return new DbFilter(" AND FALSE", List.of());
+  }
 }
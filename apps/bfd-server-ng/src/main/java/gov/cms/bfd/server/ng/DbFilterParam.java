@@ -1,6 +1,7 @@
 package gov.cms.bfd.server.ng;
 
 import jakarta.persistence.Query;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -17,4 +18,21 @@ public record DbFilterParam(String name, Object value) {
     }
     return query;
   }
+
+  /**
+   * Pads a list to the given length by repeating its last value, so that lists of any length up to
+   * that produce the same {@code IN} clause.
+   *
+   * @param values the values, must not be empty
+   * @param length length of the result
+   * @param <T> type of the values
+   * @return the padded list
+   */
+  public static <T> List<T> padded(List<T> values, int length) {
+    var padded = new ArrayList<>(values);
+    while (padded.size() < length) {
+      padded.add(values.getLast());
+    }
+    return padded;
+  }
 }
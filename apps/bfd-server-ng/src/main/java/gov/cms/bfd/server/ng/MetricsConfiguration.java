@@ -8,9 +8,11 @@ import io.micrometer.core.aop.TimedAspect;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.config.MeterFilter;
 import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import jakarta.persistence.EntityManagerFactory;
 import java.time.Duration;
 import java.util.Set;
 import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -66,6 +68,28 @@ public class MetricsConfiguration {
     return metrics;
   }
 
+  /**
+   * Configures Micrometer to collect Hibernate query plan cache metrics. The counts come from
+   * Hibernate's statistics, which are only collected when they are enabled.
+   *
+   * @param registry meter registry
+   * @param entityManagerFactory entity manager factory
+   * @return query plan cache metrics
+   */
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "spring.jpa.properties.hibernate",
+      name = "generate_statistics",
+      havingValue = "true")
+  public QueryPlanCacheMetrics queryPlanCacheMetrics(
+      MeterRegistry registry, EntityManagerFactory entityManagerFactory) {
+    var metrics =
+        new QueryPlanCacheMetrics(
+            entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    metrics.bindTo(registry);
+    return metrics;
+  }
+
   /**
    * Configures Micrometer CloudWatch metric export properties. Currently, does not override
    * application.properties.
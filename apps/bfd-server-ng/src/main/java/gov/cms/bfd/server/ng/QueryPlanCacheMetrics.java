@@ -0,0 +1,43 @@
+package gov.cms.bfd.server.ng;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import org.hibernate.stat.Statistics;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Publishes the hit and miss counts of Hibernate's query plan cache along with the resulting hit
+ * ratio. Queries are built so that the same filters always produce the same query string, so a
+ * falling hit ratio means a new query shape has been introduced.
+ */
+@AllArgsConstructor
+public class QueryPlanCacheMetrics implements MeterBinder {
+  private final Statistics statistics;
+
+  @Override
+  public void bindTo(@NotNull MeterRegistry registry) {
+    FunctionCounter.builder(
+            "application.query_plan_cache.hits", statistics, Statistics::getQueryPlanCacheHitCount)
+        .description("Number of queries that reused a cached query plan")
+        .register(registry);
+    FunctionCounter.builder(
+            "application.query_plan_cache.misses",
+            statistics,
+            Statistics::getQueryPlanCacheMissCount)
+        .description("Number of queries that had to be parsed into a new query plan")
+        .register(registry);
+    Gauge.builder(
+            "application.query_plan_cache.hit_ratio", statistics, QueryPlanCacheMetrics::hitRatio)
+        .description("Fraction of queries that reused a cached query plan since startup")
+        .register(registry);
+  }
+
+  private static double hitRatio(Statistics statistics) {
+    var hits = statistics.getQueryPlanCacheHitCount();
+    var total = hits + statistics.getQueryPlanCacheMissCount();
+    return total == 0 ? 1 : (double) hits / total;
+  }
+}
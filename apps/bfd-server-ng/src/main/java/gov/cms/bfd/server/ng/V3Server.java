@@ -6,6 +6,7 @@ import ca.uhn.fhir.rest.server.RestfulServer;
 import gov.cms.bfd.server.ng.interceptor.BanUnsupportedHttpMethodsInterceptor;
 import gov.cms.bfd.server.ng.interceptor.ExceptionHandlingInterceptor;
 import gov.cms.bfd.server.ng.interceptor.RequestMetricsInterceptor;
+import gov.cms.bfd.server.ng.interceptor.StreamingBundleInterceptor;
 import gov.cms.bfd.server.openapi.OpenApiInterceptor;
 import jakarta.servlet.annotation.WebServlet;
 import java.util.List;
@@ -19,6 +20,7 @@ import org.springframework.stereotype.Component;
 public class V3Server extends RestfulServer {
   private final transient List<IResourceProvider> resourceProviders;
   private final transient RequestMetricsInterceptor requestMetricsInterceptor;
+  private final transient Configuration configuration;
 
   @Override
   public void initialize() {
@@ -40,5 +42,10 @@ public class V3Server extends RestfulServer {
     this.registerInterceptor(new ExceptionHandlingInterceptor());
     this.registerInterceptor(new OpenApiInterceptor());
     this.registerInterceptor(requestMetricsInterceptor);
+
+    var streamingBundle = configuration.getNonsensitive().getStreamingBundle();
+    if (streamingBundle.isEnabled()) {
+      this.registerInterceptor(new StreamingBundleInterceptor(streamingBundle.getWindowSize()));
+    }
   }
 }
@@ -0,0 +1,159 @@
+package gov.cms.bfd.server.ng.beneficiary;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import gov.cms.bfd.server.ng.Configuration;
+import gov.cms.bfd.server.ng.beneficiary.model.BeneficiaryIdentity;
+import gov.cms.bfd.server.ng.beneficiary.model.BeneficiarySimple;
+import gov.cms.bfd.server.ng.loadprogress.LoadProgressRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the identity lookups that run at the start of nearly every request: bene_sk to xref
+ * bene_sk and MBI, MBI to xref bene_sk, and xref bene_sk to every identity of the beneficiary.
+ * These mappings only change when the IDR pipeline loads new data, so every cache is cleared when
+ * the latest batch completion timestamp in {@code load_progress} changes. The timestamp is checked
+ * at most once per configured interval, so a load becomes visible within that interval.
+ *
+ * <p>Lookups that find nothing are cached too since the same unknown identifiers tend to be
+ * requested repeatedly. Hits and misses are published under the {@code cache.*} metrics with a
+ * {@code cache} tag naming each cache.
+ */
+@Component
+public class BeneficiaryIdentityCache {
+  private final BeneficiaryRepository beneficiaryRepository;
+  private final LoadProgressRepository loadProgressRepository;
+  private final boolean enabled;
+  private final long watermarkCheckIntervalNanos;
+
+  private final Cache<Long, Optional<BeneficiarySimple>> xrefByBeneSk;
+  private final Cache<String, Optional<Long>> xrefSkByMbi;
+  private final Cache<Long, List<BeneficiaryIdentity>> identitiesByXrefSk;
+  private final Counter invalidations;
+
+  // Latest batch completion timestamp seen, null until the first check
+  private volatile ZonedDateTime watermark;
+  private volatile long nextWatermarkCheckNanos = System.nanoTime();
+  private final AtomicBoolean checkingWatermark = new AtomicBoolean();
+  // Incremented whenever the caches are cleared so that a lookup that started before a load
+  // finished does not put its stale result back into the cache
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * Creates the cache.
+   *
+   * @param configuration app configuration
+   * @param beneficiaryRepository repository used to load missing entries
+   * @param loadProgressRepository repository providing the load watermark
+   * @param meterRegistry registry the cache metrics are published to
+   */
+  public BeneficiaryIdentityCache(
+      Configuration configuration,
+      BeneficiaryRepository beneficiaryRepository,
+      LoadProgressRepository loadProgressRepository,
+      MeterRegistry meterRegistry) {
+    var identityCache = configuration.getNonsensitive().getIdentityCache();
+    this.beneficiaryRepository = beneficiaryRepository;
+    this.loadProgressRepository = loadProgressRepository;
+    this.enabled = identityCache.isEnabled();
+    this.watermarkCheckIntervalNanos =
+        Duration.ofMillis(identityCache.getWatermarkCheckIntervalMs()).toNanos();
+
+    xrefByBeneSk = createCache(identityCache.getMaxSize());
+    xrefSkByMbi = createCache(identityCache.getMaxSize());
+    identitiesByXrefSk = createCache(identityCache.getMaxSize());
+    GuavaCacheMetrics.monitor(meterRegistry, xrefByBeneSk, "beneficiary_xref_by_bene_sk");
+    GuavaCacheMetrics.monitor(meterRegistry, xrefSkByMbi, "beneficiary_xref_sk_by_mbi");
+    GuavaCacheMetrics.monitor(
+        meterRegistry, identitiesByXrefSk, "beneficiary_identities_by_xref_sk");
+    invalidations = meterRegistry.counter("application.beneficiary.identity_cache.invalidations");
+  }
+
+  /**
+   * Cached version of {@link BeneficiaryRepository#getXrefSkFromBeneSk}.
+   *
+   * @param beneSk original beneSk
+   * @return xrefSk and MBI for the bene
+   */
+  public Optional<BeneficiarySimple> getXrefSkFromBeneSk(long beneSk) {
+    return get(xrefByBeneSk, beneSk, () -> beneficiaryRepository.getXrefSkFromBeneSk(beneSk));
+  }
+
+  /**
+   * Cached version of {@link BeneficiaryRepository#getXrefSkFromMbi}.
+   *
+   * @param mbi Medicare Beneficiary Identifier
+   * @return xrefSk for the bene
+   */
+  public Optional<Long> getXrefSkFromMbi(String mbi) {
+    return get(xrefSkByMbi, mbi, () -> beneficiaryRepository.getXrefSkFromMbi(mbi));
+  }
+
+  /**
+   * Cached version of {@link BeneficiaryRepository#getValidBeneficiaryIdentities}.
+   *
+   * @param beneXrefSk computed bene surrogate key
+   * @return all active identities connected to the bene record
+   */
+  public List<BeneficiaryIdentity> getValidBeneficiaryIdentities(long beneXrefSk) {
+    return get(
+        identitiesByXrefSk,
+        beneXrefSk,
+        () -> beneficiaryRepository.getValidBeneficiaryIdentities(beneXrefSk));
+  }
+
+  private <K, V> V get(Cache<K, V> cache, K key, Supplier<V> loader) {
+    if (!enabled) {
+      return loader.get();
+    }
+    checkWatermark();
+    var value = cache.getIfPresent(key);
+    if (value == null) {
+      var loadGeneration = generation.get();
+      value = loader.get();
+      if (generation.get() == loadGeneration) {
+        cache.put(key, value);
+      }
+    }
+    return value;
+  }
+
+  // Clears every cache if the IDR pipeline completed a batch since the last check. Only one thread
+  // checks at a time, the others keep using the cached entries in the meantime.
+  private void checkWatermark() {
+    var now = System.nanoTime();
+    if (now - nextWatermarkCheckNanos < 0 || !checkingWatermark.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      var latest = loadProgressRepository.lastUpdated();
+      if (!latest.equals(watermark)) {
+        if (watermark != null) {
+          invalidations.increment();
+        }
+        generation.incrementAndGet();
+        xrefByBeneSk.invalidateAll();
+        xrefSkByMbi.invalidateAll();
+        identitiesByXrefSk.invalidateAll();
+        watermark = latest;
+      }
+      nextWatermarkCheckNanos = now + watermarkCheckIntervalNanos;
+    } finally {
+      checkingWatermark.set(false);
+    }
+  }
+
+  private static <K, V> Cache<K, V> createCache(long maxSize) {
+    return CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+  }
+}
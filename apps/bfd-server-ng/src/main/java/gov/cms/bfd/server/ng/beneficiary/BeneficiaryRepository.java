@@ -78,21 +78,20 @@ public class BeneficiaryRepository {
     var query =
         entityManager
             .createQuery(
-                String.format(
-                    """
-                      SELECT bene
-                      FROM Beneficiary bene
-                      WHERE bene.beneSk = :beneSk
-                        AND ((cast(:lowerBound AS ZonedDateTime)) IS NULL OR bene.patientMeta.updatedTimestamp %s :lowerBound)
-                        AND ((cast(:upperBound AS ZonedDateTime)) IS NULL OR bene.patientMeta.updatedTimestamp %s :upperBound)
-                      ORDER BY bene.obsoleteTimestamp DESC
-                    """,
-                    lastUpdatedRange.getLowerBoundSqlOperator(),
-                    lastUpdatedRange.getUpperBoundSqlOperator()),
+                """
+                  SELECT bene
+                  FROM Beneficiary bene
+                  WHERE bene.beneSk = :beneSk
+                    AND ((cast(:lowerBound AS ZonedDateTime)) IS NULL OR bene.patientMeta.updatedTimestamp >= :lowerBound)
+                    AND ((cast(:upperBound AS ZonedDateTime)) IS NULL OR bene.patientMeta.updatedTimestamp < :upperBound)
+                  ORDER BY bene.obsoleteTimestamp DESC
+                """,
                 Beneficiary.class)
             .setParameter("beneSk", beneSk)
-            .setParameter("lowerBound", lastUpdatedRange.getLowerBoundDateTime().orElse(null))
-            .setParameter("upperBound", lastUpdatedRange.getUpperBoundDateTime().orElse(null));
+            .setParameter(
+                "lowerBound", lastUpdatedRange.getInclusiveLowerBoundDateTime().orElse(null))
+            .setParameter(
+                "upperBound", lastUpdatedRange.getExclusiveUpperBoundDateTime().orElse(null));
 
     var optionalBeneficiary =
         queryTelemetryUtil.executeAndTrack("findById", query).stream().findFirst();
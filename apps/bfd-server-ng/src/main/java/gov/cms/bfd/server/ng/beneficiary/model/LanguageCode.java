@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.beneficiary.model;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.hl7.fhir.r4.model.CodeableConcept;
@@ -22,6 +22,9 @@ public enum LanguageCode {
   private final String idrCode;
   private final String ietfCode;
 
+  private static final CodeLookup<String, LanguageCode> BY_IDR_CODE =
+      CodeLookup.of(values(), v -> v.idrCode);
+
   /**
    * Creates an instance from the IDR representation of a language code.
    *
@@ -29,10 +32,7 @@ public enum LanguageCode {
    * @return {@link LanguageCode} enum
    */
   public static LanguageCode fromIdrCode(String idrCode) {
-    return Arrays.stream(values())
-        .filter(v -> v.idrCode.equals(idrCode))
-        .findFirst()
-        .orElse(LanguageCode.UNKNOWN);
+    return BY_IDR_CODE.find(idrCode).orElse(LanguageCode.UNKNOWN);
   }
 
   Patient.PatientCommunicationComponent toFhir() {
@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.beneficiary.model;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.hl7.fhir.r4.model.Coding;
@@ -70,6 +70,9 @@ public enum RaceCode {
   private final String extensionSystem;
   private final String ombSystem;
 
+  private static final CodeLookup<String, RaceCode> BY_IDR_CODE =
+      CodeLookup.of(values(), v -> v.idrCode);
+
   /**
    * Converts the IDR race code to its corresponding {@link RaceCode} representation.
    *
@@ -77,10 +80,7 @@ public enum RaceCode {
    * @return {@link RaceCode} representation
    */
   public static RaceCode fromIdrCode(String idrCode) {
-    return Arrays.stream(values())
-        .filter(v -> v.idrCode.equals(idrCode))
-        .findFirst()
-        .orElse(RaceCode.UNKNOWN);
+    return BY_IDR_CODE.find(idrCode).orElse(RaceCode.UNKNOWN);
   }
 
   Extension toFhir() {
@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.beneficiary.model;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -22,6 +22,9 @@ public enum SexCode {
   private final Enumerations.AdministrativeGender administrativeGender;
   private final String usCoreSexCode;
 
+  private static final CodeLookup<String, SexCode> BY_IDR_CODE =
+      CodeLookup.of(values(), v -> v.idrCode);
+
   /**
    * Attempts to convert the IDR sex code to a valid representation, returning an empty value if it
    * is not found.
@@ -30,7 +33,7 @@ public enum SexCode {
    * @return the {@link SexCode} if it is found, else None.
    */
   public static Optional<SexCode> tryFromIdrCode(String idrCode) {
-    return Arrays.stream(values()).filter(v -> v.idrCode.equals(idrCode)).findFirst();
+    return BY_IDR_CODE.find(idrCode);
   }
 
   Enumerations.AdministrativeGender toFhirAdministrativeGender() {
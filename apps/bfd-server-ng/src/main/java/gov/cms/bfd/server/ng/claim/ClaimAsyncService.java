@@ -12,11 +12,15 @@ import gov.cms.bfd.server.ng.claim.model.common.entities.ClaimBase;
 import gov.cms.bfd.server.ng.input.ClaimSearchCriteria;
 import gov.cms.bfd.server.ng.log.QueryTelemetryUtil;
 import gov.cms.bfd.server.ng.util.MetricRecorder;
+import gov.cms.bfd.sharedutils.database.HedgedReadExecutor;
 import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
 import lombok.AllArgsConstructor;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Repository;
@@ -29,11 +33,14 @@ import org.springframework.stereotype.Repository;
 @AllArgsConstructor
 @SuppressWarnings("java:S2077")
 public class ClaimAsyncService {
+  // Matches the named params of a filter clause
+  private static final Pattern PARAM_PATTERN = Pattern.compile(":\\w+");
 
   private final EntityManagerFactory entityManagerFactory;
   private final MetricRecorder metricRecorder;
   private final QueryTelemetryUtil queryTelemetryUtil;
   private final PriorAuthorizationRepository priorAuthorizationRepository;
+  private final HedgedReadExecutor hedgedReadExecutor;
 
   @Async
   @SuppressWarnings("java:S2077")
@@ -43,7 +50,8 @@ public class ClaimAsyncService {
           Class<C> claimClass,
           SystemType systemType,
           List<Long> claimUniqueIds,
-          List<B> filterBuilders) {
+          List<B> filterBuilders,
+          @Nullable Semaphore hedgePermits) {
 
     var filters = getFilters(filterBuilders, systemType);
     var whereClause = buildWhereClause(filters, systemType);
@@ -60,15 +68,22 @@ public class ClaimAsyncService {
         "application.claim.search_by_ids_in_claim_type",
         () -> Tags.of(CLAIM_TYPE, claimClass.getSimpleName()),
         () -> {
-          try (var entityManager = readonly(entityManagerFactory.createEntityManager())) {
-            var query =
-                DbFilterParam.withParams(
-                        entityManager.createQuery(jpql, claimClass), filters.params())
-                    .setParameter("claimUniqueIds", claimUniqueIds);
-            var result = queryTelemetryUtil.executeAndTrack("findByIdsInClaimType", query);
-            logUniqueBeneficiaries(result);
-            return CompletableFuture.completedFuture(result);
-          }
+          // Each attempt of a hedged read needs its own entity manager and connection
+          var result =
+              hedgedReadExecutor.execute(
+                  "findByIdsInClaimType_" + claimClass.getSimpleName(),
+                  () -> {
+                    try (var entityManager = readonly(entityManagerFactory.createEntityManager())) {
+                      var query =
+                          DbFilterParam.withParams(
+                                  entityManager.createQuery(jpql, claimClass), filters.params())
+                              .setParameter("claimUniqueIds", claimUniqueIds);
+                      return queryTelemetryUtil.executeAndTrack("findByIdsInClaimType", query);
+                    }
+                  },
+                  hedgePermits);
+          logUniqueBeneficiaries(result);
+          return CompletableFuture.completedFuture(result);
         });
   }
 
@@ -108,6 +123,104 @@ public class ClaimAsyncService {
     }
   }
 
+  /**
+   * Finds the ids of the claims of a beneficiary in every given claim type with a single query, so
+   * that only one connection is used no matter how many claim tables are searched.
+   *
+   * @param claimTypes claim types to search
+   * @param criteria search criteria
+   * @param filterBuilders filters applied to every claim type
+   * @param hedgePermits a hedged attempt of the query is only started if it can take one of these
+   *     permits
+   * @return ids of the matching claims, for each claim type that has matches
+   */
+  protected Map<ClaimTypeDefinition, List<Long>> findClaimIdsByBene(
+      List<ClaimTypeDefinition> claimTypes,
+      ClaimSearchCriteria criteria,
+      List<DbFilterBuilder> filterBuilders,
+      Semaphore hedgePermits) {
+    var idsByClaimType = new LinkedHashMap<ClaimTypeDefinition, List<Long>>();
+    var claimIdsQuery = buildClaimIdsByBeneQuery(claimTypes, filterBuilders);
+    if (claimIdsQuery.isEmpty()) {
+      return idsByClaimType;
+    }
+
+    var rows =
+        hedgedReadExecutor.execute(
+            "findClaimIdsByBene",
+            () -> {
+              try (var entityManager = readonly(entityManagerFactory.createEntityManager())) {
+                var query =
+                    DbFilterParam.withParams(
+                            entityManager.createQuery(claimIdsQuery.get().jpql(), Object[].class),
+                            claimIdsQuery.get().params())
+                        .setParameter("beneSk", criteria.beneSk());
+                return queryTelemetryUtil.executeAndTrack("findClaimIdsByBene", query);
+              }
+            },
+            hedgePermits);
+    for (var row : rows) {
+      var claimType = claimTypes.get(((Number) row[1]).intValue());
+      idsByClaimType
+          .computeIfAbsent(claimType, _ -> new ArrayList<>())
+          .add(((Number) row[0]).longValue());
+    }
+    return idsByClaimType;
+  }
+
+  /**
+   * Builds the query used by {@link #findClaimIdsByBene}. Claim types whose filters exclude every
+   * claim are left out. Each select binds its own copy of the filter params, since a filter can
+   * bind different values for different system types.
+   *
+   * @param claimTypes claim types to search
+   * @param filterBuilders filters applied to every claim type
+   * @return the query, or empty if no claim type can match
+   */
+  Optional<ClaimIdsQuery> buildClaimIdsByBeneQuery(
+      List<ClaimTypeDefinition> claimTypes, List<DbFilterBuilder> filterBuilders) {
+    var selects = new ArrayList<String>();
+    var params = new ArrayList<DbFilterParam>();
+    for (var i = 0; i < claimTypes.size(); i++) {
+      var claimType = claimTypes.get(i);
+      var filters = getFilters(filterBuilders, claimType.systemType());
+      if (filters.equals(DbFilter.noMatches())) {
+        continue;
+      }
+      var suffix = "_" + i;
+      for (var param : filters.params()) {
+        params.add(new DbFilterParam(param.name() + suffix, param.value()));
+      }
+      var whereClause =
+          PARAM_PATTERN
+              .matcher(buildWhereClause(filters, claimType.systemType()))
+              .replaceAll("$0" + suffix);
+      // Entity names default to the simple class name
+      selects.add(
+          String.format(
+              """
+              SELECT c.claimUniqueId, %d
+              FROM %s c
+              JOIN c.beneficiary b
+              WHERE b.xrefSk = :beneSk
+              %s
+              """,
+              i, claimType.claimClass().getSimpleName(), whereClause));
+    }
+    if (selects.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(new ClaimIdsQuery(String.join("UNION ALL\n", selects), params));
+  }
+
+  /**
+   * A query and the params to bind to it.
+   *
+   * @param jpql the query
+   * @param params params to pass to the query
+   */
+  record ClaimIdsQuery(String jpql, List<DbFilterParam> params) {}
+
   private String buildWhereClause(DbFilter filter, SystemType systemType) {
     var latestClaimFilter =
         systemType.filterLatestClaims() ? "AND c.latestClaimIndicator = 'Y'" : "";
@@ -125,6 +238,10 @@ public class ClaimAsyncService {
     var queryParams = new ArrayList<DbFilterParam>();
     for (var builder : builders) {
       var params = builder.getFilters("c", systemType);
+      // Nothing else matters once a filter excludes every claim, so all such queries share a shape
+      if (params.equals(DbFilter.noMatches())) {
+        return params;
+      }
       sb.append(params.filterClause());
       queryParams.addAll(params.params());
     }
@@ -0,0 +1,40 @@
+package gov.cms.bfd.server.ng.claim;
+
+import gov.cms.bfd.server.ng.claim.model.BeneficiaryClaimAvailability;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Repository methods for the claim tables that have claims for each beneficiary. */
+@Transactional(readOnly = true)
+@Repository
+@AllArgsConstructor
+public class ClaimAvailabilityRepository {
+  @PersistenceContext private EntityManager entityManager;
+
+  /**
+   * Returns the flags of the claim tables that have claims for any of the beneficiary's identities.
+   * See {@link BeneficiaryClaimAvailability} for the flags.
+   *
+   * @param beneXrefSk computed bene surrogate key
+   * @return claim table flags, zero if the beneficiary has no claims
+   */
+  public int getClaimTableFlags(long beneXrefSk) {
+    return entityManager
+        .createQuery(
+            """
+            SELECT a.claimTableFlags
+            FROM BeneficiaryClaimAvailability a
+            JOIN BeneficiarySimple b ON b.beneSk = a.beneSk
+            WHERE b.xrefSk = :beneXrefSk
+            AND b.latestTransactionFlag = 'Y'
+            """,
+            Integer.class)
+        .setParameter("beneXrefSk", beneXrefSk)
+        .getResultList()
+        .stream()
+        .reduce(0, (a, b) -> a | b);
+  }
+}
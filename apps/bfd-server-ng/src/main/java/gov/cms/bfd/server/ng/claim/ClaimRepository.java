@@ -1,7 +1,10 @@
 package gov.cms.bfd.server.ng.claim;
 
+import com.google.common.collect.Lists;
+import gov.cms.bfd.server.ng.Configuration;
 import gov.cms.bfd.server.ng.DbFilterBuilder;
 import gov.cms.bfd.server.ng.claim.filter.*;
+import gov.cms.bfd.server.ng.claim.model.BeneficiaryClaimAvailability;
 import gov.cms.bfd.server.ng.claim.model.PriorAuthorization;
 import gov.cms.bfd.server.ng.claim.model.common.SystemType;
 import gov.cms.bfd.server.ng.claim.model.common.entities.ClaimBase;
@@ -17,6 +20,8 @@ import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.aop.MeterTag;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Repository;
@@ -27,7 +32,12 @@ import org.springframework.stereotype.Repository;
 public class ClaimRepository {
 
   private final ClaimAsyncService asyncService;
+  private final ClaimAvailabilityRepository claimAvailabilityRepository;
   private final MetricRecorder metricRecorder;
+  private final Configuration configuration;
+
+  // Keeps the number of bind parameters of each query well below the PostgreSQL limit
+  private static final int MAX_IDS_PER_QUERY = 5_000;
 
   private static final String CLAIM_PROFESSIONAL_SHARED_SYSTEMS =
       """
@@ -68,21 +78,30 @@ public class ClaimRepository {
         JOIN FETCH c.beneficiary b
       """;
 
-  private static final List<ClaimTypeDefinition> ALL_CLAIM_TYPES =
+  static final List<ClaimTypeDefinition> ALL_CLAIM_TYPES =
       List.of(
           new ClaimTypeDefinition(
               CLAIM_PROFESSIONAL_SHARED_SYSTEMS,
               ClaimProfessionalCmsSharedSystems.class,
-              SystemType.SS),
+              SystemType.SS,
+              BeneficiaryClaimAvailability.CLAIM_PROFESSIONAL_SS),
           new ClaimTypeDefinition(
-              CLAIM_PROFESSIONAL_NCH, ClaimProfessionalCmsNch.class, SystemType.NCH),
+              CLAIM_PROFESSIONAL_NCH,
+              ClaimProfessionalCmsNch.class,
+              SystemType.NCH,
+              BeneficiaryClaimAvailability.CLAIM_PROFESSIONAL_NCH),
           new ClaimTypeDefinition(
               CLAIM_INSTITUTIONAL_SHARED_SYSTEMS,
               ClaimInstitutionalCmsSharedSystems.class,
-              SystemType.SS),
+              SystemType.SS,
+              BeneficiaryClaimAvailability.CLAIM_INSTITUTIONAL_SS),
+          new ClaimTypeDefinition(
+              CLAIM_INSTITUTIONAL_NCH,
+              ClaimInstitutionalCmsNch.class,
+              SystemType.NCH,
+              BeneficiaryClaimAvailability.CLAIM_INSTITUTIONAL_NCH),
           new ClaimTypeDefinition(
-              CLAIM_INSTITUTIONAL_NCH, ClaimInstitutionalCmsNch.class, SystemType.NCH),
-          new ClaimTypeDefinition(CLAIM_RX, ClaimCmsRx.class, SystemType.DDPS));
+              CLAIM_RX, ClaimCmsRx.class, SystemType.DDPS, BeneficiaryClaimAvailability.CLAIM_RX));
 
   /**
    * Search for a claim by its ID.
@@ -113,7 +132,8 @@ public class ClaimRepository {
             ClaimProfessionalCmsSharedSystems.class,
             ClaimProfessionalCmsSharedSystems.getSystemType(),
             criteria.claimUniqueIds(),
-            paramBuilders);
+            paramBuilders,
+            null);
 
     var professionalNchClaims =
         asyncService.findByIdsInClaimType(
@@ -121,7 +141,8 @@ public class ClaimRepository {
             ClaimProfessionalCmsNch.class,
             ClaimProfessionalCmsNch.getSystemType(),
             criteria.claimUniqueIds(),
-            paramBuilders);
+            paramBuilders,
+            null);
 
     var institutionalSharedSystemsClaims =
         asyncService.findByIdsInClaimType(
@@ -129,7 +150,8 @@ public class ClaimRepository {
             ClaimInstitutionalCmsSharedSystems.class,
             ClaimInstitutionalCmsSharedSystems.getSystemType(),
             criteria.claimUniqueIds(),
-            paramBuilders);
+            paramBuilders,
+            null);
 
     var institutionalNchClaims =
         asyncService.findByIdsInClaimType(
@@ -137,7 +159,8 @@ public class ClaimRepository {
             ClaimInstitutionalCmsNch.class,
             ClaimInstitutionalCmsNch.getSystemType(),
             criteria.claimUniqueIds(),
-            paramBuilders);
+            paramBuilders,
+            null);
 
     var rxClaims =
         asyncService.findByIdsInClaimType(
@@ -145,7 +168,8 @@ public class ClaimRepository {
             ClaimCmsRx.class,
             ClaimCmsRx.getSystemType(),
             criteria.claimUniqueIds(),
-            paramBuilders);
+            paramBuilders,
+            null);
 
     // Wait for all queries
     CompletableFuture.allOf(
@@ -191,32 +215,118 @@ public class ClaimRepository {
             new OutcomeFilterParam(criteria.outcomes()),
             new SourceFilterParam(criteria.sources()));
 
-    var claimFutures =
+    var claimSearch = configuration.getNonsensitive().getClaimSearch();
+    // Skip the claim tables that can't have claims for the beneficiary
+    var claimTableFlags =
+        claimSearch.isAvailabilityIndex()
+            ? claimAvailabilityRepository.getClaimTableFlags(criteria.beneSk())
+            : BeneficiaryClaimAvailability.ALL_CLAIM_TABLES;
+    var claimTypes =
         ALL_CLAIM_TYPES.stream()
             .filter(claimTypeDefinition -> claimTypeDefinition.matchesSystemType(filterBuilders))
+            .filter(claimTypeDefinition -> claimTypeDefinition.hasClaims(claimTableFlags))
+            .toList();
+
+    var includePriorAuth = filterBuilders.stream().allMatch(DbFilterBuilder::shouldQueryPriorAuth);
+    CompletableFuture<List<PriorAuthorization>> priorAuthFuture;
+    List<ClaimBase> claims;
+    if (claimSearch.isUnionQuery()) {
+      // Every query of the request holds a permit while it runs, including the prior
+      // authorization query. A hedged attempt takes another permit, which is held until both of
+      // the query's attempts finish, so the request never runs more queries at once than
+      // configured even when the attempt that loses outlives the query
+      var permits = new Semaphore(Math.max(1, claimSearch.getMaxConcurrentQueries()));
+      priorAuthFuture =
+          includePriorAuth
+              ? withPermit(permits, () -> asyncService.fetchPriorAuth(criteria.mbi()))
+              : CompletableFuture.completedFuture(Collections.emptyList());
+      claims = fetchClaimsWithUnion(claimTypes, criteria, filterBuilders, permits);
+    } else {
+      priorAuthFuture =
+          includePriorAuth
+              ? asyncService.fetchPriorAuth(criteria.mbi())
+              : CompletableFuture.completedFuture(Collections.emptyList());
+      claims = fetchClaimsByType(claimTypes, criteria, filterBuilders);
+    }
+    var priorAuths = priorAuthFuture.join();
+    return new ClaimAndAuthResult(
+        claims.stream().sorted(Comparator.comparing(ClaimBase::getClaimUniqueId)).toList(),
+        priorAuths);
+  }
+
+  // Queries every claim type in parallel, each query uses its own connection
+  private List<ClaimBase> fetchClaimsByType(
+      List<ClaimTypeDefinition> claimTypes,
+      ClaimSearchCriteria criteria,
+      List<DbFilterBuilder> filterBuilders) {
+    var claimFutures =
+        claimTypes.stream()
             .map(
                 d ->
                     asyncService.fetchClaims(
                         d.baseQuery(), d.claimClass(), d.systemType(), criteria, filterBuilders))
             .toList();
+    CompletableFuture.allOf(claimFutures.toArray(new CompletableFuture[0])).join();
 
-    var includePriorAuth = filterBuilders.stream().allMatch(DbFilterBuilder::shouldQueryPriorAuth);
-    CompletableFuture<List<PriorAuthorization>> priorAuthFuture =
-        includePriorAuth
-            ? asyncService.fetchPriorAuth(criteria.mbi())
-            : CompletableFuture.completedFuture(Collections.emptyList());
+    // Include the prior authorization query to keep the metric comparable with the union query
+    metricRecorder.recordDistribution(
+        "application.claim.search_by_bene.fan_out", claimFutures.size() + 1);
 
-    List<CompletableFuture<?>> allFutures = new ArrayList<>(claimFutures);
-    allFutures.add(priorAuthFuture);
-    CompletableFuture.allOf(allFutures.toArray(new CompletableFuture[0])).join();
+    Stream<ClaimBase> claimStream = claimFutures.stream().flatMap(f -> f.join().stream());
+    return claimStream.toList();
+  }
 
-    metricRecorder.recordDistribution(
-        "application.claim.search_by_bene.fan_out", allFutures.size());
+  // Finds the ids of the matching claims with one query, then loads only the claim types that
+  // have matches. A query is started as soon as any running query finishes, so no more queries
+  // run at once than there are permits.
+  private List<ClaimBase> fetchClaimsWithUnion(
+      List<ClaimTypeDefinition> claimTypes,
+      ClaimSearchCriteria criteria,
+      List<DbFilterBuilder> filterBuilders,
+      Semaphore permits) {
+    Map<ClaimTypeDefinition, List<Long>> idsByClaimType;
+    permits.acquireUninterruptibly();
+    try {
+      idsByClaimType =
+          asyncService.findClaimIdsByBene(claimTypes, criteria, filterBuilders, permits);
+    } finally {
+      permits.release();
+    }
+
+    var claimFutures = new ArrayList<CompletableFuture<? extends List<? extends ClaimBase>>>();
+    for (var entry : idsByClaimType.entrySet()) {
+      var d = entry.getKey();
+      // The ids were found using the filters, so they don't need to be applied again
+      for (var ids : Lists.partition(entry.getValue(), MAX_IDS_PER_QUERY)) {
+        claimFutures.add(
+            withPermit(
+                permits,
+                () ->
+                    asyncService.findByIdsInClaimType(
+                        d.baseQuery(), d.claimClass(), d.systemType(), ids, List.of(), permits)));
+      }
+    }
+    CompletableFuture.allOf(claimFutures.toArray(new CompletableFuture[0])).join();
 
+    // Include the id query and the prior authorization query
+    metricRecorder.recordDistribution(
+        "application.claim.search_by_bene.fan_out", claimFutures.size() + 2);
+    metricRecorder.recordDistribution(
+        "application.claim.search_by_bene.hydrated_claim_types", idsByClaimType.size());
     Stream<ClaimBase> claimStream = claimFutures.stream().flatMap(f -> f.join().stream());
-    var claims = claimStream.sorted(Comparator.comparing(ClaimBase::getClaimUniqueId)).toList();
-    var priorAuths = priorAuthFuture.join();
-    return new ClaimAndAuthResult(claims, priorAuths);
+    return claimStream.toList();
+  }
+
+  // Waits for a permit before starting the query and releases it once the query finishes
+  private static <T> CompletableFuture<T> withPermit(
+      Semaphore permits, Supplier<CompletableFuture<T>> query) {
+    permits.acquireUninterruptibly();
+    try {
+      return query.get().whenComplete((result, ex) -> permits.release());
+    } catch (RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
   }
 
   /**
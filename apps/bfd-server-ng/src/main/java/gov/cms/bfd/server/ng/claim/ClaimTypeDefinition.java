@@ -1,6 +1,7 @@
 package gov.cms.bfd.server.ng.claim;
 
 import gov.cms.bfd.server.ng.DbFilterBuilder;
+import gov.cms.bfd.server.ng.claim.model.BeneficiaryClaimAvailability;
 import gov.cms.bfd.server.ng.claim.model.common.SystemType;
 import gov.cms.bfd.server.ng.claim.model.common.entities.ClaimBase;
 import java.util.List;
@@ -11,9 +12,13 @@ import java.util.List;
  * @param baseQuery base query
  * @param claimClass entity class
  * @param systemType system type which indicates a claim's source
+ * @param availabilityFlag flag of the claim table in {@link BeneficiaryClaimAvailability}
  */
 public record ClaimTypeDefinition(
-    String baseQuery, Class<? extends ClaimBase> claimClass, SystemType systemType) {
+    String baseQuery,
+    Class<? extends ClaimBase> claimClass,
+    SystemType systemType,
+    int availabilityFlag) {
 
   /**
    * Determine whether this claim type definition is compatible with any active filters. Inactive
@@ -25,4 +30,14 @@ public record ClaimTypeDefinition(
   public boolean matchesSystemType(List<DbFilterBuilder> filters) {
     return filters.stream().allMatch(filter -> filter.matchesSystemType(systemType));
   }
+
+  /**
+   * Determine whether the beneficiary may have claims of this claim type.
+   *
+   * @param claimTableFlags flags of the claim tables that have claims for the beneficiary
+   * @return boolean
+   */
+  public boolean hasClaims(int claimTableFlags) {
+    return (claimTableFlags & availabilityFlag) != 0;
+  }
 }
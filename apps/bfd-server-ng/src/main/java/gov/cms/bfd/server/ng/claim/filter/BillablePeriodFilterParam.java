@@ -5,8 +5,7 @@ import gov.cms.bfd.server.ng.DbFilterBuilder;
 import gov.cms.bfd.server.ng.DbFilterParam;
 import gov.cms.bfd.server.ng.claim.model.common.SystemType;
 import gov.cms.bfd.server.ng.input.DateTimeRange;
-import java.util.ArrayList;
-import java.util.Optional;
+import java.util.List;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -18,29 +17,23 @@ public record BillablePeriodFilterParam(DateTimeRange claimThroughDate) implemen
   @NotNull
   @Override
   public DbFilter getFilters(@NotNull String tableAlias, @NotNull SystemType systemType) {
-    var filterClause = new StringBuilder();
-    var params = new ArrayList<DbFilterParam>();
-    claimThroughDate
-        .getLowerBoundDate()
-        .ifPresent(
-            d -> {
-              filterClause.append(
-                  String.format(
-                      " AND (%s.billablePeriod.claimThroughDate %s :claimThroughDateLowerBound)",
-                      tableAlias, claimThroughDate.getLowerBoundSqlOperator()));
-              params.add(new DbFilterParam("claimThroughDateLowerBound", Optional.of(d)));
-            });
-
-    claimThroughDate
-        .getUpperBoundDate()
-        .ifPresent(
-            d -> {
-              filterClause.append(
-                  String.format(
-                      " AND (%s.billablePeriod.claimThroughDate %s :claimThroughDateUpperBound)",
-                      tableAlias, claimThroughDate.getUpperBoundSqlOperator()));
-              params.add(new DbFilterParam("claimThroughDateUpperBound", Optional.of(d)));
-            });
-    return new DbFilter(filterClause.toString(), params);
+    // A missing bound is switched off by a flag so the query is the same for every request. The
+    // date converter never binds an empty date as null, so the bound can't be checked for null.
+    var lowerBound = claimThroughDate.getInclusiveLowerBoundDate();
+    var upperBound = claimThroughDate.getExclusiveUpperBoundDate();
+    return new DbFilter(
+        String.format(
+            """
+             AND (:claimThroughDateLowerBoundMissing = TRUE
+               OR %1$s.billablePeriod.claimThroughDate >= :claimThroughDateLowerBound)
+             AND (:claimThroughDateUpperBoundMissing = TRUE
+               OR %1$s.billablePeriod.claimThroughDate < :claimThroughDateUpperBound)
+            """,
+            tableAlias),
+        List.of(
+            new DbFilterParam("claimThroughDateLowerBoundMissing", lowerBound.isEmpty()),
+            new DbFilterParam("claimThroughDateLowerBound", lowerBound),
+            new DbFilterParam("claimThroughDateUpperBoundMissing", upperBound.isEmpty()),
+            new DbFilterParam("claimThroughDateUpperBound", upperBound)));
   }
 }
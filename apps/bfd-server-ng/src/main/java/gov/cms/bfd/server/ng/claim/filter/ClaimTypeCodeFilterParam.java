@@ -15,15 +15,22 @@ import org.jetbrains.annotations.NotNull;
  */
 public record ClaimTypeCodeFilterParam(List<ClaimTypeCode> claimTypeCodes)
     implements DbFilterBuilder {
+  // The IN list still needs a value when the filter is switched off
+  private static final List<ClaimTypeCode> UNFILTERED_CLAIM_TYPE_CODES =
+      List.of(ClaimTypeCode.values()[0]);
+
   @NotNull
   @Override
   public DbFilter getFilters(@NotNull String tableAlias, @NotNull SystemType systemType) {
-    if (claimTypeCodes.isEmpty()) {
-      return DbFilter.empty();
-    }
-
+    // The filter is switched off by a flag so the query is the same for every request
+    var filtered = !claimTypeCodes.isEmpty();
     return new DbFilter(
-        String.format(" AND %s.claimTypeCode IN :claimTypeCodes", tableAlias),
-        List.of(new DbFilterParam("claimTypeCodes", claimTypeCodes)));
+        String.format(
+            " AND (:claimTypeCodesFiltered = FALSE OR %s.claimTypeCode IN :claimTypeCodes)",
+            tableAlias),
+        List.of(
+            new DbFilterParam("claimTypeCodesFiltered", filtered),
+            new DbFilterParam(
+                "claimTypeCodes", filtered ? claimTypeCodes : UNFILTERED_CLAIM_TYPE_CODES)));
   }
 }
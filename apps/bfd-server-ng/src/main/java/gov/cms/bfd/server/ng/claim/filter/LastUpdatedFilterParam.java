@@ -5,7 +5,7 @@ import gov.cms.bfd.server.ng.DbFilterBuilder;
 import gov.cms.bfd.server.ng.DbFilterParam;
 import gov.cms.bfd.server.ng.claim.model.common.SystemType;
 import gov.cms.bfd.server.ng.input.DateTimeRange;
-import java.util.ArrayList;
+import java.util.List;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -17,29 +17,21 @@ public record LastUpdatedFilterParam(DateTimeRange lastUpdated) implements DbFil
   @Override
   @NotNull
   public DbFilter getFilters(@NotNull String tableAlias, @NotNull SystemType systemType) {
-    var filterClause = new StringBuilder();
-    var params = new ArrayList<DbFilterParam>();
-    lastUpdated
-        .getLowerBoundDateTime()
-        .ifPresent(
-            d -> {
-              filterClause.append(
-                  String.format(
-                      " AND (%s.meta.updatedTimestamp %s :lastUpdatedLowerBound)",
-                      tableAlias, lastUpdated.getLowerBoundSqlOperator()));
-              params.add(new DbFilterParam("lastUpdatedLowerBound", d));
-            });
-
-    lastUpdated
-        .getUpperBoundDateTime()
-        .ifPresent(
-            d -> {
-              filterClause.append(
-                  String.format(
-                      " AND (%s.meta.updatedTimestamp %s :lastUpdatedUpperBound)",
-                      tableAlias, lastUpdated.getUpperBoundSqlOperator()));
-              params.add(new DbFilterParam("lastUpdatedUpperBound", d));
-            });
-    return new DbFilter(filterClause.toString(), params);
+    // A missing bound is bound as null so the query is the same for every request
+    return new DbFilter(
+        String.format(
+            """
+             AND ((cast(:lastUpdatedLowerBound AS ZonedDateTime)) IS NULL
+               OR %1$s.meta.updatedTimestamp >= :lastUpdatedLowerBound)
+             AND ((cast(:lastUpdatedUpperBound AS ZonedDateTime)) IS NULL
+               OR %1$s.meta.updatedTimestamp < :lastUpdatedUpperBound)
+            """,
+            tableAlias),
+        List.of(
+            new DbFilterParam(
+                "lastUpdatedLowerBound", lastUpdated.getInclusiveLowerBoundDateTime().orElse(null)),
+            new DbFilterParam(
+                "lastUpdatedUpperBound",
+                lastUpdated.getExclusiveUpperBoundDateTime().orElse(null))));
   }
 }
@@ -5,8 +5,9 @@ import gov.cms.bfd.server.ng.DbFilterBuilder;
 import gov.cms.bfd.server.ng.DbFilterParam;
 import gov.cms.bfd.server.ng.claim.model.common.ClaimPaidStatusCode;
 import gov.cms.bfd.server.ng.claim.model.common.SystemType;
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit;
 import org.jetbrains.annotations.NotNull;
 
@@ -19,79 +20,66 @@ public record OutcomeFilterParam(List<List<ExplanationOfBenefit.RemittanceOutcom
     implements DbFilterBuilder {
   private static final List<ClaimPaidStatusCode> COMPLETE_SHARED_SYSTEMS_STATUS_CODES =
       ClaimPaidStatusCode.findByOutcome(ExplanationOfBenefit.RemittanceOutcome.COMPLETE);
+  private static final String STATUSES_PARAM = "completeOutcomeStatuses";
 
   @NotNull
   @Override
   public DbFilter getFilters(@NotNull String tableAlias, @NotNull SystemType systemType) {
-    if (outcomes.isEmpty()) {
-      return DbFilter.empty();
-    }
-
-    var stringBuilder = new StringBuilder();
-    var params = new ArrayList<DbFilterParam>();
-
-    for (var i = 0; i < outcomes.size(); i++) {
-      var orList = outcomes.get(i);
-      if (orList.isEmpty()) {
-        continue;
+    // Every AND group must match, so the groups are reduced to the outcomes they all allow. This
+    // keeps the query the same no matter how many groups were requested.
+    var allowedOutcomes = EnumSet.allOf(ExplanationOfBenefit.RemittanceOutcome.class);
+    var filtered = false;
+    for (var orList : outcomes) {
+      if (!orList.isEmpty()) {
+        allowedOutcomes.retainAll(orList);
+        filtered = true;
       }
-
-      var filter = getOutcomeFilter(tableAlias, systemType, orList, i);
-      stringBuilder.append(filter.filterClause());
-      params.addAll(filter.params());
     }
 
-    return new DbFilter(stringBuilder.toString(), params);
+    // Shared systems claims always get the outcome filter so their query doesn't change
+    if (!filtered && systemType != SystemType.SS) {
+      return DbFilter.empty();
+    }
+    return getOutcomeFilter(tableAlias, systemType, allowedOutcomes);
   }
 
   private DbFilter getOutcomeFilter(
       String tableAlias,
       SystemType systemType,
-      List<ExplanationOfBenefit.RemittanceOutcome> orList,
-      int index) {
+      Set<ExplanationOfBenefit.RemittanceOutcome> allowedOutcomes) {
+    var complete = allowedOutcomes.contains(ExplanationOfBenefit.RemittanceOutcome.COMPLETE);
+    var partial = allowedOutcomes.contains(ExplanationOfBenefit.RemittanceOutcome.PARTIAL);
 
     switch (systemType) {
       case NCH, DDPS -> {
-        if (orList.contains(ExplanationOfBenefit.RemittanceOutcome.COMPLETE)) {
-          return DbFilter.empty();
-        }
-        return noMatchesFilter();
+        return complete ? DbFilter.empty() : DbFilter.noMatches();
       }
       case SS -> {
-        var clauses = new ArrayList<String>();
-        var params = new ArrayList<DbFilterParam>();
-
-        if (orList.contains(ExplanationOfBenefit.RemittanceOutcome.COMPLETE)) {
-          var paramName = String.format("completeOutcomeStatuses_%d", index);
-          clauses.add(String.format("%s.claimPaidStatusCode IN :%s", tableAlias, paramName));
-          params.add(new DbFilterParam(paramName, COMPLETE_SHARED_SYSTEMS_STATUS_CODES));
-        }
-
-        if (orList.contains(ExplanationOfBenefit.RemittanceOutcome.PARTIAL)) {
-          var paramName = String.format("completeOutcomeStatusesForPartial_%d", index);
-          clauses.add(
-              String.format(
-                  "(%s.claimPaidStatusCode IS NULL OR %s.claimPaidStatusCode NOT IN :%s)",
-                  tableAlias, tableAlias, paramName));
-          params.add(new DbFilterParam(paramName, COMPLETE_SHARED_SYSTEMS_STATUS_CODES));
-        }
-
-        if (clauses.isEmpty()) {
-          return noMatchesFilter();
+        if (!complete && !partial) {
+          return DbFilter.noMatches();
         }
-
-        return new DbFilter(String.format(" AND (%s)", String.join(" OR ", clauses)), params);
+        // Every shared systems claim is either complete or partial. Each outcome is switched on by
+        // a flag so the query is the same for every request.
+        return new DbFilter(
+            String.format(
+                """
+                 AND ((:outcomeComplete = TRUE AND %1$s.claimPaidStatusCode IN :%2$s)
+                   OR (:outcomePartial = TRUE
+                     AND (%1$s.claimPaidStatusCode IS NULL
+                       OR %1$s.claimPaidStatusCode NOT IN :%2$s)))
+                """,
+                tableAlias, STATUSES_PARAM),
+            List.of(
+                new DbFilterParam("outcomeComplete", complete),
+                new DbFilterParam("outcomePartial", partial),
+                new DbFilterParam(STATUSES_PARAM, COMPLETE_SHARED_SYSTEMS_STATUS_CODES)));
       }
       default -> {
-        return noMatchesFilter();
+        return DbFilter.noMatches();
       }
     }
   }
 
-  private static DbFilter noMatchesFilter() {
-    return new DbFilter(" AND FALSE", List.of());
-  }
-
   @Override
   public boolean matchesSystemType(@NotNull SystemType systemType) {
     if (outcomes.isEmpty()) {
@@ -5,7 +5,7 @@ import gov.cms.bfd.server.ng.DbFilterBuilder;
 import gov.cms.bfd.server.ng.DbFilterParam;
 import gov.cms.bfd.server.ng.claim.model.common.MetaSourceSk;
 import gov.cms.bfd.server.ng.claim.model.common.SystemType;
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
 
@@ -19,34 +19,39 @@ public record SourceFilterParam(List<List<MetaSourceSk>> metaSourceSk) implement
   @NotNull
   @Override
   public DbFilter getFilters(@NotNull String tableAlias, @NotNull SystemType systemType) {
-    var stringBuilder = new StringBuilder();
-    var params = new ArrayList<DbFilterParam>();
-
-    for (var i = 0; i < metaSourceSk.size(); i++) {
-      var orList = metaSourceSk.get(i);
+    // Every AND group must match, so the groups are reduced to the sources they all allow. This
+    // keeps the query the same no matter how many groups or values were requested.
+    var allowedSources = EnumSet.allOf(MetaSourceSk.class);
+    var filtered = false;
+    for (var orList : metaSourceSk) {
       if (orList.isEmpty()) {
         continue;
       }
-      var paramName = "src_" + i;
-      if (systemType.isCompatibleWithAny(orList)) {
-        if (systemType == SystemType.SS) {
-          stringBuilder
-              .append(" AND ")
-              .append(tableAlias)
-              .append(".metaSourceSk IN :")
-              .append(paramName);
-
-          params.add(new DbFilterParam(paramName, orList));
-        }
-      } else {
-        // If the system is incompatible, we set this filter to FALSE since it shouldn't match
-        // anything.
-        // Note that it could still be combined with an OR so we can't just ignore it.
-        stringBuilder.append(" AND FALSE");
+      if (!systemType.isCompatibleWithAny(orList)) {
+        // If the system is incompatible, nothing can match
+        return DbFilter.noMatches();
       }
+      allowedSources.retainAll(orList);
+      filtered = true;
     }
 
-    return new DbFilter(stringBuilder.toString(), params);
+    if (systemType != SystemType.SS) {
+      // Only shared systems claims store a source, the other claims match any compatible source
+      return DbFilter.empty();
+    }
+    if (allowedSources.isEmpty()) {
+      return DbFilter.noMatches();
+    }
+    // The filter is switched off by a flag so the query is the same for every request
+    return new DbFilter(
+        String.format(
+            " AND (:metaSourceSksFiltered = FALSE OR %s.metaSourceSk IN :metaSourceSks)",
+            tableAlias),
+        List.of(
+            new DbFilterParam("metaSourceSksFiltered", filtered),
+            new DbFilterParam(
+                "metaSourceSks",
+                DbFilterParam.padded(List.copyOf(allowedSources), MetaSourceSk.values().length))));
   }
 
   @Override
@@ -3,11 +3,16 @@ package gov.cms.bfd.server.ng.claim.filter;
 import gov.cms.bfd.server.ng.DbFilter;
 import gov.cms.bfd.server.ng.DbFilterBuilder;
 import gov.cms.bfd.server.ng.DbFilterParam;
+import gov.cms.bfd.server.ng.claim.model.common.ClaimFinalAction;
 import gov.cms.bfd.server.ng.claim.model.common.MetaSourceSk;
 import gov.cms.bfd.server.ng.claim.model.common.SystemType;
 import gov.cms.bfd.server.ng.input.TagCriterion;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import org.jetbrains.annotations.NotNull;
 
@@ -18,58 +23,102 @@ import org.jetbrains.annotations.NotNull;
  */
 public record TagCriteriaFilterParam(List<List<TagCriterion>> tagCriteria)
     implements DbFilterBuilder {
+  // Bound when the sources aren't filtered, the IN list still needs a value
+  private static final List<MetaSourceSk> UNFILTERED_META_SOURCE_SKS =
+      List.of(MetaSourceSk.values()[0]);
 
   @NotNull
   @Override
   public DbFilter getFilters(@NotNull String tableAlias, @NotNull SystemType systemType) {
-    var stringBuilder = new StringBuilder();
-    var params = new ArrayList<DbFilterParam>();
-    for (var i = 0; i < tagCriteria.size(); i++) {
-      var orList = tagCriteria.get(i);
-      if (orList.isEmpty()) {
-        continue;
-      }
-      var clauses = new ArrayList<String>();
-      for (var j = 0; j < orList.size(); j++) {
-        addParam(i, j, tableAlias, orList.get(j), systemType, clauses, params);
-      }
-      if (!clauses.isEmpty()) {
-        stringBuilder.append(" AND (").append(String.join(" OR ", clauses)).append(")");
-      }
+    var orLists = tagCriteria.stream().filter(orList -> !orList.isEmpty()).toList();
+
+    // The final action only has two values, so the AND groups can be reduced to the sources
+    // allowed for each final action. This keeps the query the same no matter how many groups or
+    // values were requested.
+    var allowedSources =
+        new EnumMap<ClaimFinalAction, Optional<Set<MetaSourceSk>>>(ClaimFinalAction.class);
+    for (var finalAction : ClaimFinalAction.values()) {
+      allowedSources.put(finalAction, getAllowedSources(orLists, finalAction, systemType));
+    }
+    if (allowedSources.values().stream()
+        .allMatch(sources -> sources.isPresent() && sources.get().isEmpty())) {
+      return DbFilter.noMatches();
     }
-    return new DbFilter(stringBuilder.toString(), params);
-  }
 
-  private void addParam(
-      int i,
-      int j,
-      String claimTableAlias,
-      TagCriterion criterion,
-      SystemType systemType,
-      ArrayList<String> clauses,
-      ArrayList<DbFilterParam> params) {
-    var paramName = "tag_" + i + "_" + j;
-    switch (criterion) {
-      case TagCriterion.MetaSourceSkCriterion(var metaSrcSk) -> {
-        if (systemType.isCompatibleWith(metaSrcSk)) {
+    // Without a final action criterion the allowed sources are the same for every final action
+    var anyFinalAction =
+        orLists.stream()
+            .flatMap(List::stream)
+            .noneMatch(TagCriterion.FinalActionCriterion.class::isInstance);
+    var filtered = !allowedSources.values().stream().allMatch(Optional::isEmpty);
+
+    // Each part of the filter is switched on by a flag so the query is the same for every request
+    var clauses = new ArrayList<String>();
+    var params = new ArrayList<DbFilterParam>();
+    params.add(new DbFilterParam("tagsFiltered", filtered));
+    params.add(new DbFilterParam("tagAnyFinalAction", anyFinalAction));
+    allowedSources.forEach(
+        (finalAction, sources) -> {
+          var suffix = finalAction.name();
+          var clause =
+              String.format(
+                  "(:tagAllowed_%2$s = TRUE AND (%1$s.finalAction = :tagFinalAction_%2$s"
+                      + " OR :tagAnyFinalAction = TRUE)",
+                  tableAlias, suffix);
+          params.add(
+              new DbFilterParam(
+                  "tagAllowed_" + suffix, sources.isEmpty() || !sources.get().isEmpty()));
+          params.add(new DbFilterParam("tagFinalAction_" + suffix, finalAction));
           if (systemType == SystemType.SS) {
-            clauses.add(claimTableAlias + ".metaSourceSk = :tag_" + i + "_" + j);
-            params.add(new DbFilterParam(paramName, metaSrcSk));
-          } else {
-            clauses.add("TRUE");
+            // Only shared systems claims store a source
+            clause +=
+                String.format(
+                    " AND (:tagAnySource_%2$s = TRUE"
+                        + " OR %1$s.metaSourceSk IN :tagMetaSourceSks_%2$s)",
+                    tableAlias, suffix);
+            params.add(new DbFilterParam("tagAnySource_" + suffix, sources.isEmpty()));
+            params.add(
+                new DbFilterParam(
+                    "tagMetaSourceSks_" + suffix,
+                    DbFilterParam.padded(
+                        sources
+                            .filter(s -> !s.isEmpty())
+                            .<List<MetaSourceSk>>map(List::copyOf)
+                            .orElse(UNFILTERED_META_SOURCE_SKS),
+                        MetaSourceSk.values().length)));
           }
-        } else {
-          // If the system is incompatible, we set this filter to FALSE since it shouldn't match
-          // anything.
-          // Note that it could still be combined with an OR so we can't just ignore it.
-          clauses.add("FALSE");
-        }
+          clauses.add(clause + ")");
+        });
+    return new DbFilter(
+        " AND (:tagsFiltered = FALSE OR " + String.join(" OR ", clauses) + ")", params);
+  }
+
+  // Returns the sources allowed by every AND group for claims with the given final action. An empty
+  // optional means any source is allowed.
+  private Optional<Set<MetaSourceSk>> getAllowedSources(
+      List<List<TagCriterion>> orLists, ClaimFinalAction finalAction, SystemType systemType) {
+    Optional<Set<MetaSourceSk>> allowedSources = Optional.empty();
+    for (var orList : orLists) {
+      if (orList.contains(new TagCriterion.FinalActionCriterion(finalAction))) {
+        continue;
       }
-      case TagCriterion.FinalActionCriterion(var finalAction) -> {
-        clauses.add(claimTableAlias + ".finalAction = :tag_" + i + "_" + j);
-        params.add(new DbFilterParam(paramName, finalAction));
+      var sources = EnumSet.noneOf(MetaSourceSk.class);
+      orList.stream()
+          .mapMulti(this::extractSourceId)
+          .filter(systemType::isCompatibleWith)
+          .forEach(sources::add);
+      if (systemType != SystemType.SS) {
+        // Only shared systems claims store a source, the other claims match any compatible source
+        if (sources.isEmpty()) {
+          return Optional.of(Set.of());
+        }
+      } else if (allowedSources.isEmpty()) {
+        allowedSources = Optional.of(sources);
+      } else {
+        allowedSources.get().retainAll(sources);
       }
     }
+    return allowedSources;
   }
 
   @Override
@@ -0,0 +1,47 @@
+package gov.cms.bfd.server.ng.claim.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+/**
+ * Flags of the claim tables that have claims for a beneficiary, maintained by the pipeline when it
+ * loads claims. Flags are never cleared, so a flag may be set for a table that no longer has claims
+ * for the beneficiary, but a table without a flag never has claims for the beneficiary.
+ */
+@Entity
+@Getter
+@Table(name = "beneficiary_claim_availability", schema = "idr")
+public class BeneficiaryClaimAvailability {
+  /** Flag for the claim_rx table. */
+  public static final int CLAIM_RX = 1;
+
+  /** Flag for the claim_professional_nch table. */
+  public static final int CLAIM_PROFESSIONAL_NCH = 2;
+
+  /** Flag for the claim_professional_ss table. */
+  public static final int CLAIM_PROFESSIONAL_SS = 4;
+
+  /** Flag for the claim_institutional_nch table. */
+  public static final int CLAIM_INSTITUTIONAL_NCH = 8;
+
+  /** Flag for the claim_institutional_ss table. */
+  public static final int CLAIM_INSTITUTIONAL_SS = 16;
+
+  /** Flags of every claim table. */
+  public static final int ALL_CLAIM_TABLES =
+      CLAIM_RX
+          | CLAIM_PROFESSIONAL_NCH
+          | CLAIM_PROFESSIONAL_SS
+          | CLAIM_INSTITUTIONAL_NCH
+          | CLAIM_INSTITUTIONAL_SS;
+
+  @Id
+  @Column(name = "bene_sk")
+  private long beneSk;
+
+  @Column(name = "clm_tbl_flags")
+  private int claimTableFlags;
+}
@@ -1,8 +1,8 @@
 package gov.cms.bfd.server.ng.claim.model;
 
 import gov.cms.bfd.server.ng.claim.model.common.ClaimType;
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -49,12 +49,7 @@ public sealed interface ClaimTypePriorAuth
     if (code.isBlank()) {
       return Optional.empty();
     }
-    return Optional.of(
-        Arrays.stream(ClaimTypePriorAuth.Valid.values())
-            .filter(v -> v.cmsCode.equals(code))
-            .map(v -> (ClaimTypePriorAuth) v)
-            .findFirst()
-            .orElseGet(() -> new ClaimTypePriorAuth.Invalid(code)));
+    return Valid.BY_CODE.findOrElse(code, Invalid::new);
   }
 
   /**
@@ -110,6 +105,9 @@ public sealed interface ClaimTypePriorAuth
     private final String code;
     private final String display;
     private final String insuranceType;
+
+    private static final CodeLookup<String, ClaimTypePriorAuth> BY_CODE =
+        CodeLookup.of(values(), v -> v.cmsCode);
   }
 
   /** Captures unknown/invalid codes. */
@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -36,12 +36,7 @@ public sealed interface PriorAuthorizationDecision
     if (code == null || code.isBlank()) {
       return Optional.empty();
     }
-    return Optional.of(
-        Arrays.stream(Valid.values())
-            .filter(c -> c.code.equals(code))
-            .map(c -> (PriorAuthorizationDecision) c)
-            .findFirst()
-            .orElseGet(() -> new Invalid(code)));
+    return Valid.BY_CODE.findOrElse(code, Invalid::new);
   }
 
   /**
@@ -67,6 +62,9 @@ public sealed interface PriorAuthorizationDecision
 
     private final String code;
     private final String display;
+
+    private static final CodeLookup<String, PriorAuthorizationDecision> BY_CODE =
+        CodeLookup.of(values(), v -> v.code);
   }
 
   /** Captures unknown/invalid codes. */
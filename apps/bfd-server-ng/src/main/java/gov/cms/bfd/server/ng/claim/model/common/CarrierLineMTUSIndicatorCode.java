@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -36,12 +36,7 @@ public sealed interface CarrierLineMTUSIndicatorCode
     if (code == null || code.isBlank()) {
       return Optional.empty();
     }
-    return Optional.of(
-        Arrays.stream(Valid.values())
-            .filter(v -> v.code.equals(code))
-            .map(v -> (CarrierLineMTUSIndicatorCode) v)
-            .findFirst()
-            .orElseGet(() -> new Invalid(code)));
+    return Valid.BY_CODE.findOrElse(code, Invalid::new);
   }
 
   /**
@@ -75,6 +70,9 @@ public sealed interface CarrierLineMTUSIndicatorCode
 
     private final String code;
     private final String display;
+
+    private static final CodeLookup<String, CarrierLineMTUSIndicatorCode> BY_CODE =
+        CodeLookup.of(values(), v -> v.code);
   }
 
   /** Captures unknown/invalid codes. */
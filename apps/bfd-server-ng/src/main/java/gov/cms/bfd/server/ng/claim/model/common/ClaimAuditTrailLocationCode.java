@@ -1,6 +1,6 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
-import java.util.Arrays;
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -35,6 +35,9 @@ public enum ClaimAuditTrailLocationCode {
   private final String code;
   private final String display;
 
+  private static final CodeLookup<String, ClaimAuditTrailLocationCode> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
+
   /**
    * Convert from a database code.
    *
@@ -45,6 +48,6 @@ public enum ClaimAuditTrailLocationCode {
     if (code == null || code.isBlank()) {
       return Optional.empty();
     }
-    return Arrays.stream(values()).filter(v -> v.code.equals(code)).findFirst();
+    return BY_CODE.find(code);
   }
 }
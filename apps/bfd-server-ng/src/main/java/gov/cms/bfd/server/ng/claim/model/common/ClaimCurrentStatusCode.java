@@ -1,6 +1,6 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
-import java.util.Arrays;
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -26,6 +26,9 @@ public enum ClaimCurrentStatusCode {
   private final String code;
   private final ExplanationOfBenefit.RemittanceOutcome outcome;
 
+  private static final CodeLookup<String, ClaimCurrentStatusCode> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
+
   /**
    * Convert from a database code.
    *
@@ -33,6 +36,6 @@ public enum ClaimCurrentStatusCode {
    * @return claim admission type code
    */
   public static Optional<ClaimCurrentStatusCode> tryFromCode(String code) {
-    return Arrays.stream(values()).filter(v -> v.code.equals(code)).findFirst();
+    return BY_CODE.find(code);
   }
 }
@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -27,6 +27,9 @@ public enum ClaimDiagnosisType {
   private final String fhirCode;
   private final String system;
 
+  private static final CodeLookup<String, ClaimDiagnosisType> BY_IDR_CODE =
+      CodeLookup.of(values(), v -> v.idrCode);
+
   /**
    * Converts from a database code.
    *
@@ -34,6 +37,6 @@ public enum ClaimDiagnosisType {
    * @return diagnosis type
    */
   public static Optional<ClaimDiagnosisType> tryFromIdrCode(String idrCode) {
-    return Arrays.stream(values()).filter(v -> v.idrCode.equals(idrCode)).findFirst();
+    return BY_IDR_CODE.find(idrCode);
   }
 }
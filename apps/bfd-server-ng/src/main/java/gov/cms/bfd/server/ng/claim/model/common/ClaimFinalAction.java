@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -19,6 +19,9 @@ public enum ClaimFinalAction {
   private final Character code;
   private final String finalAction;
 
+  private static final CodeLookup<Character, ClaimFinalAction> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
+
   /**
    * Converts from a database code.
    *
@@ -26,9 +29,8 @@ public enum ClaimFinalAction {
    * @return Claim final action
    */
   public static ClaimFinalAction fromCode(Character code) {
-    return Arrays.stream(values())
-        .filter(c -> c.code.equals(code))
-        .findFirst()
+    return BY_CODE
+        .find(code)
         .orElseThrow(() -> new IllegalArgumentException("Unknown ClaimFinalAction code: " + code));
   }
 
@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -57,12 +57,7 @@ public sealed interface ClaimLineRevenueCenterCode
     if (code == null || code.isBlank()) {
       return Optional.empty();
     }
-    return Optional.of(
-        Arrays.stream(Valid.values())
-            .filter(v -> v.getCode().equals(code))
-            .findFirst()
-            .map(v -> (ClaimLineRevenueCenterCode) v)
-            .orElse(new Invalid(code)));
+    return Valid.BY_CODE.findOrElse(code, Invalid::new);
   }
 
   /** Revenue centers. */
@@ -1525,6 +1520,9 @@ public sealed interface ClaimLineRevenueCenterCode
 
     private final String code;
     private final String display;
+
+    private static final CodeLookup<String, ClaimLineRevenueCenterCode> BY_CODE =
+        CodeLookup.of(values(), v -> v.getCode());
   }
 
   /** Captures unknown/invalid codes. */
@@ -1,5 +1,6 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
 import java.util.Arrays;
 import java.util.List;
@@ -34,11 +35,7 @@ public sealed interface ClaimPaidStatusCode
    * @return claim paid status code
    */
   static ClaimPaidStatusCode tryFromCode(String code) {
-    return Arrays.stream(ClaimPaidStatusCode.Valid.values())
-        .filter(v -> v.code.equals(code))
-        .map(v -> (ClaimPaidStatusCode) v)
-        .findFirst()
-        .orElseGet(() -> new ClaimPaidStatusCode.Invalid(code));
+    return Valid.BY_CODE.findOrElse(code, Invalid::new).orElseThrow();
   }
 
   /**
@@ -122,6 +119,9 @@ public sealed interface ClaimPaidStatusCode
 
     private final String code;
     private final ExplanationOfBenefit.RemittanceOutcome outcome;
+
+    private static final CodeLookup<String, ClaimPaidStatusCode> BY_CODE =
+        CodeLookup.of(values(), v -> v.code);
   }
 
   /** Captures unknown/invalid codes. */
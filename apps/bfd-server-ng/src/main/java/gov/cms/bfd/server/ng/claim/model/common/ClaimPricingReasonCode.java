@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -22,6 +22,9 @@ public enum ClaimPricingReasonCode {
   private final String code;
   private final String display;
 
+  private static final CodeLookup<String, ClaimPricingReasonCode> BY_IDR_CODE =
+      CodeLookup.of(values(), v -> v.idrCode);
+
   /**
    * Convert from a database code.
    *
@@ -29,7 +32,7 @@ public enum ClaimPricingReasonCode {
    * @return claim pricing reason code
    */
   public static Optional<ClaimPricingReasonCode> tryFromCode(String idrCode) {
-    return Arrays.stream(values()).filter(v -> v.idrCode.equals(idrCode)).findFirst();
+    return BY_IDR_CODE.find(idrCode);
   }
 
   /**
@@ -1,6 +1,6 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
-import java.util.Arrays;
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -28,6 +28,8 @@ public enum ClaimSourceId {
   private final String id;
   private final String source;
 
+  private static final CodeLookup<String, ClaimSourceId> BY_ID = CodeLookup.of(values(), v -> v.id);
+
   /**
    * Converts from a database identifier.
    *
@@ -35,9 +37,8 @@ public enum ClaimSourceId {
    * @return Claim source id
    */
   public static ClaimSourceId fromId(String id) {
-    return Arrays.stream(values())
-        .filter(c -> c.id.equals(id))
-        .findFirst()
+    return BY_ID
+        .find(id)
         .orElseThrow(() -> new IllegalArgumentException("Unknown ClaimSourceId: " + id));
   }
 
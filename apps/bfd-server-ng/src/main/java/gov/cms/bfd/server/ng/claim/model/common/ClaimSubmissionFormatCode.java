@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -32,6 +32,9 @@ public enum ClaimSubmissionFormatCode {
   private final String code;
   private final String display;
 
+  private static final CodeLookup<String, ClaimSubmissionFormatCode> BY_IDR_CODE =
+      CodeLookup.of(values(), v -> v.idrCode);
+
   /**
    * Convert from a database code.
    *
@@ -39,7 +42,7 @@ public enum ClaimSubmissionFormatCode {
    * @return claim submission format code
    */
   public static Optional<ClaimSubmissionFormatCode> fromCode(String idrCode) {
-    return Arrays.stream(values()).filter(v -> v.idrCode.equals(idrCode)).findFirst();
+    return BY_IDR_CODE.find(idrCode);
   }
 
   /**
@@ -1,7 +1,8 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
+import java.util.Locale;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -69,6 +70,9 @@ public enum ClaimSubtype {
   private final ClaimType claimType;
   private final String eobTypeDisplay;
 
+  private static final CodeLookup<String, ClaimSubtype> BY_CODE =
+      CodeLookup.of(values(), v -> v.code.toUpperCase(Locale.ROOT));
+
   CodeableConcept toFhir() {
     return new CodeableConcept(
         new Coding().setSystem(SystemUrls.CARIN_CLAIM_SUBTYPE).setCode(code));
@@ -103,6 +107,6 @@ public enum ClaimSubtype {
    * @return ClaimSubtype
    */
   public static Optional<ClaimSubtype> fromCode(String code) {
-    return Arrays.stream(values()).filter(v -> v.code.equalsIgnoreCase(code)).findFirst();
+    return code == null ? Optional.empty() : BY_CODE.find(code.toUpperCase(Locale.ROOT));
   }
 }
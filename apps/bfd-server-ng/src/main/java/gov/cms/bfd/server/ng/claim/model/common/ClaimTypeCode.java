@@ -1,13 +1,12 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.hl7.fhir.r4.model.CodeableConcept;
@@ -294,6 +293,8 @@ public enum ClaimTypeCode {
 
   private final int code;
   private final String display;
+  private static final CodeLookup<Integer, ClaimTypeCode> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
   private static final String INSURER_ORG = "insurer-org";
   private static final String PART_A_DISPLAY = "Part A";
   private static final String PART_B_DISPLAY = "Part B";
@@ -305,9 +306,7 @@ public enum ClaimTypeCode {
    * @return claim type code
    */
   public static ClaimTypeCode fromCode(int code) {
-    return Arrays.stream(values())
-        .collect(Collectors.toMap(ClaimTypeCode::getCode, e -> e))
-        .get(code);
+    return BY_CODE.get(code);
   }
 
   public Optional<ClaimContext> toContext() {
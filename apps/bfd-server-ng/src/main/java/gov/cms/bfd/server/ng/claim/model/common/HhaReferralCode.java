@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -36,12 +36,7 @@ public sealed interface HhaReferralCode permits HhaReferralCode.Valid, HhaReferr
     if (code == null || code.isBlank()) {
       return Optional.empty();
     }
-    return Optional.of(
-        Arrays.stream(Valid.values())
-            .filter(c -> c.getCode().equals(code))
-            .findFirst()
-            .map(c -> (HhaReferralCode) c)
-            .orElse(new Invalid(code)));
+    return Valid.BY_CODE.findOrElse(code, Invalid::new);
   }
 
   /**
@@ -152,6 +147,9 @@ public sealed interface HhaReferralCode permits HhaReferralCode.Valid, HhaReferr
 
     private final String code;
     private final String display;
+
+    private static final CodeLookup<String, HhaReferralCode> BY_CODE =
+        CodeLookup.of(values(), v -> v.getCode());
   }
 
   /**
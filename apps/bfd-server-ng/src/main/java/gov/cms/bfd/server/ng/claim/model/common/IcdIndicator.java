@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -57,13 +57,16 @@ public enum IcdIndicator {
    * @return ICD indicator
    */
   public static Optional<IcdIndicator> tryFromCode(String code) {
-    return Arrays.stream(values()).filter(v -> v.code.equals(code)).findFirst();
+    return BY_CODE.find(code);
   }
 
   private final String code;
   private final String procedureSystem;
   private final String diagnosisSystem;
 
+  private static final CodeLookup<String, IcdIndicator> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
+
   /**
    * Formats a raw diagnosis code by the rules of this ICD system.
    *
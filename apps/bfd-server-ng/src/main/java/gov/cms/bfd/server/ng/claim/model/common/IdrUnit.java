@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -27,6 +27,9 @@ public enum IdrUnit {
   private final String idrCode;
   private final String fhirUnit;
 
+  private static final CodeLookup<String, IdrUnit> BY_IDR_CODE =
+      CodeLookup.of(values(), v -> v.idrCode);
+
   /**
    * Convert from a database code.
    *
@@ -34,7 +37,7 @@ public enum IdrUnit {
    * @return IDR unit
    */
   public static Optional<IdrUnit> tryFromCode(String idrCode) {
-    return Arrays.stream(values()).filter(v -> v.idrCode.equals(idrCode)).findFirst();
+    return BY_IDR_CODE.find(idrCode);
   }
 
   SimpleQuantity toFhir(double value) {
@@ -1,8 +1,9 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.IdrConstants;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
+import java.util.Locale;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -30,6 +31,11 @@ public enum MetaSourceSk {
   private final String display;
   private final String systemType;
 
+  private static final CodeLookup<Integer, MetaSourceSk> BY_SOURCE_SK =
+      CodeLookup.of(values(), v -> v.sourceSk);
+  private static final CodeLookup<String, MetaSourceSk> BY_DISPLAY =
+      CodeLookup.of(values(), v -> v.display.toUpperCase(Locale.ROOT));
+
   /**
    * Convert from a database code.
    *
@@ -37,9 +43,8 @@ public enum MetaSourceSk {
    * @return meta source id
    */
   public static MetaSourceSk tryFromSourceSk(Integer sourceSk) {
-    return Arrays.stream(values())
-        .filter(v -> v.sourceSk == sourceSk)
-        .findFirst()
+    return BY_SOURCE_SK
+        .find(sourceSk)
         .orElseThrow(() -> new IllegalArgumentException("Unknown meta source: " + sourceSk));
   }
 
@@ -50,7 +55,7 @@ public enum MetaSourceSk {
    * @return meta source
    */
   public static Optional<MetaSourceSk> tryFromDisplay(String source) {
-    return Arrays.stream(values()).filter(v -> v.display.equalsIgnoreCase(source)).findFirst();
+    return source == null ? Optional.empty() : BY_DISPLAY.find(source.toUpperCase(Locale.ROOT));
   }
 
   /**
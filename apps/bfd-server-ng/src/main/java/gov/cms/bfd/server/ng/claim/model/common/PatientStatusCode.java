@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -38,12 +38,7 @@ public sealed interface PatientStatusCode
     if (code == null || code.isBlank()) {
       return Optional.empty();
     }
-    return Optional.of(
-        Arrays.stream(Valid.values())
-            .filter(v -> v.getCode().equals(code))
-            .findFirst()
-            .map(v -> (PatientStatusCode) v)
-            .orElse(new Invalid(code)));
+    return Valid.BY_CODE.findOrElse(code, Invalid::new);
   }
 
   /**
@@ -387,6 +382,9 @@ public sealed interface PatientStatusCode
 
     private final String code;
     private final String display;
+
+    private static final CodeLookup<String, PatientStatusCode> BY_CODE =
+        CodeLookup.of(values(), v -> v.getCode());
   }
 
   /** Captures unknown/invalid codes. */
@@ -1,9 +1,8 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.hl7.fhir.r4.model.CodeableConcept;
@@ -38,10 +37,11 @@ public enum ProviderIdQualifierCode {
   private final String code;
   private final String display;
 
+  private static final CodeLookup<String, ProviderIdQualifierCode> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
+
   static ProviderIdQualifierCode fromCode(String code) {
-    return Arrays.stream(values())
-        .collect(Collectors.toMap(ProviderIdQualifierCode::getCode, e -> e))
-        .get(code);
+    return BY_CODE.get(code);
   }
 
   /**
@@ -2,10 +2,9 @@ package gov.cms.bfd.server.ng.claim.model.common;
 
 import static gov.cms.bfd.server.ng.claim.model.common.ProviderHistoryBase.NpiType.*;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.hl7.fhir.r4.model.CodeableConcept;
@@ -325,10 +324,11 @@ public enum ProviderSpecialtyCode {
   private final String taxonomyCode;
   private final ProviderHistoryBase.NpiType npiType;
 
+  private static final CodeLookup<String, ProviderSpecialtyCode> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
+
   static ProviderSpecialtyCode fromCode(String code) {
-    return Arrays.stream(values())
-        .collect(Collectors.toMap(ProviderSpecialtyCode::getCode, e -> e))
-        .get(code);
+    return BY_CODE.get(code);
   }
 
   /**
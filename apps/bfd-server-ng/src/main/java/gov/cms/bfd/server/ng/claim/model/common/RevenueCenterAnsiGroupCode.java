@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.common;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
@@ -36,12 +36,7 @@ public sealed interface RevenueCenterAnsiGroupCode
     if (code == null || code.isBlank()) {
       return Optional.empty();
     }
-    return Optional.of(
-        Arrays.stream(Valid.values())
-            .filter(v -> v.code.equals(code))
-            .map(v -> (RevenueCenterAnsiGroupCode) v)
-            .findFirst()
-            .orElseGet(() -> new Invalid(code)));
+    return Valid.BY_CODE.findOrElse(code, Invalid::new);
   }
 
   /**
@@ -109,6 +104,9 @@ public sealed interface RevenueCenterAnsiGroupCode
                   .setSystem(SystemUrls.BLUE_BUTTON_CODE_SYSTEM_ANSI_GRP_CODE)
                   .setCode(code)));
     }
+
+    private static final CodeLookup<String, RevenueCenterAnsiGroupCode> BY_CODE =
+        CodeLookup.of(values(), v -> v.code);
   }
 
   /** Captures unknown/invalid codes. */
@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.claim.model.professional;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -21,6 +21,9 @@ public enum ClaimLineHCTHGBTestTypeCode {
   private final String loincDisplay;
   private final String system;
 
+  private static final CodeLookup<String, ClaimLineHCTHGBTestTypeCode> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
+
   /**
    * Converts from a database code.
    *
@@ -28,7 +31,7 @@ public enum ClaimLineHCTHGBTestTypeCode {
    * @return diagnosis type
    */
   public static Optional<ClaimLineHCTHGBTestTypeCode> tryFromIdrCode(String code) {
-    return Arrays.stream(values()).filter(v -> v.code.equals(code)).findFirst();
+    return BY_CODE.find(code);
   }
 
   Coding toFhirCoding() {
@@ -2,8 +2,8 @@ package gov.cms.bfd.server.ng.claim.model.rx;
 
 import gov.cms.bfd.server.ng.claim.model.common.CarinSupportingInfoCategory;
 import gov.cms.bfd.server.ng.claim.model.common.SupportingInfoFactory;
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -42,6 +42,9 @@ public enum ClaimDispenseAsWrittenCode {
 
   private final String code;
 
+  private static final CodeLookup<String, ClaimDispenseAsWrittenCode> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
+
   /**
    * Tries to find the enum by its database code value. Returns empty if it does not match exactly.
    *
@@ -49,7 +52,7 @@ public enum ClaimDispenseAsWrittenCode {
    * @return The matched enum, or empty if none matches
    */
   public static Optional<ClaimDispenseAsWrittenCode> tryFromCode(String code) {
-    return Arrays.stream(values()).filter(e -> e.code.equals(code)).findFirst();
+    return BY_CODE.find(code);
   }
 
   /**
@@ -33,9 +33,6 @@ public class CoverageRepository {
    * @param criteria Coverage search criteria
    * @return beneficiary record
    */
-  // suppress SonarQube about dynamically formatted SQL queries being safe here. We set the value in
-  // code.
-  @SuppressWarnings("java:S2077")
   public Optional<BeneficiaryCoverage> searchBeneficiaryWithCoverage(
       @MeterTag(key = "hasLastUpdated", expression = "hasLastUpdated()")
           CoverageSearchCriteria criteria) {
@@ -49,8 +46,7 @@ public class CoverageRepository {
     var query =
         entityManager
             .createQuery(
-                String.format(
-                    """
+                """
                         WITH latestPartCDEnrollments AS (
                             SELECT e.id AS id,
                                 ROW_NUMBER() OVER (
@@ -101,7 +97,7 @@ public class CoverageRepository {
                                     b.meta.partCCoverageUpdatedTs,
                                     b.meta.partDCoverageUpdatedTs,
                                     b.meta.partDualCoverageUpdatedTs
-                                ) %s :lowerBound
+                                ) >= :lowerBound
                             )
                           AND (
                               CAST(:upperBound AS ZonedDateTime) IS NULL
@@ -111,7 +107,7 @@ public class CoverageRepository {
                                     b.meta.partCCoverageUpdatedTs,
                                     b.meta.partDCoverageUpdatedTs,
                                     b.meta.partDualCoverageUpdatedTs
-                                ) %s :upperBound
+                                ) < :upperBound
                             )
                           AND b.beneSk = b.xrefSk
                           AND (ben IS NULL
@@ -131,12 +127,12 @@ public class CoverageRepository {
                                   AND e.id.benefitRangeBeginDate = blis.id.benefitRangeBeginDate
                           ))
                         ORDER BY b.obsoleteTimestamp DESC
-                    """,
-                    criteria.lastUpdated().getLowerBoundSqlOperator(),
-                    criteria.lastUpdated().getUpperBoundSqlOperator()),
+                """,
                 BeneficiaryCoverage.class)
-            .setParameter("lowerBound", criteria.lastUpdated().getLowerBoundDateTime().orElse(null))
-            .setParameter("upperBound", criteria.lastUpdated().getUpperBoundDateTime().orElse(null))
+            .setParameter(
+                "lowerBound", criteria.lastUpdated().getInclusiveLowerBoundDateTime().orElse(null))
+            .setParameter(
+                "upperBound", criteria.lastUpdated().getExclusiveUpperBoundDateTime().orElse(null))
             .setParameter("today", benefitDate)
             .setParameter("beneSk", criteria.beneSk());
 
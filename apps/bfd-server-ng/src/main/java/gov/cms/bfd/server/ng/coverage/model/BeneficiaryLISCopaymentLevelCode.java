@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.coverage.model;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -37,12 +37,7 @@ public sealed interface BeneficiaryLISCopaymentLevelCode
     if (code == null || code.isBlank()) {
       return Optional.empty();
     }
-    return Optional.of(
-        Arrays.stream(Valid.values())
-            .filter(v -> v.code.equals(code))
-            .map(v -> (BeneficiaryLISCopaymentLevelCode) v)
-            .findFirst()
-            .orElseGet(() -> new Invalid(code)));
+    return Valid.BY_CODE.findOrElse(code, Invalid::new);
   }
 
   /**
@@ -66,6 +61,9 @@ public sealed interface BeneficiaryLISCopaymentLevelCode
 
     private final String code;
     private final String display;
+
+    private static final CodeLookup<String, BeneficiaryLISCopaymentLevelCode> BY_CODE =
+        CodeLookup.of(values(), v -> v.code);
   }
 
   /** Captures unknown/invalid codes. */
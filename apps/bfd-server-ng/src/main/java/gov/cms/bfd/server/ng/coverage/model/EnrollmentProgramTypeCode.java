@@ -1,7 +1,7 @@
 package gov.cms.bfd.server.ng.coverage.model;
 
 import gov.cms.bfd.server.ng.input.CoveragePart;
-import java.util.Arrays;
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import java.util.EnumSet;
 import java.util.Optional;
 import lombok.Getter;
@@ -21,6 +21,9 @@ public enum EnrollmentProgramTypeCode {
   private final String code;
   private final EnumSet<CoveragePart> supportedCoverageParts;
 
+  private static final CodeLookup<String, EnrollmentProgramTypeCode> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
+
   /**
    * Finds a {@link EnrollmentProgramTypeCode} enum constant by its BENE_ENRLMT_PGM_TYPE_CD code.
    *
@@ -32,9 +35,7 @@ public enum EnrollmentProgramTypeCode {
     if (enrollmentProgramTypeCode == null || enrollmentProgramTypeCode.isBlank()) {
       return Optional.empty();
     }
-    return Arrays.stream(EnrollmentProgramTypeCode.values())
-        .filter(type -> type.getCode().equals(enrollmentProgramTypeCode))
-        .findFirst();
+    return BY_CODE.find(enrollmentProgramTypeCode);
   }
 
   /**
@@ -1,8 +1,8 @@
 package gov.cms.bfd.server.ng.coverage.model;
 
+import gov.cms.bfd.server.ng.util.CodeLookup;
 import gov.cms.bfd.server.ng.util.IdrConstants;
 import gov.cms.bfd.server.ng.util.SystemUrls;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import lombok.Getter;
@@ -36,6 +36,9 @@ public enum MedicareStatusCode {
   private final String esrdIndicator;
   private final String disabilityIndicator;
 
+  private static final CodeLookup<String, MedicareStatusCode> BY_CODE =
+      CodeLookup.of(values(), v -> v.code);
+
   /**
    * Finds a {@link MedicareStatusCode} enum constant by its BENE_MDCR_STUS_CD code.
    *
@@ -47,9 +50,7 @@ public enum MedicareStatusCode {
     if (beneMdcrStusCd == null || beneMdcrStusCd.isBlank()) {
       return Optional.empty();
     }
-    return Arrays.stream(MedicareStatusCode.values())
-        .filter(type -> type.getCode().equals(beneMdcrStusCd))
-        .findFirst();
+    return BY_CODE.find(beneMdcrStusCd);
   }
 
   List<Extension> toFhir() {
@@ -7,7 +7,7 @@ import gov.cms.bfd.server.ng.ClaimFilterOptions;
 import gov.cms.bfd.server.ng.ClaimSecurityStatus;
 import gov.cms.bfd.server.ng.SamhsaFilterMode;
 import gov.cms.bfd.server.ng.SecurityLabel;
-import gov.cms.bfd.server.ng.beneficiary.BeneficiaryRepository;
+import gov.cms.bfd.server.ng.beneficiary.BeneficiaryIdentityCache;
 import gov.cms.bfd.server.ng.claim.ClaimRepository;
 import gov.cms.bfd.server.ng.claim.PriorAuthorizationRepository;
 import gov.cms.bfd.server.ng.claim.model.*;
@@ -45,7 +45,7 @@ import org.springframework.stereotype.Component;
 public class EobHandler {
   private static final Logger LOGGER = LoggerFactory.getLogger(EobHandler.class);
 
-  private final BeneficiaryRepository beneficiaryRepository;
+  private final BeneficiaryIdentityCache beneficiaryIdentityCache;
   private final ClaimRepository claimRepository;
   private final LoadProgressRepository loadProgressRepository;
   private final PriorAuthorizationRepository priorAuthorizationRepository;
@@ -91,7 +91,7 @@ public class EobHandler {
       Optional<RequestDetails> requestDetails) {
 
     var beneSk = criteria.beneSk();
-    var beneSimple = beneficiaryRepository.getXrefSkFromBeneSk(beneSk);
+    var beneSimple = beneficiaryIdentityCache.getXrefSkFromBeneSk(beneSk);
     // Don't return data for historical beneSks
     if (beneSimple.isEmpty() || (beneSimple.get().getXrefSk() != beneSk)) {
       return new Bundle();
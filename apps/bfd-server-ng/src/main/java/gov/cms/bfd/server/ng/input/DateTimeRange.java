@@ -3,6 +3,7 @@ package gov.cms.bfd.server.ng.input;
 import ca.uhn.fhir.rest.param.DateRangeParam;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 
 /**
@@ -33,71 +34,42 @@ public record DateTimeRange(
   }
 
   /**
-   * Returns the lower datetime.
+   * Returns the lower datetime as an inclusive bound, so that queries can always compare against it
+   * with {@code >=} rather than choosing an operator per request. Timestamps are stored with
+   * microsecond precision, so an exclusive bound is moved forward by one microsecond.
    *
    * @return datetime
    */
-  public Optional<ZonedDateTime> getLowerBoundDateTime() {
-    return lowerBound.map(DateTimeBound::bound);
+  public Optional<ZonedDateTime> getInclusiveLowerBoundDateTime() {
+    return lowerBound.map(b -> toCanonicalBound(b, DateTimeBoundType.EXCLUSIVE));
   }
 
   /**
-   * Returns the upper datetime.
+   * Returns the upper datetime as an exclusive bound, so that queries can always compare against it
+   * with {@code <}. An inclusive bound is moved forward by one microsecond.
    *
    * @return datetime
    */
-  public Optional<ZonedDateTime> getUpperBoundDateTime() {
-    return upperBound.map(DateTimeBound::bound);
+  public Optional<ZonedDateTime> getExclusiveUpperBoundDateTime() {
+    return upperBound.map(b -> toCanonicalBound(b, DateTimeBoundType.INCLUSIVE));
   }
 
   /**
-   * Returns the lower date.
+   * Returns the lower date as an inclusive bound, to be compared with {@code >=}.
    *
-   * @return datetime
-   */
-  public Optional<LocalDate> getLowerBoundDate() {
-    return getLowerBoundDateTime().map(ZonedDateTime::toLocalDate);
-  }
-
-  /**
-   * Returns the upper date.
-   *
-   * @return datetime
-   */
-  public Optional<LocalDate> getUpperBoundDate() {
-    return getUpperBoundDateTime().map(ZonedDateTime::toLocalDate);
-  }
-
-  /**
-   * Returns the lower bound SQL operator used to filter the datetime.
-   *
-   * @return datetime
+   * @return date
    */
-  public String getLowerBoundSqlOperator() {
-    return getSqlOperator(lowerBound, ">", ">=");
+  public Optional<LocalDate> getInclusiveLowerBoundDate() {
+    return lowerBound.map(b -> toCanonicalDate(b, DateTimeBoundType.EXCLUSIVE));
   }
 
   /**
-   * Returns the upper bound SQL operator used to filter the datetime.
+   * Returns the upper date as an exclusive bound, to be compared with {@code <}.
    *
-   * @return datetime
+   * @return date
    */
-  public String getUpperBoundSqlOperator() {
-    return getSqlOperator(upperBound, "<", "<=");
-  }
-
-  private String getSqlOperator(
-      Optional<DateTimeBound> bound, String exclusiveOperator, String inclusiveOperator) {
-    return bound
-        .map(
-            b ->
-                switch (b.boundType()) {
-                  case DateTimeBoundType.EXCLUSIVE -> exclusiveOperator;
-                  case DateTimeBoundType.INCLUSIVE -> inclusiveOperator;
-                })
-        // If this case as hit, the boundary condition is null, so the value here has no effect
-        // We need to return something to make the SQL query valid though.
-        .orElse("!=");
+  public Optional<LocalDate> getExclusiveUpperBoundDate() {
+    return upperBound.map(b -> toCanonicalDate(b, DateTimeBoundType.INCLUSIVE));
   }
 
   /**
@@ -108,4 +80,18 @@ public record DateTimeRange(
   public boolean hasBounds() {
     return lowerBound().isPresent() || upperBound.isPresent();
   }
+
+  // Bounds of the given type are moved forward by the smallest unit the database can distinguish
+  private static ZonedDateTime toCanonicalBound(
+      DateTimeBound bound, DateTimeBoundType shiftedType) {
+    if (bound.boundType() != shiftedType) {
+      return bound.bound();
+    }
+    return bound.bound().truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+  }
+
+  private static LocalDate toCanonicalDate(DateTimeBound bound, DateTimeBoundType shiftedType) {
+    var date = bound.bound().toLocalDate();
+    return bound.boundType() == shiftedType ? date.plusDays(1) : date;
+  }
 }
@@ -0,0 +1,165 @@
+package gov.cms.bfd.server.ng.interceptor;
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.api.server.ResponseDetails;
+import ca.uhn.fhir.rest.server.RestfulServerUtils;
+import ca.uhn.fhir.util.DateUtils;
+import java.io.BufferedWriter;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+
+/**
+ * HAPI FHIR interceptor that writes {@link ExplanationOfBenefit} search bundles to the response one
+ * entry at a time instead of encoding the whole bundle into memory first. The output is
+ * byte-identical to HAPI's own encoding; requests for XML, pretty printing, {@code _summary} or
+ * {@code _elements} fall through to HAPI's normal handling.
+ *
+ * <p>The bundle itself is still fully built in memory before streaming starts, since the search
+ * sorts and counts all of its results first. Streaming only avoids holding a serialized copy of the
+ * bundle alongside it, and lets each resource be released once it has been written.
+ */
+@Interceptor
+public class StreamingBundleInterceptor {
+  // Must run after any other interceptor that may still modify the outgoing bundle
+  private static final int HOOK_ORDER = 10_000;
+  private static final String ENTRY_ARRAY_START = ",\"entry\":[";
+  private static final String ENTRY_START = "{\"resource\":";
+
+  private final int windowSize;
+
+  /**
+   * Creates a new interceptor.
+   *
+   * @param windowSize number of characters buffered between flushes to the servlet output
+   */
+  public StreamingBundleInterceptor(int windowSize) {
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+    }
+    this.windowSize = windowSize;
+  }
+
+  /**
+   * Streams the response bundle if it is eligible.
+   *
+   * @param requestDetails request details
+   * @param responseDetails response details
+   * @return whether HAPI should continue writing the response itself
+   * @throws IOException if writing the response fails
+   */
+  @Hook(value = Pointcut.SERVER_OUTGOING_RESPONSE, order = HOOK_ORDER)
+  public boolean streamBundle(RequestDetails requestDetails, ResponseDetails responseDetails)
+      throws IOException {
+    if (!(responseDetails.getResponseResource() instanceof Bundle bundle)
+        || !isStreamable(requestDetails, bundle)) {
+      return true;
+    }
+
+    var fhirContext = requestDetails.getFhirContext();
+    var parser =
+        RestfulServerUtils.getNewParser(
+            fhirContext, fhirContext.getVersion().getVersion(), requestDetails);
+    var contentType =
+        RestfulServerUtils.determineResponseEncodingWithDefault(requestDetails)
+            .getResourceContentType();
+    var response = requestDetails.getResponse();
+    if (bundle.getMeta().hasLastUpdated()) {
+      response.addHeader(
+          Constants.HEADER_LAST_MODIFIED, DateUtils.formatDate(bundle.getMeta().getLastUpdated()));
+    }
+
+    var responseWriter =
+        response.getResponseWriter(
+            responseDetails.getResponseCode(),
+            contentType,
+            Constants.CHARSET_NAME_UTF8,
+            requestDetails.isRespondGzip());
+    writeBundle(parser, bundle, new BufferedWriter(responseWriter, windowSize));
+    response.commitResponse(responseWriter);
+    return false;
+  }
+
+  private static boolean isStreamable(RequestDetails requestDetails, Bundle bundle) {
+    var parameters = requestDetails.getParameters();
+    return ExplanationOfBenefit.class.getSimpleName().equals(requestDetails.getResourceName())
+        && !bundle.getEntry().isEmpty()
+        && !bundle.hasSignature()
+        && !parameters.containsKey(Constants.PARAM_SUMMARY)
+        && !parameters.containsKey(Constants.PARAM_ELEMENTS)
+        && !RestfulServerUtils.prettyPrintResponse(requestDetails.getServer(), requestDetails)
+        && RestfulServerUtils.determineResponseEncodingWithDefault(requestDetails).getEncoding()
+            == EncodingEnum.JSON
+        && bundle.getEntry().stream().allMatch(StreamingBundleInterceptor::isResourceOnlyEntry);
+  }
+
+  // Entries with anything besides a resource (e.g. fullUrl) are left to HAPI's bundle encoding
+  private static boolean isResourceOnlyEntry(Bundle.BundleEntryComponent entry) {
+    return entry.getResource() != null
+        && !entry.hasId()
+        && !entry.hasExtension()
+        && !entry.hasModifierExtension()
+        && !entry.hasLink()
+        && !entry.hasFullUrl()
+        && !entry.hasSearch()
+        && !entry.hasRequest()
+        && !entry.hasResponse();
+  }
+
+  /**
+   * Writes the bundle as JSON, encoding the metadata first and then each entry's resource. Each
+   * resource is released once it has been written.
+   *
+   * @param parser parser configured for the request
+   * @param bundle bundle with at least one entry
+   * @param writer destination writer; flushed but not closed
+   */
+  static void writeBundle(IParser parser, Bundle bundle, Writer writer) {
+    var entries = bundle.getEntry();
+    var entryWriter = new NonClosingWriter(writer);
+    try {
+      bundle.setEntry(null);
+      var metadata = parser.encodeResourceToString(bundle);
+      // entry is the last element HAPI encodes for a bundle without a signature
+      writer.write(metadata, 0, metadata.lastIndexOf('}'));
+      writer.write(ENTRY_ARRAY_START);
+      for (var i = 0; i < entries.size(); i++) {
+        var entry = entries.get(i);
+        if (i > 0) {
+          writer.write(',');
+        }
+        writer.write(ENTRY_START);
+        parser.encodeResourceToWriter(entry.getResource(), entryWriter);
+        writer.write('}');
+        entry.setResource(null);
+      }
+      writer.write("]}");
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      bundle.setEntry(entries);
+    }
+  }
+
+  // The parser closes the writer it is given once it finishes encoding a resource
+  private static class NonClosingWriter extends FilterWriter {
+    NonClosingWriter(Writer writer) {
+      super(writer);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+}
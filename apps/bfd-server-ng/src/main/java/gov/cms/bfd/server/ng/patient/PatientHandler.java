@@ -2,6 +2,7 @@ package gov.cms.bfd.server.ng.patient;
 
 import static gov.cms.bfd.server.ng.util.LoggerConstants.*;
 
+import gov.cms.bfd.server.ng.beneficiary.BeneficiaryIdentityCache;
 import gov.cms.bfd.server.ng.beneficiary.BeneficiaryRepository;
 import gov.cms.bfd.server.ng.beneficiary.model.Beneficiary;
 import gov.cms.bfd.server.ng.beneficiary.model.OrganizationFactory;
@@ -45,6 +46,7 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class PatientHandler {
   private final BeneficiaryRepository beneficiaryRepository;
+  private final BeneficiaryIdentityCache beneficiaryIdentityCache;
   private final LoadProgressRepository loadProgressRepository;
   private final CoverageRepository coverageRepository;
   private final AuditLogger auditLogger;
@@ -82,7 +84,7 @@ public class PatientHandler {
    * @return bundle
    */
   public Bundle searchByIdentifier(final String identifier, final DateTimeRange lastUpdated) {
-    var xrefBeneSk = beneficiaryRepository.getXrefSkFromMbi(identifier);
+    var xrefBeneSk = beneficiaryIdentityCache.getXrefSkFromMbi(identifier);
     var beneficiary = xrefBeneSk.flatMap(x -> beneficiaryRepository.findById(x, lastUpdated));
 
     return FhirUtil.bundleOrDefault(
@@ -160,7 +162,8 @@ public class PatientHandler {
   }
 
   private Patient toFhir(Beneficiary beneficiary) {
-    var identities = beneficiaryRepository.getValidBeneficiaryIdentities(beneficiary.getXrefSk());
+    var identities =
+        beneficiaryIdentityCache.getValidBeneficiaryIdentities(beneficiary.getXrefSk());
     var patient = beneficiary.toFhirPatient(ProfileType.C4BB);
 
     for (var id : identities) {
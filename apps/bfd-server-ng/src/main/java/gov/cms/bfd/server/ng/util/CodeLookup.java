@@ -0,0 +1,98 @@
+package gov.cms.bfd.server.ng.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable hash index used to find enum constants by their code in constant time. Code enums are
+ * converted once per column for every row loaded from the database, so a linear search through
+ * {@code values()} quickly becomes expensive for enums with hundreds or thousands of constants.
+ *
+ * <p>Each enum holds its own instance in a static field so the index is only built the first time
+ * the enum is used. The {@link Optional} returned for each constant is created up front so a
+ * successful lookup does not allocate.
+ *
+ * @param <K> type of the code
+ * @param <V> type returned by lookups, usually the enum itself or the interface it implements
+ */
+public final class CodeLookup<K, V> {
+  /** Result of looking up each known code. */
+  private final Map<K, Optional<V>> index;
+
+  /**
+   * Initializes an instance.
+   *
+   * @param index result of looking up each known code
+   */
+  private CodeLookup(Map<K, Optional<V>> index) {
+    this.index = index;
+  }
+
+  /**
+   * Builds an index over the given constants. When more than one constant has the same code the
+   * first one wins, the same as a linear search would. Constants without a code are skipped.
+   *
+   * <p>The index is a {@link HashMap} rather than {@link Map#copyOf}. The short codes used by most
+   * enums have closely clustered hash codes which cause long probe sequences in the open addressing
+   * table behind {@link Map#copyOf}.
+   *
+   * @param values the constants, usually the result of {@code values()}
+   * @param codeFunction extracts the code of a constant
+   * @param <K> type of the code
+   * @param <V> type returned by lookups
+   * @param <E> type of the constants
+   * @return the index
+   */
+  public static <K, V, E extends V> CodeLookup<K, V> of(
+      E[] values, Function<? super E, ? extends K> codeFunction) {
+    final Map<K, Optional<V>> index = new HashMap<>();
+    for (E value : values) {
+      final K code = codeFunction.apply(value);
+      if (code != null) {
+        index.putIfAbsent(code, Optional.of(value));
+      }
+    }
+    return new CodeLookup<>(Collections.unmodifiableMap(index));
+  }
+
+  /**
+   * Finds the constant with the given code.
+   *
+   * @param code the code
+   * @return the constant, or empty if the code is null or unknown
+   */
+  public Optional<V> find(@Nullable K code) {
+    if (code == null) {
+      return Optional.empty();
+    }
+    return index.getOrDefault(code, Optional.empty());
+  }
+
+  /**
+   * Finds the constant with the given code or creates a replacement for a null or unknown code.
+   * Known codes are returned without allocating.
+   *
+   * @param code the code
+   * @param fallback creates the value returned for an unknown code
+   * @return the constant or the replacement
+   */
+  public Optional<V> findOrElse(@Nullable K code, Function<? super K, ? extends V> fallback) {
+    final Optional<V> value = code == null ? null : index.get(code);
+    return value != null ? value : Optional.of(fallback.apply(code));
+  }
+
+  /**
+   * Returns the constant with the given code.
+   *
+   * @param code the code
+   * @return the constant, or null if the code is null or unknown
+   */
+  @Nullable
+  public V get(@Nullable K code) {
+    return find(code).orElse(null);
+  }
+}
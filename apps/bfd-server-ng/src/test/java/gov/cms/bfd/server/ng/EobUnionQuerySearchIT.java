@@ -0,0 +1,116 @@
+package gov.cms.bfd.server.ng;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.gclient.ICriterion;
+import ca.uhn.fhir.rest.gclient.TokenClientParam;
+import gov.cms.bfd.server.ng.claim.model.common.ClaimSubtype;
+import gov.cms.bfd.server.ng.util.SystemUrls;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+// Runs beneficiary searches with and without the union query, which must return the same claims
+class EobUnionQuerySearchIT extends IntegrationTestBase {
+
+  private Configuration.Nonsensitive.ClaimSearch originalClaimSearch;
+
+  // Starts every test from the default settings, which query each claim table separately
+  @BeforeEach
+  void useDefaultClaimSearch() {
+    originalClaimSearch = configuration.getNonsensitive().getClaimSearch();
+    configuration.getNonsensitive().setClaimSearch(new Configuration.Nonsensitive.ClaimSearch());
+  }
+
+  @AfterEach
+  void restoreClaimSearch() {
+    configuration.getNonsensitive().setClaimSearch(originalClaimSearch);
+  }
+
+  static Stream<Arguments> provideSearches() {
+    return Stream.of(
+        Arguments.of("Patient", BENE_ID_ALL_PARTS_WITH_XREF, List.of()),
+        Arguments.of(
+            "ClaimType",
+            BENE_ID_ALL_PARTS_WITH_XREF,
+            List.of(
+                new TokenClientParam("type")
+                    .exactly()
+                    .identifier(ClaimSubtype.OUTPATIENT.getCode()))),
+        Arguments.of(
+            "SystemTag",
+            BENE_ID_ALL_PARTS_WITH_XREF,
+            List.of(
+                new TokenClientParam(Constants.PARAM_TAG)
+                    .exactly()
+                    .systemAndCode(SystemUrls.BLUE_BUTTON_SYSTEM_TYPE, "SharedSystem"))),
+        Arguments.of(
+            "FinalActionTag",
+            BENE_ID_ALL_PARTS_WITH_XREF,
+            List.of(
+                new TokenClientParam(Constants.PARAM_TAG)
+                    .exactly()
+                    .systemAndCode(SystemUrls.BLUE_BUTTON_FINAL_ACTION_STATUS, "FinalAction"))),
+        Arguments.of(
+            "Source",
+            BENE_ID_ALL_PARTS_WITH_XREF,
+            List.of(new TokenClientParam(Constants.PARAM_SOURCE).exactly().code(DDPS_SOURCE))),
+        Arguments.of(
+            "Outcome",
+            BENE_ID_ALL_PARTS_WITH_XREF,
+            List.of(new TokenClientParam(OUTCOME).exactly().identifier(OUTCOME_COMPLETE))),
+        Arguments.of("MergedBene", CURRENT_MERGED_BENE_SK, List.of()),
+        Arguments.of("PriorAuth", BENE_WITH_PRIOR_AUTH, List.of()));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideSearches")
+  void unionQueryReturnsSameClaims(
+      String scenarioName, String beneSk, List<ICriterion<?>> criteria) {
+    var expected = encodeEntries(search(beneSk, criteria));
+
+    configuration.getNonsensitive().getClaimSearch().setUnionQuery(true);
+    assertEquals(expected, encodeEntries(search(beneSk, criteria)), scenarioName);
+
+    // Every query of the request runs one at a time
+    configuration.getNonsensitive().getClaimSearch().setMaxConcurrentQueries(1);
+    assertEquals(expected, encodeEntries(search(beneSk, criteria)), scenarioName);
+  }
+
+  @Test
+  void unionQueryFindsClaimsInEveryClaimTable() {
+    configuration.getNonsensitive().getClaimSearch().setUnionQuery(true);
+
+    var eobBundle = search(BENE_ID_ALL_PARTS_WITH_XREF, List.of());
+
+    assertEquals(6, eobBundle.getEntry().size());
+  }
+
+  private Bundle search(String beneSk, List<ICriterion<?>> criteria) {
+    var query =
+        getFhirClient()
+            .search()
+            .forResource(ExplanationOfBenefit.class)
+            .where(
+                new TokenClientParam(ExplanationOfBenefit.SP_PATIENT).exactly().identifier(beneSk));
+    for (var criterion : criteria) {
+      query = query.and(criterion);
+    }
+    return query.returnBundle(Bundle.class).execute();
+  }
+
+  private List<String> encodeEntries(Bundle bundle) {
+    var parser = getFhirClient().getFhirContext().newJsonParser();
+    return bundle.getEntry().stream()
+        .map(entry -> parser.encodeResourceToString(entry.getResource()))
+        .toList();
+  }
+}
@@ -0,0 +1,117 @@
+package gov.cms.bfd.server.ng.beneficiary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import gov.cms.bfd.server.ng.Configuration;
+import gov.cms.bfd.server.ng.loadprogress.LoadProgressRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BeneficiaryIdentityCacheTest {
+  private static final String MBI = "1S00E00AA00";
+  private static final ZonedDateTime FIRST_LOAD = ZonedDateTime.parse("2025-01-01T00:00:00Z");
+  private static final ZonedDateTime SECOND_LOAD = ZonedDateTime.parse("2025-01-02T00:00:00Z");
+
+  private BeneficiaryRepository beneficiaryRepository;
+  private LoadProgressRepository loadProgressRepository;
+  private SimpleMeterRegistry meterRegistry;
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() {
+    beneficiaryRepository = mock(BeneficiaryRepository.class);
+    loadProgressRepository = mock(LoadProgressRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+    configuration = new Configuration();
+    when(beneficiaryRepository.getXrefSkFromMbi(MBI)).thenReturn(Optional.of(1L));
+    when(loadProgressRepository.lastUpdated()).thenReturn(FIRST_LOAD);
+  }
+
+  @Test
+  void testRepeatedLookupIsCached() {
+    var cache = createCache();
+
+    assertEquals(Optional.of(1L), cache.getXrefSkFromMbi(MBI));
+    assertEquals(Optional.of(1L), cache.getXrefSkFromMbi(MBI));
+
+    verify(beneficiaryRepository, times(1)).getXrefSkFromMbi(MBI);
+    assertEquals(1, gets("beneficiary_xref_sk_by_mbi", "hit"));
+    assertEquals(1, gets("beneficiary_xref_sk_by_mbi", "miss"));
+  }
+
+  @Test
+  void testMissingBeneficiaryIsCached() {
+    when(beneficiaryRepository.getXrefSkFromBeneSk(2L)).thenReturn(Optional.empty());
+    var cache = createCache();
+
+    assertEquals(Optional.empty(), cache.getXrefSkFromBeneSk(2L));
+    assertEquals(Optional.empty(), cache.getXrefSkFromBeneSk(2L));
+
+    verify(beneficiaryRepository, times(1)).getXrefSkFromBeneSk(2L);
+  }
+
+  @Test
+  void testNewLoadInvalidatesCache() {
+    configuration.getNonsensitive().getIdentityCache().setWatermarkCheckIntervalMs(0);
+    var cache = createCache();
+
+    cache.getXrefSkFromMbi(MBI);
+    cache.getXrefSkFromMbi(MBI);
+    when(loadProgressRepository.lastUpdated()).thenReturn(SECOND_LOAD);
+    when(beneficiaryRepository.getXrefSkFromMbi(MBI)).thenReturn(Optional.of(3L));
+
+    assertEquals(Optional.of(3L), cache.getXrefSkFromMbi(MBI));
+    verify(beneficiaryRepository, times(2)).getXrefSkFromMbi(MBI);
+    assertEquals(
+        1,
+        meterRegistry
+            .get("application.beneficiary.identity_cache.invalidations")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void testWatermarkIsNotCheckedWithinInterval() {
+    var cache = createCache();
+
+    cache.getXrefSkFromMbi(MBI);
+    when(loadProgressRepository.lastUpdated()).thenReturn(SECOND_LOAD);
+    cache.getXrefSkFromMbi(MBI);
+
+    verify(loadProgressRepository, times(1)).lastUpdated();
+    verify(beneficiaryRepository, times(1)).getXrefSkFromMbi(MBI);
+  }
+
+  @Test
+  void testDisabledCacheAlwaysQueries() {
+    configuration.getNonsensitive().getIdentityCache().setEnabled(false);
+    var cache = createCache();
+
+    cache.getXrefSkFromMbi(MBI);
+    cache.getXrefSkFromMbi(MBI);
+
+    verify(beneficiaryRepository, times(2)).getXrefSkFromMbi(MBI);
+    verify(loadProgressRepository, times(0)).lastUpdated();
+  }
+
+  private BeneficiaryIdentityCache createCache() {
+    return new BeneficiaryIdentityCache(
+        configuration, beneficiaryRepository, loadProgressRepository, meterRegistry);
+  }
+
+  private double gets(String cacheName, String result) {
+    return meterRegistry
+        .get("cache.gets")
+        .tag("cache", cacheName)
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+}
@@ -0,0 +1,228 @@
+package gov.cms.bfd.server.ng.claim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import gov.cms.bfd.server.ng.DbFilterBuilder;
+import gov.cms.bfd.server.ng.DbFilterParam;
+import gov.cms.bfd.server.ng.claim.filter.BillablePeriodFilterParam;
+import gov.cms.bfd.server.ng.claim.filter.ClaimTypeCodeFilterParam;
+import gov.cms.bfd.server.ng.claim.filter.LastUpdatedFilterParam;
+import gov.cms.bfd.server.ng.claim.filter.OutcomeFilterParam;
+import gov.cms.bfd.server.ng.claim.filter.SourceFilterParam;
+import gov.cms.bfd.server.ng.claim.filter.TagCriteriaFilterParam;
+import gov.cms.bfd.server.ng.claim.model.common.ClaimFinalAction;
+import gov.cms.bfd.server.ng.claim.model.common.ClaimTypeCode;
+import gov.cms.bfd.server.ng.claim.model.common.MetaSourceSk;
+import gov.cms.bfd.server.ng.claim.model.common.SystemType;
+import gov.cms.bfd.server.ng.input.DateTimeBound;
+import gov.cms.bfd.server.ng.input.DateTimeBoundType;
+import gov.cms.bfd.server.ng.input.DateTimeRange;
+import gov.cms.bfd.server.ng.input.TagCriterion;
+import gov.cms.bfd.server.ng.log.QueryTelemetryUtil;
+import gov.cms.bfd.server.ng.util.MetricRecorder;
+import gov.cms.bfd.sharedutils.database.HedgedReadExecutor;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit.RemittanceOutcome;
+import org.junit.jupiter.api.Test;
+
+class ClaimQueryShapeTest {
+  // Default size of the PostgreSQL driver's prepared statement cache
+  private static final int PREPARED_STATEMENT_CACHE_QUERIES = 256;
+  private static final ZonedDateTime LOWER = ZonedDateTime.parse("2024-01-01T10:15:30.123Z");
+  private static final ZonedDateTime UPPER = ZonedDateTime.parse("2025-06-30T23:59:59.999Z");
+
+  private static final List<List<ClaimTypeCode>> CLAIM_TYPE_CODES =
+      List.of(List.of(), List.of(ClaimTypeCode._1), List.of(ClaimTypeCode._1, ClaimTypeCode._2));
+
+  private static final List<List<List<TagCriterion>>> TAGS =
+      List.of(
+          List.of(),
+          List.of(List.of(finalAction(ClaimFinalAction.YES))),
+          List.of(List.of(source(MetaSourceSk.FISS))),
+          List.of(List.of(source(MetaSourceSk.NCH))),
+          List.of(List.of(source(MetaSourceSk.FISS), source(MetaSourceSk.MCS))),
+          List.of(List.of(finalAction(ClaimFinalAction.YES)), List.of(source(MetaSourceSk.FISS))),
+          List.of(List.of(finalAction(ClaimFinalAction.YES), source(MetaSourceSk.FISS))),
+          List.of(
+              List.of(finalAction(ClaimFinalAction.NO)),
+              List.of(finalAction(ClaimFinalAction.YES))),
+          List.of(
+              List.of(finalAction(ClaimFinalAction.YES), source(MetaSourceSk.MCS)),
+              List.of(finalAction(ClaimFinalAction.NO), source(MetaSourceSk.FISS))));
+
+  private static final List<List<List<RemittanceOutcome>>> OUTCOMES =
+      List.of(
+          List.of(),
+          List.of(List.of(RemittanceOutcome.COMPLETE)),
+          List.of(List.of(RemittanceOutcome.PARTIAL)),
+          List.of(List.of(RemittanceOutcome.COMPLETE, RemittanceOutcome.PARTIAL)),
+          List.of(List.of(RemittanceOutcome.COMPLETE), List.of(RemittanceOutcome.PARTIAL)),
+          List.of(List.of(RemittanceOutcome.QUEUED)));
+
+  private static final List<List<List<MetaSourceSk>>> SOURCES =
+      List.of(
+          List.of(),
+          List.of(List.of(MetaSourceSk.NCH)),
+          List.of(List.of(MetaSourceSk.FISS)),
+          List.of(List.of(MetaSourceSk.FISS, MetaSourceSk.MCS), List.of(MetaSourceSk.MCS)),
+          List.of(List.of(MetaSourceSk.NCH), List.of(MetaSourceSk.FISS)),
+          List.of(List.of(MetaSourceSk.FISS), List.of(MetaSourceSk.MCS)));
+
+  private final ClaimAsyncService claimAsyncService =
+      new ClaimAsyncService(
+          mock(EntityManagerFactory.class),
+          mock(MetricRecorder.class),
+          mock(QueryTelemetryUtil.class),
+          mock(PriorAuthorizationRepository.class),
+          mock(HedgedReadExecutor.class));
+
+  @Test
+  void testFilterCombinationsProduceBoundedStatements() {
+    var statements = new HashSet<String>();
+    // One set of filters for each distinct combination of statements across the claim types
+    var filtersByClaimTypeStatements = new HashMap<List<String>, List<DbFilterBuilder>>();
+    var combinations = 0;
+    for (var serviceDate : dateRanges()) {
+      for (var lastUpdated : dateRanges()) {
+        for (var claimTypeCodes : CLAIM_TYPE_CODES) {
+          for (var tags : TAGS) {
+            for (var outcomes : OUTCOMES) {
+              for (var sources : SOURCES) {
+                List<DbFilterBuilder> filterBuilders =
+                    List.of(
+                        new BillablePeriodFilterParam(serviceDate),
+                        new LastUpdatedFilterParam(lastUpdated),
+                        new ClaimTypeCodeFilterParam(claimTypeCodes),
+                        new TagCriteriaFilterParam(tags),
+                        new OutcomeFilterParam(outcomes),
+                        new SourceFilterParam(sources));
+                var claimTypeStatements = new ArrayList<String>();
+                for (var systemType : SystemType.values()) {
+                  var filters = claimAsyncService.getFilters(filterBuilders, systemType);
+                  statements.add(
+                      systemType + statementKey(filters.filterClause(), filters.params()));
+                }
+                for (var claimType : ClaimRepository.ALL_CLAIM_TYPES) {
+                  var filters =
+                      claimAsyncService.getFilters(filterBuilders, claimType.systemType());
+                  claimTypeStatements.add(statementKey(filters.filterClause(), filters.params()));
+                }
+                filtersByClaimTypeStatements.putIfAbsent(claimTypeStatements, filterBuilders);
+                combinations++;
+              }
+            }
+          }
+        }
+      }
+    }
+
+    assertEquals(78_732, combinations);
+    // Every optional part of a filter is switched on and off by a flag rather than added to or left
+    // out of the statement, so each filter produces one statement per system type unless it
+    // excludes every claim. Only the padded length of the claim type code list still varies.
+    assertEquals(12, statements.size());
+
+    // The union query is built from the claim types that are searched
+    var unionStatements = new HashSet<String>();
+    var claimTypes = ClaimRepository.ALL_CLAIM_TYPES;
+    for (var filterBuilders : filtersByClaimTypeStatements.values()) {
+      for (var subset = 1; subset < 1 << claimTypes.size(); subset++) {
+        var searched = new ArrayList<ClaimTypeDefinition>();
+        for (var i = 0; i < claimTypes.size(); i++) {
+          if ((subset & 1 << i) != 0) {
+            searched.add(claimTypes.get(i));
+          }
+        }
+        claimAsyncService
+            .buildClaimIdsByBeneQuery(searched, filterBuilders)
+            .ifPresent(query -> unionStatements.add(statementKey(query.jpql(), query.params())));
+      }
+    }
+    assertEquals(78, unionStatements.size());
+    // Statements are cached per connection, so every shape must fit in the driver's cache
+    assertTrue(statements.size() + unionStatements.size() <= PREPARED_STATEMENT_CACHE_QUERIES);
+  }
+
+  @Test
+  void testBoundTypeDoesNotChangeStatement() {
+    var inclusive =
+        new DateTimeRange(
+            Optional.of(new DateTimeBound(LOWER, DateTimeBoundType.INCLUSIVE)),
+            Optional.of(new DateTimeBound(UPPER, DateTimeBoundType.INCLUSIVE)));
+    var exclusive =
+        new DateTimeRange(
+            Optional.of(new DateTimeBound(LOWER, DateTimeBoundType.EXCLUSIVE)),
+            Optional.of(new DateTimeBound(UPPER, DateTimeBoundType.EXCLUSIVE)));
+
+    for (var systemType : SystemType.values()) {
+      assertEquals(
+          claimAsyncService
+              .getFilters(List.of(new LastUpdatedFilterParam(inclusive)), systemType)
+              .filterClause(),
+          claimAsyncService
+              .getFilters(List.of(new LastUpdatedFilterParam(exclusive)), systemType)
+              .filterClause());
+    }
+    assertEquals(LOWER, inclusive.getInclusiveLowerBoundDateTime().orElseThrow());
+    assertEquals(
+        ZonedDateTime.parse("2024-01-01T10:15:30.123001Z"),
+        exclusive.getInclusiveLowerBoundDateTime().orElseThrow());
+    assertEquals(
+        ZonedDateTime.parse("2025-06-30T23:59:59.999001Z"),
+        inclusive.getExclusiveUpperBoundDateTime().orElseThrow());
+    assertEquals(UPPER, exclusive.getExclusiveUpperBoundDateTime().orElseThrow());
+    assertEquals(
+        UPPER.toLocalDate().plusDays(1), inclusive.getExclusiveUpperBoundDate().orElseThrow());
+    assertEquals(
+        LOWER.toLocalDate().plusDays(1), exclusive.getInclusiveLowerBoundDate().orElseThrow());
+  }
+
+  // Hibernate pads IN lists to a power of two, so the statement depends on the padded length
+  private static String statementKey(String query, List<DbFilterParam> params) {
+    var key = new StringBuilder(query);
+    for (var param : params) {
+      if (param.value() instanceof Collection<?> values) {
+        key.append(' ')
+            .append(param.name())
+            .append('=')
+            .append(Integer.highestOneBit(values.size() * 2 - 1));
+      }
+    }
+    return key.toString();
+  }
+
+  private static List<DateTimeRange> dateRanges() {
+    var boundTypes = new ArrayList<Optional<DateTimeBoundType>>();
+    boundTypes.add(Optional.empty());
+    for (var boundType : DateTimeBoundType.values()) {
+      boundTypes.add(Optional.of(boundType));
+    }
+    var ranges = new ArrayList<DateTimeRange>();
+    for (var lowerType : boundTypes) {
+      for (var upperType : boundTypes) {
+        ranges.add(
+            new DateTimeRange(
+                lowerType.map(t -> new DateTimeBound(LOWER, t)),
+                upperType.map(t -> new DateTimeBound(UPPER, t))));
+      }
+    }
+    return ranges;
+  }
+
+  private static TagCriterion finalAction(ClaimFinalAction finalAction) {
+    return new TagCriterion.FinalActionCriterion(finalAction);
+  }
+
+  private static TagCriterion source(MetaSourceSk metaSourceSk) {
+    return new TagCriterion.MetaSourceSkCriterion(metaSourceSk);
+  }
+}
@@ -0,0 +1,222 @@
+package gov.cms.bfd.server.ng.claim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import gov.cms.bfd.server.ng.Configuration;
+import gov.cms.bfd.server.ng.claim.model.BeneficiaryClaimAvailability;
+import gov.cms.bfd.server.ng.claim.model.PriorAuthorization;
+import gov.cms.bfd.server.ng.claim.model.common.entities.ClaimBase;
+import gov.cms.bfd.server.ng.claim.model.institutional.entities.ClaimInstitutionalCmsNch;
+import gov.cms.bfd.server.ng.claim.model.professional.entities.ClaimProfessionalCmsNch;
+import gov.cms.bfd.server.ng.claim.model.rx.entities.ClaimCmsRx;
+import gov.cms.bfd.server.ng.input.ClaimSearchCriteria;
+import gov.cms.bfd.server.ng.input.DateTimeRange;
+import gov.cms.bfd.server.ng.util.MetricRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ClaimRepositoryTest {
+  private static final ClaimSearchCriteria CRITERIA =
+      new ClaimSearchCriteria(
+          1L,
+          "1S00E00AA00",
+          new DateTimeRange(),
+          new DateTimeRange(),
+          Optional.empty(),
+          Optional.empty(),
+          List.of(),
+          List.of(),
+          List.of(),
+          List.of());
+
+  private ClaimAsyncService asyncService;
+  private ClaimAvailabilityRepository claimAvailabilityRepository;
+  private Configuration configuration;
+  private ClaimRepository claimRepository;
+
+  @BeforeEach
+  void setUp() {
+    asyncService = mock(ClaimAsyncService.class);
+    claimAvailabilityRepository = mock(ClaimAvailabilityRepository.class);
+    configuration = new Configuration();
+    claimRepository =
+        new ClaimRepository(
+            asyncService,
+            claimAvailabilityRepository,
+            new MetricRecorder(new SimpleMeterRegistry()),
+            configuration);
+    when(asyncService.fetchPriorAuth(any()))
+        .thenReturn(CompletableFuture.completedFuture(List.of()));
+  }
+
+  @Test
+  void testDefaultQueriesEveryClaimType() {
+    doReturn(CompletableFuture.completedFuture(List.of()))
+        .when(asyncService)
+        .fetchClaims(any(), any(), any(), any(), any());
+
+    claimRepository.findByBeneXrefSk(CRITERIA);
+
+    verify(asyncService, times(5)).fetchClaims(any(), any(), any(), any(), any());
+    verify(asyncService, never()).findClaimIdsByBene(any(), any(), any(), any());
+    verify(claimAvailabilityRepository, never()).getClaimTableFlags(anyLong());
+  }
+
+  @Test
+  void testAvailabilityIndexSkipsClaimTablesWithoutClaims() {
+    configuration.getNonsensitive().getClaimSearch().setAvailabilityIndex(true);
+    when(claimAvailabilityRepository.getClaimTableFlags(CRITERIA.beneSk()))
+        .thenReturn(
+            BeneficiaryClaimAvailability.CLAIM_RX
+                | BeneficiaryClaimAvailability.CLAIM_PROFESSIONAL_NCH);
+    doReturn(CompletableFuture.completedFuture(List.of()))
+        .when(asyncService)
+        .fetchClaims(any(), any(), any(), any(), any());
+
+    claimRepository.findByBeneXrefSk(CRITERIA);
+
+    verify(asyncService, times(2)).fetchClaims(any(), any(), any(), any(), any());
+    verify(asyncService).fetchClaims(any(), eq(ClaimCmsRx.class), any(), any(), any());
+    verify(asyncService).fetchClaims(any(), eq(ClaimProfessionalCmsNch.class), any(), any(), any());
+  }
+
+  @Test
+  void testUnionQueryLoadsOnlyClaimTypesWithMatches() {
+    configuration.getNonsensitive().getClaimSearch().setUnionQuery(true);
+    var first = claim(ClaimProfessionalCmsNch.class, 1L);
+    var second = claim(ClaimProfessionalCmsNch.class, 2L);
+    when(asyncService.findClaimIdsByBene(any(), eq(CRITERIA), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              List<ClaimTypeDefinition> claimTypes = invocation.getArgument(0);
+              var idsByClaimType = new LinkedHashMap<ClaimTypeDefinition, List<Long>>();
+              idsByClaimType.put(
+                  findClaimType(claimTypes, ClaimProfessionalCmsNch.class), List.of(1L, 2L));
+              return idsByClaimType;
+            });
+    doReturn(CompletableFuture.completedFuture(List.of(second, first)))
+        .when(asyncService)
+        .findByIdsInClaimType(any(), eq(ClaimProfessionalCmsNch.class), any(), any(), any(), any());
+
+    var result = claimRepository.findByBeneXrefSk(CRITERIA);
+
+    assertEquals(List.of(first, second), result.claims());
+    verify(asyncService, times(1)).findByIdsInClaimType(any(), any(), any(), any(), any(), any());
+    verify(asyncService, never()).fetchClaims(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void testUnionQueryLimitsConcurrentQueries() {
+    configuration.getNonsensitive().getClaimSearch().setUnionQuery(true);
+    configuration.getNonsensitive().getClaimSearch().setMaxConcurrentQueries(1);
+    when(asyncService.findClaimIdsByBene(any(), eq(CRITERIA), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              List<ClaimTypeDefinition> claimTypes = invocation.getArgument(0);
+              var idsByClaimType = new LinkedHashMap<ClaimTypeDefinition, List<Long>>();
+              idsByClaimType.put(
+                  findClaimType(claimTypes, ClaimProfessionalCmsNch.class), List.of(1L, 2L));
+              idsByClaimType.put(
+                  findClaimType(claimTypes, ClaimInstitutionalCmsNch.class), List.of(1L, 2L));
+              return idsByClaimType;
+            });
+    var professionalClaims = new CompletableFuture<List<ClaimBase>>();
+    doReturn(professionalClaims)
+        .when(asyncService)
+        .findByIdsInClaimType(any(), eq(ClaimProfessionalCmsNch.class), any(), any(), any(), any());
+    doReturn(CompletableFuture.completedFuture(List.of()))
+        .when(asyncService)
+        .findByIdsInClaimType(
+            any(), eq(ClaimInstitutionalCmsNch.class), any(), any(), any(), any());
+
+    var result = CompletableFuture.supplyAsync(() -> claimRepository.findByBeneXrefSk(CRITERIA));
+
+    verify(asyncService, after(200).times(1))
+        .findByIdsInClaimType(any(), any(), any(), any(), any(), any());
+    professionalClaims.complete(List.of());
+    verify(asyncService, timeout(1000).times(2))
+        .findByIdsInClaimType(any(), any(), any(), any(), any(), any());
+    assertEquals(List.of(), result.join().claims());
+  }
+
+  @Test
+  void testUnionQueryStartsNextQueryWhenAnyQueryFinishes() {
+    configuration.getNonsensitive().getClaimSearch().setUnionQuery(true);
+    configuration.getNonsensitive().getClaimSearch().setMaxConcurrentQueries(2);
+    when(asyncService.findClaimIdsByBene(any(), eq(CRITERIA), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              List<ClaimTypeDefinition> claimTypes = invocation.getArgument(0);
+              var idsByClaimType = new LinkedHashMap<ClaimTypeDefinition, List<Long>>();
+              idsByClaimType.put(
+                  findClaimType(claimTypes, ClaimProfessionalCmsNch.class), List.of(1L));
+              idsByClaimType.put(
+                  findClaimType(claimTypes, ClaimInstitutionalCmsNch.class), List.of(2L));
+              idsByClaimType.put(findClaimType(claimTypes, ClaimCmsRx.class), List.of(3L));
+              return idsByClaimType;
+            });
+    var professionalClaims = new CompletableFuture<List<ClaimBase>>();
+    doReturn(professionalClaims)
+        .when(asyncService)
+        .findByIdsInClaimType(any(), eq(ClaimProfessionalCmsNch.class), any(), any(), any(), any());
+    doReturn(CompletableFuture.completedFuture(List.of()))
+        .when(asyncService)
+        .findByIdsInClaimType(
+            any(), eq(ClaimInstitutionalCmsNch.class), any(), any(), any(), any());
+    doReturn(CompletableFuture.completedFuture(List.of()))
+        .when(asyncService)
+        .findByIdsInClaimType(any(), eq(ClaimCmsRx.class), any(), any(), any(), any());
+
+    var result = CompletableFuture.supplyAsync(() -> claimRepository.findByBeneXrefSk(CRITERIA));
+
+    // The rx query starts while the professional query is still running
+    verify(asyncService, timeout(1000))
+        .findByIdsInClaimType(any(), eq(ClaimCmsRx.class), any(), any(), any(), any());
+    professionalClaims.complete(List.of());
+    assertEquals(List.of(), result.join().claims());
+  }
+
+  @Test
+  void testUnionQueryCountsPriorAuthQuery() {
+    configuration.getNonsensitive().getClaimSearch().setUnionQuery(true);
+    configuration.getNonsensitive().getClaimSearch().setMaxConcurrentQueries(1);
+    var priorAuths = new CompletableFuture<List<PriorAuthorization>>();
+    when(asyncService.fetchPriorAuth(any())).thenReturn(priorAuths);
+    when(asyncService.findClaimIdsByBene(any(), eq(CRITERIA), any(), any()))
+        .thenReturn(new LinkedHashMap<>());
+
+    var result = CompletableFuture.supplyAsync(() -> claimRepository.findByBeneXrefSk(CRITERIA));
+
+    verify(asyncService, after(200).never()).findClaimIdsByBene(any(), any(), any(), any());
+    priorAuths.complete(List.of());
+    verify(asyncService, timeout(1000)).findClaimIdsByBene(any(), any(), any(), any());
+    assertEquals(List.of(), result.join().priorAuths());
+  }
+
+  private static ClaimTypeDefinition findClaimType(
+      List<ClaimTypeDefinition> claimTypes, Class<? extends ClaimBase> claimClass) {
+    return claimTypes.stream().filter(d -> d.claimClass() == claimClass).findFirst().orElseThrow();
+  }
+
+  private static <T extends ClaimBase> T claim(Class<T> claimClass, long claimUniqueId) {
+    var claim = mock(claimClass);
+    when(claim.getClaimUniqueId()).thenReturn(claimUniqueId);
+    return claim;
+  }
+}
@@ -0,0 +1,167 @@
+package gov.cms.bfd.server.ng.claim.model.common;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark measuring how quickly the code enums convert database codes using their {@link
+ * gov.cms.bfd.server.ng.util.CodeLookup} index. Claim data is dominated by a handful of codes, so
+ * the codes are drawn from a Zipf distribution over the valid codes with a small share of codes
+ * that are not valid. {@link #lookupWithScan()} repeats the linear search through {@code values()}
+ * used before the codes were indexed to provide a baseline.
+ *
+ * <p>To run the benchmark after compiling the tests:
+ *
+ * <pre>
+ * mvn -pl bfd-server-ng test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=CodeLookupBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodeLookupBenchmark {
+  /** Number of codes converted before the sequence repeats. */
+  private static final int CODE_COUNT = 4096;
+
+  /** Percentage of the codes that are not valid. */
+  private static final int INVALID_PERCENT = 2;
+
+  /** The code enum being measured. */
+  @Param({"ClaimLineRevenueCenterCode", "ClaimRelatedConditionCode"})
+  private String codeType;
+
+  /** Codes to convert. */
+  private String[] codes;
+
+  /** Converts a code using the index. */
+  private Function<String, Optional<?>> lookup;
+
+  /** Converts a code using a linear search. */
+  private Function<String, Optional<?>> scan;
+
+  /** Index of the next entry in {@link #codes} to convert. */
+  private int next;
+
+  /** Selects the code enum and generates the codes to convert. */
+  @Setup
+  public void setUp() {
+    final String[] validCodes;
+    switch (codeType) {
+      case "ClaimLineRevenueCenterCode" -> {
+        validCodes =
+            Arrays.stream(ClaimLineRevenueCenterCode.Valid.values())
+                .map(ClaimLineRevenueCenterCode.Valid::getCode)
+                .toArray(String[]::new);
+        lookup = ClaimLineRevenueCenterCode::tryFromCode;
+        scan =
+            code ->
+                Optional.of(
+                    Arrays.stream(ClaimLineRevenueCenterCode.Valid.values())
+                        .filter(v -> v.getCode().equals(code))
+                        .findFirst()
+                        .map(v -> (ClaimLineRevenueCenterCode) v)
+                        .orElse(new ClaimLineRevenueCenterCode.Invalid(code)));
+      }
+      case "ClaimRelatedConditionCode" -> {
+        validCodes =
+            Arrays.stream(ClaimRelatedConditionCode.Valid.values())
+                .map(ClaimRelatedConditionCode.Valid::getCode)
+                .toArray(String[]::new);
+        lookup = ClaimRelatedConditionCode::fromCode;
+        scan =
+            code ->
+                Optional.of(
+                    Arrays.stream(ClaimRelatedConditionCode.Valid.values())
+                        .filter(v -> v.getCode().equals(code))
+                        .map(v -> (ClaimRelatedConditionCode) v)
+                        .findFirst()
+                        .orElseGet(() -> new ClaimRelatedConditionCode.Invalid(code)));
+      }
+      default -> throw new IllegalArgumentException("Unknown code type: " + codeType);
+    }
+    codes = createCodes(validCodes, new Random(42));
+  }
+
+  /**
+   * Converts the next code using the index.
+   *
+   * @return the converted code, returned so that JMH keeps it alive
+   */
+  @Benchmark
+  public Optional<?> lookup() {
+    return lookup.apply(nextCode());
+  }
+
+  /**
+   * Converts the next code by scanning every constant, as was done before codes were indexed.
+   *
+   * @return the converted code, returned so that JMH keeps it alive
+   */
+  @Benchmark
+  public Optional<?> lookupWithScan() {
+    return scan.apply(nextCode());
+  }
+
+  /**
+   * Draws {@link #CODE_COUNT} codes. Valid codes are ranked in a random order and the code of rank
+   * {@code k} is drawn with a probability proportional to {@code 1/k}.
+   *
+   * @param validCodes every valid code
+   * @param random source of randomness
+   * @return the codes
+   */
+  private static String[] createCodes(String[] validCodes, Random random) {
+    final String[] ranked = validCodes.clone();
+    for (int i = ranked.length - 1; i > 0; i--) {
+      final int j = random.nextInt(i + 1);
+      final String swap = ranked[i];
+      ranked[i] = ranked[j];
+      ranked[j] = swap;
+    }
+    final double[] cumulativeWeights = new double[ranked.length];
+    double totalWeight = 0;
+    for (int rank = 0; rank < ranked.length; rank++) {
+      totalWeight += 1.0 / (rank + 1);
+      cumulativeWeights[rank] = totalWeight;
+    }
+    final String[] result = new String[CODE_COUNT];
+    for (int i = 0; i < result.length; i++) {
+      if (random.nextInt(100) < INVALID_PERCENT) {
+        result[i] = "~" + i;
+      } else {
+        final int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble() * totalWeight);
+        result[i] = ranked[Math.min(index < 0 ? -index - 1 : index, ranked.length - 1)];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Advances to the next code.
+   *
+   * @return the code to convert
+   */
+  private String nextCode() {
+    final String code = codes[next];
+    next = (next + 1) % codes.length;
+    return code;
+  }
+}
@@ -0,0 +1,411 @@
+package gov.cms.bfd.server.ng.claim.model.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import gov.cms.bfd.server.ng.beneficiary.model.LanguageCode;
+import gov.cms.bfd.server.ng.beneficiary.model.RaceCode;
+import gov.cms.bfd.server.ng.beneficiary.model.SexCode;
+import gov.cms.bfd.server.ng.claim.model.ClaimTypePriorAuth;
+import gov.cms.bfd.server.ng.claim.model.PriorAuthorizationDecision;
+import gov.cms.bfd.server.ng.claim.model.institutional.HhaLupaIndicatorCode;
+import gov.cms.bfd.server.ng.claim.model.professional.ClaimLineHCTHGBTestTypeCode;
+import gov.cms.bfd.server.ng.claim.model.professional.HealthProfessionalShortageAreaScarcityCode;
+import gov.cms.bfd.server.ng.claim.model.rx.ClaimDispenseAsWrittenCode;
+import gov.cms.bfd.server.ng.claim.model.rx.DrugCoverageStatusCode;
+import gov.cms.bfd.server.ng.coverage.model.BeneficiaryLISCopaymentLevelCode;
+import gov.cms.bfd.server.ng.coverage.model.EnrollmentProgramTypeCode;
+import gov.cms.bfd.server.ng.coverage.model.MedicareStatusCode;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Verifies that the indexed code lookups of every code enum return the same constant that a linear
+ * search through its values would have found.
+ */
+class CodeLookupRoundTripTest {
+  /** Code that is not used by any enum. */
+  private static final String UNKNOWN_CODE = "~not-a-code~";
+
+  /**
+   * Verifies that looking up the code of each constant returns the first constant with that code
+   * and that repeated lookups return the same cached result. Blank codes are skipped.
+   *
+   * @param name name of the enum
+   * @param values constants of the enum
+   * @param code extracts the code of a constant
+   * @param lookup converts a code back into a constant
+   * @param <E> type of the constants
+   * @param <K> type of the code
+   */
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("codeEnums")
+  <E extends Enum<E>, K> void everyCodeShouldRoundTrip(
+      String name, E[] values, Function<E, K> code, Function<K, ?> lookup) {
+    for (E value : values) {
+      final K key = code.apply(value);
+      if (key instanceof String s && s.isBlank()) {
+        // Several lookups treat a blank code as a missing value.
+        continue;
+      }
+      final E expected =
+          Arrays.stream(values).filter(v -> code.apply(v).equals(key)).findFirst().orElseThrow();
+      final Object result = lookup.apply(key);
+      assertSame(expected, unwrap(result), name + " " + key);
+      if (result instanceof Optional<?>) {
+        assertSame(result, lookup.apply(key), name + " " + key);
+      }
+    }
+  }
+
+  /**
+   * Verifies that an unknown code is converted into an invalid value that keeps the code.
+   *
+   * @param lookup converts a code into a valid or invalid value
+   */
+  @ParameterizedTest
+  @MethodSource("sealedCodes")
+  void unknownCodeShouldBeInvalid(Function<String, ?> lookup) {
+    final Object invalid = unwrap(lookup.apply(UNKNOWN_CODE));
+    assertInstanceOf(Record.class, invalid);
+    assertEquals(invalid, unwrap(lookup.apply(UNKNOWN_CODE)));
+  }
+
+  /**
+   * Lists every code enum along with the method used to look up its codes.
+   *
+   * @return the arguments
+   */
+  static Stream<Arguments> codeEnums() {
+    return Stream.of(
+        roundTrip(LanguageCode.values(), LanguageCode::getIdrCode, LanguageCode::fromIdrCode),
+        roundTrip(RaceCode.values(), RaceCode::getIdrCode, RaceCode::fromIdrCode),
+        roundTrip(SexCode.values(), SexCode::getIdrCode, SexCode::tryFromIdrCode),
+        roundTrip(
+            ClaimTypePriorAuth.Valid.values(),
+            ClaimTypePriorAuth.Valid::getCmsCode,
+            ClaimTypePriorAuth::tryFromCode),
+        roundTrip(
+            PriorAuthorizationDecision.Valid.values(),
+            PriorAuthorizationDecision.Valid::getCode,
+            PriorAuthorizationDecision::tryFromCode),
+        roundTrip(
+            CarrierLineMTUSIndicatorCode.Valid.values(),
+            CarrierLineMTUSIndicatorCode.Valid::getCode,
+            CarrierLineMTUSIndicatorCode::fromCode),
+        roundTrip(
+            CatastrophicCoverageCode.Valid.values(),
+            CatastrophicCoverageCode.Valid::getCode,
+            CatastrophicCoverageCode::tryFromCode),
+        roundTrip(
+            ClaimAdjustmentTypeCode.Valid.values(),
+            ClaimAdjustmentTypeCode.Valid::getCode,
+            ClaimAdjustmentTypeCode::fromCode),
+        roundTrip(
+            ClaimAdmissionSourceCode.Valid.values(),
+            ClaimAdmissionSourceCode.Valid::getCode,
+            ClaimAdmissionSourceCode::tryFromCode),
+        roundTrip(
+            ClaimAdmissionTypeCode.Valid.values(),
+            ClaimAdmissionTypeCode.Valid::getCode,
+            ClaimAdmissionTypeCode::tryFromCode),
+        roundTrip(
+            ClaimAuditTrailLocationCode.values(),
+            ClaimAuditTrailLocationCode::getCode,
+            ClaimAuditTrailLocationCode::tryFromCode),
+        roundTrip(
+            ClaimContractorNumber.Valid.values(),
+            ClaimContractorNumber.Valid::getCode,
+            ClaimContractorNumber::fromCode),
+        roundTrip(
+            ClaimCurrentStatusCode.values(),
+            ClaimCurrentStatusCode::getCode,
+            ClaimCurrentStatusCode::tryFromCode),
+        roundTrip(
+            ClaimDiagnosisType.values(),
+            ClaimDiagnosisType::getIdrCode,
+            ClaimDiagnosisType::tryFromIdrCode),
+        roundTrip(
+            ClaimDispositionCode.Valid.values(),
+            ClaimDispositionCode.Valid::getCode,
+            ClaimDispositionCode::fromCode),
+        roundTrip(
+            ClaimFederalTypeOfServiceCode.Valid.values(),
+            ClaimFederalTypeOfServiceCode.Valid::getCode,
+            ClaimFederalTypeOfServiceCode::fromCode),
+        roundTrip(ClaimFinalAction.values(), ClaimFinalAction::getCode, ClaimFinalAction::fromCode),
+        roundTrip(
+            ClaimFiscalIntermediaryActionCode.Valid.values(),
+            ClaimFiscalIntermediaryActionCode.Valid::getCode,
+            ClaimFiscalIntermediaryActionCode::tryFromCode),
+        roundTrip(
+            ClaimLineBrandGenericCode.Valid.values(),
+            ClaimLineBrandGenericCode.Valid::getCode,
+            ClaimLineBrandGenericCode::tryFromCode),
+        roundTrip(
+            ClaimLineCompoundCode.Valid.values(),
+            ClaimLineCompoundCode.Valid::getCode,
+            ClaimLineCompoundCode::tryFromCode),
+        roundTrip(
+            ClaimLineDeductibleCoinsuranceCode.Valid.values(),
+            ClaimLineDeductibleCoinsuranceCode.Valid::getCode,
+            ClaimLineDeductibleCoinsuranceCode::tryFromCode),
+        roundTrip(
+            ClaimLineRevenueCenterCode.Valid.values(),
+            ClaimLineRevenueCenterCode.Valid::getCode,
+            ClaimLineRevenueCenterCode::tryFromCode),
+        roundTrip(
+            ClaimNonpaymentReasonCode.Valid.values(),
+            ClaimNonpaymentReasonCode.Valid::getCode,
+            ClaimNonpaymentReasonCode::tryFromCode),
+        roundTrip(
+            ClaimOutpatientServiceTypeCode.Valid.values(),
+            ClaimOutpatientServiceTypeCode.Valid::getCode,
+            ClaimOutpatientServiceTypeCode::tryFromCode),
+        roundTrip(
+            ClaimPaidStatusCode.Valid.values(),
+            ClaimPaidStatusCode.Valid::getCode,
+            ClaimPaidStatusCode::tryFromCode),
+        roundTrip(
+            ClaimPatientResidenceCode.Valid.values(),
+            ClaimPatientResidenceCode.Valid::getCode,
+            ClaimPatientResidenceCode::tryFromCode),
+        roundTrip(
+            ClaimPaymentCode.Valid.values(),
+            ClaimPaymentCode.Valid::getCode,
+            ClaimPaymentCode::fromCode),
+        roundTrip(
+            ClaimPaymentDenialCode.Valid.values(),
+            ClaimPaymentDenialCode.Valid::getCode,
+            ClaimPaymentDenialCode::tryFromCode),
+        roundTrip(
+            ClaimPlaceOfServiceCode.Valid.values(),
+            ClaimPlaceOfServiceCode.Valid::getCode,
+            ClaimPlaceOfServiceCode::fromCode),
+        roundTrip(
+            ClaimPrescriptionOriginCode.Valid.values(),
+            ClaimPrescriptionOriginCode.Valid::getCode,
+            ClaimPrescriptionOriginCode::tryFromCode),
+        roundTrip(
+            ClaimPricingLocalityCode.Valid.values(),
+            ClaimPricingLocalityCode.Valid::getCode,
+            ClaimPricingLocalityCode::tryFromCode),
+        roundTrip(
+            ClaimPricingReasonCode.values(),
+            ClaimPricingReasonCode::getIdrCode,
+            ClaimPricingReasonCode::tryFromCode),
+        roundTrip(
+            ClaimPrimaryPayerCode.Valid.values(),
+            ClaimPrimaryPayerCode.Valid::getCode,
+            ClaimPrimaryPayerCode::tryFromCode),
+        roundTrip(
+            ClaimProcessingIndicatorCode.Valid.values(),
+            ClaimProcessingIndicatorCode.Valid::getCode,
+            ClaimProcessingIndicatorCode::tryFromCode),
+        roundTrip(
+            ClaimQueryCode.Valid.values(),
+            ClaimQueryCode.Valid::getCode,
+            ClaimQueryCode::tryFromCode),
+        roundTrip(
+            ClaimRecordTypeCode.Valid.values(),
+            ClaimRecordTypeCode.Valid::getCode,
+            ClaimRecordTypeCode::fromCode),
+        roundTrip(
+            ClaimRelatedConditionCode.Valid.values(),
+            ClaimRelatedConditionCode.Valid::getCode,
+            ClaimRelatedConditionCode::fromCode),
+        roundTrip(
+            ClaimServiceDeductibleCode.Valid.values(),
+            ClaimServiceDeductibleCode.Valid::getCode,
+            ClaimServiceDeductibleCode::tryFromCode),
+        roundTrip(ClaimSourceId.values(), ClaimSourceId::getId, ClaimSourceId::fromId),
+        roundTrip(
+            ClaimSubmissionCode.Valid.values(),
+            ClaimSubmissionCode.Valid::getCode,
+            ClaimSubmissionCode::tryFromCode),
+        roundTrip(
+            ClaimSubmissionFormatCode.values(),
+            ClaimSubmissionFormatCode::getIdrCode,
+            ClaimSubmissionFormatCode::fromCode),
+        roundTrip(ClaimSubtype.values(), ClaimSubtype::getCode, ClaimSubtype::fromCode),
+        roundTrip(
+            ClaimSupplierTypeCode.Valid.values(),
+            ClaimSupplierTypeCode.Valid::getCode,
+            ClaimSupplierTypeCode::tryFromCode),
+        roundTrip(ClaimTypeCode.values(), ClaimTypeCode::getCode, ClaimTypeCode::fromCode),
+        roundTrip(
+            HhaReferralCode.Valid.values(),
+            HhaReferralCode.Valid::getCode,
+            HhaReferralCode::tryFromCode),
+        roundTrip(IcdIndicator.values(), IcdIndicator::getCode, IcdIndicator::tryFromCode),
+        roundTrip(IdrUnit.values(), IdrUnit::getIdrCode, IdrUnit::tryFromCode),
+        roundTrip(
+            McoPaidSwitch.Valid.values(), McoPaidSwitch.Valid::getCode, McoPaidSwitch::tryFromCode),
+        roundTrip(MetaSourceSk.values(), MetaSourceSk::getSourceSk, MetaSourceSk::tryFromSourceSk),
+        roundTrip(MetaSourceSk.values(), MetaSourceSk::getDisplay, MetaSourceSk::tryFromDisplay),
+        roundTrip(
+            PatientStatusCode.Valid.values(),
+            PatientStatusCode.Valid::getCode,
+            PatientStatusCode::tryFromCode),
+        roundTrip(
+            PharmacySrvcTypeCode.Valid.values(),
+            PharmacySrvcTypeCode.Valid::getCode,
+            PharmacySrvcTypeCode::tryFromCode),
+        roundTrip(
+            PpsIndicatorCode.Valid.values(),
+            PpsIndicatorCode.Valid::getCode,
+            PpsIndicatorCode::fromCode),
+        roundTrip(
+            ProviderAssignmentIndicatorSwitch.Valid.values(),
+            ProviderAssignmentIndicatorSwitch.Valid::getCode,
+            ProviderAssignmentIndicatorSwitch::tryFromCode),
+        roundTrip(
+            ProviderIdQualifierCode.values(),
+            ProviderIdQualifierCode::getCode,
+            ProviderIdQualifierCode::fromCode),
+        roundTrip(
+            ProviderSpecialtyCode.values(),
+            ProviderSpecialtyCode::getCode,
+            ProviderSpecialtyCode::fromCode),
+        roundTrip(
+            ReducedPaymentPhysicianAssistantCode.Valid.values(),
+            ReducedPaymentPhysicianAssistantCode.Valid::getCode,
+            ReducedPaymentPhysicianAssistantCode::tryFromCode),
+        roundTrip(
+            RevenueCenterAnsiGroupCode.Valid.values(),
+            RevenueCenterAnsiGroupCode.Valid::getCode,
+            RevenueCenterAnsiGroupCode::tryFromCode),
+        roundTrip(
+            RevenueCenterAnsiReasonCode.Valid.values(),
+            RevenueCenterAnsiReasonCode.Valid::getCode,
+            RevenueCenterAnsiReasonCode::tryFromCode),
+        roundTrip(
+            HhaLupaIndicatorCode.Valid.values(),
+            HhaLupaIndicatorCode.Valid::getCode,
+            HhaLupaIndicatorCode::tryFromCode),
+        roundTrip(
+            ClaimLineHCTHGBTestTypeCode.values(),
+            ClaimLineHCTHGBTestTypeCode::getCode,
+            ClaimLineHCTHGBTestTypeCode::tryFromIdrCode),
+        roundTrip(
+            HealthProfessionalShortageAreaScarcityCode.Valid.values(),
+            HealthProfessionalShortageAreaScarcityCode.Valid::getCode,
+            HealthProfessionalShortageAreaScarcityCode::tryFromCode),
+        roundTrip(
+            ClaimDispenseAsWrittenCode.values(),
+            ClaimDispenseAsWrittenCode::getCode,
+            ClaimDispenseAsWrittenCode::tryFromCode),
+        roundTrip(
+            DrugCoverageStatusCode.Valid.values(),
+            DrugCoverageStatusCode.Valid::getCode,
+            DrugCoverageStatusCode::tryFromCode),
+        roundTrip(
+            BeneficiaryLISCopaymentLevelCode.Valid.values(),
+            BeneficiaryLISCopaymentLevelCode.Valid::getCode,
+            BeneficiaryLISCopaymentLevelCode::tryFromCode),
+        roundTrip(
+            EnrollmentProgramTypeCode.values(),
+            EnrollmentProgramTypeCode::getCode,
+            EnrollmentProgramTypeCode::tryFromCode),
+        roundTrip(
+            MedicareStatusCode.values(),
+            MedicareStatusCode::getCode,
+            MedicareStatusCode::tryFromCode));
+  }
+
+  /**
+   * Lists the lookups of the code types that represent unknown codes as an invalid value.
+   *
+   * @return the arguments
+   */
+  static Stream<Arguments> sealedCodes() {
+    return Stream.of(
+        invalid(BeneficiaryLISCopaymentLevelCode::tryFromCode),
+        invalid(CarrierLineMTUSIndicatorCode::fromCode),
+        invalid(CatastrophicCoverageCode::tryFromCode),
+        invalid(ClaimAdjustmentTypeCode::fromCode),
+        invalid(ClaimAdmissionSourceCode::tryFromCode),
+        invalid(ClaimAdmissionTypeCode::tryFromCode),
+        invalid(ClaimContractorNumber::fromCode),
+        invalid(ClaimDispositionCode::fromCode),
+        invalid(ClaimFederalTypeOfServiceCode::fromCode),
+        invalid(ClaimFiscalIntermediaryActionCode::tryFromCode),
+        invalid(ClaimLineBrandGenericCode::tryFromCode),
+        invalid(ClaimLineCompoundCode::tryFromCode),
+        invalid(ClaimLineDeductibleCoinsuranceCode::tryFromCode),
+        invalid(ClaimLineRevenueCenterCode::tryFromCode),
+        invalid(ClaimNonpaymentReasonCode::tryFromCode),
+        invalid(ClaimOutpatientServiceTypeCode::tryFromCode),
+        invalid(ClaimPaidStatusCode::tryFromCode),
+        invalid(ClaimPatientResidenceCode::tryFromCode),
+        invalid(ClaimPaymentCode::fromCode),
+        invalid(ClaimPaymentDenialCode::tryFromCode),
+        invalid(ClaimPlaceOfServiceCode::fromCode),
+        invalid(ClaimPrescriptionOriginCode::tryFromCode),
+        invalid(ClaimPricingLocalityCode::tryFromCode),
+        invalid(ClaimPrimaryPayerCode::tryFromCode),
+        invalid(ClaimProcessingIndicatorCode::tryFromCode),
+        invalid(ClaimQueryCode::tryFromCode),
+        invalid(ClaimRecordTypeCode::fromCode),
+        invalid(ClaimRelatedConditionCode::fromCode),
+        invalid(ClaimServiceDeductibleCode::tryFromCode),
+        invalid(ClaimSubmissionCode::tryFromCode),
+        invalid(ClaimSupplierTypeCode::tryFromCode),
+        invalid(ClaimTypePriorAuth::tryFromCode),
+        invalid(DrugCoverageStatusCode::tryFromCode),
+        invalid(HealthProfessionalShortageAreaScarcityCode::tryFromCode),
+        invalid(HhaLupaIndicatorCode::tryFromCode),
+        invalid(HhaReferralCode::tryFromCode),
+        invalid(McoPaidSwitch::tryFromCode),
+        invalid(PatientStatusCode::tryFromCode),
+        invalid(PharmacySrvcTypeCode::tryFromCode),
+        invalid(PpsIndicatorCode::fromCode),
+        invalid(PriorAuthorizationDecision::tryFromCode),
+        invalid(ProviderAssignmentIndicatorSwitch::tryFromCode),
+        invalid(ReducedPaymentPhysicianAssistantCode::tryFromCode),
+        invalid(RevenueCenterAnsiGroupCode::tryFromCode),
+        invalid(RevenueCenterAnsiReasonCode::tryFromCode));
+  }
+
+  /**
+   * Creates the arguments for one enum.
+   *
+   * @param values constants of the enum
+   * @param code extracts the code of a constant
+   * @param lookup converts a code back into a constant
+   * @param <E> type of the constants
+   * @param <K> type of the code
+   * @return the arguments
+   */
+  private static <E extends Enum<E>, K> Arguments roundTrip(
+      E[] values, Function<E, K> code, Function<K, ?> lookup) {
+    return Arguments.of(values[0].getDeclaringClass().getName(), values, code, lookup);
+  }
+
+  /**
+   * Creates the arguments for one sealed code type.
+   *
+   * @param lookup converts a code into a valid or invalid value
+   * @return the arguments
+   */
+  private static Arguments invalid(Function<String, ?> lookup) {
+    return Arguments.of(lookup);
+  }
+
+  /**
+   * Returns the value of an {@link Optional} or the result itself for lookups that do not return
+   * one.
+   *
+   * @param result result of a lookup
+   * @return the value or null if the optional was empty
+   */
+  private static Object unwrap(Object result) {
+    return result instanceof Optional<?> optional ? optional.orElse(null) : result;
+  }
+}
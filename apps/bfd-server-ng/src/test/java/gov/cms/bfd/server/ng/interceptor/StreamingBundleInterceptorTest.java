@@ -0,0 +1,66 @@
+package gov.cms.bfd.server.ng.interceptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ca.uhn.fhir.context.FhirContext;
+import java.io.StringWriter;
+import java.util.Date;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.hl7.fhir.r4.model.Organization;
+import org.junit.jupiter.api.Test;
+
+class StreamingBundleInterceptorTest {
+  private final FhirContext fhirContext = FhirContext.forR4Cached();
+
+  @Test
+  void testWriteBundleMatchesHapiEncoding() {
+    var parser = fhirContext.newJsonParser();
+    var bundle = createBundle(3);
+    var expected = parser.encodeResourceToString(bundle);
+
+    var writer = new StringWriter();
+    StreamingBundleInterceptor.writeBundle(parser, bundle, writer);
+
+    assertEquals(expected, writer.toString());
+  }
+
+  @Test
+  void testWriteBundleReleasesWrittenResources() {
+    var bundle = createBundle(2);
+
+    StreamingBundleInterceptor.writeBundle(fhirContext.newJsonParser(), bundle, new StringWriter());
+
+    assertEquals(2, bundle.getEntry().size());
+    bundle.getEntry().forEach(entry -> assertNull(entry.getResource()));
+  }
+
+  @Test
+  void testInvalidWindowSizeIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new StreamingBundleInterceptor(0));
+    assertThrows(IllegalArgumentException.class, () -> new StreamingBundleInterceptor(-1));
+  }
+
+  private static Bundle createBundle(int eobCount) {
+    var bundle = new Bundle();
+    bundle.setId("bundle-id");
+    bundle.setType(Bundle.BundleType.SEARCHSET);
+    bundle.setTotal(eobCount);
+    bundle.getMeta().setLastUpdated(new Date(0));
+    bundle.addLink().setRelation(Bundle.LINK_SELF).setUrl("https://localhost/v3/fhir/eob");
+    for (var i = 0; i < eobCount; i++) {
+      var eob = new ExplanationOfBenefit();
+      eob.setId("carrier-" + i);
+      eob.getMeta().setLastUpdated(new Date(1000L * i));
+      eob.getPatient().setReference("Patient/567834");
+      var organization = new Organization();
+      organization.setId("provider-org");
+      organization.setName("Provider " + i);
+      eob.addContained(organization);
+      bundle.addEntry().setResource(eob);
+    }
+    return bundle;
+  }
+}
@@ -0,0 +1,102 @@
+package gov.cms.bfd.server.war;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ExecutorService} that runs every task on its own virtual thread but allows no more than a
+ * fixed number of tasks to run at once. Tasks beyond that limit wait (cheaply, on their virtual
+ * thread) for a permit instead of sitting in a thread pool's queue.
+ *
+ * <p>The EOB claim type tasks spend most of their time blocked on JDBC, each holding a database
+ * connection, so sizing the permits to the database connection pool lets the fan-out scale with the
+ * capacity of the database rather than with a guessed platform thread count. Work that holds no
+ * connection, such as the parallel chunks of EOB transformation, should not be run here, since it
+ * would take permits that the database tasks are waiting for.
+ */
+public final class BoundedVirtualThreadExecutorService extends AbstractExecutorService {
+  /** Executor that starts a new virtual thread for each task. */
+  private final ExecutorService virtualThreadExecutor;
+
+  /** Limits the number of tasks that may run at the same time. */
+  private final Semaphore permits;
+
+  /**
+   * Instantiates a new {@link BoundedVirtualThreadExecutorService}.
+   *
+   * @param threadNamePrefix prefix for the names of the virtual threads
+   * @param maxConcurrentTasks maximum number of tasks that may run at the same time
+   */
+  public BoundedVirtualThreadExecutorService(String threadNamePrefix, int maxConcurrentTasks) {
+    if (maxConcurrentTasks <= 0) {
+      throw new IllegalArgumentException(
+          "maxConcurrentTasks must be positive: " + maxConcurrentTasks);
+    }
+    this.virtualThreadExecutor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+    this.permits = new Semaphore(maxConcurrentTasks, true);
+  }
+
+  /**
+   * Runs the command on a new virtual thread once a permit is available. If the virtual thread is
+   * interrupted while waiting for a permit the command is never run; if it is a {@link Future} it
+   * is cancelled so that nothing waits on it forever.
+   *
+   * @param command the task to run
+   */
+  @Override
+  public void execute(Runnable command) {
+    virtualThreadExecutor.execute(
+        () -> {
+          try {
+            permits.acquire();
+          } catch (InterruptedException e) {
+            if (command instanceof Future<?> future) {
+              future.cancel(false);
+            }
+            Thread.currentThread().interrupt();
+            return;
+          }
+          try {
+            command.run();
+          } finally {
+            permits.release();
+          }
+        });
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void shutdown() {
+    virtualThreadExecutor.shutdown();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<Runnable> shutdownNow() {
+    return virtualThreadExecutor.shutdownNow();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean isShutdown() {
+    return virtualThreadExecutor.isShutdown();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean isTerminated() {
+    return virtualThreadExecutor.isTerminated();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return virtualThreadExecutor.awaitTermination(timeout, unit);
+  }
+}
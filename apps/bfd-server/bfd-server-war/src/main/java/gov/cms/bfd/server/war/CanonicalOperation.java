@@ -1,6 +1,7 @@
 package gov.cms.bfd.server.war;
 
 import gov.cms.bfd.server.sharedutils.BfdMDC;
+import gov.cms.bfd.server.war.r4.providers.R4BulkExportProvider;
 import gov.cms.bfd.server.war.r4.providers.R4CoverageResourceProvider;
 import gov.cms.bfd.server.war.r4.providers.R4ExplanationOfBenefitResourceProvider;
 import gov.cms.bfd.server.war.r4.providers.R4PatientResourceProvider;
@@ -123,6 +124,12 @@ public final class CanonicalOperation {
     /** Handled by {@link R4ClaimResponseResourceProvider}. */
     V2_CLAIM_RESPONSE("/v2/fhir/ClaimResponse"),
 
+    /** Handled by {@link R4BulkExportProvider}. */
+    V2_EXPORT_POLL_STATUS("/v2/fhir/$export-poll-status"),
+
+    /** Handled by {@link R4BulkExportProvider}. */
+    V2_EXPORT_FILE("/v2/fhir/$export-file"),
+
     /** Some other, unknown HTTP endpoint/operation. */
     OTHER(null);
 
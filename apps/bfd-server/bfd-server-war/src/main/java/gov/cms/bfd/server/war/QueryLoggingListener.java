@@ -236,7 +236,21 @@ public final class QueryLoggingListener implements QueryExecutionListener {
     BENE_EXISTS_BY_YEAR_MONTH_PARTD_CONTRACT_ID(
         "bene_exists_by_year_month_part_d_contract_id",
         (s ->
-            s.contains(" from ccw.beneficiary_monthly ")
+            (s.contains(" from ccw.beneficiary_monthly ")
+                    || (s.contains(" from ccw.beneficiary_partd_contract_months ")
+                        && !s.contains(" order by ")))
+                && s.contains("year_month=")
+                && s.contains("partd_contract_number_id="))),
+
+    /**
+     * Represents the query for the ids of the beneficiaries enrolled in a partD contract for a year
+     * month.
+     */
+    BENE_IDS_BY_YEAR_MONTH_PARTD_CONTRACT_ID(
+        "bene_ids_by_year_month_part_d_contract_id",
+        (s ->
+            s.contains(" from ccw.beneficiary_partd_contract_months ")
+                && s.contains(" order by ")
                 && s.contains("year_month=")
                 && s.contains("partd_contract_number_id="))),
 
@@ -6,6 +6,11 @@ import com.codahale.metrics.health.HealthCheckRegistry;
 import com.codahale.metrics.jvm.GarbageCollectorMetricSet;
 import com.codahale.metrics.jvm.MemoryUsageGaugeSet;
 import gov.cms.bfd.model.rda.Mbi;
+import gov.cms.bfd.server.war.commons.BulkExportStore;
+import gov.cms.bfd.server.war.commons.DisabledBulkExportStore;
+import gov.cms.bfd.server.war.commons.LocalBulkExportStore;
+import gov.cms.bfd.server.war.commons.S3BulkExportStore;
+import gov.cms.bfd.server.war.r4.providers.R4BulkExportProvider;
 import gov.cms.bfd.server.war.r4.providers.R4CoverageResourceProvider;
 import gov.cms.bfd.server.war.r4.providers.R4ExplanationOfBenefitResourceProvider;
 import gov.cms.bfd.server.war.r4.providers.R4PatientResourceProvider;
@@ -16,6 +21,7 @@ import gov.cms.bfd.server.war.stu3.providers.ExplanationOfBenefitResourceProvide
 import gov.cms.bfd.server.war.stu3.providers.PatientResourceProvider;
 import gov.cms.bfd.sharedutils.config.AwsClientConfig;
 import gov.cms.bfd.sharedutils.config.BaseConfiguration;
+import gov.cms.bfd.sharedutils.config.ConfigException;
 import gov.cms.bfd.sharedutils.config.ConfigLoader;
 import gov.cms.bfd.sharedutils.config.ConfigLoaderSource;
 import gov.cms.bfd.sharedutils.config.LayeredConfiguration;
@@ -27,6 +33,7 @@ import jakarta.persistence.PersistenceUnit;
 import jakarta.servlet.ServletContext;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -34,9 +41,14 @@ import java.security.cert.CertificateException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.sql.DataSource;
 import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
 import org.hibernate.cfg.AvailableSettings;
@@ -48,6 +60,7 @@ import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.support.PersistenceAnnotationBeanPostProcessor;
@@ -110,9 +123,81 @@ public class SpringConfiguration extends BaseConfiguration {
   /** The {@link String } Boolean property that is used to enable the samhsa 2.0 profile. */
   public static final String SSM_PATH_SAMHSA_V2_SHADOW = "samhsa_v2/shadow";
 
+  /**
+   * The {@link String } Boolean property that is used to enable streaming of large EOB search
+   * bundles directly to the response (see {@link StreamingBundleInterceptor}).
+   */
+  public static final String SSM_PATH_STREAMING_BUNDLE_ENABLED = "streaming_bundle/enabled";
+
+  /** Number of characters the {@link StreamingBundleInterceptor} buffers between flushes. */
+  public static final String SSM_PATH_STREAMING_BUNDLE_WINDOW_SIZE = "streaming_bundle/window_size";
+
+  /** Whether the bulk data {@code $export} operations ({@link R4BulkExportProvider}) are on. */
+  public static final String SSM_PATH_BULK_EXPORT_ENABLED = "bulk_export/enabled";
+
+  /**
+   * Local directory that export files are written to when no S3 bucket is configured. Either this
+   * or {@link #SSM_PATH_BULK_EXPORT_S3_BUCKET} is required when exports are enabled.
+   */
+  public static final String SSM_PATH_BULK_EXPORT_DIRECTORY = "bulk_export/directory";
+
+  /** S3 bucket that export files are written to, which takes precedence over the directory. */
+  public static final String SSM_PATH_BULK_EXPORT_S3_BUCKET = "bulk_export/s3_bucket";
+
+  /** Number of export jobs that run at the same time. */
+  public static final String SSM_PATH_BULK_EXPORT_THREADS = "bulk_export/threads";
+
+  /** Number of export jobs that can wait for a thread before new jobs are rejected. */
+  public static final String SSM_PATH_BULK_EXPORT_MAX_QUEUED_JOBS = "bulk_export/max_queued_jobs";
+
+  /** Number of beneficiaries written to each set of export files. */
+  public static final String SSM_PATH_BULK_EXPORT_BENEFICIARIES_PER_FILE =
+      "bulk_export/beneficiaries_per_file";
+
+  /** Number of hours that the files of finished export jobs are kept. */
+  public static final String SSM_PATH_BULK_EXPORT_RETENTION_HOURS = "bulk_export/retention_hours";
+
   /** Maximum number of threads to use for executing EOB claim transformers in parallel. */
   public static final String PROP_EXECUTOR_SERVICE_THREADS = "bfdServer.executorService.threads";
 
+  /**
+   * Whether EOB claim transformers run on virtual threads, limited to the size of the database
+   * connection pool, instead of on a fixed pool of {@link #PROP_EXECUTOR_SERVICE_THREADS} threads.
+   */
+  public static final String PROP_EXECUTOR_SERVICE_VIRTUAL_THREADS =
+      "bfdServer.executorService.virtualThreads";
+
+  /**
+   * Minimum number of claims of a single type before {@link
+   * gov.cms.bfd.server.war.r4.providers.PatientClaimsEobTaskTransformerV2} splits their
+   * transformation into parallel chunks.
+   */
+  public static final String PROP_EOB_PARALLEL_TRANSFORM_THRESHOLD =
+      "bfdServer.eobTransform.parallelThreshold";
+
+  /**
+   * Maximum number of parallel chunks a single claim type's transformation may be split into. Caps
+   * how many threads of the {@link #EOB_TRANSFORM_EXECUTOR_SERVICE transform executor} one claim
+   * type's transformation can occupy.
+   */
+  public static final String PROP_EOB_PARALLEL_TRANSFORM_MAX_CHUNKS =
+      "bfdServer.eobTransform.maxParallelChunks";
+
+  /**
+   * Maximum number of parallel transformation chunks waiting for a thread of the {@link
+   * #EOB_TRANSFORM_EXECUTOR_SERVICE transform executor}. Chunks offered while the queue is full are
+   * run by the task that split its claims into them.
+   */
+  public static final String PROP_EOB_PARALLEL_TRANSFORM_QUEUE_SIZE =
+      "bfdServer.eobTransform.queueSize";
+
+  /**
+   * Number of claims that the v2 EOB and PAC claim searches load and transform at a time (see
+   * {@link gov.cms.bfd.server.war.commons.QueryResultWindows}). A non-positive value loads all of a
+   * search's claims before transforming any of them.
+   */
+  public static final String PROP_CLAIM_QUERY_WINDOW_SIZE = "bfdServer.claimQuery.windowSize";
+
   /** The database transaction timeout value (seconds). */
   public static final int TRANSACTION_TIMEOUT = 30;
 
@@ -148,6 +233,12 @@ public class SpringConfiguration extends BaseConfiguration {
    */
   public static final String PAC_OLD_MBI_HASH_ENABLED = "PacOldMbiHashEnabled";
 
+  /**
+   * The {@link Bean#name()} for the {@link ExecutorService} that runs the parallel chunks of EOB
+   * claim transformation, which are CPU bound and hold no database connection.
+   */
+  public static final String EOB_TRANSFORM_EXECUTOR_SERVICE = "eobTransformExecutorService";
+
   /**
    * Exposes our {@link ConfigLoader} instance as a singleton to components in the application. If
    * one has already been created for use in a {@link ConfigPropertySource} and added to the {@link
@@ -174,6 +265,41 @@ public class SpringConfiguration extends BaseConfiguration {
     return loadAwsClientConfig(configLoader);
   }
 
+  /**
+   * Creates the {@link BulkExportStore} that export files are written to. An S3 bucket is used if
+   * one is configured, since every server needs to see the files of every job. Otherwise, files are
+   * written to a local directory. Since the files hold beneficiary data, there is no default
+   * location: one of the two must be configured when exports are enabled.
+   *
+   * @param configLoader used to look up configuration values
+   * @param awsClientConfig common AWS settings
+   * @return the store
+   * @throws ConfigException if exports are enabled and neither a bucket nor a directory is
+   *     configured
+   */
+  @Bean(destroyMethod = "close")
+  public BulkExportStore bulkExportStore(
+      ConfigLoader configLoader, AwsClientConfig awsClientConfig) {
+    Optional<String> bucket = configLoader.stringOption(SSM_PATH_BULK_EXPORT_S3_BUCKET);
+    if (bucket.isPresent()) {
+      return S3BulkExportStore.create(awsClientConfig, bucket.get());
+    }
+    Optional<String> directory = configLoader.stringOption(SSM_PATH_BULK_EXPORT_DIRECTORY);
+    if (directory.isPresent()) {
+      return new LocalBulkExportStore(Path.of(directory.get()));
+    }
+    if (configLoader.booleanValue(SSM_PATH_BULK_EXPORT_ENABLED, false)) {
+      throw new ConfigException(
+          SSM_PATH_BULK_EXPORT_DIRECTORY,
+          String.format(
+              "either %s or %s is required when %s is true",
+              SSM_PATH_BULK_EXPORT_DIRECTORY,
+              SSM_PATH_BULK_EXPORT_S3_BUCKET,
+              SSM_PATH_BULK_EXPORT_ENABLED));
+    }
+    return new DisabledBulkExportStore();
+  }
+
   /**
    * Creates a {@link KeyStore} from the trust store path.
    *
@@ -437,12 +563,28 @@ public class SpringConfiguration extends BaseConfiguration {
    * thread at time of thread pool creation), retrieving EOB claims represents a high-volume service
    * that will make good use of allocated threads.
    *
+   * <p>When {@link #PROP_EXECUTOR_SERVICE_VIRTUAL_THREADS} is enabled each task instead runs on its
+   * own virtual thread, with no more tasks running at once than there are connections in the
+   * database pool. Since the tasks are mostly blocked on JDBC this lets bursts of requests use all
+   * of the database's capacity without queueing behind a fixed number of platform threads. The
+   * parallel transformation chunks of these tasks run on {@link #eobTransformExecutorService}
+   * instead, so they never take a permit that a database task is waiting for.
+   *
    * @param threadCount system parameter for the number of threads in the fixed thread pool.
+   * @param virtualThreads system parameter for whether to use virtual threads instead
+   * @param configLoader used to look up the database connection pool size
    * @return {@link ExecutorService} for the application.
    */
   @Bean
+  @Primary
   public ExecutorService executorService(
-      @Value("${" + PROP_EXECUTOR_SERVICE_THREADS + ":80}") Integer threadCount) {
+      @Value("${" + PROP_EXECUTOR_SERVICE_THREADS + ":80}") Integer threadCount,
+      @Value("${" + PROP_EXECUTOR_SERVICE_VIRTUAL_THREADS + ":false}") Boolean virtualThreads,
+      ConfigLoader configLoader) {
+    if (virtualThreads) {
+      return new BoundedVirtualThreadExecutorService(
+          "eob_claims_", loadDatabaseOptions(configLoader).getHikariOptions().getMaximumPoolSize());
+    }
     return Executors.newFixedThreadPool(
         threadCount,
         r -> {
@@ -451,4 +593,35 @@ public class SpringConfiguration extends BaseConfiguration {
           return t;
         });
   }
+
+  /**
+   * This bean provides the {@link ExecutorService} that runs the parallel chunks of EOB claim
+   * transformation. The chunks only transform entities that are already loaded, so the pool is
+   * sized to the number of processors rather than to the database connection pool. At most {@link
+   * #PROP_EOB_PARALLEL_TRANSFORM_QUEUE_SIZE} chunks wait for a thread; once the queue is full the
+   * task that splits its claims into chunks runs each further chunk itself, as it does with any
+   * chunk that no pool thread has picked up yet, so a busy pool slows a request down but never
+   * blocks it or grows without limit.
+   *
+   * @param queueSize system parameter for the number of chunks that may wait for a thread
+   * @return {@link ExecutorService} for the parallel transformation chunks
+   */
+  @Bean(name = EOB_TRANSFORM_EXECUTOR_SERVICE)
+  public ExecutorService eobTransformExecutorService(
+      @Value("${" + PROP_EOB_PARALLEL_TRANSFORM_QUEUE_SIZE + ":100}") Integer queueSize) {
+    int threads = Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCount = new AtomicInteger();
+    return new ThreadPoolExecutor(
+        threads,
+        threads,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueSize),
+        r -> {
+          Thread t = new Thread(r);
+          t.setName("eob_transform-" + threadCount.getAndIncrement());
+          return t;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
 }
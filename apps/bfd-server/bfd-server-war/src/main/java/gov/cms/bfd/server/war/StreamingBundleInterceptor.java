@@ -0,0 +1,231 @@
+package gov.cms.bfd.server.war;
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.api.server.ResponseDetails;
+import ca.uhn.fhir.rest.server.RestfulServerUtils;
+import ca.uhn.fhir.util.DateUtils;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.BufferedWriter;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Bundle.BundleEntryComponent;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.hl7.fhir.r4.model.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HAPI interceptor that writes large {@link ExplanationOfBenefit} search {@link Bundle}s directly
+ * to the servlet output stream one entry at a time, rather than letting HAPI encode the entire
+ * bundle into a single in-memory buffer before writing it.
+ *
+ * <p>The bundle metadata (id, meta, type, total, links) is encoded by HAPI exactly as it would be
+ * normally, and each entry's resource is then encoded with the same parser straight to the response
+ * writer, so the bytes on the wire are identical to HAPI's own output. Each entry's resource is
+ * released as soon as it has been written so that the transformed resources can be garbage
+ * collected while the rest of the response is still being sent.
+ *
+ * <p>Only the plain (non pretty-printed, unfiltered) JSON encoding is streamed. Any request that
+ * asks for XML, pretty printing, {@code _summary} or {@code _elements} falls through to HAPI's
+ * normal response handling.
+ *
+ * <p>The bundle itself is still fully built in memory before streaming starts, since the EOBs are
+ * sorted and counted across claim types first. Streaming only avoids holding a serialized copy of
+ * the bundle alongside it.
+ */
+@Interceptor
+public class StreamingBundleInterceptor {
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamingBundleInterceptor.class);
+
+  /**
+   * Order of the {@link Pointcut#SERVER_OUTGOING_RESPONSE} hook. Must be higher than any other
+   * interceptor (e.g. the SAMHSA consent interceptor) that may modify the outgoing bundle, since
+   * once this hook writes the response nothing else gets a chance to change it.
+   */
+  static final int HOOK_ORDER = 10_000;
+
+  /** Default number of characters buffered before they are flushed to the servlet output. */
+  public static final int DEFAULT_WINDOW_SIZE = 64 * 1024;
+
+  /** The opening of a bundle's entry array, appended after the encoded bundle metadata. */
+  private static final String ENTRY_ARRAY_START = ",\"entry\":[";
+
+  /** The opening of an individual bundle entry, which is followed by the encoded resource. */
+  private static final String ENTRY_START = "{\"resource\":";
+
+  /** Number of characters written to the servlet output before forcing a flush. */
+  private final int windowSize;
+
+  /**
+   * Instantiates a new {@link StreamingBundleInterceptor}.
+   *
+   * @param windowSize number of characters to buffer before flushing to the servlet output
+   */
+  public StreamingBundleInterceptor(int windowSize) {
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+    }
+    this.windowSize = windowSize;
+  }
+
+  /**
+   * Streams the response bundle if it is eligible; otherwise lets HAPI handle it as normal.
+   *
+   * @param requestDetails the request being responded to
+   * @param responseDetails the response, which may have been altered by earlier interceptors
+   * @return {@code false} if the response has been written by this interceptor, {@code true} to let
+   *     HAPI continue processing the response normally
+   * @throws IOException if writing to the response fails
+   */
+  @Hook(value = Pointcut.SERVER_OUTGOING_RESPONSE, order = HOOK_ORDER)
+  public boolean streamBundle(RequestDetails requestDetails, ResponseDetails responseDetails)
+      throws IOException {
+    if (!(responseDetails.getResponseResource() instanceof Bundle bundle)
+        || !isStreamable(requestDetails, bundle)) {
+      return true;
+    }
+
+    IParser parser =
+        RestfulServerUtils.getNewParser(
+            requestDetails.getFhirContext(),
+            requestDetails.getFhirContext().getVersion().getVersion(),
+            requestDetails);
+    String contentType =
+        RestfulServerUtils.determineResponseEncodingWithDefault(requestDetails)
+            .getResourceContentType();
+    if (bundle.getMeta().hasLastUpdated()) {
+      requestDetails
+          .getResponse()
+          .addHeader(
+              Constants.HEADER_LAST_MODIFIED,
+              DateUtils.formatDate(bundle.getMeta().getLastUpdated()));
+    }
+
+    Writer responseWriter =
+        requestDetails
+            .getResponse()
+            .getResponseWriter(
+                responseDetails.getResponseCode(),
+                contentType,
+                Constants.CHARSET_NAME_UTF8,
+                requestDetails.isRespondGzip());
+    LOGGER.debug("Streaming bundle with {} entries", bundle.getEntry().size());
+    writeBundle(parser, bundle, new BufferedWriter(responseWriter, windowSize));
+    requestDetails.getResponse().commitResponse(responseWriter);
+    return false;
+  }
+
+  /**
+   * Determines whether the given bundle can be streamed without changing the response bytes.
+   *
+   * @param requestDetails the request being responded to
+   * @param bundle the bundle to be returned
+   * @return {@code true} if the bundle should be streamed
+   */
+  private static boolean isStreamable(RequestDetails requestDetails, Bundle bundle) {
+    if (!ExplanationOfBenefit.class.getSimpleName().equals(requestDetails.getResourceName())
+        || bundle.getEntry().isEmpty()
+        || bundle.hasSignature()) {
+      return false;
+    }
+    if (requestDetails.getParameters().containsKey(Constants.PARAM_SUMMARY)
+        || requestDetails.getParameters().containsKey(Constants.PARAM_ELEMENTS)
+        || RestfulServerUtils.prettyPrintResponse(requestDetails.getServer(), requestDetails)) {
+      return false;
+    }
+    if (RestfulServerUtils.determineResponseEncodingWithDefault(requestDetails).getEncoding()
+        != EncodingEnum.JSON) {
+      return false;
+    }
+    return bundle.getEntry().stream().allMatch(StreamingBundleInterceptor::isResourceOnlyEntry);
+  }
+
+  /**
+   * Checks that an entry carries nothing but its resource, so that it can be written as {@code
+   * {"resource":...}} without going through HAPI's bundle entry encoding.
+   *
+   * @param entry the bundle entry to check
+   * @return {@code true} if the entry only contains a resource
+   */
+  private static boolean isResourceOnlyEntry(BundleEntryComponent entry) {
+    return entry.getResource() != null
+        && !entry.hasId()
+        && !entry.hasExtension()
+        && !entry.hasModifierExtension()
+        && !entry.hasLink()
+        && !entry.hasFullUrl()
+        && !entry.hasSearch()
+        && !entry.hasRequest()
+        && !entry.hasResponse();
+  }
+
+  /**
+   * Writes the bundle as JSON to the given writer, encoding each entry's resource individually. The
+   * bundle's entries are detached while the metadata is encoded and each entry's resource is
+   * cleared once it has been written.
+   *
+   * @param parser the JSON parser configured for this request
+   * @param bundle the bundle to write; must have at least one entry and no signature
+   * @param writer the writer to send the JSON to; is flushed but not closed
+   */
+  @VisibleForTesting
+  static void writeBundle(IParser parser, Bundle bundle, Writer writer) {
+    List<BundleEntryComponent> entries = bundle.getEntry();
+    Writer entryWriter = new NonClosingWriter(writer);
+    try {
+      bundle.setEntry(null);
+      String metadata = parser.encodeResourceToString(bundle);
+      // Entry is the last bundle element HAPI encodes (signature aside), so it goes right before
+      // the closing brace of the metadata object.
+      writer.write(metadata, 0, metadata.lastIndexOf('}'));
+      writer.write(ENTRY_ARRAY_START);
+      for (int i = 0; i < entries.size(); i++) {
+        BundleEntryComponent entry = entries.get(i);
+        if (i > 0) {
+          writer.write(',');
+        }
+        writer.write(ENTRY_START);
+        parser.encodeResourceToWriter((Resource) entry.getResource(), entryWriter);
+        writer.write('}');
+        entry.setResource(null);
+      }
+      writer.write("]}");
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      bundle.setEntry(entries);
+    }
+  }
+
+  /**
+   * Shields the response writer from the parser, which closes the writer it is given once it has
+   * finished encoding a resource.
+   */
+  private static class NonClosingWriter extends FilterWriter {
+    /**
+     * Instantiates a new {@link NonClosingWriter}.
+     *
+     * @param writer the writer to delegate to
+     */
+    NonClosingWriter(Writer writer) {
+      super(writer);
+    }
+
+    /** Flushes the underlying writer but leaves it open. */
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+}
@@ -10,6 +10,7 @@ import ca.uhn.fhir.rest.server.interceptor.IServerInterceptor;
 import ca.uhn.fhir.rest.server.interceptor.consent.ConsentInterceptor;
 import ca.uhn.fhir.rest.server.provider.ServerCapabilityStatementProvider;
 import gov.cms.bfd.server.openapi.OpenApiInterceptor;
+import gov.cms.bfd.server.war.r4.providers.R4BulkExportProvider;
 import gov.cms.bfd.sharedutils.config.ConfigLoader;
 import jakarta.servlet.Servlet;
 import jakarta.servlet.ServletException;
@@ -118,6 +119,9 @@ public class V2Server extends RestfulServer {
      * global history.
      */
     List<Object> plainProviders = new ArrayList<>();
+    if (configLoader.booleanValue(SpringConfiguration.SSM_PATH_BULK_EXPORT_ENABLED, false)) {
+      plainProviders.add(springContext.getBean(R4BulkExportProvider.class));
+    }
     // TODO: Refactor to use registerProviders. The current method is deprecated.
     setPlainProviders(plainProviders);
 
@@ -144,6 +148,13 @@ public class V2Server extends RestfulServer {
     if (samhsaV2Enabled) {
       registerInterceptor(new ConsentInterceptor(new V2SamhsaConsentInterceptor()));
     }
+    if (configLoader.booleanValue(SpringConfiguration.SSM_PATH_STREAMING_BUNDLE_ENABLED, false)) {
+      registerInterceptor(
+          new StreamingBundleInterceptor(
+              configLoader.positiveIntValue(
+                  SpringConfiguration.SSM_PATH_STREAMING_BUNDLE_WINDOW_SIZE,
+                  StreamingBundleInterceptor.DEFAULT_WINDOW_SIZE)));
+    }
     // OpenAPI
     OpenApiInterceptor openApiInterceptor = new OpenApiInterceptor();
     registerInterceptor(openApiInterceptor);
@@ -0,0 +1,96 @@
+package gov.cms.bfd.server.war.commons;
+
+import jakarta.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for the files written by bulk export jobs. Each job has its own set of files, identified
+ * by the job's id, that holds both the job's state and the NDJSON files it has written so far.
+ * Because every file is stored outside of the server's memory, a job can be picked up again after a
+ * restart and its status and output can be served by any server sharing the same store.
+ */
+public interface BulkExportStore extends Closeable {
+  /**
+   * The contents of a stored file along with the version the store gave it when it was written.
+   *
+   * @param contents the contents of the file
+   * @param version identifies this write of the file
+   */
+  record VersionedFile(byte[] contents, String version) {}
+
+  /**
+   * Stores the contents of a local file, replacing any file already stored under the same name.
+   *
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name to store the file under
+   * @param source the local file to copy
+   * @throws IOException if the file can't be stored
+   */
+  void write(String jobId, String fileName, Path source) throws IOException;
+
+  /**
+   * Stores the given bytes as a file, replacing any file already stored under the same name.
+   *
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name to store the file under
+   * @param contents the contents of the file
+   * @throws IOException if the file can't be stored
+   */
+  void write(String jobId, String fileName, byte[] contents) throws IOException;
+
+  /**
+   * Stores the given bytes as a file, but only if the file hasn't been written since the given
+   * version was read. This lets a server take over a job from another server, and stops the other
+   * server from saving the job afterwards, without any other coordination between them.
+   *
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name to store the file under
+   * @param contents the contents of the file
+   * @param version the version the file is expected to have, or {@code null} if it must not exist
+   * @return the version of the stored file, or empty if the file didn't have the expected version
+   * @throws IOException if the file can't be stored
+   */
+  Optional<String> writeIfVersion(
+      String jobId, String fileName, byte[] contents, @Nullable String version) throws IOException;
+
+  /**
+   * Reads a stored file along with its version.
+   *
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name the file was stored under
+   * @return the file, or empty if there is no such file
+   * @throws IOException if the file can't be read
+   */
+  Optional<VersionedFile> readVersioned(String jobId, String fileName) throws IOException;
+
+  /**
+   * Opens a stored file for reading. The caller is responsible for closing the stream.
+   *
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name the file was stored under
+   * @return a stream of the file's contents, or empty if there is no such file
+   * @throws IOException if the file can't be opened
+   */
+  Optional<InputStream> read(String jobId, String fileName) throws IOException;
+
+  /**
+   * Lists the ids of every job that has stored at least one file.
+   *
+   * @return the job ids
+   * @throws IOException if the jobs can't be listed
+   */
+  List<String> listJobIds() throws IOException;
+
+  /**
+   * Deletes every file stored for a job.
+   *
+   * @param jobId the id of the job to delete
+   * @throws IOException if the files can't be deleted
+   */
+  void delete(String jobId) throws IOException;
+}
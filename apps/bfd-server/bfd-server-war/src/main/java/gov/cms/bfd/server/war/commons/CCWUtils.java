@@ -1,9 +1,25 @@
 package gov.cms.bfd.server.war.commons;
 
 import gov.cms.bfd.model.codebook.model.CcwCodebookInterface;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** A set of methods to work with {@link CcwCodebookInterface} instances. */
 public class CCWUtils {
+  /**
+   * Caches the results of {@link #calculateVariableReferenceUrl(CcwCodebookInterface, boolean)}
+   * when {@link TransformerConstants#CCW_SYSTEM_MAP} is checked, since the URL for a variable never
+   * changes and is needed for nearly every coded field of every transformed claim.
+   */
+  private static final Map<CcwCodebookInterface, String> referenceUrls = new ConcurrentHashMap<>();
+
+  /**
+   * Caches the results of {@link #calculateVariableReferenceUrl(CcwCodebookInterface, boolean)}
+   * when {@link TransformerConstants#CCW_SYSTEM_MAP} is not checked.
+   */
+  private static final Map<CcwCodebookInterface, String> unmappedReferenceUrls =
+      new ConcurrentHashMap<>();
+
   /**
    * Calculates the variable reference url.
    *
@@ -26,6 +42,23 @@ public class CCWUtils {
    */
   public static String calculateVariableReferenceUrl(
       CcwCodebookInterface ccwVariable, boolean skipReplaceCcwSystem) {
+    final Map<CcwCodebookInterface, String> cache =
+        skipReplaceCcwSystem ? unmappedReferenceUrls : referenceUrls;
+    return cache.computeIfAbsent(
+        ccwVariable, variable -> computeVariableReferenceUrl(variable, skipReplaceCcwSystem));
+  }
+
+  /**
+   * Computes the variable reference url without using the cache.
+   *
+   * @param ccwVariable the {@link CcwCodebookInterface} being mapped
+   * @param skipReplaceCcwSystem if set, {@link TransformerConstants#CCW_SYSTEM_MAP} will not be
+   *     checked.
+   * @return the public URL at which documentation for the specified {@link CcwCodebookInterface} is
+   *     published
+   */
+  private static String computeVariableReferenceUrl(
+      CcwCodebookInterface ccwVariable, boolean skipReplaceCcwSystem) {
     String ccwVarId = ccwVariable.getVariable().getId().toLowerCase();
     // If the ccw variable exists in the CCW_SYSTEM_MAP map, then we can return the value of this
     // mapping as the system. Otherwise, it will be constructed.
@@ -474,11 +474,7 @@ public final class CommonTransformerUtils {
      * Also, there's a chance that the CCW Variable data itself is messy, and
      * that the Coding's code matches more than one value -- log those events too.
      */
-    List<Value> matchingVariableValues =
-        ccwVariable.getVariable().getValueGroups().get().stream()
-            .flatMap(g -> g.getValues().stream())
-            .filter(v -> v.getCode().equals(code))
-            .collect(Collectors.toList());
+    List<Value> matchingVariableValues = ccwVariable.getValueIndex().getValues(code);
     if (matchingVariableValues.size() == 1) {
       return Optional.of(matchingVariableValues.get(0).getDescription());
     } else if (matchingVariableValues.isEmpty()) {
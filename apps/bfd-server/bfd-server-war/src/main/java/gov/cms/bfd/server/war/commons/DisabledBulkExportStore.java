@@ -0,0 +1,67 @@
+package gov.cms.bfd.server.war.commons;
+
+import jakarta.annotation.Nullable;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link BulkExportStore} used when bulk exports are disabled and no storage has been configured.
+ * No jobs can be started then, so it holds no jobs and refuses to store anything.
+ */
+public class DisabledBulkExportStore implements BulkExportStore {
+  /** {@inheritDoc} */
+  @Override
+  public void write(String jobId, String fileName, Path source) {
+    throw disabled();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void write(String jobId, String fileName, byte[] contents) {
+    throw disabled();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Optional<String> writeIfVersion(
+      String jobId, String fileName, byte[] contents, @Nullable String version) {
+    throw disabled();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Optional<VersionedFile> readVersioned(String jobId, String fileName) {
+    return Optional.empty();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Optional<InputStream> read(String jobId, String fileName) {
+    return Optional.empty();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<String> listJobIds() {
+    return List.of();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void delete(String jobId) {}
+
+  /** Nothing to release since nothing is ever stored. */
+  @Override
+  public void close() {}
+
+  /**
+   * Creates the exception thrown by every attempt to store a file.
+   *
+   * @return the exception
+   */
+  private static IllegalStateException disabled() {
+    return new IllegalStateException("Bulk exports are disabled");
+  }
+}
@@ -0,0 +1,238 @@
+package gov.cms.bfd.server.war.commons;
+
+import jakarta.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * {@link BulkExportStore} that keeps each job's files in its own directory under a root directory
+ * on local disk. Files are written to a temporary file first and then moved into place, so readers
+ * never see a partially written file.
+ *
+ * <p>The version of a file is the SHA-256 hash of its contents. A conditional write holds a lock on
+ * a file next to the one being written while it compares versions and writes, so servers sharing
+ * the directory can't both replace the same version of a file.
+ *
+ * <p>Since the files hold beneficiary data, every directory and file the store creates can only be
+ * read by the user the server runs as, on file systems that support POSIX permissions.
+ */
+public class LocalBulkExportStore implements BulkExportStore {
+  /** The permissions of the directories the store creates. */
+  private static final String DIRECTORY_PERMISSIONS = "rwx------";
+
+  /** The permissions of the files the store creates. */
+  private static final String FILE_PERMISSIONS = "rw-------";
+
+  /** The directory that holds one directory per job. */
+  private final Path rootDirectory;
+
+  /** Whether the {@link #rootDirectory}'s file system supports POSIX permissions. */
+  private final boolean posix;
+
+  /**
+   * Instantiates a new {@link LocalBulkExportStore}. The root directory is created when the first
+   * file is written.
+   *
+   * @param rootDirectory the directory that holds one directory per job
+   */
+  public LocalBulkExportStore(Path rootDirectory) {
+    this.rootDirectory = rootDirectory;
+    posix = rootDirectory.getFileSystem().supportedFileAttributeViews().contains("posix");
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void write(String jobId, String fileName, Path source) throws IOException {
+    Path temporaryFile = createTemporaryFile(jobId, fileName);
+    // Copied into the already created file, since copying over it would take the source's
+    // permissions.
+    try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+      Files.copy(source, outputStream);
+    }
+    moveIntoPlace(temporaryFile, jobId, fileName);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void write(String jobId, String fileName, byte[] contents) throws IOException {
+    Path temporaryFile = createTemporaryFile(jobId, fileName);
+    Files.write(temporaryFile, contents);
+    moveIntoPlace(temporaryFile, jobId, fileName);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public synchronized Optional<String> writeIfVersion(
+      String jobId, String fileName, byte[] contents, @Nullable String version) throws IOException {
+    Path jobDirectory = rootDirectory.resolve(jobId);
+    if (version != null && !Files.isDirectory(jobDirectory)) {
+      // Don't bring back the directory of a deleted job.
+      return Optional.empty();
+    }
+    createJobDirectory(jobId);
+    // The file lock only keeps out other processes, so the method is also synchronized to keep out
+    // the other threads of this one.
+    try (FileChannel lockChannel =
+            FileChannel.open(
+                jobDirectory.resolve("." + fileName + ".lock"),
+                Set.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE),
+                permissions(FILE_PERMISSIONS));
+        FileLock lock = lockChannel.lock()) {
+      Optional<String> currentVersion = readVersioned(jobId, fileName).map(VersionedFile::version);
+      if (!currentVersion.equals(Optional.ofNullable(version))) {
+        return Optional.empty();
+      }
+      write(jobId, fileName, contents);
+      return Optional.of(version(contents));
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Optional<VersionedFile> readVersioned(String jobId, String fileName) throws IOException {
+    try {
+      byte[] contents = Files.readAllBytes(rootDirectory.resolve(jobId).resolve(fileName));
+      return Optional.of(new VersionedFile(contents, version(contents)));
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Optional<InputStream> read(String jobId, String fileName) throws IOException {
+    try {
+      return Optional.of(Files.newInputStream(rootDirectory.resolve(jobId).resolve(fileName)));
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<String> listJobIds() throws IOException {
+    if (!Files.isDirectory(rootDirectory)) {
+      return List.of();
+    }
+    try (Stream<Path> jobDirectories = Files.list(rootDirectory)) {
+      return jobDirectories
+          .filter(Files::isDirectory)
+          .map(directory -> directory.getFileName().toString())
+          .sorted()
+          .toList();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void delete(String jobId) throws IOException {
+    Path jobDirectory = rootDirectory.resolve(jobId);
+    if (!Files.exists(jobDirectory)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(jobDirectory)) {
+      // Delete the files before the directory that contains them.
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  /** Nothing to release since every file is closed as soon as it has been written. */
+  @Override
+  public void close() {}
+
+  /**
+   * Creates an empty temporary file in a job's directory, creating the directory if necessary.
+   *
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name the file will be stored under
+   * @return the temporary file
+   * @throws IOException if the file can't be created
+   */
+  private Path createTemporaryFile(String jobId, String fileName) throws IOException {
+    Path jobDirectory = createJobDirectory(jobId);
+    return Files.createTempFile(
+        jobDirectory, "." + fileName, ".tmp", permissions(FILE_PERMISSIONS));
+  }
+
+  /**
+   * Creates a job's directory, and the root directory, if they don't exist yet.
+   *
+   * @param jobId the id of the job
+   * @return the job's directory
+   * @throws IOException if a directory can't be created
+   */
+  private Path createJobDirectory(String jobId) throws IOException {
+    FileAttribute<?>[] permissions = permissions(DIRECTORY_PERMISSIONS);
+    Files.createDirectories(rootDirectory, permissions);
+    return Files.createDirectories(rootDirectory.resolve(jobId), permissions);
+  }
+
+  /**
+   * Gets the attributes that give new files or directories the given permissions.
+   *
+   * @param permissions the permissions, such as {@link #FILE_PERMISSIONS}
+   * @return the attributes, which are empty if the file system doesn't support POSIX permissions
+   */
+  private FileAttribute<?>[] permissions(String permissions) {
+    return posix
+        ? new FileAttribute<?>[] {
+          PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions))
+        }
+        : new FileAttribute<?>[0];
+  }
+
+  /**
+   * Replaces a job's file with a fully written temporary file.
+   *
+   * @param temporaryFile the fully written temporary file
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name to store the file under
+   * @throws IOException if the file can't be moved
+   */
+  private void moveIntoPlace(Path temporaryFile, String jobId, String fileName) throws IOException {
+    try {
+      Files.move(
+          temporaryFile,
+          rootDirectory.resolve(jobId).resolve(fileName),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+
+  /**
+   * Gets the version of a file with the given contents.
+   *
+   * @param contents the contents of the file
+   * @return the version
+   */
+  private static String version(byte[] contents) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contents));
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256.
+      throw new IllegalStateException(e);
+    }
+  }
+}
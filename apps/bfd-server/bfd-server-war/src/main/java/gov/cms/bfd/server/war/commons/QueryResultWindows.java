@@ -0,0 +1,210 @@
+package gov.cms.bfd.server.war.commons;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.criteria.CriteriaQuery;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+
+/**
+ * Reads the entities returned by a query a window at a time, so that no more than one window of
+ * entities is held in memory no matter how many the query returns.
+ *
+ * <p>The query runs on its own {@link EntityManager}, inside a transaction, since the PostgreSQL
+ * JDBC driver only honors the fetch size (and so only fetches one window of rows at a time) when
+ * auto-commit is off. The entity manager's session is read only, so the entities loaded through it
+ * (including by other queries run on {@link #getEntityManager()}) keep no snapshot for dirty
+ * checking and are never flushed. The transaction is always rolled back. The entities of a window
+ * are detached when the next window is read, which also detaches their fetched collections since
+ * the entities' joins cascade every operation. Callers must be done with the entities of a window,
+ * including any lazily loaded associations, before they read the next one.
+ *
+ * <p>Queries that fetch a collection must be ordered by the entity's id, so that all of the rows of
+ * an entity are read together.
+ *
+ * <p>The query holds its database connection until this object is closed. Any other queries that
+ * are needed while reading the windows should be run on {@link #getEntityManager()}, so that they
+ * share that connection rather than taking a second one from the pool while the first is held.
+ *
+ * @param <T> the type of entity the query returns
+ */
+public final class QueryResultWindows<T> implements Iterator<List<T>>, AutoCloseable {
+  /** Query hint that sets the JDBC fetch size. */
+  static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+
+  /** The entity manager the query runs on, which is owned by this object. */
+  private final EntityManager entityManager;
+
+  /** The query's results. */
+  private final Stream<T> results;
+
+  /** Iterates over {@link #results}. */
+  private final Iterator<T> resultIterator;
+
+  /** The largest number of entities in a window. */
+  private final int windowSize;
+
+  /** The entities of the last window that was read, which are detached by the next read. */
+  private List<T> window = List.of();
+
+  /** The number of entities read so far. */
+  private int resultCount;
+
+  /** The time, in nanoseconds, spent running the query and fetching its results so far. */
+  private long fetchNanos;
+
+  /**
+   * Instantiates a new {@link QueryResultWindows}.
+   *
+   * @param entityManager the entity manager the query runs on
+   * @param results the query's results
+   * @param windowSize the largest number of entities in a window
+   * @param fetchNanos the time, in nanoseconds, it took to run the query
+   */
+  private QueryResultWindows(
+      EntityManager entityManager, Stream<T> results, int windowSize, long fetchNanos) {
+    this.entityManager = entityManager;
+    this.results = results;
+    this.resultIterator = results.iterator();
+    this.windowSize = windowSize;
+    this.fetchNanos = fetchNanos;
+  }
+
+  /**
+   * Runs a query on a new {@link EntityManager}. The caller must close the returned object to
+   * release the entity manager and its database connection.
+   *
+   * @param entityManagerFactory used to create the entity manager the query runs on
+   * @param criteria the query to run
+   * @param windowSize the largest number of entities in a window, which is also the fetch size
+   * @param <T> the type of entity the query returns
+   * @return the query's results
+   */
+  public static <T> QueryResultWindows<T> open(
+      EntityManagerFactory entityManagerFactory, CriteriaQuery<T> criteria, int windowSize) {
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+    }
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    try {
+      entityManager.unwrap(Session.class).setDefaultReadOnly(true);
+      entityManager.getTransaction().begin();
+      long startNanos = System.nanoTime();
+      Stream<T> results =
+          entityManager
+              .createQuery(criteria)
+              .setHint(FETCH_SIZE_HINT, windowSize)
+              .getResultStream();
+      return new QueryResultWindows<>(
+          entityManager, results, windowSize, System.nanoTime() - startNanos);
+    } catch (RuntimeException e) {
+      closeEntityManager(entityManager);
+      throw e;
+    }
+  }
+
+  /**
+   * Checks whether there are any entities left to read, fetching more rows from the database if
+   * necessary.
+   *
+   * @return {@code true} if there is another window to read
+   */
+  @Override
+  public boolean hasNext() {
+    long startNanos = System.nanoTime();
+    try {
+      return resultIterator.hasNext();
+    } finally {
+      fetchNanos += System.nanoTime() - startNanos;
+    }
+  }
+
+  /**
+   * Detaches the entities of the previous window and reads the next one.
+   *
+   * @return the next window, which holds between one and the window size entities
+   * @throws NoSuchElementException if there are no entities left to read
+   */
+  @Override
+  public List<T> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    window.forEach(entityManager::detach);
+
+    List<T> nextWindow = new ArrayList<>(windowSize);
+    long startNanos = System.nanoTime();
+    try {
+      while (nextWindow.size() < windowSize && resultIterator.hasNext()) {
+        nextWindow.add(resultIterator.next());
+      }
+    } finally {
+      fetchNanos += System.nanoTime() - startNanos;
+    }
+    resultCount += nextWindow.size();
+    window = nextWindow;
+    return nextWindow;
+  }
+
+  /**
+   * Gets the entity manager the query runs on, for running other queries on the same connection.
+   * Entities loaded by those queries are not detached by {@link #next()}, so they should only load
+   * values rather than entities.
+   *
+   * @return the entity manager
+   */
+  public EntityManager getEntityManager() {
+    return entityManager;
+  }
+
+  /**
+   * Gets the number of entities read so far.
+   *
+   * @return the number of entities
+   */
+  public int getResultCount() {
+    return resultCount;
+  }
+
+  /**
+   * Gets the time spent running the query and fetching its results so far, which excludes the time
+   * callers spent processing the windows.
+   *
+   * @return the time in nanoseconds
+   */
+  public long getFetchNanos() {
+    return fetchNanos;
+  }
+
+  /** Closes the query's results and releases the entity manager. */
+  @Override
+  public void close() {
+    try {
+      results.close();
+    } finally {
+      closeEntityManager(entityManager);
+    }
+  }
+
+  /**
+   * Ends the transaction, if it was started, and closes an entity manager.
+   *
+   * @param entityManager the entity manager to close
+   */
+  private static void closeEntityManager(EntityManager entityManager) {
+    try {
+      EntityTransaction transaction = entityManager.getTransaction();
+      if (transaction.isActive()) {
+        // Nothing was written, so there is nothing to commit.
+        transaction.rollback();
+      }
+    } finally {
+      entityManager.close();
+    }
+  }
+}
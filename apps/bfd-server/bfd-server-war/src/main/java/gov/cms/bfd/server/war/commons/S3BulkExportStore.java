@@ -0,0 +1,206 @@
+package gov.cms.bfd.server.war.commons;
+
+import gov.cms.bfd.sharedutils.config.AwsClientConfig;
+import jakarta.annotation.Nullable;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * {@link BulkExportStore} that keeps each job's files under its own prefix in an S3 bucket. Any S3
+ * compatible service can be used by setting an endpoint override in the {@link AwsClientConfig}.
+ * The version of a file is its ETag, and {@link #writeIfVersion} uses S3's conditional writes, so
+ * the service must support the {@code If-Match} and {@code If-None-Match} headers on uploads.
+ */
+public class S3BulkExportStore implements BulkExportStore {
+  /** The prefix that every job's files are stored under. */
+  static final String KEY_PREFIX = "bulk-export/";
+
+  /**
+   * The status codes S3 answers a conditional write with when the file doesn't have the expected
+   * version: 404 when it doesn't exist, 409 when it is being written at the same time and 412 when
+   * it has a different ETag.
+   */
+  private static final Set<Integer> VERSION_MISMATCH_STATUS_CODES = Set.of(404, 409, 412);
+
+  /** The client used to access the bucket. */
+  private final S3Client s3Client;
+
+  /** The bucket that holds the files. */
+  private final String bucket;
+
+  /**
+   * Instantiates a new {@link S3BulkExportStore}. The store takes ownership of the client and
+   * closes it when the store is closed.
+   *
+   * @param s3Client the client used to access the bucket
+   * @param bucket the bucket that holds the files
+   */
+  public S3BulkExportStore(S3Client s3Client, String bucket) {
+    this.s3Client = s3Client;
+    this.bucket = bucket;
+  }
+
+  /**
+   * Creates a {@link S3BulkExportStore} with a new client configured from the {@link
+   * AwsClientConfig}.
+   *
+   * @param awsClientConfig the common AWS settings
+   * @param bucket the bucket that holds the files
+   * @return the store
+   */
+  public static S3BulkExportStore create(AwsClientConfig awsClientConfig, String bucket) {
+    S3ClientBuilder builder = S3Client.builder();
+    awsClientConfig.configureAwsService(builder);
+    if (awsClientConfig.getEndpointOverride().isPresent()) {
+      // Keeps the SDK from adding the bucket name to the host name of S3 compatible services.
+      builder.forcePathStyle(true);
+    }
+    return new S3BulkExportStore(builder.build(), bucket);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void write(String jobId, String fileName, Path source) {
+    s3Client.putObject(putRequest(jobId, fileName), RequestBody.fromFile(source));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void write(String jobId, String fileName, byte[] contents) {
+    s3Client.putObject(putRequest(jobId, fileName), RequestBody.fromBytes(contents));
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Optional<String> writeIfVersion(
+      String jobId, String fileName, byte[] contents, @Nullable String version) {
+    PutObjectRequest.Builder request = putRequest(jobId, fileName).toBuilder();
+    if (version == null) {
+      request.ifNoneMatch("*");
+    } else {
+      request.ifMatch(version);
+    }
+    try {
+      return Optional.of(
+          s3Client.putObject(request.build(), RequestBody.fromBytes(contents)).eTag());
+    } catch (S3Exception e) {
+      if (VERSION_MISMATCH_STATUS_CODES.contains(e.statusCode())) {
+        return Optional.empty();
+      }
+      throw e;
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Optional<VersionedFile> readVersioned(String jobId, String fileName) {
+    try {
+      ResponseBytes<GetObjectResponse> object =
+          s3Client.getObjectAsBytes(getRequest(jobId, fileName));
+      return Optional.of(new VersionedFile(object.asByteArray(), object.response().eTag()));
+    } catch (NoSuchKeyException e) {
+      return Optional.empty();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Optional<InputStream> read(String jobId, String fileName) {
+    try {
+      return Optional.of(s3Client.getObject(getRequest(jobId, fileName)));
+    } catch (NoSuchKeyException e) {
+      return Optional.empty();
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<String> listJobIds() {
+    ListObjectsV2Request request =
+        ListObjectsV2Request.builder().bucket(bucket).prefix(KEY_PREFIX).delimiter("/").build();
+    return s3Client.listObjectsV2Paginator(request).commonPrefixes().stream()
+        .map(CommonPrefix::prefix)
+        .map(prefix -> prefix.substring(KEY_PREFIX.length(), prefix.length() - 1))
+        .sorted()
+        .toList();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void delete(String jobId) {
+    ListObjectsV2Request request =
+        ListObjectsV2Request.builder().bucket(bucket).prefix(KEY_PREFIX + jobId + "/").build();
+    // Each page holds at most 1000 keys, which is also the most a single delete request accepts.
+    for (ListObjectsV2Response page : s3Client.listObjectsV2Paginator(request)) {
+      if (page.contents().isEmpty()) {
+        continue;
+      }
+      List<ObjectIdentifier> objects =
+          page.contents().stream()
+              .map(object -> ObjectIdentifier.builder().key(object.key()).build())
+              .toList();
+      s3Client.deleteObjects(
+          DeleteObjectsRequest.builder()
+              .bucket(bucket)
+              .delete(Delete.builder().objects(objects).quiet(true).build())
+              .build());
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void close() {
+    s3Client.close();
+  }
+
+  /**
+   * Creates the request used to store a file.
+   *
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name to store the file under
+   * @return the request
+   */
+  private PutObjectRequest putRequest(String jobId, String fileName) {
+    return PutObjectRequest.builder().bucket(bucket).key(key(jobId, fileName)).build();
+  }
+
+  /**
+   * Creates the request used to read a file.
+   *
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name the file was stored under
+   * @return the request
+   */
+  private GetObjectRequest getRequest(String jobId, String fileName) {
+    return GetObjectRequest.builder().bucket(bucket).key(key(jobId, fileName)).build();
+  }
+
+  /**
+   * Gets the key of a job's file.
+   *
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name of the file
+   * @return the key
+   */
+  private static String key(String jobId, String fileName) {
+    return KEY_PREFIX + jobId + "/" + fileName;
+  }
+}
@@ -40,6 +40,21 @@ public class SecurityTagsDao {
    * @return A map from claim ID to a list of security tags
    */
   public Map<String, Set<String>> buildClaimIdToTagsMap(String tagTable, Set<String> claimIds) {
+    return buildClaimIdToTagsMap(entityManager, tagTable, claimIds);
+  }
+
+  /**
+   * Builds a mapping from claim IDs to their security tags, querying with the given entity manager
+   * rather than this object's own. This lets callers that are reading claims through {@link
+   * QueryResultWindows} look up the tags on the connection the claims are being read on.
+   *
+   * @param entityManager the entity manager to run the query on
+   * @param tagTable The table containing security tags
+   * @param claimIds The list of claim IDs
+   * @return A map from claim ID to a list of security tags
+   */
+  public Map<String, Set<String>> buildClaimIdToTagsMap(
+      EntityManager entityManager, String tagTable, Set<String> claimIds) {
     // If no claim IDs, return an empty map
     if (claimIds.isEmpty()) {
       return Collections.emptyMap();
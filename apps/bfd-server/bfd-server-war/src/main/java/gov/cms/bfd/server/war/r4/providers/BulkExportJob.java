@@ -0,0 +1,96 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The state of a bulk export job, as stored in its {@link
+ * gov.cms.bfd.server.war.commons.BulkExportStore}. The state is saved every time the job finishes a
+ * set of output files, so everything needed to resume the job after the last saved set is kept
+ * here.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkExportJob {
+  /** The states a job can be in. */
+  public enum Status {
+    /** The job is waiting to run or is running. */
+    IN_PROGRESS,
+    /** Every output file has been written. */
+    COMPLETED,
+    /** The job stopped because of an error. */
+    FAILED
+  }
+
+  /**
+   * An output file that has been written.
+   *
+   * @param type the FHIR resource type of the resources in the file
+   * @param fileName the name of the file in the store
+   * @param part the number of the set of files the file belongs to, which is also the set whose
+   *     beneficiary ids are logged when the file is served
+   * @param count the number of resources in the file
+   */
+  public record OutputFile(String type, String fileName, int part, long count) {}
+
+  /** The unique id of the job. */
+  private String id;
+
+  /** The current state of the job. */
+  private Status status;
+
+  /** The URL of the request that started the job. */
+  private String request;
+
+  /**
+   * The distinguished name of the client certificate of the request that started the job, or {@code
+   * null} if there was none. Only requests with the same certificate may see the job.
+   */
+  private String clientIdentity;
+
+  /** The Part D contract being exported. */
+  private String contractId;
+
+  /** The enrollment month being exported, as an ISO date of the first day of the month. */
+  private String yearMonth;
+
+  /** The FHIR resource types being exported. */
+  private List<String> resourceTypes = new ArrayList<>();
+
+  /** The BFD request headers given when the job was started, by header name. */
+  private Map<String, String> requestHeaders = Map.of();
+
+  /** The time, in epoch milliseconds, of the latest data load when the job was started. */
+  private long transactionTime;
+
+  /** The last beneficiary id that has been exported, or {@code null} if none have been. */
+  private Long cursor;
+
+  /** The number of sets of output files that have been written. */
+  private int partCount;
+
+  /** The number of beneficiaries that have been exported. */
+  private long beneficiaryCount;
+
+  /** The output files that have been written. */
+  private List<OutputFile> output = new ArrayList<>();
+
+  /** A description of the error that stopped the job, if it failed. */
+  private String error;
+
+  /** The time, in epoch milliseconds, that the job's state was last saved. */
+  private long lastUpdated;
+
+  /**
+   * The version of the job's state in the store when it was last read or saved, or {@code null} if
+   * it hasn't been saved yet. The job can only be saved over that version, so a server that has
+   * lost the job to another server can't save it again.
+   */
+  @JsonIgnore private String version;
+}
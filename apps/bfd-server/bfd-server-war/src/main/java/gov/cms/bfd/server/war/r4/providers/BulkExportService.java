@@ -0,0 +1,747 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import static gov.cms.bfd.server.war.SpringConfiguration.SSM_PATH_BULK_EXPORT_BENEFICIARIES_PER_FILE;
+import static gov.cms.bfd.server.war.SpringConfiguration.SSM_PATH_BULK_EXPORT_ENABLED;
+import static gov.cms.bfd.server.war.SpringConfiguration.SSM_PATH_BULK_EXPORT_MAX_QUEUED_JOBS;
+import static gov.cms.bfd.server.war.SpringConfiguration.SSM_PATH_BULK_EXPORT_RETENTION_HOURS;
+import static gov.cms.bfd.server.war.SpringConfiguration.SSM_PATH_BULK_EXPORT_THREADS;
+import static java.util.Objects.requireNonNull;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.cms.bfd.model.rif.entities.Beneficiary;
+import gov.cms.bfd.model.rif.entities.BeneficiaryPartDContractMonth;
+import gov.cms.bfd.model.rif.entities.BeneficiaryPartDContractMonth_;
+import gov.cms.bfd.model.rif.entities.Beneficiary_;
+import gov.cms.bfd.server.war.commons.BulkExportStore;
+import gov.cms.bfd.server.war.commons.CommonTransformerUtils;
+import gov.cms.bfd.server.war.commons.LoadedFilterManager;
+import gov.cms.bfd.server.war.commons.Profile;
+import gov.cms.bfd.server.war.commons.RequestHeaders;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs bulk export jobs, which write the {@link org.hl7.fhir.r4.model.Patient} and {@link
+ * org.hl7.fhir.r4.model.Coverage} resources of every beneficiary enrolled in a Part D contract for
+ * a month to NDJSON files in a {@link BulkExportStore}.
+ *
+ * <p>Jobs run on a fixed number of threads and only a fixed number of jobs may wait for a thread,
+ * so a burst of exports can't take over the database. Each job walks the contract's beneficiaries
+ * in id order a chunk at a time, so no more than one chunk of entities is held in memory. Every
+ * {@link #beneficiariesPerFile} beneficiaries the job stores a new set of output files and then
+ * saves its state, including the last beneficiary id written. A job that stops before completing,
+ * because the server was restarted for instance, is picked up again from that point by {@link
+ * #resumeStalledJobs()}. Since the output file boundaries only depend on that saved state, a set
+ * that was stored before the job stopped is simply written again with the same contents.
+ *
+ * <p>The saved state doubles as the job's lease. It is only ever saved over the version that was
+ * last read or saved, so when several servers find the same stalled job only one of them can take
+ * it over, and a server that was merely slow stops as soon as it next tries to save the job.
+ */
+@Component
+public class BulkExportService {
+  /** The logger for this class. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(BulkExportService.class);
+
+  /** The FHIR resource type of the beneficiary resources. */
+  public static final String PATIENT_RESOURCE_TYPE = "Patient";
+
+  /** The FHIR resource type of the coverage resources. */
+  public static final String COVERAGE_RESOURCE_TYPE = "Coverage";
+
+  /** The FHIR resource types that can be exported, in the order their files are listed. */
+  public static final List<String> SUPPORTED_RESOURCE_TYPES =
+      List.of(PATIENT_RESOURCE_TYPE, COVERAGE_RESOURCE_TYPE);
+
+  /** The name of the file that holds each job's {@link BulkExportJob} state. */
+  static final String JOB_FILE_NAME = "job.json";
+
+  /** The largest number of beneficiaries loaded by a single query. */
+  static final int BENEFICIARY_FETCH_SIZE = 1000;
+
+  /**
+   * How long a job may go without saving its state before another thread or server may resume it.
+   * This is much longer than it should ever take to write one set of output files.
+   */
+  static final Duration STALLED_JOB_TIMEOUT = Duration.ofMinutes(15);
+
+  /** Used to read and write the {@link BulkExportJob} state files. */
+  private static final ObjectMapper OBJECT_MAPPER =
+      new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+  /** Used to create the parsers that encode the output resources. */
+  private static final FhirContext FHIR_CONTEXT = FhirContext.forR4Cached();
+
+  /** Used to create entity managers that are independent of any request. */
+  private final EntityManagerFactory entityManagerFactory;
+
+  /** The metric registry. */
+  private final MetricRegistry metricRegistry;
+
+  /** Used to get the transaction time of the exported data. */
+  private final LoadedFilterManager loadedFilterManager;
+
+  /** The beneficiary transformer. */
+  private final BeneficiaryTransformerV2 beneficiaryTransformer;
+
+  /** The coverage transformer. */
+  private final CoverageTransformerV2 coverageTransformer;
+
+  /** Holds the state and output files of every job. */
+  private final BulkExportStore store;
+
+  /** Whether bulk exports are enabled. No stored jobs are resumed or cleaned up when disabled. */
+  private final boolean enabled;
+
+  /** The number of beneficiaries whose resources are written to each set of output files. */
+  private final int beneficiariesPerFile;
+
+  /** How long the files of a finished job are kept before they are deleted. */
+  private final Duration retention;
+
+  /** Runs the jobs. */
+  private final ThreadPoolExecutor executor;
+
+  /** The ids of the jobs that are waiting to run or running on this server. */
+  private final Set<String> activeJobIds = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Instantiates a new {@link BulkExportService}.
+   *
+   * <p>Spring will wire this class during the initial component scan, so this constructor should
+   * only be explicitly called by tests.
+   *
+   * @param entityManagerFactory used to create entity managers that are independent of any request
+   * @param metricRegistry the metric registry
+   * @param loadedFilterManager used to get the transaction time of the exported data
+   * @param beneficiaryTransformer the beneficiary transformer
+   * @param coverageTransformer the coverage transformer
+   * @param store holds the state and output files of every job
+   * @param enabled whether bulk exports are enabled
+   * @param threads the number of jobs that may run at the same time
+   * @param maxQueuedJobs the number of jobs that may wait for a thread
+   * @param beneficiariesPerFile the number of beneficiaries written to each set of output files
+   * @param retentionHours the number of hours the files of a finished job are kept
+   */
+  public BulkExportService(
+      EntityManagerFactory entityManagerFactory,
+      MetricRegistry metricRegistry,
+      LoadedFilterManager loadedFilterManager,
+      BeneficiaryTransformerV2 beneficiaryTransformer,
+      CoverageTransformerV2 coverageTransformer,
+      BulkExportStore store,
+      @Value("${" + SSM_PATH_BULK_EXPORT_ENABLED + ":false}") Boolean enabled,
+      @Value("${" + SSM_PATH_BULK_EXPORT_THREADS + ":2}") Integer threads,
+      @Value("${" + SSM_PATH_BULK_EXPORT_MAX_QUEUED_JOBS + ":20}") Integer maxQueuedJobs,
+      @Value("${" + SSM_PATH_BULK_EXPORT_BENEFICIARIES_PER_FILE + ":10000}")
+          Integer beneficiariesPerFile,
+      @Value("${" + SSM_PATH_BULK_EXPORT_RETENTION_HOURS + ":24}") Integer retentionHours) {
+    if (beneficiariesPerFile <= 0) {
+      throw new IllegalArgumentException(
+          "beneficiariesPerFile must be positive: " + beneficiariesPerFile);
+    }
+    this.entityManagerFactory = requireNonNull(entityManagerFactory);
+    this.metricRegistry = requireNonNull(metricRegistry);
+    this.loadedFilterManager = requireNonNull(loadedFilterManager);
+    this.beneficiaryTransformer = requireNonNull(beneficiaryTransformer);
+    this.coverageTransformer = requireNonNull(coverageTransformer);
+    this.store = requireNonNull(store);
+    this.enabled = enabled;
+    this.beneficiariesPerFile = beneficiariesPerFile;
+    this.retention = Duration.ofHours(retentionHours);
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxQueuedJobs),
+            r -> {
+              Thread t = new Thread(r);
+              t.setName("bulk_export_" + threadCount.getAndIncrement());
+              return t;
+            });
+  }
+
+  /**
+   * Starts a job that exports the given resource types for the beneficiaries enrolled in a Part D
+   * contract for a month.
+   *
+   * @param contractId the Part D contract to export
+   * @param yearMonth the first day of the enrollment month to export
+   * @param resourceTypes the {@link #SUPPORTED_RESOURCE_TYPES} to export
+   * @param requestHeaders the BFD request headers to transform the resources with, by name
+   * @param clientIdentity the distinguished name of the requesting client's certificate, or {@code
+   *     null} if it has none
+   * @param request the URL of the request that started the job
+   * @return the new job
+   * @throws IOException if the job's state can't be saved
+   * @throws RejectedExecutionException if too many jobs are already waiting to run
+   */
+  public BulkExportJob submit(
+      String contractId,
+      LocalDate yearMonth,
+      List<String> resourceTypes,
+      Map<String, String> requestHeaders,
+      String clientIdentity,
+      String request)
+      throws IOException {
+    BulkExportJob job = new BulkExportJob();
+    job.setId(UUID.randomUUID().toString());
+    job.setStatus(BulkExportJob.Status.IN_PROGRESS);
+    job.setRequest(request);
+    job.setClientIdentity(clientIdentity);
+    job.setContractId(contractId);
+    job.setYearMonth(yearMonth.toString());
+    job.setResourceTypes(List.copyOf(resourceTypes));
+    job.setRequestHeaders(Map.copyOf(requestHeaders));
+    job.setTransactionTime(loadedFilterManager.getTransactionTime().toEpochMilli());
+    saveJob(job);
+
+    try {
+      execute(job);
+    } catch (RejectedExecutionException e) {
+      // Leave nothing behind for a job that will never run.
+      store.delete(job.getId());
+      throw e;
+    }
+    LOGGER.info(
+        "Started bulk export {} of {} for contract {} and month {}",
+        job.getId(),
+        resourceTypes,
+        contractId,
+        yearMonth);
+    return job;
+  }
+
+  /**
+   * Gets the current state of a job.
+   *
+   * @param jobId the id of the job
+   * @return the job, or empty if there is no such job
+   * @throws IOException if the job's state can't be read
+   */
+  public Optional<BulkExportJob> getJob(String jobId) throws IOException {
+    Optional<BulkExportStore.VersionedFile> jobFile = store.readVersioned(jobId, JOB_FILE_NAME);
+    if (jobFile.isEmpty()) {
+      return Optional.empty();
+    }
+    BulkExportJob job = OBJECT_MAPPER.readValue(jobFile.get().contents(), BulkExportJob.class);
+    job.setVersion(jobFile.get().version());
+    return Optional.of(job);
+  }
+
+  /**
+   * Opens one of a job's output files. The caller is responsible for closing the stream.
+   *
+   * @param job the job that wrote the file
+   * @param fileName the name of the file
+   * @return a stream of the file's contents, or empty if the job hasn't written such a file
+   * @throws IOException if the file can't be opened
+   */
+  public Optional<InputStream> openOutputFile(BulkExportJob job, String fileName)
+      throws IOException {
+    // Only hand out files listed in the job's state, which also keeps the name from reaching
+    // outside of the job's files.
+    boolean isOutputFile =
+        job.getOutput().stream().anyMatch(file -> file.fileName().equals(fileName));
+    return isOutputFile ? store.read(job.getId(), fileName) : Optional.empty();
+  }
+
+  /**
+   * Reads the ids of the beneficiaries whose resources are in one of a job's output files, which
+   * are the beneficiaries of the set of files it belongs to.
+   *
+   * @param job the job that wrote the file
+   * @param fileName the name of the file
+   * @return the beneficiary ids, in ascending order
+   * @throws IOException if the job hasn't written such a file or the ids can't be read
+   */
+  public List<Long> readBeneficiaryIds(BulkExportJob job, String fileName) throws IOException {
+    BulkExportJob.OutputFile outputFile =
+        job.getOutput().stream()
+            .filter(file -> file.fileName().equals(fileName))
+            .findFirst()
+            .orElseThrow(() -> new IOException("No such bulk export file: " + fileName));
+    String idsFileName = beneficiaryIdsFileName(outputFile.part());
+    Optional<InputStream> idsFile = store.read(job.getId(), idsFileName);
+    if (idsFile.isEmpty()) {
+      throw new IOException("Bulk export " + job.getId() + " has no " + idsFileName);
+    }
+    try (InputStream inputStream = idsFile.get()) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)
+          .lines()
+          .map(Long::valueOf)
+          .toList();
+    }
+  }
+
+  /**
+   * Resumes the jobs whose state hasn't been saved for longer than {@link #STALLED_JOB_TIMEOUT},
+   * which are jobs that were running on a server that has since stopped, and deletes the files of
+   * jobs that finished longer than the retention period ago.
+   */
+  @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+  public void resumeStalledJobs() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      long now = System.currentTimeMillis();
+      for (String jobId : store.listJobIds()) {
+        if (activeJobIds.contains(jobId)) {
+          continue;
+        }
+        Optional<BulkExportJob> job = getJob(jobId);
+        if (job.isEmpty()) {
+          continue;
+        }
+        long age = now - job.get().getLastUpdated();
+        if (job.get().getStatus() == BulkExportJob.Status.IN_PROGRESS) {
+          if (age > STALLED_JOB_TIMEOUT.toMillis() && takeOver(job.get())) {
+            LOGGER.info("Resuming bulk export {}", jobId);
+            execute(job.get());
+          }
+        } else if (age > retention.toMillis()) {
+          LOGGER.info("Deleting bulk export {}", jobId);
+          store.delete(jobId);
+        }
+      }
+    } catch (RejectedExecutionException e) {
+      // Every thread is busy, so try again later.
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Unable to check for stalled bulk exports", e);
+    }
+  }
+
+  /**
+   * Takes over a job by saving it over the version that was read, which also pushes back the point
+   * at which other servers would try to resume it.
+   *
+   * @param job the job, as read from the store
+   * @return {@code true} if the job was taken over, {@code false} if another server saved it first
+   * @throws IOException if the job's state can't be saved
+   */
+  boolean takeOver(BulkExportJob job) throws IOException {
+    try {
+      saveJob(job);
+      return true;
+    } catch (JobTakenOverException e) {
+      return false;
+    }
+  }
+
+  /** Stops the running jobs, leaving them to be resumed once the server is running again. */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Queues a job to run on the {@link #executor}.
+   *
+   * @param job the job to run
+   * @throws RejectedExecutionException if too many jobs are already waiting to run
+   */
+  private void execute(BulkExportJob job) {
+    activeJobIds.add(job.getId());
+    try {
+      executor.execute(() -> runJob(job));
+    } catch (RejectedExecutionException e) {
+      activeJobIds.remove(job.getId());
+      throw e;
+    }
+  }
+
+  /**
+   * Writes a job's remaining output files and then marks it as completed, or as failed if there is
+   * an error. A job that is interrupted by the server shutting down is left in progress so that it
+   * can be resumed, and a job that another server has taken over is left to that server.
+   *
+   * @param job the job to run
+   */
+  void runJob(BulkExportJob job) {
+    Path workDirectory = null;
+    try {
+      workDirectory = Files.createTempDirectory("bulk-export-");
+      while (!executor.isShutdown()) {
+        if (!exportNextPart(job, workDirectory)) {
+          job.setStatus(BulkExportJob.Status.COMPLETED);
+          saveJob(job);
+          LOGGER.info(
+              "Completed bulk export {} of {} beneficiaries",
+              job.getId(),
+              job.getBeneficiaryCount());
+          break;
+        }
+      }
+    } catch (JobTakenOverException e) {
+      LOGGER.info("Stopped bulk export {} since another server has taken it over", job.getId());
+    } catch (Exception e) {
+      if (executor.isShutdown()) {
+        LOGGER.info("Stopped bulk export {} for shutdown", job.getId());
+      } else {
+        LOGGER.error("Bulk export {} failed", job.getId(), e);
+        job.setStatus(BulkExportJob.Status.FAILED);
+        // The details of the error are only logged since they may include query text or data.
+        job.setError("The export failed unexpectedly.");
+        try {
+          saveJob(job);
+        } catch (IOException | RuntimeException saveException) {
+          LOGGER.error("Unable to save failed bulk export {}", job.getId(), saveException);
+        }
+      }
+    } finally {
+      deleteWorkDirectory(workDirectory);
+      activeJobIds.remove(job.getId());
+    }
+  }
+
+  /**
+   * Writes the next set of a job's output files: one file per resource type holding the resources
+   * of the next {@link #beneficiariesPerFile} beneficiaries after the job's cursor. The ids of
+   * those beneficiaries and the files are stored and then the job's state is saved with the new
+   * cursor.
+   *
+   * @param job the job to write files for
+   * @param workDirectory the local directory the files are written to before they are stored
+   * @return {@code true} if there were any beneficiaries left to export, {@code false} otherwise
+   * @throws IOException if the files can't be written or the job's state can't be saved
+   */
+  boolean exportNextPart(BulkExportJob job, Path workDirectory) throws IOException {
+    int part = job.getPartCount() + 1;
+    LocalDate yearMonth = LocalDate.parse(job.getYearMonth());
+    boolean includeMonthlys = job.getResourceTypes().contains(COVERAGE_RESOURCE_TYPE);
+    RequestHeaders requestHeaders = createRequestHeaders(job.getRequestHeaders());
+    IParser parser = FHIR_CONTEXT.newJsonParser();
+
+    Map<String, Path> files = new LinkedHashMap<>();
+    Map<String, Long> counts = new LinkedHashMap<>();
+    Long cursor = job.getCursor();
+    List<Long> beneficiaryIds = new ArrayList<>();
+    Map<String, BufferedWriter> writers = new LinkedHashMap<>();
+    try {
+      for (String resourceType : job.getResourceTypes()) {
+        Path file = workDirectory.resolve(outputFileName(resourceType, part));
+        files.put(resourceType, file);
+        counts.put(resourceType, 0L);
+        writers.put(resourceType, Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+      }
+
+      while (beneficiaryIds.size() < beneficiariesPerFile) {
+        int limit = Math.min(BENEFICIARY_FETCH_SIZE, beneficiariesPerFile - beneficiaryIds.size());
+        List<Long> ids =
+            fetchBeneficiaryIds(job.getContractId(), yearMonth, Optional.ofNullable(cursor), limit);
+        if (ids.isEmpty()) {
+          break;
+        }
+        for (Beneficiary beneficiary : fetchBeneficiaries(ids, includeMonthlys)) {
+          for (String resourceType : job.getResourceTypes()) {
+            List<? extends IBaseResource> resources =
+                transform(resourceType, beneficiary, requestHeaders);
+            BufferedWriter writer = writers.get(resourceType);
+            for (IBaseResource resource : resources) {
+              writer.write(parser.encodeResourceToString(resource));
+              writer.newLine();
+            }
+            counts.merge(resourceType, (long) resources.size(), Long::sum);
+          }
+        }
+        cursor = ids.getLast();
+        beneficiaryIds.addAll(ids);
+        if (ids.size() < limit) {
+          break;
+        }
+      }
+    } finally {
+      for (BufferedWriter writer : writers.values()) {
+        writer.close();
+      }
+    }
+    if (beneficiaryIds.isEmpty()) {
+      return false;
+    }
+
+    // The ids are stored before any file that can be served, so every served file can be logged.
+    StringBuilder idsContents = new StringBuilder();
+    for (Long id : beneficiaryIds) {
+      idsContents.append(id).append('\n');
+    }
+    store.write(
+        job.getId(),
+        beneficiaryIdsFileName(part),
+        idsContents.toString().getBytes(StandardCharsets.UTF_8));
+    for (Map.Entry<String, Path> file : files.entrySet()) {
+      long count = counts.get(file.getKey());
+      // Clients have no use for empty files.
+      if (count > 0) {
+        String fileName = file.getValue().getFileName().toString();
+        store.write(job.getId(), fileName, file.getValue());
+        job.getOutput().add(new BulkExportJob.OutputFile(file.getKey(), fileName, part, count));
+      }
+      Files.delete(file.getValue());
+    }
+    job.setCursor(cursor);
+    job.setPartCount(part);
+    job.setBeneficiaryCount(job.getBeneficiaryCount() + beneficiaryIds.size());
+    saveJob(job);
+    return true;
+  }
+
+  /**
+   * Transforms a beneficiary into the resources of the given type.
+   *
+   * @param resourceType one of the {@link #SUPPORTED_RESOURCE_TYPES}
+   * @param beneficiary the beneficiary to transform
+   * @param requestHeaders the BFD request headers to transform the beneficiary with
+   * @return the resources
+   */
+  private List<? extends IBaseResource> transform(
+      String resourceType, Beneficiary beneficiary, RequestHeaders requestHeaders) {
+    return switch (resourceType) {
+      case PATIENT_RESOURCE_TYPE ->
+          List.of(beneficiaryTransformer.transform(beneficiary, requestHeaders));
+      case COVERAGE_RESOURCE_TYPE -> coverageTransformer.transform(beneficiary, Profile.C4BB);
+      default -> throw new IllegalArgumentException("Unsupported resource type: " + resourceType);
+    };
+  }
+
+  /**
+   * Finds the ids of the next beneficiaries enrolled in a Part D contract for a month, in ascending
+   * order.
+   *
+   * @param contractId the Part D contract to match
+   * @param yearMonth the enrollment month to match
+   * @param cursor the id the returned ids must come after, if any
+   * @param limit the maximum number of ids to return
+   * @return the matching ids
+   */
+  List<Long> fetchBeneficiaryIds(
+      String contractId, LocalDate yearMonth, Optional<Long> cursor, int limit) {
+    EntityManager entityManager = createEntityManager();
+    try (Timer.Context timer =
+        CommonTransformerUtils.createMetricsTimer(
+            metricRegistry,
+            getClass().getSimpleName(),
+            "query",
+            "bene_ids_by_year_month_part_d_contract_id")) {
+      CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+      CriteriaQuery<Long> criteria = builder.createQuery(Long.class);
+      Root<BeneficiaryPartDContractMonth> root = criteria.from(BeneficiaryPartDContractMonth.class);
+
+      List<Predicate> wherePredicates = new ArrayList<>();
+      wherePredicates.add(
+          builder.equal(root.get(BeneficiaryPartDContractMonth_.yearMonth), yearMonth));
+      wherePredicates.add(
+          builder.equal(
+              root.get(BeneficiaryPartDContractMonth_.partDContractNumberId), contractId));
+      cursor.ifPresent(
+          id ->
+              wherePredicates.add(
+                  builder.greaterThan(root.get(BeneficiaryPartDContractMonth_.beneficiaryId), id)));
+      criteria
+          .select(root.get(BeneficiaryPartDContractMonth_.beneficiaryId))
+          .where(wherePredicates.toArray(new Predicate[0]))
+          .orderBy(builder.asc(root.get(BeneficiaryPartDContractMonth_.beneficiaryId)));
+
+      return entityManager.createQuery(criteria).setMaxResults(limit).getResultList();
+    } finally {
+      entityManager.close();
+    }
+  }
+
+  /**
+   * Loads the beneficiaries with the given ids, in id order, along with their {@link
+   * Beneficiary#getBeneficiaryHistories()} and, if requested, their {@link
+   * Beneficiary#getBeneficiaryMonthlys()}. The entities are detached when returned.
+   *
+   * @param ids the ids of the beneficiaries to load
+   * @param includeMonthlys whether to also load the monthly records
+   * @return the beneficiaries
+   */
+  List<Beneficiary> fetchBeneficiaries(List<Long> ids, boolean includeMonthlys) {
+    EntityManager entityManager = createEntityManager();
+    try (Timer.Context timer =
+        CommonTransformerUtils.createMetricsTimer(
+            metricRegistry,
+            getClass().getSimpleName(),
+            "query",
+            "benes_by_year_month_part_d_contract_id")) {
+      List<Beneficiary> beneficiaries =
+          entityManager
+              .createQuery(beneficiariesCriteria(entityManager, ids, false))
+              .getResultList();
+      if (includeMonthlys) {
+        // Fetching both collections in one query would return a row for every combination of
+        // history and monthly record, so the monthly records are fetched into the same
+        // persistence context by a second query instead.
+        entityManager.createQuery(beneficiariesCriteria(entityManager, ids, true)).getResultList();
+      }
+      return beneficiaries;
+    } finally {
+      entityManager.close();
+    }
+  }
+
+  /**
+   * Creates a query for the beneficiaries with the given ids that fetches one of their collections.
+   *
+   * @param entityManager the entity manager the query is for
+   * @param ids the ids of the beneficiaries to find
+   * @param fetchMonthlys whether to fetch the monthly records rather than the histories
+   * @return the query
+   */
+  private static CriteriaQuery<Beneficiary> beneficiariesCriteria(
+      EntityManager entityManager, List<Long> ids, boolean fetchMonthlys) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Beneficiary> criteria = builder.createQuery(Beneficiary.class);
+    Root<Beneficiary> root = criteria.from(Beneficiary.class);
+    if (fetchMonthlys) {
+      root.fetch(Beneficiary_.beneficiaryMonthlys, JoinType.LEFT);
+    } else {
+      root.fetch(Beneficiary_.beneficiaryHistories, JoinType.LEFT);
+    }
+    criteria.where(root.get(Beneficiary_.beneficiaryId).in(ids));
+    criteria.orderBy(builder.asc(root.get(Beneficiary_.beneficiaryId)));
+    return criteria;
+  }
+
+  /**
+   * Creates a read only entity manager for the queries of a job.
+   *
+   * @return the entity manager
+   */
+  private EntityManager createEntityManager() {
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    entityManager.unwrap(Session.class).setDefaultReadOnly(true);
+    return entityManager;
+  }
+
+  /**
+   * Saves a job's state to the {@link #store}, recording the time it was saved. The state is only
+   * saved over the version the job was last read or saved with.
+   *
+   * @param job the job to save
+   * @throws JobTakenOverException if the state has been saved by another server since then
+   * @throws IOException if the state can't be saved
+   */
+  private void saveJob(BulkExportJob job) throws IOException {
+    job.setLastUpdated(System.currentTimeMillis());
+    Optional<String> version =
+        store.writeIfVersion(
+            job.getId(), JOB_FILE_NAME, OBJECT_MAPPER.writeValueAsBytes(job), job.getVersion());
+    if (version.isEmpty()) {
+      throw new JobTakenOverException(job.getId());
+    }
+    job.setVersion(version.get());
+  }
+
+  /**
+   * Recreates the {@link RequestHeaders} that a job was started with.
+   *
+   * @param headers the BFD request headers, by name
+   * @return the request headers
+   */
+  private static RequestHeaders createRequestHeaders(Map<String, String> headers) {
+    return RequestHeaders.getHeaderWrapper(
+        headers.entrySet().stream()
+            .flatMap(header -> Stream.of(header.getKey(), header.getValue()))
+            .toArray(String[]::new));
+  }
+
+  /**
+   * Gets the name of one of a job's output files.
+   *
+   * @param resourceType the type of the resources in the file
+   * @param part the number of the set of files the file belongs to
+   * @return the file name
+   */
+  static String outputFileName(String resourceType, int part) {
+    return String.format("%s-%d.ndjson", resourceType, part);
+  }
+
+  /**
+   * Gets the name of the file that lists the ids of the beneficiaries in one of a job's sets of
+   * output files, one per line. The file is never served, only read to log which beneficiaries each
+   * served file discloses.
+   *
+   * @param part the number of the set of files
+   * @return the file name
+   */
+  static String beneficiaryIdsFileName(int part) {
+    return String.format("beneficiaries-%d.txt", part);
+  }
+
+  /**
+   * Deletes the local directory a job wrote its files to, if it was created.
+   *
+   * @param workDirectory the directory to delete, or {@code null}
+   */
+  private static void deleteWorkDirectory(Path workDirectory) {
+    if (workDirectory == null) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(workDirectory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Unable to delete bulk export work directory {}", workDirectory, e);
+    }
+  }
+
+  /** Thrown when a job can't be saved because another server has saved it in the meantime. */
+  static class JobTakenOverException extends IOException {
+    /**
+     * Instantiates a new {@link JobTakenOverException}.
+     *
+     * @param jobId the id of the job
+     */
+    JobTakenOverException(String jobId) {
+      super("Bulk export " + jobId + " has been saved by another server");
+    }
+  }
+}
@@ -1,5 +1,9 @@
 package gov.cms.bfd.server.war.r4.providers;
 
+import static gov.cms.bfd.server.war.SpringConfiguration.EOB_TRANSFORM_EXECUTOR_SERVICE;
+import static gov.cms.bfd.server.war.SpringConfiguration.PROP_CLAIM_QUERY_WINDOW_SIZE;
+import static gov.cms.bfd.server.war.SpringConfiguration.PROP_EOB_PARALLEL_TRANSFORM_MAX_CHUNKS;
+import static gov.cms.bfd.server.war.SpringConfiguration.PROP_EOB_PARALLEL_TRANSFORM_THRESHOLD;
 import static gov.cms.bfd.server.war.SpringConfiguration.SSM_PATH_SAMHSA_V2_SHADOW;
 import static java.util.Objects.requireNonNull;
 
@@ -7,9 +11,11 @@ import ca.uhn.fhir.rest.param.DateRangeParam;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import gov.cms.bfd.server.war.SamhsaV2InterceptorShadow;
 import gov.cms.bfd.server.war.commons.ClaimType;
 import gov.cms.bfd.server.war.commons.CommonTransformerUtils;
+import gov.cms.bfd.server.war.commons.QueryResultWindows;
 import gov.cms.bfd.server.war.commons.QueryUtils;
 import gov.cms.bfd.server.war.commons.SecurityTagManager;
 import gov.cms.bfd.server.war.commons.SecurityTagsDao;
@@ -32,12 +38,17 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -59,10 +70,25 @@ import org.springframework.stereotype.Component;
  * some claim tasks require an additional property denoting how NPI tax number is processed; this
  * property is set using the {@link PatientClaimsEobTaskTransformerV2#setIncludeTaxNumbers}; the
  * default property value for inclusion of NPI tax info is FALSE (do not include NPI tax info).
+ *
+ * <p>When a beneficiary has a large number of claims of this task's type, the transformation of
+ * those claims is split into chunks that run on a separate {@link ExecutorService} sized for CPU
+ * bound work, so that they never wait for (or hold) the permits of the executor that runs the claim
+ * type tasks themselves, which are sized to the database connection pool. All entities (including
+ * their lines) are fully loaded by this task's {@link EntityManager} before any chunk starts, so
+ * the chunks only read already-initialized entities and never touch the {@link EntityManager}
+ * themselves.
+ *
+ * <p>When a claim query window size is configured, the claims are instead read through {@link
+ * QueryResultWindows} and each window is transformed before the next one is loaded, so the entities
+ * held in memory are bounded by the window size rather than by the beneficiary's claim history.
+ * Chunks are then split from each window. The transformed EOBs are still all kept until the search
+ * sorts and pages them, since the bundle's total and the SAMHSA filtering need every one of them.
  */
 @Component
 @Scope("prototype")
-public class PatientClaimsEobTaskTransformerV2 implements Callable {
+public class PatientClaimsEobTaskTransformerV2
+    implements Callable<PatientClaimsEobTaskTransformerV2> {
   private static final Logger LOGGER =
       LoggerFactory.getLogger(PatientClaimsEobTaskTransformerV2.class);
 
@@ -111,6 +137,12 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
   // task properties
   // +++++++++++++++++++++++++++++++++++
 
+  /**
+   * {@link System#nanoTime} at which the task was submitted to its executor. Set by {@link
+   * #markSubmitted}, and defaults to the time the task was set up.
+   */
+  private long submitNanos = 0L;
+
   /** capture exception if thrown. */
   private final AtomicReference<Exception> taskException = new AtomicReference<>();
 
@@ -128,6 +160,18 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
 
   private final SecurityTagsDao securityTagsDao;
 
+  /** Thread pool used to transform large claim lists in parallel chunks. */
+  private final ExecutorService transformExecutorService;
+
+  /** Minimum number of claims before transformation is split into parallel chunks. */
+  private final int parallelThreshold;
+
+  /** Maximum number of chunks one claim list's transformation may be split into. */
+  private final int maxParallelChunks;
+
+  /** Number of claims loaded and transformed at a time, or a non-positive value to load all. */
+  private final int claimQueryWindowSize;
+
   /**
    * Constructor for TransformPatientClaimsToEobTask.
    *
@@ -140,18 +184,31 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
    * @param samhsaV2InterceptorShadow the v2SamhsaConsentSimulation
    * @param securityTagsDao the security Tags Dao
    * @param samhsaV2Shadow the samhsa V2 Shadow flag
+   * @param transformExecutorService thread pool used for parallel chunks
+   * @param parallelThreshold minimum number of claims before transformation is run in parallel
+   * @param maxParallelChunks maximum number of parallel chunks per claim list
+   * @param claimQueryWindowSize number of claims loaded and transformed at a time, or a
+   *     non-positive value to load all of them before transforming any
    */
   public PatientClaimsEobTaskTransformerV2(
       MetricRegistry metricRegistry,
       R4EobSamhsaMatcher samhsaMatcher,
       SamhsaV2InterceptorShadow samhsaV2InterceptorShadow,
       SecurityTagsDao securityTagsDao,
-      @Value("${" + SSM_PATH_SAMHSA_V2_SHADOW + ":false}") Boolean samhsaV2Shadow) {
+      @Value("${" + SSM_PATH_SAMHSA_V2_SHADOW + ":false}") Boolean samhsaV2Shadow,
+      @Qualifier(EOB_TRANSFORM_EXECUTOR_SERVICE) ExecutorService transformExecutorService,
+      @Value("${" + PROP_EOB_PARALLEL_TRANSFORM_THRESHOLD + ":500}") Integer parallelThreshold,
+      @Value("${" + PROP_EOB_PARALLEL_TRANSFORM_MAX_CHUNKS + ":4}") Integer maxParallelChunks,
+      @Value("${" + PROP_CLAIM_QUERY_WINDOW_SIZE + ":0}") Integer claimQueryWindowSize) {
     this.metricRegistry = requireNonNull(metricRegistry);
     this.samhsaMatcher = requireNonNull(samhsaMatcher);
     this.samhsaV2InterceptorShadow = samhsaV2InterceptorShadow;
     this.securityTagsDao = securityTagsDao;
     this.samhsaV2Shadow = samhsaV2Shadow;
+    this.transformExecutorService = requireNonNull(transformExecutorService);
+    this.parallelThreshold = parallelThreshold;
+    this.maxParallelChunks = maxParallelChunks;
+    this.claimQueryWindowSize = claimQueryWindowSize;
   }
 
   /**
@@ -177,6 +234,15 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
     this.lastUpdated = lastUpdated;
     this.serviceDate = serviceDate;
     this.excludeSamhsa = excludeSamhsa;
+    this.submitNanos = System.nanoTime();
+  }
+
+  /**
+   * Records that the task is being submitted to its executor, which is when the time the task
+   * spends waiting to be run starts.
+   */
+  public void markSubmitted() {
+    this.submitNanos = System.nanoTime();
   }
 
   /**
@@ -201,15 +267,27 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
   }
 
   /**
-   * ExecutorService will invoke the task.
+   * ExecutorService will invoke the task. The time the task spent waiting to be run (since {@link
+   * #markSubmitted}) and the time spent running it are recorded separately per claim type, so that
+   * a saturated executor can be told apart from slow queries or transformations.
    *
    * @return the results for the task.
    */
   @Override
   public PatientClaimsEobTaskTransformerV2 call() {
     LOGGER.debug("TransformPatientClaimsToEobTaskV2.call() started for {}", id);
-    try {
-      eobs.addAll(transformToEobs(findClaimTypeByPatient()));
+    String claimTypeName = claimType.name().toLowerCase();
+    metricRegistry
+        .timer(MetricRegistry.name(getClass().getSimpleName(), "queue_wait", claimTypeName))
+        .update(System.nanoTime() - submitNanos, TimeUnit.NANOSECONDS);
+    try (Timer.Context timerExecution =
+        CommonTransformerUtils.createMetricsTimer(
+            metricRegistry, getClass().getSimpleName(), "execution", claimTypeName)) {
+      if (claimQueryWindowSize > 0) {
+        eobs.addAll(transformClaimTypeByPatientInWindows());
+      } else {
+        eobs.addAll(transformToEobs(findClaimTypeByPatient()));
+      }
 
       if (excludeSamhsa) {
         filterSamhsa(eobs);
@@ -217,6 +295,11 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
     } catch (NoResultException e) {
       LOGGER.warn(e.getMessage(), e);
       taskException.set(e);
+    } catch (InterruptedException e) {
+      // Keep the interrupt visible to the executor that is running this task.
+      Thread.currentThread().interrupt();
+      LOGGER.warn("TransformPatientClaimsToEobTaskV2 interrupted for {}", id);
+      taskException.set(e);
     } catch (Exception e) {
       // keep track of the Exception so we can provide to caller.
       LOGGER.error(e.getMessage(), e);
@@ -226,13 +309,72 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
   }
 
   /**
-   * Transform a list of claims to a list of {@link ExplanationOfBenefit} objects.
+   * Transform a list of claims to a list of {@link ExplanationOfBenefit} objects. Lists of at least
+   * {@link #parallelThreshold} claims are split into up to {@link #maxParallelChunks} chunks that
+   * are transformed concurrently; the order of the returned EOBs always matches the claims.
    *
    * @param claims the claims/events to transform
    * @param <T> type of claims
    * @return the {@link ExplanationOfBenefit} instances, one per claim/event
+   * @throws InterruptedException if interrupted while waiting for a chunk to complete
+   * @throws ExecutionException if the transformation of a chunk failed
    */
-  private <T> List<ExplanationOfBenefit> transformToEobs(List<ClaimWithSecurityTags<T>> claims) {
+  private <T> List<ExplanationOfBenefit> transformToEobs(List<ClaimWithSecurityTags<T>> claims)
+      throws InterruptedException, ExecutionException {
+    int chunkSize = calculateChunkSize(claims.size(), parallelThreshold, maxParallelChunks);
+    if (chunkSize >= claims.size()) {
+      return transformChunk(claims);
+    }
+
+    List<FutureTask<List<ExplanationOfBenefit>>> chunkTasks = new ArrayList<>();
+    for (List<ClaimWithSecurityTags<T>> chunk : Lists.partition(claims, chunkSize)) {
+      chunkTasks.add(new FutureTask<>(() -> transformChunk(chunk)));
+    }
+    // This thread transforms the first chunk itself; the rest are offered to the transform pool.
+    chunkTasks.stream().skip(1).forEach(transformExecutorService::execute);
+
+    List<ExplanationOfBenefit> eobs = new ArrayList<>(claims.size());
+    try {
+      for (FutureTask<List<ExplanationOfBenefit>> chunkTask : chunkTasks) {
+        /*
+         * Running a chunk that no pool thread has picked up yet on this thread means a saturated
+         * pool can delay this task but never leave it blocked on work queued behind it. If the
+         * chunk is already running or done, run() is a no-op and get() waits for its result.
+         */
+        chunkTask.run();
+        eobs.addAll(chunkTask.get());
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      chunkTasks.forEach(chunkTask -> chunkTask.cancel(false));
+      throw e;
+    }
+    return eobs;
+  }
+
+  /**
+   * Calculates how many claims each parallel transformation chunk should contain.
+   *
+   * @param claimCount the number of claims to transform
+   * @param parallelThreshold minimum number of claims before transformation is run in parallel
+   * @param maxParallelChunks maximum number of chunks to split the claims into
+   * @return the chunk size; a value of at least {@code claimCount} means no parallelism
+   */
+  @VisibleForTesting
+  static int calculateChunkSize(int claimCount, int parallelThreshold, int maxParallelChunks) {
+    if (parallelThreshold <= 0 || maxParallelChunks < 2 || claimCount < parallelThreshold) {
+      return Math.max(claimCount, 1);
+    }
+    return Math.max(Math.ceilDiv(claimCount, maxParallelChunks), 1);
+  }
+
+  /**
+   * Transforms a chunk of claims to {@link ExplanationOfBenefit} objects on the calling thread.
+   *
+   * @param claims the claims/events to transform
+   * @param <T> type of claims
+   * @return the {@link ExplanationOfBenefit} instances, one per claim/event
+   */
+  private <T> List<ExplanationOfBenefit> transformChunk(List<ClaimWithSecurityTags<T>> claims) {
     return claims.stream()
         .map(
             c -> {
@@ -331,20 +473,7 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
    */
   @SuppressWarnings({"rawtypes", "unchecked"})
   private <T> List<ClaimWithSecurityTags<T>> findClaimTypeByPatient() {
-    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-    CriteriaQuery criteria = builder.createQuery((Class) claimType.getEntityClass());
-    Root root = criteria.from(claimType.getEntityClass());
-    claimType.getEntityLazyAttributes().stream().forEach(a -> root.fetch(a));
-    criteria.select(root).distinct(true);
-
-    Predicate wherePredicate =
-        builder.equal(root.get(claimType.getEntityBeneficiaryIdAttribute()), id);
-
-    if (lastUpdated.isPresent()) {
-      Predicate predicate = QueryUtils.createLastUpdatedPredicate(builder, root, lastUpdated.get());
-      wherePredicate = builder.and(wherePredicate, predicate);
-    }
-    criteria.where(wherePredicate);
+    CriteriaQuery criteria = createClaimTypeByPatientCriteria(false);
 
     List<T> claimEntities = null;
     try (Timer.Context timerEobQuery =
@@ -365,16 +494,112 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
       }
     }
 
+    return claimEntities == null
+        ? new ArrayList<>()
+        : tagAndFilterClaims(claimEntities, Optional.empty());
+  }
+
+  /**
+   * Finds and transforms the claims of the task's type for the patient a window of {@link
+   * #claimQueryWindowSize} claims at a time. Each window is transformed, and its entities released,
+   * before the next one is loaded. The security tags are looked up on the connection the claims are
+   * read on, so the task never holds more than the one connection that its executor permit is sized
+   * for.
+   *
+   * @param <T> the type parameter
+   * @return the {@link ExplanationOfBenefit} instances, one per matching claim/event
+   * @throws InterruptedException if interrupted while waiting for a chunk to complete
+   * @throws ExecutionException if the transformation of a chunk failed
+   */
+  @SuppressWarnings("unchecked")
+  private <T> List<ExplanationOfBenefit> transformClaimTypeByPatientInWindows()
+      throws InterruptedException, ExecutionException {
+    CriteriaQuery<T> criteria = createClaimTypeByPatientCriteria(true);
+
+    List<ExplanationOfBenefit> claimEobs = new ArrayList<>();
+    try (QueryResultWindows<T> windows =
+        QueryResultWindows.open(
+            entityManager.getEntityManagerFactory(), criteria, claimQueryWindowSize)) {
+      try {
+        while (windows.hasNext()) {
+          claimEobs.addAll(
+              transformToEobs(
+                  tagAndFilterClaims(windows.next(), Optional.of(windows.getEntityManager()))));
+        }
+      } finally {
+        // Only the time spent in the database counts, not the time spent transforming.
+        metricRegistry
+            .timer(
+                MetricRegistry.name(
+                    metricRegistry.getClass().getSimpleName(),
+                    "query",
+                    "eobs_by_bene_id",
+                    claimType.name().toLowerCase()))
+            .update(windows.getFetchNanos(), TimeUnit.NANOSECONDS);
+        CommonTransformerUtils.recordQueryInMdc(
+            String.format("eobs_by_bene_id_%s", claimType.name().toLowerCase()),
+            windows.getFetchNanos(),
+            windows.getResultCount());
+      }
+    }
+    return claimEobs;
+  }
+
+  /**
+   * Creates the query for the claims of the task's type for the patient.
+   *
+   * @param orderById whether to order the claims by their id, which is required to read a query
+   *     that fetches the claim lines through {@link QueryResultWindows}
+   * @return the query
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private CriteriaQuery createClaimTypeByPatientCriteria(boolean orderById) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery criteria = builder.createQuery((Class) claimType.getEntityClass());
+    Root root = criteria.from(claimType.getEntityClass());
+    claimType.getEntityLazyAttributes().stream().forEach(a -> root.fetch(a));
+    criteria.select(root).distinct(true);
+
+    Predicate wherePredicate =
+        builder.equal(root.get(claimType.getEntityBeneficiaryIdAttribute()), id);
+
+    if (lastUpdated.isPresent()) {
+      Predicate predicate = QueryUtils.createLastUpdatedPredicate(builder, root, lastUpdated.get());
+      wherePredicate = builder.and(wherePredicate, predicate);
+    }
+    criteria.where(wherePredicate);
+    if (orderById) {
+      criteria.orderBy(builder.asc(root.get(claimType.getEntityIdAttribute())));
+    }
+    return criteria;
+  }
+
+  /**
+   * Attaches the security tags to claims of the task's type and removes the claims that fall
+   * outside of the requested service date range.
+   *
+   * @param claimEntities the claim/event entities
+   * @param tagsEntityManager the entity manager to look up the security tags on, or empty to use
+   *     the {@link SecurityTagsDao}'s own
+   * @param <T> the type parameter
+   * @return the matching claim/event entities with their security tags
+   */
+  @SuppressWarnings("unchecked")
+  private <T> List<ClaimWithSecurityTags<T>> tagAndFilterClaims(
+      List<T> claimEntities, Optional<EntityManager> tagsEntityManager) {
     SecurityTagManager securityTagManager = new SecurityTagManager();
 
     List<ClaimWithSecurityTags<T>> claimEntitiesWithTags = new ArrayList<>();
 
-    if (claimEntities != null && !claimEntities.isEmpty()) {
+    if (!claimEntities.isEmpty()) {
       Set<String> claimIds = securityTagManager.collectClaimIds((List<Object>) claimEntities);
 
       if (!claimIds.isEmpty()) {
         Map<String, Set<String>> claimIdToTagsMap =
-            securityTagsDao.buildClaimIdToTagsMap(claimType.getEntityTagType(), claimIds);
+            tagsEntityManager.isPresent()
+                ? securityTagsDao.buildClaimIdToTagsMap(
+                    tagsEntityManager.get(), claimType.getEntityTagType(), claimIds)
+                : securityTagsDao.buildClaimIdToTagsMap(claimType.getEntityTagType(), claimIds);
 
         claimEntitiesWithTags =
             claimEntities.stream()
@@ -390,7 +615,7 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
       }
     }
 
-    if (claimEntities != null && !serviceDate.isEmpty()) {
+    if (!serviceDate.isEmpty()) {
       final Instant lowerBound =
           serviceDate.get().getLowerBoundAsInstant() != null
               ? serviceDate.get().getLowerBoundAsInstant().toInstant()
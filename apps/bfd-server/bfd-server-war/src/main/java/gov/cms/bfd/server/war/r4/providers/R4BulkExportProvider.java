@@ -0,0 +1,350 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import static gov.cms.bfd.server.war.commons.StringUtils.splitOnCommas;
+import static java.util.Objects.requireNonNull;
+
+import ca.uhn.fhir.model.api.annotation.Description;
+import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.annotation.OperationParam;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.param.TokenParam;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.rest.server.exceptions.UnclassifiedServerFailureException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.cms.bfd.server.war.CanonicalOperation;
+import gov.cms.bfd.server.war.commons.ClientCertificateUtils;
+import gov.cms.bfd.server.war.commons.CommonHeaders;
+import gov.cms.bfd.server.war.commons.LoggingUtils;
+import gov.cms.bfd.server.war.commons.OpenAPIContentProvider;
+import gov.cms.bfd.server.war.commons.RequestHeaders;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import org.hl7.fhir.r4.model.StringType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds support for the <a href="https://hl7.org/fhir/uv/bulkdata/">FHIR Bulk Data</a> {@code
+ * $export} operation, for exporting the {@link org.hl7.fhir.r4.model.Patient} and {@link
+ * org.hl7.fhir.r4.model.Coverage} resources of every beneficiary enrolled in a Part D contract for
+ * a month. The contract and month are given with the same parameters as {@link
+ * R4PatientResourceProvider#searchByCoverageContract}.
+ *
+ * <p>The export runs asynchronously in the {@link BulkExportService}. The kick-off request returns
+ * the URL of the {@code $export-poll-status} operation, which reports the job's progress and, once
+ * it completes, a manifest with the URLs of the output files. Those files are served by the {@code
+ * $export-file} operation. A job can only be seen by requests made with the client certificate that
+ * started it.
+ */
+@Component
+public class R4BulkExportProvider {
+  /** The value of the {@code Prefer} header that the bulk data specification requires. */
+  static final String PREFER_RESPOND_ASYNC = "respond-async";
+
+  /** The content type of the output files. */
+  static final String NDJSON_CONTENT_TYPE = "application/fhir+ndjson";
+
+  /** The {@code _outputFormat} values that are accepted, all of which mean NDJSON. */
+  private static final Set<String> SUPPORTED_OUTPUT_FORMATS =
+      Set.of(NDJSON_CONTENT_TYPE, "application/ndjson", "ndjson");
+
+  /** How long, in seconds, clients are asked to wait between status requests. */
+  static final int RETRY_AFTER_SECONDS = 30;
+
+  /** Used to write the manifests. */
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  /** Runs the export jobs. */
+  private final BulkExportService bulkExportService;
+
+  /**
+   * An entry in the {@link Manifest#output} of a completed job.
+   *
+   * @param type the FHIR resource type of the resources in the file
+   * @param url the URL the file can be downloaded from
+   * @param count the number of resources in the file
+   */
+  record ManifestOutput(String type, String url, long count) {}
+
+  /**
+   * The response to a status request for a completed job, as defined by the bulk data
+   * specification.
+   *
+   * @param transactionTime the time of the latest data load when the job was started
+   * @param request the URL of the request that started the job
+   * @param requiresAccessToken whether the files need the same authentication as the request
+   * @param output the output files
+   * @param error the files of errors, which are never written
+   */
+  record Manifest(
+      String transactionTime,
+      String request,
+      boolean requiresAccessToken,
+      List<ManifestOutput> output,
+      List<ManifestOutput> error) {}
+
+  /**
+   * Instantiates a new {@link R4BulkExportProvider}.
+   *
+   * <p>Spring will wire this class during the initial component scan, so this constructor should
+   * only be explicitly called by tests.
+   *
+   * @param bulkExportService runs the export jobs
+   */
+  public R4BulkExportProvider(BulkExportService bulkExportService) {
+    this.bulkExportService = requireNonNull(bulkExportService);
+  }
+
+  /**
+   * Starts an export of the beneficiaries enrolled in a Part D contract for a month. Responds with
+   * {@code 202 Accepted} and the URL to poll for the job's status in the {@code Content-Location}
+   * header.
+   *
+   * @param coverageId the Part D contract, with the month given by its system
+   * @param referenceYear the year of the month, which defaults to the current year
+   * @param type the comma separated resource types to export, which defaults to all of them
+   * @param outputFormat the format of the output files, which must be NDJSON
+   * @param requestDetails the request details
+   * @param request the request, which holds the client certificate
+   * @param response the response to write to
+   * @throws IOException if the job can't be started
+   */
+  @Operation(name = "$export", typeName = "Patient", idempotent = true, manualResponse = true)
+  public void exportByCoverageContract(
+      @OperationParam(name = "_has:Coverage.extension", min = 1, max = 1)
+          @Description(shortDefinition = OpenAPIContentProvider.PATIENT_PARTD_CONTRACT_SHORT)
+          TokenParam coverageId,
+      @OperationParam(name = "_has:Coverage.rfrncyr", max = 1)
+          @Description(shortDefinition = OpenAPIContentProvider.PATIENT_PARTD_REFYR_SHORT)
+          TokenParam referenceYear,
+      @OperationParam(name = "_type", max = 1)
+          @Description(shortDefinition = "Comma separated resource types to export")
+          StringType type,
+      @OperationParam(name = "_outputFormat", max = 1)
+          @Description(shortDefinition = "Format of the output files")
+          StringType outputFormat,
+      RequestDetails requestDetails,
+      HttpServletRequest request,
+      HttpServletResponse response)
+      throws IOException {
+    String prefer = requestDetails.getHeader("Prefer");
+    if (prefer == null || !prefer.contains(PREFER_RESPOND_ASYNC)) {
+      throw new InvalidRequestException("The Prefer header must be " + PREFER_RESPOND_ASYNC);
+    }
+    if (outputFormat != null && !SUPPORTED_OUTPUT_FORMATS.contains(outputFormat.getValue())) {
+      throw new InvalidRequestException("Unsupported _outputFormat: " + outputFormat.getValue());
+    }
+    R4PatientResourceProvider.checkCoverageId(coverageId);
+    LocalDate yearMonth =
+        R4PatientResourceProvider.parseContractYearMonth(coverageId, referenceYear);
+    List<String> resourceTypes = parseResourceTypes(type);
+    // Fail now on headers the transformers would reject, rather than when the job runs.
+    RequestHeaders requestHeader = RequestHeaders.getHeaderWrapper(requestDetails);
+
+    CanonicalOperation operation = new CanonicalOperation(CanonicalOperation.Endpoint.V2_PATIENT);
+    operation.setOption("by", "export");
+    requestHeader.getNVPairs().forEach((n, v) -> operation.setOption(n, v.toString()));
+    operation.publishOperationName();
+
+    Map<String, String> headers = new HashMap<>();
+    for (String header : CommonHeaders.FHIR_REQUEST_HEADERS) {
+      String value = requestDetails.getHeader(header);
+      if (value != null) {
+        headers.put(header, value);
+      }
+    }
+
+    BulkExportJob job;
+    try {
+      job =
+          bulkExportService.submit(
+              coverageId.getValueNotNull(),
+              yearMonth,
+              resourceTypes,
+              headers,
+              ClientCertificateUtils.getClientSslPrincipalDistinguishedName(request),
+              requestDetails.getCompleteUrl());
+    } catch (RejectedExecutionException e) {
+      UnclassifiedServerFailureException tooManyRequests =
+          new UnclassifiedServerFailureException(
+              429, "Too many bulk exports are in progress; try again later");
+      tooManyRequests.addResponseHeader("Retry-After", Integer.toString(RETRY_AFTER_SECONDS));
+      throw tooManyRequests;
+    }
+
+    response.setStatus(HttpServletResponse.SC_ACCEPTED);
+    response.setHeader(
+        "Content-Location",
+        requestDetails.getFhirServerBase() + "/$export-poll-status?_jobId=" + job.getId());
+  }
+
+  /**
+   * Reports the status of an export. Responds with {@code 202 Accepted} while the job is in
+   * progress and with the job's manifest once it has completed.
+   *
+   * @param jobId the id of the job
+   * @param requestDetails the request details
+   * @param request the request, which holds the client certificate
+   * @param response the response to write to
+   * @throws IOException if the job's state can't be read or the response can't be written
+   */
+  @Operation(name = "$export-poll-status", idempotent = true, manualResponse = true)
+  public void exportPollStatus(
+      @OperationParam(name = "_jobId", min = 1, max = 1)
+          @Description(shortDefinition = "Id of the export job")
+          StringType jobId,
+      RequestDetails requestDetails,
+      HttpServletRequest request,
+      HttpServletResponse response)
+      throws IOException {
+    CanonicalOperation operation =
+        new CanonicalOperation(CanonicalOperation.Endpoint.V2_EXPORT_POLL_STATUS);
+    operation.publishOperationName();
+
+    BulkExportJob job = findJob(jobId, request);
+    switch (job.getStatus()) {
+      case IN_PROGRESS -> {
+        response.setStatus(HttpServletResponse.SC_ACCEPTED);
+        response.setHeader(
+            "X-Progress", String.format("%d beneficiaries exported", job.getBeneficiaryCount()));
+        response.setHeader("Retry-After", Integer.toString(RETRY_AFTER_SECONDS));
+      }
+      case COMPLETED -> {
+        List<ManifestOutput> output = new ArrayList<>();
+        for (BulkExportJob.OutputFile file : job.getOutput()) {
+          output.add(
+              new ManifestOutput(
+                  file.type(),
+                  String.format(
+                      "%s/$export-file?_jobId=%s&_file=%s",
+                      requestDetails.getFhirServerBase(), job.getId(), file.fileName()),
+                  file.count()));
+        }
+        Manifest manifest =
+            new Manifest(
+                Instant.ofEpochMilli(job.getTransactionTime()).toString(),
+                job.getRequest(),
+                true,
+                output,
+                List.of());
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/json");
+        try (OutputStream outputStream = response.getOutputStream()) {
+          OBJECT_MAPPER.writeValue(outputStream, manifest);
+        }
+      }
+      case FAILED -> throw new InternalErrorException(job.getError());
+    }
+  }
+
+  /**
+   * Serves one of the output files of an export. The ids of the beneficiaries whose resources are
+   * in the file are logged for the request, like the beneficiaries returned by a search.
+   *
+   * @param jobId the id of the job
+   * @param fileName the name of the file, as given in the job's manifest
+   * @param request the request, which holds the client certificate
+   * @param response the response to write to
+   * @throws IOException if the file can't be read or the response can't be written
+   */
+  @Operation(name = "$export-file", idempotent = true, manualResponse = true)
+  public void exportFile(
+      @OperationParam(name = "_jobId", min = 1, max = 1)
+          @Description(shortDefinition = "Id of the export job")
+          StringType jobId,
+      @OperationParam(name = "_file", min = 1, max = 1)
+          @Description(shortDefinition = "Name of the output file")
+          StringType fileName,
+      HttpServletRequest request,
+      HttpServletResponse response)
+      throws IOException {
+    CanonicalOperation operation =
+        new CanonicalOperation(CanonicalOperation.Endpoint.V2_EXPORT_FILE);
+    operation.publishOperationName();
+
+    BulkExportJob job = findJob(jobId, request);
+    Optional<InputStream> file = bulkExportService.openOutputFile(job, fileName.getValue());
+    if (file.isEmpty()) {
+      throw new ResourceNotFoundException("No such export file: " + fileName.getValue());
+    }
+    try (InputStream inputStream = file.get()) {
+      // Add bene_id to MDC logs
+      LoggingUtils.logBeneIdToMdc(
+          bulkExportService.readBeneficiaryIds(job, fileName.getValue()).toArray(Long[]::new));
+      response.setStatus(HttpServletResponse.SC_OK);
+      response.setContentType(NDJSON_CONTENT_TYPE);
+      try (OutputStream outputStream = response.getOutputStream()) {
+        inputStream.transferTo(outputStream);
+      }
+    }
+  }
+
+  /**
+   * Finds an export job that was started with the request's client certificate.
+   *
+   * @param jobId the id of the job
+   * @param request the request, which holds the client certificate
+   * @return the job
+   * @throws IOException if the job's state can't be read
+   * @throws InvalidRequestException if the id isn't a valid job id
+   * @throws ResourceNotFoundException if there is no such job for the client
+   */
+  private BulkExportJob findJob(StringType jobId, HttpServletRequest request) throws IOException {
+    String id = jobId.getValue();
+    try {
+      // Only accept the canonical form, which also keeps the id from reaching outside of the
+      // job's files in the store.
+      if (!UUID.fromString(id).toString().equals(id)) {
+        throw new InvalidRequestException("Invalid _jobId: " + id);
+      }
+    } catch (IllegalArgumentException e) {
+      throw new InvalidRequestException("Invalid _jobId: " + id);
+    }
+    String clientIdentity = ClientCertificateUtils.getClientSslPrincipalDistinguishedName(request);
+    // Another client's job is reported the same way as a missing one, so that clients can't find
+    // out which jobs exist.
+    return bulkExportService
+        .getJob(id)
+        .filter(job -> Objects.equals(job.getClientIdentity(), clientIdentity))
+        .orElseThrow(() -> new ResourceNotFoundException("No such export: " + id));
+  }
+
+  /**
+   * Parses the {@code _type} parameter.
+   *
+   * @param type the comma separated resource types, or {@code null} for all of them
+   * @return the resource types, in the order their files are listed
+   * @throws InvalidRequestException if an unsupported resource type is given
+   */
+  static List<String> parseResourceTypes(StringType type) {
+    if (type == null || type.isEmpty()) {
+      return BulkExportService.SUPPORTED_RESOURCE_TYPES;
+    }
+    // Repeated types are harmless, so they are ignored rather than rejected.
+    Set<String> requestedTypes = new LinkedHashSet<>(List.of(splitOnCommas(type.getValue())));
+    for (String requestedType : requestedTypes) {
+      if (!BulkExportService.SUPPORTED_RESOURCE_TYPES.contains(requestedType)) {
+        throw new InvalidRequestException("Unsupported _type: " + requestedType);
+      }
+    }
+    return BulkExportService.SUPPORTED_RESOURCE_TYPES.stream()
+        .filter(requestedTypes::contains)
+        .toList();
+  }
+}
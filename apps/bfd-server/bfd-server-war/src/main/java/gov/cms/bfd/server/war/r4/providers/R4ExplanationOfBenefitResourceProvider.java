@@ -56,7 +56,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -505,8 +504,7 @@ public class R4ExplanationOfBenefitResourceProvider extends AbstractResourceProv
      * each claim type, then combine the results. It's not super efficient, but it's
      * also not so inefficient that it's worth fixing.
      */
-    List<Callable<PatientClaimsEobTaskTransformerV2>> callableTasks =
-        new ArrayList<>(claimsToProcess.size());
+    List<PatientClaimsEobTaskTransformerV2> callableTasks = new ArrayList<>(claimsToProcess.size());
     /*
      * We create the task bean by directly invoking the applications Spring
      * ApplicationContext to provide the bean; this is necessary as the tasks
@@ -530,6 +528,8 @@ public class R4ExplanationOfBenefitResourceProvider extends AbstractResourceProv
         });
 
     List<Future<PatientClaimsEobTaskTransformerV2>> futures;
+    // The tasks' queue wait starts here, rather than when each of them was set up.
+    callableTasks.forEach(PatientClaimsEobTaskTransformerV2::markSubmitted);
     futures = executorService.invokeAll(callableTasks);
 
     for (Future<PatientClaimsEobTaskTransformerV2> future : futures) {
@@ -24,12 +24,13 @@ import ca.uhn.fhir.rest.server.exceptions.UnclassifiedServerFailureException;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 import gov.cms.bfd.model.codebook.data.CcwCodebookVariable;
 import gov.cms.bfd.model.rif.entities.Beneficiary;
 import gov.cms.bfd.model.rif.entities.BeneficiaryHistory;
 import gov.cms.bfd.model.rif.entities.BeneficiaryHistory_;
-import gov.cms.bfd.model.rif.entities.BeneficiaryMonthly;
-import gov.cms.bfd.model.rif.entities.BeneficiaryMonthly_;
+import gov.cms.bfd.model.rif.entities.BeneficiaryPartDContractMonth;
+import gov.cms.bfd.model.rif.entities.BeneficiaryPartDContractMonth_;
 import gov.cms.bfd.model.rif.entities.Beneficiary_;
 import gov.cms.bfd.server.war.CanonicalOperation;
 import gov.cms.bfd.server.war.commons.CommonHeaders;
@@ -53,7 +54,6 @@ import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
-import jakarta.persistence.criteria.Subquery;
 import jakarta.persistence.metamodel.SingularAttribute;
 import java.time.LocalDate;
 import java.time.Year;
@@ -120,6 +120,12 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
   /** The expected coverage id length. */
   private static final int EXPECTED_COVERAGE_ID_LENGTH = 5;
 
+  /**
+   * The largest number of {@link Beneficiary}s loaded by a single query when transforming a page of
+   * contract members.
+   */
+  private static final int BENEFICIARY_FETCH_SIZE = 1000;
+
   /**
    * Instantiates a new {@link R4PatientResourceProvider}.
    *
@@ -387,6 +393,21 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
           String count,
       RequestDetails requestDetails) {
 
+    return searchByCoverageContractAndYearMonth(
+        coverageId, parseContractYearMonth(coverageId, referenceYear), requestDetails);
+  }
+
+  /**
+   * Determines the enrollment month that a Part D contract search is for. The month comes from the
+   * system of the contract parameter and the year from the reference year parameter, which defaults
+   * to the current year.
+   *
+   * @param coverageId the contract parameter, whose system names the month
+   * @param referenceYear the optional reference year parameter
+   * @return the first day of the enrollment month
+   * @throws InvalidRequestException if the month or year can't be parsed
+   */
+  public static LocalDate parseContractYearMonth(TokenParam coverageId, TokenParam referenceYear) {
     String contractMonth =
         coverageId.getSystem().substring(coverageId.getSystem().lastIndexOf('/') + 1);
     CcwCodebookVariable partDContractMonth = partDCwVariableFor(contractMonth);
@@ -404,7 +425,7 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
     }
 
     YearMonth ym = YearMonth.of(year, Integer.valueOf(contractMonthValue));
-    return searchByCoverageContractAndYearMonth(coverageId, ym.atDay(1), requestDetails);
+    return ym.atDay(1);
   }
 
   /**
@@ -469,7 +490,7 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
    * @throws InvalidRequestException (http 400 error) if the system did not match a known {@link
    *     CcwCodebookVariable}
    */
-  private CcwCodebookVariable partDCwVariableFor(String system) {
+  private static CcwCodebookVariable partDCwVariableFor(String system) {
     try {
       return CcwCodebookVariable.valueOf(system.toUpperCase());
     } catch (IllegalArgumentException e) {
@@ -920,19 +941,22 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
   }
 
   /**
-   * Query the DB for and return the matching {@link Beneficiary}s.
+   * Query the DB for and return the matching {@link Beneficiary}s, along with their {@link
+   * BeneficiaryHistory}s, in {@link Beneficiary#getBeneficiaryId()} order.
    *
    * @param ids the {@link Beneficiary#getBeneficiaryId()} values to match against
    * @return the matching {@link Beneficiary}s
    */
-  private List<Beneficiary> queryBeneficiariesByIdsWithBeneficiaryMonthlys(List<Long> ids) {
+  private List<Beneficiary> queryBeneficiariesByIdsWithBeneficiaryHistories(List<Long> ids) {
 
-    // Create the query to run.
+    // Create the query to run. Hibernate removes the duplicate roots produced by the fetch join
+    // itself, so there is no need to ask the database for distinct rows.
     CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-    CriteriaQuery<Beneficiary> beneCriteria = builder.createQuery(Beneficiary.class).distinct(true);
+    CriteriaQuery<Beneficiary> beneCriteria = builder.createQuery(Beneficiary.class);
     Root<Beneficiary> beneRoot = beneCriteria.from(Beneficiary.class);
     beneRoot.fetch(Beneficiary_.beneficiaryHistories, JoinType.LEFT);
     beneCriteria.where(beneRoot.get(Beneficiary_.beneficiaryId).in(ids));
+    beneCriteria.orderBy(builder.asc(beneRoot.get(Beneficiary_.beneficiaryId)));
 
     // Run the query and return the results.
     List<Beneficiary> matchingBenes = null;
@@ -966,7 +990,7 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
    * @throws InvalidRequestException if the {@link CcwCodebookVariable} is not one of the supported
    *     part d contract values
    */
-  private String partDFieldByMonth(CcwCodebookVariable month) {
+  private static String partDFieldByMonth(CcwCodebookVariable month) {
 
     Map<CcwCodebookVariable, String> mapOfMonth =
         new HashMap<CcwCodebookVariable, String>() {
@@ -1016,18 +1040,16 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
     requestHeader.getNVPairs().forEach((n, v) -> operation.setOption(n, v.toString()));
     operation.publishOperationName();
 
-    List<Beneficiary> matchingBeneficiaries =
-        fetchBeneficiariesByContractAndYearMonth(coverageId, yearMonth, paging);
-    boolean hasAnotherPage = matchingBeneficiaries.size() > paging.getPageSize();
+    List<Long> matchingBeneficiaryIds =
+        fetchBeneficiaryIdsByContractAndYearMonth(coverageId, yearMonth, paging);
+    boolean hasAnotherPage = matchingBeneficiaryIds.size() > paging.getPageSize();
     if (hasAnotherPage) {
-      matchingBeneficiaries = matchingBeneficiaries.subList(0, paging.getPageSize());
+      matchingBeneficiaryIds = matchingBeneficiaryIds.subList(0, paging.getPageSize());
       paging = new PatientLinkBuilder(paging, hasAnotherPage);
     }
 
     List<IBaseResource> patients =
-        matchingBeneficiaries.stream()
-            .map(b -> beneficiaryTransformerV2.transform(b, requestHeader))
-            .collect(Collectors.toList());
+        transformBeneficiariesByIds(matchingBeneficiaryIds, requestHeader);
     Bundle bundle =
         TransformerUtilsV2.createBundle(patients, paging, loadedFilterManager.getTransactionTime());
     TransformerUtilsV2.workAroundHAPIIssue1585(requestDetails);
@@ -1039,16 +1061,37 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
   }
 
   /**
-   * Fetch beneficiaries by contract and year-month.
+   * Transforms the {@link Beneficiary}s with the specified ids into {@link Patient}s, keeping the
+   * order of the ids. The beneficiaries are loaded {@link #BENEFICIARY_FETCH_SIZE} at a time and
+   * each group is transformed before the next one is loaded, so a large page never holds more than
+   * one group of entities in memory or binds more than one group of ids to a single query.
+   *
+   * @param ids the {@link Beneficiary#getBeneficiaryId()} values to transform, in ascending order
+   * @param requestHeader the {@link RequestHeaders} to pass to the transformer
+   * @return the transformed {@link Patient}s
+   */
+  private List<IBaseResource> transformBeneficiariesByIds(
+      List<Long> ids, RequestHeaders requestHeader) {
+    List<IBaseResource> patients = new ArrayList<>(ids.size());
+    for (List<Long> idsToFetch : Lists.partition(ids, BENEFICIARY_FETCH_SIZE)) {
+      for (Beneficiary beneficiary : queryBeneficiariesByIdsWithBeneficiaryHistories(idsToFetch)) {
+        patients.add(beneficiaryTransformerV2.transform(beneficiary, requestHeader));
+      }
+    }
+    return patients;
+  }
+
+  /**
+   * Fetch the ids of the beneficiaries enrolled in a contract for a year-month.
    *
    * @param coverageId a {@link TokenParam} specifying the Part D contract ID and the month to match
    *     against (yeah, the combo is weird)
    * @param yearMonth the enrollment month and year to match against
    * @param paging the {@link PatientLinkBuilder} being used for paging
-   * @return the {@link Beneficiary}s that match the specified PartD contract ID for the specified
-   *     year and month
+   * @return the {@link Beneficiary#getBeneficiaryId()}s that match the specified PartD contract ID
+   *     for the specified year and month, in ascending order
    */
-  private List<Beneficiary> fetchBeneficiariesByContractAndYearMonth(
+  private List<Long> fetchBeneficiaryIdsByContractAndYearMonth(
       TokenParam coverageId, LocalDate yearMonth, PatientLinkBuilder paging) {
     String contractCode = coverageId.getValueNotNull();
 
@@ -1084,48 +1127,32 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
      * either, as JPA
      * doesn't support `limit` on those.)
      */
-
-    // Fetch the Beneficiary.id values that we will get results for.
-    List<Long> ids =
-        queryBeneficiaryIdsByPartDContractCodeAndYearMonth(yearMonth, contractCode, paging);
-    if (ids.isEmpty()) {
-      return Collections.emptyList();
-    }
-
-    // Fetch the benes using the ids
-    return queryBeneficiariesByIdsWithBeneficiaryMonthlys(ids);
+    return queryBeneficiaryIdsByPartDContractCodeAndYearMonth(yearMonth, contractCode, paging);
   }
 
   /**
    * Query bene exists by part d contract code and year-month.
    *
-   * @param yearMonth the {@link BeneficiaryMonthly#getYearMonth()} value to match against
-   * @param contractId the {@link BeneficiaryMonthly#getPartDContractNumberId()} value to match
+   * @param yearMonth the {@link BeneficiaryPartDContractMonth#getYearMonth()} value to match
    *     against
-   * @return true if the {@link BeneficiaryMonthly} exists
+   * @param contractId the {@link BeneficiaryPartDContractMonth#getPartDContractNumberId()} value to
+   *     match against
+   * @return true if a matching {@link BeneficiaryPartDContractMonth} exists
    */
   private boolean queryBeneExistsByPartDContractCodeAndYearMonth(
       LocalDate yearMonth, String contractId) {
     // Create the query to run.
-    // Create the query to run.
     CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-    CriteriaQuery<BeneficiaryMonthly> beneExistsCriteria =
-        builder.createQuery(BeneficiaryMonthly.class);
-    Root<BeneficiaryMonthly> beneMonthlyRoot = beneExistsCriteria.from(BeneficiaryMonthly.class);
-
-    Subquery<Integer> beneExistsSubquery = beneExistsCriteria.subquery(Integer.class);
-    Root<BeneficiaryMonthly> beneMonthlyRootSubquery =
-        beneExistsSubquery.from(BeneficiaryMonthly.class);
-
-    beneExistsSubquery
-        .select(builder.literal(1))
-        .where(
-            builder.equal(beneMonthlyRootSubquery.get(BeneficiaryMonthly_.yearMonth), yearMonth),
-            builder.equal(
-                beneMonthlyRootSubquery.get(BeneficiaryMonthly_.partDContractNumberId),
-                contractId));
+    CriteriaQuery<Long> beneExistsCriteria = builder.createQuery(Long.class);
+    Root<BeneficiaryPartDContractMonth> contractMonthRoot =
+        beneExistsCriteria.from(BeneficiaryPartDContractMonth.class);
 
-    beneExistsCriteria.select(beneMonthlyRoot).where(builder.exists(beneExistsSubquery));
+    beneExistsCriteria.select(contractMonthRoot.get(BeneficiaryPartDContractMonth_.beneficiaryId));
+    beneExistsCriteria.where(
+        builder.equal(contractMonthRoot.get(BeneficiaryPartDContractMonth_.yearMonth), yearMonth),
+        builder.equal(
+            contractMonthRoot.get(BeneficiaryPartDContractMonth_.partDContractNumberId),
+            contractId));
 
     // Run the query and return the results.
     boolean matchingBeneExists = false;
@@ -1153,11 +1180,14 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
   }
 
   /**
-   * Query beneficiary ids by part d contract code and year-month.
+   * Query beneficiary ids by part d contract code and year-month. The ids are read from {@link
+   * BeneficiaryPartDContractMonth}, whose primary key starts with the contract and month and ends
+   * with the beneficiary id, so each page is a single ordered range of that index.
    *
-   * @param yearMonth the {@link BeneficiaryMonthly#getYearMonth()} value to match against
-   * @param contractId the {@link BeneficiaryMonthly#getPartDContractNumberId()} value to match
+   * @param yearMonth the {@link BeneficiaryPartDContractMonth#getYearMonth()} value to match
    *     against
+   * @param contractId the {@link BeneficiaryPartDContractMonth#getPartDContractNumberId()} value to
+   *     match against
    * @param paging the {@link PatientLinkBuilder} being used for paging
    * @return the {@link List} of matching {@link Beneficiary#getBeneficiaryId()} values
    */
@@ -1166,27 +1196,28 @@ public class R4PatientResourceProvider implements IResourceProvider, CommonHeade
     // Create the query to run.
     CriteriaBuilder builder = entityManager.getCriteriaBuilder();
     CriteriaQuery<Long> beneIdCriteria = builder.createQuery(Long.class);
-    Root<BeneficiaryMonthly> beneMonthlyRoot = beneIdCriteria.from(BeneficiaryMonthly.class);
+    Root<BeneficiaryPartDContractMonth> contractMonthRoot =
+        beneIdCriteria.from(BeneficiaryPartDContractMonth.class);
 
-    beneIdCriteria.select(
-        beneMonthlyRoot.get(BeneficiaryMonthly_.parentBeneficiary).get(Beneficiary_.beneficiaryId));
+    beneIdCriteria.select(contractMonthRoot.get(BeneficiaryPartDContractMonth_.beneficiaryId));
 
     List<Predicate> wherePredicates = new ArrayList<>();
     wherePredicates.add(
-        builder.equal(beneMonthlyRoot.get(BeneficiaryMonthly_.yearMonth), yearMonth));
+        builder.equal(contractMonthRoot.get(BeneficiaryPartDContractMonth_.yearMonth), yearMonth));
     wherePredicates.add(
-        builder.equal(beneMonthlyRoot.get(BeneficiaryMonthly_.partDContractNumberId), contractId));
+        builder.equal(
+            contractMonthRoot.get(BeneficiaryPartDContractMonth_.partDContractNumberId),
+            contractId));
     if (paging.isPagingRequested() && !paging.isFirstPage()) {
       wherePredicates.add(
           builder.greaterThan(
-              beneMonthlyRoot
-                  .get(BeneficiaryMonthly_.parentBeneficiary)
-                  .get(Beneficiary_.beneficiaryId),
+              contractMonthRoot.get(BeneficiaryPartDContractMonth_.beneficiaryId),
               paging.getCursor()));
     }
     beneIdCriteria.where(
         builder.and(wherePredicates.toArray(new Predicate[wherePredicates.size()])));
-    beneIdCriteria.orderBy(builder.asc(beneMonthlyRoot.get(BeneficiaryMonthly_.parentBeneficiary)));
+    beneIdCriteria.orderBy(
+        builder.asc(contractMonthRoot.get(BeneficiaryPartDContractMonth_.beneficiaryId)));
 
     // Run the query and return the results.
     List<Long> matchingBeneIds = null;
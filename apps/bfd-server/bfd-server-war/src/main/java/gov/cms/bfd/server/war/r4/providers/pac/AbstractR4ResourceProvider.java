@@ -44,12 +44,14 @@ import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -119,6 +121,12 @@ public abstract class AbstractR4ResourceProvider<T extends IBaseResource>
   /** Flag to control whether SAMHSA shadow filtering should be applied. */
   private final boolean samhsaV2Shadow;
 
+  /**
+   * The largest number of claim entities of a type that are loaded at once, or a non-positive
+   * number to load all of them at once.
+   */
+  private final int claimQueryWindowSize;
+
   private final SecurityTagsDao securityTagsDao;
 
   /**
@@ -135,6 +143,8 @@ public abstract class AbstractR4ResourceProvider<T extends IBaseResource>
    * @param securityTagsDao security Tags Dao
    * @param samhsaV2InterceptorShadow the v2SamhsaConsentSimulation resources ({@link
    *     org.hl7.fhir.r4.model.Claim} / {@link org.hl7.fhir.r4.model.ClaimResponse}
+   * @param claimQueryWindowSize the largest number of claim entities of a type that are loaded at
+   *     once, or a non-positive number to load all of them at once
    */
   protected AbstractR4ResourceProvider(
       MetricRegistry metricRegistry,
@@ -145,7 +155,8 @@ public abstract class AbstractR4ResourceProvider<T extends IBaseResource>
       String claimSourceTypeNames,
       SamhsaV2InterceptorShadow samhsaV2InterceptorShadow,
       SecurityTagsDao securityTagsDao,
-      boolean samhsaV2Shadow) {
+      boolean samhsaV2Shadow,
+      int claimQueryWindowSize) {
     this.metricRegistry = metricRegistry;
     this.samhsaMatcher = samhsaMatcher;
     this.oldMbiHashEnabled = oldMbiHashEnabled;
@@ -154,6 +165,7 @@ public abstract class AbstractR4ResourceProvider<T extends IBaseResource>
     this.samhsaV2InterceptorShadow = samhsaV2InterceptorShadow;
     this.securityTagsDao = securityTagsDao;
     this.samhsaV2Shadow = samhsaV2Shadow;
+    this.claimQueryWindowSize = claimQueryWindowSize;
 
     requireNonNull(claimSourceTypeNames);
     enabledSourceTypes =
@@ -514,51 +526,9 @@ public abstract class AbstractR4ResourceProvider<T extends IBaseResource>
       DateRangeParam serviceDate,
       OffsetLinkBuilder paging,
       BundleOptions bundleOptions) {
-    var entitiesWithType =
-        resourceTypes.stream()
-            // There may be multiple resource types which will each result in a list of claim
-            // entities. So, to ensure that we have a flat list of entities to their type, we use
-            // flatMap
-            .flatMap(
-                type ->
-                    claimDao
-                        .findAllByMbiAttribute(
-                            type, mbi, bundleOptions.isHashed, lastUpdated, serviceDate)
-                        .stream()
-                        .map(e -> new ImmutablePair<>(e, type)))
-            .toList();
-
-    // Log nonsensitive MBI identifiers for a given Claim/ClaimResponse request for use in
-    // historical analysis
-    entitiesWithType.stream()
-        .map(pair -> getClaimEntityMbi(pair.right, pair.left.getClaimEntity()))
-        .filter(Objects::nonNull)
-        // We choose the first MBI from the first, valid claim entity (technically, all entities
-        // should fit these criteria or something is very wrong) in the Stream as the MBI
-        // will be the same for all returned claims, so there is no reason to evaluate the entire
-        // Stream
-        .findFirst()
-        .ifPresent(this::logMbiIdentifiersToMdc);
-
-    List<T> resources =
-        entitiesWithType.stream()
-            .filter(
-                pair -> {
-                  boolean hasNoSamhsaData = samhsaMatcher.hasNoSamhsaData(pair.left);
-
-                  if (samhsaV2Shadow) {
-                    // Log if missing claim for samhsa V2 Shadow check before filtering
-                    samhsaV2InterceptorShadow.logMissingClaim(pair.left, !hasNoSamhsaData);
-                  }
-
-                  return !bundleOptions.excludeSamhsa || hasNoSamhsaData;
-                })
-            .map(
-                pair ->
-                    transformEntity(pair.right, pair.getLeft(), bundleOptions.includeTaxNumbers))
-            // Enforces a specific sorting for pagination that parities the EOB resource sorting.
-            .sorted(Comparator.comparing(r -> r.getIdElement().getIdPart()))
-            .collect(Collectors.toList());
+    List<T> resources = findResources(resourceTypes, mbi, lastUpdated, serviceDate, bundleOptions);
+    // Enforces a specific sorting for pagination that parities the EOB resource sorting.
+    resources.sort(Comparator.comparing(r -> r.getIdElement().getIdPart()));
 
     Bundle bundle = new Bundle();
     bundle.setTotal(resources.size());
@@ -583,6 +553,100 @@ public abstract class AbstractR4ResourceProvider<T extends IBaseResource>
     return bundle;
   }
 
+  /**
+   * Finds and transforms the claims of the given {@link ResourceTypeV2}s. If {@link
+   * #claimQueryWindowSize} is positive the claims of each type are loaded and transformed a window
+   * at a time, so that no more than one window of claim entities is held in memory at once.
+   *
+   * @param resourceTypes The {@link ResourceTypeV2} data to retrieve.
+   * @param mbi The mbi to look up associated data for.
+   * @param lastUpdated Date range of desired lastUpdate values to retrieve data for.
+   * @param serviceDate Date range of the desired service date to retrieve data for.
+   * @param bundleOptions Bundle related options that affect the results.
+   * @return The resources, in no particular order.
+   */
+  private List<T> findResources(
+      Set<ResourceTypeV2<T, ?>> resourceTypes,
+      String mbi,
+      DateRangeParam lastUpdated,
+      DateRangeParam serviceDate,
+      BundleOptions bundleOptions) {
+    List<T> resources = new ArrayList<>();
+    AtomicBoolean mbiIdentifiersLogged = new AtomicBoolean();
+    for (ResourceTypeV2<T, ?> type : resourceTypes) {
+      if (claimQueryWindowSize > 0) {
+        claimDao.findAllByMbiAttributeInWindows(
+            type,
+            mbi,
+            bundleOptions.isHashed,
+            lastUpdated,
+            serviceDate,
+            claimQueryWindowSize,
+            window ->
+                resources.addAll(
+                    transformEntities(type, window, bundleOptions, mbiIdentifiersLogged)));
+      } else {
+        resources.addAll(
+            transformEntities(
+                type,
+                claimDao.findAllByMbiAttribute(
+                    type, mbi, bundleOptions.isHashed, lastUpdated, serviceDate),
+                bundleOptions,
+                mbiIdentifiersLogged));
+      }
+    }
+    return resources;
+  }
+
+  /**
+   * Transforms claim entities of a single {@link ResourceTypeV2} into resources, skipping SAMHSA
+   * claims if they are to be excluded.
+   *
+   * @param type The {@link ResourceTypeV2} of the entities.
+   * @param entities The entities to transform.
+   * @param bundleOptions Bundle related options that affect the results.
+   * @param mbiIdentifiersLogged Whether the MBI identifiers of the request have been logged yet,
+   *     which is set once they have been.
+   * @return The resources.
+   */
+  private List<T> transformEntities(
+      ResourceTypeV2<T, ?> type,
+      List<? extends ClaimWithSecurityTags<?>> entities,
+      BundleOptions bundleOptions,
+      AtomicBoolean mbiIdentifiersLogged) {
+    // Log nonsensitive MBI identifiers for a given Claim/ClaimResponse request for use in
+    // historical analysis
+    if (!mbiIdentifiersLogged.get()) {
+      entities.stream()
+          .map(entity -> getClaimEntityMbi(type, entity.getClaimEntity()))
+          .filter(Objects::nonNull)
+          // We choose the first MBI from the first, valid claim entity (technically, all entities
+          // should fit these criteria or something is very wrong) as the MBI will be the same for
+          // all returned claims, so there is no reason to evaluate the rest
+          .findFirst()
+          .ifPresent(
+              claimEntityMbi -> {
+                logMbiIdentifiersToMdc(claimEntityMbi);
+                mbiIdentifiersLogged.set(true);
+              });
+    }
+
+    return entities.stream()
+        .filter(
+            entity -> {
+              boolean hasNoSamhsaData = samhsaMatcher.hasNoSamhsaData(entity);
+
+              if (samhsaV2Shadow) {
+                // Log if missing claim for samhsa V2 Shadow check before filtering
+                samhsaV2InterceptorShadow.logMissingClaim(entity, !hasNoSamhsaData);
+              }
+
+              return !bundleOptions.excludeSamhsa || hasNoSamhsaData;
+            })
+        .map(entity -> transformEntity(type, entity, bundleOptions.includeTaxNumbers))
+        .collect(Collectors.toList());
+  }
+
   /** Helper class for passing bundle result options. */
   private static class BundleOptions {
 
@@ -1,6 +1,7 @@
 package gov.cms.bfd.server.war.r4.providers.pac;
 
 import static gov.cms.bfd.server.war.SpringConfiguration.PAC_OLD_MBI_HASH_ENABLED;
+import static gov.cms.bfd.server.war.SpringConfiguration.PROP_CLAIM_QUERY_WINDOW_SIZE;
 import static gov.cms.bfd.server.war.SpringConfiguration.SSM_PATH_PAC_CLAIM_SOURCE_TYPES;
 import static gov.cms.bfd.server.war.SpringConfiguration.SSM_PATH_SAMHSA_V2_SHADOW;
 
@@ -42,6 +43,8 @@ public class R4ClaimResourceProvider extends AbstractR4ResourceProvider<Claim> {
    * @param samhsaV2Shadow the samhsa V2 Shadow flag
    * @param samhsaV2InterceptorShadow v2SamhsaConsentSimulation resources ({@link
    *     org.hl7.fhir.r4.model.Claim} / {@link org.hl7.fhir.r4.model.ClaimResponse}
+   * @param claimQueryWindowSize the largest number of claim entities of a type that are loaded at
+   *     once, or a non-positive number to load all of them at once
    */
   public R4ClaimResourceProvider(
       MetricRegistry metricRegistry,
@@ -52,7 +55,8 @@ public class R4ClaimResourceProvider extends AbstractR4ResourceProvider<Claim> {
       SamhsaV2InterceptorShadow samhsaV2InterceptorShadow,
       SecurityTagsDao securityTagsDao,
       @Value("${" + SSM_PATH_PAC_CLAIM_SOURCE_TYPES + ":}") String claimSourceTypeNames,
-      @Value("${" + SSM_PATH_SAMHSA_V2_SHADOW + ":false}") boolean samhsaV2Shadow) {
+      @Value("${" + SSM_PATH_SAMHSA_V2_SHADOW + ":false}") boolean samhsaV2Shadow,
+      @Value("${" + PROP_CLAIM_QUERY_WINDOW_SIZE + ":0}") int claimQueryWindowSize) {
     super(
         metricRegistry,
         samhsaMatcher,
@@ -62,7 +66,8 @@ public class R4ClaimResourceProvider extends AbstractR4ResourceProvider<Claim> {
         claimSourceTypeNames,
         samhsaV2InterceptorShadow,
         securityTagsDao,
-        samhsaV2Shadow);
+        samhsaV2Shadow,
+        claimQueryWindowSize);
   }
 
   /** {@inheritDoc} */
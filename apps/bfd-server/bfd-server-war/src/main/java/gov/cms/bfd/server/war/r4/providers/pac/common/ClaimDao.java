@@ -6,6 +6,7 @@ import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import gov.cms.bfd.model.rda.Mbi;
 import gov.cms.bfd.server.war.commons.CommonTransformerUtils;
+import gov.cms.bfd.server.war.commons.QueryResultWindows;
 import gov.cms.bfd.server.war.commons.QueryUtils;
 import gov.cms.bfd.server.war.commons.SecurityTagManager;
 import gov.cms.bfd.server.war.commons.SecurityTagsDao;
@@ -21,7 +22,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 
@@ -117,7 +121,93 @@ public class ClaimDao {
       boolean isMbiSearchValueHashed,
       DateRangeParam lastUpdated,
       DateRangeParam serviceDate) {
+    final CriteriaQuery<T> criteria =
+        createFindAllByMbiCriteria(
+            resourceType, mbiSearchValue, isMbiSearchValueHashed, lastUpdated, serviceDate);
 
+    List<T> claimEntities = null;
+
+    Timer.Context timerClaimQuery =
+        getTimerForResourceQuery(resourceType, CLAIM_BY_MBI_QUERY).time();
+    try {
+      claimEntities = entityManager.createQuery(criteria).getResultList();
+    } finally {
+      logQueryMetric(
+          resourceType,
+          CLAIM_BY_MBI_QUERY,
+          timerClaimQuery.stop(),
+          claimEntities == null ? 0 : claimEntities.size());
+    }
+
+    if (claimEntities == null) {
+      return new ArrayList<>();
+    }
+    return attachSecurityTags(resourceType, claimEntities, Optional.empty());
+  }
+
+  /**
+   * Find records by MBI (hashed or unhashed) for a given {@link ResourceTypeV2}, like {@link
+   * #findAllByMbiAttribute}, but pass them to a consumer a window at a time. Each window's entities
+   * are released before the next window is loaded, so the consumer must be done with them when it
+   * returns. The security tags are looked up on the connection the claims are read on, so only one
+   * connection is held at a time.
+   *
+   * @param resourceType The {@link ResourceTypeV2} that defines properties required for the query.
+   * @param mbiSearchValue The desired value of the mbi attribute be searched on.
+   * @param isMbiSearchValueHashed True if the mbiSearchValue is a hashed MBI.
+   * @param lastUpdated The range of lastUpdated values to search on.
+   * @param serviceDate The range of the desired service date to search on.
+   * @param windowSize The largest number of entities passed to the consumer at a time.
+   * @param windowConsumer Receives each window of matching entities, in id order.
+   * @param <T> The entity type being retrieved.
+   */
+  public <T> void findAllByMbiAttributeInWindows(
+      ResourceTypeV2<?, T> resourceType,
+      String mbiSearchValue,
+      boolean isMbiSearchValueHashed,
+      DateRangeParam lastUpdated,
+      DateRangeParam serviceDate,
+      int windowSize,
+      Consumer<List<ClaimWithSecurityTags<T>>> windowConsumer) {
+    final CriteriaQuery<T> criteria =
+        createFindAllByMbiCriteria(
+            resourceType, mbiSearchValue, isMbiSearchValueHashed, lastUpdated, serviceDate);
+
+    try (QueryResultWindows<T> windows =
+        QueryResultWindows.open(entityManager.getEntityManagerFactory(), criteria, windowSize)) {
+      try {
+        while (windows.hasNext()) {
+          windowConsumer.accept(
+              attachSecurityTags(
+                  resourceType, windows.next(), Optional.of(windows.getEntityManager())));
+        }
+      } finally {
+        // Only the time spent in the database counts, not the time spent in the consumer.
+        getTimerForResourceQuery(resourceType, CLAIM_BY_MBI_QUERY)
+            .update(windows.getFetchNanos(), TimeUnit.NANOSECONDS);
+        logQueryMetric(
+            resourceType, CLAIM_BY_MBI_QUERY, windows.getFetchNanos(), windows.getResultCount());
+      }
+    }
+  }
+
+  /**
+   * Creates the query used to find records by MBI for a given {@link ResourceTypeV2}.
+   *
+   * @param resourceType The {@link ResourceTypeV2} that defines properties required for the query.
+   * @param mbiSearchValue The desired value of the mbi attribute be searched on.
+   * @param isMbiSearchValueHashed True if the mbiSearchValue is a hashed MBI.
+   * @param lastUpdated The range of lastUpdated values to search on.
+   * @param serviceDate The range of the desired service date to search on.
+   * @param <T> The entity type being retrieved.
+   * @return The query, ordered by the entity id.
+   */
+  private <T> CriteriaQuery<T> createFindAllByMbiCriteria(
+      ResourceTypeV2<?, T> resourceType,
+      String mbiSearchValue,
+      boolean isMbiSearchValueHashed,
+      DateRangeParam lastUpdated,
+      DateRangeParam serviceDate) {
     final Class<T> entityClass = resourceType.getEntityClass();
     final String idAttributeName = resourceType.getEntityIdAttribute();
     final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
@@ -141,49 +231,51 @@ public class ClaimDao {
 
     // Sorting to ensure predictable responses
     criteria.orderBy(builder.asc(root.get(idAttributeName)));
+    return criteria;
+  }
 
-    List<T> claimEntities = null;
-
-    Timer.Context timerClaimQuery =
-        getTimerForResourceQuery(resourceType, CLAIM_BY_MBI_QUERY).time();
-    try {
-      claimEntities = entityManager.createQuery(criteria).getResultList();
-    } finally {
-      logQueryMetric(
-          resourceType,
-          CLAIM_BY_MBI_QUERY,
-          timerClaimQuery.stop(),
-          claimEntities == null ? 0 : claimEntities.size());
-    }
-
+  /**
+   * Looks up the security tags of the given claims and wraps each claim with its tags.
+   *
+   * @param resourceType The {@link ResourceTypeV2} of the claims.
+   * @param claimEntities The claims.
+   * @param tagsEntityManager The entity manager to look up the tags on, or empty to use the {@link
+   *     SecurityTagsDao}'s own.
+   * @param <T> The entity type of the claims.
+   * @return The claims with their tags.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> List<ClaimWithSecurityTags<T>> attachSecurityTags(
+      ResourceTypeV2<?, T> resourceType,
+      List<T> claimEntities,
+      Optional<EntityManager> tagsEntityManager) {
     List<ClaimWithSecurityTags<T>> claimEntitiesWithTags = new ArrayList<>();
-    Set<String> claimIds;
     SecurityTagManager securityTagManager = new SecurityTagManager();
-
-    if (claimEntities != null) {
-      claimIds = securityTagManager.collectClaimIds((List<Object>) claimEntities);
-
-      if (!claimIds.isEmpty()) {
-        // Query for security tags by the collected claim IDs
-        Map<String, Set<String>> claimIdToTagsMap =
-            securityTagsDao.buildClaimIdToTagsMap(resourceType.getEntityTagType(), claimIds);
-
-        // Process all claims using the map from the single query
-        claimEntities.stream()
-            .forEach(
-                claimEntity -> {
-                  // Get the claim ID
-                  String claimId = securityTagManager.extractClaimId(claimEntity);
-
-                  // Look up this claim's tags from our pre-fetched map (no additional DB query)
-                  Set<String> claimSpecificTags =
-                      claimIdToTagsMap.getOrDefault(claimId, Collections.emptySet());
-
-                  // Wrap the claim and its tags in the response object
-                  claimEntitiesWithTags.add(
-                      new ClaimWithSecurityTags<>(claimEntity, claimSpecificTags));
-                });
-      }
+    Set<String> claimIds = securityTagManager.collectClaimIds((List<Object>) claimEntities);
+
+    if (!claimIds.isEmpty()) {
+      // Query for security tags by the collected claim IDs
+      Map<String, Set<String>> claimIdToTagsMap =
+          tagsEntityManager.isPresent()
+              ? securityTagsDao.buildClaimIdToTagsMap(
+                  tagsEntityManager.get(), resourceType.getEntityTagType(), claimIds)
+              : securityTagsDao.buildClaimIdToTagsMap(resourceType.getEntityTagType(), claimIds);
+
+      // Process all claims using the map from the single query
+      claimEntities.stream()
+          .forEach(
+              claimEntity -> {
+                // Get the claim ID
+                String claimId = securityTagManager.extractClaimId(claimEntity);
+
+                // Look up this claim's tags from our pre-fetched map (no additional DB query)
+                Set<String> claimSpecificTags =
+                    claimIdToTagsMap.getOrDefault(claimId, Collections.emptySet());
+
+                // Wrap the claim and its tags in the response object
+                claimEntitiesWithTags.add(
+                    new ClaimWithSecurityTags<>(claimEntity, claimSpecificTags));
+              });
     }
     return claimEntitiesWithTags;
   }
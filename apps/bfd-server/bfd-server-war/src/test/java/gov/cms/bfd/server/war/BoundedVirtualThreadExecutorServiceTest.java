@@ -0,0 +1,63 @@
+package gov.cms.bfd.server.war;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link BoundedVirtualThreadExecutorService}. */
+public final class BoundedVirtualThreadExecutorServiceTest {
+  /**
+   * Verifies that all tasks run, on virtual threads, but never more of them at once than the
+   * configured limit.
+   *
+   * @throws Exception if the tasks fail or the test is interrupted
+   */
+  @Test
+  public void runsAllTasksWithinConcurrencyLimit() throws Exception {
+    BoundedVirtualThreadExecutorService executor =
+        new BoundedVirtualThreadExecutorService("test_", 2);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(2);
+
+    List<Callable<Boolean>> tasks = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      tasks.add(
+          () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            // Hold the permit until two tasks are running so that the others have to wait
+            started.await();
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return Thread.currentThread().isVirtual();
+          });
+    }
+    try {
+      for (Future<Boolean> future : executor.invokeAll(tasks)) {
+        assertTrue(future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(2, maxRunning.get());
+    assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+  }
+
+  /** Verifies that a non-positive limit is rejected. */
+  @Test
+  public void constructorRejectsInvalidLimit() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new BoundedVirtualThreadExecutorService("test_", 0));
+  }
+}
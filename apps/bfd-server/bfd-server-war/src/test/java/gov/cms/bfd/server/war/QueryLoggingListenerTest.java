@@ -192,4 +192,29 @@ public final class QueryLoggingListenerTest {
 
     assertEquals(QueryType.CHECK_CLAIMS_MASK, QueryType.computeQueryType(queryInfo));
   }
+
+  /**
+   * Verifies that {@link QueryType#BENE_EXISTS_BY_YEAR_MONTH_PARTD_CONTRACT_ID} works as expected.
+   */
+  @Test
+  public void computeQueryType_BENE_EXISTS_BY_YEAR_MONTH_PARTD_CONTRACT_ID() {
+    QueryInfo queryInfo =
+        new QueryInfo(
+            "select bpcm1_0.bene_id from ccw.beneficiary_partd_contract_months bpcm1_0 where bpcm1_0.year_month=? and bpcm1_0.partd_contract_number_id=? fetch first ? rows only");
+
+    assertEquals(
+        QueryType.BENE_EXISTS_BY_YEAR_MONTH_PARTD_CONTRACT_ID,
+        QueryType.computeQueryType(queryInfo));
+  }
+
+  /** Verifies that {@link QueryType#BENE_IDS_BY_YEAR_MONTH_PARTD_CONTRACT_ID} works as expected. */
+  @Test
+  public void computeQueryType_BENE_IDS_BY_YEAR_MONTH_PARTD_CONTRACT_ID() {
+    QueryInfo queryInfo =
+        new QueryInfo(
+            "select bpcm1_0.bene_id from ccw.beneficiary_partd_contract_months bpcm1_0 where bpcm1_0.year_month=? and bpcm1_0.partd_contract_number_id=? and bpcm1_0.bene_id>? order by bpcm1_0.bene_id fetch first ? rows only");
+
+    assertEquals(
+        QueryType.BENE_IDS_BY_YEAR_MONTH_PARTD_CONTRACT_ID, QueryType.computeQueryType(queryInfo));
+  }
 }
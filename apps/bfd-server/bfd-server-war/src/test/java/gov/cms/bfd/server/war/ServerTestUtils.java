@@ -16,6 +16,7 @@ import gov.cms.bfd.model.rif.RifRecordBase;
 import gov.cms.bfd.model.rif.entities.Beneficiary;
 import gov.cms.bfd.model.rif.entities.BeneficiaryHistory;
 import gov.cms.bfd.model.rif.entities.BeneficiaryMonthly;
+import gov.cms.bfd.model.rif.entities.BeneficiaryPartDContractMonth;
 import gov.cms.bfd.model.rif.entities.CarrierClaim;
 import gov.cms.bfd.model.rif.entities.CarrierClaimLine;
 import gov.cms.bfd.model.rif.entities.DMEClaim;
@@ -662,6 +663,7 @@ public final class ServerTestUtils {
             CarrierClaim.class,
             BeneficiaryHistory.class,
             BeneficiaryMonthly.class,
+            BeneficiaryPartDContractMonth.class,
             Beneficiary.class,
             LoadedBatch.class,
             LoadedFile.class);
@@ -0,0 +1,82 @@
+package gov.cms.bfd.server.war;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import java.io.StringWriter;
+import java.util.Date;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.hl7.fhir.r4.model.Organization;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link StreamingBundleInterceptor}. */
+public final class StreamingBundleInterceptorTest {
+  /** Parser used for both the expected and the streamed encoding. */
+  private final IParser parser = FhirContext.forR4().newJsonParser();
+
+  /**
+   * Verifies that {@link StreamingBundleInterceptor#writeBundle} produces exactly the same JSON as
+   * HAPI's own encoding of the whole bundle.
+   */
+  @Test
+  public void writeBundleMatchesHapiEncoding() {
+    Bundle bundle = createBundle(3);
+    String expected = parser.encodeResourceToString(bundle);
+
+    StringWriter writer = new StringWriter();
+    StreamingBundleInterceptor.writeBundle(parser, bundle, writer);
+
+    assertEquals(expected, writer.toString());
+  }
+
+  /**
+   * Verifies that the entries are restored to the bundle after writing but that each entry's
+   * resource has been released.
+   */
+  @Test
+  public void writeBundleReleasesWrittenResources() {
+    Bundle bundle = createBundle(2);
+
+    StreamingBundleInterceptor.writeBundle(parser, bundle, new StringWriter());
+
+    assertEquals(2, bundle.getEntry().size());
+    bundle.getEntry().forEach(entry -> assertNull(entry.getResource()));
+  }
+
+  /** Verifies that a non-positive window size is rejected. */
+  @Test
+  public void constructorRejectsInvalidWindowSize() {
+    assertThrows(IllegalArgumentException.class, () -> new StreamingBundleInterceptor(0));
+  }
+
+  /**
+   * Creates a search bundle resembling an EOB search response.
+   *
+   * @param eobCount number of {@link ExplanationOfBenefit} entries to add
+   * @return the bundle
+   */
+  private static Bundle createBundle(int eobCount) {
+    Bundle bundle = new Bundle();
+    bundle.setId("bundle-id");
+    bundle.setType(Bundle.BundleType.SEARCHSET);
+    bundle.setTotal(eobCount);
+    bundle.getMeta().setLastUpdated(new Date(0));
+    bundle.addLink().setRelation(Bundle.LINK_SELF).setUrl("https://localhost/v2/fhir/eob");
+    for (int i = 0; i < eobCount; i++) {
+      ExplanationOfBenefit eob = new ExplanationOfBenefit();
+      eob.setId("carrier-" + i);
+      eob.getMeta().setLastUpdated(new Date(1000L * i));
+      eob.getPatient().setReference("Patient/567834");
+      Organization organization = new Organization();
+      organization.setId("provider-org");
+      organization.setName("Provider " + i);
+      eob.addContained(organization);
+      bundle.addEntry().setResource(eob);
+    }
+    return bundle;
+  }
+}
@@ -0,0 +1,177 @@
+package gov.cms.bfd.server.war.commons;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for {@link LocalBulkExportStore}. */
+public final class LocalBulkExportStoreTest {
+  /** The directory the store and the test's source files live in. */
+  @TempDir Path tempDirectory;
+
+  /** The store being tested. */
+  private LocalBulkExportStore store;
+
+  /** Creates the store under a root directory that doesn't exist yet. */
+  @BeforeEach
+  void setUp() {
+    store = new LocalBulkExportStore(tempDirectory.resolve("store"));
+  }
+
+  /**
+   * Verifies that files written from bytes and from a local file can be read back, and that writing
+   * a file again replaces its contents.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testWriteAndRead() throws IOException {
+    Path source = tempDirectory.resolve("source.ndjson");
+    Files.writeString(source, "{\"a\":1}\n");
+
+    store.write("job-1", "Patient-1.ndjson", source);
+    store.write("job-1", "job.json", "{}".getBytes(StandardCharsets.UTF_8));
+    store.write("job-1", "job.json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+    assertArrayEquals(Files.readAllBytes(source), read("job-1", "Patient-1.ndjson"));
+    assertEquals("{\"id\":1}", new String(read("job-1", "job.json"), StandardCharsets.UTF_8));
+    // The temporary files used for writing are never left behind.
+    try (var files = Files.list(tempDirectory.resolve("store").resolve("job-1"))) {
+      assertEquals(2, files.count());
+    }
+  }
+
+  /**
+   * Verifies that reading a file that doesn't exist returns an empty result.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testReadMissingFile() throws IOException {
+    assertFalse(store.read("job-1", "job.json").isPresent());
+    store.write("job-1", "job.json", new byte[0]);
+    assertFalse(store.read("job-1", "Patient-1.ndjson").isPresent());
+  }
+
+  /**
+   * Verifies that a file is only written over the version it was last read or written with, and is
+   * only created when no version is given.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testWriteIfVersion() throws IOException {
+    byte[] first = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+    byte[] second = "{\"id\":2}".getBytes(StandardCharsets.UTF_8);
+
+    assertFalse(store.writeIfVersion("job-1", "job.json", first, "missing").isPresent());
+    Optional<String> firstVersion = store.writeIfVersion("job-1", "job.json", first, null);
+    assertTrue(firstVersion.isPresent());
+    assertFalse(store.writeIfVersion("job-1", "job.json", second, null).isPresent());
+    assertEquals(
+        firstVersion,
+        store.readVersioned("job-1", "job.json").map(BulkExportStore.VersionedFile::version));
+
+    Optional<String> secondVersion =
+        store.writeIfVersion("job-1", "job.json", second, firstVersion.get());
+    assertTrue(secondVersion.isPresent());
+    assertFalse(store.writeIfVersion("job-1", "job.json", first, firstVersion.get()).isPresent());
+    BulkExportStore.VersionedFile file = store.readVersioned("job-1", "job.json").orElseThrow();
+    assertArrayEquals(second, file.contents());
+    assertEquals(secondVersion.get(), file.version());
+
+    // A deleted job isn't brought back by a server that still holds an old version.
+    store.delete("job-1");
+    assertFalse(store.writeIfVersion("job-1", "job.json", first, secondVersion.get()).isPresent());
+    assertEquals(List.of(), store.listJobIds());
+  }
+
+  /**
+   * Verifies that the jobs are listed in order and that deleting a job removes all of its files.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testListAndDeleteJobs() throws IOException {
+    assertEquals(List.of(), store.listJobIds());
+
+    store.write("job-2", "job.json", new byte[0]);
+    store.write("job-1", "job.json", new byte[0]);
+    store.write("job-1", "Patient-1.ndjson", new byte[0]);
+    assertEquals(List.of("job-1", "job-2"), store.listJobIds());
+
+    store.delete("job-1");
+    store.delete("job-3");
+    assertEquals(List.of("job-2"), store.listJobIds());
+    assertTrue(store.read("job-2", "job.json").isPresent());
+  }
+
+  /**
+   * Verifies that the directories and files the store creates can only be accessed by their owner,
+   * even when the file they are copied from can be read by anyone.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testFilesAreOwnerOnly() throws IOException {
+    assumeTrue(tempDirectory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+    Path source = tempDirectory.resolve("source.ndjson");
+    Files.writeString(source, "{}\n");
+    Files.setPosixFilePermissions(source, PosixFilePermissions.fromString("rw-r--r--"));
+
+    store.write("job-1", "Patient-1.ndjson", source);
+    store.write("job-1", "beneficiaries-1.txt", new byte[0]);
+    store.writeIfVersion("job-1", "job.json", new byte[0], null);
+
+    Path rootDirectory = tempDirectory.resolve("store");
+    Path jobDirectory = rootDirectory.resolve("job-1");
+    assertEquals("rwx------", permissions(rootDirectory));
+    assertEquals("rwx------", permissions(jobDirectory));
+    try (var files = Files.list(jobDirectory)) {
+      for (Path file : files.toList()) {
+        assertEquals("rw-------", permissions(file), file.toString());
+      }
+    }
+  }
+
+  /**
+   * Gets the POSIX permissions of a file.
+   *
+   * @param path the file
+   * @return the permissions, such as {@code rw-------}
+   * @throws IOException if the permissions can't be read
+   */
+  private static String permissions(Path path) throws IOException {
+    return PosixFilePermissions.toString(Files.getPosixFilePermissions(path));
+  }
+
+  /**
+   * Reads the contents of a file that must exist.
+   *
+   * @param jobId the id of the job the file belongs to
+   * @param fileName the name of the file
+   * @return the file's contents
+   * @throws IOException if the file can't be read
+   */
+  private byte[] read(String jobId, String fileName) throws IOException {
+    Optional<InputStream> file = store.read(jobId, fileName);
+    assertTrue(file.isPresent());
+    try (InputStream inputStream = file.get()) {
+      return inputStream.readAllBytes();
+    }
+  }
+}
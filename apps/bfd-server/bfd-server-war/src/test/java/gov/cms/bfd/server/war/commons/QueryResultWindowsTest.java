@@ -0,0 +1,133 @@
+package gov.cms.bfd.server.war.commons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/** Unit tests for {@link QueryResultWindows}. */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public final class QueryResultWindowsTest {
+  /** The factory that creates the entity manager the query runs on. */
+  @Mock EntityManagerFactory entityManagerFactory;
+
+  /** The entity manager the query runs on. */
+  @Mock EntityManager entityManager;
+
+  /** The entity manager's session. */
+  @Mock Session session;
+
+  /** The entity manager's transaction. */
+  @Mock EntityTransaction transaction;
+
+  /** The query being run. */
+  @Mock CriteriaQuery<String> criteria;
+
+  /** The query created from {@link #criteria}. */
+  @Mock TypedQuery<String> query;
+
+  /** The entities the query returns. */
+  private final List<String> entities = List.of("a", "b", "c", "d", "e");
+
+  /** Sets up the mocks so that running {@link #criteria} returns {@link #entities}. */
+  @BeforeEach
+  void setUp() {
+    when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+    when(entityManager.unwrap(Session.class)).thenReturn(session);
+    when(entityManager.getTransaction()).thenReturn(transaction);
+    when(entityManager.createQuery(criteria)).thenReturn(query);
+    when(query.setHint(any(), any())).thenReturn(query);
+    when(query.getResultStream()).thenAnswer(invocation -> entities.stream());
+    when(transaction.isActive()).thenReturn(true);
+  }
+
+  /**
+   * Verifies that the entities are read in windows of the requested size, that the entities of a
+   * window are detached when the next one is read, that the session is read only, and that closing
+   * releases the entity manager.
+   */
+  @Test
+  public void testReadWindows() {
+    List<List<String>> windows = new ArrayList<>();
+    try (QueryResultWindows<String> results =
+        QueryResultWindows.open(entityManagerFactory, criteria, 2)) {
+      while (results.hasNext()) {
+        windows.add(results.next());
+      }
+      assertEquals(5, results.getResultCount());
+      assertThrows(NoSuchElementException.class, results::next);
+    }
+
+    assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), windows);
+    verify(transaction).begin();
+    verify(query).setHint(QueryResultWindows.FETCH_SIZE_HINT, 2);
+    verify(session).setDefaultReadOnly(true);
+    for (String entity : List.of("a", "b", "c", "d")) {
+      verify(entityManager).detach(entity);
+    }
+    verify(entityManager, never()).detach("e");
+    verify(transaction).rollback();
+    verify(entityManager, times(1)).close();
+  }
+
+  /** Verifies that the entity manager is closed if the query can't be run. */
+  @Test
+  public void testQueryFailure() {
+    RuntimeException failure = new IllegalStateException("query failed");
+    when(query.getResultStream()).thenThrow(failure);
+
+    assertSame(
+        failure,
+        assertThrows(
+            IllegalStateException.class,
+            () -> QueryResultWindows.open(entityManagerFactory, criteria, 2)));
+    verify(transaction).rollback();
+    verify(entityManager).close();
+  }
+
+  /** Verifies that a non-positive window size is rejected before any query is run. */
+  @Test
+  public void testInvalidWindowSize() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> QueryResultWindows.open(entityManagerFactory, criteria, 0));
+    verifyNoInteractions(entityManagerFactory);
+  }
+
+  /** Verifies that a query without results has no windows. */
+  @Test
+  public void testNoResults() {
+    when(query.getResultStream()).thenAnswer(invocation -> List.<String>of().stream());
+
+    try (QueryResultWindows<String> results =
+        QueryResultWindows.open(entityManagerFactory, criteria, 2)) {
+      assertFalse(results.hasNext());
+      assertEquals(0, results.getResultCount());
+    }
+    verify(entityManager).close();
+  }
+}
@@ -0,0 +1,224 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.cms.bfd.model.rif.entities.Beneficiary;
+import gov.cms.bfd.model.rif.entities.BeneficiaryHistory;
+import gov.cms.bfd.model.rif.samples.StaticRifResourceGroup;
+import gov.cms.bfd.pipeline.PipelineTestUtils;
+import gov.cms.bfd.server.war.ServerRequiredTest;
+import gov.cms.bfd.server.war.commons.BulkExportStore;
+import gov.cms.bfd.server.war.commons.CommonHeaders;
+import gov.cms.bfd.server.war.commons.LoadedFilterManager;
+import gov.cms.bfd.server.war.commons.LocalBulkExportStore;
+import gov.cms.bfd.server.war.commons.TransformerConstants;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Integration tests for {@link BulkExportService} that run its queries against the test database
+ * loaded with the {@link StaticRifResourceGroup#SAMPLE_A} data.
+ */
+public final class BulkExportServiceIT extends ServerRequiredTest {
+  /** The Part D contract the sample beneficiary is enrolled in. */
+  private static final String CONTRACT_ID = "S4607";
+
+  /** The month the sample beneficiary is enrolled in the contract. */
+  private static final LocalDate YEAR_MONTH = LocalDate.of(2018, 1, 1);
+
+  /** The directory the store's files are written to. */
+  @TempDir Path storeDirectory;
+
+  /** The store the jobs are written to. */
+  private BulkExportStore store;
+
+  /** The service being tested. */
+  private BulkExportService service;
+
+  /** The records of the sample data. */
+  private List<Object> loadedRecords;
+
+  /** The sample beneficiary. */
+  private Beneficiary beneficiary;
+
+  /** Loads the sample data and creates a service that queries the test database. */
+  @BeforeEach
+  void setUp() {
+    loadedRecords =
+        testUtils.loadData(Arrays.asList(StaticRifResourceGroup.SAMPLE_A.getResources()));
+    beneficiary = testUtils.getFirstBeneficiary(loadedRecords);
+
+    LoadedFilterManager loadedFilterManager = mock(LoadedFilterManager.class);
+    when(loadedFilterManager.getTransactionTime()).thenReturn(Instant.ofEpochMilli(1000L));
+    MetricRegistry metricRegistry = new MetricRegistry();
+    store = new LocalBulkExportStore(storeDirectory);
+    service =
+        new BulkExportService(
+            PipelineTestUtils.get().getPipelineApplicationState().getEntityManagerFactory(),
+            metricRegistry,
+            loadedFilterManager,
+            new BeneficiaryTransformerV2(metricRegistry, false),
+            new CoverageTransformerV2(metricRegistry),
+            store,
+            true,
+            1,
+            1,
+            10,
+            24);
+  }
+
+  /** Stops the service's threads. */
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  /**
+   * Verifies that the keyset query finds the beneficiary enrolled in the contract month, and
+   * nothing after it or in another month.
+   */
+  @Test
+  public void testFetchBeneficiaryIdsByKeyset() {
+    long beneficiaryId = beneficiary.getBeneficiaryId();
+
+    assertEquals(
+        List.of(beneficiaryId),
+        service.fetchBeneficiaryIds(CONTRACT_ID, YEAR_MONTH, Optional.empty(), 10));
+    assertEquals(
+        List.of(),
+        service.fetchBeneficiaryIds(CONTRACT_ID, YEAR_MONTH, Optional.of(beneficiaryId), 10));
+    assertEquals(
+        List.of(beneficiaryId),
+        service.fetchBeneficiaryIds(CONTRACT_ID, YEAR_MONTH, Optional.of(beneficiaryId - 1), 10));
+    assertEquals(
+        List.of(),
+        service.fetchBeneficiaryIds(CONTRACT_ID, YEAR_MONTH.minusYears(1), Optional.empty(), 10));
+  }
+
+  /**
+   * Verifies that the two queries load each beneficiary once along with every history and monthly
+   * record, and that the collections can still be read once the entities are detached.
+   */
+  @Test
+  public void testFetchBeneficiariesLoadsBothCollections() {
+    long historyCount =
+        loadedRecords.stream()
+            .filter(BeneficiaryHistory.class::isInstance)
+            .map(BeneficiaryHistory.class::cast)
+            .filter(history -> history.getBeneficiaryId() == beneficiary.getBeneficiaryId())
+            .count();
+
+    List<Beneficiary> beneficiaries =
+        service.fetchBeneficiaries(List.of(beneficiary.getBeneficiaryId()), true);
+
+    assertEquals(1, beneficiaries.size());
+    Beneficiary fetched = beneficiaries.getFirst();
+    assertEquals(beneficiary.getBeneficiaryId(), fetched.getBeneficiaryId());
+    assertTrue(historyCount > 0);
+    assertEquals(historyCount, fetched.getBeneficiaryHistories().size());
+    assertTrue(
+        fetched.getBeneficiaryMonthlys().stream()
+            .anyMatch(
+                monthly ->
+                    monthly.getYearMonth().equals(YEAR_MONTH)
+                        && monthly.getPartDContractNumberId().equals(Optional.of(CONTRACT_ID))));
+  }
+
+  /**
+   * Verifies that a job transforms the detached beneficiaries with the request headers it was
+   * started with, after the entity managers of its queries have been closed.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testRunJobTransformsDetachedBeneficiaries() throws IOException {
+    BulkExportJob job = new BulkExportJob();
+    job.setId("job-1");
+    job.setStatus(BulkExportJob.Status.IN_PROGRESS);
+    job.setRequest("url");
+    job.setContractId(CONTRACT_ID);
+    job.setYearMonth(YEAR_MONTH.toString());
+    job.setResourceTypes(BulkExportService.SUPPORTED_RESOURCE_TYPES);
+    job.setRequestHeaders(
+        Map.of(
+            CommonHeaders.HEADER_NAME_INCLUDE_IDENTIFIERS, "mbi",
+            CommonHeaders.HEADER_NAME_INCLUDE_ADDRESS_FIELDS, "true"));
+    job.setVersion(
+        store
+            .writeIfVersion(
+                job.getId(),
+                BulkExportService.JOB_FILE_NAME,
+                new ObjectMapper().writeValueAsBytes(job),
+                null)
+            .orElseThrow());
+
+    service.runJob(job);
+
+    BulkExportJob savedJob = service.getJob(job.getId()).orElseThrow();
+    assertEquals(BulkExportJob.Status.COMPLETED, savedJob.getStatus());
+    assertEquals(1L, savedJob.getBeneficiaryCount());
+    assertTrue(
+        savedJob.getOutput().stream()
+            .anyMatch(
+                file ->
+                    file.type().equals(BulkExportService.COVERAGE_RESOURCE_TYPE)
+                        && file.count() > 0));
+
+    List<String> patients =
+        readOutputFile(
+                savedJob,
+                BulkExportService.outputFileName(BulkExportService.PATIENT_RESOURCE_TYPE, 1))
+            .lines()
+            .toList();
+    assertEquals(1, patients.size());
+    Patient patient =
+        FhirContext.forR4Cached().newJsonParser().parseResource(Patient.class, patients.getFirst());
+    assertEquals(String.valueOf(beneficiary.getBeneficiaryId()), patient.getIdPart());
+    assertEquals(
+        beneficiary.getMedicareBeneficiaryId(),
+        patient.getIdentifier().stream()
+            .filter(
+                identifier ->
+                    identifier
+                        .getSystem()
+                        .equals(TransformerConstants.CODING_BBAPI_MEDICARE_BENEFICIARY_ID_UNHASHED))
+            .map(Identifier::getValue)
+            .findFirst());
+    assertEquals(
+        beneficiary.getDerivedCityName().orElse(null), patient.getAddressFirstRep().getCity());
+  }
+
+  /**
+   * Reads one of a job's output files.
+   *
+   * @param job the job that wrote the file
+   * @param fileName the name of the file
+   * @return the file's contents
+   * @throws IOException if the file can't be read
+   */
+  private String readOutputFile(BulkExportJob job, String fileName) throws IOException {
+    try (InputStream inputStream = service.openOutputFile(job, fileName).orElseThrow()) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
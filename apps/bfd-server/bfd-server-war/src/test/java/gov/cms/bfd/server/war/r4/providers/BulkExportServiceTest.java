@@ -0,0 +1,452 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.cms.bfd.model.rif.entities.Beneficiary;
+import gov.cms.bfd.server.war.commons.BulkExportStore;
+import gov.cms.bfd.server.war.commons.LoadedFilterManager;
+import gov.cms.bfd.server.war.commons.LocalBulkExportStore;
+import gov.cms.bfd.server.war.commons.Profile;
+import gov.cms.bfd.server.war.commons.RequestHeaders;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.hl7.fhir.r4.model.Coverage;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/** Unit tests for {@link BulkExportService}. */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public final class BulkExportServiceTest {
+  /** The contract exported by every test. */
+  private static final String CONTRACT_ID = "H1234";
+
+  /** The month exported by every test. */
+  private static final LocalDate YEAR_MONTH = LocalDate.of(2024, 3, 1);
+
+  /** The identity of the client that starts every job. */
+  private static final String CLIENT_IDENTITY = "CN=client";
+
+  /** The number of beneficiaries written to each set of output files. */
+  private static final int BENEFICIARIES_PER_FILE = 2;
+
+  /** The ids of the beneficiaries enrolled in the exported contract month. */
+  private static final List<Long> BENEFICIARY_IDS = List.of(1L, 2L, 3L, 4L, 5L);
+
+  /** The directory the store's files are written to. */
+  @TempDir Path storeDirectory;
+
+  /** The entity manager factory, which is unused since the queries are stubbed. */
+  @Mock EntityManagerFactory entityManagerFactory;
+
+  /** Provides the transaction time of the export. */
+  @Mock LoadedFilterManager loadedFilterManager;
+
+  /** The beneficiary transformer. */
+  @Mock BeneficiaryTransformerV2 beneficiaryTransformer;
+
+  /** The coverage transformer. */
+  @Mock CoverageTransformerV2 coverageTransformer;
+
+  /** The store the jobs are written to. */
+  private BulkExportStore store;
+
+  /** The service being tested, with its queries stubbed. */
+  private BulkExportService service;
+
+  /** Sets up the service with queries that return {@link #BENEFICIARY_IDS}. */
+  @BeforeEach
+  void setUp() {
+    store = new LocalBulkExportStore(storeDirectory);
+    service =
+        spy(
+            new BulkExportService(
+                entityManagerFactory,
+                new MetricRegistry(),
+                loadedFilterManager,
+                beneficiaryTransformer,
+                coverageTransformer,
+                store,
+                true,
+                1,
+                1,
+                BENEFICIARIES_PER_FILE,
+                24));
+
+    when(loadedFilterManager.getTransactionTime()).thenReturn(Instant.ofEpochMilli(1000L));
+    when(beneficiaryTransformer.transform(any(Beneficiary.class), any(RequestHeaders.class)))
+        .thenAnswer(
+            invocation ->
+                new Patient()
+                    .setId(
+                        String.valueOf(
+                            invocation.getArgument(0, Beneficiary.class).getBeneficiaryId())));
+    // Every beneficiary gets two coverages, to check that all of them are written.
+    when(coverageTransformer.transform(any(Beneficiary.class), eq(Profile.C4BB)))
+        .thenReturn(List.of(new Coverage(), new Coverage()));
+
+    doReturn(List.of()).when(service).fetchBeneficiaryIds(anyString(), any(), any(), anyInt());
+    for (int i = 0; i <= BENEFICIARY_IDS.size(); i++) {
+      Optional<Long> cursor = i == 0 ? Optional.empty() : Optional.of(BENEFICIARY_IDS.get(i - 1));
+      List<Long> remainingIds = BENEFICIARY_IDS.subList(i, BENEFICIARY_IDS.size());
+      doReturn(remainingIds.subList(0, Math.min(BENEFICIARIES_PER_FILE, remainingIds.size())))
+          .when(service)
+          .fetchBeneficiaryIds(eq(CONTRACT_ID), eq(YEAR_MONTH), eq(cursor), anyInt());
+    }
+    doReturn(List.of()).when(service).fetchBeneficiaries(anyList(), anyBoolean());
+    for (int i = 0; i < BENEFICIARY_IDS.size(); i += BENEFICIARIES_PER_FILE) {
+      List<Long> ids =
+          BENEFICIARY_IDS.subList(i, Math.min(i + BENEFICIARIES_PER_FILE, BENEFICIARY_IDS.size()));
+      doReturn(ids.stream().map(BulkExportServiceTest::beneficiary).toList())
+          .when(service)
+          .fetchBeneficiaries(eq(ids), anyBoolean());
+    }
+  }
+
+  /** Stops the service's threads. */
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  /**
+   * Verifies that running a job writes a set of files for every {@link #BENEFICIARIES_PER_FILE}
+   * beneficiaries, records them in the job's state and marks the job as completed.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testRunJobWritesEveryPart() throws IOException {
+    BulkExportJob job = createJob(BulkExportService.SUPPORTED_RESOURCE_TYPES);
+
+    service.runJob(job);
+
+    BulkExportJob savedJob = service.getJob(job.getId()).orElseThrow();
+    assertEquals(BulkExportJob.Status.COMPLETED, savedJob.getStatus());
+    assertEquals(3, savedJob.getPartCount());
+    assertEquals(5L, savedJob.getBeneficiaryCount());
+    assertEquals(5L, savedJob.getCursor());
+    assertEquals(1000L, savedJob.getTransactionTime());
+    assertEquals(
+        List.of(
+            new BulkExportJob.OutputFile("Patient", "Patient-1.ndjson", 1, 2),
+            new BulkExportJob.OutputFile("Coverage", "Coverage-1.ndjson", 1, 4),
+            new BulkExportJob.OutputFile("Patient", "Patient-2.ndjson", 2, 2),
+            new BulkExportJob.OutputFile("Coverage", "Coverage-2.ndjson", 2, 4),
+            new BulkExportJob.OutputFile("Patient", "Patient-3.ndjson", 3, 1),
+            new BulkExportJob.OutputFile("Coverage", "Coverage-3.ndjson", 3, 2)),
+        savedJob.getOutput());
+
+    String patients = readOutputFile(savedJob, "Patient-2.ndjson");
+    assertEquals(
+        List.of(
+            "{\"resourceType\":\"Patient\",\"id\":\"3\"}",
+            "{\"resourceType\":\"Patient\",\"id\":\"4\"}"),
+        patients.lines().toList());
+    verify(service).fetchBeneficiaries(List.of(1L, 2L), true);
+  }
+
+  /**
+   * Verifies that a job that only exports patients skips loading the monthly records, and that no
+   * coverage files are written.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testRunJobForPatientsOnly() throws IOException {
+    BulkExportJob job = createJob(List.of(BulkExportService.PATIENT_RESOURCE_TYPE));
+
+    service.runJob(job);
+
+    BulkExportJob savedJob = service.getJob(job.getId()).orElseThrow();
+    assertEquals(BulkExportJob.Status.COMPLETED, savedJob.getStatus());
+    assertTrue(savedJob.getOutput().stream().allMatch(file -> file.type().equals("Patient")));
+    verify(service, never()).fetchBeneficiaries(anyList(), eq(true));
+    verify(coverageTransformer, never()).transform(any(Beneficiary.class), any(Profile.class));
+  }
+
+  /**
+   * Verifies that a job resumed from saved state only writes the parts after its cursor.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testRunJobResumesFromCursor() throws IOException {
+    BulkExportJob job = createJob(List.of(BulkExportService.PATIENT_RESOURCE_TYPE));
+    job.setCursor(2L);
+    job.setPartCount(1);
+    job.setBeneficiaryCount(2);
+    job.getOutput().add(new BulkExportJob.OutputFile("Patient", "Patient-1.ndjson", 1, 2));
+
+    service.runJob(job);
+
+    BulkExportJob savedJob = service.getJob(job.getId()).orElseThrow();
+    assertEquals(BulkExportJob.Status.COMPLETED, savedJob.getStatus());
+    assertEquals(5L, savedJob.getBeneficiaryCount());
+    assertEquals(
+        List.of("Patient-1.ndjson", "Patient-2.ndjson", "Patient-3.ndjson"),
+        savedJob.getOutput().stream().map(BulkExportJob.OutputFile::fileName).toList());
+    verify(service, never()).fetchBeneficiaries(eq(List.of(1L, 2L)), anyBoolean());
+  }
+
+  /**
+   * Verifies that a job that fails is marked as failed without exposing the cause of the error.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testRunJobFailure() throws IOException {
+    BulkExportJob job = createJob(BulkExportService.SUPPORTED_RESOURCE_TYPES);
+    when(beneficiaryTransformer.transform(any(Beneficiary.class), any(RequestHeaders.class)))
+        .thenThrow(new IllegalStateException("bad data for beneficiary 1"));
+
+    service.runJob(job);
+
+    BulkExportJob savedJob = service.getJob(job.getId()).orElseThrow();
+    assertEquals(BulkExportJob.Status.FAILED, savedJob.getStatus());
+    assertFalse(savedJob.getError().contains("beneficiary"));
+    assertTrue(savedJob.getOutput().isEmpty());
+  }
+
+  /**
+   * Verifies that only the files listed in a job's state are handed out.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testOpenOutputFileOnlyServesListedFiles() throws IOException {
+    BulkExportJob job = createJob(BulkExportService.SUPPORTED_RESOURCE_TYPES);
+    service.runJob(job);
+    BulkExportJob savedJob = service.getJob(job.getId()).orElseThrow();
+
+    assertFalse(service.openOutputFile(savedJob, BulkExportService.JOB_FILE_NAME).isPresent());
+    assertFalse(service.openOutputFile(savedJob, "Patient-4.ndjson").isPresent());
+    assertEquals(4, readOutputFile(savedJob, "Coverage-2.ndjson").lines().count());
+  }
+
+  /**
+   * Verifies that the ids of the beneficiaries in each output file can be read back, and that only
+   * the files listed in a job's state have them.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testReadBeneficiaryIds() throws IOException {
+    BulkExportJob job = createJob(BulkExportService.SUPPORTED_RESOURCE_TYPES);
+    service.runJob(job);
+    BulkExportJob savedJob = service.getJob(job.getId()).orElseThrow();
+
+    assertEquals(List.of(1L, 2L), service.readBeneficiaryIds(savedJob, "Patient-1.ndjson"));
+    assertEquals(List.of(3L, 4L), service.readBeneficiaryIds(savedJob, "Coverage-2.ndjson"));
+    assertEquals(List.of(5L), service.readBeneficiaryIds(savedJob, "Patient-3.ndjson"));
+    assertThrows(
+        IOException.class,
+        () -> service.readBeneficiaryIds(savedJob, BulkExportService.beneficiaryIdsFileName(1)));
+  }
+
+  /**
+   * Verifies that a job that can't be queued is rejected and leaves nothing in the store.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testSubmitRejectedWhenQueueIsFull() throws Exception {
+    // Keep the only thread busy until the test is done, so the next job fills the queue.
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              started.countDown();
+              finish.await();
+              return false;
+            })
+        .when(service)
+        .exportNextPart(any(), any());
+
+    try {
+      service.submit(
+          CONTRACT_ID,
+          YEAR_MONTH,
+          BulkExportService.SUPPORTED_RESOURCE_TYPES,
+          Map.of(),
+          CLIENT_IDENTITY,
+          "url");
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      service.submit(
+          CONTRACT_ID,
+          YEAR_MONTH,
+          BulkExportService.SUPPORTED_RESOURCE_TYPES,
+          Map.of(),
+          CLIENT_IDENTITY,
+          "url");
+      List<String> jobIds = store.listJobIds();
+
+      assertThrows(
+          RejectedExecutionException.class,
+          () ->
+              service.submit(
+                  CONTRACT_ID,
+                  YEAR_MONTH,
+                  BulkExportService.SUPPORTED_RESOURCE_TYPES,
+                  Map.of(),
+                  CLIENT_IDENTITY,
+                  "url"));
+      assertEquals(jobIds, store.listJobIds());
+    } finally {
+      finish.countDown();
+    }
+  }
+
+  /**
+   * Verifies that a job's state can be saved and read back.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testGetJob() throws IOException {
+    assertTrue(service.getJob("missing").isEmpty());
+
+    BulkExportJob job = createJob(List.of(BulkExportService.COVERAGE_RESOURCE_TYPE));
+    BulkExportJob savedJob = service.getJob(job.getId()).orElseThrow();
+
+    assertEquals(BulkExportJob.Status.IN_PROGRESS, savedJob.getStatus());
+    assertEquals(CONTRACT_ID, savedJob.getContractId());
+    assertEquals(YEAR_MONTH.toString(), savedJob.getYearMonth());
+    assertEquals(List.of("Coverage"), savedJob.getResourceTypes());
+    assertEquals(Map.of("IncludeAddressFields", "true"), savedJob.getRequestHeaders());
+    assertEquals(CLIENT_IDENTITY, savedJob.getClientIdentity());
+    assertNull(savedJob.getCursor());
+    assertTrue(savedJob.getLastUpdated() > 0);
+  }
+
+  /**
+   * Verifies that when two servers read the same stalled job only the first one to save it takes it
+   * over.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testOnlyOneServerTakesOverJob() throws IOException {
+    BulkExportJob job = createJob(List.of(BulkExportService.PATIENT_RESOURCE_TYPE));
+    BulkExportJob firstCopy = service.getJob(job.getId()).orElseThrow();
+    BulkExportJob secondCopy = service.getJob(job.getId()).orElseThrow();
+
+    assertTrue(service.takeOver(firstCopy));
+    assertFalse(service.takeOver(secondCopy));
+    assertTrue(service.takeOver(service.getJob(job.getId()).orElseThrow()));
+  }
+
+  /**
+   * Verifies that a job that has been taken over by another server stops without writing over the
+   * other server's state or marking the job as failed.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testRunJobStopsWhenTakenOver() throws IOException {
+    BulkExportJob job = createJob(BulkExportService.SUPPORTED_RESOURCE_TYPES);
+    assertTrue(service.takeOver(service.getJob(job.getId()).orElseThrow()));
+
+    service.runJob(job);
+
+    BulkExportJob savedJob = service.getJob(job.getId()).orElseThrow();
+    assertEquals(BulkExportJob.Status.IN_PROGRESS, savedJob.getStatus());
+    assertEquals(0, savedJob.getPartCount());
+    assertNull(savedJob.getCursor());
+  }
+
+  /**
+   * Creates a job that is saved in the store but isn't running.
+   *
+   * @param resourceTypes the resource types to export
+   * @return the job
+   * @throws IOException if the job can't be saved
+   */
+  private BulkExportJob createJob(List<String> resourceTypes) throws IOException {
+    BulkExportJob job = new BulkExportJob();
+    job.setId("job-" + resourceTypes.size() + "-" + System.nanoTime());
+    job.setStatus(BulkExportJob.Status.IN_PROGRESS);
+    job.setRequest("url");
+    job.setContractId(CONTRACT_ID);
+    job.setYearMonth(YEAR_MONTH.toString());
+    job.setResourceTypes(new ArrayList<>(resourceTypes));
+    job.setRequestHeaders(Map.of("IncludeAddressFields", "true"));
+    job.setTransactionTime(1000L);
+    job.setLastUpdated(System.currentTimeMillis());
+    job.setClientIdentity(CLIENT_IDENTITY);
+    job.setVersion(
+        store
+            .writeIfVersion(
+                job.getId(),
+                BulkExportService.JOB_FILE_NAME,
+                new ObjectMapper().writeValueAsBytes(job),
+                null)
+            .orElseThrow());
+    return job;
+  }
+
+  /**
+   * Reads one of a job's output files.
+   *
+   * @param job the job that wrote the file
+   * @param fileName the name of the file
+   * @return the file's contents
+   * @throws IOException if the file can't be read
+   */
+  private String readOutputFile(BulkExportJob job, String fileName) throws IOException {
+    try (InputStream inputStream = service.openOutputFile(job, fileName).orElseThrow()) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Creates a mock beneficiary.
+   *
+   * @param id the beneficiary's id
+   * @return the beneficiary
+   */
+  private static Beneficiary beneficiary(long id) {
+    Beneficiary beneficiary = mock(Beneficiary.class);
+    when(beneficiary.getBeneficiaryId()).thenReturn(id);
+    return beneficiary;
+  }
+}
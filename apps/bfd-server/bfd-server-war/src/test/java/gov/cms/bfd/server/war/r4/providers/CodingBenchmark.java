@@ -0,0 +1,116 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import gov.cms.bfd.model.codebook.data.CcwCodebookVariable;
+import gov.cms.bfd.model.codebook.model.CcwCodebookInterface;
+import gov.cms.bfd.model.codebook.model.Value;
+import gov.cms.bfd.model.codebook.model.ValueGroup;
+import gov.cms.bfd.server.war.commons.TransformerConstants;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.hl7.fhir.r4.model.Coding;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark measuring how quickly {@link TransformerUtilsV2#createCoding} builds the {@link
+ * Coding}s for coded CCW variables. Every code of every coded {@link CcwCodebookVariable} is used
+ * so that variables with both short and long value lists are covered. {@link
+ * #createCodingWithScan()} repeats the work the same way it was done before codes were indexed (a
+ * scan of every {@link ValueGroup} and a formatted system URL per call) to provide a baseline.
+ *
+ * <p>To run the benchmark after compiling the tests:
+ *
+ * <pre>
+ * mvn -pl bfd-server/bfd-server-war test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=CodingBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodingBenchmark {
+  /** The resource the codings are created for. */
+  private final ExplanationOfBenefit eob = new ExplanationOfBenefit();
+
+  /** The variable of each code in {@link #codes}. */
+  private final List<CcwCodebookInterface> variables = new ArrayList<>();
+
+  /** Every code of every coded variable. */
+  private final List<String> codes = new ArrayList<>();
+
+  /** Index of the next entry in {@link #codes} to create a coding for. */
+  private int next;
+
+  /** Collects the code of every value of every coded variable. */
+  @Setup
+  public void setUp() {
+    for (CcwCodebookVariable variable : CcwCodebookVariable.values()) {
+      for (ValueGroup valueGroup : variable.getVariable().getValueGroups().orElse(List.of())) {
+        for (Value value : valueGroup.getValues()) {
+          variables.add(variable);
+          codes.add(value.getCode());
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates a coding for the next code using {@link TransformerUtilsV2#createCoding}.
+   *
+   * @return the coding, returned so that JMH keeps it alive
+   */
+  @Benchmark
+  public Coding createCoding() {
+    final int index = nextIndex();
+    return TransformerUtilsV2.createCoding(eob, variables.get(index), codes.get(index));
+  }
+
+  /**
+   * Creates a coding for the next code by scanning the variable's values, as was done before codes
+   * were indexed.
+   *
+   * @return the coding, returned so that JMH keeps it alive
+   */
+  @Benchmark
+  public Coding createCodingWithScan() {
+    final int index = nextIndex();
+    final CcwCodebookInterface variable = variables.get(index);
+    final String code = codes.get(index).trim();
+    final String id = variable.getVariable().getId().toLowerCase();
+    final String system =
+        TransformerConstants.CCW_SYSTEM_MAP.containsKey(id)
+            ? TransformerConstants.CCW_SYSTEM_MAP.get(id)
+            : String.format("%s/%s", TransformerConstants.BASE_URL_CCW_VARIABLES, id);
+    final List<Value> matches =
+        variable.getVariable().getValueGroups().get().stream()
+            .flatMap(g -> g.getValues().stream())
+            .filter(v -> v.getCode().equals(code))
+            .collect(Collectors.toList());
+    return new Coding(system, code, matches.size() == 1 ? matches.get(0).getDescription() : null);
+  }
+
+  /**
+   * Advances to the next code.
+   *
+   * @return the index of the code to use
+   */
+  private int nextIndex() {
+    final int index = next;
+    next = (next + 1) % codes.size();
+    return index;
+  }
+}
@@ -0,0 +1,138 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.MoreExecutors;
+import gov.cms.bfd.model.rif.entities.CarrierClaim;
+import gov.cms.bfd.model.rif.samples.StaticRifResourceGroup;
+import gov.cms.bfd.pipeline.PipelineTestUtils;
+import gov.cms.bfd.server.war.ServerRequiredTest;
+import gov.cms.bfd.server.war.ServerTestUtils;
+import gov.cms.bfd.server.war.commons.ClaimType;
+import gov.cms.bfd.server.war.commons.SecurityTagManager;
+import gov.cms.bfd.server.war.commons.SecurityTagsDao;
+import jakarta.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Integration tests for {@link PatientClaimsEobTaskTransformerV2} that run its claim queries
+ * against the test database loaded with the {@link
+ * StaticRifResourceGroup#SAMPLE_A_MULTIPLE_CARRIER_LINES} data, whose carrier claim has several
+ * lines.
+ */
+public final class PatientClaimsEobTaskTransformerV2IT extends ServerRequiredTest {
+  /** Claim count at which the task splits transformation into parallel chunks. */
+  private static final int PARALLEL_THRESHOLD = 500;
+
+  /** Maximum number of parallel chunks per claim type. */
+  private static final int MAX_PARALLEL_CHUNKS = 4;
+
+  /** Claim query window size that loads all of a claim type's claims at once. */
+  private static final int LOAD_ALL_CLAIMS = 0;
+
+  /** Parses the EOBs, to compare them. */
+  private final IParser parser = FhirContext.forR4Cached().newJsonParser();
+
+  /** The id of the sample beneficiary. */
+  private long beneficiaryId;
+
+  /** The sample carrier claim. */
+  private CarrierClaim carrierClaim;
+
+  /** Loads the sample data. */
+  @BeforeEach
+  void setUp() {
+    List<Object> loadedRecords =
+        testUtils.loadData(
+            Arrays.asList(StaticRifResourceGroup.SAMPLE_A_MULTIPLE_CARRIER_LINES.getResources()));
+    beneficiaryId = testUtils.getFirstBeneficiary(loadedRecords).getBeneficiaryId();
+    carrierClaim = ServerTestUtils.getClaim(loadedRecords, CarrierClaim.class);
+  }
+
+  /**
+   * Verifies that loading the claims in windows, including windows smaller than the number of lines
+   * of a single claim, finds each claim once with all of its lines, and transforms them into the
+   * same EOBs as loading them all at once.
+   */
+  @Test
+  public void testWindowedClaimsMatchClaimsLoadedAtOnce() {
+    int lineCount = carrierClaim.getLines().size();
+    assertTrue(lineCount > 1);
+
+    List<ExplanationOfBenefit> expected = transformCarrierClaims(LOAD_ALL_CLAIMS);
+    assertEquals(1, expected.size());
+    assertEquals(lineCount, expected.getFirst().getItem().size());
+
+    for (int windowSize : List.of(1, lineCount - 1, lineCount + 1)) {
+      List<ExplanationOfBenefit> windowed = transformCarrierClaims(windowSize);
+      assertEquals(encode(expected), encode(windowed), "window size " + windowSize);
+    }
+  }
+
+  /**
+   * Runs a task that transforms the sample beneficiary's carrier claims.
+   *
+   * @param claimQueryWindowSize the number of claims the task loads at a time, or {@link
+   *     #LOAD_ALL_CLAIMS}
+   * @return the EOBs
+   */
+  private List<ExplanationOfBenefit> transformCarrierClaims(int claimQueryWindowSize) {
+    EntityManager entityManager =
+        PipelineTestUtils.get()
+            .getPipelineApplicationState()
+            .getEntityManagerFactory()
+            .createEntityManager();
+    try {
+      SecurityTagsDao securityTagsDao = new SecurityTagsDao();
+      securityTagsDao.setEntityManager(entityManager);
+      PatientClaimsEobTaskTransformerV2 task =
+          new PatientClaimsEobTaskTransformerV2(
+              new MetricRegistry(),
+              mock(R4EobSamhsaMatcher.class),
+              null,
+              securityTagsDao,
+              false,
+              MoreExecutors.newDirectExecutorService(),
+              PARALLEL_THRESHOLD,
+              MAX_PARALLEL_CHUNKS,
+              claimQueryWindowSize);
+      task.setupTaskParams(
+          new CarrierClaimTransformerV2(new MetricRegistry(), new SecurityTagManager(), false),
+          ClaimType.CARRIER,
+          beneficiaryId,
+          Optional.empty(),
+          Optional.empty(),
+          false);
+      task.setEntityManager(entityManager);
+
+      task.call();
+
+      assertTrue(task.ranSuccessfully(), () -> String.valueOf(task.getFailure()));
+      return task.fetchEOBs();
+    } finally {
+      entityManager.close();
+    }
+  }
+
+  /**
+   * Encodes the EOBs without the time they were created, which differs between tasks.
+   *
+   * @param eobs the EOBs
+   * @return the encoded EOBs
+   */
+  private List<String> encode(List<ExplanationOfBenefit> eobs) {
+    return eobs.stream()
+        .map(eob -> parser.encodeResourceToString(eob.copy().setCreated(null)))
+        .toList();
+  }
+}
@@ -2,21 +2,29 @@ package gov.cms.bfd.server.war.r4.providers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 import gov.cms.bfd.model.rif.entities.CarrierClaim;
 import gov.cms.bfd.model.rif.entities.DMEClaim;
 import gov.cms.bfd.model.rif.entities.HHAClaim;
@@ -36,6 +44,8 @@ import gov.cms.bfd.server.war.commons.SecurityTagsDao;
 import gov.cms.bfd.server.war.commons.TransformerConstants;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
@@ -46,12 +56,22 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import org.hl7.fhir.r4.model.CodeableConcept;
 import org.hl7.fhir.r4.model.Coding;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -65,6 +85,27 @@ import org.mockito.quality.Strictness;
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 class PatientClaimsEobTaskTransformerV2Test {
+  /** Claim count at which the task splits transformation into parallel chunks. */
+  private static final int PARALLEL_THRESHOLD = 500;
+
+  /** Maximum number of parallel chunks per claim type. */
+  private static final int MAX_PARALLEL_CHUNKS = 4;
+
+  /** Number of chunks the claims of the parallel transformation tests are split into. */
+  private static final int PARALLEL_CHUNKS = 4;
+
+  /** Number of claims in each chunk of the parallel transformation tests. */
+  private static final int CHUNK_SIZE = 10;
+
+  /** Number of claims transformed by the parallel transformation tests. */
+  private static final int PARALLEL_CLAIM_COUNT = PARALLEL_CHUNKS * CHUNK_SIZE;
+
+  /** Claim query window size that loads all of a claim type's claims at once. */
+  private static final int LOAD_ALL_CLAIMS = 0;
+
+  /** Executor used for parallel chunks; runs them on the calling thread. */
+  ExecutorService executorService = MoreExecutors.newDirectExecutorService();
+
   /** The mock query, for mocking DB returns. */
   @Mock TypedQuery mockQuery;
 
@@ -121,6 +162,9 @@ class PatientClaimsEobTaskTransformerV2Test {
   /** The mock entity manager for mocking database calls. */
   @Mock EntityManager mockEntityManager;
 
+  /** The mock entity manager factory, used when claims are loaded in windows. */
+  @Mock EntityManagerFactory mockEntityManagerFactory;
+
   /** The mock npi lookup. */
   @Mock NPIOrgLookup mockNpiTaxonomyLookup;
 
@@ -222,7 +266,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new CarrierClaimTransformerV2(new MetricRegistry(), securityTagManager, false);
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     taskTransformer.setIncludeTaxNumbers(true);
     taskTransformer.setupTaskParams(
@@ -239,6 +291,55 @@ class PatientClaimsEobTaskTransformerV2Test {
     verifyMetrics(ClaimType.CARRIER);
   }
 
+  /**
+   * Verify that the {@link PatientClaimsEobTaskTransformerV2} sucessfully transforms a {@link
+   * CarrierClaim} entity into a {@link ExplanationOfBenefit} FHIR resource when the claims are
+   * loaded in windows, that the security tags are looked up on the entity manager the windows are
+   * read on, and that it is closed.
+   */
+  @Test
+  void testTaskTransformerUsingCarrierClaimInWindows() {
+    CriteriaQuery<CarrierClaim> clmMockCriteria = mock(CriteriaQuery.class);
+    Root<CarrierClaim> clmRoot = mock(Root.class);
+    setupClaimEntity(mockEntityManager, ClaimType.CARRIER, clmMockCriteria, clmRoot);
+
+    // Ignore metrics registry calls on the claim transformer; its not under test here
+    ClaimTransformerInterfaceV2 claimTransformer =
+        new CarrierClaimTransformerV2(new MetricRegistry(), securityTagManager, false);
+    PatientClaimsEobTaskTransformerV2 taskTransformer =
+        new PatientClaimsEobTaskTransformerV2(
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            10);
+
+    taskTransformer.setIncludeTaxNumbers(true);
+    taskTransformer.setupTaskParams(
+        claimTransformer, ClaimType.CARRIER, 1234L, Optional.empty(), Optional.empty(), false);
+    taskTransformer.setEntityManager(mockEntityManager);
+
+    PatientClaimsEobTaskTransformerV2 rslt = taskTransformer.call();
+    assertNotNull(rslt);
+    assertTrue(taskTransformer.ranSuccessfully());
+    assertEquals(1, taskTransformer.fetchEOBs().size());
+    verify(securityTagsDao).buildClaimIdToTagsMap(eq(mockEntityManager), any(), anySet());
+    verify(securityTagsDao, never()).buildClaimIdToTagsMap(any(), anySet());
+    verify(mockEntityManager, times(1)).close();
+
+    String expectedTimerName =
+        "MetricRegistry.query.eobs_by_bene_id." + ClaimType.CARRIER.name().toLowerCase();
+    verify(metricRegistry, times(1)).timer(expectedTimerName);
+    // The query time is recorded with update(), like the queue wait, so time() only starts the
+    // execution timer
+    verify(metricsTimer, times(2)).update(anyLong(), eq(TimeUnit.NANOSECONDS));
+    verify(metricsTimer, times(1)).time();
+  }
+
   /**
    * Verify that the {@link PatientClaimsEobTaskTransformerV2} sucessfully transforms a {@link
    * CarrierClaim} entity into a {@link ExplanationOfBenefit} FHIR resource and performs SAMHSA EOB
@@ -255,7 +356,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new CarrierClaimTransformerV2(new MetricRegistry(), securityTagManager, false);
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     taskTransformer.setIncludeTaxNumbers(true);
     taskTransformer.setupTaskParams(
@@ -288,7 +397,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new DMEClaimTransformerV2(new MetricRegistry(), securityTagManager, false);
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     taskTransformer.setIncludeTaxNumbers(true);
     taskTransformer.setupTaskParams(
@@ -321,7 +438,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new DMEClaimTransformerV2(new MetricRegistry(), securityTagManager, false);
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     taskTransformer.setIncludeTaxNumbers(true);
     taskTransformer.setupTaskParams(
@@ -354,7 +479,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new HHAClaimTransformerV2(new MetricRegistry(), securityTagManager, false);
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     // should ignore processing of NPI tax numbers even though it is set
     taskTransformer.setIncludeTaxNumbers(true);
@@ -388,7 +521,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new HospiceClaimTransformerV2(new MetricRegistry(), securityTagManager, false);
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     // should ignore processing of NPI tax numbers even though it is set
     taskTransformer.setIncludeTaxNumbers(true);
@@ -422,7 +563,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new InpatientClaimTransformerV2(new MetricRegistry(), securityTagManager, false);
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     // should ignore processing of NPI tax numbers even though it is set
     taskTransformer.setIncludeTaxNumbers(true);
@@ -456,7 +605,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new OutpatientClaimTransformerV2(new MetricRegistry(), securityTagManager, false);
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     // should ignore processing of NPI tax numbers even though it is set
     taskTransformer.setIncludeTaxNumbers(true);
@@ -490,7 +647,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new PartDEventTransformerV2(new MetricRegistry());
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     // should ignore processing of NPI tax numbers even though it is set
     taskTransformer.setIncludeTaxNumbers(true);
@@ -524,7 +689,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new SNFClaimTransformerV2(new MetricRegistry(), securityTagManager, false);
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     // should ignore processing of NPI tax numbers even though it is set
     taskTransformer.setIncludeTaxNumbers(true);
@@ -560,7 +733,15 @@ class PatientClaimsEobTaskTransformerV2Test {
         new SNFClaimTransformerV2(metricRegistry, securityTagManager, false);
     PatientClaimsEobTaskTransformerV2 taskTransformer =
         new PatientClaimsEobTaskTransformerV2(
-            metricRegistry, mockSamhsaMatcher, samhsaV2InterceptorShadow, securityTagsDao, false);
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executorService,
+            PARALLEL_THRESHOLD,
+            MAX_PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
 
     // should ignore processing of NPI tax numbers even though it is set
     taskTransformer.setIncludeTaxNumbers(true);
@@ -574,6 +755,224 @@ class PatientClaimsEobTaskTransformerV2Test {
     assertTrue(taskTransformer.getFailure().orElseThrow() instanceof BadCodeMonkeyException);
   }
 
+  /**
+   * Verify that {@link PatientClaimsEobTaskTransformerV2#calculateChunkSize} only splits claim
+   * lists that reach the threshold, and never into more than the maximum number of chunks.
+   */
+  @Test
+  void testCalculateChunkSize() {
+    // Below the threshold everything is transformed as a single chunk
+    assertEquals(499, PatientClaimsEobTaskTransformerV2.calculateChunkSize(499, 500, 4));
+    assertEquals(1, PatientClaimsEobTaskTransformerV2.calculateChunkSize(0, 500, 4));
+    // At or above the threshold the claims are split evenly over the maximum number of chunks
+    assertEquals(125, PatientClaimsEobTaskTransformerV2.calculateChunkSize(500, 500, 4));
+    assertEquals(1250, PatientClaimsEobTaskTransformerV2.calculateChunkSize(5000, 500, 4));
+    assertEquals(1667, PatientClaimsEobTaskTransformerV2.calculateChunkSize(5001, 500, 3));
+    // Parallelism is disabled by a non-positive threshold or fewer than two chunks
+    assertEquals(5000, PatientClaimsEobTaskTransformerV2.calculateChunkSize(5000, 0, 4));
+    assertEquals(5000, PatientClaimsEobTaskTransformerV2.calculateChunkSize(5000, 500, 1));
+  }
+
+  /**
+   * Verify that a claim list split into chunks on a multi-threaded executor is transformed by more
+   * than one thread, and that the EOBs are returned in the order of the claims even though the
+   * first chunk finishes last.
+   */
+  @Test
+  void testParallelTransformKeepsClaimOrder() {
+    List<CarrierClaim> claims = createCarrierClaims(PARALLEL_CLAIM_COUNT);
+    CountDownLatch otherChunksStarted = new CountDownLatch(PARALLEL_CHUNKS - 1);
+    Set<String> transformThreads = ConcurrentHashMap.newKeySet();
+    ExecutorService pool = Executors.newFixedThreadPool(PARALLEL_CHUNKS - 1);
+    try {
+      PatientClaimsEobTaskTransformerV2 taskTransformer =
+          createParallelTaskTransformer(
+              pool,
+              claims,
+              claimId -> {
+                transformThreads.add(Thread.currentThread().getName());
+                if (claimId == 0) {
+                  // Hold the first chunk until every other chunk is running on the pool.
+                  Uninterruptibles.awaitUninterruptibly(otherChunksStarted, 10, TimeUnit.SECONDS);
+                } else if (claimId % CHUNK_SIZE == 0) {
+                  otherChunksStarted.countDown();
+                }
+              });
+
+      taskTransformer.call();
+
+      assertTrue(taskTransformer.ranSuccessfully());
+      assertEquals(0, otherChunksStarted.getCount());
+      assertTrue(transformThreads.size() > 1);
+      assertEquals(
+          claims.stream().map(claim -> String.valueOf(claim.getClaimId())).toList(),
+          taskTransformer.fetchEOBs().stream().map(eob -> eob.getIdElement().getIdPart()).toList());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Verify that a chunk that fails on another thread fails the whole task, rather than the task
+   * returning the EOBs of the other chunks.
+   */
+  @Test
+  void testParallelTransformChunkFailure() {
+    IllegalStateException failure = new IllegalStateException("transform failed");
+    ExecutorService pool = Executors.newFixedThreadPool(PARALLEL_CHUNKS - 1);
+    try {
+      PatientClaimsEobTaskTransformerV2 taskTransformer =
+          createParallelTaskTransformer(
+              pool,
+              createCarrierClaims(PARALLEL_CLAIM_COUNT),
+              claimId -> {
+                if (claimId == 2 * CHUNK_SIZE + 1) {
+                  throw failure;
+                }
+              });
+
+      taskTransformer.call();
+
+      assertFalse(taskTransformer.ranSuccessfully());
+      Exception taskFailure = taskTransformer.getFailure().orElseThrow();
+      assertInstanceOf(ExecutionException.class, taskFailure);
+      assertSame(failure, taskFailure.getCause());
+      assertTrue(taskTransformer.fetchEOBs().isEmpty());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Verify that interrupting a task while it waits for chunks running on other threads fails the
+   * task, keeps the thread's interrupt status, and cancels the chunks that have not started yet.
+   *
+   * @throws InterruptedException indicates test failure
+   */
+  @Test
+  void testParallelTransformInterrupted() throws InterruptedException {
+    // The pool's two threads run the second and third chunks and the fourth chunk waits for them.
+    CountDownLatch pooledChunksStarted = new CountDownLatch(2);
+    CountDownLatch releasePooledChunks = new CountDownLatch(1);
+    Set<Long> transformedClaimIds = ConcurrentHashMap.newKeySet();
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      PatientClaimsEobTaskTransformerV2 taskTransformer =
+          createParallelTaskTransformer(
+              pool,
+              createCarrierClaims(PARALLEL_CLAIM_COUNT),
+              claimId -> {
+                transformedClaimIds.add(claimId);
+                if (claimId == 0) {
+                  Uninterruptibles.awaitUninterruptibly(pooledChunksStarted);
+                } else if (claimId == CHUNK_SIZE || claimId == 2 * CHUNK_SIZE) {
+                  pooledChunksStarted.countDown();
+                  Uninterruptibles.awaitUninterruptibly(releasePooledChunks);
+                }
+              });
+      AtomicBoolean interruptedAfterCall = new AtomicBoolean();
+      Thread taskThread =
+          new Thread(
+              () -> {
+                taskTransformer.call();
+                interruptedAfterCall.set(Thread.currentThread().isInterrupted());
+              });
+
+      taskThread.start();
+      pooledChunksStarted.await();
+      taskThread.interrupt();
+      taskThread.join(TimeUnit.SECONDS.toMillis(10));
+      releasePooledChunks.countDown();
+      pool.shutdown();
+      assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+      assertFalse(taskThread.isAlive());
+      assertTrue(interruptedAfterCall.get());
+      assertInstanceOf(InterruptedException.class, taskTransformer.getFailure().orElseThrow());
+      assertTrue(
+          transformedClaimIds.stream().noneMatch(claimId -> claimId >= 3 * CHUNK_SIZE),
+          "the fourth chunk should have been cancelled before it started");
+    } finally {
+      releasePooledChunks.countDown();
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Verify that the queue wait is measured from when the task is submitted to its executor, rather
+   * than from when it was set up.
+   *
+   * @throws InterruptedException indicates test failure
+   */
+  @Test
+  void testQueueWaitStartsAtSubmission() throws InterruptedException {
+    PatientClaimsEobTaskTransformerV2 taskTransformer =
+        createParallelTaskTransformer(executorService, createCarrierClaims(1), claimId -> {});
+    long setupToSubmitMillis = 200;
+    Thread.sleep(setupToSubmitMillis);
+
+    taskTransformer.markSubmitted();
+    taskTransformer.call();
+
+    assertTrue(taskTransformer.ranSuccessfully());
+    ArgumentCaptor<Long> queueWaitNanos = ArgumentCaptor.forClass(Long.class);
+    verify(metricsTimer).update(queueWaitNanos.capture(), eq(TimeUnit.NANOSECONDS));
+    assertTrue(queueWaitNanos.getValue() < TimeUnit.MILLISECONDS.toNanos(setupToSubmitMillis));
+  }
+
+  /**
+   * Creates a task that transforms the given carrier claims in parallel chunks of {@link
+   * #CHUNK_SIZE} claims on the given executor.
+   *
+   * @param executor the executor the chunks are offered to
+   * @param claims the claims the claim query returns
+   * @param onTransform called with each claim's id as it is transformed, on the transforming thread
+   * @return the task
+   */
+  private PatientClaimsEobTaskTransformerV2 createParallelTaskTransformer(
+      ExecutorService executor, List<CarrierClaim> claims, Consumer<Long> onTransform) {
+    setupClaimQuery(mockEntityManager, mock(CriteriaQuery.class), mock(Root.class), claims);
+    ClaimTransformerInterfaceV2 claimTransformer =
+        (claimEntity, includeTaxNumbers) -> {
+          long claimId = ((CarrierClaim) claimEntity.getClaimEntity()).getClaimId();
+          onTransform.accept(claimId);
+          ExplanationOfBenefit eob = new ExplanationOfBenefit();
+          eob.setId(String.valueOf(claimId));
+          return eob;
+        };
+    PatientClaimsEobTaskTransformerV2 taskTransformer =
+        new PatientClaimsEobTaskTransformerV2(
+            metricRegistry,
+            mockSamhsaMatcher,
+            samhsaV2InterceptorShadow,
+            securityTagsDao,
+            false,
+            executor,
+            PARALLEL_CHUNKS,
+            PARALLEL_CHUNKS,
+            LOAD_ALL_CLAIMS);
+    taskTransformer.setupTaskParams(
+        claimTransformer, ClaimType.CARRIER, 1234L, Optional.empty(), Optional.empty(), false);
+    taskTransformer.setEntityManager(mockEntityManager);
+    return taskTransformer;
+  }
+
+  /**
+   * Creates carrier claims with the ids zero to {@code count - 1}.
+   *
+   * @param count the number of claims to create
+   * @return the claims, in id order
+   */
+  private static List<CarrierClaim> createCarrierClaims(int count) {
+    List<CarrierClaim> claims = new ArrayList<>();
+    for (long claimId = 0; claimId < count; claimId++) {
+      CarrierClaim claim = new CarrierClaim();
+      claim.setClaimId(claimId);
+      claims.add(claim);
+    }
+    return claims;
+  }
+
   /**
    * Sets up mock query of a given claim type.
    *
@@ -584,21 +983,6 @@ class PatientClaimsEobTaskTransformerV2Test {
    */
   private void setupClaimEntity(
       EntityManager em, ClaimType claimType, CriteriaQuery clmMockCriteria, Root clmRoot) {
-    CriteriaBuilder clmCriteriaBuilder = mock(CriteriaBuilder.class);
-    Path clmMockPath = mock(Path.class);
-    TypedQuery clmMockQuery = mock(TypedQuery.class);
-
-    when(em.getCriteriaBuilder()).thenReturn(clmCriteriaBuilder);
-    doReturn(clmMockCriteria).when(clmCriteriaBuilder).createQuery(any());
-    when(clmMockCriteria.select(any())).thenReturn(clmMockCriteria);
-    when(clmMockCriteria.from(any(Class.class))).thenReturn(clmRoot);
-    when(clmRoot.get(isNull(SingularAttribute.class))).thenReturn(clmMockPath);
-    when(em.createQuery(clmMockCriteria)).thenReturn(clmMockQuery);
-    when(clmMockQuery.setHint(any(), anyBoolean())).thenReturn(clmMockQuery);
-    when(clmMockQuery.setMaxResults(anyInt())).thenReturn(clmMockQuery);
-    when(clmMockQuery.setParameter(anyString(), any())).thenReturn(clmMockQuery);
-    when(clmMockCriteria.distinct(anyBoolean())).thenReturn(clmMockCriteria);
-
     List list = null;
     switch (claimType) {
       case CARRIER -> {
@@ -635,7 +1019,43 @@ class PatientClaimsEobTaskTransformerV2Test {
       }
       default -> {}
     }
-    when(clmMockQuery.getResultList()).thenReturn(list);
+    setupClaimQuery(em, clmMockCriteria, clmRoot, list);
+  }
+
+  /**
+   * Sets up a mock claim query that returns the given claims.
+   *
+   * @param em the {@link EntityManager} claim data to mock.
+   * @param clmMockCriteria the {@link CriteriaQuery} claim query criteria being mocked.
+   * @param clmRoot the {@link Root} claim root being mocked.
+   * @param claims the claims the query returns.
+   */
+  private void setupClaimQuery(
+      EntityManager em, CriteriaQuery clmMockCriteria, Root clmRoot, List claims) {
+    CriteriaBuilder clmCriteriaBuilder = mock(CriteriaBuilder.class);
+    Path clmMockPath = mock(Path.class);
+    TypedQuery clmMockQuery = mock(TypedQuery.class);
+
+    when(em.getCriteriaBuilder()).thenReturn(clmCriteriaBuilder);
+    doReturn(clmMockCriteria).when(clmCriteriaBuilder).createQuery(any());
+    when(clmMockCriteria.select(any())).thenReturn(clmMockCriteria);
+    when(clmMockCriteria.from(any(Class.class))).thenReturn(clmRoot);
+    when(clmRoot.get(isNull(SingularAttribute.class))).thenReturn(clmMockPath);
+    when(em.createQuery(clmMockCriteria)).thenReturn(clmMockQuery);
+    when(clmMockQuery.setHint(any(), any())).thenReturn(clmMockQuery);
+    when(clmMockQuery.setMaxResults(anyInt())).thenReturn(clmMockQuery);
+    when(clmMockQuery.setParameter(anyString(), any())).thenReturn(clmMockQuery);
+    when(clmMockCriteria.distinct(anyBoolean())).thenReturn(clmMockCriteria);
+
+    when(clmMockQuery.getResultList()).thenReturn(claims);
+    when(clmMockQuery.getResultStream()).thenAnswer(invocation -> claims.stream());
+
+    // Claims loaded in windows are read on a separate entity manager
+    EntityTransaction transaction = mock(EntityTransaction.class);
+    when(em.getEntityManagerFactory()).thenReturn(mockEntityManagerFactory);
+    when(mockEntityManagerFactory.createEntityManager()).thenReturn(em);
+    when(em.getTransaction()).thenReturn(transaction);
+    when(transaction.isActive()).thenReturn(true);
   }
 
   /**
@@ -649,8 +1069,14 @@ class PatientClaimsEobTaskTransformerV2Test {
     String expectedTimerName =
         "MetricRegistry.query.eobs_by_bene_id." + claimType.name().toLowerCase();
     verify(metricRegistry, times(1)).timer(expectedTimerName);
-    // time() starts the timer
-    verify(metricsTimer, times(1)).time();
+    // queue wait and execution time are recorded separately per claim type
+    verify(metricRegistry, times(1))
+        .timer("PatientClaimsEobTaskTransformerV2.queue_wait." + claimType.name().toLowerCase());
+    verify(metricRegistry, times(1))
+        .timer("PatientClaimsEobTaskTransformerV2.execution." + claimType.name().toLowerCase());
+    verify(metricsTimer, times(1)).update(anyLong(), eq(TimeUnit.NANOSECONDS));
+    // time() starts the query and execution timers
+    verify(metricsTimer, times(2)).time();
     verify(metricsTimerContext, times(1)).stop();
   }
 }
@@ -0,0 +1,342 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.param.TokenParam;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.rest.server.exceptions.UnclassifiedServerFailureException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.cms.bfd.server.sharedutils.BfdMDC;
+import gov.cms.bfd.server.war.commons.CommonHeaders;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import javax.security.auth.x500.X500Principal;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/** Unit tests for {@link R4BulkExportProvider}. */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public final class R4BulkExportProviderTest {
+  /** The base URL of the server. */
+  private static final String SERVER_BASE = "https://localhost/v2/fhir";
+
+  /** The id of the job used by every test. */
+  private static final String JOB_ID = "0b6c3b8e-3e0a-4f7e-9d55-2f1f9a3c1d2e";
+
+  /** The distinguished name of the client certificate that makes every request. */
+  private static final String CLIENT_IDENTITY = "CN=client";
+
+  /** The Part D contract and month to export. */
+  private final TokenParam coverageId =
+      new TokenParam("https://bluebutton.cms.gov/resources/variables/ptdcntrct01", "S4607");
+
+  /** The reference year of the month to export. */
+  private final TokenParam referenceYear = new TokenParam("", "2018");
+
+  /** Runs the export jobs. */
+  @Mock BulkExportService bulkExportService;
+
+  /** The request details. */
+  @Mock RequestDetails requestDetails;
+
+  /** The request, which holds the client certificate. */
+  @Mock HttpServletRequest request;
+
+  /** The client certificate. */
+  @Mock X509Certificate clientCertificate;
+
+  /** The response that is written to. */
+  @Mock HttpServletResponse response;
+
+  /** Holds what is written to the {@link #response}. */
+  private final ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+
+  /** The provider being tested. */
+  private R4BulkExportProvider provider;
+
+  /**
+   * Sets up a request from {@link #CLIENT_IDENTITY} that asks for an asynchronous response.
+   *
+   * @throws IOException indicates test failure
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    provider = new R4BulkExportProvider(bulkExportService);
+
+    when(requestDetails.getHeader("Prefer")).thenReturn(R4BulkExportProvider.PREFER_RESPOND_ASYNC);
+    when(requestDetails.getHeader(CommonHeaders.HEADER_NAME_INCLUDE_ADDRESS_FIELDS))
+        .thenReturn("true");
+    when(requestDetails.getCompleteUrl()).thenReturn(SERVER_BASE + "/Patient/$export");
+    when(requestDetails.getFhirServerBase()).thenReturn(SERVER_BASE);
+    setClientIdentity(CLIENT_IDENTITY);
+    when(response.getOutputStream())
+        .thenReturn(
+            new ServletOutputStream() {
+              @Override
+              public boolean isReady() {
+                return true;
+              }
+
+              @Override
+              public void setWriteListener(WriteListener writeListener) {}
+
+              @Override
+              public void write(int b) {
+                responseBody.write(b);
+              }
+            });
+  }
+
+  /**
+   * Verifies that a kick-off request starts a job for the requested contract month and client, and
+   * responds with the URL to poll for its status.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testExportStartsJob() throws IOException {
+    when(bulkExportService.submit(anyString(), any(), any(), anyMap(), any(), anyString()))
+        .thenReturn(job(BulkExportJob.Status.IN_PROGRESS, CLIENT_IDENTITY));
+
+    provider.exportByCoverageContract(
+        coverageId, referenceYear, null, null, requestDetails, request, response);
+
+    verify(bulkExportService)
+        .submit(
+            "S4607",
+            LocalDate.of(2018, 1, 1),
+            BulkExportService.SUPPORTED_RESOURCE_TYPES,
+            Map.of(CommonHeaders.HEADER_NAME_INCLUDE_ADDRESS_FIELDS, "true"),
+            CLIENT_IDENTITY,
+            SERVER_BASE + "/Patient/$export");
+    verify(response).setStatus(HttpServletResponse.SC_ACCEPTED);
+    verify(response)
+        .setHeader("Content-Location", SERVER_BASE + "/$export-poll-status?_jobId=" + JOB_ID);
+  }
+
+  /**
+   * Verifies that a kick-off request without the {@code Prefer: respond-async} header is rejected
+   * before a job is started.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testExportRequiresPreferHeader() throws IOException {
+    when(requestDetails.getHeader("Prefer")).thenReturn(null);
+
+    assertThrows(
+        InvalidRequestException.class,
+        () ->
+            provider.exportByCoverageContract(
+                coverageId, referenceYear, null, null, requestDetails, request, response));
+    verify(bulkExportService, never())
+        .submit(anyString(), any(), any(), anyMap(), any(), anyString());
+  }
+
+  /**
+   * Verifies that a kick-off request made while the job queue is full is answered with {@code 429
+   * Too Many Requests} and a {@code Retry-After} header.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testExportRejectedWhenQueueIsFull() throws IOException {
+    when(bulkExportService.submit(anyString(), any(), any(), anyMap(), any(), anyString()))
+        .thenThrow(new RejectedExecutionException());
+
+    UnclassifiedServerFailureException exception =
+        assertThrows(
+            UnclassifiedServerFailureException.class,
+            () ->
+                provider.exportByCoverageContract(
+                    coverageId, referenceYear, null, null, requestDetails, request, response));
+    assertEquals(429, exception.getStatusCode());
+    assertEquals(
+        List.of(Integer.toString(R4BulkExportProvider.RETRY_AFTER_SECONDS)),
+        exception.getResponseHeaders().get("Retry-After"));
+  }
+
+  /**
+   * Verifies that the status of a job in progress asks the client to poll again later.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testPollStatusInProgress() throws IOException {
+    when(bulkExportService.getJob(JOB_ID))
+        .thenReturn(Optional.of(job(BulkExportJob.Status.IN_PROGRESS, CLIENT_IDENTITY)));
+
+    provider.exportPollStatus(new StringType(JOB_ID), requestDetails, request, response);
+
+    verify(response).setStatus(HttpServletResponse.SC_ACCEPTED);
+    verify(response)
+        .setHeader("Retry-After", Integer.toString(R4BulkExportProvider.RETRY_AFTER_SECONDS));
+  }
+
+  /**
+   * Verifies that the status of a completed job is its manifest, listing the URL of every output
+   * file.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testPollStatusReturnsManifest() throws IOException {
+    BulkExportJob job = job(BulkExportJob.Status.COMPLETED, CLIENT_IDENTITY);
+    job.getOutput().add(new BulkExportJob.OutputFile("Patient", "Patient-1.ndjson", 1, 2));
+    job.getOutput().add(new BulkExportJob.OutputFile("Coverage", "Coverage-1.ndjson", 1, 6));
+    when(bulkExportService.getJob(JOB_ID)).thenReturn(Optional.of(job));
+
+    provider.exportPollStatus(new StringType(JOB_ID), requestDetails, request, response);
+
+    verify(response).setStatus(HttpServletResponse.SC_OK);
+    verify(response).setContentType("application/json");
+    JsonNode manifest = new ObjectMapper().readTree(responseBody.toByteArray());
+    assertEquals(Instant.ofEpochMilli(1000L).toString(), manifest.get("transactionTime").asText());
+    assertEquals(job.getRequest(), manifest.get("request").asText());
+    assertTrue(manifest.get("requiresAccessToken").asBoolean());
+    assertEquals(2, manifest.get("output").size());
+    assertEquals("Coverage", manifest.get("output").get(1).get("type").asText());
+    assertEquals(6, manifest.get("output").get(1).get("count").asLong());
+    assertEquals(
+        SERVER_BASE + "/$export-file?_jobId=" + JOB_ID + "&_file=Coverage-1.ndjson",
+        manifest.get("output").get(1).get("url").asText());
+    assertEquals(0, manifest.get("error").size());
+  }
+
+  /**
+   * Verifies that a job started by another client, or by a request without a client certificate, is
+   * reported as missing by both the status and file operations.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testOtherClientsJobIsNotFound() throws IOException {
+    BulkExportJob job = job(BulkExportJob.Status.COMPLETED, "CN=other");
+    job.getOutput().add(new BulkExportJob.OutputFile("Patient", "Patient-1.ndjson", 1, 2));
+    when(bulkExportService.getJob(JOB_ID)).thenReturn(Optional.of(job));
+
+    assertThrows(
+        ResourceNotFoundException.class,
+        () -> provider.exportPollStatus(new StringType(JOB_ID), requestDetails, request, response));
+    assertThrows(
+        ResourceNotFoundException.class,
+        () ->
+            provider.exportFile(
+                new StringType(JOB_ID), new StringType("Patient-1.ndjson"), request, response));
+    verify(bulkExportService, never()).openOutputFile(any(), anyString());
+
+    job.setClientIdentity(CLIENT_IDENTITY);
+    when(request.getAttribute("jakarta.servlet.request.X509Certificate")).thenReturn(null);
+    assertThrows(
+        ResourceNotFoundException.class,
+        () -> provider.exportPollStatus(new StringType(JOB_ID), requestDetails, request, response));
+    verify(response, never()).setStatus(eq(HttpServletResponse.SC_OK));
+  }
+
+  /**
+   * Verifies that a served file is written to the response and that the ids of the beneficiaries in
+   * it are logged for the request.
+   *
+   * @throws IOException indicates test failure
+   */
+  @Test
+  public void testExportFileLogsBeneficiaryIds() throws IOException {
+    BulkExportJob job = job(BulkExportJob.Status.COMPLETED, CLIENT_IDENTITY);
+    job.getOutput().add(new BulkExportJob.OutputFile("Patient", "Patient-1.ndjson", 1, 2));
+    when(bulkExportService.getJob(JOB_ID)).thenReturn(Optional.of(job));
+    when(bulkExportService.openOutputFile(job, "Patient-1.ndjson"))
+        .thenReturn(
+            Optional.of(new ByteArrayInputStream("{}\n{}\n".getBytes(StandardCharsets.UTF_8))));
+    when(bulkExportService.readBeneficiaryIds(job, "Patient-1.ndjson")).thenReturn(List.of(1L, 2L));
+
+    BfdMDC.clear();
+    provider.exportFile(
+        new StringType(JOB_ID), new StringType("Patient-1.ndjson"), request, response);
+
+    verify(response).setStatus(HttpServletResponse.SC_OK);
+    verify(response).setContentType(R4BulkExportProvider.NDJSON_CONTENT_TYPE);
+    assertEquals("{}\n{}\n", responseBody.toString(StandardCharsets.UTF_8));
+    assertEquals("1, 2", BfdMDC.get("bene_id"));
+  }
+
+  /**
+   * Verifies that repeated resource types are ignored and unsupported ones are rejected as a bad
+   * request.
+   */
+  @Test
+  public void testParseResourceTypes() {
+    assertEquals(
+        BulkExportService.SUPPORTED_RESOURCE_TYPES,
+        R4BulkExportProvider.parseResourceTypes(new StringType("Coverage,Patient,Coverage")));
+    assertEquals(
+        List.of("Patient"),
+        R4BulkExportProvider.parseResourceTypes(new StringType("Patient,Patient")));
+    assertThrows(
+        InvalidRequestException.class,
+        () -> R4BulkExportProvider.parseResourceTypes(new StringType("Patient,Claim,Claim")));
+  }
+
+  /**
+   * Makes the {@link #request} come from a client certificate with the given distinguished name.
+   *
+   * @param distinguishedName the certificate's distinguished name
+   */
+  private void setClientIdentity(String distinguishedName) {
+    when(clientCertificate.getSubjectX500Principal())
+        .thenReturn(new X500Principal(distinguishedName));
+    when(request.getAttribute("jakarta.servlet.request.X509Certificate"))
+        .thenReturn(new X509Certificate[] {clientCertificate});
+  }
+
+  /**
+   * Creates a job with the {@link #JOB_ID}.
+   *
+   * @param status the job's status
+   * @param clientIdentity the identity of the client that started the job
+   * @return the job
+   */
+  private static BulkExportJob job(BulkExportJob.Status status, String clientIdentity) {
+    BulkExportJob job = new BulkExportJob();
+    job.setId(JOB_ID);
+    job.setStatus(status);
+    job.setRequest(SERVER_BASE + "/Patient/$export");
+    job.setClientIdentity(clientIdentity);
+    job.setContractId("S4607");
+    job.setYearMonth("2018-01-01");
+    job.setResourceTypes(BulkExportService.SUPPORTED_RESOURCE_TYPES);
+    job.setTransactionTime(1000L);
+    return job;
+  }
+}
@@ -2,27 +2,39 @@ package gov.cms.bfd.server.war.r4.providers.pac.common;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.rest.param.DateParam;
 import ca.uhn.fhir.rest.param.DateRangeParam;
 import com.codahale.metrics.MetricRegistry;
 import gov.cms.bfd.model.rda.entities.RdaFissClaim;
 import gov.cms.bfd.model.rda.entities.RdaMcsClaim;
+import gov.cms.bfd.server.war.commons.SecurityTagManager;
 import gov.cms.bfd.server.war.commons.SecurityTagsDao;
 import gov.cms.bfd.server.war.r4.providers.pac.ClaimResponseTypeV2;
 import gov.cms.bfd.server.war.r4.providers.pac.ClaimTypeV2;
+import gov.cms.bfd.server.war.r4.providers.pac.FissClaimResponseTransformerV2;
+import gov.cms.bfd.server.war.r4.providers.pac.FissClaimTransformerV2;
+import gov.cms.bfd.server.war.r4.providers.pac.McsClaimResponseTransformerV2;
+import gov.cms.bfd.server.war.r4.providers.pac.McsClaimTransformerV2;
 import gov.cms.bfd.server.war.utils.RDATestUtils;
 import jakarta.annotation.Nullable;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.AllArgsConstructor;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Claim;
+import org.hl7.fhir.r4.model.ClaimResponse;
+import org.hl7.fhir.r4.model.Resource;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 
@@ -154,6 +166,66 @@ public class ClaimDaoIT {
     assertEquals(0, claims.size());
   }
 
+  /**
+   * Generates parameters for {@link ClaimDaoIT#testWindowedQueryMatchesQueryLoadingAll}: each of
+   * the Claim and ClaimResponse resource types, along with the transformer for it.
+   *
+   * @return all test parameters
+   */
+  private static Stream<Arguments> getWindowedQueryParameters() {
+    final var securityTagManager = new SecurityTagManager();
+    return Stream.of(
+        Arguments.of(
+            ClaimTypeV2.F,
+            new FissClaimTransformerV2(new MetricRegistry(), securityTagManager, false)),
+        Arguments.of(
+            ClaimTypeV2.M,
+            new McsClaimTransformerV2(new MetricRegistry(), securityTagManager, false)),
+        Arguments.of(
+            ClaimResponseTypeV2.F,
+            new FissClaimResponseTransformerV2(new MetricRegistry(), securityTagManager, false)),
+        Arguments.of(
+            ClaimResponseTypeV2.M,
+            new McsClaimResponseTransformerV2(new MetricRegistry(), securityTagManager, false)));
+  }
+
+  /**
+   * Verifies that finding claims in windows, including windows smaller than the number of lines of
+   * a single claim, finds each claim once with all of its lines and tags, and so transforms them
+   * into the same resources as finding them all at once. Each of the seeded claims has two lines.
+   *
+   * @param resourceType the type of claim to find
+   * @param transformer transforms the claims into resources
+   */
+  @ParameterizedTest()
+  @MethodSource("getWindowedQueryParameters")
+  protected void testWindowedQueryMatchesQueryLoadingAll(
+      ResourceTypeV2<?, ?> resourceType, ResourceTransformer<?> transformer) {
+    final ClaimDao claimDao =
+        new ClaimDao(testUtils.getEntityManager(), metricRegistry, false, securityTagsDao);
+    testUtils.seedData(false);
+
+    final List<String> expected =
+        claimDao.findAllByMbiAttribute(resourceType, RDATestUtils.MBI, false, null, null).stream()
+            .map(claim -> encode(transformer.transform(claim, false)))
+            .collect(Collectors.toList());
+    assertEquals(3, expected.size());
+
+    for (int windowSize : List.of(1, 2, 3)) {
+      final List<String> windowed = new ArrayList<>();
+      claimDao.findAllByMbiAttributeInWindows(
+          resourceType,
+          RDATestUtils.MBI,
+          false,
+          null,
+          null,
+          windowSize,
+          window ->
+              window.forEach(claim -> windowed.add(encode(transformer.transform(claim, false)))));
+      assertEquals(expected, windowed, "window size " + windowSize);
+    }
+  }
+
   /**
    * Generates parameters for {@link ClaimDaoIT#testMcsServiceDateQuery}.
    *
@@ -426,6 +498,22 @@ public class ClaimDaoIT {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Encodes a resource without the time it was created, which differs between transformations.
+   *
+   * @param resource the Claim or ClaimResponse resource
+   * @return the encoded resource
+   */
+  private static String encode(IBaseResource resource) {
+    final Resource copy = ((Resource) resource).copy();
+    if (copy instanceof Claim claim) {
+      claim.setCreated(null);
+    } else if (copy instanceof ClaimResponse claimResponse) {
+      claimResponse.setCreated(null);
+    }
+    return FhirContext.forR4Cached().newJsonParser().encodeResourceToString(copy);
+  }
+
   /**
    * Parameter object defining a test case for {@link ClaimDaoIT#testMcsServiceDateQuery} and {@link
    * ClaimDaoIT#testFissServiceDateQuery}.
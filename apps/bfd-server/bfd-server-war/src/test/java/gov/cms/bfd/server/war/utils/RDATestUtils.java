@@ -273,6 +273,7 @@ public class RDATestUtils {
         Set.of(
             RdaFissProcCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .procCode("CODEABC")
                 .procFlag("FLAG")
@@ -280,6 +281,7 @@ public class RDATestUtils {
                 .build(),
             RdaFissProcCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 2)
                 .procCode("CODECBA")
                 .procFlag("FLA2")
@@ -289,18 +291,21 @@ public class RDATestUtils {
         Set.of(
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .diagCd2("admitcd")
                 .diagPoaInd("Z")
                 .build(),
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 2)
                 .diagCd2("other")
                 .diagPoaInd("U")
                 .build(),
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 3)
                 .diagCd2("princcd")
                 .diagPoaInd("n")
@@ -310,6 +315,7 @@ public class RDATestUtils {
         Set.of(
             RdaFissPayer.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .beneFirstName("jim")
                 .beneMidInit("k")
@@ -321,6 +327,7 @@ public class RDATestUtils {
                 .build(),
             RdaFissPayer.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 2)
                 .insuredName("BAKER  JIM  K")
                 .payerType(RdaFissPayer.PayerType.Insured)
@@ -331,6 +338,7 @@ public class RDATestUtils {
         Set.of(
             RdaFissRevenueLine.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .serviceDate(LocalDate.of(1980, 12, 5))
                 .serviceDateText("1980-12-05")
@@ -352,6 +360,7 @@ public class RDATestUtils {
                 .build(),
             RdaFissRevenueLine.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 2)
                 .ndc("00777310502")
                 .ndcQty("1.5")
@@ -409,6 +418,7 @@ public class RDATestUtils {
         Set.of(
             RdaFissProcCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .procCode("CODEABD")
                 .procFlag("FLAC")
@@ -419,18 +429,21 @@ public class RDATestUtils {
         Set.of(
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .diagCd2("princcc")
                 .diagPoaInd("Y")
                 .build(),
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 2)
                 .diagCd2("other2")
                 .diagPoaInd("w")
                 .build(),
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 3)
                 .diagCd2("admitcc")
                 .diagPoaInd("1")
@@ -440,6 +453,7 @@ public class RDATestUtils {
         Set.of(
             RdaFissPayer.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .beneFirstName("alice")
                 .beneMidInit("r")
@@ -451,6 +465,7 @@ public class RDATestUtils {
                 .build(),
             RdaFissPayer.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 2)
                 .insuredName("SMITH  ALICE  R")
                 .payerType(RdaFissPayer.PayerType.Insured)
@@ -461,6 +476,7 @@ public class RDATestUtils {
         Set.of(
             RdaFissRevenueLine.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .serviceDate(LocalDate.of(1990, 12, 11))
                 .serviceDateText("1990-12-11")
@@ -533,6 +549,7 @@ public class RDATestUtils {
         Set.of(
             RdaFissProcCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .procCode("CODEABD")
                 .procFlag("FLAC")
@@ -543,18 +560,21 @@ public class RDATestUtils {
         Set.of(
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .diagCd2("princcc")
                 .diagPoaInd("Y")
                 .build(),
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 2)
                 .diagCd2("other2")
                 .diagPoaInd("w")
                 .build(),
             RdaFissDiagnosisCode.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 3)
                 .diagCd2("admitcc")
                 .diagPoaInd("1")
@@ -564,6 +584,7 @@ public class RDATestUtils {
         Set.of(
             RdaFissPayer.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .beneFirstName("alice")
                 .beneMidInit("r")
@@ -575,6 +596,7 @@ public class RDATestUtils {
                 .build(),
             RdaFissPayer.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 2)
                 .insuredName("SMITH  ALICE  R")
                 .payerType(RdaFissPayer.PayerType.Insured)
@@ -585,6 +607,7 @@ public class RDATestUtils {
         Set.of(
             RdaFissRevenueLine.builder()
                 .claimId(claim.getClaimId())
+                .lastUpdated(claim.getLastUpdated())
                 .rdaPosition((short) 1)
                 .serviceDate(LocalDate.of(1990, 12, 11))
                 .serviceDateText("1990-12-11")
@@ -660,6 +683,7 @@ public class RDATestUtils {
             RdaMcsDetail.builder()
                 .idrDtlNumber((short) 1)
                 .idrClmHdIcn("654321")
+                .lastUpdated(claim.getLastUpdated())
                 .idrDtlToDate(LocalDate.of(1970, 7, 30))
                 .idrProcCode("FDSAE")
                 .idrDtlPrimaryDiagCode("HF3IJIF")
@@ -670,6 +694,7 @@ public class RDATestUtils {
             RdaMcsDetail.builder()
                 .idrDtlNumber((short) 2)
                 .idrClmHdIcn("654321")
+                .lastUpdated(claim.getLastUpdated())
                 .idrModTwo("B")
                 .build());
 
@@ -677,8 +702,8 @@ public class RDATestUtils {
 
     claim.setDiagCodes(
         Set.of(
-            new RdaMcsDiagnosisCode("654321", (short) 1, "0", "HF3IJIF"),
-            new RdaMcsDiagnosisCode("654321", (short) 2, "9", "HF3IJIG")));
+            new RdaMcsDiagnosisCode("654321", claim.getLastUpdated(), (short) 1, "0", "HF3IJIF"),
+            new RdaMcsDiagnosisCode("654321", claim.getLastUpdated(), (short) 2, "9", "HF3IJIG")));
 
     return claim;
   }
@@ -731,6 +756,7 @@ public class RDATestUtils {
             RdaMcsDetail.builder()
                 .idrDtlNumber((short) 1)
                 .idrClmHdIcn("654323")
+                .lastUpdated(claim.getLastUpdated())
                 .idrDtlToDate(LocalDate.of(1970, 7, 28))
                 .idrProcCode("FDSAE")
                 .idrModOne("A")
@@ -738,6 +764,7 @@ public class RDATestUtils {
             RdaMcsDetail.builder()
                 .idrDtlNumber((short) 2)
                 .idrClmHdIcn("654323")
+                .lastUpdated(claim.getLastUpdated())
                 .idrProcCode("FDAAA")
                 .idrModTwo("B")
                 .build());
@@ -746,8 +773,8 @@ public class RDATestUtils {
 
     claim.setDiagCodes(
         Set.of(
-            new RdaMcsDiagnosisCode("654323", (short) 1, "0", "HF3IJIF"),
-            new RdaMcsDiagnosisCode("654323", (short) 2, "9", "HF3IJIG")));
+            new RdaMcsDiagnosisCode("654323", claim.getLastUpdated(), (short) 1, "0", "HF3IJIF"),
+            new RdaMcsDiagnosisCode("654323", claim.getLastUpdated(), (short) 2, "9", "HF3IJIG")));
 
     return claim;
   }
@@ -799,6 +826,7 @@ public class RDATestUtils {
             RdaMcsDetail.builder()
                 .idrDtlNumber((short) 1)
                 .idrClmHdIcn("876543")
+                .lastUpdated(claim.getLastUpdated())
                 .idrDtlToDate(LocalDate.of(1970, 7, 28))
                 // SAMHSA HCPCS code
                 .idrProcCode("4320F")
@@ -807,6 +835,7 @@ public class RDATestUtils {
             RdaMcsDetail.builder()
                 .idrDtlNumber((short) 2)
                 .idrClmHdIcn("654323")
+                .lastUpdated(claim.getLastUpdated())
                 .idrProcCode("FDAAA")
                 .idrModTwo("B")
                 .build());
@@ -815,8 +844,8 @@ public class RDATestUtils {
 
     claim.setDiagCodes(
         Set.of(
-            new RdaMcsDiagnosisCode("876543", (short) 1, "0", "HF3IJIF"),
-            new RdaMcsDiagnosisCode("876543", (short) 2, "9", "HF3IJIG")));
+            new RdaMcsDiagnosisCode("876543", claim.getLastUpdated(), (short) 1, "0", "HF3IJIF"),
+            new RdaMcsDiagnosisCode("876543", claim.getLastUpdated(), (short) 2, "9", "HF3IJIG")));
 
     return claim;
   }
@@ -877,6 +906,7 @@ public class RDATestUtils {
                     RdaMcsDetail.builder()
                         .idrDtlNumber((short) index.getAndIncrement())
                         .idrClmHdIcn(claimId)
+                        .lastUpdated(claim.getLastUpdated())
                         .idrDtlToDate(serviceDate)
                         .idrProcCode("FDSAE")
                         .idrModOne("A")
@@ -887,8 +917,8 @@ public class RDATestUtils {
 
     claim.setDiagCodes(
         Set.of(
-            new RdaMcsDiagnosisCode(claimId, (short) 1, "0", "HF3IJIF"),
-            new RdaMcsDiagnosisCode(claimId, (short) 2, "1", "HF3IJIG")));
+            new RdaMcsDiagnosisCode(claimId, claim.getLastUpdated(), (short) 1, "0", "HF3IJIF"),
+            new RdaMcsDiagnosisCode(claimId, claim.getLastUpdated(), (short) 2, "1", "HF3IJIG")));
 
     doTransaction(
         em -> {
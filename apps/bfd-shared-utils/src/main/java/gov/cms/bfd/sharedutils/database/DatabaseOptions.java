@@ -294,7 +294,8 @@ public class DatabaseOptions {
                 entry("fastestResponseStrategy", FastestResponseStrategyPluginFactory.class),
                 entry("initialConnection", AuroraInitialConnectionStrategyPluginFactory.class),
                 entry(
-                    "singleNodeHostOverride", SingleNodeHostOverrideConnectionPluginFactory.class));
+                    "singleNodeHostOverride", SingleNodeHostOverrideConnectionPluginFactory.class),
+                entry("latencyAwareReader", LatencyAwareReaderConnectionPluginFactory.class));
 
     /**
      * Whether a custom preset should be generated based upon the given {@link #basePresetCode} and
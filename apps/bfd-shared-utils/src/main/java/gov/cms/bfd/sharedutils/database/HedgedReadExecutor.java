@@ -0,0 +1,339 @@
+package gov.cms.bfd.sharedutils.database;
+
+import com.google.common.base.Preconditions;
+import jakarta.annotation.Nullable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs idempotent, read-only queries with hedging: when a query takes longer than the 95th
+ * percentile of its recent latencies, the same query is started again on a different reader and
+ * whichever attempt succeeds first provides the result. This trims the latency tail caused by a
+ * single slow reader at the cost of running roughly 5% of the queries twice.
+ *
+ * <p>The reader the first attempt is stuck on is learned through {@link
+ * ReaderLatencyTracker#callRecordingHost} and avoided by the second attempt through {@link
+ * ReaderLatencyTracker#callExcluding}, which requires the {@link
+ * LatencyAwareReaderConnectionPlugin} to be configured along with its host selection strategy.
+ * Without it the second attempt still runs but may be routed to the same reader.
+ *
+ * <p>Each attempt must obtain its own connection, for example by creating its own {@code
+ * EntityManager}, because the attempts run concurrently. The attempt that loses keeps running until
+ * it finishes since JDBC statements cannot be reliably cancelled from another thread, and keeps
+ * holding a permit until then when permits are used. Never use this for queries that modify data.
+ *
+ * <p>{@link #close} closes the executor that runs the attempts if it is {@link AutoCloseable}, so
+ * instances should be given an executor of their own.
+ */
+@Slf4j
+public class HedgedReadExecutor implements AutoCloseable {
+  /** Default number of recent latencies used to compute the hedging threshold of each query. */
+  public static final int DEFAULT_WINDOW_SIZE = 200;
+
+  /** Minimum number of latencies measured for a query before any of its attempts are hedged. */
+  static final int MIN_SAMPLES = 20;
+
+  /** Percentile of the recent latencies after which a query is hedged. */
+  private static final double HEDGE_PERCENTILE = 0.95;
+
+  /** Runs the attempts, or null if hedging is disabled. */
+  @Nullable private final Executor executor;
+
+  /** Reports and avoids the reader each attempt runs on. */
+  private final ReaderLatencyTracker latencyTracker;
+
+  /** A query is never hedged before it has run for at least this long. */
+  private final long minimumDelayNanos;
+
+  /** Number of recent latencies used to compute the hedging threshold of each query. */
+  private final int windowSize;
+
+  /** Recent latencies of each query, keyed by query name. */
+  private final ConcurrentMap<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+  /** Number of attempts that were hedged. */
+  private final AtomicLong hedgeCount = new AtomicLong();
+
+  /**
+   * Initializes an instance.
+   *
+   * @param executor runs the attempts, should not limit the number of concurrent tasks since
+   *     attempts block on the database, closed by {@link #close} if it is {@link AutoCloseable}
+   * @param latencyTracker reports and avoids the reader each attempt runs on
+   * @param minimumDelay a query is never hedged before it has run for at least this long
+   * @param windowSize number of recent latencies used to compute the hedging threshold
+   */
+  public HedgedReadExecutor(
+      Executor executor,
+      ReaderLatencyTracker latencyTracker,
+      Duration minimumDelay,
+      int windowSize) {
+    Preconditions.checkArgument(!minimumDelay.isNegative(), "minimumDelay must not be negative");
+    Preconditions.checkArgument(
+        windowSize >= MIN_SAMPLES, "windowSize must be at least %s", MIN_SAMPLES);
+    this.executor = executor;
+    this.latencyTracker = latencyTracker;
+    this.minimumDelayNanos = minimumDelay.toNanos();
+    this.windowSize = windowSize;
+  }
+
+  /**
+   * Creates an instance that runs every query once on the calling thread, used when hedging is
+   * disabled.
+   *
+   * @return the instance
+   */
+  public static HedgedReadExecutor disabled() {
+    return new HedgedReadExecutor();
+  }
+
+  /** Initializes an instance that does not hedge. */
+  private HedgedReadExecutor() {
+    executor = null;
+    latencyTracker = ReaderLatencyTracker.getInstance();
+    minimumDelayNanos = 0;
+    windowSize = DEFAULT_WINDOW_SIZE;
+  }
+
+  /**
+   * Runs a query, hedging it on a second reader if it is slower than usual. Exceptions thrown by
+   * the query are rethrown unchanged. When both attempts fail, the exception of the first attempt
+   * is rethrown.
+   *
+   * @param queryName identifies the query, latencies are tracked separately for each name
+   * @param query the query, must be idempotent and must not share a connection with other attempts
+   * @param <T> type of the result
+   * @return the result of whichever attempt succeeded first
+   */
+  public <T> T execute(String queryName, Supplier<T> query) {
+    return execute(queryName, query, null);
+  }
+
+  /**
+   * Runs a query like {@link #execute(String, Supplier)}, but only hedges it if a permit can be
+   * taken from {@code hedgePermits} without waiting. The caller is expected to hold a permit of its
+   * own while this method runs. The hedge's permit is held until both attempts have finished, so
+   * the attempt that loses the race still holds a permit after the caller has released its own, and
+   * callers that limit the connections they use count every running attempt.
+   *
+   * @param queryName identifies the query, latencies are tracked separately for each name
+   * @param query the query, must be idempotent and must not share a connection with other attempts
+   * @param hedgePermits permits limiting the attempts of the caller, or null to hedge without limit
+   * @param <T> type of the result
+   * @return the result of whichever attempt succeeded first
+   */
+  public <T> T execute(String queryName, Supplier<T> query, @Nullable Semaphore hedgePermits) {
+    if (executor == null) {
+      return query.get();
+    }
+    final LatencyWindow window =
+        windows.computeIfAbsent(queryName, name -> new LatencyWindow(windowSize));
+    final AtomicReference<String> primaryHost = new AtomicReference<>();
+    final CompletableFuture<T> primary =
+        attempt(window, () -> latencyTracker.callRecordingHost(primaryHost, query));
+
+    final long delayNanos = window.getHedgeDelayNanos();
+    if (delayNanos < 0) {
+      return await(primary);
+    }
+    try {
+      return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException ex) {
+      // The primary attempt is slower than usual, so race it against a hedged attempt below.
+    } catch (ExecutionException ex) {
+      throw unwrap(ex.getCause());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ex);
+    }
+
+    if (hedgePermits != null && !hedgePermits.tryAcquire()) {
+      log.debug("Not hedging query {}, no permit is available", queryName);
+      return await(primary);
+    }
+    final String slowHost = primaryHost.get();
+    final Set<String> excludedHosts = slowHost == null ? Set.of() : Set.of(slowHost);
+    log.debug("Hedging query {} after {} ns, avoiding {}", queryName, delayNanos, slowHost);
+    hedgeCount.incrementAndGet();
+    final CompletableFuture<T> hedge =
+        attempt(window, () -> latencyTracker.callExcluding(excludedHosts, query));
+    if (hedgePermits != null) {
+      CompletableFuture.allOf(primary, hedge).whenComplete((result, ex) -> hedgePermits.release());
+    }
+    return await(firstSuccessful(primary, hedge));
+  }
+
+  /**
+   * Closes the executor that runs the attempts if it is {@link AutoCloseable}. Does nothing when
+   * hedging is disabled.
+   */
+  @Override
+  public void close() {
+    if (executor instanceof AutoCloseable closeable) {
+      try {
+        closeable.close();
+      } catch (Exception ex) {
+        log.warn("Failed to close hedged read executor", ex);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of queries that were hedged since this executor was created.
+   *
+   * @return the number of hedged queries
+   */
+  public long getHedgeCount() {
+    return hedgeCount.get();
+  }
+
+  /**
+   * Starts one attempt of a query, recording its latency in the window when it succeeds.
+   *
+   * @param window recent latencies of the query
+   * @param query the query
+   * @param <T> type of the result
+   * @return the pending result
+   */
+  private <T> CompletableFuture<T> attempt(LatencyWindow window, Supplier<T> query) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          final long startNanos = System.nanoTime();
+          final T result = query.get();
+          window.add(System.nanoTime() - startNanos);
+          return result;
+        },
+        executor);
+  }
+
+  /**
+   * Completes with the result of the first attempt that succeeds, or with the exception of the
+   * primary attempt if both fail.
+   *
+   * @param primary the first attempt
+   * @param hedge the second attempt
+   * @param <T> type of the result
+   * @return the combined result
+   */
+  private static <T> CompletableFuture<T> firstSuccessful(
+      CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    final AtomicReference<Throwable> primaryError = new AtomicReference<>();
+    final AtomicInteger failures = new AtomicInteger();
+    primary.whenComplete(
+        (value, error) -> {
+          if (error == null) {
+            result.complete(value);
+          } else {
+            primaryError.set(error);
+            if (failures.incrementAndGet() == 2) {
+              result.completeExceptionally(error);
+            }
+          }
+        });
+    hedge.whenComplete(
+        (value, error) -> {
+          if (error == null) {
+            result.complete(value);
+          } else if (failures.incrementAndGet() == 2) {
+            result.completeExceptionally(primaryError.get());
+          }
+        });
+    return result;
+  }
+
+  /**
+   * Waits for a result, rethrowing the exception of a failed attempt unchanged.
+   *
+   * @param future the pending result
+   * @param <T> type of the result
+   * @return the result
+   */
+  private static <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      throw unwrap(ex.getCause());
+    }
+  }
+
+  /**
+   * Converts the cause of a failed attempt back into the exception thrown by the query.
+   *
+   * @param cause the cause
+   * @return the exception to throw
+   */
+  private static RuntimeException unwrap(Throwable cause) {
+    if (cause instanceof CompletionException && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    if (cause instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    return new CompletionException(cause);
+  }
+
+  /** Fixed size ring buffer of the most recent latencies of one query. */
+  private final class LatencyWindow {
+    /** The latencies in nanoseconds, overwritten oldest first once the buffer is full. */
+    private final long[] latencies;
+
+    /** Total number of latencies added. */
+    private long count;
+
+    /**
+     * Initializes an instance.
+     *
+     * @param size number of latencies to keep
+     */
+    private LatencyWindow(int size) {
+      latencies = new long[size];
+    }
+
+    /**
+     * Adds the latency of a successful attempt.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    private synchronized void add(long nanos) {
+      latencies[(int) (count % latencies.length)] = nanos;
+      count++;
+    }
+
+    /**
+     * Computes how long to wait for the primary attempt before hedging it.
+     *
+     * @return the delay in nanoseconds, or -1 if too few latencies are known to hedge
+     */
+    private long getHedgeDelayNanos() {
+      final long[] sorted;
+      synchronized (this) {
+        if (count < MIN_SAMPLES) {
+          return -1;
+        }
+        sorted = Arrays.copyOf(latencies, (int) Math.min(count, latencies.length));
+      }
+      Arrays.sort(sorted);
+      final long percentile = sorted[(int) Math.ceil(HEDGE_PERCENTILE * sorted.length) - 1];
+      return Math.max(percentile, minimumDelayNanos);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package gov.cms.bfd.sharedutils.database;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import software.amazon.jdbc.ConnectionPlugin;
+import software.amazon.jdbc.HostRole;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.JdbcCallable;
+import software.amazon.jdbc.PluginService;
+import software.amazon.jdbc.plugin.AbstractConnectionPlugin;
+import software.amazon.jdbc.plugin.AuroraInitialConnectionStrategyPlugin;
+
+/**
+ * AWS JDBC Wrapper {@link ConnectionPlugin} that measures the latency of every query run against a
+ * reader and offers the {@link #STRATEGY} host selection strategy, which routes new connections to
+ * the fastest healthy readers as determined by a {@link ReaderLatencyTracker}.
+ *
+ * @implNote To route the initial connection to the readers by latency, this plugin must be combined
+ *     with the {@link AuroraInitialConnectionStrategyPlugin} and the reader host selector strategy
+ *     must be set to {@link #STRATEGY}. The failover plugins use the same strategy when they are
+ *     configured with it.
+ */
+@RequiredArgsConstructor
+public class LatencyAwareReaderConnectionPlugin extends AbstractConnectionPlugin {
+  /** Name of the host selection strategy implemented by this plugin. */
+  public static final String STRATEGY = "latencyAware";
+
+  /**
+   * Methods that are subscribed to by this plugin so that this plugin can modify their behavior.
+   */
+  private static final Set<String> subscribedMethods =
+      Set.of(
+          "acceptsStrategy",
+          "getHostSpecByStrategy",
+          "Statement.execute",
+          "Statement.executeQuery",
+          "PreparedStatement.execute",
+          "PreparedStatement.executeQuery",
+          "CallableStatement.execute",
+          "CallableStatement.executeQuery");
+
+  /** Service providing various helper functions for plugins. */
+  private final PluginService pluginService;
+
+  /** Collects the latency of every reader and chooses between them. */
+  private final ReaderLatencyTracker latencyTracker;
+
+  @Override
+  public Set<String> getSubscribedMethods() {
+    return subscribedMethods;
+  }
+
+  @Override
+  public <T, E extends Exception> T execute(
+      Class<T> resultClass,
+      Class<E> exceptionClass,
+      Object methodInvokeOn,
+      String methodName,
+      JdbcCallable<T, E> jdbcMethodFunc,
+      Object[] jdbcMethodArgs)
+      throws E {
+    final HostSpec hostSpec = pluginService.getCurrentHostSpec();
+    if (hostSpec == null || hostSpec.getRole() != HostRole.READER) {
+      return jdbcMethodFunc.call();
+    }
+
+    final String host = hostSpec.getHost();
+    latencyTracker.noteQueryHost(host);
+    final long startNanos = System.nanoTime();
+    try {
+      final T result = jdbcMethodFunc.call();
+      latencyTracker.recordLatency(host, System.nanoTime() - startNanos);
+      return result;
+    } catch (Exception ex) {
+      latencyTracker.recordFailure(host);
+      throw ex;
+    }
+  }
+
+  @Override
+  public boolean acceptsStrategy(HostRole role, String strategy) {
+    return role == HostRole.READER && STRATEGY.equals(strategy);
+  }
+
+  @Override
+  public HostSpec getHostSpecByStrategy(HostRole role, String strategy) throws SQLException {
+    return getHostSpecByStrategy(pluginService.getAllHosts(), role, strategy);
+  }
+
+  @Override
+  public HostSpec getHostSpecByStrategy(List<HostSpec> hosts, HostRole role, String strategy)
+      throws SQLException {
+    if (!acceptsStrategy(role, strategy)) {
+      throw new UnsupportedOperationException(
+          String.format("Unsupported host selection strategy '%s' for role %s", strategy, role));
+    }
+
+    final List<HostSpec> readers = hosts.stream().filter(h -> h.getRole() == role).toList();
+    return latencyTracker
+        .selectHost(readers)
+        .orElseThrow(() -> new SQLException("No healthy reader is available"));
+  }
+}
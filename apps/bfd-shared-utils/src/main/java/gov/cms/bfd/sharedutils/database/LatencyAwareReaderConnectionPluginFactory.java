@@ -0,0 +1,19 @@
+package gov.cms.bfd.sharedutils.database;
+
+import java.util.Properties;
+import software.amazon.jdbc.ConnectionPlugin;
+import software.amazon.jdbc.ConnectionPluginFactory;
+import software.amazon.jdbc.PluginService;
+
+/**
+ * Plugin factory for {@link LatencyAwareReaderConnectionPlugin}. Every plugin shares {@link
+ * ReaderLatencyTracker#getInstance()} so that latencies measured by one connection guide the
+ * others.
+ */
+public class LatencyAwareReaderConnectionPluginFactory implements ConnectionPluginFactory {
+  @Override
+  public ConnectionPlugin getInstance(PluginService pluginService, Properties properties) {
+    return new LatencyAwareReaderConnectionPlugin(
+        pluginService, ReaderLatencyTracker.getInstance());
+  }
+}
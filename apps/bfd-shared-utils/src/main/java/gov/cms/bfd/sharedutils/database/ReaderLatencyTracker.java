@@ -0,0 +1,237 @@
+package gov.cms.bfd.sharedutils.database;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.hostavailability.HostAvailability;
+
+/**
+ * Tracks the query latency of each database host as an exponentially weighted moving average (EWMA)
+ * and uses it to choose which reader a new connection should use. A single instance is shared by
+ * every connection through {@link #getInstance()} since the AWS JDBC Wrapper creates new plugins
+ * for every connection.
+ *
+ * <p>Hosts are chosen using the "power of two choices": two healthy candidates are picked at random
+ * and the one with the lower average latency wins. This sends most new connections to the fastest
+ * readers without piling every connection onto a single reader, which would only make it slow.
+ * Hosts that have not been measured yet are preferred so that their latency becomes known.
+ */
+public class ReaderLatencyTracker {
+  /** Weight given to each new sample by the shared instance. */
+  public static final double DEFAULT_SMOOTHING_FACTOR = 0.2;
+
+  /** Number of consecutive failures after which a host is considered unhealthy. */
+  public static final int DEFAULT_MAX_CONSECUTIVE_FAILURES = 3;
+
+  /** The instance shared by every connection. */
+  private static final ReaderLatencyTracker SHARED =
+      new ReaderLatencyTracker(DEFAULT_SMOOTHING_FACTOR, DEFAULT_MAX_CONSECUTIVE_FAILURES);
+
+  /** Weight given to each new sample, between 0 (exclusive) and 1 (inclusive). */
+  private final double smoothingFactor;
+
+  /** Number of consecutive failures after which a host is considered unhealthy. */
+  private final int maxConsecutiveFailures;
+
+  /** Latency statistics of each host, keyed by host name. */
+  private final ConcurrentMap<String, HostLatency> latencies = new ConcurrentHashMap<>();
+
+  /** Hosts the current thread must not be routed to, used to send hedged queries elsewhere. */
+  private final ThreadLocal<Set<String>> excludedHosts = ThreadLocal.withInitial(Set::of);
+
+  /** Receives the host of each query run by the current thread, if anyone is interested. */
+  private final ThreadLocal<AtomicReference<String>> hostListener = new ThreadLocal<>();
+
+  /**
+   * Latency statistics of one host.
+   *
+   * @param averageNanos EWMA of the query latency in nanoseconds
+   * @param samples number of queries measured
+   * @param consecutiveFailures number of queries that failed since the last success
+   */
+  private record HostLatency(double averageNanos, long samples, int consecutiveFailures) {}
+
+  /**
+   * Initializes an instance.
+   *
+   * @param smoothingFactor weight given to each new sample, between 0 (exclusive) and 1 (inclusive)
+   * @param maxConsecutiveFailures number of consecutive failures after which a host is considered
+   *     unhealthy
+   */
+  public ReaderLatencyTracker(double smoothingFactor, int maxConsecutiveFailures) {
+    Preconditions.checkArgument(
+        smoothingFactor > 0 && smoothingFactor <= 1, "smoothingFactor must be in (0, 1]");
+    Preconditions.checkArgument(
+        maxConsecutiveFailures > 0, "maxConsecutiveFailures must be positive");
+    this.smoothingFactor = smoothingFactor;
+    this.maxConsecutiveFailures = maxConsecutiveFailures;
+  }
+
+  /**
+   * Returns the instance shared by every connection.
+   *
+   * @return the shared instance
+   */
+  public static ReaderLatencyTracker getInstance() {
+    return SHARED;
+  }
+
+  /**
+   * Adds the latency of a successful query to the average of its host and marks the host as
+   * healthy.
+   *
+   * @param host the host that ran the query
+   * @param nanos how long the query took
+   */
+  public void recordLatency(String host, long nanos) {
+    latencies.merge(
+        host,
+        new HostLatency(nanos, 1, 0),
+        (old, sample) ->
+            new HostLatency(
+                old.samples() == 0
+                    ? sample.averageNanos()
+                    : old.averageNanos()
+                        + smoothingFactor * (sample.averageNanos() - old.averageNanos()),
+                old.samples() + 1,
+                0));
+  }
+
+  /**
+   * Records a query that failed on a host. After {@link #maxConsecutiveFailures} failures in a row
+   * the host is avoided until a query on it succeeds again.
+   *
+   * @param host the host that ran the query
+   */
+  public void recordFailure(String host) {
+    latencies.merge(
+        host,
+        new HostLatency(0, 0, 1),
+        (old, sample) ->
+            new HostLatency(old.averageNanos(), old.samples(), old.consecutiveFailures() + 1));
+  }
+
+  /**
+   * Returns the average latency of a host.
+   *
+   * @param host the host
+   * @return the average latency in nanoseconds, or empty if no query on the host has succeeded
+   */
+  public OptionalDouble getAverageLatencyNanos(String host) {
+    final HostLatency latency = latencies.get(host);
+    return latency == null || latency.samples() == 0
+        ? OptionalDouble.empty()
+        : OptionalDouble.of(latency.averageNanos());
+  }
+
+  /**
+   * Determines whether a host can be chosen. Hosts reported as unavailable by the topology, hosts
+   * that failed too many times in a row and hosts excluded for the current thread are not healthy.
+   *
+   * @param host the host
+   * @return true if the host can be chosen
+   */
+  public boolean isHealthy(HostSpec host) {
+    if (host.getAvailability() == HostAvailability.NOT_AVAILABLE
+        || excludedHosts.get().contains(host.getHost())) {
+      return false;
+    }
+    final HostLatency latency = latencies.get(host.getHost());
+    return latency == null || latency.consecutiveFailures() < maxConsecutiveFailures;
+  }
+
+  /**
+   * Chooses a host for a new connection.
+   *
+   * @param hosts the candidates, usually the readers in the current topology
+   * @return the chosen host, or empty if none of the candidates is healthy
+   */
+  public Optional<HostSpec> selectHost(List<HostSpec> hosts) {
+    final List<HostSpec> healthy = hosts.stream().filter(this::isHealthy).toList();
+    if (healthy.size() <= 1) {
+      return healthy.stream().findFirst();
+    }
+    final var random = ThreadLocalRandom.current();
+    final int first = random.nextInt(healthy.size());
+    final int second = (first + 1 + random.nextInt(healthy.size() - 1)) % healthy.size();
+    return Optional.of(faster(healthy.get(first), healthy.get(second)));
+  }
+
+  /**
+   * Runs a query while preventing the current thread from being routed to the given hosts.
+   *
+   * @param hosts hosts to avoid
+   * @param query the query
+   * @param <T> type of the result
+   * @return the result of the query
+   */
+  public <T> T callExcluding(Set<String> hosts, Supplier<T> query) {
+    final Set<String> previous = excludedHosts.get();
+    excludedHosts.set(hosts);
+    try {
+      return query.get();
+    } finally {
+      excludedHosts.set(previous);
+    }
+  }
+
+  /**
+   * Runs a query and reports the host of each statement it executes through the given reference.
+   * Used to find the host a query is stuck on so that a hedged query can avoid it.
+   *
+   * @param queryHost receives the host of each statement
+   * @param query the query
+   * @param <T> type of the result
+   * @return the result of the query
+   */
+  public <T> T callRecordingHost(AtomicReference<String> queryHost, Supplier<T> query) {
+    final AtomicReference<String> previous = hostListener.get();
+    hostListener.set(queryHost);
+    try {
+      return query.get();
+    } finally {
+      hostListener.set(previous);
+    }
+  }
+
+  /**
+   * Called before a statement is executed to report its host to {@link #callRecordingHost}.
+   *
+   * @param host the host the statement is executed on
+   */
+  public void noteQueryHost(String host) {
+    final AtomicReference<String> listener = hostListener.get();
+    if (listener != null) {
+      listener.set(host);
+    }
+  }
+
+  /** Forgets every measurement. */
+  @VisibleForTesting
+  void clear() {
+    latencies.clear();
+  }
+
+  /**
+   * Returns the host with the lower average latency. A host that has not been measured yet is
+   * treated as the fastest.
+   *
+   * @param first the first candidate
+   * @param second the second candidate
+   * @return the faster candidate
+   */
+  private HostSpec faster(HostSpec first, HostSpec second) {
+    final double firstNanos = getAverageLatencyNanos(first.getHost()).orElse(0);
+    final double secondNanos = getAverageLatencyNanos(second.getHost()).orElse(0);
+    return secondNanos < firstNanos ? second : first;
+  }
+}
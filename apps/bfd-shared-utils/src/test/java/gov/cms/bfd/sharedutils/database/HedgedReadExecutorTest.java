@@ -0,0 +1,304 @@
+package gov.cms.bfd.sharedutils.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.jdbc.hostavailability.HostAvailability;
+
+/** Unit tests for {@link HedgedReadExecutor}. */
+class HedgedReadExecutorTest {
+  /** Runs the attempts. */
+  private ExecutorService executor;
+
+  /** Reports and avoids the host of each attempt. */
+  private ReaderLatencyTracker tracker;
+
+  /** The executor being tested. */
+  private HedgedReadExecutor hedgedReadExecutor;
+
+  /** Creates the executor being tested. */
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newCachedThreadPool();
+    tracker = new ReaderLatencyTracker(0.5, 3);
+    hedgedReadExecutor =
+        new HedgedReadExecutor(
+            executor, tracker, Duration.ofMillis(10), HedgedReadExecutor.DEFAULT_WINDOW_SIZE);
+  }
+
+  /** Stops the threads used by the attempts. */
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /** Verifies that no query is hedged until enough latencies are known. */
+  @Test
+  void testExecuteShouldNotHedgeWithoutEnoughSamples() {
+    final var attempts = new AtomicInteger();
+
+    final var result =
+        hedgedReadExecutor.execute(
+            "query",
+            () -> {
+              attempts.incrementAndGet();
+              sleep(50);
+              return "result";
+            });
+
+    assertEquals("result", result);
+    assertEquals(1, attempts.get());
+    assertEquals(0, hedgedReadExecutor.getHedgeCount());
+  }
+
+  /**
+   * Verifies that a query slower than usual is hedged, that the hedge avoids the host of the slow
+   * attempt and that the result of the hedge is returned without waiting for the slow attempt.
+   */
+  @Test
+  void testExecuteShouldReturnHedgeResultWhenPrimaryIsSlow() {
+    warmUp("query");
+    final var attempts = new AtomicInteger();
+    final var hedgeExcludedSlowHost = new AtomicReference<Boolean>();
+    final var releaseSlowAttempt = new CountDownLatch(1);
+
+    final var result =
+        hedgedReadExecutor.execute(
+            "query",
+            () -> {
+              if (attempts.incrementAndGet() == 1) {
+                tracker.noteQueryHost("slow");
+                await(releaseSlowAttempt);
+                return "slow";
+              }
+              hedgeExcludedSlowHost.set(
+                  !tracker.isHealthy(
+                      ReaderLatencyTrackerTest.createHostSpec("slow", HostAvailability.AVAILABLE)));
+              return "fast";
+            });
+    releaseSlowAttempt.countDown();
+
+    assertEquals("fast", result);
+    assertEquals(2, attempts.get());
+    assertTrue(hedgeExcludedSlowHost.get());
+    assertEquals(1, hedgedReadExecutor.getHedgeCount());
+  }
+
+  /**
+   * Verifies that a slow query is not hedged when no permit is available, and that the permit taken
+   * by a hedge is returned once the hedge finishes.
+   *
+   * @throws InterruptedException indicates a test failure
+   */
+  @Test
+  void testExecuteShouldHedgeOnlyWithPermit() throws InterruptedException {
+    warmUp("query");
+    final var attempts = new AtomicInteger();
+    final var permits = new Semaphore(0);
+
+    final var unhedged =
+        hedgedReadExecutor.execute(
+            "query",
+            () -> {
+              attempts.incrementAndGet();
+              sleep(100);
+              return "primary";
+            },
+            permits);
+
+    assertEquals("primary", unhedged);
+    assertEquals(1, attempts.get());
+    assertEquals(0, hedgedReadExecutor.getHedgeCount());
+
+    permits.release();
+    final var hedged =
+        hedgedReadExecutor.execute(
+            "query",
+            () -> {
+              if (attempts.incrementAndGet() == 2) {
+                sleep(100);
+                return "primary";
+              }
+              return "hedge";
+            },
+            permits);
+
+    assertEquals("hedge", hedged);
+    assertEquals(1, hedgedReadExecutor.getHedgeCount());
+    assertTrue(permits.tryAcquire(1, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Verifies that the permit taken by a hedge that wins is held until the slow primary attempt
+   * finishes too, since the primary keeps using its connection after the caller has its result.
+   *
+   * @throws InterruptedException indicates a test failure
+   */
+  @Test
+  void testExecuteShouldHoldPermitUntilLosingAttemptFinishes() throws InterruptedException {
+    warmUp("query");
+    final var attempts = new AtomicInteger();
+    final var permits = new Semaphore(1);
+    final var releaseSlowAttempt = new CountDownLatch(1);
+
+    final var result =
+        hedgedReadExecutor.execute(
+            "query",
+            () -> {
+              if (attempts.incrementAndGet() == 1) {
+                await(releaseSlowAttempt);
+                return "slow";
+              }
+              return "fast";
+            },
+            permits);
+
+    assertEquals("fast", result);
+    assertEquals(0, permits.availablePermits());
+    releaseSlowAttempt.countDown();
+    assertTrue(permits.tryAcquire(1, TimeUnit.SECONDS));
+  }
+
+  /** Verifies that the result of the primary attempt is used when the hedge fails. */
+  @Test
+  void testExecuteShouldReturnPrimaryResultWhenHedgeFails() {
+    warmUp("query");
+    final var attempts = new AtomicInteger();
+
+    final var result =
+        hedgedReadExecutor.execute(
+            "query",
+            () -> {
+              if (attempts.incrementAndGet() == 1) {
+                sleep(100);
+                return "primary";
+              }
+              throw new IllegalStateException("hedge failed");
+            });
+
+    assertEquals("primary", result);
+    assertEquals(1, hedgedReadExecutor.getHedgeCount());
+  }
+
+  /** Verifies that the exception of the primary attempt is thrown when both attempts fail. */
+  @Test
+  void testExecuteShouldThrowPrimaryExceptionWhenBothAttemptsFail() {
+    warmUp("query");
+    final var attempts = new AtomicInteger();
+    final var primaryException = new IllegalStateException("primary failed");
+
+    final var thrown =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                hedgedReadExecutor.execute(
+                    "query",
+                    () -> {
+                      if (attempts.incrementAndGet() == 1) {
+                        sleep(100);
+                        throw primaryException;
+                      }
+                      throw new IllegalStateException("hedge failed");
+                    }));
+
+    assertSame(primaryException, thrown);
+  }
+
+  /** Verifies that a query that fails quickly is not hedged and its exception is rethrown. */
+  @Test
+  void testExecuteShouldRethrowFastFailureWithoutHedging() {
+    warmUp("query");
+    final var exception = new IllegalArgumentException("bad query");
+
+    final var thrown =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                hedgedReadExecutor.execute(
+                    "query",
+                    () -> {
+                      throw exception;
+                    }));
+
+    assertSame(exception, thrown);
+    assertEquals(0, hedgedReadExecutor.getHedgeCount());
+  }
+
+  /** Verifies that a disabled executor runs the query once on the calling thread. */
+  @Test
+  void testDisabledShouldRunQueryOnCallingThread() {
+    final var disabled = HedgedReadExecutor.disabled();
+    final var caller = Thread.currentThread();
+
+    final var result = disabled.execute("query", () -> Thread.currentThread() == caller);
+
+    assertTrue(result);
+    assertEquals(0, disabled.getHedgeCount());
+  }
+
+  /** Verifies that closing the executor shuts down the threads that run the attempts. */
+  @Test
+  void testCloseShouldShutDownExecutor() {
+    hedgedReadExecutor.close();
+
+    assertTrue(executor.isShutdown());
+  }
+
+  /** Verifies that closing a disabled executor does nothing. */
+  @Test
+  void testCloseDisabledShouldDoNothing() {
+    final var disabled = HedgedReadExecutor.disabled();
+
+    disabled.close();
+
+    assertEquals("result", disabled.execute("query", () -> "result"));
+  }
+
+  /**
+   * Runs enough fast queries to enable hedging for a query name.
+   *
+   * @param queryName the query name
+   */
+  private void warmUp(String queryName) {
+    for (int i = 0; i < HedgedReadExecutor.MIN_SAMPLES; i++) {
+      hedgedReadExecutor.execute(queryName, () -> Set.of());
+    }
+  }
+
+  /**
+   * Sleeps without throwing a checked exception.
+   *
+   * @param millis how long to sleep
+   */
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * Waits for a latch without throwing a checked exception.
+   *
+   * @param latch the latch
+   */
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package gov.cms.bfd.sharedutils.database;
+
+import static gov.cms.bfd.sharedutils.database.ReaderLatencyTrackerTest.createHostSpec;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.jdbc.HostRole;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.HostSpecBuilder;
+import software.amazon.jdbc.JdbcCallable;
+import software.amazon.jdbc.PluginService;
+import software.amazon.jdbc.hostavailability.HostAvailability;
+import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+
+/** Unit tests for {@link LatencyAwareReaderConnectionPlugin}. */
+@ExtendWith(MockitoExtension.class)
+class LatencyAwareReaderConnectionPluginTest {
+  /** {@link HostSpec} representing the Writer node. */
+  private static final HostSpec WRITER =
+      new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+          .host("writer")
+          .role(HostRole.WRITER)
+          .build();
+
+  /** {@link HostSpec} representing a fast Reader node. */
+  private static final HostSpec FAST_READER = createHostSpec("fast", HostAvailability.AVAILABLE);
+
+  /** {@link HostSpec} representing a slow Reader node. */
+  private static final HostSpec SLOW_READER = createHostSpec("slow", HostAvailability.AVAILABLE);
+
+  /**
+   * Mock used to mock the {@code jdbcMethodFunc} of {@link
+   * LatencyAwareReaderConnectionPlugin#execute}.
+   *
+   * @implNote @Mock is used instead of mock() to support generics
+   */
+  @Mock private JdbcCallable<ResultSet, SQLException> mockQueryFunc;
+
+  /** Verifies that the latency of queries on a reader is recorded. */
+  @Test
+  void testExecuteShouldRecordReaderLatency() throws SQLException {
+    // Arrange
+    final var mockPluginService = mock(PluginService.class);
+    final var tracker = new ReaderLatencyTracker(0.5, 3);
+    final var plugin = new LatencyAwareReaderConnectionPlugin(mockPluginService, tracker);
+    final var mockResultSet = mock(ResultSet.class);
+    when(mockPluginService.getCurrentHostSpec()).thenReturn(FAST_READER);
+    when(mockQueryFunc.call()).thenReturn(mockResultSet);
+
+    // Act
+    final var result =
+        plugin.execute(
+            ResultSet.class,
+            SQLException.class,
+            null,
+            "Statement.executeQuery",
+            mockQueryFunc,
+            new Object[0]);
+
+    // Assert
+    assertSame(mockResultSet, result);
+    assertTrue(tracker.getAverageLatencyNanos("fast").isPresent());
+  }
+
+  /** Verifies that failed queries on a reader count towards marking it unhealthy. */
+  @Test
+  void testExecuteShouldRecordReaderFailure() throws SQLException {
+    // Arrange
+    final var mockPluginService = mock(PluginService.class);
+    final var tracker = new ReaderLatencyTracker(0.5, 1);
+    final var plugin = new LatencyAwareReaderConnectionPlugin(mockPluginService, tracker);
+    final var exception = new SQLException("failed");
+    when(mockPluginService.getCurrentHostSpec()).thenReturn(FAST_READER);
+    when(mockQueryFunc.call()).thenThrow(exception);
+
+    // Act
+    final var thrown =
+        assertThrows(
+            SQLException.class,
+            () ->
+                plugin.execute(
+                    ResultSet.class,
+                    SQLException.class,
+                    null,
+                    "Statement.executeQuery",
+                    mockQueryFunc,
+                    new Object[0]));
+
+    // Assert
+    assertSame(exception, thrown);
+    assertFalse(tracker.isHealthy(FAST_READER));
+  }
+
+  /** Verifies that queries on the writer are not measured. */
+  @Test
+  void testExecuteShouldIgnoreWriter() throws SQLException {
+    // Arrange
+    final var mockPluginService = mock(PluginService.class);
+    final var tracker = new ReaderLatencyTracker(0.5, 3);
+    final var plugin = new LatencyAwareReaderConnectionPlugin(mockPluginService, tracker);
+    when(mockPluginService.getCurrentHostSpec()).thenReturn(WRITER);
+    when(mockQueryFunc.call()).thenReturn(mock(ResultSet.class));
+
+    // Act
+    plugin.execute(
+        ResultSet.class,
+        SQLException.class,
+        null,
+        "Statement.executeQuery",
+        mockQueryFunc,
+        new Object[0]);
+
+    // Assert
+    assertTrue(tracker.getAverageLatencyNanos("writer").isEmpty());
+  }
+
+  /** Verifies that only the latency-aware strategy for readers is accepted. */
+  @Test
+  void testAcceptsStrategyShouldOnlyAcceptLatencyAwareReaders() {
+    final var plugin =
+        new LatencyAwareReaderConnectionPlugin(
+            mock(PluginService.class), new ReaderLatencyTracker(0.5, 3));
+
+    assertTrue(
+        plugin.acceptsStrategy(HostRole.READER, LatencyAwareReaderConnectionPlugin.STRATEGY));
+    assertFalse(
+        plugin.acceptsStrategy(HostRole.WRITER, LatencyAwareReaderConnectionPlugin.STRATEGY));
+    assertFalse(plugin.acceptsStrategy(HostRole.READER, "roundRobin"));
+  }
+
+  /** Verifies that the faster reader of the topology is selected. */
+  @Test
+  void testGetHostSpecByStrategyShouldSelectFasterReader() throws SQLException {
+    // Arrange
+    final var mockPluginService = mock(PluginService.class);
+    final var tracker = new ReaderLatencyTracker(0.5, 3);
+    final var plugin = new LatencyAwareReaderConnectionPlugin(mockPluginService, tracker);
+    tracker.recordLatency("fast", 1_000);
+    tracker.recordLatency("slow", 50_000);
+    when(mockPluginService.getAllHosts()).thenReturn(List.of(WRITER, SLOW_READER, FAST_READER));
+
+    // Act
+    final var host =
+        plugin.getHostSpecByStrategy(HostRole.READER, LatencyAwareReaderConnectionPlugin.STRATEGY);
+
+    // Assert
+    assertSame(FAST_READER, host);
+  }
+
+  /** Verifies that an exception is thrown when no reader is healthy. */
+  @Test
+  void testGetHostSpecByStrategyShouldThrowWhenNoReaderIsHealthy() {
+    final var plugin =
+        new LatencyAwareReaderConnectionPlugin(
+            mock(PluginService.class), new ReaderLatencyTracker(0.5, 3));
+
+    assertThrows(
+        SQLException.class,
+        () ->
+            plugin.getHostSpecByStrategy(
+                List.of(WRITER), HostRole.READER, LatencyAwareReaderConnectionPlugin.STRATEGY));
+  }
+}
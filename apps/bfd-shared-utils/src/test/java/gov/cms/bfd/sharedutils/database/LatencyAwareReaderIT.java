@@ -0,0 +1,230 @@
+package gov.cms.bfd.sharedutils.database;
+
+import static gov.cms.bfd.DatabaseTestUtils.TEST_CONTAINER_DATABASE_IMAGE_DEFAULT;
+import static gov.cms.bfd.DatabaseTestUtils.TEST_CONTAINER_DATABASE_IMAGE_PROPERTY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+import software.amazon.jdbc.HostRole;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.PluginService;
+import software.amazon.jdbc.hostavailability.HostAvailability;
+
+/**
+ * Integration tests for {@link LatencyAwareReaderConnectionPlugin} and {@link HedgedReadExecutor}.
+ * Two PostgreSQL containers stand in for the readers of an Aurora cluster. Both define the same
+ * {@code reader_name} function but the one on the slow reader sleeps when asked to, so the same
+ * query is slow on one reader and fast on the other.
+ */
+class LatencyAwareReaderIT {
+  /** How long the slow reader takes to answer a slow query. */
+  private static final Duration SLOW_QUERY_DURATION = Duration.ofSeconds(3);
+
+  /** The query run on the readers, returns the name of the reader. */
+  private static final String QUERY = "SELECT reader_name(?)";
+
+  /** The fast reader. */
+  private static PostgreSQLContainer<?> fastReader;
+
+  /** The slow reader. */
+  private static PostgreSQLContainer<?> slowReader;
+
+  /** The readers, keyed by the host name used in their {@link HostSpec}. */
+  private static Map<String, PostgreSQLContainer<?>> readersByHost;
+
+  /** Topology of the readers. */
+  private static final List<HostSpec> READERS =
+      List.of(
+          ReaderLatencyTrackerTest.createHostSpec("fast", HostAvailability.AVAILABLE),
+          ReaderLatencyTrackerTest.createHostSpec("slow", HostAvailability.AVAILABLE));
+
+  /** The host each thread is connected to, reported to the plugin by the plugin service. */
+  private final ThreadLocal<HostSpec> currentHost = new ThreadLocal<>();
+
+  /** Runs the hedged attempts. */
+  private ExecutorService executor;
+
+  /** Tracks the latency of the readers, uses the latest sample only to keep tests predictable. */
+  private ReaderLatencyTracker tracker;
+
+  /** The plugin being tested. */
+  private LatencyAwareReaderConnectionPlugin plugin;
+
+  /** Starts the readers and defines the query on each of them. */
+  @BeforeAll
+  static void startReaders() throws SQLException {
+    fastReader = startReader();
+    slowReader = startReader();
+    defineQuery(fastReader, "SELECT 'fast'");
+    defineQuery(
+        slowReader,
+        String.format(
+            "SELECT 'slow' FROM (SELECT pg_sleep(CASE WHEN slow THEN %d ELSE 0 END)) AS s",
+            SLOW_QUERY_DURATION.toSeconds()));
+    readersByHost = Map.of("fast", fastReader, "slow", slowReader);
+  }
+
+  /** Stops the readers. */
+  @AfterAll
+  static void stopReaders() {
+    fastReader.stop();
+    slowReader.stop();
+  }
+
+  /** Creates the plugin being tested. */
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newCachedThreadPool();
+    tracker = new ReaderLatencyTracker(1, 3);
+    final var mockPluginService = mock(PluginService.class);
+    when(mockPluginService.getCurrentHostSpec()).thenAnswer(invocation -> currentHost.get());
+    plugin = new LatencyAwareReaderConnectionPlugin(mockPluginService, tracker);
+  }
+
+  /** Stops the threads used by the hedged attempts. */
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /** Verifies that once both readers have been measured, queries are routed to the fast one. */
+  @Test
+  void testQueriesShouldBeRoutedToFastReader() throws SQLException {
+    final List<String> readers = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      readers.add(query(true));
+    }
+
+    assertTrue(readers.contains("slow"), "the unmeasured slow reader should be tried");
+    assertEquals(List.of("fast", "fast", "fast"), readers.subList(7, 10));
+    assertTrue(
+        tracker.getAverageLatencyNanos("slow").orElseThrow()
+            >= SLOW_QUERY_DURATION.toNanos() * 0.9);
+  }
+
+  /**
+   * Verifies that a query stuck on the slow reader is hedged on the fast reader, which provides the
+   * result long before the slow reader answers.
+   */
+  @Test
+  void testHedgedQueryShouldReturnResultOfFastReader() {
+    final var hedgedReadExecutor =
+        new HedgedReadExecutor(
+            executor, tracker, Duration.ofMillis(50), HedgedReadExecutor.DEFAULT_WINDOW_SIZE);
+    for (int i = 0; i < HedgedReadExecutor.MIN_SAMPLES; i++) {
+      hedgedReadExecutor.execute("reader_name", () -> uncheckedQuery(false));
+    }
+    // Make the fast reader look slow so that the next query is routed to the slow reader.
+    tracker.recordLatency("fast", Duration.ofMinutes(1).toNanos());
+
+    final long startNanos = System.nanoTime();
+    final var reader = hedgedReadExecutor.execute("reader_name", () -> uncheckedQuery(true));
+    final var elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+    assertEquals("fast", reader);
+    assertEquals(1, hedgedReadExecutor.getHedgeCount());
+    assertTrue(elapsed.compareTo(SLOW_QUERY_DURATION) < 0, "took " + elapsed);
+  }
+
+  /**
+   * Chooses a reader using the plugin and runs the query on it through the plugin, as the AWS JDBC
+   * Wrapper would.
+   *
+   * @param slow whether the slow reader should be slow
+   * @return the name of the reader that answered
+   * @throws SQLException if the query fails
+   */
+  private String query(boolean slow) throws SQLException {
+    final var host =
+        plugin.getHostSpecByStrategy(
+            READERS, HostRole.READER, LatencyAwareReaderConnectionPlugin.STRATEGY);
+    final var reader = readersByHost.get(host.getHost());
+    currentHost.set(host);
+    try (var connection =
+            DriverManager.getConnection(
+                reader.getJdbcUrl(), reader.getUsername(), reader.getPassword());
+        var statement = connection.prepareStatement(QUERY)) {
+      statement.setBoolean(1, slow);
+      try (var resultSet =
+          plugin.execute(
+              ResultSet.class,
+              SQLException.class,
+              statement,
+              "PreparedStatement.executeQuery",
+              statement::executeQuery,
+              new Object[0])) {
+        resultSet.next();
+        return resultSet.getString(1);
+      }
+    } finally {
+      currentHost.remove();
+    }
+  }
+
+  /**
+   * Calls {@link #query} from a {@link java.util.function.Supplier}.
+   *
+   * @param slow whether the slow reader should be slow
+   * @return the name of the reader that answered
+   */
+  private String uncheckedQuery(boolean slow) {
+    try {
+      return query(slow);
+    } catch (SQLException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * Starts a PostgreSQL container.
+   *
+   * @return the container
+   */
+  private static PostgreSQLContainer<?> startReader() {
+    final String image =
+        System.getProperty(
+            TEST_CONTAINER_DATABASE_IMAGE_PROPERTY, TEST_CONTAINER_DATABASE_IMAGE_DEFAULT);
+    final PostgreSQLContainer<?> container =
+        new PostgreSQLContainer<>(
+                DockerImageName.parse(image).asCompatibleSubstituteFor("postgres"))
+            .waitingFor(Wait.forListeningPort());
+    container.start();
+    return container;
+  }
+
+  /**
+   * Defines the {@code reader_name} function on a reader.
+   *
+   * @param reader the reader
+   * @param body the body of the function, may refer to the {@code slow} parameter
+   * @throws SQLException if the function cannot be created
+   */
+  private static void defineQuery(PostgreSQLContainer<?> reader, String body) throws SQLException {
+    try (var connection =
+            DriverManager.getConnection(
+                reader.getJdbcUrl(), reader.getUsername(), reader.getPassword());
+        var statement = connection.createStatement()) {
+      statement.execute(
+          String.format(
+              "CREATE FUNCTION reader_name(slow BOOLEAN) RETURNS TEXT LANGUAGE SQL AS $$ %s $$",
+              body));
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package gov.cms.bfd.sharedutils.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import software.amazon.jdbc.HostRole;
+import software.amazon.jdbc.HostSpec;
+import software.amazon.jdbc.HostSpecBuilder;
+import software.amazon.jdbc.hostavailability.HostAvailability;
+import software.amazon.jdbc.hostavailability.SimpleHostAvailabilityStrategy;
+
+/** Unit tests for {@link ReaderLatencyTracker}. */
+class ReaderLatencyTrackerTest {
+  /** {@link HostSpec} representing an available fast Reader node. */
+  private static final HostSpec FAST_READER = createHostSpec("fast", HostAvailability.AVAILABLE);
+
+  /** {@link HostSpec} representing an available slow Reader node. */
+  private static final HostSpec SLOW_READER = createHostSpec("slow", HostAvailability.AVAILABLE);
+
+  /** {@link HostSpec} representing an unavailable Reader node. */
+  private static final HostSpec DOWN_READER =
+      createHostSpec("down", HostAvailability.NOT_AVAILABLE);
+
+  /** Verifies that the first sample sets the average and later samples are smoothed into it. */
+  @Test
+  void testRecordLatencyShouldComputeExponentiallyWeightedAverage() {
+    final var tracker = new ReaderLatencyTracker(0.5, 3);
+
+    tracker.recordLatency("fast", 100);
+    tracker.recordLatency("fast", 200);
+    tracker.recordLatency("fast", 400);
+
+    assertEquals(275.0, tracker.getAverageLatencyNanos("fast").orElseThrow());
+    assertTrue(tracker.getAverageLatencyNanos("slow").isEmpty());
+  }
+
+  /**
+   * Verifies that a host is unhealthy after the maximum number of consecutive failures and healthy
+   * again once a query on it succeeds.
+   */
+  @Test
+  void testIsHealthyShouldTrackConsecutiveFailures() {
+    final var tracker = new ReaderLatencyTracker(0.5, 2);
+
+    tracker.recordFailure("fast");
+    assertTrue(tracker.isHealthy(FAST_READER));
+    tracker.recordFailure("fast");
+    assertFalse(tracker.isHealthy(FAST_READER));
+    tracker.recordLatency("fast", 100);
+    assertTrue(tracker.isHealthy(FAST_READER));
+  }
+
+  /** Verifies that unavailable hosts are never selected. */
+  @Test
+  void testSelectHostShouldSkipUnavailableHosts() {
+    final var tracker = new ReaderLatencyTracker(0.5, 3);
+
+    assertEquals(Optional.of(FAST_READER), tracker.selectHost(List.of(DOWN_READER, FAST_READER)));
+    assertEquals(Optional.empty(), tracker.selectHost(List.of(DOWN_READER)));
+  }
+
+  /** Verifies that the faster of two hosts is always selected when only two are available. */
+  @Test
+  void testSelectHostShouldPreferFasterHost() {
+    final var tracker = new ReaderLatencyTracker(0.5, 3);
+    tracker.recordLatency("fast", 1_000);
+    tracker.recordLatency("slow", 50_000);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(Optional.of(FAST_READER), tracker.selectHost(List.of(SLOW_READER, FAST_READER)));
+    }
+  }
+
+  /**
+   * Verifies that the slowest of several hosts is never selected while every other host still
+   * receives connections, so that the fastest host is not overwhelmed.
+   */
+  @Test
+  void testSelectHostShouldSpreadConnectionsOverFasterHosts() {
+    final var tracker = new ReaderLatencyTracker(0.5, 3);
+    final var medium = createHostSpec("medium", HostAvailability.AVAILABLE);
+    tracker.recordLatency("fast", 1_000);
+    tracker.recordLatency("medium", 2_000);
+    tracker.recordLatency("slow", 50_000);
+
+    final Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < 1_000; i++) {
+      final var host = tracker.selectHost(List.of(FAST_READER, medium, SLOW_READER)).orElseThrow();
+      counts.merge(host.getHost(), 1, Integer::sum);
+    }
+
+    assertNull(counts.get("slow"));
+    assertTrue(counts.get("fast") > counts.get("medium"));
+    assertTrue(counts.get("medium") > 0);
+  }
+
+  /** Verifies that hosts excluded for the current thread are only skipped within the call. */
+  @Test
+  void testCallExcludingShouldSkipExcludedHostsWithinCall() {
+    final var tracker = new ReaderLatencyTracker(0.5, 3);
+    tracker.recordLatency("fast", 1_000);
+    tracker.recordLatency("slow", 50_000);
+    final var readers = List.of(FAST_READER, SLOW_READER);
+
+    final var selected = tracker.callExcluding(Set.of("fast"), () -> tracker.selectHost(readers));
+
+    assertEquals(Optional.of(SLOW_READER), selected);
+    assertEquals(Optional.of(FAST_READER), tracker.selectHost(readers));
+  }
+
+  /** Verifies that query hosts are only reported to the listener within the call. */
+  @Test
+  void testCallRecordingHostShouldReportQueryHostWithinCall() {
+    final var tracker = new ReaderLatencyTracker(0.5, 3);
+    final var queryHost = new AtomicReference<String>();
+
+    final var result =
+        tracker.callRecordingHost(
+            queryHost,
+            () -> {
+              tracker.noteQueryHost("fast");
+              return "result";
+            });
+    tracker.noteQueryHost("slow");
+
+    assertEquals("result", result);
+    assertEquals("fast", queryHost.get());
+  }
+
+  /**
+   * Creates a {@link HostSpec} for a Reader node.
+   *
+   * @param host host name
+   * @param availability availability of the host
+   * @return the {@link HostSpec}
+   */
+  static HostSpec createHostSpec(String host, HostAvailability availability) {
+    return new HostSpecBuilder(new SimpleHostAvailabilityStrategy())
+        .host(host)
+        .role(HostRole.READER)
+        .availability(availability)
+        .build();
+  }
+}